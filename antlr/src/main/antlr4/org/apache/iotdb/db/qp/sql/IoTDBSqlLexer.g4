@@ -613,7 +613,19 @@ TEXT
 // Encoding Type Keywords
 
 ENCODING_VALUE
-    : DICTIONARY | DIFF | GORILLA | PLAIN | REGULAR | RLE | TS_2DIFF
+    : ALP | AUTO | CHIMP | DICTIONARY | DIFF | GORILLA | PLAIN | REGULAR | RLE | TS_2DIFF
+    ;
+
+ALP
+    : A L P
+    ;
+
+AUTO
+    : A U T O
+    ;
+
+CHIMP
+    : C H I M P
     ;
 
 DICTIONARY
@@ -648,7 +660,7 @@ TS_2DIFF
 // Compressor Type Keywords
 
 COMPRESSOR_VALUE
-    : GZIP | LZ4 | SNAPPY | UNCOMPRESSED
+    : GZIP | LZ4 | LZ4HC | SNAPPY | UNCOMPRESSED | ZSTD
     ;
 
 GZIP
@@ -659,6 +671,10 @@ LZ4
     : L Z '4'
     ;
 
+LZ4HC
+    : L Z '4' H C
+    ;
+
 SNAPPY
     : S N A P P Y
     ;
@@ -667,6 +683,10 @@ UNCOMPRESSED
     : U N C O M P R E S S E D
     ;
 
+ZSTD
+    : Z S T D
+    ;
+
 
 // Privileges Keywords
 
@@ -321,10 +321,10 @@ intoPath
 
 specialClause
     : specialLimit #specialLimitStatement
-    | orderByTimeClause specialLimit? #orderByTimeStatement
-    | groupByTimeClause orderByTimeClause? specialLimit? #groupByTimeStatement
-    | groupByFillClause orderByTimeClause? specialLimit? #groupByFillStatement
-    | groupByLevelClause orderByTimeClause? specialLimit? #groupByLevelStatement
+    | orderByClause specialLimit? #orderByStatement
+    | groupByTimeClause orderByClause? specialLimit? #groupByTimeStatement
+    | groupByFillClause orderByClause? specialLimit? #groupByFillStatement
+    | groupByLevelClause orderByClause? specialLimit? #groupByLevelStatement
     | fillClause slimitClause? alignByDeviceClauseOrDisableAlign? #fillStatement
     ;
 
@@ -349,8 +349,9 @@ disableAlign
     : DISABLE ALIGN
     ;
 
-orderByTimeClause
+orderByClause
     : ORDER BY TIME (DESC | ASC)?
+    | ORDER BY sortKey=expression (DESC | ASC)?
     ;
 
 groupByTimeClause
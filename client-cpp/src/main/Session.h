@@ -100,7 +100,7 @@ public:
 
 namespace CompressionType {
     enum CompressionType {
-        UNCOMPRESSED, SNAPPY, GZIP, LZO, SDT, PAA, PLA, LZ4
+        UNCOMPRESSED, SNAPPY, GZIP, LZO, SDT, PAA, PLA, LZ4, ZSTD, LZ4HC
     };
 }
 namespace TSDataType {
@@ -118,7 +118,10 @@ namespace TSEncoding {
         BITMAP = 5,
         GORILLA_V1 = 6,
         REGULAR = 7,
-        GORILLA = 8
+        GORILLA = 8,
+        CHIMP = 9,
+        ALP = 10,
+        AUTO = 11
     };
 }
 namespace TSStatusCode {
@@ -45,6 +45,9 @@ class TSEncoding(Enum):
     GORILLA_V1 = 6
     REGULAR = 7
     GORILLA = 8
+    CHIMP = 9
+    ALP = 10
+    AUTO = 11
 
     # this method is implemented to avoid the issue reported by:
     # https://bugs.python.org/issue30545
@@ -62,6 +65,8 @@ class Compressor(Enum):
     PAA = 5
     PLA = 6
     LZ4 = 7
+    ZSTD = 8
+    LZ4HC = 9
 
     # this method is implemented to avoid the issue reported by:
     # https://bugs.python.org/issue30545
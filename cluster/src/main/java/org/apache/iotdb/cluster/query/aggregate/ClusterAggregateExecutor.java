@@ -86,6 +86,12 @@ public class ClusterAggregateExecutor extends AggregationExecutor {
     }
   }
 
+  @Override
+  protected int getParallelism() {
+    // the remote query context records the queried nodes without synchronization
+    return 1;
+  }
+
   @Override
   protected TimeGenerator getTimeGenerator(QueryContext context, RawDataQueryPlan rawDataQueryPlan)
       throws StorageEngineException {
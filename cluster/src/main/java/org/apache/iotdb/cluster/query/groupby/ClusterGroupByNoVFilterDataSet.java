@@ -47,6 +47,12 @@ public class ClusterGroupByNoVFilterDataSet extends GroupByWithoutValueFilterDat
     this.metaGroupMember = metaGroupMember;
   }
 
+  @Override
+  protected int getParallelism(QueryContext context) {
+    // the remote query context records the queried nodes without synchronization
+    return 1;
+  }
+
   @Override
   protected GroupByExecutor getGroupByExecutor(
       PartialPath path,
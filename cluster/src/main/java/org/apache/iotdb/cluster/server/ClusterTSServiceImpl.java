@@ -83,6 +83,12 @@ public class ClusterTSServiceImpl extends TSServiceImpl {
     return coordinator.executeNonQueryPlan(plan);
   }
 
+  /** The plans are kept in the raft logs after the rpc returns, so they must own their columns. */
+  @Override
+  protected boolean keepTabletColumnViews() {
+    return false;
+  }
+
   /**
    * Generate and cache a QueryContext using "queryId". In the distributed version, the QueryContext
    * is a RemoteQueryContext.
@@ -29,7 +29,9 @@ public class TSFileConfigUtil {
     TSFileConfig globalConfig = TSFileDescriptor.getInstance().getConfig();
 
     globalConfig.setBatchSize(config.getBatchSize());
+    globalConfig.setBloomFilterBlockSeriesNum(config.getBloomFilterBlockSeriesNum());
     globalConfig.setBloomFilterErrorRate(config.getBloomFilterErrorRate());
+    globalConfig.setChunkMetadataMemoryBudgetInByte(config.getChunkMetadataMemoryBudgetInByte());
     globalConfig.setCompressor(config.getCompressor().toString());
     globalConfig.setCoreSitePath(config.getCoreSitePath());
     globalConfig.setDeltaBlockSize(config.getDeltaBlockSize());
@@ -38,6 +40,8 @@ public class TSFileConfigUtil {
     globalConfig.setDfsHaNamenodes(config.getDfsHaNamenodes());
     globalConfig.setDfsNameServices(config.getDfsNameServices());
     globalConfig.setDftSatisfyRate(config.getDftSatisfyRate());
+    globalConfig.setEnableMMapRead(config.isEnableMMapRead());
+    globalConfig.setEnablePageBloomFilter(config.isEnablePageBloomFilter());
     globalConfig.setEndian(config.getEndian());
     globalConfig.setFloatPrecision(config.getFloatPrecision());
     globalConfig.setFreqType(config.getFreqType());
@@ -47,9 +51,12 @@ public class TSFileConfigUtil {
     globalConfig.setHdfsSitePath(config.getHdfsSitePath());
     globalConfig.setKerberosKeytabFilePath(config.getKerberosKeytabFilePath());
     globalConfig.setKerberosPrincipal(config.getKerberosPrincipal());
+    globalConfig.setLz4HcCompressionLevel(config.getLz4HcCompressionLevel());
     globalConfig.setMaxNumberOfPointsInPage(config.getMaxNumberOfPointsInPage());
     globalConfig.setMaxDegreeOfIndexNode(config.getMaxDegreeOfIndexNode());
     globalConfig.setMaxStringLength(config.getMaxStringLength());
+    globalConfig.setMmapReadBudgetInByte(config.getMmapReadBudgetInByte());
+    globalConfig.setPageBloomFilterErrorRate(config.getPageBloomFilterErrorRate());
     globalConfig.setPageCheckSizeThreshold(config.getPageCheckSizeThreshold());
     globalConfig.setPageSizeInByte(config.getPageSizeInByte());
     globalConfig.setPlaMaxError(config.getPlaMaxError());
@@ -60,5 +67,6 @@ public class TSFileConfigUtil {
     globalConfig.setTSFileStorageFs(config.getTSFileStorageFs());
     globalConfig.setUseKerberos(config.isUseKerberos());
     globalConfig.setValueEncoder(config.getValueEncoder());
+    globalConfig.setZstdCompressionLevel(config.getZstdCompressionLevel());
   }
 }
@@ -40,7 +40,9 @@ public class TSFileConfigUtilCompletenessTest {
   public void testTSFileConfigUtilCompleteness() {
     String[] addedSetters = {
       "setBatchSize",
+      "setBloomFilterBlockSeriesNum",
       "setBloomFilterErrorRate",
+      "setChunkMetadataMemoryBudgetInByte",
       "setCompressor",
       "setCoreSitePath",
       "setDeltaBlockSize",
@@ -49,6 +51,8 @@ public class TSFileConfigUtilCompletenessTest {
       "setDfsHaNamenodes",
       "setDfsNameServices",
       "setDftSatisfyRate",
+      "setEnableMMapRead",
+      "setEnablePageBloomFilter",
       "setEndian",
       "setFloatPrecision",
       "setFreqType",
@@ -58,9 +62,12 @@ public class TSFileConfigUtilCompletenessTest {
       "setHdfsSitePath",
       "setKerberosKeytabFilePath",
       "setKerberosPrincipal",
+      "setLz4HcCompressionLevel",
       "setMaxNumberOfPointsInPage",
       "setMaxDegreeOfIndexNode",
       "setMaxStringLength",
+      "setMmapReadBudgetInByte",
+      "setPageBloomFilterErrorRate",
       "setPageCheckSizeThreshold",
       "setPageSizeInByte",
       "setPlaMaxError",
@@ -70,7 +77,8 @@ public class TSFileConfigUtilCompletenessTest {
       "setTimeSeriesDataType",
       "setTSFileStorageFs",
       "setUseKerberos",
-      "setValueEncoder"
+      "setValueEncoder",
+      "setZstdCompressionLevel"
     };
     Set<String> newSetters =
         Arrays.stream(TSFileConfig.class.getMethods())
@@ -0,0 +1,155 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+
+package org.apache.iotdb.db.benchmark;
+
+import org.apache.iotdb.db.conf.IoTDBConfig;
+import org.apache.iotdb.db.conf.IoTDBDescriptor;
+import org.apache.iotdb.db.engine.StorageEngine;
+import org.apache.iotdb.db.exception.StorageEngineException;
+import org.apache.iotdb.db.exception.metadata.MetadataException;
+import org.apache.iotdb.db.metadata.path.PartialPath;
+import org.apache.iotdb.db.qp.physical.crud.InsertRowPlan;
+import org.apache.iotdb.db.service.IoTDB;
+import org.apache.iotdb.db.utils.EnvironmentUtils;
+import org.apache.iotdb.tsfile.common.conf.TSFileDescriptor;
+import org.apache.iotdb.tsfile.common.constant.TsFileConstant;
+import org.apache.iotdb.tsfile.file.metadata.enums.TSDataType;
+import org.apache.iotdb.tsfile.file.metadata.enums.TSEncoding;
+import org.apache.iotdb.tsfile.write.record.TSRecord;
+import org.apache.iotdb.tsfile.write.record.datapoint.LongDataPoint;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Insertion of one storage group by a number of threads, each writing its own devices, with and
+ * without enable_concurrent_memtable_insert. An operation inserts {@link #ROW_NUM_PER_OP} rows of
+ * every device, i.e., 160,000 points.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class ConcurrentInsertBenchmark {
+
+  private static final int DEVICE_NUM = 16;
+  private static final int MEASUREMENT_NUM = 10;
+  private static final int ROW_NUM_PER_OP = 1000;
+  private static final String STORAGE_GROUP = "root.bench";
+
+  @Param({"false", "true"})
+  public boolean concurrentMemTableInsert;
+
+  @Param({"1", "2", "4", "8", "16"})
+  public int workerNum;
+
+  private final IoTDBConfig config = IoTDBDescriptor.getInstance().getConfig();
+  private boolean originConcurrentMemTableInsert;
+  private final String[] devices = new String[DEVICE_NUM];
+  private final String[] measurements = new String[MEASUREMENT_NUM];
+  private ExecutorService workers;
+  private long time = 0;
+
+  @Setup
+  public void setUp() throws MetadataException {
+    originConcurrentMemTableInsert = config.isEnableConcurrentMemTableInsert();
+    config.setEnableConcurrentMemTableInsert(concurrentMemTableInsert);
+    EnvironmentUtils.envSetUp();
+    IoTDB.metaManager.setStorageGroup(new PartialPath(STORAGE_GROUP));
+    for (int i = 0; i < MEASUREMENT_NUM; i++) {
+      measurements[i] = "measurement_" + i;
+    }
+    for (int i = 0; i < DEVICE_NUM; i++) {
+      devices[i] = STORAGE_GROUP + TsFileConstant.PATH_SEPARATOR + "device_" + i;
+      for (String measurement : measurements) {
+        IoTDB.metaManager.createTimeseries(
+            new PartialPath(devices[i] + TsFileConstant.PATH_SEPARATOR + measurement),
+            TSDataType.INT64,
+            TSEncoding.PLAIN,
+            TSFileDescriptor.getInstance().getConfig().getCompressor(),
+            Collections.emptyMap());
+      }
+    }
+    workers = Executors.newFixedThreadPool(workerNum);
+  }
+
+  @TearDown
+  public void tearDown() throws IOException, StorageEngineException {
+    workers.shutdownNow();
+    EnvironmentUtils.cleanEnv();
+    config.setEnableConcurrentMemTableInsert(originConcurrentMemTableInsert);
+  }
+
+  @Benchmark
+  public void insert() throws ExecutionException, InterruptedException {
+    long startTime = time;
+    time += ROW_NUM_PER_OP;
+    List<Future<Void>> futures = new ArrayList<>(workerNum);
+    for (int i = 0; i < workerNum; i++) {
+      int workerIndex = i;
+      futures.add(
+          workers.submit(
+              () -> {
+                insertRows(workerIndex, startTime);
+                return null;
+              }));
+    }
+    for (Future<Void> future : futures) {
+      future.get();
+    }
+  }
+
+  /** worker i writes device i, i + workerNum, ... */
+  private void insertRows(int workerIndex, long startTime)
+      throws StorageEngineException, MetadataException {
+    for (long timestamp = startTime; timestamp < startTime + ROW_NUM_PER_OP; timestamp++) {
+      for (int d = workerIndex; d < DEVICE_NUM; d += workerNum) {
+        TSRecord record = new TSRecord(timestamp, devices[d]);
+        for (String measurement : measurements) {
+          record.addTuple(new LongDataPoint(measurement, timestamp));
+        }
+        StorageEngine.getInstance().insert(new InsertRowPlan(record));
+      }
+    }
+  }
+}
@@ -0,0 +1,134 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.iotdb.db.benchmark;
+
+import org.apache.iotdb.db.query.dataset.DirectAlignByTimeDataSet;
+import org.apache.iotdb.db.query.dataset.TSQueryDataSetBuilder;
+import org.apache.iotdb.db.utils.QueryDataSetUtils;
+import org.apache.iotdb.service.rpc.thrift.TSQueryDataSet;
+import org.apache.iotdb.tsfile.file.metadata.enums.TSDataType;
+import org.apache.iotdb.tsfile.read.common.RowRecord;
+import org.apache.iotdb.tsfile.read.query.dataset.QueryDataSet;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Fetching the results of a query, with the rows converted by {@link
+ * QueryDataSetUtils#convertQueryDataSetByFetchSize} and with the values written into the columns
+ * directly like a {@link DirectAlignByTimeDataSet}. An operation fetches {@link #fetchSize} rows of
+ * INT64 and DOUBLE columns. Run it with {@code -prof gc} to see the heap allocation per operation.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class FetchResultsAllocationBenchmark {
+
+  @Param({"false", "true"})
+  public boolean direct;
+
+  @Param({"10"})
+  public int numOfColumn;
+
+  @Param({"5000"})
+  public int fetchSize;
+
+  private QueryDataSet dataSet;
+  private long time = 0;
+
+  /** a dataset generating rows of INT64 and DOUBLE columns, like the datasets fetched by rows */
+  private static class GeneratedDataSet extends QueryDataSet {
+
+    private long time = 0;
+
+    private GeneratedDataSet(int numOfColumn) {
+      super(
+          new ArrayList<>(),
+          new ArrayList<>(Collections.nCopies(numOfColumn, TSDataType.INT64)),
+          true);
+      columnNum = numOfColumn;
+    }
+
+    @Override
+    public boolean hasNextWithoutConstraint() {
+      return true;
+    }
+
+    @Override
+    public RowRecord nextWithoutConstraint() {
+      RowRecord record = new RowRecord(time);
+      for (int i = 0; i < columnNum; i++) {
+        if (i % 2 == 0) {
+          record.addField(time, TSDataType.INT64);
+        } else {
+          record.addField((double) time, TSDataType.DOUBLE);
+        }
+      }
+      time++;
+      return record;
+    }
+  }
+
+  @Setup
+  public void setUp() {
+    dataSet = new GeneratedDataSet(numOfColumn);
+  }
+
+  @Benchmark
+  public TSQueryDataSet fetch() throws IOException {
+    return direct
+        ? fillColumns()
+        : QueryDataSetUtils.convertQueryDataSetByFetchSize(dataSet, fetchSize, null);
+  }
+
+  private TSQueryDataSet fillColumns() {
+    TSQueryDataSetBuilder builder = TSQueryDataSetBuilder.getInstance(numOfColumn);
+    for (int row = 0; row < fetchSize; row++) {
+      builder.putTime(time);
+      for (int i = 0; i < numOfColumn; i++) {
+        if (i % 2 == 0) {
+          builder.putLong(i, time);
+        } else {
+          builder.putDouble(i, time);
+        }
+      }
+      builder.endRow();
+      time++;
+    }
+    return builder.build();
+  }
+}
@@ -0,0 +1,130 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.iotdb.db.benchmark;
+
+import org.apache.iotdb.db.conf.IoTDBConfig;
+import org.apache.iotdb.db.conf.IoTDBDescriptor;
+import org.apache.iotdb.db.exception.StorageEngineException;
+import org.apache.iotdb.db.exception.metadata.MetadataException;
+import org.apache.iotdb.db.metadata.idtable.IDTable;
+import org.apache.iotdb.db.metadata.idtable.IDTableManager;
+import org.apache.iotdb.db.metadata.idtable.entry.DeviceIDFactory;
+import org.apache.iotdb.db.metadata.mnode.IMeasurementMNode;
+import org.apache.iotdb.db.metadata.path.PartialPath;
+import org.apache.iotdb.db.qp.physical.crud.InsertTabletPlan;
+import org.apache.iotdb.db.service.IoTDB;
+import org.apache.iotdb.db.utils.EnvironmentUtils;
+import org.apache.iotdb.tsfile.common.constant.TsFileConstant;
+import org.apache.iotdb.tsfile.file.metadata.enums.TSDataType;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Resolving the device and series schemas of insertTablet plans through the id table and through
+ * the MTree with the device path parsed, as the write path does with and without enable_id_table.
+ * An operation is a series, and the plans cycle through {@link #DEVICE_NUM} devices.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class IDTableWritePathBenchmark {
+
+  private static final int DEVICE_NUM = 1000;
+  private static final int MEASUREMENT_NUM = 10;
+  private static final String STORAGE_GROUP = "root.bench";
+
+  @Param({"false", "true"})
+  public boolean idTable;
+
+  private final IoTDBConfig config = IoTDBDescriptor.getInstance().getConfig();
+  private boolean originAutoCreateSchema;
+  private boolean originEnableIDTable;
+  private final String[] devices = new String[DEVICE_NUM];
+  private final String[] measurements = new String[MEASUREMENT_NUM];
+  private final TSDataType[] dataTypes = new TSDataType[MEASUREMENT_NUM];
+  private IDTable table;
+  private int deviceIndex = 0;
+
+  @Setup
+  public void setUp() throws MetadataException, IOException {
+    originAutoCreateSchema = config.isAutoCreateSchemaEnabled();
+    originEnableIDTable = config.isEnableIDTable();
+    config.setAutoCreateSchemaEnabled(true);
+    config.setEnableIDTable(true);
+    EnvironmentUtils.envSetUp();
+    IoTDB.metaManager.setStorageGroup(new PartialPath(STORAGE_GROUP));
+    table = IDTableManager.getInstance().getIDTable(new PartialPath(STORAGE_GROUP));
+    for (int i = 0; i < DEVICE_NUM; i++) {
+      devices[i] = STORAGE_GROUP + TsFileConstant.PATH_SEPARATOR + "d" + i;
+    }
+    for (int i = 0; i < MEASUREMENT_NUM; i++) {
+      measurements[i] = "s" + i;
+    }
+    Arrays.fill(dataTypes, TSDataType.INT64);
+    // create the series
+    for (int i = 0; i < DEVICE_NUM; i++) {
+      getSeriesSchemas();
+    }
+  }
+
+  @TearDown
+  public void tearDown() throws IOException, StorageEngineException {
+    EnvironmentUtils.cleanEnv();
+    config.setAutoCreateSchemaEnabled(originAutoCreateSchema);
+    config.setEnableIDTable(originEnableIDTable);
+  }
+
+  @Benchmark
+  @OperationsPerInvocation(MEASUREMENT_NUM)
+  public InsertTabletPlan getSeriesSchemas() throws MetadataException, IOException {
+    String device = devices[deviceIndex];
+    deviceIndex = (deviceIndex + 1) % DEVICE_NUM;
+    // the device path is parsed from the request like TSServiceImpl does
+    InsertTabletPlan plan = new InsertTabletPlan(new PartialPath(device), measurements);
+    plan.setDataTypes(dataTypes);
+    plan.setMeasurementMNodes(new IMeasurementMNode[MEASUREMENT_NUM]);
+    if (idTable) {
+      table.getSeriesSchemas(plan);
+    } else {
+      IoTDB.metaManager.getSeriesSchemasAndReadLockDevice(plan);
+      plan.setDeviceID(DeviceIDFactory.getInstance().getDeviceID(plan.getDevicePath()));
+    }
+    return plan;
+  }
+}
@@ -0,0 +1,143 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.iotdb.db.benchmark;
+
+import org.apache.iotdb.db.engine.memtable.WritableMemChunk;
+import org.apache.iotdb.db.utils.QueryDataSetUtils;
+import org.apache.iotdb.tsfile.file.metadata.enums.TSDataType;
+import org.apache.iotdb.tsfile.file.metadata.enums.TSEncoding;
+import org.apache.iotdb.tsfile.write.schema.IMeasurementSchema;
+import org.apache.iotdb.tsfile.write.schema.MeasurementSchema;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Reading the columns of an insertTablet request and writing them into memtable chunks, with the
+ * columns copied into arrays by {@link QueryDataSetUtils#readValuesFromBuffer} and with views over
+ * the request buffer by {@link QueryDataSetUtils#readColumnViewsFromBuffer}. An operation is a
+ * point, so run it with {@code -prof gc} to see the heap allocation per point.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class InsertTabletAllocationBenchmark {
+
+  private static final int MEASUREMENT_NUM = 10;
+  private static final int ROW_NUM = 1000;
+  private static final int POINT_NUM = MEASUREMENT_NUM * ROW_NUM;
+
+  // the chunks are released after so many tablets, like the memtables are flushed
+  private static final int TABLETS_PER_CHUNK = 100;
+
+  @Param({"false", "true"})
+  public boolean columnViews;
+
+  private final List<Integer> types = new ArrayList<>();
+  private final IMeasurementSchema[] schemas = new IMeasurementSchema[MEASUREMENT_NUM];
+  private ByteBuffer timeBuffer;
+  private ByteBuffer valueBuffer;
+  private WritableMemChunk[] chunks;
+  private int tabletNum;
+
+  @Setup
+  public void setUp() {
+    for (int i = 0; i < MEASUREMENT_NUM; i++) {
+      TSDataType dataType = i % 2 == 0 ? TSDataType.INT64 : TSDataType.DOUBLE;
+      types.add(dataType.ordinal());
+      schemas[i] = new MeasurementSchema("s" + i, dataType, TSEncoding.PLAIN);
+    }
+    // serialize the columns like a session does
+    timeBuffer = ByteBuffer.allocate(ROW_NUM * Long.BYTES);
+    valueBuffer = ByteBuffer.allocate(POINT_NUM * Long.BYTES);
+    for (int row = 0; row < ROW_NUM; row++) {
+      timeBuffer.putLong(row);
+    }
+    for (int i = 0; i < MEASUREMENT_NUM; i++) {
+      for (int row = 0; row < ROW_NUM; row++) {
+        if (i % 2 == 0) {
+          valueBuffer.putLong(row);
+        } else {
+          valueBuffer.putDouble(row);
+        }
+      }
+    }
+    timeBuffer.flip();
+    valueBuffer.flip();
+    chunks = new WritableMemChunk[MEASUREMENT_NUM];
+    resetChunks();
+  }
+
+  @TearDown(Level.Trial)
+  public void tearDown() {
+    for (WritableMemChunk chunk : chunks) {
+      chunk.release();
+    }
+  }
+
+  private void resetChunks() {
+    for (int i = 0; i < MEASUREMENT_NUM; i++) {
+      if (chunks[i] != null) {
+        chunks[i].release();
+      }
+      chunks[i] = new WritableMemChunk(schemas[i]);
+    }
+  }
+
+  @Benchmark
+  @OperationsPerInvocation(POINT_NUM)
+  public WritableMemChunk[] insertTablet() {
+    timeBuffer.rewind();
+    valueBuffer.rewind();
+    long[] times = QueryDataSetUtils.readTimesFromBuffer(timeBuffer, ROW_NUM);
+    Object[] columns =
+        columnViews
+            ? QueryDataSetUtils.readColumnViewsFromBuffer(
+                valueBuffer, types, MEASUREMENT_NUM, ROW_NUM)
+            : QueryDataSetUtils.readValuesFromBuffer(valueBuffer, types, MEASUREMENT_NUM, ROW_NUM);
+    if (++tabletNum % TABLETS_PER_CHUNK == 0) {
+      resetChunks();
+    }
+    for (int i = 0; i < MEASUREMENT_NUM; i++) {
+      chunks[i].write(times, columns[i], null, schemas[i].getType(), 0, ROW_NUM);
+    }
+    return chunks;
+  }
+}
@@ -0,0 +1,120 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+
+package org.apache.iotdb.db.benchmark;
+
+import org.apache.iotdb.db.utils.datastructure.AlignedTVList;
+import org.apache.iotdb.db.utils.datastructure.TVList;
+import org.apache.iotdb.tsfile.file.metadata.enums.TSDataType;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Arrays;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Sorting a LongTVList or an AlignedTVList with a growing ratio of late points, from in-order data
+ * to fully shuffled data. An operation sorts a list of {@link #size} points, which is filled before
+ * the operation and not measured.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class TVListSortBenchmark {
+
+  /** how far a late point is from its place */
+  private static final int MAX_DELAY = 10_000;
+
+  @Param({"false", "true"})
+  public boolean aligned;
+
+  /** the fraction of points that arrive late, 1 for fully shuffled points */
+  @Param({"0", "0.001", "0.01", "0.1", "0.5", "1"})
+  public double disorderRatio;
+
+  @Param({"1000000"})
+  public int size;
+
+  private long[] times;
+  private TVList tvList;
+
+  @Setup
+  public void setUp() {
+    Random random = new Random(0);
+    times = new long[size];
+    for (int i = 0; i < size; i++) {
+      times[i] = i;
+    }
+    if (disorderRatio == 1) {
+      for (int i = size - 1; i > 0; i--) {
+        int j = random.nextInt(i + 1);
+        long tmp = times[i];
+        times[i] = times[j];
+        times[j] = tmp;
+      }
+    } else {
+      for (int i = 0; i < size; i++) {
+        if (random.nextDouble() < disorderRatio) {
+          times[i] -= random.nextInt(MAX_DELAY);
+        }
+      }
+    }
+  }
+
+  @Setup(Level.Invocation)
+  public void fill() {
+    if (aligned) {
+      tvList = AlignedTVList.newAlignedList(Arrays.asList(TSDataType.INT64, TSDataType.DOUBLE));
+      for (long time : times) {
+        tvList.putAlignedValue(time, new Object[] {time, (double) time}, new int[] {0, 1});
+      }
+    } else {
+      tvList = TVList.newList(TSDataType.INT64);
+      tvList.putLongs(times, times.clone(), null, 0, times.length);
+    }
+  }
+
+  @TearDown(Level.Invocation)
+  public void clear() {
+    tvList.clear();
+  }
+
+  @Benchmark
+  public TVList sort() {
+    tvList.sort();
+    return tvList;
+  }
+}
@@ -36,6 +36,7 @@ public enum ThreadName {
   STAT_MONITOR("StatMonitor"),
   FLUSH_SERVICE("Flush"),
   FLUSH_SUB_TASK_SERVICE("Flush-SubTask"),
+  FLUSH_ENCODING_SERVICE("Flush-Encoding"),
   COMPACTION_SERVICE("Compaction"),
   WAL_DAEMON("WAL-Sync"),
   WAL_FORCE_DAEMON("WAL-Force"),
@@ -47,6 +48,8 @@ public enum ThreadName {
   TIME_COST_STATISTIC("TIME_COST_STATISTIC"),
   QUERY_SERVICE("Query"),
   SUB_RAW_QUERY_SERVICE("Sub_RawQuery"),
+  SUB_AGGREGATION_SERVICE("Sub_Aggregation"),
+  CHUNK_READ_SERVICE("Chunk-Read"),
   INSERTION_SERVICE("MultithreadingInsertionPool"),
   WINDOW_EVALUATION_SERVICE("WindowEvaluationTaskPoolManager"),
   CONTINUOUS_QUERY_SERVICE("ContinuousQueryTaskPoolManager"),
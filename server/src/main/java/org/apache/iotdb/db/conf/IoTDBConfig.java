@@ -28,6 +28,8 @@ import org.apache.iotdb.db.exception.LoadConfigurationException;
 import org.apache.iotdb.db.metadata.MManager;
 import org.apache.iotdb.db.service.thrift.impl.InfluxDBServiceImpl;
 import org.apache.iotdb.db.service.thrift.impl.TSServiceImpl;
+import org.apache.iotdb.db.writelog.WALMode;
+import org.apache.iotdb.db.writelog.WALSyncMode;
 import org.apache.iotdb.rpc.RpcTransportFactory;
 import org.apache.iotdb.rpc.RpcUtils;
 import org.apache.iotdb.tsfile.common.conf.TSFileDescriptor;
@@ -142,6 +144,13 @@ public class IoTDBConfig {
 
   /** When inserting rejected exceeds this, throw an exception. Unit: millisecond */
   private int maxWaitingTimeWhenInsertBlockedInMs = 10000;
+
+  /**
+   * Whether to delay the insertions of each storage group and session to the flush throughput when
+   * the memtables are over the flush proportion, see IngestionAdmissionController.
+   */
+  private boolean enableIngestionAdmissionControl = false;
+
   /** Is the write ahead log enable. */
   private boolean enableWal = true;
 
@@ -177,6 +186,18 @@ public class IoTDBConfig {
   /** Unit: millisecond */
   private long walPoolTrimIntervalInMS = 10_000;
 
+  /**
+   * EXCLUSIVE: each TsFile writes its own WAL files. SHARED: all TsFiles append their WALs into one
+   * segmented log, which is written and forced for concurrent insertions together.
+   */
+  private WALMode walMode = WALMode.EXCLUSIVE;
+
+  /** When an insertion written into the shared WAL returns, SYNC, ASYNC or PERIODIC. */
+  private WALSyncMode sharedWalSyncMode = WALSyncMode.PERIODIC;
+
+  /** The size of a pre-allocated segment of the shared WAL. Unit: byte */
+  private long sharedWalSegmentSizeInByte = 64 * 1024 * 1024L;
+
   /** Unit: byte */
   private int estimatedSeriesSize = 300;
 
@@ -262,6 +283,37 @@ public class IoTDBConfig {
   /** Blocking queue size for read task in raw data query. */
   private int rawQueryBlockingQueueCapacity = 5;
 
+  /** How many threads can concurrently read chunks from disk. When <= 0, use CPU core number. */
+  private int concurrentChunkReadThread = 8;
+
+  /**
+   * How many threads can concurrently aggregate series for aggregation queries. When <= 0, use CPU
+   * core number.
+   */
+  private int concurrentSubAggregationThread = 8;
+
+  /**
+   * How many series of one aggregation query can be aggregated at the same time, including the
+   * query thread itself. 1 means aggregating the series one by one in the query thread. It also
+   * limits how many devices of such a query aligned by device are queried in advance.
+   */
+  private int aggregationParallelism = 4;
+
+  /**
+   * How many chunks of a series are read ahead, in the order of time, when a chunk is read from
+   * disk. 0 means reading chunks one by one when they are needed.
+   */
+  private int chunkPrefetchNum = 4;
+
+  /** The max number of bytes read from a TsFile at a time for several chunks close to each other */
+  private int maxCoalescedReadSizeInByte = 1024 * 1024;
+
+  /**
+   * The intervals, in the precision of timestamp and in ascending order, of the rollup tiers kept
+   * for the non-aligned series of every sequence TsFile. Empty means no rollup is kept.
+   */
+  private long[] rollupIntervals = new long[0];
+
   /** How many threads can concurrently evaluate windows. When <= 0, use CPU core number. */
   private int concurrentWindowEvaluationThread = Runtime.getRuntime().availableProcessors();
 
@@ -350,6 +402,27 @@ public class IoTDBConfig {
   /** When average series point number reaches this, flush the memtable to disk */
   private int avgSeriesPointNumberThreshold = 10000;
 
+  /**
+   * Whether insertions of different devices in one storage group can write the working memtable
+   * concurrently. If false, each insertion holds the write lock of the storage group.
+   */
+  private boolean enableConcurrentMemTableInsert = false;
+
+  /**
+   * Whether the time and value arrays of INT32, INT64, FLOAT and DOUBLE series in memtables are
+   * stored in direct buffers allocated from a per-memtable arena instead of the heap.
+   */
+  private boolean enableOffHeapMemTable = false;
+
+  /** Size in bytes of each direct buffer slab of an off-heap memtable arena */
+  private int offHeapMemTableSlabSize = 8 * 1024 * 1024;
+
+  /**
+   * Max number of distinct values of a TEXT series kept in the dictionary of its memtable chunk.
+   * When exceeded, the chunk stores the values directly. 0 disables the dictionary.
+   */
+  private int memTableTextDictionarySize = 256;
+
   /** Only compact the sequence files */
   private boolean enableSeqSpaceCompaction = true;
 
@@ -472,6 +545,15 @@ public class IoTDBConfig {
    */
   private int externalSortThreshold = 1000;
 
+  /**
+   * How much memory may be used to sort the rows of ONE query by a column (in MB). Beyond it, the
+   * rows are sorted in runs on disk if external sort is enabled.
+   *
+   * <p>The upper limit is 20% of allocated memory for read.
+   */
+  private float sortMemoryBudgetInMB =
+      (float) Math.min(30.0f, 0.2 * allocateMemoryForRead / 1024 / 1024);
+
   /** Is this IoTDB instance a receiver of sync or not. */
   private boolean isSyncEnable = false;
 
@@ -808,6 +890,12 @@ public class IoTDBConfig {
   /** the size of ioTaskQueue */
   private int ioTaskQueueSizeForFlushing = 10;
 
+  /**
+   * How many threads sort and encode the series of flushing memtables. With 1, each flush sorts
+   * and encodes its series serially.
+   */
+  private int flushEncodingThreadNum = 1;
+
   /** the number of virtual storage groups per user-defined storage group */
   private int virtualStorageGroupNum = 1;
 
@@ -1239,6 +1327,54 @@ public class IoTDBConfig {
     this.rawQueryBlockingQueueCapacity = rawQueryBlockingQueueCapacity;
   }
 
+  public int getConcurrentChunkReadThread() {
+    return concurrentChunkReadThread;
+  }
+
+  void setConcurrentChunkReadThread(int concurrentChunkReadThread) {
+    this.concurrentChunkReadThread = concurrentChunkReadThread;
+  }
+
+  public int getConcurrentSubAggregationThread() {
+    return concurrentSubAggregationThread;
+  }
+
+  void setConcurrentSubAggregationThread(int concurrentSubAggregationThread) {
+    this.concurrentSubAggregationThread = concurrentSubAggregationThread;
+  }
+
+  public int getAggregationParallelism() {
+    return aggregationParallelism;
+  }
+
+  public void setAggregationParallelism(int aggregationParallelism) {
+    this.aggregationParallelism = aggregationParallelism;
+  }
+
+  public int getChunkPrefetchNum() {
+    return chunkPrefetchNum;
+  }
+
+  public void setChunkPrefetchNum(int chunkPrefetchNum) {
+    this.chunkPrefetchNum = chunkPrefetchNum;
+  }
+
+  public int getMaxCoalescedReadSizeInByte() {
+    return maxCoalescedReadSizeInByte;
+  }
+
+  public void setMaxCoalescedReadSizeInByte(int maxCoalescedReadSizeInByte) {
+    this.maxCoalescedReadSizeInByte = maxCoalescedReadSizeInByte;
+  }
+
+  public long[] getRollupIntervals() {
+    return rollupIntervals;
+  }
+
+  public void setRollupIntervals(long[] rollupIntervals) {
+    this.rollupIntervals = rollupIntervals;
+  }
+
   public int getConcurrentWindowEvaluationThread() {
     return concurrentWindowEvaluationThread;
   }
@@ -1425,6 +1561,30 @@ public class IoTDBConfig {
     this.walPoolTrimIntervalInMS = walPoolTrimIntervalInMS;
   }
 
+  public WALMode getWalMode() {
+    return walMode;
+  }
+
+  public void setWalMode(WALMode walMode) {
+    this.walMode = walMode;
+  }
+
+  public WALSyncMode getSharedWalSyncMode() {
+    return sharedWalSyncMode;
+  }
+
+  public void setSharedWalSyncMode(WALSyncMode sharedWalSyncMode) {
+    this.sharedWalSyncMode = sharedWalSyncMode;
+  }
+
+  public long getSharedWalSegmentSizeInByte() {
+    return sharedWalSegmentSizeInByte;
+  }
+
+  public void setSharedWalSegmentSizeInByte(long sharedWalSegmentSizeInByte) {
+    this.sharedWalSegmentSizeInByte = sharedWalSegmentSizeInByte;
+  }
+
   public int getEstimatedSeriesSize() {
     return estimatedSeriesSize;
   }
@@ -1553,6 +1713,14 @@ public class IoTDBConfig {
     this.externalSortThreshold = externalSortThreshold;
   }
 
+  public float getSortMemoryBudgetInMB() {
+    return sortMemoryBudgetInMB;
+  }
+
+  public void setSortMemoryBudgetInMB(float sortMemoryBudgetInMB) {
+    this.sortMemoryBudgetInMB = sortMemoryBudgetInMB;
+  }
+
   public boolean isEnablePerformanceStat() {
     return enablePerformanceStat;
   }
@@ -1731,6 +1899,38 @@ public class IoTDBConfig {
     this.avgSeriesPointNumberThreshold = avgSeriesPointNumberThreshold;
   }
 
+  public boolean isEnableConcurrentMemTableInsert() {
+    return enableConcurrentMemTableInsert;
+  }
+
+  public void setEnableConcurrentMemTableInsert(boolean enableConcurrentMemTableInsert) {
+    this.enableConcurrentMemTableInsert = enableConcurrentMemTableInsert;
+  }
+
+  public boolean isEnableOffHeapMemTable() {
+    return enableOffHeapMemTable;
+  }
+
+  public void setEnableOffHeapMemTable(boolean enableOffHeapMemTable) {
+    this.enableOffHeapMemTable = enableOffHeapMemTable;
+  }
+
+  public int getOffHeapMemTableSlabSize() {
+    return offHeapMemTableSlabSize;
+  }
+
+  public void setOffHeapMemTableSlabSize(int offHeapMemTableSlabSize) {
+    this.offHeapMemTableSlabSize = offHeapMemTableSlabSize;
+  }
+
+  public int getMemTableTextDictionarySize() {
+    return memTableTextDictionarySize;
+  }
+
+  public void setMemTableTextDictionarySize(int memTableTextDictionarySize) {
+    this.memTableTextDictionarySize = memTableTextDictionarySize;
+  }
+
   public int getMergeChunkPointNumberThreshold() {
     return mergeChunkPointNumberThreshold;
   }
@@ -2307,6 +2507,14 @@ public class IoTDBConfig {
     this.maxWaitingTimeWhenInsertBlockedInMs = maxWaitingTimeWhenInsertBlocked;
   }
 
+  public boolean isEnableIngestionAdmissionControl() {
+    return enableIngestionAdmissionControl;
+  }
+
+  public void setEnableIngestionAdmissionControl(boolean enableIngestionAdmissionControl) {
+    this.enableIngestionAdmissionControl = enableIngestionAdmissionControl;
+  }
+
   public int getFrequencyIntervalInMinute() {
     return frequencyIntervalInMinute;
   }
@@ -2420,6 +2628,14 @@ public class IoTDBConfig {
     this.ioTaskQueueSizeForFlushing = ioTaskQueueSizeForFlushing;
   }
 
+  public int getFlushEncodingThreadNum() {
+    return flushEncodingThreadNum;
+  }
+
+  public void setFlushEncodingThreadNum(int flushEncodingThreadNum) {
+    this.flushEncodingThreadNum = flushEncodingThreadNum;
+  }
+
   public String getAdminName() {
     return adminName;
   }
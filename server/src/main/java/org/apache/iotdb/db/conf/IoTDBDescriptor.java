@@ -25,6 +25,8 @@ import org.apache.iotdb.db.engine.compaction.cross.CrossCompactionStrategy;
 import org.apache.iotdb.db.engine.compaction.inner.InnerCompactionStrategy;
 import org.apache.iotdb.db.exception.query.QueryProcessException;
 import org.apache.iotdb.db.qp.utils.DatetimeUtils;
+import org.apache.iotdb.db.writelog.WALMode;
+import org.apache.iotdb.db.writelog.WALSyncMode;
 import org.apache.iotdb.rpc.RpcTransportFactory;
 import org.apache.iotdb.tsfile.common.conf.TSFileDescriptor;
 import org.apache.iotdb.tsfile.file.metadata.enums.TSDataType;
@@ -44,6 +46,7 @@ import java.net.InetAddress;
 import java.net.MalformedURLException;
 import java.net.URL;
 import java.net.UnknownHostException;
+import java.util.Arrays;
 import java.util.Properties;
 
 public class IoTDBDescriptor {
@@ -291,6 +294,29 @@ public class IoTDBDescriptor {
                   "avg_series_point_number_threshold",
                   Integer.toString(conf.getAvgSeriesPointNumberThreshold()))));
 
+      conf.setEnableConcurrentMemTableInsert(
+          Boolean.parseBoolean(
+              properties.getProperty(
+                  "enable_concurrent_memtable_insert",
+                  Boolean.toString(conf.isEnableConcurrentMemTableInsert()))));
+
+      conf.setEnableOffHeapMemTable(
+          Boolean.parseBoolean(
+              properties.getProperty(
+                  "enable_off_heap_memtable", Boolean.toString(conf.isEnableOffHeapMemTable()))));
+
+      conf.setOffHeapMemTableSlabSize(
+          Integer.parseInt(
+              properties.getProperty(
+                  "off_heap_memtable_slab_size",
+                  Integer.toString(conf.getOffHeapMemTableSlabSize()))));
+
+      conf.setMemTableTextDictionarySize(
+          Integer.parseInt(
+              properties.getProperty(
+                  "memtable_text_dictionary_size",
+                  Integer.toString(conf.getMemTableTextDictionarySize()))));
+
       conf.setCheckPeriodWhenInsertBlocked(
           Integer.parseInt(
               properties.getProperty(
@@ -303,6 +329,12 @@ public class IoTDBDescriptor {
                   "max_waiting_time_when_insert_blocked",
                   Integer.toString(conf.getMaxWaitingTimeWhenInsertBlocked()))));
 
+      conf.setEnableIngestionAdmissionControl(
+          Boolean.parseBoolean(
+              properties.getProperty(
+                  "enable_ingestion_admission_control",
+                  Boolean.toString(conf.isEnableIngestionAdmissionControl()))));
+
       conf.setEstimatedSeriesSize(
           Integer.parseInt(
               properties.getProperty(
@@ -314,6 +346,15 @@ public class IoTDBDescriptor {
                   "io_task_queue_size_for_flushing",
                   Integer.toString(conf.getIoTaskQueueSizeForFlushing()))));
 
+      conf.setFlushEncodingThreadNum(
+          Integer.parseInt(
+              properties.getProperty(
+                  "flush_encoding_thread_num",
+                  Integer.toString(conf.getFlushEncodingThreadNum()))));
+      if (conf.getFlushEncodingThreadNum() <= 0) {
+        conf.setFlushEncodingThreadNum(Runtime.getRuntime().availableProcessors());
+      }
+
       conf.setMergeChunkPointNumberThreshold(
           Integer.parseInt(
               properties.getProperty(
@@ -461,6 +502,50 @@ public class IoTDBDescriptor {
                   "raw_query_blocking_queue_capacity",
                   Integer.toString(conf.getRawQueryBlockingQueueCapacity()))));
 
+      conf.setConcurrentChunkReadThread(
+          Integer.parseInt(
+              properties.getProperty(
+                  "concurrent_chunk_read_thread",
+                  Integer.toString(conf.getConcurrentChunkReadThread()))));
+
+      if (conf.getConcurrentChunkReadThread() <= 0) {
+        conf.setConcurrentChunkReadThread(Runtime.getRuntime().availableProcessors());
+      }
+
+      conf.setConcurrentSubAggregationThread(
+          Integer.parseInt(
+              properties.getProperty(
+                  "concurrent_sub_aggregation_thread",
+                  Integer.toString(conf.getConcurrentSubAggregationThread()))));
+
+      if (conf.getConcurrentSubAggregationThread() <= 0) {
+        conf.setConcurrentSubAggregationThread(Runtime.getRuntime().availableProcessors());
+      }
+
+      conf.setAggregationParallelism(
+          Math.max(
+              1,
+              Integer.parseInt(
+                  properties.getProperty(
+                      "aggregation_parallelism",
+                      Integer.toString(conf.getAggregationParallelism())))));
+
+      conf.setChunkPrefetchNum(
+          Integer.parseInt(
+              properties.getProperty(
+                  "chunk_prefetch_num", Integer.toString(conf.getChunkPrefetchNum()))));
+
+      conf.setMaxCoalescedReadSizeInByte(
+          Integer.parseInt(
+              properties.getProperty(
+                  "max_coalesced_read_size_in_byte",
+                  Integer.toString(conf.getMaxCoalescedReadSizeInByte()))));
+
+      String rollupIntervals = properties.getProperty("rollup_intervals");
+      if (rollupIntervals != null) {
+        conf.setRollupIntervals(parseRollupIntervals(rollupIntervals.trim()));
+      }
+
       conf.setmManagerCacheSize(
           Integer.parseInt(
               properties
@@ -492,6 +577,14 @@ public class IoTDBDescriptor {
           Integer.parseInt(
               properties.getProperty(
                   "external_sort_threshold", Integer.toString(conf.getExternalSortThreshold()))));
+      String sortMemoryBudgetInMB = properties.getProperty("sort_memory_budget_in_mb");
+      if (sortMemoryBudgetInMB != null) {
+        conf.setSortMemoryBudgetInMB(
+            (float)
+                Math.min(
+                    Float.parseFloat(sortMemoryBudgetInMB),
+                    0.2 * conf.getAllocateMemoryForRead() / 1024 / 1024));
+      }
       conf.setUpgradeThreadNum(
           Integer.parseInt(
               properties.getProperty(
@@ -902,6 +995,26 @@ public class IoTDBDescriptor {
             properties.getProperty(
                 "force_wal_period_in_ms", Long.toString(conf.getForceWalPeriodInMs()))));
 
+    conf.setWalMode(
+        WALMode.valueOf(
+            properties.getProperty("wal_mode", conf.getWalMode().toString()).trim().toUpperCase()));
+
+    conf.setSharedWalSyncMode(
+        WALSyncMode.valueOf(
+            properties
+                .getProperty("shared_wal_sync_mode", conf.getSharedWalSyncMode().toString())
+                .trim()
+                .toUpperCase()));
+
+    long sharedWalSegmentSize =
+        Long.parseLong(
+            properties.getProperty(
+                "shared_wal_segment_size_in_byte",
+                Long.toString(conf.getSharedWalSegmentSizeInByte())));
+    if (sharedWalSegmentSize > 0) {
+      conf.setSharedWalSegmentSizeInByte(sharedWalSegmentSize);
+    }
+
     conf.setEnableDiscardOutOfOrderData(
         Boolean.parseBoolean(
             properties.getProperty(
@@ -1031,6 +1144,34 @@ public class IoTDBDescriptor {
                     "bloom_filter_error_rate",
                     Double.toString(
                         TSFileDescriptor.getInstance().getConfig().getBloomFilterErrorRate()))));
+    TSFileDescriptor.getInstance()
+        .getConfig()
+        .setBloomFilterBlockSeriesNum(
+            Integer.parseInt(
+                properties.getProperty(
+                    "bloom_filter_block_series_num",
+                    Integer.toString(
+                        TSFileDescriptor.getInstance()
+                            .getConfig()
+                            .getBloomFilterBlockSeriesNum()))));
+    TSFileDescriptor.getInstance()
+        .getConfig()
+        .setEnablePageBloomFilter(
+            Boolean.parseBoolean(
+                properties.getProperty(
+                    "enable_page_bloom_filter",
+                    Boolean.toString(
+                        TSFileDescriptor.getInstance().getConfig().isEnablePageBloomFilter()))));
+    TSFileDescriptor.getInstance()
+        .getConfig()
+        .setPageBloomFilterErrorRate(
+            Double.parseDouble(
+                properties.getProperty(
+                    "page_bloom_filter_error_rate",
+                    Double.toString(
+                        TSFileDescriptor.getInstance()
+                            .getConfig()
+                            .getPageBloomFilterErrorRate()))));
     TSFileDescriptor.getInstance()
         .getConfig()
         .setFloatPrecision(
@@ -1055,6 +1196,48 @@ public class IoTDBDescriptor {
             properties.getProperty(
                 "compressor",
                 TSFileDescriptor.getInstance().getConfig().getCompressor().toString()));
+    TSFileDescriptor.getInstance()
+        .getConfig()
+        .setZstdCompressionLevel(
+            Integer.parseInt(
+                properties.getProperty(
+                    "zstd_compression_level",
+                    Integer.toString(
+                        TSFileDescriptor.getInstance().getConfig().getZstdCompressionLevel()))));
+    TSFileDescriptor.getInstance()
+        .getConfig()
+        .setLz4HcCompressionLevel(
+            Integer.parseInt(
+                properties.getProperty(
+                    "lz4hc_compression_level",
+                    Integer.toString(
+                        TSFileDescriptor.getInstance().getConfig().getLz4HcCompressionLevel()))));
+    TSFileDescriptor.getInstance()
+        .getConfig()
+        .setEnableMMapRead(
+            Boolean.parseBoolean(
+                properties.getProperty(
+                    "enable_mmap_read",
+                    Boolean.toString(
+                        TSFileDescriptor.getInstance().getConfig().isEnableMMapRead()))));
+    TSFileDescriptor.getInstance()
+        .getConfig()
+        .setMmapReadBudgetInByte(
+            Long.parseLong(
+                properties.getProperty(
+                    "mmap_read_budget_in_byte",
+                    Long.toString(
+                        TSFileDescriptor.getInstance().getConfig().getMmapReadBudgetInByte()))));
+    TSFileDescriptor.getInstance()
+        .getConfig()
+        .setChunkMetadataMemoryBudgetInByte(
+            Long.parseLong(
+                properties.getProperty(
+                    "chunk_metadata_memory_budget_in_byte",
+                    Long.toString(
+                        TSFileDescriptor.getInstance()
+                            .getConfig()
+                            .getChunkMetadataMemoryBudgetInByte()))));
     TSFileDescriptor.getInstance()
         .getConfig()
         .setMaxDegreeOfIndexNode(
@@ -1409,6 +1592,28 @@ public class IoTDBDescriptor {
             conf.getTimestampPrecision()));
   }
 
+  /** parse the rollup intervals like "1m,1h,1d" into ascending distinct intervals */
+  private long[] parseRollupIntervals(String rollupIntervals) {
+    if (rollupIntervals.isEmpty()) {
+      return new long[0];
+    }
+    return Arrays.stream(rollupIntervals.split(","))
+        .mapToLong(
+            interval ->
+                DatetimeUtils.convertDurationStrToLong(
+                    interval.trim(), conf.getTimestampPrecision()))
+        .filter(
+            interval -> {
+              if (interval <= 0) {
+                logger.warn("Ignore the non-positive rollup interval {}", interval);
+              }
+              return interval > 0;
+            })
+        .sorted()
+        .distinct()
+        .toArray();
+  }
+
   /** Get default encode algorithm by data type */
   public TSEncoding getDefaultEncodingByType(TSDataType dataType) {
     switch (dataType) {
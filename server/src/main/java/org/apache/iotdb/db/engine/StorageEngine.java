@@ -54,12 +54,14 @@ import org.apache.iotdb.db.qp.physical.crud.InsertPlan;
 import org.apache.iotdb.db.qp.physical.crud.InsertRowPlan;
 import org.apache.iotdb.db.qp.physical.crud.InsertRowsOfOneDevicePlan;
 import org.apache.iotdb.db.qp.physical.crud.InsertTabletPlan;
+import org.apache.iotdb.db.rescon.IngestionAdmissionController;
 import org.apache.iotdb.db.rescon.SystemInfo;
 import org.apache.iotdb.db.service.IService;
 import org.apache.iotdb.db.service.IoTDB;
 import org.apache.iotdb.db.service.ServiceType;
 import org.apache.iotdb.db.utils.TestOnly;
 import org.apache.iotdb.db.utils.UpgradeUtils;
+import org.apache.iotdb.db.writelog.manager.MultiFileLogNodeManager;
 import org.apache.iotdb.rpc.RpcUtils;
 import org.apache.iotdb.rpc.TSStatusCode;
 import org.apache.iotdb.service.rpc.thrift.TSStatus;
@@ -206,6 +208,14 @@ public class StorageEngine implements IService {
     }
   }
 
+  /** delay the insertion if its storage group or session is writing faster than admitted */
+  private static void admitInsertion(
+      VirtualStorageGroupProcessor virtualStorageGroupProcessor, long points)
+      throws WriteProcessRejectException {
+    IngestionAdmissionController.getInstance()
+        .admit(virtualStorageGroupProcessor.getStorageGroupInfo(), points);
+  }
+
   public boolean isAllSgReady() {
     return isAllSgReady.get();
   }
@@ -247,6 +257,7 @@ public class StorageEngine implements IService {
                 }
               }
               recoveryThreadPool.shutdown();
+              MultiFileLogNodeManager.getInstance().discardUnrecoveredLogs();
               setAllSgReady(true);
             });
     recoverEndTrigger.start();
@@ -584,6 +595,13 @@ public class StorageEngine implements IService {
 
     VirtualStorageGroupProcessor virtualStorageGroupProcessor =
         getProcessor(insertRowPlan.getDevicePath());
+    if (enableMemControl) {
+      try {
+        admitInsertion(virtualStorageGroupProcessor, insertRowPlan.getMeasurements().length);
+      } catch (WriteProcessException e) {
+        throw new StorageEngineException(e);
+      }
+    }
     getSeriesSchemas(insertRowPlan, virtualStorageGroupProcessor);
     try {
       insertRowPlan.transferType();
@@ -620,6 +638,17 @@ public class StorageEngine implements IService {
 
     VirtualStorageGroupProcessor virtualStorageGroupProcessor =
         getProcessor(insertRowsOfOneDevicePlan.getDevicePath());
+    if (enableMemControl) {
+      long points = 0;
+      for (InsertRowPlan plan : insertRowsOfOneDevicePlan.getRowPlans()) {
+        points += plan.getMeasurements().length;
+      }
+      try {
+        admitInsertion(virtualStorageGroupProcessor, points);
+      } catch (WriteProcessException e) {
+        throw new StorageEngineException(e);
+      }
+    }
 
     for (InsertRowPlan plan : insertRowsOfOneDevicePlan.getRowPlans()) {
       plan.setMeasurementMNodes(new IMeasurementMNode[plan.getMeasurements().length]);
@@ -658,6 +687,18 @@ public class StorageEngine implements IService {
           e);
     }
 
+    if (enableMemControl) {
+      try {
+        admitInsertion(
+            virtualStorageGroupProcessor,
+            (long) insertTabletPlan.getRowCount() * insertTabletPlan.getMeasurements().length);
+      } catch (WriteProcessRejectException e) {
+        TSStatus[] results = new TSStatus[insertTabletPlan.getRowCount()];
+        Arrays.fill(results, RpcUtils.getStatus(TSStatusCode.WRITE_PROCESS_REJECT));
+        throw new BatchProcessException(results);
+      }
+    }
+
     getSeriesSchemas(insertTabletPlan, virtualStorageGroupProcessor);
     virtualStorageGroupProcessor.insertTablet(insertTabletPlan);
 
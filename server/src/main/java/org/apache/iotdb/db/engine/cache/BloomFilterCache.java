@@ -21,7 +21,11 @@ package org.apache.iotdb.db.engine.cache;
 import org.apache.iotdb.db.conf.IoTDBConfig;
 import org.apache.iotdb.db.conf.IoTDBDescriptor;
 import org.apache.iotdb.db.query.control.FileReaderManager;
+import org.apache.iotdb.db.service.metrics.Metric;
+import org.apache.iotdb.db.service.metrics.MetricsService;
+import org.apache.iotdb.db.service.metrics.Tag;
 import org.apache.iotdb.db.utils.TestOnly;
+import org.apache.iotdb.metrics.config.MetricConfigDescriptor;
 import org.apache.iotdb.tsfile.read.TsFileSequenceReader;
 import org.apache.iotdb.tsfile.utils.BloomFilter;
 import org.apache.iotdb.tsfile.utils.FilePathUtils;
@@ -38,7 +42,10 @@ import java.io.IOException;
 import java.util.Objects;
 import java.util.concurrent.atomic.AtomicLong;
 
-/** This class is used to cache <code>BloomFilter</code> in IoTDB. The caching strategy is LRU. */
+/**
+ * This class is used to cache <code>BloomFilter</code> in IoTDB. The caching strategy is LRU. A
+ * bloom filter that is split into blocks by device is cached block by block.
+ */
 public class BloomFilterCache {
 
   private static final Logger logger = LoggerFactory.getLogger(BloomFilterCache.class);
@@ -49,6 +56,10 @@ public class BloomFilterCache {
   private static final boolean CACHE_ENABLE = config.isMetaDataCacheEnable();
   private final AtomicLong entryAverageSize = new AtomicLong(0);
 
+  // number of paths that the bloom filters say exist, and how many of them do not exist
+  private final AtomicLong positiveCount = new AtomicLong(0L);
+  private final AtomicLong falsePositiveCount = new AtomicLong(0L);
+
   private final LoadingCache<BloomFilterCacheKey, BloomFilter> lruCache;
 
   private BloomFilterCache() {
@@ -71,7 +82,7 @@ public class BloomFilterCache {
                   try {
                     TsFileSequenceReader reader =
                         FileReaderManager.getInstance().get(key.filePath, true);
-                    return reader.readBloomFilter();
+                    return reader.readBloomFilterBlock(key.blockIndex);
                   } catch (IOException e) {
                     logger.error(
                         "Something wrong happened in reading bloom filter in tsfile {}",
@@ -80,6 +91,26 @@ public class BloomFilterCache {
                     throw e;
                   }
                 });
+
+    if (MetricConfigDescriptor.getInstance().getMetricConfig().getEnableMetric()) {
+      // add metrics
+      MetricsService.getInstance()
+          .getMetricManager()
+          .getOrCreateAutoGauge(
+              Metric.CACHE_HIT.toString(),
+              lruCache,
+              l -> (long) (l.stats().hitRate() * 100),
+              Tag.NAME.toString(),
+              "bloomFilterCache");
+      MetricsService.getInstance()
+          .getMetricManager()
+          .getOrCreateAutoGauge(
+              Metric.BLOOM_FILTER_FALSE_POSITIVE.toString(),
+              this,
+              cache -> (long) (cache.getFalsePositiveRate() * 100),
+              Tag.NAME.toString(),
+              "bloomFilter");
+    }
   }
 
   public static BloomFilterCache getInstance() {
@@ -93,13 +124,16 @@ public class BloomFilterCache {
   public BloomFilter get(BloomFilterCacheKey key, boolean debug) throws IOException {
     if (!CACHE_ENABLE) {
       TsFileSequenceReader reader = FileReaderManager.getInstance().get(key.filePath, true);
-      return reader.readBloomFilter();
+      return reader.readBloomFilterBlock(key.blockIndex);
     }
 
     BloomFilter bloomFilter = lruCache.get(key);
 
     if (debug) {
-      DEBUG_LOGGER.info("get bloomFilter from cache where filePath is: " + key.filePath);
+      DEBUG_LOGGER.info(
+          "get bloomFilter from cache where filePath is: {}, block is: {}",
+          key.filePath,
+          key.blockIndex);
     }
 
     return bloomFilter;
@@ -109,6 +143,28 @@ public class BloomFilterCache {
     return lruCache.stats().hitRate();
   }
 
+  /**
+   * record a path that a bloom filter says exists.
+   *
+   * @param exists whether the file really has the path
+   */
+  public void recordPositive(boolean exists) {
+    positiveCount.incrementAndGet();
+    if (!exists) {
+      falsePositiveCount.incrementAndGet();
+    }
+  }
+
+  /** @return the ratio of the paths that the bloom filters say exist but do not exist */
+  public double getFalsePositiveRate() {
+    long positive = positiveCount.get();
+    return positive == 0L ? 0 : (double) falsePositiveCount.get() / positive;
+  }
+
+  public long getFalsePositiveCount() {
+    return falsePositiveCount.get();
+  }
+
   public long getEvictionCount() {
     return lruCache.stats().evictionCount();
   }
@@ -151,9 +207,16 @@ public class BloomFilterCache {
     private final long tsFileVersion;
     // high 32 bit is compaction level, low 32 bit is merge count
     private final long compactionVersion;
+    // index of the bloom filter block, -1 for the bloom filter of the whole file
+    private final int blockIndex;
 
     public BloomFilterCacheKey(String filePath) {
+      this(filePath, -1);
+    }
+
+    public BloomFilterCacheKey(String filePath, int blockIndex) {
       this.filePath = filePath;
+      this.blockIndex = blockIndex;
       Pair<String, long[]> tsFilePrefixPathAndTsFileVersionPair =
           FilePathUtils.getTsFilePrefixPathAndTsFileVersionPair(filePath);
       this.tsFilePrefixPath = tsFilePrefixPathAndTsFileVersionPair.left;
@@ -172,12 +235,13 @@ public class BloomFilterCache {
       BloomFilterCache.BloomFilterCacheKey that = (BloomFilterCache.BloomFilterCacheKey) o;
       return tsFileVersion == that.tsFileVersion
           && compactionVersion == that.compactionVersion
+          && blockIndex == that.blockIndex
           && tsFilePrefixPath.equals(that.tsFilePrefixPath);
     }
 
     @Override
     public int hashCode() {
-      return Objects.hash(tsFilePrefixPath, tsFileVersion, compactionVersion);
+      return Objects.hash(tsFilePrefixPath, tsFileVersion, compactionVersion, blockIndex);
     }
   }
 
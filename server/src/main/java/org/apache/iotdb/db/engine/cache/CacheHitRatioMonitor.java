@@ -130,6 +130,11 @@ public class CacheHitRatioMonitor implements CacheHitRatioMonitorMXBean, IServic
     return BloomFilterCache.getInstance().getAverageSize();
   }
 
+  @Override
+  public double getBloomFilterFalsePositiveRate() {
+    return BloomFilterCache.getInstance().getFalsePositiveRate();
+  }
+
   public static CacheHitRatioMonitor getInstance() {
     return instance;
   }
@@ -50,6 +50,8 @@ public interface CacheHitRatioMonitorMXBean {
 
   long getBloomFilterCacheAverageSize();
 
+  double getBloomFilterFalsePositiveRate();
+
   long getTotalMemTableSize();
 
   double getFlushThershold();
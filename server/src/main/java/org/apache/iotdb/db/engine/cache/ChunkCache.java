@@ -112,11 +112,7 @@ public class ChunkCache {
           FileReaderManager.getInstance()
               .get(chunkMetaData.getFilePath(), chunkMetaData.isClosed());
       Chunk chunk = reader.readMemChunk(chunkMetaData);
-      return new Chunk(
-          chunk.getHeader(),
-          chunk.getData().duplicate(),
-          chunkMetaData.getDeleteIntervalList(),
-          chunkMetaData.getStatistics());
+      return copyOf(chunk, chunkMetaData);
     }
 
     Chunk chunk = lruCache.get(chunkMetaData);
@@ -125,11 +121,31 @@ public class ChunkCache {
       DEBUG_LOGGER.info("get chunk from cache whose meta data is: " + chunkMetaData);
     }
 
-    return new Chunk(
-        chunk.getHeader(),
-        chunk.getData().duplicate(),
-        chunkMetaData.getDeleteIntervalList(),
-        chunkMetaData.getStatistics());
+    return copyOf(chunk, chunkMetaData);
+  }
+
+  /** @return a chunk sharing the data of the cached one, with the deletions of the metadata */
+  private static Chunk copyOf(Chunk chunk, ChunkMetadata chunkMetaData) {
+    Chunk copy =
+        new Chunk(
+            chunk.getHeader(),
+            chunk.getData().duplicate(),
+            chunkMetaData.getDeleteIntervalList(),
+            chunkMetaData.getStatistics());
+    copy.setPageValueIndex(chunkMetaData.getPageValueIndex());
+    return copy;
+  }
+
+  /** @return whether the chunk is cached, which is not counted as a hit or a miss */
+  public boolean contains(ChunkMetadata chunkMetaData) {
+    return lruCache.asMap().containsKey(chunkMetaData);
+  }
+
+  /** cache a chunk that is read in the background, unless it is already cached. */
+  public void put(ChunkMetadata chunkMetaData, Chunk chunk) {
+    if (CACHE_ENABLE) {
+      lruCache.asMap().putIfAbsent(chunkMetaData, chunk);
+    }
   }
 
   public double calculateChunkHitRatio() {
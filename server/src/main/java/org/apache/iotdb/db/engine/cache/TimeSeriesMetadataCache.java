@@ -148,7 +148,7 @@ public class TimeSeriesMetadataCache {
     if (!CACHE_ENABLE) {
       // bloom filter part
       TsFileSequenceReader reader = FileReaderManager.getInstance().get(key.filePath, true);
-      BloomFilter bloomFilter = reader.readBloomFilter();
+      BloomFilter bloomFilter = reader.readBloomFilter(key.device);
       if (bloomFilter != null
           && !bloomFilter.contains(key.device + IoTDBConstant.PATH_SEPARATOR + key.measurement)) {
         return null;
@@ -171,10 +171,14 @@ public class TimeSeriesMetadataCache {
         timeseriesMetadata = lruCache.getIfPresent(key);
         if (timeseriesMetadata == null) {
           Path path = new Path(key.device, key.measurement);
-          // bloom filter part
+          TsFileSequenceReader reader = FileReaderManager.getInstance().get(key.filePath, true);
+          // bloom filter part, only the block of the device is loaded if it is split
           BloomFilter bloomFilter =
               BloomFilterCache.getInstance()
-                  .get(new BloomFilterCache.BloomFilterCacheKey(key.filePath), debug);
+                  .get(
+                      new BloomFilterCache.BloomFilterCacheKey(
+                          key.filePath, reader.getBloomFilterBlockIndex(key.device)),
+                      debug);
           if (bloomFilter != null) {
             bloomFilterRequestCount.incrementAndGet();
             if (!bloomFilter.contains(path.getFullPath())) {
@@ -185,7 +189,6 @@ public class TimeSeriesMetadataCache {
               return null;
             }
           }
-          TsFileSequenceReader reader = FileReaderManager.getInstance().get(key.filePath, true);
           List<TimeseriesMetadata> timeSeriesMetadataList =
               reader.readTimeseriesMetadata(path, allSensors);
           // put TimeSeriesMetadata of all sensors used in this query into cache
@@ -198,6 +201,9 @@ public class TimeSeriesMetadataCache {
               timeseriesMetadata = metadata;
             }
           }
+          if (bloomFilter != null) {
+            BloomFilterCache.getInstance().recordPositive(timeseriesMetadata != null);
+          }
         }
       }
     }
@@ -22,6 +22,7 @@ package org.apache.iotdb.db.engine.compaction.cross.inplace.task;
 import org.apache.iotdb.db.engine.compaction.cross.inplace.manage.CrossSpaceMergeContext;
 import org.apache.iotdb.db.engine.compaction.cross.inplace.manage.CrossSpaceMergeResource;
 import org.apache.iotdb.db.engine.compaction.cross.inplace.recover.InplaceCompactionLogger;
+import org.apache.iotdb.db.engine.rollup.TsFileRollup;
 import org.apache.iotdb.db.engine.storagegroup.TsFileResource;
 import org.apache.iotdb.db.metadata.path.PartialPath;
 import org.apache.iotdb.db.query.control.FileReaderManager;
@@ -42,6 +43,7 @@ import org.slf4j.LoggerFactory;
 
 import java.io.File;
 import java.io.IOException;
+import java.nio.file.Files;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -209,6 +211,7 @@ public class MergeFileTask {
         logger.warn("Delete file {} failed", newFileWriter.getFile());
       }
       // change tsFile name
+      Files.deleteIfExists(TsFileRollup.getRollupFile(seqFile.getTsFile()).toPath());
       File nextMergeVersionFile = increaseCrossCompactionCnt(seqFile.getTsFile());
       fsFactory.moveFile(seqFile.getTsFile(), nextMergeVersionFile);
       fsFactory.moveFile(
@@ -222,6 +225,8 @@ public class MergeFileTask {
     } finally {
       seqFile.writeUnlock();
     }
+    // rebuild the rollups of the merged file out of the lock
+    TsFileRollup.rebuild(seqFile.getTsFile());
   }
 
   private void updateStartTimeAndEndTime(TsFileResource seqFile, TsFileIOWriter fileWriter) {
@@ -361,6 +366,7 @@ public class MergeFileTask {
       if (!seqFile.getTsFile().delete()) {
         logger.warn("Delete file {} failed", seqFile.getTsFile());
       }
+      Files.deleteIfExists(TsFileRollup.getRollupFile(seqFile.getTsFile()).toPath());
       File nextMergeVersionFile = increaseCrossCompactionCnt(seqFile.getTsFile());
       fsFactory.moveFile(fileWriter.getFile(), nextMergeVersionFile);
       fsFactory.moveFile(
@@ -370,9 +376,12 @@ public class MergeFileTask {
       seqFile.setFile(nextMergeVersionFile);
     } catch (Exception e) {
       logger.error(e.getMessage(), e);
+      return;
     } finally {
       seqFile.writeUnlock();
     }
+    // rebuild the rollups of the merged file out of the lock
+    TsFileRollup.rebuild(seqFile.getTsFile());
   }
 
   private long writeUnmergedChunks(
@@ -32,6 +32,7 @@ import org.apache.iotdb.db.engine.storagegroup.TsFileManager;
 import org.apache.iotdb.db.engine.storagegroup.TsFileResource;
 import org.apache.iotdb.db.exception.metadata.MetadataException;
 import org.apache.iotdb.db.query.control.FileReaderManager;
+import org.apache.iotdb.tsfile.common.conf.TSFileDescriptor;
 import org.apache.iotdb.tsfile.common.constant.TsFileConstant;
 import org.apache.iotdb.tsfile.file.metadata.ChunkMetadata;
 import org.apache.iotdb.tsfile.fileSystem.FSFactoryProducer;
@@ -70,6 +71,9 @@ public class InnerSpaceCompactionUtils {
     try (MultiTsFileDeviceIterator deviceIterator =
         new MultiTsFileDeviceIterator(tsFileResources)) {
       writer = new TsFileIOWriter(targetResource.getTsFile());
+      // the chunk metadata of the target file are never read back before it is sealed
+      writer.setChunkMetadataMemoryBudget(
+          TSFileDescriptor.getInstance().getConfig().getChunkMetadataMemoryBudgetInByte());
       Set<String> devices = deviceIterator.getDevices();
       for (String device : devices) {
         writer.startChunkGroup(device);
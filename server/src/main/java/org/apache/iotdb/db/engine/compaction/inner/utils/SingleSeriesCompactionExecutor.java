@@ -166,7 +166,6 @@ public class SingleSeriesCompactionExecutor {
     } else if (cachedChunk != null) {
       // if there is a cached chunk, merge it with current chunk, then flush it
       mergeWithCachedChunk(chunk, chunkMetadata);
-      flushCachedChunkIfLargeEnough();
     } else {
       // there is no points remaining in ChunkWriter and no cached chunk
       // flush it to file directly
@@ -184,7 +183,6 @@ public class SingleSeriesCompactionExecutor {
     } else if (cachedChunk != null) {
       // if there is a cached chunk, merge it with current chunk
       mergeWithCachedChunk(chunk, chunkMetadata);
-      flushCachedChunkIfLargeEnough();
     } else {
       // there is no points remaining in ChunkWriter and no cached chunk
       // cached current chunk
@@ -233,11 +231,20 @@ public class SingleSeriesCompactionExecutor {
 
   private void mergeWithCachedChunk(Chunk currentChunk, ChunkMetadata currentChunkMetadata)
       throws IOException {
+    if (!cachedChunk.canMergeByAppendPage(currentChunk)) {
+      // the chunks are encoded or compressed differently, so their pages can't share a chunk
+      // header, deserialize both of them instead
+      writeCachedChunkIntoChunkWriter();
+      writeChunkIntoChunkWriter(currentChunk);
+      flushChunkWriterIfLargeEnough();
+      return;
+    }
     // Notice!!!
     // We must execute mergeChunkByAppendPage before mergeChunkMetadata
     // otherwise the statistic of data may be wrong.
     cachedChunk.mergeChunkByAppendPage(currentChunk);
     cachedChunkMetadata.mergeChunkMetadata(currentChunkMetadata);
+    flushCachedChunkIfLargeEnough();
   }
 
   private void writeTimeAndValueToChunkWriter(TimeValuePair timeValuePair) {
@@ -21,6 +21,7 @@ package org.apache.iotdb.db.engine.flush;
 import org.apache.iotdb.db.concurrent.WrappedRunnable;
 import org.apache.iotdb.db.conf.IoTDBConfig;
 import org.apache.iotdb.db.conf.IoTDBDescriptor;
+import org.apache.iotdb.db.engine.flush.pool.FlushEncodingPoolManager;
 import org.apache.iotdb.db.engine.flush.pool.FlushSubTaskPoolManager;
 import org.apache.iotdb.db.engine.flush.pool.FlushTaskPoolManager;
 import org.apache.iotdb.db.engine.storagegroup.TsFileProcessor;
@@ -57,6 +58,7 @@ public class FlushManager implements FlushManagerMBean, IService {
   @Override
   public void start() throws StartupException {
     FlushSubTaskPoolManager.getInstance().start();
+    FlushEncodingPoolManager.getInstance().start();
     flushPool.start();
     try {
       JMXService.registerMBean(this, ServiceType.FLUSH_SERVICE.getJmxName());
@@ -91,6 +93,7 @@ public class FlushManager implements FlushManagerMBean, IService {
   @Override
   public void stop() {
     FlushSubTaskPoolManager.getInstance().stop();
+    FlushEncodingPoolManager.getInstance().stop();
     FlushTaskPoolManager.getInstance().stop();
     JMXService.deregisterMBean(ServiceType.FLUSH_SERVICE.getJmxName());
   }
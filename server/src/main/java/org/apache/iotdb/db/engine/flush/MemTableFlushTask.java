@@ -20,18 +20,26 @@ package org.apache.iotdb.db.engine.flush;
 
 import org.apache.iotdb.db.conf.IoTDBConfig;
 import org.apache.iotdb.db.conf.IoTDBDescriptor;
+import org.apache.iotdb.db.engine.flush.pool.FlushEncodingPoolManager;
 import org.apache.iotdb.db.engine.flush.pool.FlushSubTaskPoolManager;
+import org.apache.iotdb.db.engine.memtable.AlignedWritableMemChunk;
 import org.apache.iotdb.db.engine.memtable.IMemTable;
 import org.apache.iotdb.db.engine.memtable.IWritableMemChunk;
 import org.apache.iotdb.db.engine.memtable.IWritableMemChunkGroup;
+import org.apache.iotdb.db.engine.rollup.TsFileRollup;
 import org.apache.iotdb.db.exception.runtime.FlushRunTimeException;
 import org.apache.iotdb.db.metadata.idtable.entry.IDeviceID;
+import org.apache.iotdb.db.rescon.IngestionAdmissionController;
 import org.apache.iotdb.db.rescon.SystemInfo;
 import org.apache.iotdb.db.service.metrics.Metric;
 import org.apache.iotdb.db.service.metrics.MetricsService;
 import org.apache.iotdb.db.service.metrics.Tag;
 import org.apache.iotdb.metrics.config.MetricConfigDescriptor;
+import org.apache.iotdb.tsfile.encoding.encoder.AutoEncoder;
+import org.apache.iotdb.tsfile.write.chunk.AlignedChunkWriterImpl;
+import org.apache.iotdb.tsfile.write.chunk.ChunkWriterImpl;
 import org.apache.iotdb.tsfile.write.chunk.IChunkWriter;
+import org.apache.iotdb.tsfile.write.chunk.ValueChunkWriter;
 import org.apache.iotdb.tsfile.write.writer.RestorableTsFileIOWriter;
 
 import org.slf4j.Logger;
@@ -43,17 +51,27 @@ import java.util.concurrent.ExecutionException;
 import java.util.concurrent.Future;
 import java.util.concurrent.LinkedBlockingQueue;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
 
 /**
  * flush task to flush one memtable using a pipeline model to flush, which is sort memtable ->
  * encoding -> write to disk (io task)
+ *
+ * <p>When flush_encoding_thread_num > 1, the series are sorted and encoded in parallel by the
+ * {@link FlushEncodingPoolManager}. The encoding task then passes the futures of the chunk writers
+ * to the io task in the order of the series, so the chunks are still written in device and
+ * measurement order.
  */
 public class MemTableFlushTask {
 
   private static final Logger LOGGER = LoggerFactory.getLogger(MemTableFlushTask.class);
   private static final FlushSubTaskPoolManager SUB_TASK_POOL_MANAGER =
       FlushSubTaskPoolManager.getInstance();
+  private static final FlushEncodingPoolManager ENCODING_POOL_MANAGER =
+      FlushEncodingPoolManager.getInstance();
   private static IoTDBConfig config = IoTDBDescriptor.getInstance().getConfig();
+  // the property of the measurement schema for lossy encodings like SDT
+  private static final String LOSS = "loss";
   private final Future<?> encodingTaskFuture;
   private final Future<?> ioTaskFuture;
   private RestorableTsFileIOWriter writer;
@@ -68,7 +86,14 @@ public class MemTableFlushTask {
 
   private IMemTable memTable;
 
-  private volatile long memSerializeTime = 0L;
+  // the rollups of the sequence TsFile to update with the flushed series, null if not kept
+  private final TsFileRollup rollup;
+
+  private final boolean parallelEncoding = config.getFlushEncodingThreadNum() > 1;
+
+  // the time costs of all series, summed up over the encoding threads
+  private final AtomicLong sortTime = new AtomicLong();
+  private final AtomicLong memSerializeTime = new AtomicLong();
   private volatile long ioTime = 0L;
 
   /**
@@ -78,9 +103,24 @@ public class MemTableFlushTask {
    */
   public MemTableFlushTask(
       IMemTable memTable, RestorableTsFileIOWriter writer, String storageGroup) {
+    this(memTable, writer, storageGroup, null);
+  }
+
+  /**
+   * @param memTable the memTable to flush
+   * @param writer the writer where memTable will be flushed to (current tsfile writer or vm writer)
+   * @param storageGroup current storage group
+   * @param rollup the rollups of the tsfile to update with the flushed series, null if not kept
+   */
+  public MemTableFlushTask(
+      IMemTable memTable,
+      RestorableTsFileIOWriter writer,
+      String storageGroup,
+      TsFileRollup rollup) {
     this.memTable = memTable;
     this.writer = writer;
     this.storageGroup = storageGroup;
+    this.rollup = rollup;
     this.encodingTaskFuture = SUB_TASK_POOL_MANAGER.submit(encodingTask);
     this.ioTaskFuture = SUB_TASK_POOL_MANAGER.submit(ioTask);
     LOGGER.debug(
@@ -105,7 +145,6 @@ public class MemTableFlushTask {
       SystemInfo.getInstance().applyTemporaryMemoryForFlushing(estimatedTemporaryMemSize);
     }
     long start = System.currentTimeMillis();
-    long sortTime = 0;
 
     // for map do not use get(key) to iterate
     for (Map.Entry<IDeviceID, IWritableMemChunkGroup> memTableEntry :
@@ -114,24 +153,19 @@ public class MemTableFlushTask {
 
       final Map<String, IWritableMemChunk> value = memTableEntry.getValue().getMemChunkMap();
       for (Map.Entry<String, IWritableMemChunk> iWritableMemChunkEntry : value.entrySet()) {
-        long startTime = System.currentTimeMillis();
         IWritableMemChunk series = iWritableMemChunkEntry.getValue();
         /*
-         * sort task (first task of flush pipeline)
+         * sort task (first task of flush pipeline), done by the encoding threads if parallel
          */
-        series.sortTvListForFlush();
-        sortTime += System.currentTimeMillis() - startTime;
+        if (!parallelEncoding) {
+          sortSeries(series);
+        }
         encodingTaskQueue.put(series);
       }
 
       encodingTaskQueue.put(new EndChunkGroupIoTask());
     }
     encodingTaskQueue.put(new TaskEnd());
-    LOGGER.debug(
-        "Storage group {} memtable flushing into file {}: data sort time cost {} ms.",
-        storageGroup,
-        writer.getFile().getName(),
-        sortTime);
 
     try {
       encodingTaskFuture.get();
@@ -148,22 +182,32 @@ public class MemTableFlushTask {
       throw new ExecutionException(e);
     }
 
+    LOGGER.debug(
+        "Storage group {} memtable flushing into file {}: data sort time cost {} ms.",
+        storageGroup,
+        writer.getFile().getName(),
+        sortTime.get());
+
     if (config.isEnableMemControl()) {
       if (estimatedTemporaryMemSize != 0) {
         SystemInfo.getInstance().releaseTemporaryMemoryForFlushing(estimatedTemporaryMemSize);
       }
-      SystemInfo.getInstance().setEncodingFasterThanIo(ioTime >= memSerializeTime);
+      // the encoding threads work in parallel, so their elapsed time is about a share of the sum
+      long encodingTime =
+          parallelEncoding
+              ? (sortTime.get() + memSerializeTime.get()) / config.getFlushEncodingThreadNum()
+              : memSerializeTime.get();
+      SystemInfo.getInstance().setEncodingFasterThanIo(ioTime >= encodingTime);
     }
 
+    IngestionAdmissionController.getInstance()
+        .recordFlush(memTable.getTotalPointsNum(), System.currentTimeMillis() - start);
+
     if (MetricConfigDescriptor.getInstance().getMetricConfig().getEnableMetric()) {
-      MetricsService.getInstance()
-          .getMetricManager()
-          .timer(
-              System.currentTimeMillis() - start,
-              TimeUnit.MILLISECONDS,
-              Metric.COST_TASK.toString(),
-              Tag.NAME.toString(),
-              "flush");
+      recordCost("flush", System.currentTimeMillis() - start);
+      recordCost("flush_sort", sortTime.get());
+      recordCost("flush_encoding", memSerializeTime.get());
+      recordCost("flush_io", ioTime);
     }
 
     LOGGER.info(
@@ -173,6 +217,48 @@ public class MemTableFlushTask {
         System.currentTimeMillis() - start);
   }
 
+  private void recordCost(String name, long costInMs) {
+    MetricsService.getInstance()
+        .getMetricManager()
+        .timer(
+            costInMs,
+            TimeUnit.MILLISECONDS,
+            Metric.COST_TASK.toString(),
+            Tag.NAME.toString(),
+            name);
+  }
+
+  private void sortSeries(IWritableMemChunk series) {
+    long startTime = System.currentTimeMillis();
+    series.sortTvListForFlush();
+    sortTime.addAndGet(System.currentTimeMillis() - startTime);
+  }
+
+  private IChunkWriter encodeSeries(String deviceId, IWritableMemChunk writableMemChunk) {
+    long starTime = System.currentTimeMillis();
+    if (rollup != null && isRolledUp(writableMemChunk)) {
+      rollup.update(
+          deviceId, writableMemChunk.getSchema().getMeasurementId(), writableMemChunk.getTVList());
+    }
+    IChunkWriter seriesWriter = writableMemChunk.createIChunkWriter();
+    writableMemChunk.encode(seriesWriter);
+    seriesWriter.sealCurrentPage();
+    seriesWriter.clearPageWriter();
+    recordAutoEncoding(seriesWriter);
+    memSerializeTime.addAndGet(System.currentTimeMillis() - starTime);
+    return seriesWriter;
+  }
+
+  /**
+   * the rollups are computed from the points in the memtable, so they are not kept for aligned
+   * series or series with lossy encoding, whose chunks may not have all the points
+   */
+  private boolean isRolledUp(IWritableMemChunk writableMemChunk) {
+    return !(writableMemChunk instanceof AlignedWritableMemChunk)
+        && (writableMemChunk.getSchema().getProps() == null
+            || !writableMemChunk.getSchema().getProps().containsKey(LOSS));
+  }
+
   /** encoding task (second task of pipeline) */
   private Runnable encodingTask =
       new Runnable() {
@@ -184,6 +270,7 @@ public class MemTableFlushTask {
               "Storage group {} memtable flushing to file {} starts to encoding data.",
               storageGroup,
               writer.getFile().getName());
+          String deviceId = null;
           while (true) {
 
             Object task;
@@ -195,6 +282,9 @@ public class MemTableFlushTask {
               break;
             }
             if (task instanceof StartFlushGroupIOTask || task instanceof EndChunkGroupIoTask) {
+              if (task instanceof StartFlushGroupIOTask) {
+                deviceId = ((StartFlushGroupIOTask) task).deviceId;
+              }
               try {
                 ioTaskQueue.put(task);
               } catch (
@@ -211,19 +301,26 @@ public class MemTableFlushTask {
             } else if (task instanceof TaskEnd) {
               break;
             } else {
-              long starTime = System.currentTimeMillis();
               IWritableMemChunk writableMemChunk = (IWritableMemChunk) task;
-              IChunkWriter seriesWriter = writableMemChunk.createIChunkWriter();
-              writableMemChunk.encode(seriesWriter);
-              seriesWriter.sealCurrentPage();
-              seriesWriter.clearPageWriter();
+              // the io task takes either the chunk writer or its future
+              Object encodedChunk;
+              if (parallelEncoding) {
+                String seriesDeviceId = deviceId;
+                encodedChunk =
+                    ENCODING_POOL_MANAGER.submit(
+                        () -> {
+                          sortSeries(writableMemChunk);
+                          return encodeSeries(seriesDeviceId, writableMemChunk);
+                        });
+              } else {
+                encodedChunk = encodeSeries(deviceId, writableMemChunk);
+              }
               try {
-                ioTaskQueue.put(seriesWriter);
+                ioTaskQueue.put(encodedChunk);
               } catch (InterruptedException e) {
                 LOGGER.error("Put task into ioTaskQueue Interrupted");
                 Thread.currentThread().interrupt();
               }
-              memSerializeTime += System.currentTimeMillis() - starTime;
             }
           }
           try {
@@ -237,10 +334,50 @@ public class MemTableFlushTask {
               "Storage group {}, flushing memtable {} into disk: Encoding data cost " + "{} ms.",
               storageGroup,
               writer.getFile().getName(),
-              memSerializeTime);
+              memSerializeTime.get());
         }
       };
 
+  /** record the encodings selected for the chunks of TSEncoding.AUTO and the bytes they save */
+  private void recordAutoEncoding(IChunkWriter seriesWriter) {
+    if (!MetricConfigDescriptor.getInstance().getMetricConfig().getEnableMetric()) {
+      return;
+    }
+    if (seriesWriter instanceof ChunkWriterImpl) {
+      recordAutoEncoding(((ChunkWriterImpl) seriesWriter).getAutoEncoder());
+    } else if (seriesWriter instanceof AlignedChunkWriterImpl) {
+      for (ValueChunkWriter valueChunkWriter :
+          ((AlignedChunkWriterImpl) seriesWriter).getValueChunkWriterList()) {
+        recordAutoEncoding(valueChunkWriter.getAutoEncoder());
+      }
+    }
+  }
+
+  private void recordAutoEncoding(AutoEncoder autoEncoder) {
+    if (autoEncoder == null || !autoEncoder.isSelected()) {
+      return;
+    }
+    String encoding = autoEncoder.getSelectedEncoding().toString();
+    MetricsService.getInstance()
+        .getMetricManager()
+        .count(
+            1,
+            Metric.AUTO_ENCODING.toString(),
+            Tag.NAME.toString(),
+            "chunk",
+            Tag.TYPE.toString(),
+            encoding);
+    MetricsService.getInstance()
+        .getMetricManager()
+        .count(
+            Math.max(0, autoEncoder.getRawSize() - autoEncoder.getEncodedSize()),
+            Metric.AUTO_ENCODING.toString(),
+            Tag.NAME.toString(),
+            "saved_bytes",
+            Tag.TYPE.toString(),
+            encoding);
+  }
+
   /** io task (third task of pipeline) */
   @SuppressWarnings("squid:S135")
   private Runnable ioTask =
@@ -258,6 +395,9 @@ public class MemTableFlushTask {
             Thread.currentThread().interrupt();
             break;
           }
+          if (ioMessage instanceof Future) {
+            ioMessage = getEncodedChunk((Future<?>) ioMessage);
+          }
           long starTime = System.currentTimeMillis();
           try {
             if (ioMessage instanceof StartFlushGroupIOTask) {
@@ -285,6 +425,20 @@ public class MemTableFlushTask {
             ioTime);
       };
 
+  /** wait for a series encoded by the encoding threads */
+  private IChunkWriter getEncodedChunk(Future<?> future) {
+    try {
+      return (IChunkWriter) future.get();
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new FlushRunTimeException(e);
+    } catch (ExecutionException e) {
+      LOGGER.error(
+          "Storage group {} memtable {}, encoding task meets error.", storageGroup, memTable, e);
+      throw new FlushRunTimeException(e);
+    }
+  }
+
   static class TaskEnd {
 
     TaskEnd() {}
@@ -28,12 +28,16 @@ import org.apache.iotdb.db.metadata.idtable.entry.IDeviceID;
 import org.apache.iotdb.db.metadata.path.PartialPath;
 import org.apache.iotdb.db.qp.physical.crud.InsertRowPlan;
 import org.apache.iotdb.db.qp.physical.crud.InsertTabletPlan;
+import org.apache.iotdb.db.rescon.OffHeapArena;
 import org.apache.iotdb.db.service.metrics.Metric;
 import org.apache.iotdb.db.service.metrics.MetricsService;
 import org.apache.iotdb.db.service.metrics.Tag;
 import org.apache.iotdb.db.utils.MemUtils;
+import org.apache.iotdb.db.utils.datastructure.BinaryTVList;
+import org.apache.iotdb.db.utils.datastructure.TVList;
 import org.apache.iotdb.metrics.config.MetricConfigDescriptor;
 import org.apache.iotdb.tsfile.file.metadata.enums.TSDataType;
+import org.apache.iotdb.tsfile.utils.Binary;
 import org.apache.iotdb.tsfile.utils.Pair;
 import org.apache.iotdb.tsfile.write.schema.IMeasurementSchema;
 
@@ -42,11 +46,19 @@ import org.slf4j.LoggerFactory;
 
 import java.io.IOException;
 import java.util.ArrayList;
-import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
-
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * A memtable accepts concurrent writers of different devices: the statistics are atomic and the
+ * device map of a working memtable is concurrent. Writers of the same device must be serialized by
+ * the caller. Writes to a device and query snapshots of it are serialized on the monitor of its
+ * {@link IWritableMemChunkGroup}.
+ */
 public abstract class AbstractMemTable implements IMemTable {
 
   /** DeviceId -> chunkGroup(MeasurementId -> chunk) */
@@ -63,33 +75,45 @@ public abstract class AbstractMemTable implements IMemTable {
   private final int avgSeriesPointNumThreshold =
       IoTDBDescriptor.getInstance().getConfig().getAvgSeriesPointNumberThreshold();
   /** memory size of data points, including TEXT values */
-  private long memSize = 0;
+  private final AtomicLong memSize = new AtomicLong();
   /**
    * memory usage of all TVLists memory usage regardless of whether these TVLists are full,
    * including TEXT values
    */
-  private long tvListRamCost = 0;
+  private final AtomicLong tvListRamCost = new AtomicLong();
 
-  private int seriesNumber = 0;
+  private final AtomicInteger seriesNumber = new AtomicInteger();
 
-  private long totalPointsNum = 0;
+  private final AtomicLong totalPointsNum = new AtomicLong();
 
-  private long totalPointsNumThreshold = 0;
+  private final AtomicLong totalPointsNumThreshold = new AtomicLong();
 
-  private long maxPlanIndex = Long.MIN_VALUE;
+  private final AtomicLong maxPlanIndex = new AtomicLong(Long.MIN_VALUE);
 
-  private long minPlanIndex = Long.MAX_VALUE;
+  private final AtomicLong minPlanIndex = new AtomicLong(Long.MAX_VALUE);
 
   private long createdTime = System.currentTimeMillis();
 
   private static final String METRIC_POINT_IN = "pointsIn";
 
+  /**
+   * direct memory of the non-aligned INT32, INT64, FLOAT and DOUBLE series, null if off-heap
+   * memtables are disabled. It is released in bulk with the memtable.
+   */
+  private final OffHeapArena offHeapArena;
+
   public AbstractMemTable() {
-    this.memTableMap = new HashMap<>();
+    this.memTableMap = new ConcurrentHashMap<>();
+    this.offHeapArena =
+        IoTDBDescriptor.getInstance().getConfig().isEnableOffHeapMemTable()
+            ? new OffHeapArena()
+            : null;
   }
 
   public AbstractMemTable(Map<IDeviceID, IWritableMemChunkGroup> memTableMap) {
     this.memTableMap = memTableMap;
+    // the chunk groups belong to the memtable that created them, so does their arena
+    this.offHeapArena = null;
   }
 
   @Override
@@ -107,11 +131,11 @@ public abstract class AbstractMemTable implements IMemTable {
   private IWritableMemChunkGroup createMemChunkGroupIfNotExistAndGet(
       IDeviceID deviceId, List<IMeasurementSchema> schemaList) {
     IWritableMemChunkGroup memChunkGroup =
-        memTableMap.computeIfAbsent(deviceId, k -> new WritableMemChunkGroup());
+        memTableMap.computeIfAbsent(deviceId, k -> new WritableMemChunkGroup(offHeapArena));
     for (IMeasurementSchema schema : schemaList) {
       if (!memChunkGroup.contains(schema.getMeasurementId())) {
-        seriesNumber++;
-        totalPointsNumThreshold += avgSeriesPointNumThreshold;
+        seriesNumber.incrementAndGet();
+        totalPointsNumThreshold.addAndGet(avgSeriesPointNumThreshold);
       }
     }
     return memChunkGroup;
@@ -123,14 +147,15 @@ public abstract class AbstractMemTable implements IMemTable {
         memTableMap.computeIfAbsent(
             deviceId,
             k -> {
-              seriesNumber += schemaList.size();
-              totalPointsNumThreshold += ((long) avgSeriesPointNumThreshold) * schemaList.size();
+              seriesNumber.addAndGet(schemaList.size());
+              totalPointsNumThreshold.addAndGet(
+                  ((long) avgSeriesPointNumThreshold) * schemaList.size());
               return new AlignedWritableMemChunkGroup(schemaList);
             });
     for (IMeasurementSchema schema : schemaList) {
       if (!memChunkGroup.contains(schema.getMeasurementId())) {
-        seriesNumber++;
-        totalPointsNumThreshold += avgSeriesPointNumThreshold;
+        seriesNumber.incrementAndGet();
+        totalPointsNumThreshold.addAndGet(avgSeriesPointNumThreshold);
       }
     }
     return memChunkGroup;
@@ -159,13 +184,13 @@ public abstract class AbstractMemTable implements IMemTable {
       schemaList.add(schema);
       dataTypes.add(schema.getType());
     }
-    memSize += MemUtils.getRecordsSize(dataTypes, values, disableMemControl);
+    memSize.addAndGet(MemUtils.getRecordsSize(dataTypes, values, disableMemControl));
     write(insertRowPlan.getDeviceID(), schemaList, insertRowPlan.getTime(), values);
 
     int pointsInserted =
         insertRowPlan.getMeasurements().length - insertRowPlan.getFailedMeasurementNumber();
 
-    totalPointsNum += pointsInserted;
+    totalPointsNum.addAndGet(pointsInserted);
 
     if (MetricConfigDescriptor.getInstance().getMetricConfig().getEnableMetric()) {
       MetricsService.getInstance()
@@ -197,8 +222,8 @@ public abstract class AbstractMemTable implements IMemTable {
     if (schemaList.isEmpty()) {
       return;
     }
-    memSize +=
-        MemUtils.getAlignedRecordsSize(dataTypes, insertRowPlan.getValues(), disableMemControl);
+    memSize.addAndGet(
+        MemUtils.getAlignedRecordsSize(dataTypes, insertRowPlan.getValues(), disableMemControl));
     writeAlignedRow(
         insertRowPlan.getDeviceID(),
         schemaList,
@@ -206,7 +231,7 @@ public abstract class AbstractMemTable implements IMemTable {
         insertRowPlan.getValues());
     int pointsInserted =
         insertRowPlan.getMeasurements().length - insertRowPlan.getFailedMeasurementNumber();
-    totalPointsNum += pointsInserted;
+    totalPointsNum.addAndGet(pointsInserted);
 
     if (MetricConfigDescriptor.getInstance().getMetricConfig().getEnableMetric()) {
       MetricsService.getInstance()
@@ -221,11 +246,11 @@ public abstract class AbstractMemTable implements IMemTable {
     updatePlanIndexes(insertTabletPlan.getIndex());
     try {
       write(insertTabletPlan, start, end);
-      memSize += MemUtils.getTabletSize(insertTabletPlan, start, end, disableMemControl);
+      memSize.addAndGet(MemUtils.getTabletSize(insertTabletPlan, start, end, disableMemControl));
       int pointsInserted =
           (insertTabletPlan.getDataTypes().length - insertTabletPlan.getFailedMeasurementNumber())
               * (end - start);
-      totalPointsNum += pointsInserted;
+      totalPointsNum.addAndGet(pointsInserted);
       if (MetricConfigDescriptor.getInstance().getMetricConfig().getEnableMetric()) {
         MetricsService.getInstance()
             .getMetricManager()
@@ -243,11 +268,12 @@ public abstract class AbstractMemTable implements IMemTable {
     updatePlanIndexes(insertTabletPlan.getIndex());
     try {
       writeAlignedTablet(insertTabletPlan, start, end);
-      memSize += MemUtils.getAlignedTabletSize(insertTabletPlan, start, end, disableMemControl);
+      memSize.addAndGet(
+          MemUtils.getAlignedTabletSize(insertTabletPlan, start, end, disableMemControl));
       int pointsInserted =
           (insertTabletPlan.getDataTypes().length - insertTabletPlan.getFailedMeasurementNumber())
               * (end - start);
-      totalPointsNum += pointsInserted;
+      totalPointsNum.addAndGet(pointsInserted);
       if (MetricConfigDescriptor.getInstance().getMetricConfig().getEnableMetric()) {
         MetricsService.getInstance()
             .getMetricManager()
@@ -267,7 +293,9 @@ public abstract class AbstractMemTable implements IMemTable {
       Object[] objectValue) {
     IWritableMemChunkGroup memChunkGroup =
         createMemChunkGroupIfNotExistAndGet(deviceId, schemaList);
-    memChunkGroup.write(insertTime, objectValue, schemaList);
+    synchronized (memChunkGroup) {
+      memChunkGroup.write(insertTime, objectValue, schemaList);
+    }
   }
 
   @Override
@@ -278,7 +306,9 @@ public abstract class AbstractMemTable implements IMemTable {
       Object[] objectValue) {
     IWritableMemChunkGroup memChunkGroup =
         createAlignedMemChunkGroupIfNotExistAndGet(deviceId, schemaList);
-    memChunkGroup.write(insertTime, objectValue, schemaList);
+    synchronized (memChunkGroup) {
+      memChunkGroup.write(insertTime, objectValue, schemaList);
+    }
   }
 
   @SuppressWarnings("squid:S3776") // high Cognitive Complexity
@@ -300,13 +330,15 @@ public abstract class AbstractMemTable implements IMemTable {
     }
     IWritableMemChunkGroup memChunkGroup =
         createMemChunkGroupIfNotExistAndGet(insertTabletPlan.getDeviceID(), schemaList);
-    memChunkGroup.writeValues(
-        insertTabletPlan.getTimes(),
-        insertTabletPlan.getColumns(),
-        insertTabletPlan.getBitMaps(),
-        schemaList,
-        start,
-        end);
+    synchronized (memChunkGroup) {
+      memChunkGroup.writeValues(
+          insertTabletPlan.getTimes(),
+          insertTabletPlan.getColumns(),
+          insertTabletPlan.getBitMaps(),
+          schemaList,
+          start,
+          end);
+    }
   }
 
   @Override
@@ -330,13 +362,15 @@ public abstract class AbstractMemTable implements IMemTable {
     }
     IWritableMemChunkGroup memChunkGroup =
         createAlignedMemChunkGroupIfNotExistAndGet(insertTabletPlan.getDeviceID(), schemaList);
-    memChunkGroup.writeValues(
-        insertTabletPlan.getTimes(),
-        insertTabletPlan.getColumns(),
-        insertTabletPlan.getBitMaps(),
-        schemaList,
-        start,
-        end);
+    synchronized (memChunkGroup) {
+      memChunkGroup.writeValues(
+          insertTabletPlan.getTimes(),
+          insertTabletPlan.getColumns(),
+          insertTabletPlan.getBitMaps(),
+          schemaList,
+          start,
+          end);
+    }
   }
 
   @Override
@@ -348,6 +382,20 @@ public abstract class AbstractMemTable implements IMemTable {
     return !memChunkGroup.contains(measurement);
   }
 
+  @Override
+  public long getTextDataIncrement(
+      IDeviceID deviceId, String measurement, Binary[] values, int start, int end) {
+    IWritableMemChunkGroup memChunkGroup = memTableMap.get(deviceId);
+    BinaryTVList list = null;
+    if (memChunkGroup != null && memChunkGroup.contains(measurement)) {
+      TVList tvList = memChunkGroup.getMemChunkMap().get(measurement).getTVList();
+      if (tvList instanceof BinaryTVList) {
+        list = (BinaryTVList) tvList;
+      }
+    }
+    return BinaryTVList.getTextDataIncrement(list, values, start, end);
+  }
+
   @Override
   public long getCurrentChunkPointNum(IDeviceID deviceId, String measurement) {
     IWritableMemChunkGroup memChunkGroup = memTableMap.get(deviceId);
@@ -356,12 +404,12 @@ public abstract class AbstractMemTable implements IMemTable {
 
   @Override
   public int getSeriesNumber() {
-    return seriesNumber;
+    return seriesNumber.get();
   }
 
   @Override
   public long getTotalPointsNum() {
-    return totalPointsNum;
+    return totalPointsNum.get();
   }
 
   @Override
@@ -375,26 +423,27 @@ public abstract class AbstractMemTable implements IMemTable {
 
   @Override
   public long memSize() {
-    return memSize;
+    return memSize.get();
   }
 
   @Override
   public boolean reachTotalPointNumThreshold() {
-    if (totalPointsNum == 0) {
+    long pointsNum = totalPointsNum.get();
+    if (pointsNum == 0) {
       return false;
     }
-    return totalPointsNum >= totalPointsNumThreshold;
+    return pointsNum >= totalPointsNumThreshold.get();
   }
 
   @Override
   public void clear() {
     memTableMap.clear();
-    memSize = 0;
-    seriesNumber = 0;
-    totalPointsNum = 0;
-    totalPointsNumThreshold = 0;
-    tvListRamCost = 0;
-    maxPlanIndex = 0;
+    memSize.set(0);
+    seriesNumber.set(0);
+    totalPointsNum.set(0);
+    totalPointsNumThreshold.set(0);
+    tvListRamCost.set(0);
+    maxPlanIndex.set(0);
   }
 
   @Override
@@ -417,32 +466,33 @@ public abstract class AbstractMemTable implements IMemTable {
     if (memChunkGroup == null) {
       return;
     }
-    totalPointsNum -= memChunkGroup.delete(originalPath, devicePath, startTimestamp, endTimestamp);
+    totalPointsNum.addAndGet(
+        -memChunkGroup.delete(originalPath, devicePath, startTimestamp, endTimestamp));
   }
 
   @Override
   public void addTVListRamCost(long cost) {
-    this.tvListRamCost += cost;
+    tvListRamCost.addAndGet(cost);
   }
 
   @Override
   public void releaseTVListRamCost(long cost) {
-    this.tvListRamCost -= cost;
+    tvListRamCost.addAndGet(-cost);
   }
 
   @Override
   public long getTVListsRamCost() {
-    return tvListRamCost;
+    return tvListRamCost.get();
   }
 
   @Override
   public void addTextDataSize(long textDataSize) {
-    this.memSize += textDataSize;
+    memSize.addAndGet(textDataSize);
   }
 
   @Override
   public void releaseTextDataSize(long textDataSize) {
-    this.memSize -= textDataSize;
+    memSize.addAndGet(-textDataSize);
   }
 
   @Override
@@ -460,21 +510,24 @@ public abstract class AbstractMemTable implements IMemTable {
     for (Entry<IDeviceID, IWritableMemChunkGroup> entry : memTableMap.entrySet()) {
       entry.getValue().release();
     }
+    if (offHeapArena != null) {
+      offHeapArena.release();
+    }
   }
 
   @Override
   public long getMaxPlanIndex() {
-    return maxPlanIndex;
+    return maxPlanIndex.get();
   }
 
   @Override
   public long getMinPlanIndex() {
-    return minPlanIndex;
+    return minPlanIndex.get();
   }
 
   void updatePlanIndexes(long index) {
-    maxPlanIndex = Math.max(index, maxPlanIndex);
-    minPlanIndex = Math.min(index, minPlanIndex);
+    maxPlanIndex.accumulateAndGet(index, Math::max);
+    minPlanIndex.accumulateAndGet(index, Math::min);
   }
 
   @Override
@@ -27,6 +27,7 @@ import org.apache.iotdb.db.metadata.idtable.entry.IDeviceID;
 import org.apache.iotdb.db.metadata.path.PartialPath;
 import org.apache.iotdb.db.qp.physical.crud.InsertRowPlan;
 import org.apache.iotdb.db.qp.physical.crud.InsertTabletPlan;
+import org.apache.iotdb.tsfile.utils.Binary;
 import org.apache.iotdb.tsfile.utils.Pair;
 import org.apache.iotdb.tsfile.write.schema.IMeasurementSchema;
 
@@ -157,6 +158,13 @@ public interface IMemTable {
   /** only used when mem control enabled */
   long getCurrentChunkPointNum(IDeviceID deviceId, String measurement);
 
+  /**
+   * get the memory cost of TEXT values to be written into a non-aligned series, values already in
+   * the dictionary of the chunk are not counted. Only used when mem control enabled
+   */
+  long getTextDataIncrement(
+      IDeviceID deviceId, String measurement, Binary[] values, int start, int end);
+
   /** only used when mem control enabled */
   void addTextDataSize(long textDataIncrement);
 
@@ -66,6 +66,9 @@ public interface IWritableMemChunk {
   /**
    * write data in the range [start, end). Null value in the valueList will be replaced by the
    * subsequent non-null value, e.g., {1, null, 3, null, 5} will be {1, 3, 5, null, 5}
+   *
+   * <p>A numeric valueList may also be a view over the request buffer, see {@link
+   * org.apache.iotdb.db.utils.QueryDataSetUtils#readColumnViewsFromBuffer}.
    */
   void write(
       long[] times, Object valueList, BitMap bitMap, TSDataType dataType, int start, int end);
@@ -98,6 +101,19 @@ public interface IWritableMemChunk {
    */
   TVList getSortedTvListForQuery();
 
+  /**
+   * served for query requests without sorting or copying the tv list.
+   *
+   * <p>the returned list is shared with the writers, which only append to it. A query reads the
+   * first {@code size()} points of it through {@link TVList#getSortedRunStarts()}, and the list
+   * is copied before any in-place change (sort for flush or deletion) once it is referenced.
+   *
+   * @return referenced tv list
+   */
+  default TVList getTvListForQuery() {
+    return getSortedTvListForQuery();
+  }
+
   /**
    * served for vector query requests.
    *
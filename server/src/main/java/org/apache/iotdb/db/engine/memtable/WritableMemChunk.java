@@ -18,9 +18,12 @@
  */
 package org.apache.iotdb.db.engine.memtable;
 
+import org.apache.iotdb.db.rescon.OffHeapArena;
+import org.apache.iotdb.db.utils.datastructure.BinaryTVList;
 import org.apache.iotdb.db.utils.datastructure.TVList;
 import org.apache.iotdb.tsfile.exception.write.UnSupportedDataTypeException;
 import org.apache.iotdb.tsfile.file.metadata.enums.TSDataType;
+import org.apache.iotdb.tsfile.file.metadata.enums.TSEncoding;
 import org.apache.iotdb.tsfile.utils.Binary;
 import org.apache.iotdb.tsfile.utils.BitMap;
 import org.apache.iotdb.tsfile.write.chunk.ChunkWriterImpl;
@@ -30,6 +33,10 @@ import org.apache.iotdb.tsfile.write.schema.IMeasurementSchema;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.nio.DoubleBuffer;
+import java.nio.FloatBuffer;
+import java.nio.IntBuffer;
+import java.nio.LongBuffer;
 import java.util.List;
 
 public class WritableMemChunk implements IWritableMemChunk {
@@ -40,8 +47,13 @@ public class WritableMemChunk implements IWritableMemChunk {
   private static final Logger LOGGER = LoggerFactory.getLogger(WritableMemChunk.class);
 
   public WritableMemChunk(IMeasurementSchema schema) {
+    this(schema, null);
+  }
+
+  /** @param arena the off-heap arena of the memtable, null if the list is on heap */
+  public WritableMemChunk(IMeasurementSchema schema, OffHeapArena arena) {
     this.schema = schema;
-    this.list = TVList.newList(schema.getType());
+    this.list = TVList.newList(schema.getType(), arena);
   }
 
   @Override
@@ -85,20 +97,36 @@ public class WritableMemChunk implements IWritableMemChunk {
         putBooleans(times, boolValues, bitMap, start, end);
         break;
       case INT32:
-        int[] intValues = (int[]) valueList;
-        putInts(times, intValues, bitMap, start, end);
+        if (valueList instanceof IntBuffer) {
+          // a view over the request buffer, copied straight into the list
+          list.putInts(times, (IntBuffer) valueList, bitMap, start, end);
+        } else {
+          putInts(times, (int[]) valueList, bitMap, start, end);
+        }
         break;
       case INT64:
-        long[] longValues = (long[]) valueList;
-        putLongs(times, longValues, bitMap, start, end);
+        if (valueList instanceof LongBuffer) {
+          // a view over the request buffer, copied straight into the list
+          list.putLongs(times, (LongBuffer) valueList, bitMap, start, end);
+        } else {
+          putLongs(times, (long[]) valueList, bitMap, start, end);
+        }
         break;
       case FLOAT:
-        float[] floatValues = (float[]) valueList;
-        putFloats(times, floatValues, bitMap, start, end);
+        if (valueList instanceof FloatBuffer) {
+          // a view over the request buffer, copied straight into the list
+          list.putFloats(times, (FloatBuffer) valueList, bitMap, start, end);
+        } else {
+          putFloats(times, (float[]) valueList, bitMap, start, end);
+        }
         break;
       case DOUBLE:
-        double[] doubleValues = (double[]) valueList;
-        putDoubles(times, doubleValues, bitMap, start, end);
+        if (valueList instanceof DoubleBuffer) {
+          // a view over the request buffer, copied straight into the list
+          list.putDoubles(times, (DoubleBuffer) valueList, bitMap, start, end);
+        } else {
+          putDoubles(times, (double[]) valueList, bitMap, start, end);
+        }
         break;
       case TEXT:
         Binary[] binaryValues = (Binary[]) valueList;
@@ -141,7 +169,13 @@ public class WritableMemChunk implements IWritableMemChunk {
   }
 
   @Override
-  public void putBinary(long t, Binary v) {
+  public synchronized void putBinary(long t, Binary v) {
+    // queries may still be reading the codes, which are released when the list falls back to
+    // storing the values directly, copy it like delete does
+    if (list.getReferenceCount() > 0
+        && ((BinaryTVList) list).isFallBackNeeded(new Binary[] {v}, null, 0, 1)) {
+      list = list.clone();
+    }
     list.putBinary(t, v);
   }
 
@@ -176,7 +210,11 @@ public class WritableMemChunk implements IWritableMemChunk {
   }
 
   @Override
-  public void putBinaries(long[] t, Binary[] v, BitMap bitMap, int start, int end) {
+  public synchronized void putBinaries(long[] t, Binary[] v, BitMap bitMap, int start, int end) {
+    if (list.getReferenceCount() > 0
+        && ((BinaryTVList) list).isFallBackNeeded(v, bitMap, start, end)) {
+      list = list.clone();
+    }
     list.putBinaries(t, v, bitMap, start, end);
   }
 
@@ -199,6 +237,12 @@ public class WritableMemChunk implements IWritableMemChunk {
     return list;
   }
 
+  @Override
+  public synchronized TVList getTvListForQuery() {
+    list.increaseReferenceCount();
+    return list;
+  }
+
   @Override
   public synchronized TVList getSortedTvListForQuery(List<IMeasurementSchema> measurementSchema) {
     throw new UnSupportedDataTypeException(UNSUPPORTED_TYPE + list.getDataType());
@@ -259,7 +303,11 @@ public class WritableMemChunk implements IWritableMemChunk {
   }
 
   @Override
-  public int delete(long lowerBound, long upperBound) {
+  public synchronized int delete(long lowerBound, long upperBound) {
+    // queries may still be reading the list, copy it before removing points in place
+    if (list.getReferenceCount() > 0) {
+      list = list.clone();
+    }
     return list.delete(lowerBound, upperBound);
   }
 
@@ -304,6 +352,11 @@ public class WritableMemChunk implements IWritableMemChunk {
   public void encode(IChunkWriter chunkWriter) {
 
     ChunkWriterImpl chunkWriterImpl = (ChunkWriterImpl) chunkWriter;
+    BinaryTVList textList = list instanceof BinaryTVList ? (BinaryTVList) list : null;
+    boolean dictionaryEncoded =
+        textList != null
+            && textList.isDictionaryEncoded()
+            && schema.getEncodingType() == TSEncoding.DICTIONARY;
 
     for (int sortedRowIndex = 0; sortedRowIndex < list.size(); sortedRowIndex++) {
       long time = list.getTime(sortedRowIndex);
@@ -335,7 +388,13 @@ public class WritableMemChunk implements IWritableMemChunk {
           chunkWriterImpl.write(time, list.getDouble(sortedRowIndex));
           break;
         case TEXT:
-          chunkWriterImpl.write(time, list.getBinary(sortedRowIndex));
+          if (dictionaryEncoded) {
+            // reuse the codes of the list instead of hashing every value again
+            chunkWriterImpl.write(
+                time, textList.getCode(sortedRowIndex), list.getBinary(sortedRowIndex));
+          } else {
+            chunkWriterImpl.write(time, list.getBinary(sortedRowIndex));
+          }
           break;
         default:
           LOGGER.error("WritableMemChunk does not support data type: {}", schema.getType());
@@ -20,6 +20,7 @@
 package org.apache.iotdb.db.engine.memtable;
 
 import org.apache.iotdb.db.metadata.path.PartialPath;
+import org.apache.iotdb.db.rescon.OffHeapArena;
 import org.apache.iotdb.tsfile.utils.BitMap;
 import org.apache.iotdb.tsfile.write.schema.IMeasurementSchema;
 
@@ -33,8 +34,16 @@ public class WritableMemChunkGroup implements IWritableMemChunkGroup {
 
   private Map<String, IWritableMemChunk> memChunkMap;
 
+  /** the off-heap arena of the memtable, null if the memtable is on heap */
+  private final OffHeapArena arena;
+
   public WritableMemChunkGroup() {
+    this(null);
+  }
+
+  public WritableMemChunkGroup(OffHeapArena arena) {
     memChunkMap = new HashMap<>();
+    this.arena = arena;
   }
 
   @Override
@@ -65,7 +74,7 @@ public class WritableMemChunkGroup implements IWritableMemChunkGroup {
 
   private IWritableMemChunk createMemChunkIfNotExistAndGet(IMeasurementSchema schema) {
     return memChunkMap.computeIfAbsent(
-        schema.getMeasurementId(), k -> new WritableMemChunk(schema));
+        schema.getMeasurementId(), k -> new WritableMemChunk(schema, arena));
   }
 
   @Override
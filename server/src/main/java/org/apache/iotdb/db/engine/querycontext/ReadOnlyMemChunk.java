@@ -64,6 +64,9 @@ public class ReadOnlyMemChunk {
 
   private int chunkDataSize;
 
+  // start offsets of the ascending runs of an unsorted chunkData, null if it is sorted
+  private int[] sortedRunStarts;
+
   public ReadOnlyMemChunk() {
     this.deletionList = null;
   }
@@ -77,6 +80,19 @@ public class ReadOnlyMemChunk {
       int size,
       List<TimeRange> deletionList)
       throws IOException, QueryProcessException {
+    this(measurementUid, dataType, encoding, tvList, props, size, null, deletionList);
+  }
+
+  public ReadOnlyMemChunk(
+      String measurementUid,
+      TSDataType dataType,
+      TSEncoding encoding,
+      TVList tvList,
+      Map<String, String> props,
+      int size,
+      int[] sortedRunStarts,
+      List<TimeRange> deletionList)
+      throws IOException, QueryProcessException {
     this.measurementUid = measurementUid;
     this.dataType = dataType;
     this.encoding = encoding;
@@ -99,10 +115,11 @@ public class ReadOnlyMemChunk {
 
     this.chunkData = tvList;
     this.chunkDataSize = size;
+    this.sortedRunStarts = sortedRunStarts;
     this.deletionList = deletionList;
 
     this.chunkPointReader =
-        tvList.getIterator(floatPrecision, encoding, chunkDataSize, deletionList);
+        tvList.getIterator(floatPrecision, encoding, chunkDataSize, deletionList, sortedRunStarts);
     initChunkMeta();
   }
 
@@ -111,7 +128,8 @@ public class ReadOnlyMemChunk {
     IChunkMetadata metaData = new ChunkMetadata(measurementUid, dataType, 0, statsByType);
     if (!isEmpty()) {
       IPointReader iterator =
-          chunkData.getIterator(floatPrecision, encoding, chunkDataSize, deletionList);
+          chunkData.getIterator(
+              floatPrecision, encoding, chunkDataSize, deletionList, sortedRunStarts);
       while (iterator.hasNextTimeValuePair()) {
         TimeValuePair timeValuePair = iterator.nextTimeValuePair();
         switch (dataType) {
@@ -157,7 +175,9 @@ public class ReadOnlyMemChunk {
   }
 
   public IPointReader getPointReader() {
-    chunkPointReader = chunkData.getIterator(floatPrecision, encoding, chunkDataSize, deletionList);
+    chunkPointReader =
+        chunkData.getIterator(
+            floatPrecision, encoding, chunkDataSize, deletionList, sortedRunStarts);
     return chunkPointReader;
   }
 
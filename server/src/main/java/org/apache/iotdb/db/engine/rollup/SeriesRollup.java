@@ -0,0 +1,260 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.iotdb.db.engine.rollup;
+
+import org.apache.iotdb.db.utils.datastructure.TVList;
+import org.apache.iotdb.tsfile.file.metadata.enums.TSDataType;
+import org.apache.iotdb.tsfile.file.metadata.statistics.Statistics;
+import org.apache.iotdb.tsfile.read.common.BatchData;
+import org.apache.iotdb.tsfile.utils.RamUsageEstimator;
+import org.apache.iotdb.tsfile.utils.ReadWriteIOUtils;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.Serializable;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * The rollup of one series in one TsFile. Each tier divides the time into intervals of the same
+ * length, aligned to the epoch, and keeps the statistics of the points of every non-empty interval,
+ * so an aggregation over aligned intervals can merge the statistics instead of reading the points.
+ *
+ * <p>The points must be added in the order of time, as they are written into the TsFile.
+ */
+public class SeriesRollup {
+
+  // a TreeMap entry and its boxed key, besides the statistics of an interval
+  private static final long INTERVAL_RAM_SIZE =
+      RamUsageEstimator.alignObjectSize(
+              RamUsageEstimator.NUM_BYTES_OBJECT_HEADER
+                  + 5L * RamUsageEstimator.NUM_BYTES_OBJECT_REF
+                  + RamUsageEstimator.NUM_BYTES_BOOLEAN)
+          + RamUsageEstimator.shallowSizeOfInstance(Long.class);
+
+  private final TSDataType dataType;
+
+  // ascending intervals of the tiers
+  private final long[] intervals;
+
+  // start time of the interval -> statistics of the points in the interval, for each tier
+  private final List<TreeMap<Long, Statistics<? extends Serializable>>> tiers;
+
+  // estimated memory of the intervals, counted when an interval is added
+  private long ramSize;
+
+  public SeriesRollup(TSDataType dataType, long[] intervals) {
+    this.dataType = dataType;
+    this.intervals = intervals;
+    this.tiers = new ArrayList<>(intervals.length);
+    for (int i = 0; i < intervals.length; i++) {
+      tiers.add(new TreeMap<>());
+    }
+  }
+
+  private SeriesRollup(
+      TSDataType dataType,
+      long[] intervals,
+      List<TreeMap<Long, Statistics<? extends Serializable>>> tiers) {
+    this.dataType = dataType;
+    this.intervals = intervals;
+    this.tiers = tiers;
+  }
+
+  public TSDataType getDataType() {
+    return dataType;
+  }
+
+  public long getRamSize() {
+    return ramSize;
+  }
+
+  /**
+   * add the points of a sorted list. Like flushing, only the last one of the points with the same
+   * time is added.
+   */
+  public void update(TVList list) {
+    Bucket[] buckets = new Bucket[intervals.length];
+    for (int i = 0; i < list.size(); i++) {
+      long time = list.getTime(i);
+      if (i + 1 < list.size() && time == list.getTime(i + 1)) {
+        continue;
+      }
+      for (int tier = 0; tier < intervals.length; tier++) {
+        Statistics<? extends Serializable> statistics = getStatistics(buckets, tier, time);
+        switch (dataType) {
+          case BOOLEAN:
+            statistics.update(time, list.getBoolean(i));
+            break;
+          case INT32:
+            statistics.update(time, list.getInt(i));
+            break;
+          case INT64:
+            statistics.update(time, list.getLong(i));
+            break;
+          case FLOAT:
+            statistics.update(time, list.getFloat(i));
+            break;
+          case DOUBLE:
+            statistics.update(time, list.getDouble(i));
+            break;
+          case TEXT:
+            statistics.update(time, list.getBinary(i));
+            break;
+          default:
+            throw new UnsupportedOperationException("Unsupported data type: " + dataType);
+        }
+      }
+    }
+    mergeBuckets(buckets);
+  }
+
+  /** add the remaining points of a page, which must be after the points added before */
+  public void update(BatchData batchData) {
+    Bucket[] buckets = new Bucket[intervals.length];
+    while (batchData.hasCurrent()) {
+      long time = batchData.currentTime();
+      for (int tier = 0; tier < intervals.length; tier++) {
+        Statistics<? extends Serializable> statistics = getStatistics(buckets, tier, time);
+        switch (dataType) {
+          case BOOLEAN:
+            statistics.update(time, batchData.getBoolean());
+            break;
+          case INT32:
+            statistics.update(time, batchData.getInt());
+            break;
+          case INT64:
+            statistics.update(time, batchData.getLong());
+            break;
+          case FLOAT:
+            statistics.update(time, batchData.getFloat());
+            break;
+          case DOUBLE:
+            statistics.update(time, batchData.getDouble());
+            break;
+          case TEXT:
+            statistics.update(time, batchData.getBinary());
+            break;
+          default:
+            throw new UnsupportedOperationException("Unsupported data type: " + dataType);
+        }
+      }
+      batchData.next();
+    }
+    mergeBuckets(buckets);
+  }
+
+  /** get the statistics of the interval of the time, and merge the finished interval */
+  private Statistics<? extends Serializable> getStatistics(Bucket[] buckets, int tier, long time) {
+    long startTime = time - Math.floorMod(time, intervals[tier]);
+    Bucket bucket = buckets[tier];
+    if (bucket == null || bucket.startTime != startTime) {
+      if (bucket != null) {
+        merge(tier, bucket.startTime, bucket.statistics);
+      }
+      bucket = new Bucket(startTime, Statistics.getStatsByType(dataType));
+      buckets[tier] = bucket;
+    }
+    return bucket.statistics;
+  }
+
+  private void mergeBuckets(Bucket[] buckets) {
+    for (int tier = 0; tier < intervals.length; tier++) {
+      if (buckets[tier] != null) {
+        merge(tier, buckets[tier].startTime, buckets[tier].statistics);
+      }
+    }
+  }
+
+  private void merge(int tier, long startTime, Statistics<? extends Serializable> statistics) {
+    Statistics<? extends Serializable> existing = tiers.get(tier).get(startTime);
+    if (existing == null) {
+      tiers.get(tier).put(startTime, statistics);
+      ramSize += INTERVAL_RAM_SIZE + statistics.calculateRamSize();
+    } else {
+      existing.mergeStatistics(statistics);
+    }
+  }
+
+  /**
+   * get the statistics of the non-empty intervals in [startTime, endTime) from the coarsest tier
+   * whose intervals are aligned to both ends
+   *
+   * @return the statistics in the order of time, or null if no tier is aligned to the range
+   */
+  public Collection<Statistics<? extends Serializable>> getStatistics(
+      long startTime, long endTime) {
+    for (int tier = intervals.length - 1; tier >= 0; tier--) {
+      if (Math.floorMod(startTime, intervals[tier]) == 0
+          && Math.floorMod(endTime, intervals[tier]) == 0) {
+        return tiers.get(tier).subMap(startTime, endTime).values();
+      }
+    }
+    return null;
+  }
+
+  public void serialize(OutputStream outputStream) throws IOException {
+    ReadWriteIOUtils.write(dataType, outputStream);
+    ReadWriteIOUtils.write(intervals.length, outputStream);
+    for (int tier = 0; tier < intervals.length; tier++) {
+      ReadWriteIOUtils.write(intervals[tier], outputStream);
+      ReadWriteIOUtils.write(tiers.get(tier).size(), outputStream);
+      for (Map.Entry<Long, Statistics<? extends Serializable>> entry :
+          tiers.get(tier).entrySet()) {
+        ReadWriteIOUtils.write(entry.getKey(), outputStream);
+        entry.getValue().serialize(outputStream);
+      }
+    }
+  }
+
+  public static SeriesRollup deserialize(ByteBuffer buffer) {
+    TSDataType dataType = ReadWriteIOUtils.readDataType(buffer);
+    int tierNum = ReadWriteIOUtils.readInt(buffer);
+    long[] intervals = new long[tierNum];
+    List<TreeMap<Long, Statistics<? extends Serializable>>> tiers = new ArrayList<>(tierNum);
+    for (int tier = 0; tier < tierNum; tier++) {
+      intervals[tier] = ReadWriteIOUtils.readLong(buffer);
+      int size = ReadWriteIOUtils.readInt(buffer);
+      TreeMap<Long, Statistics<? extends Serializable>> statisticsMap = new TreeMap<>();
+      for (int i = 0; i < size; i++) {
+        long startTime = ReadWriteIOUtils.readLong(buffer);
+        statisticsMap.put(startTime, Statistics.deserialize(buffer, dataType));
+      }
+      tiers.add(statisticsMap);
+    }
+    return new SeriesRollup(dataType, intervals, tiers);
+  }
+
+  /** the interval being filled of a tier */
+  private static class Bucket {
+
+    private final long startTime;
+    private final Statistics<? extends Serializable> statistics;
+
+    private Bucket(long startTime, Statistics<? extends Serializable> statistics) {
+      this.startTime = startTime;
+      this.statistics = statistics;
+    }
+  }
+}
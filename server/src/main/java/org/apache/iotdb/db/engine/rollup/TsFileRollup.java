@@ -0,0 +1,268 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.iotdb.db.engine.rollup;
+
+import org.apache.iotdb.db.conf.IoTDBDescriptor;
+import org.apache.iotdb.db.utils.datastructure.TVList;
+import org.apache.iotdb.tsfile.common.constant.TsFileConstant;
+import org.apache.iotdb.tsfile.file.metadata.ChunkMetadata;
+import org.apache.iotdb.tsfile.file.metadata.enums.TSDataType;
+import org.apache.iotdb.tsfile.read.TsFileSequenceReader;
+import org.apache.iotdb.tsfile.read.common.Chunk;
+import org.apache.iotdb.tsfile.read.reader.chunk.ChunkReader;
+import org.apache.iotdb.tsfile.utils.PublicBAOS;
+import org.apache.iotdb.tsfile.utils.ReadWriteIOUtils;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * The rollups of the non-aligned series of a sequence TsFile, kept in a file beside the TsFile.
+ *
+ * <p>The rollups are built while the memtables are flushed into the TsFile and rebuilt from the
+ * target file of a compaction. The rollup file only describes the TsFile as it is written, so the
+ * readers must not use it for a TsFile with modifications or overlapped by other files. The layout
+ * of the rollup file is:
+ *
+ * <pre>
+ * version (1 byte), length of the TsFile (8 bytes),
+ * series rollups: (device, measurement, SeriesRollup) * n,
+ * index: (hash of the series, offset, length) * n in the order of hash,
+ * n (4 bytes), offset of the index (8 bytes)
+ * </pre>
+ */
+public class TsFileRollup {
+
+  private static final Logger logger = LoggerFactory.getLogger(TsFileRollup.class);
+
+  public static final String FILE_SUFFIX = ".rollup";
+  private static final String TEMP_SUFFIX = ".temp";
+
+  private static final byte VERSION = 0;
+  private static final int HEADER_SIZE = Byte.BYTES + Long.BYTES;
+  private static final int INDEX_ENTRY_SIZE = Integer.BYTES + Long.BYTES + Integer.BYTES;
+  private static final int TAIL_SIZE = Integer.BYTES + Long.BYTES;
+
+  private final long[] intervals;
+
+  // device -> measurement -> rollup, updated by the encoding threads of flushing
+  private final Map<String, Map<String, SeriesRollup>> rollups = new ConcurrentHashMap<>();
+
+  // estimated memory of the intervals of all the series
+  private final AtomicLong ramSize = new AtomicLong();
+
+  public TsFileRollup(long[] intervals) {
+    this.intervals = intervals;
+  }
+
+  /** @return a rollup to build for a new sequence TsFile, or null if rollup is disabled */
+  public static TsFileRollup create() {
+    long[] intervals = IoTDBDescriptor.getInstance().getConfig().getRollupIntervals();
+    return intervals.length == 0 ? null : new TsFileRollup(intervals);
+  }
+
+  private SeriesRollup getSeriesRollup(String device, String measurement, TSDataType dataType) {
+    return rollups
+        .computeIfAbsent(device, k -> new ConcurrentHashMap<>())
+        .computeIfAbsent(measurement, k -> new SeriesRollup(dataType, intervals));
+  }
+
+  /** add the sorted points of a series flushed into the TsFile */
+  public void update(String device, String measurement, TVList sortedList) {
+    SeriesRollup seriesRollup = getSeriesRollup(device, measurement, sortedList.getDataType());
+    long oldRamSize = seriesRollup.getRamSize();
+    seriesRollup.update(sortedList);
+    ramSize.addAndGet(seriesRollup.getRamSize() - oldRamSize);
+  }
+
+  /** @return the estimated memory of the rollups, which grows with the flushed intervals */
+  public long getRamSize() {
+    return ramSize.get();
+  }
+
+  public static File getRollupFile(File tsFile) {
+    return new File(tsFile.getPath() + FILE_SUFFIX);
+  }
+
+  /** write the rollups beside the sealed TsFile */
+  public void serialize(File tsFile) throws IOException {
+    File rollupFile = getRollupFile(tsFile);
+    File tmpFile = new File(rollupFile.getPath() + TEMP_SUFFIX);
+    // (hash, offset, length) of the series
+    List<long[]> index = new ArrayList<>();
+    try (OutputStream outputStream = new BufferedOutputStream(new FileOutputStream(tmpFile))) {
+      long offset = 0;
+      offset += ReadWriteIOUtils.write(VERSION, outputStream);
+      offset += ReadWriteIOUtils.write(tsFile.length(), outputStream);
+      PublicBAOS buffer = new PublicBAOS();
+      for (Map.Entry<String, Map<String, SeriesRollup>> deviceEntry : rollups.entrySet()) {
+        for (Map.Entry<String, SeriesRollup> entry : deviceEntry.getValue().entrySet()) {
+          buffer.reset();
+          ReadWriteIOUtils.write(deviceEntry.getKey(), buffer);
+          ReadWriteIOUtils.write(entry.getKey(), buffer);
+          entry.getValue().serialize(buffer);
+          buffer.writeTo(outputStream);
+          index.add(new long[] {hash(deviceEntry.getKey(), entry.getKey()), offset, buffer.size()});
+          offset += buffer.size();
+        }
+      }
+      index.sort(Comparator.comparingLong(entry -> entry[0]));
+      for (long[] entry : index) {
+        ReadWriteIOUtils.write((int) entry[0], outputStream);
+        ReadWriteIOUtils.write(entry[1], outputStream);
+        ReadWriteIOUtils.write((int) entry[2], outputStream);
+      }
+      ReadWriteIOUtils.write(index.size(), outputStream);
+      ReadWriteIOUtils.write(offset, outputStream);
+    }
+    Files.move(tmpFile.toPath(), rollupFile.toPath(), StandardCopyOption.REPLACE_EXISTING);
+  }
+
+  private static int hash(String device, String measurement) {
+    return (device + TsFileConstant.PATH_SEPARATOR + measurement).hashCode();
+  }
+
+  /**
+   * read the rollup of a series from the rollup file beside the TsFile
+   *
+   * @return the rollup, or null if the TsFile has no rollup of the series
+   */
+  public static SeriesRollup read(File tsFile, String device, String measurement)
+      throws IOException {
+    File rollupFile = getRollupFile(tsFile);
+    if (!rollupFile.exists()) {
+      return null;
+    }
+    FileChannel channel;
+    try {
+      channel = FileChannel.open(rollupFile.toPath(), StandardOpenOption.READ);
+    } catch (NoSuchFileException e) {
+      // removed by a compaction
+      return null;
+    }
+    try {
+      ByteBuffer header = read(channel, 0, HEADER_SIZE);
+      if (header.get() != VERSION || header.getLong() != tsFile.length()) {
+        // the TsFile is rewritten without its rollup
+        return null;
+      }
+      ByteBuffer tail = read(channel, channel.size() - TAIL_SIZE, TAIL_SIZE);
+      int seriesNum = tail.getInt();
+      long indexOffset = tail.getLong();
+      ByteBuffer index = read(channel, indexOffset, seriesNum * INDEX_ENTRY_SIZE);
+
+      // find the first entry of the hash, then check the series of the entries with the hash
+      int hash = hash(device, measurement);
+      int low = 0;
+      int high = seriesNum;
+      while (low < high) {
+        int mid = (low + high) >>> 1;
+        if (index.getInt(mid * INDEX_ENTRY_SIZE) < hash) {
+          low = mid + 1;
+        } else {
+          high = mid;
+        }
+      }
+      for (int i = low; i < seriesNum && index.getInt(i * INDEX_ENTRY_SIZE) == hash; i++) {
+        long offset = index.getLong(i * INDEX_ENTRY_SIZE + Integer.BYTES);
+        int length = index.getInt(i * INDEX_ENTRY_SIZE + Integer.BYTES + Long.BYTES);
+        ByteBuffer buffer = read(channel, offset, length);
+        if (ReadWriteIOUtils.readString(buffer).equals(device)
+            && ReadWriteIOUtils.readString(buffer).equals(measurement)) {
+          return SeriesRollup.deserialize(buffer);
+        }
+      }
+      return null;
+    } finally {
+      channel.close();
+    }
+  }
+
+  private static ByteBuffer read(FileChannel channel, long position, int size) throws IOException {
+    ByteBuffer buffer = ByteBuffer.allocate(size);
+    while (buffer.hasRemaining()) {
+      if (channel.read(buffer, position + buffer.position()) < 0) {
+        throw new IOException("Unexpected end of rollup file");
+      }
+    }
+    buffer.flip();
+    return buffer;
+  }
+
+  /**
+   * rebuild the rollup file of a sequence TsFile written by a compaction. The old rollup file is
+   * removed first, so a failure only leaves the TsFile without rollup.
+   */
+  public static void rebuild(File tsFile) {
+    try {
+      Files.deleteIfExists(getRollupFile(tsFile).toPath());
+      TsFileRollup tsFileRollup = create();
+      if (tsFileRollup == null) {
+        return;
+      }
+      try (TsFileSequenceReader reader = new TsFileSequenceReader(tsFile.getPath())) {
+        for (String device : reader.getAllDevices()) {
+          Map<String, List<ChunkMetadata>> seriesChunkMetadata =
+              reader.readChunkMetadataInDevice(device);
+          // the time column of an aligned device has an empty measurement
+          if (seriesChunkMetadata.containsKey("")) {
+            continue;
+          }
+          for (Map.Entry<String, List<ChunkMetadata>> entry : seriesChunkMetadata.entrySet()) {
+            SeriesRollup rollup = null;
+            for (ChunkMetadata chunkMetadata : entry.getValue()) {
+              if (rollup == null) {
+                rollup =
+                    tsFileRollup.getSeriesRollup(
+                        device, entry.getKey(), chunkMetadata.getDataType());
+              }
+              Chunk chunk = reader.readMemChunk(chunkMetadata);
+              ChunkReader chunkReader = new ChunkReader(chunk, null);
+              while (chunkReader.hasNextSatisfiedPage()) {
+                rollup.update(chunkReader.nextPageData());
+              }
+            }
+          }
+        }
+      }
+      tsFileRollup.serialize(tsFile);
+    } catch (IOException e) {
+      logger.warn("Cannot rebuild the rollup of {}", tsFile, e);
+    }
+  }
+}
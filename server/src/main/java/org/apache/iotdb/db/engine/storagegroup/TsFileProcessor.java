@@ -34,6 +34,7 @@ import org.apache.iotdb.db.engine.memtable.PrimitiveMemTable;
 import org.apache.iotdb.db.engine.modification.Deletion;
 import org.apache.iotdb.db.engine.modification.Modification;
 import org.apache.iotdb.db.engine.querycontext.ReadOnlyMemChunk;
+import org.apache.iotdb.db.engine.rollup.TsFileRollup;
 import org.apache.iotdb.db.engine.storagegroup.VirtualStorageGroupProcessor.UpdateEndTimeCallBack;
 import org.apache.iotdb.db.exception.TsFileProcessorException;
 import org.apache.iotdb.db.exception.WriteProcessException;
@@ -131,8 +132,11 @@ public class TsFileProcessor {
    */
   private volatile boolean shouldClose;
 
-  /** working memtable */
-  private IMemTable workMemTable;
+  /**
+   * working memtable, created lazily by the first insertion, which may race with insertions of
+   * other devices when concurrent memtable insertion is enabled
+   */
+  private volatile IMemTable workMemTable;
 
   /** last flush time to flush the working memtable */
   private long lastWorkMemtableFlushTime;
@@ -141,11 +145,21 @@ public class TsFileProcessor {
   private final UpdateEndTimeCallBack updateLatestFlushTimeCallback;
 
   /** Wal log node */
-  private WriteLogNode logNode;
+  private volatile WriteLogNode logNode;
 
   /** whether it's a sequence file or not */
   private final boolean sequence;
 
+  /**
+   * rollups of the series flushed into a new sequence tsfile, written beside the tsfile when it is
+   * closed. Null if rollup is disabled, or the file is reopened or failed to flush, whose rollups
+   * would miss some points.
+   */
+  private volatile TsFileRollup rollup;
+
+  /** memory of the rollup charged to tsFileProcessorInfo, only updated by the flush thread */
+  private long rollupMemCost = 0L;
+
   /** total memtable size for mem control */
   private long totalMemTableSize;
 
@@ -174,6 +188,7 @@ public class TsFileProcessor {
     this.writer = new RestorableTsFileIOWriter(tsfile);
     this.updateLatestFlushTimeCallback = updateLatestFlushTimeCallback;
     this.sequence = sequence;
+    this.rollup = sequence ? TsFileRollup.create() : null;
     logger.info("create a new tsfile processor {}", tsfile.getAbsolutePath());
     flushListeners.add(new WALFlushListener(this));
     closeFileListeners.add(closeTsFileCallback);
@@ -206,14 +221,7 @@ public class TsFileProcessor {
    */
   public void insert(InsertRowPlan insertRowPlan) throws WriteProcessException {
 
-    if (workMemTable == null) {
-      if (enableMemControl) {
-        workMemTable = new PrimitiveMemTable(enableMemControl);
-        MemTableManager.getInstance().addMemtableNumber();
-      } else {
-        workMemTable = MemTableManager.getInstance().getAvailableMemTable(storageGroupName);
-      }
-    }
+    createWorkMemTableIfNotExist();
 
     long[] memIncrements = null;
     if (enableMemControl) {
@@ -245,16 +253,34 @@ public class TsFileProcessor {
       workMemTable.insert(insertRowPlan);
     }
 
-    // update start time of this memtable
-    tsFileResource.updateStartTime(
-        insertRowPlan.getDeviceID().toStringID(), insertRowPlan.getTime());
-    // for sequence tsfile, we update the endTime only when the file is prepared to be closed.
-    // for unsequence tsfile, we have to update the endTime for each insertion.
-    if (!sequence) {
-      tsFileResource.updateEndTime(
+    synchronized (tsFileResource) {
+      // update start time of this memtable
+      tsFileResource.updateStartTime(
           insertRowPlan.getDeviceID().toStringID(), insertRowPlan.getTime());
+      // for sequence tsfile, we update the endTime only when the file is prepared to be closed.
+      // for unsequence tsfile, we have to update the endTime for each insertion.
+      if (!sequence) {
+        tsFileResource.updateEndTime(
+            insertRowPlan.getDeviceID().toStringID(), insertRowPlan.getTime());
+      }
+      tsFileResource.updatePlanIndexes(insertRowPlan.getIndex());
+    }
+  }
+
+  private void createWorkMemTableIfNotExist() {
+    if (workMemTable != null) {
+      return;
+    }
+    synchronized (this) {
+      if (workMemTable == null) {
+        if (enableMemControl) {
+          workMemTable = new PrimitiveMemTable(enableMemControl);
+          MemTableManager.getInstance().addMemtableNumber();
+        } else {
+          workMemTable = MemTableManager.getInstance().getAvailableMemTable(storageGroupName);
+        }
+      }
     }
-    tsFileResource.updatePlanIndexes(insertRowPlan.getIndex());
   }
 
   /**
@@ -271,14 +297,7 @@ public class TsFileProcessor {
       InsertTabletPlan insertTabletPlan, int start, int end, TSStatus[] results)
       throws WriteProcessException {
 
-    if (workMemTable == null) {
-      if (enableMemControl) {
-        workMemTable = new PrimitiveMemTable(enableMemControl);
-        MemTableManager.getInstance().addMemtableNumber();
-      } else {
-        workMemTable = MemTableManager.getInstance().getAvailableMemTable(storageGroupName);
-      }
-    }
+    createWorkMemTableIfNotExist();
 
     long[] memIncrements = null;
     try {
@@ -328,16 +347,18 @@ public class TsFileProcessor {
     for (int i = start; i < end; i++) {
       results[i] = RpcUtils.SUCCESS_STATUS;
     }
-    tsFileResource.updateStartTime(
-        insertTabletPlan.getDeviceID().toStringID(), insertTabletPlan.getTimes()[start]);
+    synchronized (tsFileResource) {
+      tsFileResource.updateStartTime(
+          insertTabletPlan.getDeviceID().toStringID(), insertTabletPlan.getTimes()[start]);
 
-    // for sequence tsfile, we update the endTime only when the file is prepared to be closed.
-    // for unsequence tsfile, we have to update the endTime for each insertion.
-    if (!sequence) {
-      tsFileResource.updateEndTime(
-          insertTabletPlan.getDeviceID().toStringID(), insertTabletPlan.getTimes()[end - 1]);
+      // for sequence tsfile, we update the endTime only when the file is prepared to be closed.
+      // for unsequence tsfile, we have to update the endTime for each insertion.
+      if (!sequence) {
+        tsFileResource.updateEndTime(
+            insertTabletPlan.getDeviceID().toStringID(), insertTabletPlan.getTimes()[end - 1]);
+      }
+      tsFileResource.updatePlanIndexes(insertTabletPlan.getIndex());
     }
-    tsFileResource.updatePlanIndexes(insertTabletPlan.getIndex());
   }
 
   @SuppressWarnings("squid:S3776") // high Cognitive Complexity
@@ -377,7 +398,13 @@ public class TsFileProcessor {
       }
       // TEXT data mem size
       if (insertRowPlan.getDataTypes()[i] == TSDataType.TEXT) {
-        textDataIncrement += MemUtils.getBinarySize((Binary) insertRowPlan.getValues()[i]);
+        textDataIncrement +=
+            workMemTable.getTextDataIncrement(
+                deviceID,
+                insertRowPlan.getMeasurements()[i],
+                new Binary[] {(Binary) insertRowPlan.getValues()[i]},
+                0,
+                1);
       }
     }
     updateMemoryInfo(memTableIncrement, chunkMetadataIncrement, textDataIncrement);
@@ -534,7 +561,8 @@ public class TsFileProcessor {
     // TEXT data size
     if (dataType == TSDataType.TEXT) {
       Binary[] binColumn = (Binary[]) column;
-      memIncrements[1] += MemUtils.getBinaryColumnSize(binColumn, start, end);
+      memIncrements[1] +=
+          workMemTable.getTextDataIncrement(deviceId, measurement, binColumn, start, end);
     }
   }
 
@@ -1000,6 +1028,32 @@ public class TsFileProcessor {
     }
   }
 
+  /**
+   * charge the intervals added to the rollup by the flush to the memory cost of this processor,
+   * which is reported to the system with the next insertion and released when the file is closed
+   */
+  private void updateRollupMemCost() {
+    TsFileRollup currentRollup = rollup;
+    if (!enableMemControl || currentRollup == null) {
+      return;
+    }
+    long increment = currentRollup.getRamSize() - rollupMemCost;
+    if (increment > 0) {
+      rollupMemCost += increment;
+      tsFileProcessorInfo.addTSPMemCost(increment);
+    }
+  }
+
+  /** release the memory cost of a dropped rollup */
+  private void releaseRollupMemCost() {
+    if (!enableMemControl || rollupMemCost == 0) {
+      return;
+    }
+    tsFileProcessorInfo.releaseTSPMemCost(rollupMemCost);
+    rollupMemCost = 0;
+    SystemInfo.getInstance().resetStorageGroupStatus(storageGroupInfo);
+  }
+
   /**
    * Take the first MemTable from the flushingMemTables and flush it. Called by a flush thread of
    * the flush manager pool
@@ -1013,8 +1067,9 @@ public class TsFileProcessor {
       try {
         writer.mark();
         MemTableFlushTask flushTask =
-            new MemTableFlushTask(memTableToFlush, writer, storageGroupName);
+            new MemTableFlushTask(memTableToFlush, writer, storageGroupName, rollup);
         flushTask.syncFlushMemTable();
+        updateRollupMemCost();
       } catch (Exception e) {
         if (writer == null) {
           logger.info(
@@ -1031,6 +1086,8 @@ public class TsFileProcessor {
               tsFileResource.getTsFile().getName(),
               e);
           IoTDBDescriptor.getInstance().getConfig().setReadOnly(true);
+          rollup = null;
+          releaseRollupMemCost();
           try {
             logger.error(
                 "{}: {} IOTask meets error, truncate the corrupted data",
@@ -1185,6 +1242,15 @@ public class TsFileProcessor {
     long closeStartTime = System.currentTimeMillis();
     writer.endFile();
     tsFileResource.serialize();
+    if (rollup != null) {
+      try {
+        rollup.serialize(tsFileResource.getTsFile());
+      } catch (IOException e) {
+        // queries read the points instead
+        logger.warn("{}: {} cannot write rollup", storageGroupName, tsFileResource, e);
+      }
+      rollup = null;
+    }
     logger.info("Ended file {}", tsFileResource);
 
     // remove this processor from Closing list in StorageGroupProcessor,
@@ -1226,11 +1292,15 @@ public class TsFileProcessor {
    */
   public WriteLogNode getLogNode() {
     if (logNode == null) {
-      logNode =
-          MultiFileLogNodeManager.getInstance()
-              .getNode(
-                  storageGroupName + "-" + tsFileResource.getTsFile().getName(),
-                  storageGroupInfo.getWalSupplier());
+      synchronized (this) {
+        if (logNode == null) {
+          logNode =
+              MultiFileLogNodeManager.getInstance()
+                  .getNode(
+                      storageGroupName + "-" + tsFileResource.getTsFile().getName(),
+                      storageGroupInfo.getWalSupplier());
+        }
+      }
     }
     return logNode;
   }
@@ -23,6 +23,8 @@ import org.apache.iotdb.db.service.metrics.MetricsService;
 import org.apache.iotdb.db.service.metrics.Tag;
 import org.apache.iotdb.metrics.config.MetricConfigDescriptor;
 
+import java.util.concurrent.atomic.AtomicLong;
+
 /** The TsFileProcessorInfo records the memory cost of this TsFileProcessor. */
 public class TsFileProcessorInfo {
 
@@ -30,16 +32,16 @@ public class TsFileProcessorInfo {
   private StorageGroupInfo storageGroupInfo;
 
   /** memory occupation of unsealed TsFileResource, ChunkMetadata, WAL */
-  private long memCost;
+  private final AtomicLong memCost;
 
   public TsFileProcessorInfo(StorageGroupInfo storageGroupInfo) {
     this.storageGroupInfo = storageGroupInfo;
-    this.memCost = 0L;
+    this.memCost = new AtomicLong();
   }
 
   /** called in each insert */
   public void addTSPMemCost(long cost) {
-    memCost += cost;
+    memCost.addAndGet(cost);
     storageGroupInfo.addStorageGroupMemCost(cost);
     if (MetricConfigDescriptor.getInstance().getMetricConfig().getEnableMetric()) {
       MetricsService.getInstance()
@@ -52,7 +54,7 @@ public class TsFileProcessorInfo {
   /** called when meet exception */
   public void releaseTSPMemCost(long cost) {
     storageGroupInfo.releaseStorageGroupMemCost(cost);
-    memCost -= cost;
+    memCost.addAndGet(-cost);
     if (MetricConfigDescriptor.getInstance().getMetricConfig().getEnableMetric()) {
       MetricsService.getInstance()
           .getMetricManager()
@@ -63,13 +65,13 @@ public class TsFileProcessorInfo {
 
   /** called when closing TSP */
   public void clear() {
-    storageGroupInfo.releaseStorageGroupMemCost(memCost);
-    memCost = 0L;
+    long cost = memCost.getAndSet(0L);
+    storageGroupInfo.releaseStorageGroupMemCost(cost);
     if (MetricConfigDescriptor.getInstance().getMetricConfig().getEnableMetric()) {
       MetricsService.getInstance()
           .getMetricManager()
           .getOrCreateGauge(Metric.MEM.toString(), Tag.NAME.toString(), "chunkMetaData")
-          .decr(memCost);
+          .decr(cost);
     }
   }
 }
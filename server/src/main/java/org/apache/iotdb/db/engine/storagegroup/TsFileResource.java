@@ -22,6 +22,7 @@ import org.apache.iotdb.db.conf.IoTDBConfig;
 import org.apache.iotdb.db.conf.IoTDBDescriptor;
 import org.apache.iotdb.db.engine.modification.ModificationFile;
 import org.apache.iotdb.db.engine.querycontext.ReadOnlyMemChunk;
+import org.apache.iotdb.db.engine.rollup.TsFileRollup;
 import org.apache.iotdb.db.engine.storagegroup.TsFileNameGenerator.TsFileName;
 import org.apache.iotdb.db.engine.storagegroup.VirtualStorageGroupProcessor.SettleTsFileCallBack;
 import org.apache.iotdb.db.engine.storagegroup.VirtualStorageGroupProcessor.UpgradeTsFileResourceCallBack;
@@ -505,6 +506,12 @@ public class TsFileResource {
       LOGGER.error("ModificationFile {} cannot be deleted: {}", file, e.getMessage());
       return false;
     }
+    try {
+      fsFactory.deleteIfExists(fsFactory.getFile(file.getPath() + TsFileRollup.FILE_SUFFIX));
+    } catch (IOException e) {
+      LOGGER.error("Rollup of {} cannot be deleted: {}", file, e.getMessage());
+      return false;
+    }
     return true;
   }
 
@@ -530,6 +537,12 @@ public class TsFileResource {
           originModFile,
           fsFactory.getFile(targetDir, file.getName() + ModificationFile.FILE_SUFFIX));
     }
+    File originRollupFile = fsFactory.getFile(file.getPath() + TsFileRollup.FILE_SUFFIX);
+    if (originRollupFile.exists()) {
+      fsFactory.moveFile(
+          originRollupFile,
+          fsFactory.getFile(targetDir, file.getName() + TsFileRollup.FILE_SUFFIX));
+    }
   }
 
   @Override
@@ -112,12 +112,15 @@ import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
 import java.util.Set;
-import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
 import java.util.concurrent.Executors;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.Lock;
 import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantLock;
 import java.util.concurrent.locks.ReentrantReadWriteLock;
 import java.util.regex.Pattern;
 
@@ -163,6 +166,8 @@ public class VirtualStorageGroupProcessor {
   private static final int POS_ALREADY_EXIST = -2;
   /** indicating the file to be loaded overlap with some files. */
   private static final int POS_OVERLAP = -3;
+  /** number of the striped locks of devices for concurrent insertion */
+  private static final int DEVICE_INSERT_LOCK_NUM = 64;
 
   private static final int WAL_BUFFER_SIZE =
       IoTDBDescriptor.getInstance().getConfig().getWalBufferSize() / 2;
@@ -174,6 +179,19 @@ public class VirtualStorageGroupProcessor {
    * partitionLatestFlushedTimeForEachDevice)
    */
   private final ReadWriteLock insertLock = new ReentrantReadWriteLock();
+  /**
+   * whether insertions of different devices run concurrently. If so, an insertion holds the read
+   * lock of insertLock and the lock of its device stripe instead of the write lock of insertLock,
+   * so only memtable switching, flushing and closing exclude it.
+   */
+  private final boolean enableConcurrentInsert = config.isEnableConcurrentMemTableInsert();
+  /** striped locks serializing the concurrent insertions of the same device */
+  private final Lock[] deviceInsertLocks;
+  /**
+   * TsFileProcessors found full by concurrent insertions, which cannot apply the flush policy under
+   * the read lock of insertLock
+   */
+  private final Set<TsFileProcessor> tsFileProcessorsToFlush = ConcurrentHashMap.newKeySet();
   /** closeStorageGroupCondition is used to wait for all currently closing TsFiles to be done. */
   private final Object closeStorageGroupCondition = new Object();
   /**
@@ -181,9 +199,11 @@ public class VirtualStorageGroupProcessor {
    */
   private final ReadWriteLock closeQueryLock = new ReentrantReadWriteLock();
   /** time partition id in the storage group -> tsFileProcessor for this time partition */
-  private final TreeMap<Long, TsFileProcessor> workSequenceTsFileProcessors = new TreeMap<>();
+  private final ConcurrentSkipListMap<Long, TsFileProcessor> workSequenceTsFileProcessors =
+      new ConcurrentSkipListMap<>();
   /** time partition id in the storage group -> tsFileProcessor for this time partition */
-  private final TreeMap<Long, TsFileProcessor> workUnsequenceTsFileProcessors = new TreeMap<>();
+  private final ConcurrentSkipListMap<Long, TsFileProcessor> workUnsequenceTsFileProcessors =
+      new ConcurrentSkipListMap<>();
 
   private final Deque<ByteBuffer> walByteBufferPool = new LinkedList<>();
 
@@ -234,7 +254,7 @@ public class VirtualStorageGroupProcessor {
    * different IoTDB instance will have identical data, providing convenience for data comparison
    * across different instances. partition number -> max version number
    */
-  private Map<Long, Long> partitionMaxFileVersions = new HashMap<>();
+  private Map<Long, Long> partitionMaxFileVersions = new ConcurrentHashMap<>();
   /** storage group info for mem control */
   private StorageGroupInfo storageGroupInfo = new StorageGroupInfo(this);
   /**
@@ -373,6 +393,10 @@ public class VirtualStorageGroupProcessor {
     this.virtualStorageGroupId = virtualStorageGroupId;
     this.logicalStorageGroupName = logicalStorageGroupName;
     this.fileFlushPolicy = fileFlushPolicy;
+    this.deviceInsertLocks = new Lock[enableConcurrentInsert ? DEVICE_INSERT_LOCK_NUM : 0];
+    for (int i = 0; i < deviceInsertLocks.length; i++) {
+      deviceInsertLocks[i] = new ReentrantLock();
+    }
 
     storageGroupSysDir = SystemFileFactory.INSTANCE.getFile(systemDir, virtualStorageGroupId);
     this.tsFileManager =
@@ -896,7 +920,8 @@ public class VirtualStorageGroupProcessor {
     if (!isAlive(insertRowPlan.getTime())) {
       throw new OutOfTTLException(insertRowPlan.getTime(), (System.currentTimeMillis() - dataTTL));
     }
-    writeLock("InsertRow");
+    String device = insertRowPlan.getDevicePath().getFullPath();
+    lockForInsert("InsertRow", device);
     try {
       // init map
       long timePartitionId = StorageEngine.getTimePartition(insertRowPlan.getTime());
@@ -923,7 +948,8 @@ public class VirtualStorageGroupProcessor {
       // fire trigger after insertion
       TriggerEngine.fire(TriggerEvent.AFTER_INSERT, insertRowPlan);
     } finally {
-      writeUnlock();
+      unlockForInsert(device);
+      flushPendingTsFileProcessors();
     }
   }
 
@@ -936,7 +962,8 @@ public class VirtualStorageGroupProcessor {
   public void insertTablet(InsertTabletPlan insertTabletPlan)
       throws BatchProcessException, TriggerExecutionException {
 
-    writeLock("insertTablet");
+    String device = insertTabletPlan.getDevicePath().getFullPath();
+    lockForInsert("insertTablet", device);
     try {
       TSStatus[] results = new TSStatus[insertTabletPlan.getRowCount()];
       Arrays.fill(results, RpcUtils.SUCCESS_STATUS);
@@ -1042,7 +1069,8 @@ public class VirtualStorageGroupProcessor {
       // fire trigger after insertion
       TriggerEngine.fire(TriggerEvent.AFTER_INSERT, insertTabletPlan, firePosition);
     } finally {
-      writeUnlock();
+      unlockForInsert(device);
+      flushPendingTsFileProcessors();
     }
   }
 
@@ -1107,9 +1135,7 @@ public class VirtualStorageGroupProcessor {
     }
 
     // check memtable size and may async try to flush the work memtable
-    if (tsFileProcessor.shouldFlush()) {
-      fileFlushPolicy.apply(this, tsFileProcessor, sequence);
-    }
+    tryToFlushAfterInsert(tsFileProcessor, sequence);
     return true;
   }
 
@@ -1158,11 +1184,45 @@ public class VirtualStorageGroupProcessor {
     tryToUpdateInsertLastCache(insertRowPlan, globalLatestFlushTime);
 
     // check memtable size and may asyncTryToFlush the work memtable
-    if (tsFileProcessor.shouldFlush()) {
+    tryToFlushAfterInsert(tsFileProcessor, sequence);
+  }
+
+  private void tryToFlushAfterInsert(TsFileProcessor tsFileProcessor, boolean sequence) {
+    if (!tsFileProcessor.shouldFlush()) {
+      return;
+    }
+    if (enableConcurrentInsert) {
+      // the flush policy needs the write lock, see flushPendingTsFileProcessors()
+      tsFileProcessorsToFlush.add(tsFileProcessor);
+    } else {
       fileFlushPolicy.apply(this, tsFileProcessor, sequence);
     }
   }
 
+  /**
+   * Apply the flush policy to the TsFileProcessors found full by concurrent insertions. It is
+   * called after an insertion releases its locks.
+   */
+  private void flushPendingTsFileProcessors() {
+    if (tsFileProcessorsToFlush.isEmpty()) {
+      return;
+    }
+    writeLock("flushPendingTsFileProcessors");
+    try {
+      Iterator<TsFileProcessor> iterator = tsFileProcessorsToFlush.iterator();
+      while (iterator.hasNext()) {
+        TsFileProcessor tsFileProcessor = iterator.next();
+        iterator.remove();
+        // the processor may have been flushed or closed since it was found full
+        if (tsFileProcessor.shouldFlush()) {
+          fileFlushPolicy.apply(this, tsFileProcessor, tsFileProcessor.isSequence());
+        }
+      }
+    } finally {
+      writeUnlock();
+    }
+  }
+
   private void tryToUpdateInsertLastCache(InsertRowPlan plan, Long latestFlushedTime) {
     if (!IoTDBDescriptor.getInstance().getConfig().isLastCacheEnabled()) {
       return;
@@ -1236,16 +1296,24 @@ public class VirtualStorageGroupProcessor {
    * @param sequence whether is sequence or not
    */
   private TsFileProcessor getOrCreateTsFileProcessorIntern(
-      long timeRangeId, TreeMap<Long, TsFileProcessor> tsFileProcessorTreeMap, boolean sequence)
+      long timeRangeId,
+      ConcurrentSkipListMap<Long, TsFileProcessor> tsFileProcessorTreeMap,
+      boolean sequence)
       throws IOException, DiskSpaceInsufficientException {
 
     TsFileProcessor res = tsFileProcessorTreeMap.get(timeRangeId);
 
     if (null == res) {
-      // build new processor, memory control module will control the number of memtables
-      res = newTsFileProcessor(sequence, timeRangeId);
-      tsFileProcessorTreeMap.put(timeRangeId, res);
-      tsFileManager.add(res.getTsFileResource(), sequence);
+      // concurrent insertions of different devices may race to create the processor
+      synchronized (tsFileProcessorTreeMap) {
+        res = tsFileProcessorTreeMap.get(timeRangeId);
+        if (null == res) {
+          // build new processor, memory control module will control the number of memtables
+          res = newTsFileProcessor(sequence, timeRangeId);
+          tsFileProcessorTreeMap.put(timeRangeId, res);
+          tsFileManager.add(res.getTsFileResource(), sequence);
+        }
+      }
     }
 
     return res;
@@ -1254,8 +1322,7 @@ public class VirtualStorageGroupProcessor {
   private TsFileProcessor newTsFileProcessor(boolean sequence, long timePartitionId)
       throws IOException, DiskSpaceInsufficientException {
 
-    long version = partitionMaxFileVersions.getOrDefault(timePartitionId, 0L) + 1;
-    partitionMaxFileVersions.put(timePartitionId, version);
+    long version = partitionMaxFileVersions.merge(timePartitionId, 1L, Long::sum);
     String filePath =
         TsFileNameGenerator.generateNewTsFilePathWithMkdir(
             sequence,
@@ -1773,6 +1840,33 @@ public class VirtualStorageGroupProcessor {
     insertLock.readLock().unlock();
   }
 
+  /**
+   * lock the insert lock for an insertion of the given device, which is the write lock unless
+   * concurrent insertion is enabled
+   */
+  private void lockForInsert(String holder, String device) {
+    if (!enableConcurrentInsert) {
+      writeLock(holder);
+      return;
+    }
+    insertLock.readLock().lock();
+    getDeviceInsertLock(device).lock();
+  }
+
+  /** unlock the insert lock locked by lockForInsert() */
+  private void unlockForInsert(String device) {
+    if (!enableConcurrentInsert) {
+      writeUnlock();
+      return;
+    }
+    getDeviceInsertLock(device).unlock();
+    insertLock.readLock().unlock();
+  }
+
+  private Lock getDeviceInsertLock(String device) {
+    return deviceInsertLocks[(device.hashCode() & Integer.MAX_VALUE) % deviceInsertLocks.length];
+  }
+
   /** lock the write lock of the insert lock */
   public void writeLock(String holder) {
     insertLock.writeLock().lock();
@@ -2039,6 +2133,10 @@ public class VirtualStorageGroupProcessor {
     } catch (MetadataException e) {
       throw new WriteProcessException(e);
     }
+    // inserts update the last cache in id table instead of mtree
+    if (idTable != null) {
+      idTable.deleteLastCache(deviceId, originalPath, startTime, endTime);
+    }
   }
 
   /**
@@ -2327,6 +2425,9 @@ public class VirtualStorageGroupProcessor {
     } catch (MetadataException e) {
       // the path doesn't cache in cluster mode now, ignore
     }
+    if (idTable != null) {
+      idTable.deleteLastCacheByDevice(deviceId);
+    }
   }
 
   /**
@@ -3080,7 +3181,8 @@ public class VirtualStorageGroupProcessor {
    */
   public void insert(InsertRowsOfOneDevicePlan insertRowsOfOneDevicePlan)
       throws WriteProcessException, TriggerExecutionException {
-    writeLock("InsertRowsOfOneDevice");
+    String device = insertRowsOfOneDevicePlan.getDevicePath().getFullPath();
+    lockForInsert("InsertRowsOfOneDevice", device);
     try {
       boolean isSequence = false;
       InsertRowPlan[] rowPlans = insertRowsOfOneDevicePlan.getRowPlans();
@@ -3121,7 +3223,8 @@ public class VirtualStorageGroupProcessor {
         TriggerEngine.fire(TriggerEvent.AFTER_INSERT, plan);
       }
     } finally {
-      writeUnlock();
+      unlockForInsert(device);
+      flushPendingTsFileProcessors();
     }
   }
 
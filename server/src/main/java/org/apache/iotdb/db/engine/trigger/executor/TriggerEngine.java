@@ -64,12 +64,8 @@ public class TriggerEngine {
     IMeasurementMNode[] mNodes = insertTabletPlan.getMeasurementMNodes();
     int size = mNodes.length;
 
-    long[] timestamps = insertTabletPlan.getTimes();
-    Object[] columns = insertTabletPlan.getColumns();
-    if (firePosition != 0) {
-      timestamps = Arrays.copyOfRange(timestamps, firePosition, timestamps.length);
-      columns = Arrays.copyOfRange(columns, firePosition, columns.length);
-    }
+    long[] timestamps = null;
+    Object[] columns = null;
 
     for (int i = 0; i < size; ++i) {
       IMeasurementMNode mNode = mNodes[i];
@@ -80,6 +76,15 @@ public class TriggerEngine {
       if (executor == null) {
         continue;
       }
+      if (columns == null) {
+        // the executors take arrays, the views are only copied when there is a trigger to fire
+        timestamps = insertTabletPlan.getTimes();
+        columns = insertTabletPlan.materializeColumns();
+        if (firePosition != 0) {
+          timestamps = Arrays.copyOfRange(timestamps, firePosition, timestamps.length);
+          columns = Arrays.copyOfRange(columns, firePosition, columns.length);
+        }
+      }
       executor.fireIfActivated(event, timestamps, columns[i]);
     }
   }
@@ -19,21 +19,28 @@
 
 package org.apache.iotdb.db.metadata.idtable;
 
+import org.apache.iotdb.db.exception.metadata.MetadataException;
 import org.apache.iotdb.db.metadata.idtable.entry.DiskSchemaEntry;
+import org.apache.iotdb.db.metadata.idtable.entry.SchemaEntry;
+import org.apache.iotdb.db.metadata.path.PartialPath;
 import org.apache.iotdb.db.utils.TestOnly;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.io.BufferedInputStream;
 import java.io.File;
 import java.io.FileInputStream;
 import java.io.FileOutputStream;
 import java.io.IOException;
+import java.io.InputStream;
 import java.io.OutputStream;
-import java.io.RandomAccessFile;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.List;
+import java.util.function.BiConsumer;
 
 /** store id table schema in append only file */
 public class AppendOnlyDiskSchemaManager implements IDiskSchemaManager {
@@ -51,7 +58,7 @@ public class AppendOnlyDiskSchemaManager implements IDiskSchemaManager {
   public AppendOnlyDiskSchemaManager(File dir) {
     try {
       initFile(dir);
-      outputStream = new FileOutputStream(dataFile);
+      outputStream = new FileOutputStream(dataFile, true);
     } catch (IOException e) {
       logger.error(e.getMessage());
       throw new IllegalArgumentException("can't initialize disk schema manager at " + dataFile);
@@ -68,9 +75,14 @@ public class AppendOnlyDiskSchemaManager implements IDiskSchemaManager {
 
     dataFile = new File(dir, FILE_NAME);
     if (dataFile.exists()) {
-      loc = dataFile.length();
-      if (!checkLastEntry(loc)) {
-        throw new IOException("File corruption");
+      loc = readEntries((entry, pos) -> {});
+      if (loc < dataFile.length()) {
+        // drop the torn entry of last crash, so new entries are appended after a valid one
+        logger.warn(
+            "truncate id table file {} from {} to {} bytes", dataFile, dataFile.length(), loc);
+        try (FileChannel channel = FileChannel.open(dataFile.toPath(), StandardOpenOption.WRITE)) {
+          channel.truncate(loc);
+        }
       }
     } else {
       logger.debug("create new file for id table: " + dir.getName());
@@ -84,69 +96,70 @@ public class AppendOnlyDiskSchemaManager implements IDiskSchemaManager {
     }
   }
 
-  private boolean checkLastEntry(long pos) {
-    // file length is smaller than one int
-    if (pos <= Integer.BYTES) {
-      return false;
-    }
-
-    pos -= Integer.BYTES;
-    try (RandomAccessFile randomAccessFile = new RandomAccessFile(dataFile, "r");
-        FileInputStream inputStream = new FileInputStream(dataFile)) {
-      randomAccessFile.seek(pos);
-      int lastEntrySize = randomAccessFile.readInt();
-      // last int is not right
-      if (pos - lastEntrySize < 0) {
-        return false;
-      }
-
-      long realSkip = inputStream.skip(pos - lastEntrySize);
-      // file length isn't right
-      if (realSkip != pos - lastEntrySize) {
-        return false;
+  /**
+   * read entries from the head of the file until the end of file or the first broken entry
+   *
+   * @param consumer consumer of each entry and its disk position
+   * @return length of the valid part of the file
+   */
+  private long readEntries(BiConsumer<DiskSchemaEntry, Long> consumer) throws IOException {
+    long pos = 0;
+    long fileLength = dataFile.length();
+    try (InputStream inputStream = new BufferedInputStream(new FileInputStream(dataFile))) {
+      while (pos < fileLength) {
+        DiskSchemaEntry entry;
+        try {
+          entry = DiskSchemaEntry.deserialize(inputStream);
+        } catch (IOException e) {
+          logger.warn("can't deserialize entry at {} of {}, file corruption. {}", pos, dataFile, e);
+          break;
+        }
+        consumer.accept(entry, pos);
+        pos += entry.getSerializedSize();
       }
-
-      DiskSchemaEntry.deserialize(inputStream);
-    } catch (Exception e) {
-      logger.error("can't deserialize last entry, file corruption." + e);
-      return false;
     }
 
-    return true;
+    return pos;
   }
 
   @Override
   public long serialize(DiskSchemaEntry schemaEntry) {
+    long entryLoc = loc;
     try {
-      schemaEntry.serialize(outputStream);
+      loc += schemaEntry.serialize(outputStream);
     } catch (IOException e) {
       logger.error("failed to serialize schema entry: " + schemaEntry);
       throw new IllegalArgumentException("can't serialize disk entry of " + schemaEntry);
     }
 
-    return 0;
+    return entryLoc;
+  }
+
+  @Override
+  public void recover(IDTable idTable) {
+    try {
+      readEntries(
+          (entry, pos) -> {
+            try {
+              PartialPath seriesPath = new PartialPath(entry.seriesKey);
+              idTable.putSchemaEntry(
+                  seriesPath.getDevicePath(),
+                  seriesPath.getMeasurement(),
+                  new SchemaEntry(entry, pos),
+                  entry.isAligned);
+            } catch (MetadataException e) {
+              logger.error("failed to recover schema entry {}", entry, e);
+            }
+          });
+    } catch (IOException e) {
+      logger.error("failed to recover id table from {}", dataFile, e);
+    }
   }
 
   @TestOnly
   public Collection<DiskSchemaEntry> getAllSchemaEntry() throws IOException {
-    FileInputStream inputStream = new FileInputStream(dataFile);
     List<DiskSchemaEntry> res = new ArrayList<>();
-    // for test, we read at most 1000 entries.
-    int maxCount = 1000;
-
-    while (maxCount > 0) {
-      try {
-        maxCount--;
-        DiskSchemaEntry cur = DiskSchemaEntry.deserialize(inputStream);
-        res.add(cur);
-      } catch (IOException e) {
-        logger.debug("read finished");
-        break;
-      }
-    }
-
-    // free resource
-    inputStream.close();
+    readEntries((entry, pos) -> res.add(entry));
 
     return res;
   }
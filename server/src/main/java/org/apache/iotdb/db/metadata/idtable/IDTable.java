@@ -25,6 +25,7 @@ import org.apache.iotdb.db.exception.metadata.MetadataException;
 import org.apache.iotdb.db.metadata.idtable.entry.DeviceEntry;
 import org.apache.iotdb.db.metadata.idtable.entry.DeviceIDFactory;
 import org.apache.iotdb.db.metadata.idtable.entry.IDeviceID;
+import org.apache.iotdb.db.metadata.idtable.entry.SchemaEntry;
 import org.apache.iotdb.db.metadata.idtable.entry.TimeseriesID;
 import org.apache.iotdb.db.metadata.mnode.IMeasurementMNode;
 import org.apache.iotdb.db.metadata.path.AlignedPath;
@@ -135,6 +136,38 @@ public interface IDTable {
       Long latestFlushedTime)
       throws MetadataException;
 
+  /**
+   * reset last cache of the timeseries under the device that match the path pattern, if the cached
+   * last point is in the deleted time range
+   *
+   * @param devicePath device path of the timeseries
+   * @param pathPattern path pattern of the deletion
+   * @param startTime start time of the deletion
+   * @param endTime end time of the deletion
+   */
+  void deleteLastCache(
+      PartialPath devicePath, PartialPath pathPattern, long startTime, long endTime);
+
+  /**
+   * reset last cache of all timeseries under the device
+   *
+   * @param devicePath device path of the timeseries
+   */
+  void deleteLastCacheByDevice(PartialPath devicePath);
+
+  /**
+   * put a schema entry recovered from log file
+   *
+   * @param devicePath device path of the timeseries
+   * @param measurement measurement name of the timeseries
+   * @param schemaEntry schema entry of the timeseries
+   * @param isAligned whether the device is aligned
+   * @throws MetadataException if the aligned value is inconsistent with device
+   */
+  void putSchemaEntry(
+      PartialPath devicePath, String measurement, SchemaEntry schemaEntry, boolean isAligned)
+      throws MetadataException;
+
   /** clear id table and close file */
   void clear() throws IOException;
 
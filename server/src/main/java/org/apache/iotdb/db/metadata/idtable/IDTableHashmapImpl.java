@@ -39,7 +39,9 @@ import org.apache.iotdb.db.qp.physical.sys.CreateTimeSeriesPlan;
 import org.apache.iotdb.db.service.IoTDB;
 import org.apache.iotdb.db.utils.TestOnly;
 import org.apache.iotdb.db.utils.TypeInferenceUtils;
+import org.apache.iotdb.tsfile.file.metadata.enums.CompressionType;
 import org.apache.iotdb.tsfile.file.metadata.enums.TSDataType;
+import org.apache.iotdb.tsfile.file.metadata.enums.TSEncoding;
 import org.apache.iotdb.tsfile.read.TimeValuePair;
 import org.apache.iotdb.tsfile.write.schema.IMeasurementSchema;
 
@@ -77,6 +79,7 @@ public class IDTableHashmapImpl implements IDTable {
     }
     if (config.isEnableIDTableLogFile()) {
       IDiskSchemaManager = new AppendOnlyDiskSchemaManager(storageGroupDir);
+      IDiskSchemaManager.recover(this);
     }
   }
 
@@ -91,8 +94,14 @@ public class IDTableHashmapImpl implements IDTable {
     DeviceEntry deviceEntry = getDeviceEntry(plan.getPrefixPath(), true);
 
     for (int i = 0; i < plan.getMeasurements().size(); i++) {
-      PartialPath fullPath =
-          new PartialPath(plan.getPrefixPath().toString(), plan.getMeasurements().get(i));
+      if (isRecovered(
+          deviceEntry.getSchemaEntry(plan.getMeasurements().get(i)),
+          plan.getDataTypes().get(i),
+          plan.getEncodings().get(i),
+          plan.getCompressors().get(i))) {
+        continue;
+      }
+      PartialPath fullPath = plan.getPrefixPath().concatNode(plan.getMeasurements().get(i));
       SchemaEntry schemaEntry =
           new SchemaEntry(
               plan.getDataTypes().get(i),
@@ -100,6 +109,7 @@ public class IDTableHashmapImpl implements IDTable {
               plan.getCompressors().get(i),
               deviceEntry.getDeviceID(),
               fullPath,
+              true,
               IDiskSchemaManager);
       deviceEntry.putSchemaEntry(plan.getMeasurements().get(i), schemaEntry);
     }
@@ -113,6 +123,13 @@ public class IDTableHashmapImpl implements IDTable {
    */
   public synchronized void createTimeseries(CreateTimeSeriesPlan plan) throws MetadataException {
     DeviceEntry deviceEntry = getDeviceEntry(plan.getPath().getDevicePath(), false);
+    if (isRecovered(
+        deviceEntry.getSchemaEntry(plan.getPath().getMeasurement()),
+        plan.getDataType(),
+        plan.getEncoding(),
+        plan.getCompressor())) {
+      return;
+    }
     SchemaEntry schemaEntry =
         new SchemaEntry(
             plan.getDataType(),
@@ -120,6 +137,7 @@ public class IDTableHashmapImpl implements IDTable {
             plan.getCompressor(),
             deviceEntry.getDeviceID(),
             plan.getPath(),
+            false,
             IDiskSchemaManager);
     deviceEntry.putSchemaEntry(plan.getPath().getMeasurement(), schemaEntry);
   }
@@ -183,7 +201,7 @@ public class IDTableHashmapImpl implements IDTable {
     // set reusable device id
     plan.setDeviceID(deviceEntry.getDeviceID());
     // change device path to device id string for insertion
-    plan.setDevicePath(new PartialPath(deviceEntry.getDeviceID().toStringID()));
+    plan.setDevicePath(deviceEntry.getDeviceIDPath());
 
     return deviceEntry.getDeviceID();
   }
@@ -271,6 +289,67 @@ public class IDTableHashmapImpl implements IDTable {
     getSchemaEntry(timeseriesID).updateCachedLast(pair, highPriorityUpdate, latestFlushedTime);
   }
 
+  /**
+   * reset last cache of the timeseries under the device that match the path pattern, if the cached
+   * last point is in the deleted time range
+   *
+   * @param devicePath device path of the timeseries
+   * @param pathPattern path pattern of the deletion
+   * @param startTime start time of the deletion
+   * @param endTime end time of the deletion
+   */
+  @Override
+  public synchronized void deleteLastCache(
+      PartialPath devicePath, PartialPath pathPattern, long startTime, long endTime) {
+    DeviceEntry deviceEntry = getDeviceEntryIfExist(devicePath);
+    if (deviceEntry == null) {
+      return;
+    }
+
+    for (Map.Entry<String, SchemaEntry> entry : deviceEntry.getMeasurementMap().entrySet()) {
+      TimeValuePair lastPair = entry.getValue().getCachedLast();
+      if (lastPair != null
+          && startTime <= lastPair.getTimestamp()
+          && lastPair.getTimestamp() <= endTime
+          && pathPattern.matchFullPath(devicePath.concatNode(entry.getKey()))) {
+        entry.getValue().resetLastCache();
+      }
+    }
+  }
+
+  /**
+   * reset last cache of all timeseries under the device
+   *
+   * @param devicePath device path of the timeseries
+   */
+  @Override
+  public synchronized void deleteLastCacheByDevice(PartialPath devicePath) {
+    DeviceEntry deviceEntry = getDeviceEntryIfExist(devicePath);
+    if (deviceEntry == null) {
+      return;
+    }
+
+    for (SchemaEntry schemaEntry : deviceEntry.getMeasurementMap().values()) {
+      schemaEntry.resetLastCache();
+    }
+  }
+
+  /**
+   * put a schema entry recovered from log file
+   *
+   * @param devicePath device path of the timeseries
+   * @param measurement measurement name of the timeseries
+   * @param schemaEntry schema entry of the timeseries
+   * @param isAligned whether the device is aligned
+   * @throws MetadataException if the aligned value is inconsistent with device
+   */
+  @Override
+  public synchronized void putSchemaEntry(
+      PartialPath devicePath, String measurement, SchemaEntry schemaEntry, boolean isAligned)
+      throws MetadataException {
+    getDeviceEntry(devicePath, isAligned).putSchemaEntry(measurement, schemaEntry);
+  }
+
   @Override
   public void clear() throws IOException {
     if (IDiskSchemaManager != null) {
@@ -287,8 +366,6 @@ public class IDTableHashmapImpl implements IDTable {
   private IMeasurementMNode getOrCreateMeasurementIfNotExist(
       DeviceEntry deviceEntry, InsertPlan plan, int loc) throws MetadataException {
     String measurementName = plan.getMeasurements()[loc];
-    PartialPath seriesKey = new PartialPath(plan.getDevicePath().toString(), measurementName);
-
     SchemaEntry schemaEntry = deviceEntry.getSchemaEntry(measurementName);
 
     // if not exist, we create it
@@ -315,7 +392,8 @@ public class IDTableHashmapImpl implements IDTable {
                   schema.getEncodingType(),
                   schema.getCompressor(),
                   deviceEntry.getDeviceID(),
-                  seriesKey,
+                  plan.getDevicePath().concatNode(measurementMNode.getName()),
+                  plan.isAligned(),
                   IDiskSchemaManager);
           deviceEntry.putSchemaEntry(measurementMNode.getName(), curEntry);
         }
@@ -330,7 +408,8 @@ public class IDTableHashmapImpl implements IDTable {
 
     // timeseries is using trigger, we should get trigger from mmanager
     if (schemaEntry.isUsingTrigger()) {
-      IMeasurementMNode measurementMNode = IoTDB.metaManager.getMeasurementMNode(seriesKey);
+      IMeasurementMNode measurementMNode =
+          IoTDB.metaManager.getMeasurementMNode(plan.getDevicePath().concatNode(measurementName));
       return new InsertMeasurementMNode(
           measurementName, schemaEntry, measurementMNode.getTriggerExecutor());
     }
@@ -372,6 +451,33 @@ public class IDTableHashmapImpl implements IDTable {
     return deviceEntry;
   }
 
+  /**
+   * get device entry from device path without creating it
+   *
+   * @param deviceName device name of the time series
+   * @return device entry of the timeseries, or null if not exist
+   */
+  private DeviceEntry getDeviceEntryIfExist(PartialPath deviceName) {
+    IDeviceID deviceID = DeviceIDFactory.getInstance().getDeviceID(deviceName);
+    return idTables[calculateSlot(deviceID)].get(deviceID);
+  }
+
+  /**
+   * whether the schema entry is already recovered from log file, so it should not be created and
+   * logged again when the metadata log is replayed
+   */
+  private boolean isRecovered(
+      SchemaEntry schemaEntry,
+      TSDataType dataType,
+      TSEncoding encoding,
+      CompressionType compressor) {
+    return IDiskSchemaManager != null
+        && schemaEntry != null
+        && schemaEntry.getTSDataType() == dataType
+        && schemaEntry.getTSEncoding() == encoding
+        && schemaEntry.getCompressionType() == compressor;
+  }
+
   /**
    * calculate slot that this deviceID should in
    *
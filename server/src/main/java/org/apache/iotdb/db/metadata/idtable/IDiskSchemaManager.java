@@ -35,6 +35,13 @@ public interface IDiskSchemaManager {
    */
   public long serialize(DiskSchemaEntry schemaEntry);
 
+  /**
+   * put all schema entries in file into the id table
+   *
+   * @param idTable id table to recover
+   */
+  void recover(IDTable idTable);
+
   /**
    * get all disk schema entries from file
    *
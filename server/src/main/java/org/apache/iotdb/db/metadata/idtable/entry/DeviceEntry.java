@@ -19,6 +19,9 @@
 
 package org.apache.iotdb.db.metadata.idtable.entry;
 
+import org.apache.iotdb.db.exception.metadata.IllegalPathException;
+import org.apache.iotdb.db.metadata.path.PartialPath;
+
 import java.util.HashMap;
 import java.util.Map;
 
@@ -27,6 +30,9 @@ public class DeviceEntry {
   /** for device ID reuse in memtable */
   IDeviceID deviceID;
 
+  /** device id in path form, reused as device path of insert plans */
+  PartialPath deviceIDPath;
+
   /** measurement schema map */
   Map<String, SchemaEntry> measurementMap;
 
@@ -78,4 +84,20 @@ public class DeviceEntry {
   public IDeviceID getDeviceID() {
     return deviceID;
   }
+
+  /**
+   * get device id in path form, it is parsed only once for each device
+   *
+   * @return path of device id string
+   */
+  public PartialPath getDeviceIDPath() throws IllegalPathException {
+    if (deviceIDPath == null) {
+      deviceIDPath = new PartialPath(deviceID.toStringID());
+    }
+    return deviceIDPath;
+  }
+
+  public Map<String, SchemaEntry> getMeasurementMap() {
+    return measurementMap;
+  }
 }
@@ -41,6 +41,8 @@ public class DiskSchemaEntry {
 
   public byte compressor;
 
+  public boolean isAligned;
+
   private DiskSchemaEntry() {}
 
   public DiskSchemaEntry(
@@ -49,13 +51,15 @@ public class DiskSchemaEntry {
       long flushTime,
       byte type,
       byte encoding,
-      byte compressor) {
+      byte compressor,
+      boolean isAligned) {
     this.deviceID = deviceID;
     this.seriesKey = seriesKey;
     this.flushTime = flushTime;
     this.type = type;
     this.encoding = encoding;
     this.compressor = compressor;
+    this.isAligned = isAligned;
   }
 
   public int serialize(OutputStream outputStream) throws IOException {
@@ -66,6 +70,7 @@ public class DiskSchemaEntry {
     byteLen += ReadWriteIOUtils.write(type, outputStream);
     byteLen += ReadWriteIOUtils.write(encoding, outputStream);
     byteLen += ReadWriteIOUtils.write(compressor, outputStream);
+    byteLen += ReadWriteIOUtils.write(isAligned, outputStream);
     byteLen += ReadWriteIOUtils.write(byteLen, outputStream);
 
     return byteLen;
@@ -79,12 +84,34 @@ public class DiskSchemaEntry {
     res.type = ReadWriteIOUtils.readByte(inputStream);
     res.encoding = ReadWriteIOUtils.readByte(inputStream);
     res.compressor = ReadWriteIOUtils.readByte(inputStream);
-    // read byte len
-    ReadWriteIOUtils.readInt(inputStream);
+    res.isAligned = ReadWriteIOUtils.readBool(inputStream);
+    if (res.deviceID == null || res.seriesKey == null) {
+      throw new IOException("empty path in disk schema entry: " + res);
+    }
+    // read byte len, a mismatch means the entry is torn or in an old format
+    if (ReadWriteIOUtils.readInt(inputStream) != res.getSerializedSize() - Integer.BYTES) {
+      throw new IOException("byte length mismatch of disk schema entry: " + res);
+    }
 
     return res;
   }
 
+  /**
+   * get serialized size of this entry, including the byte length at the end
+   *
+   * @return serialized size in bytes
+   */
+  public int getSerializedSize() {
+    return Integer.BYTES
+        + deviceID.getBytes().length
+        + Integer.BYTES
+        + seriesKey.getBytes().length
+        + Long.BYTES
+        + 3 * Byte.BYTES
+        + 1
+        + Integer.BYTES;
+  }
+
   @Override
   public String toString() {
     return "DiskSchemaEntry{"
@@ -102,6 +129,8 @@ public class DiskSchemaEntry {
         + encoding
         + ", compressor="
         + compressor
+        + ", isAligned="
+        + isAligned
         + '}';
   }
 }
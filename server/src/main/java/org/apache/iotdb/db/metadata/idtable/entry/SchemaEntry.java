@@ -75,6 +75,7 @@ public class SchemaEntry implements ILastCacheContainer {
       CompressionType compressionType,
       IDeviceID deviceID,
       PartialPath fullPath,
+      boolean isAligned,
       IDiskSchemaManager IDiskSchemaManager) {
     schema |= dataType.serialize();
     schema |= (((long) encoding.serialize()) << 8);
@@ -92,11 +93,28 @@ public class SchemaEntry implements ILastCacheContainer {
               flushTime,
               dataType.serialize(),
               encoding.serialize(),
-              compressionType.serialize());
+              compressionType.serialize(),
+              isAligned);
       schema |= (IDiskSchemaManager.serialize(diskSchemaEntry) << 25);
     }
   }
 
+  /**
+   * recover schema entry from log file
+   *
+   * @param diskSchemaEntry disk schema entry read from log file
+   * @param diskPointer disk position of the disk schema entry
+   */
+  public SchemaEntry(DiskSchemaEntry diskSchemaEntry, long diskPointer) {
+    schema |= diskSchemaEntry.type;
+    schema |= (((long) diskSchemaEntry.encoding) << 8);
+    schema |= (((long) diskSchemaEntry.compressor) << 16);
+    schema |= (diskPointer << 25);
+
+    lastTime = Long.MIN_VALUE;
+    flushTime = Long.MIN_VALUE;
+  }
+
   /**
    * get ts data type from long value of schema
    *
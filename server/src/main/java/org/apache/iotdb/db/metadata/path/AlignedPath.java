@@ -373,31 +373,35 @@ public class AlignedPath extends PartialPath {
     Map<IDeviceID, IWritableMemChunkGroup> memTableMap = memTable.getMemTableMap();
     IDeviceID deviceID = DeviceIDFactory.getInstance().getDeviceID(this);
 
+    IWritableMemChunkGroup memChunkGroup = memTableMap.get(deviceID);
     // check If memtable contains this path
-    if (!memTableMap.containsKey(deviceID)) {
+    if (memChunkGroup == null) {
       return null;
     }
-    AlignedWritableMemChunk alignedMemChunk =
-        ((AlignedWritableMemChunkGroup) memTableMap.get(deviceID)).getAlignedMemChunk();
-    boolean containsMeasurement = false;
-    for (String measurement : measurementList) {
-      if (alignedMemChunk.containsMeasurement(measurement)) {
-        containsMeasurement = true;
-        break;
+    // exclude the concurrent writers of this device while taking the snapshot
+    synchronized (memChunkGroup) {
+      AlignedWritableMemChunk alignedMemChunk =
+          ((AlignedWritableMemChunkGroup) memChunkGroup).getAlignedMemChunk();
+      boolean containsMeasurement = false;
+      for (String measurement : measurementList) {
+        if (alignedMemChunk.containsMeasurement(measurement)) {
+          containsMeasurement = true;
+          break;
+        }
       }
+      if (!containsMeasurement) {
+        return null;
+      }
+      // get sorted tv list is synchronized so different query can get right sorted list reference
+      TVList alignedTvListCopy = alignedMemChunk.getSortedTvListForQuery(schemaList);
+      int curSize = alignedTvListCopy.size();
+      List<List<TimeRange>> deletionList = null;
+      if (modsToMemtable != null) {
+        deletionList = constructDeletionList(memTable, modsToMemtable, timeLowerBound);
+      }
+      return new AlignedReadOnlyMemChunk(
+          getMeasurementSchema(), alignedTvListCopy, curSize, deletionList);
     }
-    if (!containsMeasurement) {
-      return null;
-    }
-    // get sorted tv list is synchronized so different query can get right sorted list reference
-    TVList alignedTvListCopy = alignedMemChunk.getSortedTvListForQuery(schemaList);
-    int curSize = alignedTvListCopy.size();
-    List<List<TimeRange>> deletionList = null;
-    if (modsToMemtable != null) {
-      deletionList = constructDeletionList(memTable, modsToMemtable, timeLowerBound);
-    }
-    return new AlignedReadOnlyMemChunk(
-        getMeasurementSchema(), alignedTvListCopy, curSize, deletionList);
   }
 
   private List<List<TimeRange>> constructDeletionList(
@@ -258,27 +258,36 @@ public class MeasurementPath extends PartialPath {
       throws QueryProcessException, IOException {
     Map<IDeviceID, IWritableMemChunkGroup> memTableMap = memTable.getMemTableMap();
     IDeviceID deviceID = DeviceIDFactory.getInstance().getDeviceID(getDevicePath());
-    // check If Memtable Contains this path
-    if (!memTableMap.containsKey(deviceID)
-        || !memTableMap.get(deviceID).contains(getMeasurement())) {
+    IWritableMemChunkGroup memChunkGroup = memTableMap.get(deviceID);
+    if (memChunkGroup == null) {
       return null;
     }
-    IWritableMemChunk memChunk = memTableMap.get(deviceID).getMemChunkMap().get(getMeasurement());
-    // get sorted tv list is synchronized so different query can get right sorted list reference
-    TVList chunkCopy = memChunk.getSortedTvListForQuery();
-    int curSize = chunkCopy.size();
-    List<TimeRange> deletionList = null;
-    if (modsToMemtable != null) {
-      deletionList = constructDeletionList(memTable, modsToMemtable, timeLowerBound);
+    // exclude the concurrent writers of this device while taking the snapshot
+    synchronized (memChunkGroup) {
+      // check If Memtable Contains this path
+      if (!memChunkGroup.contains(getMeasurement())) {
+        return null;
+      }
+      IWritableMemChunk memChunk = memChunkGroup.getMemChunkMap().get(getMeasurement());
+      // the list is neither sorted nor copied, the snapshot is its current size and the ascending
+      // runs below it, which are not changed by the following appends
+      TVList chunkCopy = memChunk.getTvListForQuery();
+      int curSize = chunkCopy.size();
+      int[] sortedRunStarts = chunkCopy.getSortedRunStarts();
+      List<TimeRange> deletionList = null;
+      if (modsToMemtable != null) {
+        deletionList = constructDeletionList(memTable, modsToMemtable, timeLowerBound);
+      }
+      return new ReadOnlyMemChunk(
+          getMeasurement(),
+          measurementSchema.getType(),
+          measurementSchema.getEncodingType(),
+          chunkCopy,
+          measurementSchema.getProps(),
+          curSize,
+          sortedRunStarts,
+          deletionList);
     }
-    return new ReadOnlyMemChunk(
-        getMeasurement(),
-        measurementSchema.getType(),
-        measurementSchema.getEncodingType(),
-        chunkCopy,
-        measurementSchema.getProps(),
-        curSize,
-        deletionList);
   }
 
   /**
@@ -128,10 +128,12 @@ import org.apache.iotdb.db.query.context.QueryContext;
 import org.apache.iotdb.db.query.control.QueryTimeManager;
 import org.apache.iotdb.db.query.dataset.AlignByDeviceDataSet;
 import org.apache.iotdb.db.query.dataset.ListDataSet;
+import org.apache.iotdb.db.query.dataset.OrderByValueDataSet;
 import org.apache.iotdb.db.query.dataset.ShowContinuousQueriesResult;
 import org.apache.iotdb.db.query.dataset.ShowDevicesDataSet;
 import org.apache.iotdb.db.query.dataset.ShowTimeseriesDataSet;
 import org.apache.iotdb.db.query.dataset.SingleDataSet;
+import org.apache.iotdb.db.query.executor.AggregationExecutor;
 import org.apache.iotdb.db.query.executor.IQueryRouter;
 import org.apache.iotdb.db.query.executor.QueryRouter;
 import org.apache.iotdb.db.query.udf.service.UDFRegistrationInformation;
@@ -589,6 +591,13 @@ public class PlanExecutor implements IPlanExecutor {
   protected QueryDataSet processDataQuery(QueryPlan queryPlan, QueryContext context)
       throws StorageEngineException, QueryFilterOptimizationException, QueryProcessException,
           IOException, InterruptedException {
+    int rowLimit = queryPlan.getRowLimit();
+    int rowOffset = queryPlan.getRowOffset();
+    if (queryPlan.isSortedByValue()) {
+      // all the rows are sorted before LIMIT and OFFSET
+      queryPlan.setRowLimit(0);
+      queryPlan.setRowOffset(0);
+    }
     QueryDataSet queryDataSet;
     if (queryPlan instanceof AlignByDevicePlan) {
       queryDataSet = getAlignByDeviceDataSet((AlignByDevicePlan) queryPlan, context, queryRouter);
@@ -622,16 +631,30 @@ public class PlanExecutor implements IPlanExecutor {
         queryDataSet = queryRouter.rawDataQuery((RawDataQueryPlan) queryPlan, context);
       }
     }
-    queryDataSet.setRowLimit(queryPlan.getRowLimit());
-    queryDataSet.setRowOffset(queryPlan.getRowOffset());
     queryDataSet.setWithoutAllNull(queryPlan.isWithoutAllNull());
     queryDataSet.setWithoutAnyNull(queryPlan.isWithoutAnyNull());
+    if (queryPlan.isSortedByValue()) {
+      queryPlan.setRowLimit(rowLimit);
+      queryPlan.setRowOffset(rowOffset);
+      // only the first LIMIT + OFFSET rows are kept
+      int topN = rowLimit > 0 ? rowLimit + rowOffset : 0;
+      queryDataSet =
+          new OrderByValueDataSet(
+              context.getQueryId(),
+              queryDataSet,
+              queryPlan.getSortColumnIndex(),
+              queryPlan.isSortAscending(),
+              topN);
+    }
+    queryDataSet.setRowLimit(rowLimit);
+    queryDataSet.setRowOffset(rowOffset);
     return queryDataSet;
   }
 
   protected AlignByDeviceDataSet getAlignByDeviceDataSet(
       AlignByDevicePlan plan, QueryContext context, IQueryRouter router) {
-    return new AlignByDeviceDataSet(plan, context, router);
+    return new AlignByDeviceDataSet(
+        plan, context, router, AggregationExecutor.getParallelism(context));
   }
 
   protected QueryDataSet processShowQuery(ShowPlan showPlan, QueryContext context)
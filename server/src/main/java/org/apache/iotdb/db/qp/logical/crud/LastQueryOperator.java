@@ -48,6 +48,10 @@ public class LastQueryOperator extends QueryOperator {
       throw new LogicalOperatorException("Disable align cannot be applied to LAST query.");
     }
 
+    if (isSortedByValue()) {
+      throw new LogicalOperatorException("ORDER BY a column is not supported in LAST query.");
+    }
+
     for (ResultColumn resultColumn : selectComponent.getResultColumns()) {
       Expression expression = resultColumn.getExpression();
       if (!(expression instanceof TimeSeriesOperand)) {
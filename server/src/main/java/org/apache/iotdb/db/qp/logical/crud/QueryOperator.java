@@ -169,7 +169,26 @@ public class QueryOperator extends Operator {
     }
   }
 
+  public boolean isSortedByValue() {
+    return specialClauseComponent != null && specialClauseComponent.getSortKey() != null;
+  }
+
   public void check() throws LogicalOperatorException {
+    if (isSortedByValue()) {
+      if (!isAlignByTime()) {
+        throw new LogicalOperatorException(
+            "ORDER BY a column is not supported in DISABLE ALIGN queries.");
+      }
+      if (isGroupByLevel()) {
+        throw new LogicalOperatorException(
+            "ORDER BY a column is not supported in GROUP BY LEVEL queries.");
+      }
+      if (selectComponent.hasTimeSeriesGeneratingFunction()
+          || selectComponent.hasUserDefinedAggregationFunction()) {
+        throw new LogicalOperatorException("ORDER BY a column is not supported in UDF queries.");
+      }
+    }
+
     if (isAlignByDevice()) {
       if (selectComponent.hasTimeSeriesGeneratingFunction()) {
         throw new LogicalOperatorException(
@@ -342,6 +361,10 @@ public class QueryOperator extends Operator {
       queryPlan.setRowOffset(specialClauseComponent.getRowOffset());
       queryPlan.setAscending(specialClauseComponent.isAscending());
       queryPlan.setAlignByTime(specialClauseComponent.isAlignByTime());
+      if (specialClauseComponent.getSortKey() != null) {
+        queryPlan.setSortColumn(specialClauseComponent.getSortKey().getExpressionString());
+        queryPlan.setSortAscending(specialClauseComponent.isSortAscending());
+      }
     }
   }
 
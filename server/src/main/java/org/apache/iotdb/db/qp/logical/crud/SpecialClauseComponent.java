@@ -20,6 +20,7 @@
 package org.apache.iotdb.db.qp.logical.crud;
 
 import org.apache.iotdb.db.qp.utils.GroupByLevelController;
+import org.apache.iotdb.db.query.expression.Expression;
 
 public class SpecialClauseComponent {
 
@@ -29,6 +30,9 @@ public class SpecialClauseComponent {
   protected int seriesOffset = 0;
 
   protected boolean ascending = true;
+  // the column to sort the rows by instead of time, null if the rows are sorted by time
+  protected Expression sortKey;
+  protected boolean sortAscending = true;
   // if true, we don't need the row whose any column is null
   protected boolean withoutAnyNull;
   // if true, we don't need the row whose all columns are null
@@ -94,6 +98,22 @@ public class SpecialClauseComponent {
     this.ascending = ascending;
   }
 
+  public Expression getSortKey() {
+    return sortKey;
+  }
+
+  public void setSortKey(Expression sortKey) {
+    this.sortKey = sortKey;
+  }
+
+  public boolean isSortAscending() {
+    return sortAscending;
+  }
+
+  public void setSortAscending(boolean sortAscending) {
+    this.sortAscending = sortAscending;
+  }
+
   public boolean isWithoutAnyNull() {
     return withoutAnyNull;
   }
@@ -51,6 +51,9 @@ public class AggregationPlan extends RawDataQueryPlan {
   private GroupByLevelController groupByLevelController;
   // group by level aggregation result path
   private final Map<String, AggregateResult> groupPathsResultMap = new LinkedHashMap<>();
+  // the index of the group of each deduplicated path, computed once for all the rows
+  private int[] groupIndexes;
+  private List<String> groupedPaths;
 
   public AggregationPlan() {
     super();
@@ -139,21 +142,60 @@ public class AggregationPlan extends RawDataQueryPlan {
     if (!groupPathsResultMap.isEmpty()) {
       groupPathsResultMap.clear();
     }
-    for (int i = 0; i < getDeduplicatedPaths().size(); i++) {
+    AggregateResult[] groupResults =
+        groupAggResultByLevel(aggregateResults.toArray(new AggregateResult[0]));
+    for (int i = 0; i < groupResults.length; i++) {
+      groupPathsResultMap.put(groupedPaths.get(i), groupResults[i]);
+    }
+    return groupPathsResultMap;
+  }
+
+  /**
+   * merge the aggregate results of the deduplicated paths by level, without building the path of
+   * every result again.
+   *
+   * @return the merged results in the order of {@link #getGroupedPaths()}
+   */
+  public AggregateResult[] groupAggResultByLevel(AggregateResult[] aggregateResults) {
+    initGroupIndexes();
+    AggregateResult[] groupResults = new AggregateResult[groupedPaths.size()];
+    for (int i = 0; i < groupIndexes.length; i++) {
+      AggregateResult result = groupResults[groupIndexes[i]];
+      if (result == null) {
+        groupResults[groupIndexes[i]] = aggregateResults[i];
+      } else {
+        result.merge(aggregateResults[i]);
+      }
+    }
+    return groupResults;
+  }
+
+  public List<String> getGroupedPaths() {
+    initGroupIndexes();
+    return groupedPaths;
+  }
+
+  private void initGroupIndexes() {
+    if (groupIndexes != null) {
+      return;
+    }
+    Map<String, Integer> groupedPathIndexes = new LinkedHashMap<>();
+    int[] indexes = new int[getDeduplicatedPaths().size()];
+    for (int i = 0; i < indexes.length; i++) {
       String rawPath =
           String.format(
               "%s(%s)",
               deduplicatedAggregations.get(i), getDeduplicatedPaths().get(i).getFullPath());
       String transformedPath = groupByLevelController.getGroupedPath(rawPath);
-      AggregateResult result = groupPathsResultMap.get(transformedPath);
-      if (result == null) {
-        groupPathsResultMap.put(transformedPath, aggregateResults.get(i));
-      } else {
-        result.merge(aggregateResults.get(i));
-        groupPathsResultMap.put(transformedPath, result);
+      Integer index = groupedPathIndexes.get(transformedPath);
+      if (index == null) {
+        index = groupedPathIndexes.size();
+        groupedPathIndexes.put(transformedPath, index);
       }
+      indexes[i] = index;
     }
-    return groupPathsResultMap;
+    groupedPaths = new ArrayList<>(groupedPathIndexes.keySet());
+    groupIndexes = indexes;
   }
 
   @Override
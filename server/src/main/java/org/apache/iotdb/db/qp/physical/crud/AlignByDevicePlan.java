@@ -18,6 +18,7 @@
  */
 package org.apache.iotdb.db.qp.physical.crud;
 
+import org.apache.iotdb.db.exception.query.QueryProcessException;
 import org.apache.iotdb.db.metadata.path.PartialPath;
 import org.apache.iotdb.db.qp.constant.SQLConstant;
 import org.apache.iotdb.db.qp.logical.Operator;
@@ -144,6 +145,22 @@ public class AlignByDevicePlan extends QueryPlan {
     this.measurements = measurements;
   }
 
+  @Override
+  public int getSortColumnIndex() throws QueryProcessException {
+    // the rows start with the device column, followed by a field for each of the measurements,
+    // which are the same ones AlignByDeviceDataSet emits
+    for (int i = 0; i < measurements.size(); i++) {
+      String measurement = measurements.get(i);
+      MeasurementInfo measurementInfo = measurementInfoMap.get(measurement);
+      if (getSortColumn().equals(measurement)
+          || (measurementInfo != null
+              && getSortColumn().equals(measurementInfo.getMeasurementAlias()))) {
+        return i + 1;
+      }
+    }
+    throw new QueryProcessException(String.format(SORT_COLUMN_ERROR_MESSAGE, getSortColumn()));
+  }
+
   public List<String> getMeasurements() {
     return measurements;
   }
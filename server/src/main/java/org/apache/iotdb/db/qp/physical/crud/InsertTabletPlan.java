@@ -40,6 +40,10 @@ import org.apache.iotdb.tsfile.utils.TsPrimitiveType.TsLong;
 import java.io.DataOutputStream;
 import java.io.IOException;
 import java.nio.ByteBuffer;
+import java.nio.DoubleBuffer;
+import java.nio.FloatBuffer;
+import java.nio.IntBuffer;
+import java.nio.LongBuffer;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
@@ -54,6 +58,8 @@ public class InsertTabletPlan extends InsertPlan {
   private ByteBuffer timeBuffer;
 
   private BitMap[] bitMaps;
+  // a column is an array of its data type, or a view over the request buffer if it is INT32,
+  // INT64, FLOAT or DOUBLE, see QueryDataSetUtils.readColumnViewsFromBuffer()
   private Object[] columns;
   private ByteBuffer valueBuffer;
   private int rowCount = 0;
@@ -363,27 +369,23 @@ public class InsertTabletPlan extends InsertPlan {
     int curEnd = isExecuting ? end : rowCount;
     switch (dataType) {
       case INT32:
-        int[] intValues = (int[]) column;
         for (int j = curStart; j < curEnd; j++) {
-          buffer.putInt(intValues[j]);
+          buffer.putInt(getInt(column, j));
         }
         break;
       case INT64:
-        long[] longValues = (long[]) column;
         for (int j = curStart; j < curEnd; j++) {
-          buffer.putLong(longValues[j]);
+          buffer.putLong(getLong(column, j));
         }
         break;
       case FLOAT:
-        float[] floatValues = (float[]) column;
         for (int j = curStart; j < curEnd; j++) {
-          buffer.putFloat(floatValues[j]);
+          buffer.putFloat(getFloat(column, j));
         }
         break;
       case DOUBLE:
-        double[] doubleValues = (double[]) column;
         for (int j = curStart; j < curEnd; j++) {
-          buffer.putDouble(doubleValues[j]);
+          buffer.putDouble(getDouble(column, j));
         }
         break;
       case BOOLEAN:
@@ -411,27 +413,23 @@ public class InsertTabletPlan extends InsertPlan {
     int curEnd = isExecuting ? end : rowCount;
     switch (dataType) {
       case INT32:
-        int[] intValues = (int[]) column;
         for (int j = curStart; j < curEnd; j++) {
-          outputStream.writeInt(intValues[j]);
+          outputStream.writeInt(getInt(column, j));
         }
         break;
       case INT64:
-        long[] longValues = (long[]) column;
         for (int j = curStart; j < curEnd; j++) {
-          outputStream.writeLong(longValues[j]);
+          outputStream.writeLong(getLong(column, j));
         }
         break;
       case FLOAT:
-        float[] floatValues = (float[]) column;
         for (int j = curStart; j < curEnd; j++) {
-          outputStream.writeFloat(floatValues[j]);
+          outputStream.writeFloat(getFloat(column, j));
         }
         break;
       case DOUBLE:
-        double[] doubleValues = (double[]) column;
         for (int j = curStart; j < curEnd; j++) {
-          outputStream.writeDouble(doubleValues[j]);
+          outputStream.writeDouble(getDouble(column, j));
         }
         break;
       case BOOLEAN:
@@ -499,10 +497,61 @@ public class InsertTabletPlan extends InsertPlan {
     }
   }
 
+  /**
+   * @return the columns, INT32, INT64, FLOAT and DOUBLE columns may be views over the request
+   *     buffer, see {@link #materializeColumns()}
+   */
   public Object[] getColumns() {
     return columns;
   }
 
+  /** copy the columns that are views over the request buffer into arrays */
+  public Object[] materializeColumns() {
+    for (int i = 0; i < columns.length; i++) {
+      Object column = columns[i];
+      if (column instanceof IntBuffer) {
+        int[] intValues = new int[rowCount];
+        ((IntBuffer) column).duplicate().get(intValues);
+        columns[i] = intValues;
+      } else if (column instanceof LongBuffer) {
+        long[] longValues = new long[rowCount];
+        ((LongBuffer) column).duplicate().get(longValues);
+        columns[i] = longValues;
+      } else if (column instanceof FloatBuffer) {
+        float[] floatValues = new float[rowCount];
+        ((FloatBuffer) column).duplicate().get(floatValues);
+        columns[i] = floatValues;
+      } else if (column instanceof DoubleBuffer) {
+        double[] doubleValues = new double[rowCount];
+        ((DoubleBuffer) column).duplicate().get(doubleValues);
+        columns[i] = doubleValues;
+      }
+    }
+    return columns;
+  }
+
+  private static int getInt(Object column, int index) {
+    return column instanceof IntBuffer ? ((IntBuffer) column).get(index) : ((int[]) column)[index];
+  }
+
+  private static long getLong(Object column, int index) {
+    return column instanceof LongBuffer
+        ? ((LongBuffer) column).get(index)
+        : ((long[]) column)[index];
+  }
+
+  private static float getFloat(Object column, int index) {
+    return column instanceof FloatBuffer
+        ? ((FloatBuffer) column).get(index)
+        : ((float[]) column)[index];
+  }
+
+  private static double getDouble(Object column, int index) {
+    return column instanceof DoubleBuffer
+        ? ((DoubleBuffer) column).get(index)
+        : ((double[]) column)[index];
+  }
+
   public void setColumns(Object[] columns) {
     this.columns = columns;
   }
@@ -551,20 +600,16 @@ public class InsertTabletPlan extends InsertPlan {
     TsPrimitiveType value;
     switch (dataTypes[measurementIndex]) {
       case INT32:
-        int[] intValues = (int[]) columns[measurementIndex];
-        value = new TsInt(intValues[lastIdx]);
+        value = new TsInt(getInt(columns[measurementIndex], lastIdx));
         break;
       case INT64:
-        long[] longValues = (long[]) columns[measurementIndex];
-        value = new TsLong(longValues[lastIdx]);
+        value = new TsLong(getLong(columns[measurementIndex], lastIdx));
         break;
       case FLOAT:
-        float[] floatValues = (float[]) columns[measurementIndex];
-        value = new TsFloat(floatValues[lastIdx]);
+        value = new TsFloat(getFloat(columns[measurementIndex], lastIdx));
         break;
       case DOUBLE:
-        double[] doubleValues = (double[]) columns[measurementIndex];
-        value = new TsDouble(doubleValues[lastIdx]);
+        value = new TsDouble(getDouble(columns[measurementIndex], lastIdx));
         break;
       case BOOLEAN:
         boolean[] boolValues = (boolean[]) columns[measurementIndex];
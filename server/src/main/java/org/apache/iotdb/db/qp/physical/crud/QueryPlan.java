@@ -19,6 +19,7 @@
 package org.apache.iotdb.db.qp.physical.crud;
 
 import org.apache.iotdb.db.exception.metadata.MetadataException;
+import org.apache.iotdb.db.exception.query.QueryProcessException;
 import org.apache.iotdb.db.metadata.path.MeasurementPath;
 import org.apache.iotdb.db.metadata.path.PartialPath;
 import org.apache.iotdb.db.qp.logical.Operator;
@@ -43,6 +44,9 @@ import java.util.Map;
 
 public abstract class QueryPlan extends PhysicalPlan {
 
+  public static final String SORT_COLUMN_ERROR_MESSAGE =
+      "ORDER BY %s should match exactly one column of the result.";
+
   protected List<ResultColumn> resultColumns = null;
   protected List<MeasurementPath> paths = null;
 
@@ -53,6 +57,10 @@ public abstract class QueryPlan extends PhysicalPlan {
 
   private boolean ascending = true;
 
+  // the column to sort the rows by instead of time, null if the rows are sorted by time
+  private String sortColumn;
+  private boolean sortAscending = true;
+
   private Map<String, Integer> pathToIndex = new HashMap<>();
 
   private boolean enableRedirect = false;
@@ -187,6 +195,35 @@ public abstract class QueryPlan extends PhysicalPlan {
     this.ascending = ascending;
   }
 
+  public boolean isSortedByValue() {
+    return sortColumn != null;
+  }
+
+  public String getSortColumn() {
+    return sortColumn;
+  }
+
+  public void setSortColumn(String sortColumn) {
+    this.sortColumn = sortColumn;
+  }
+
+  public boolean isSortAscending() {
+    return sortAscending;
+  }
+
+  public void setSortAscending(boolean sortAscending) {
+    this.sortAscending = sortAscending;
+  }
+
+  /** get the index of the sort column in the rows of the dataset */
+  public int getSortColumnIndex() throws QueryProcessException {
+    Integer index = pathToIndex.get(sortColumn);
+    if (index == null) {
+      throw new QueryProcessException(String.format(SORT_COLUMN_ERROR_MESSAGE, sortColumn));
+    }
+    return index;
+  }
+
   public String getColumnForReaderFromPath(PartialPath path, int pathIndex) {
     ResultColumn resultColumn = resultColumns.get(pathIndex);
     return resultColumn.hasAlias() ? resultColumn.getAlias() : path.getFullPath();
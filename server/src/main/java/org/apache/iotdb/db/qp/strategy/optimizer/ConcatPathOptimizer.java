@@ -36,10 +36,13 @@ import org.apache.iotdb.db.qp.logical.crud.LikeOperator;
 import org.apache.iotdb.db.qp.logical.crud.QueryOperator;
 import org.apache.iotdb.db.qp.logical.crud.RegexpOperator;
 import org.apache.iotdb.db.qp.logical.crud.SelectComponent;
+import org.apache.iotdb.db.qp.logical.crud.SpecialClauseComponent;
 import org.apache.iotdb.db.qp.logical.crud.WhereComponent;
 import org.apache.iotdb.db.qp.utils.GroupByLevelController;
 import org.apache.iotdb.db.qp.utils.WildcardsRemover;
+import org.apache.iotdb.db.query.expression.Expression;
 import org.apache.iotdb.db.query.expression.ResultColumn;
+import org.apache.iotdb.db.query.expression.unary.TimeSeriesOperand;
 import org.apache.iotdb.db.service.IoTDB;
 
 import org.slf4j.Logger;
@@ -69,6 +72,7 @@ public class ConcatPathOptimizer implements ILogicalOptimizer {
       return queryOperator;
     }
     concatSelect(queryOperator);
+    concatSortKey(queryOperator);
     removeWildcardsInSelectPaths(queryOperator);
     concatFilterAndRemoveWildcards(queryOperator);
     return queryOperator;
@@ -103,6 +107,34 @@ public class ConcatPathOptimizer implements ILogicalOptimizer {
     queryOperator.getSelectComponent().setResultColumns(resultColumns);
   }
 
+  /**
+   * Transform "select s1 from root.sg.d1 order by s1" to "select root.sg.d1.s1 from root.sg.d1
+   * order by root.sg.d1.s1", the sort key is kept if it is an alias.
+   */
+  private void concatSortKey(QueryOperator queryOperator) throws LogicalOptimizeException {
+    SpecialClauseComponent specialClauseComponent = queryOperator.getSpecialClauseComponent();
+    if (specialClauseComponent == null || specialClauseComponent.getSortKey() == null) {
+      return;
+    }
+    Expression sortKey = specialClauseComponent.getSortKey();
+    if (sortKey instanceof TimeSeriesOperand
+        && ((TimeSeriesOperand) sortKey).getPath().getNodeLength() == 1) {
+      for (ResultColumn resultColumn : queryOperator.getSelectComponent().getResultColumns()) {
+        if (sortKey.getExpressionString().equals(resultColumn.getAlias())) {
+          return;
+        }
+      }
+    }
+
+    List<Expression> sortKeys = new ArrayList<>();
+    sortKey.concat(queryOperator.getFromComponent().getPrefixPaths(), sortKeys);
+    if (sortKeys.size() != 1) {
+      throw new LogicalOptimizeException(
+          String.format("ORDER BY %s should match exactly one column", sortKey));
+    }
+    specialClauseComponent.setSortKey(sortKeys.get(0));
+  }
+
   private void removeWildcardsInSelectPaths(QueryOperator queryOperator)
       throws LogicalOptimizeException, PathNumOverLimitException {
     if (queryOperator.getIndexType() != null) {
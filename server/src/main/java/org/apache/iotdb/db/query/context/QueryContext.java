@@ -27,7 +27,6 @@ import org.apache.iotdb.db.query.control.QueryTimeManager;
 import org.apache.iotdb.tsfile.file.metadata.IChunkMetadata;
 
 import java.util.ArrayList;
-import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
@@ -46,7 +45,7 @@ public class QueryContext {
    * use this field because each call of Modification.getModifications() return a copy of the
    * Modifications, and we do not want it to create multiple copies within a query.
    */
-  private final Map<String, List<Modification>> fileModCache = new HashMap<>();
+  private final Map<String, List<Modification>> fileModCache = new ConcurrentHashMap<>();
 
   private long queryId;
 
@@ -96,11 +95,10 @@ public class QueryContext {
     return fileModifications.computeIfAbsent(
         path.getFullPath(),
         k -> {
-          List<Modification> allModifications = fileModCache.get(modFile.getFilePath());
-          if (allModifications == null) {
-            allModifications = (List<Modification>) modFile.getModifications();
-            fileModCache.put(modFile.getFilePath(), allModifications);
-          }
+          // the series of a query may be read by several threads
+          List<Modification> allModifications =
+              fileModCache.computeIfAbsent(
+                  modFile.getFilePath(), f -> (List<Modification>) modFile.getModifications());
           List<Modification> finalPathModifications = new ArrayList<>();
           if (!allModifications.isEmpty()) {
             allModifications.forEach(
@@ -20,8 +20,11 @@ package org.apache.iotdb.db.query.control;
 
 import org.apache.iotdb.db.engine.storagegroup.TsFileResource;
 import org.apache.iotdb.tsfile.common.conf.TSFileConfig;
+import org.apache.iotdb.tsfile.common.conf.TSFileDescriptor;
+import org.apache.iotdb.tsfile.fileSystem.FSFactoryProducer;
 import org.apache.iotdb.tsfile.read.TsFileSequenceReader;
 import org.apache.iotdb.tsfile.read.UnClosedTsFileReader;
+import org.apache.iotdb.tsfile.read.reader.MMapTsFileInput;
 import org.apache.iotdb.tsfile.v2.read.TsFileSequenceReaderForV2;
 
 import org.slf4j.Logger;
@@ -118,7 +121,9 @@ public class FileReaderManager {
       if (!isClosed) {
         tsFileReader = new UnClosedTsFileReader(filePath);
       } else {
-        tsFileReader = new TsFileSequenceReader(filePath);
+        tsFileReader =
+            new TsFileSequenceReader(
+                FSFactoryProducer.getSealedFileInputFactory().getTsFileInput(filePath));
         if (tsFileReader.readVersionNumber() != TSFileConfig.VERSION_NUMBER) {
           tsFileReader.close();
           tsFileReader = new TsFileSequenceReaderForV2(filePath);
@@ -130,12 +135,43 @@ public class FileReaderManager {
         }
       }
       readerMap.put(filePath, tsFileReader);
+      if (tsFileReader.isMemoryMapped()) {
+        releaseColdMappedReaders(filePath);
+      }
       return tsFileReader;
     }
 
     return readerMap.get(filePath);
   }
 
+  /**
+   * Close the memory-mapped readers of sealed files that are not referenced by any query, until the
+   * mapped bytes fall below mmap_read_budget_in_byte. A mapping is released as soon as no chunk
+   * sliced from it is cached any more.
+   */
+  private void releaseColdMappedReaders(String openingFilePath) {
+    long budget = TSFileDescriptor.getInstance().getConfig().getMmapReadBudgetInByte();
+    Iterator<Map.Entry<String, TsFileSequenceReader>> iterator =
+        closedFileReaderMap.entrySet().iterator();
+    while (MMapTsFileInput.getTotalMappedBytes() > budget && iterator.hasNext()) {
+      Map.Entry<String, TsFileSequenceReader> entry = iterator.next();
+      if (entry.getKey().equals(openingFilePath)
+          || closedReferenceMap.containsKey(entry.getKey())
+          || !entry.getValue().isMemoryMapped()) {
+        continue;
+      }
+      try {
+        entry.getValue().close();
+      } catch (IOException e) {
+        logger.error("Can not close TsFileSequenceReader {} !", entry.getKey(), e);
+      }
+      iterator.remove();
+      if (resourceLogger.isDebugEnabled()) {
+        resourceLogger.debug("{} TsFileReader is closed to release its mapping.", entry.getKey());
+      }
+    }
+  }
+
   /**
    * Increase the reference count of the reader specified by filePath. Only when the reference count
    * of a reader equals zero, the reader can be closed and removed.
@@ -18,6 +18,7 @@
  */
 package org.apache.iotdb.db.query.control;
 
+import org.apache.iotdb.db.conf.IoTDBDescriptor;
 import org.apache.iotdb.db.engine.StorageEngine;
 import org.apache.iotdb.db.engine.querycontext.QueryDataSource;
 import org.apache.iotdb.db.engine.storagegroup.VirtualStorageGroupProcessor;
@@ -26,15 +27,14 @@ import org.apache.iotdb.db.exception.query.QueryProcessException;
 import org.apache.iotdb.db.metadata.idtable.IDTable;
 import org.apache.iotdb.db.metadata.path.PartialPath;
 import org.apache.iotdb.db.query.context.QueryContext;
-import org.apache.iotdb.db.query.externalsort.serialize.IExternalSortFileDeserializer;
 import org.apache.iotdb.db.query.udf.service.TemporaryQueryDataFileService;
 import org.apache.iotdb.db.utils.QueryUtils;
 import org.apache.iotdb.tsfile.read.filter.basic.Filter;
 
+import java.io.Closeable;
 import java.io.IOException;
 import java.util.ArrayList;
 import java.util.Collections;
-import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
@@ -62,7 +62,14 @@ public class QueryResourceManager {
    *
    * <p>Key: query job id. Value: temporary file list used for external sorting.
    */
-  private final Map<Long, List<IExternalSortFileDeserializer>> externalSortFileMap;
+  private final Map<Long, List<Closeable>> externalSortFileMap;
+
+  /**
+   * Record the memory used to sort the rows of each query by a column.
+   *
+   * <p>Key: query job id. Value: memory in bytes.
+   */
+  private final Map<Long, AtomicLong> sortMemoryCostMap;
 
   /**
    * Record QueryDataSource used in queries
@@ -71,10 +78,21 @@ public class QueryResourceManager {
    */
   private final Map<Long, Map<String, QueryDataSource>> cachedQueryDataSourcesMap;
 
+  /**
+   * Record QueryDataSource filtered by a single device. They are kept apart from the ones of
+   * virtual storage groups, as the tasks of a query may select different devices of the same
+   * virtual storage group concurrently, e.g., in align by device queries.
+   *
+   * <p>Key: query job id. Value: QueryDataSource corresponding to each device.
+   */
+  private final Map<Long, Map<String, QueryDataSource>> cachedDeviceQueryDataSourcesMap;
+
   private QueryResourceManager() {
     filePathsManager = new QueryFileManager();
     externalSortFileMap = new ConcurrentHashMap<>();
+    sortMemoryCostMap = new ConcurrentHashMap<>();
     cachedQueryDataSourcesMap = new ConcurrentHashMap<>();
+    cachedDeviceQueryDataSourcesMap = new ConcurrentHashMap<>();
   }
 
   public static QueryResourceManager getInstance() {
@@ -94,13 +112,44 @@ public class QueryResourceManager {
    * register temporary file generated by external sort for resource release.
    *
    * @param queryId query job id
-   * @param deserializer deserializer of temporary file in external sort.
+   * @param deserializer deserializer of temporary file in external sort, which deletes the file
+   *     when closed.
    */
-  public void registerTempExternalSortFile(
-      long queryId, IExternalSortFileDeserializer deserializer) {
+  public void registerTempExternalSortFile(long queryId, Closeable deserializer) {
     externalSortFileMap.computeIfAbsent(queryId, x -> new ArrayList<>()).add(deserializer);
   }
 
+  /**
+   * apply memory to sort the rows of a query by a column.
+   *
+   * @param queryId query job id
+   * @param size memory in bytes
+   * @return false if the memory of the query would exceed the sort memory budget, and then nothing
+   *     is applied
+   */
+  public boolean tryApplySortMemory(long queryId, long size) {
+    long budget =
+        (long) (IoTDBDescriptor.getInstance().getConfig().getSortMemoryBudgetInMB() * 1024 * 1024);
+    AtomicLong memoryCost = sortMemoryCostMap.computeIfAbsent(queryId, k -> new AtomicLong());
+    if (memoryCost.addAndGet(size) > budget) {
+      memoryCost.addAndGet(-size);
+      return false;
+    }
+    return true;
+  }
+
+  public void releaseSortMemory(long queryId, long size) {
+    AtomicLong memoryCost = sortMemoryCostMap.get(queryId);
+    if (memoryCost != null) {
+      memoryCost.addAndGet(-size);
+    }
+  }
+
+  public long getSortMemoryCost(long queryId) {
+    AtomicLong memoryCost = sortMemoryCostMap.get(queryId);
+    return memoryCost == null ? 0 : memoryCost.get();
+  }
+
   /**
    * The method is called in mergeLock() when executing query. This method will get all the
    * QueryDataSource needed for this query and put them in the cachedQueryDataSourcesMap.
@@ -127,16 +176,20 @@ public class QueryResourceManager {
       long queryId = context.getQueryId();
       String storageGroupPath = processor.getStorageGroupPath();
 
+      String selectedDeviceId =
+          selectedDeviceIdSet.size() == 1 ? selectedDeviceIdSet.iterator().next() : null;
+
       QueryDataSource cachedQueryDataSource =
-          processor.query(
-              pathList,
-              selectedDeviceIdSet.size() == 1 ? selectedDeviceIdSet.iterator().next() : null,
-              context,
-              filePathsManager,
-              timeFilter);
-      cachedQueryDataSourcesMap
-          .computeIfAbsent(queryId, k -> new HashMap<>())
-          .put(storageGroupPath, cachedQueryDataSource);
+          processor.query(pathList, selectedDeviceId, context, filePathsManager, timeFilter);
+      if (selectedDeviceId != null) {
+        cachedDeviceQueryDataSourcesMap
+            .computeIfAbsent(queryId, k -> new ConcurrentHashMap<>())
+            .put(selectedDeviceId, cachedQueryDataSource);
+      } else {
+        cachedQueryDataSourcesMap
+            .computeIfAbsent(queryId, k -> new ConcurrentHashMap<>())
+            .put(storageGroupPath, cachedQueryDataSource);
+      }
     }
   }
 
@@ -152,16 +205,20 @@ public class QueryResourceManager {
     String storageGroupPath = StorageEngine.getInstance().getStorageGroupPath(selectedPath);
     String deviceId = selectedPath.getDevice();
 
-    // get cached QueryDataSource
-    QueryDataSource cachedQueryDataSource;
-    if (cachedQueryDataSourcesMap.containsKey(queryId)
-        && cachedQueryDataSourcesMap.get(queryId).containsKey(storageGroupPath)) {
-      cachedQueryDataSource = cachedQueryDataSourcesMap.get(queryId).get(storageGroupPath);
-    } else {
+    PartialPath translatedPath = IDTable.translateQueryPath(selectedPath);
+
+    // get cached QueryDataSource, the one filtered by the device of selectedPath comes first
+    QueryDataSource cachedQueryDataSource =
+        getCachedQueryDataSource(
+            cachedDeviceQueryDataSourcesMap, queryId, translatedPath.getDevice());
+    if (cachedQueryDataSource == null) {
+      cachedQueryDataSource =
+          getCachedQueryDataSource(cachedQueryDataSourcesMap, queryId, storageGroupPath);
+    }
+    if (cachedQueryDataSource == null) {
       // QueryDataSource is never cached in cluster mode
       VirtualStorageGroupProcessor processor =
           StorageEngine.getInstance().getProcessor(selectedPath.getDevicePath());
-      PartialPath translatedPath = IDTable.translateQueryPath(selectedPath);
       cachedQueryDataSource =
           processor.query(
               Collections.singletonList(translatedPath),
@@ -184,6 +241,12 @@ public class QueryResourceManager {
     return queryDataSource;
   }
 
+  private QueryDataSource getCachedQueryDataSource(
+      Map<Long, Map<String, QueryDataSource>> cachedMap, long queryId, String key) {
+    Map<String, QueryDataSource> queryDataSources = cachedMap.get(queryId);
+    return queryDataSources == null ? null : queryDataSources.get(key);
+  }
+
   /**
    * Whenever the jdbc request is closed normally or abnormally, this method must be invoked. All
    * query tokens created by this jdbc request must be cleared.
@@ -192,7 +255,7 @@ public class QueryResourceManager {
   public void endQuery(long queryId) throws StorageEngineException {
     // close file stream of external sort files, and delete
     if (externalSortFileMap.get(queryId) != null) {
-      for (IExternalSortFileDeserializer deserializer : externalSortFileMap.get(queryId)) {
+      for (Closeable deserializer : externalSortFileMap.get(queryId)) {
         try {
           deserializer.close();
         } catch (IOException e) {
@@ -201,6 +264,7 @@ public class QueryResourceManager {
       }
       externalSortFileMap.remove(queryId);
     }
+    sortMemoryCostMap.remove(queryId);
 
     // remove usage of opened file paths of current thread
     filePathsManager.removeUsedFilesForQuery(queryId);
@@ -213,6 +277,7 @@ public class QueryResourceManager {
 
     // remove cached QueryDataSource
     cachedQueryDataSourcesMap.remove(queryId);
+    cachedDeviceQueryDataSourcesMap.remove(queryId);
   }
 
   private static class QueryTokenManagerHelper {
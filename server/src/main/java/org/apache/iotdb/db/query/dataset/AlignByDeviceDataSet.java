@@ -29,7 +29,9 @@ import org.apache.iotdb.db.qp.physical.crud.GroupByTimeFillPlan;
 import org.apache.iotdb.db.qp.physical.crud.GroupByTimePlan;
 import org.apache.iotdb.db.qp.physical.crud.RawDataQueryPlan;
 import org.apache.iotdb.db.query.context.QueryContext;
+import org.apache.iotdb.db.query.control.QueryTimeManager;
 import org.apache.iotdb.db.query.executor.IQueryRouter;
+import org.apache.iotdb.db.query.pool.AggregationTaskPoolManager;
 import org.apache.iotdb.rpc.RedirectException;
 import org.apache.iotdb.tsfile.exception.filter.QueryFilterOptimizationException;
 import org.apache.iotdb.tsfile.file.metadata.enums.TSDataType;
@@ -40,15 +42,22 @@ import org.apache.iotdb.tsfile.read.query.dataset.QueryDataSet;
 import org.apache.iotdb.tsfile.utils.Binary;
 
 import java.io.IOException;
+import java.util.ArrayDeque;
 import java.util.ArrayList;
+import java.util.Deque;
 import java.util.HashMap;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
 
 /** This QueryDataSet is used for ALIGN_BY_DEVICE query result. */
 public class AlignByDeviceDataSet extends QueryDataSet {
 
+  // how many records of a device are read in advance in the pool, the rest are read lazily
+  private static final int PREFETCH_RECORD_NUM = 1024;
+
   private DataSetType dataSetType;
   private IQueryRouter queryRouter;
   private QueryContext context;
@@ -73,8 +82,25 @@ public class AlignByDeviceDataSet extends QueryDataSet {
   private List<String> executeColumns;
   private int pathsNum = 0;
 
+  // how many devices are queried in advance, 1 means the devices are queried one by one
+  private final int prefetchNum;
+  private final Deque<Future<DeviceQuery>> prefetchedQueries = new ArrayDeque<>();
+  private Iterator<RowRecord> currentRecords;
+
   public AlignByDeviceDataSet(
       AlignByDevicePlan alignByDevicePlan, QueryContext context, IQueryRouter queryRouter) {
+    this(alignByDevicePlan, context, queryRouter, 1);
+  }
+
+  /**
+   * @param parallelism how many devices of an aggregation or group by time query can be queried at
+   *     the same time, other queries always query the devices one by one
+   */
+  public AlignByDeviceDataSet(
+      AlignByDevicePlan alignByDevicePlan,
+      QueryContext context,
+      IQueryRouter queryRouter,
+      int parallelism) {
     super(null, null);
     // align by device's column number is different from other datasets
     // TODO I don't know whether it's right or not in AlignedPath, remember to check here while
@@ -119,6 +145,10 @@ public class AlignByDeviceDataSet extends QueryDataSet {
     }
 
     this.curDataSetInitialized = false;
+    this.prefetchNum =
+        dataSetType == DataSetType.AGGREGATE || dataSetType == DataSetType.GROUP_BY_TIME
+            ? Math.max(parallelism, 1)
+            : 1;
   }
 
   public int getPathsNum() {
@@ -134,30 +164,17 @@ public class AlignByDeviceDataSet extends QueryDataSet {
       curDataSetInitialized = false;
     }
 
-    while (deviceIterator.hasNext()) {
-      currentDevice = deviceIterator.next();
-      executeColumns = new ArrayList<>();
-      List<PartialPath> executePaths = new ArrayList<>();
-      List<String> executeAggregations = new ArrayList<>();
-      for (int i : deviceToPathIndex.get(currentDevice)) {
-        executePaths.add(paths.get(i));
-        String executeColumn = paths.get(i).getMeasurement();
-        if (aggregations != null) {
-          executeAggregations.add(aggregations.get(i));
-          executeColumn = String.format("%s(%s)", aggregations.get(i), executeColumn);
-        }
-        executeColumns.add(executeColumn);
-      }
-
-      // get filter to execute for the current device
-      if (deviceToFilterMap != null) {
-        this.expression = deviceToFilterMap.get(currentDevice);
-      }
+    if (prefetchNum > 1) {
+      return hasNextPrefetched();
+    }
 
-      // for tracing: try to calculate the number of series paths
-      if (context.isEnableTracing()) {
-        pathsNum += executeColumns.size();
-      }
+    while (deviceIterator.hasNext()) {
+      DeviceQuery deviceQuery = getDeviceQuery(deviceIterator.next());
+      currentDevice = deviceQuery.device;
+      executeColumns = deviceQuery.columns;
+      List<PartialPath> executePaths = deviceQuery.paths;
+      List<String> executeAggregations = deviceQuery.aggregations;
+      this.expression = deviceQuery.expression;
 
       try {
         switch (dataSetType) {
@@ -215,9 +232,142 @@ public class AlignByDeviceDataSet extends QueryDataSet {
     return false;
   }
 
+  /** get the paths, columns and filter of a device */
+  private DeviceQuery getDeviceQuery(String device) {
+    DeviceQuery deviceQuery = new DeviceQuery(device);
+    for (int i : deviceToPathIndex.get(device)) {
+      deviceQuery.paths.add(paths.get(i));
+      String executeColumn = paths.get(i).getMeasurement();
+      if (aggregations != null) {
+        deviceQuery.aggregations.add(aggregations.get(i));
+        executeColumn = String.format("%s(%s)", aggregations.get(i), executeColumn);
+      }
+      deviceQuery.columns.add(executeColumn);
+    }
+
+    // get filter to execute for the current device
+    if (deviceToFilterMap != null) {
+      deviceQuery.expression = deviceToFilterMap.get(device);
+    }
+
+    // for tracing: try to calculate the number of series paths
+    if (context.isEnableTracing()) {
+      pathsNum += deviceQuery.columns.size();
+    }
+    return deviceQuery;
+  }
+
+  /**
+   * Devices are queried in the pool while the records of the former devices are returned. The
+   * devices are still returned in order, and at most prefetchNum devices are queried or cached.
+   */
+  private boolean hasNextPrefetched() throws IOException {
+    if (currentRecords != null && currentRecords.hasNext()) {
+      return true;
+    }
+    if (currentRecords != null) {
+      currentRecords = null;
+      // the records of the device beyond the prefetched ones are read from its data set
+      if (currentDataSet != null && currentDataSet.hasNext()) {
+        curDataSetInitialized = true;
+        return true;
+      }
+    }
+
+    prefetchDevices();
+    while (!prefetchedQueries.isEmpty()) {
+      DeviceQuery deviceQuery = getPrefetchedQuery(prefetchedQueries.poll());
+      prefetchDevices();
+      if (!deviceQuery.records.isEmpty()) {
+        currentDevice = deviceQuery.device;
+        executeColumns = deviceQuery.columns;
+        currentDataSet = deviceQuery.dataSet;
+        currentRecords = deviceQuery.records.iterator();
+        return true;
+      }
+    }
+    return false;
+  }
+
+  private void prefetchDevices() {
+    while (prefetchedQueries.size() < prefetchNum && deviceIterator.hasNext()) {
+      DeviceQuery deviceQuery = getDeviceQuery(deviceIterator.next());
+      prefetchedQueries.add(
+          AggregationTaskPoolManager.getInstance().submit(() -> executeDeviceQuery(deviceQuery)));
+    }
+  }
+
+  private DeviceQuery getPrefetchedQuery(Future<DeviceQuery> future) throws IOException {
+    try {
+      return future.get();
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      cancelPrefetchedQueries();
+      throw new IOException(e);
+    } catch (ExecutionException e) {
+      cancelPrefetchedQueries();
+      if (e.getCause() instanceof IOException) {
+        throw (IOException) e.getCause();
+      }
+      throw new IOException(e.getCause());
+    }
+  }
+
+  private void cancelPrefetchedQueries() {
+    for (Future<DeviceQuery> future : prefetchedQueries) {
+      future.cancel(false);
+    }
+    prefetchedQueries.clear();
+  }
+
+  /**
+   * query a device with its own plan, as the plans of the devices are used at the same time, and
+   * read at most PREFETCH_RECORD_NUM records of it in the pool
+   */
+  private DeviceQuery executeDeviceQuery(DeviceQuery deviceQuery)
+      throws QueryProcessException, QueryFilterOptimizationException, StorageEngineException,
+          IOException {
+    // the resources of the query may have been released
+    if (!QueryTimeManager.checkQueryAlive(context.getQueryId())) {
+      return deviceQuery;
+    }
+    QueryDataSet dataSet;
+    if (dataSetType == DataSetType.AGGREGATE) {
+      AggregationPlan plan = new AggregationPlan();
+      initDevicePlan(plan, aggregationPlan, deviceQuery);
+      dataSet = queryRouter.aggregate(plan, context);
+    } else {
+      GroupByTimePlan plan = new GroupByTimePlan();
+      plan.setStartTime(groupByTimePlan.getStartTime());
+      plan.setEndTime(groupByTimePlan.getEndTime());
+      plan.setInterval(groupByTimePlan.getInterval());
+      plan.setSlidingStep(groupByTimePlan.getSlidingStep());
+      plan.setIntervalByMonth(groupByTimePlan.isIntervalByMonth());
+      plan.setSlidingStepByMonth(groupByTimePlan.isSlidingStepByMonth());
+      plan.setLeftCRightO(groupByTimePlan.isLeftCRightO());
+      initDevicePlan(plan, groupByTimePlan, deviceQuery);
+      dataSet = queryRouter.groupBy(plan, context);
+    }
+    while (deviceQuery.records.size() < PREFETCH_RECORD_NUM && dataSet.hasNext()) {
+      deviceQuery.records.add(dataSet.next());
+    }
+    deviceQuery.dataSet = dataSet;
+    return deviceQuery;
+  }
+
+  private void initDevicePlan(
+      AggregationPlan plan, AggregationPlan templatePlan, DeviceQuery deviceQuery)
+      throws QueryProcessException {
+    plan.setAscending(templatePlan.isAscending());
+    plan.setDeduplicatedPathsAndUpdate(deviceQuery.paths);
+    plan.setDeduplicatedAggregations(deviceQuery.aggregations);
+    plan.setExpression(deviceQuery.expression);
+  }
+
   @Override
   public RowRecord nextWithoutConstraint() throws IOException {
-    RowRecord originRowRecord = currentDataSet.next();
+    RowRecord originRowRecord =
+        currentRecords != null ? currentRecords.next() : currentDataSet.next();
 
     RowRecord rowRecord = new RowRecord(originRowRecord.getTimestamp());
 
@@ -245,6 +395,23 @@ public class AlignByDeviceDataSet extends QueryDataSet {
     return rowRecord;
   }
 
+  private static class DeviceQuery {
+
+    private final String device;
+    private final List<PartialPath> paths = new ArrayList<>();
+    private final List<String> aggregations = new ArrayList<>();
+    private final List<String> columns = new ArrayList<>();
+    private IExpression expression;
+    // the records of the device read in the pool
+    private final List<RowRecord> records = new ArrayList<>();
+    // the data set to read the rest records of the device
+    private QueryDataSet dataSet;
+
+    private DeviceQuery(String device) {
+      this.device = device;
+    }
+  }
+
   private enum DataSetType {
     GROUP_BY_FILL,
     GROUP_BY_TIME,
@@ -0,0 +1,127 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.iotdb.db.query.dataset;
+
+import org.apache.iotdb.db.query.externalsort.ExternalRowSorter;
+import org.apache.iotdb.db.query.externalsort.SimpleExternalSortEngine;
+import org.apache.iotdb.tsfile.exception.write.UnSupportedDataTypeException;
+import org.apache.iotdb.tsfile.read.common.Field;
+import org.apache.iotdb.tsfile.read.common.RowRecord;
+import org.apache.iotdb.tsfile.read.query.dataset.QueryDataSet;
+
+import java.io.IOException;
+import java.util.Comparator;
+
+/**
+ * Sort the rows of a dataset by the value of a column, for ORDER BY a column. The rows of the
+ * dataset are read and sorted by {@link ExternalRowSorter} when the first row is fetched, and rows
+ * with the same value are ordered by time.
+ */
+public class OrderByValueDataSet extends QueryDataSet {
+
+  private final QueryDataSet dataSet;
+  private final ExternalRowSorter sorter;
+  private boolean sorted = false;
+
+  /**
+   * @param dataSet the dataset to sort, whose rows filtered by WITHOUT NULL are skipped
+   * @param columnIndex the index of the sort column in a row
+   * @param topN how many rows are needed, 0 means all the rows
+   */
+  public OrderByValueDataSet(
+      long queryId, QueryDataSet dataSet, int columnIndex, boolean ascending, int topN) {
+    super(dataSet.getPaths(), dataSet.getDataTypes(), ascending);
+    this.dataSet = dataSet;
+    this.columnNum = dataSet.getColumnNum();
+    this.sorter =
+        SimpleExternalSortEngine.getInstance()
+            .createRowSorter(queryId, getComparator(columnIndex, ascending), topN);
+  }
+
+  @Override
+  public boolean hasNextWithoutConstraint() throws IOException {
+    if (!sorted) {
+      sort();
+    }
+    if (sorter.hasNext()) {
+      return true;
+    }
+    sorter.close();
+    return false;
+  }
+
+  @Override
+  public RowRecord nextWithoutConstraint() throws IOException {
+    return sorter.next();
+  }
+
+  private void sort() throws IOException {
+    while (dataSet.hasNextWithoutConstraint()) {
+      RowRecord record = dataSet.nextWithoutConstraint();
+      if ((dataSet.isWithoutAllNull() && record.isAllNull())
+          || (dataSet.isWithoutAnyNull() && record.hasNullField())) {
+        continue;
+      }
+      sorter.add(record);
+    }
+    sorter.finish();
+    sorted = true;
+  }
+
+  /** order the rows by a column, the nulls are the last, then order the rows by time */
+  static Comparator<RowRecord> getComparator(int columnIndex, boolean ascending) {
+    return (a, b) -> {
+      Field fieldA = a.getFields().get(columnIndex);
+      Field fieldB = b.getFields().get(columnIndex);
+      boolean nullA = fieldA == null || fieldA.getDataType() == null;
+      boolean nullB = fieldB == null || fieldB.getDataType() == null;
+      int result;
+      if (nullA || nullB) {
+        result = Boolean.compare(nullA, nullB);
+      } else {
+        result = compareValue(fieldA, fieldB);
+        if (!ascending) {
+          result = -result;
+        }
+      }
+      return result != 0 ? result : Long.compare(a.getTimestamp(), b.getTimestamp());
+    };
+  }
+
+  private static int compareValue(Field a, Field b) {
+    switch (a.getDataType()) {
+      case INT32:
+        return Integer.compare(a.getIntV(), b.getIntV());
+      case INT64:
+        return Long.compare(a.getLongV(), b.getLongV());
+      case FLOAT:
+        return Float.compare(a.getFloatV(), b.getFloatV());
+      case DOUBLE:
+        return Double.compare(a.getDoubleV(), b.getDoubleV());
+      case BOOLEAN:
+        return Boolean.compare(a.getBoolV(), b.getBoolV());
+      case TEXT:
+        return a.getBinaryV().compareTo(b.getBinaryV());
+      default:
+        throw new UnSupportedDataTypeException(
+            String.format("Data type %s is not supported.", a.getDataType()));
+    }
+  }
+}
@@ -37,16 +37,12 @@ import org.apache.iotdb.tsfile.read.common.ExceptionBatchData;
 import org.apache.iotdb.tsfile.read.common.RowRecord;
 import org.apache.iotdb.tsfile.read.common.SignalBatchData;
 import org.apache.iotdb.tsfile.read.query.dataset.QueryDataSet;
-import org.apache.iotdb.tsfile.utils.BytesUtils;
-import org.apache.iotdb.tsfile.utils.PublicBAOS;
-import org.apache.iotdb.tsfile.utils.ReadWriteIOUtils;
 import org.apache.iotdb.tsfile.utils.TsPrimitiveType;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.io.IOException;
-import java.nio.ByteBuffer;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.concurrent.BlockingQueue;
@@ -288,22 +284,8 @@ public class RawQueryDataSetWithoutValueFilter extends QueryDataSet
   public TSQueryDataSet fillBuffer(int fetchSize, WatermarkEncoder encoder)
       throws IOException, InterruptedException {
     int seriesNum = seriesReaderList.size();
-    TSQueryDataSet tsQueryDataSet = new TSQueryDataSet();
-
-    PublicBAOS timeBAOS = new PublicBAOS();
-
-    PublicBAOS[] valueBAOSList = new PublicBAOS[bufferNum];
-    PublicBAOS[] bitmapBAOSList = new PublicBAOS[bufferNum];
-
-    for (int bufferIndex = 0; bufferIndex < bufferNum; bufferIndex++) {
-      valueBAOSList[bufferIndex] = new PublicBAOS();
-      bitmapBAOSList[bufferIndex] = new PublicBAOS();
-    }
-
-    // used to record a bitmap for every 8 row records
-    int[] currentBitmapList = new int[bufferNum];
-    int rowCount = 0;
-    while (rowCount < fetchSize) {
+    TSQueryDataSetBuilder builder = TSQueryDataSetBuilder.getInstance(bufferNum);
+    while (builder.getRowCount() < fetchSize) {
 
       if ((rowLimit > 0 && alreadyReturnedRowNum >= rowLimit) || timeHeap.isEmpty()) {
         break;
@@ -316,7 +298,7 @@ public class RawQueryDataSetWithoutValueFilter extends QueryDataSet
       }
 
       if (rowOffset == 0) {
-        timeBAOS.write(BytesUtils.longToBytes(minTime));
+        builder.putTime(minTime);
       }
 
       for (int seriesIndex = 0, bufferIndex = 0; seriesIndex < seriesNum; seriesIndex++) {
@@ -330,11 +312,11 @@ public class RawQueryDataSetWithoutValueFilter extends QueryDataSet
               for (int i = 0;
                   i < ((AlignedPath) paths.get(seriesIndex)).getMeasurementList().size();
                   i++) {
-                currentBitmapList[bufferIndex] = (currentBitmapList[bufferIndex] << 1);
+                builder.putNull(bufferIndex);
                 bufferIndex++;
               }
             } else {
-              currentBitmapList[bufferIndex] = (currentBitmapList[bufferIndex] << 1);
+              builder.putNull(bufferIndex);
               bufferIndex++;
             }
           }
@@ -344,95 +326,86 @@ public class RawQueryDataSetWithoutValueFilter extends QueryDataSet
             TSDataType type = cachedBatchDataArray[seriesIndex].getDataType();
             switch (type) {
               case INT32:
-                currentBitmapList[bufferIndex] = (currentBitmapList[bufferIndex] << 1) | FLAG;
                 int intValue = cachedBatchDataArray[seriesIndex].getInt();
                 if (encoder != null && encoder.needEncode(minTime)) {
                   intValue = encoder.encodeInt(intValue, minTime);
                 }
-                ReadWriteIOUtils.write(intValue, valueBAOSList[bufferIndex]);
+                builder.putInt(bufferIndex, intValue);
                 bufferIndex++;
                 break;
               case INT64:
-                currentBitmapList[bufferIndex] = (currentBitmapList[bufferIndex] << 1) | FLAG;
                 long longValue = cachedBatchDataArray[seriesIndex].getLong();
                 if (encoder != null && encoder.needEncode(minTime)) {
                   longValue = encoder.encodeLong(longValue, minTime);
                 }
-                ReadWriteIOUtils.write(longValue, valueBAOSList[bufferIndex]);
+                builder.putLong(bufferIndex, longValue);
                 bufferIndex++;
                 break;
               case FLOAT:
-                currentBitmapList[bufferIndex] = (currentBitmapList[bufferIndex] << 1) | FLAG;
                 float floatValue = cachedBatchDataArray[seriesIndex].getFloat();
                 if (encoder != null && encoder.needEncode(minTime)) {
                   floatValue = encoder.encodeFloat(floatValue, minTime);
                 }
-                ReadWriteIOUtils.write(floatValue, valueBAOSList[bufferIndex]);
+                builder.putFloat(bufferIndex, floatValue);
                 bufferIndex++;
                 break;
               case DOUBLE:
-                currentBitmapList[bufferIndex] = (currentBitmapList[bufferIndex] << 1) | FLAG;
                 double doubleValue = cachedBatchDataArray[seriesIndex].getDouble();
                 if (encoder != null && encoder.needEncode(minTime)) {
                   doubleValue = encoder.encodeDouble(doubleValue, minTime);
                 }
-                ReadWriteIOUtils.write(doubleValue, valueBAOSList[bufferIndex]);
+                builder.putDouble(bufferIndex, doubleValue);
                 bufferIndex++;
                 break;
               case BOOLEAN:
-                currentBitmapList[bufferIndex] = (currentBitmapList[bufferIndex] << 1) | FLAG;
-                ReadWriteIOUtils.write(
-                    cachedBatchDataArray[seriesIndex].getBoolean(), valueBAOSList[bufferIndex]);
+                builder.putBoolean(bufferIndex, cachedBatchDataArray[seriesIndex].getBoolean());
                 bufferIndex++;
                 break;
               case TEXT:
-                currentBitmapList[bufferIndex] = (currentBitmapList[bufferIndex] << 1) | FLAG;
-                ReadWriteIOUtils.write(
-                    cachedBatchDataArray[seriesIndex].getBinary(), valueBAOSList[bufferIndex]);
+                builder.putBinary(bufferIndex, cachedBatchDataArray[seriesIndex].getBinary());
                 bufferIndex++;
                 break;
               case VECTOR:
                 for (TsPrimitiveType primitiveVal : cachedBatchDataArray[seriesIndex].getVector()) {
                   if (primitiveVal == null) {
-                    currentBitmapList[bufferIndex] = (currentBitmapList[bufferIndex] << 1);
+                    builder.putNull(bufferIndex);
                     bufferIndex++;
                     continue;
                   }
-                  currentBitmapList[bufferIndex] = (currentBitmapList[bufferIndex] << 1) | FLAG;
                   switch (primitiveVal.getDataType()) {
                     case INT32:
                       int intVal = primitiveVal.getInt();
                       if (encoder != null && encoder.needEncode(minTime)) {
                         intVal = encoder.encodeInt(intVal, minTime);
                       }
-                      ReadWriteIOUtils.write(intVal, valueBAOSList[bufferIndex]);
+                      builder.putInt(bufferIndex, intVal);
                       break;
                     case INT64:
                       long longVal = primitiveVal.getLong();
                       if (encoder != null && encoder.needEncode(minTime)) {
                         longVal = encoder.encodeLong(longVal, minTime);
                       }
-                      ReadWriteIOUtils.write(longVal, valueBAOSList[bufferIndex]);
+                      builder.putLong(bufferIndex, longVal);
                       break;
                     case FLOAT:
                       float floatVal = primitiveVal.getFloat();
                       if (encoder != null && encoder.needEncode(minTime)) {
                         floatVal = encoder.encodeFloat(floatVal, minTime);
                       }
-                      ReadWriteIOUtils.write(floatVal, valueBAOSList[bufferIndex]);
+                      builder.putFloat(bufferIndex, floatVal);
                       break;
                     case DOUBLE:
                       double doubleVal = primitiveVal.getDouble();
                       if (encoder != null && encoder.needEncode(minTime)) {
                         doubleVal = encoder.encodeDouble(doubleVal, minTime);
                       }
-                      ReadWriteIOUtils.write(doubleVal, valueBAOSList[bufferIndex]);
+                      builder.putDouble(bufferIndex, doubleVal);
                       break;
                     case BOOLEAN:
-                      ReadWriteIOUtils.write(primitiveVal.getBoolean(), valueBAOSList[bufferIndex]);
+                      builder.putBoolean(bufferIndex, primitiveVal.getBoolean());
                       break;
                     case TEXT:
-                      ReadWriteIOUtils.write(primitiveVal.getBinary(), valueBAOSList[bufferIndex]);
+                      builder.putBinary(bufferIndex, primitiveVal.getBinary());
                       break;
                     default:
                       throw new UnSupportedDataTypeException(
@@ -452,15 +425,7 @@ public class RawQueryDataSetWithoutValueFilter extends QueryDataSet
       }
 
       if (rowOffset == 0) {
-        rowCount++;
-        if (rowCount % 8 == 0) {
-          for (int bufferIndex = 0; bufferIndex < bufferNum; bufferIndex++) {
-            ReadWriteIOUtils.write(
-                (byte) currentBitmapList[bufferIndex], bitmapBAOSList[bufferIndex]);
-            // we should clear the bitmap every 8 row record
-            currentBitmapList[bufferIndex] = 0;
-          }
-        }
+        builder.endRow();
         if (rowLimit > 0) {
           alreadyReturnedRowNum++;
         }
@@ -469,44 +434,7 @@ public class RawQueryDataSetWithoutValueFilter extends QueryDataSet
       }
     }
 
-    /*
-     * feed the bitmap with remaining 0 in the right
-     * if current bitmap is 00011111 and remaining is 3, after feeding the bitmap is 11111000
-     */
-    if (rowCount > 0) {
-      int remaining = rowCount % 8;
-      if (remaining != 0) {
-        for (int bufferIndex = 0; bufferIndex < bufferNum; bufferIndex++) {
-          ReadWriteIOUtils.write(
-              (byte) (currentBitmapList[bufferIndex] << (8 - remaining)),
-              bitmapBAOSList[bufferIndex]);
-        }
-      }
-    }
-
-    // set time buffer
-    ByteBuffer timeBuffer = ByteBuffer.allocate(timeBAOS.size());
-    timeBuffer.put(timeBAOS.getBuf(), 0, timeBAOS.size());
-    timeBuffer.flip();
-    tsQueryDataSet.setTime(timeBuffer);
-
-    List<ByteBuffer> valueBufferList = new ArrayList<>();
-    List<ByteBuffer> bitmapBufferList = new ArrayList<>();
-
-    for (int bufferIndex = 0; bufferIndex < bufferNum; bufferIndex++) {
-
-      // add value buffer of current series
-      putPBOSToBuffer(valueBAOSList, valueBufferList, bufferIndex);
-
-      // add bitmap buffer of current series
-      putPBOSToBuffer(bitmapBAOSList, bitmapBufferList, bufferIndex);
-    }
-
-    // set value buffers and bitmap buffers
-    tsQueryDataSet.setValueList(valueBufferList);
-    tsQueryDataSet.setBitmapList(bitmapBufferList);
-
-    return tsQueryDataSet;
+    return builder.build();
   }
 
   /** if any column in the row record is null, we filter it. */
@@ -596,14 +524,6 @@ public class RawQueryDataSetWithoutValueFilter extends QueryDataSet
     }
   }
 
-  private void putPBOSToBuffer(
-      PublicBAOS[] bitmapBAOSList, List<ByteBuffer> bitmapBufferList, int tsIndex) {
-    ByteBuffer bitmapBuffer = ByteBuffer.allocate(bitmapBAOSList[tsIndex].size());
-    bitmapBuffer.put(bitmapBAOSList[tsIndex].getBuf(), 0, bitmapBAOSList[tsIndex].size());
-    bitmapBuffer.flip();
-    bitmapBufferList.add(bitmapBuffer);
-  }
-
   /** for spark/hadoop/hive integration and test */
   @Override
   public boolean hasNextWithoutConstraint() {
@@ -0,0 +1,267 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.iotdb.db.query.dataset;
+
+import org.apache.iotdb.service.rpc.thrift.TSQueryDataSet;
+import org.apache.iotdb.tsfile.exception.write.UnSupportedDataTypeException;
+import org.apache.iotdb.tsfile.file.metadata.enums.TSDataType;
+import org.apache.iotdb.tsfile.utils.Binary;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Write the rows fetched by a query into the columns of a {@link TSQueryDataSet}. The values of a
+ * column are written into a byte array without an object per value, and the bitmap of a column
+ * records one bit per row, 1 for a value and 0 for a null.
+ *
+ * <p>The arrays are reused by the fetches of a thread, so a fetch only allocates the buffers of its
+ * result. A thread can only build one result at a time.
+ */
+public class TSQueryDataSetBuilder {
+
+  private static final int FLAG = 0x01;
+  // the arrays of a builder larger than this in total are not kept for the next fetch
+  private static final long MAX_RETAINED_BYTES = 4 * 1024 * 1024;
+
+  private static final ThreadLocal<TSQueryDataSetBuilder> BUILDERS =
+      ThreadLocal.withInitial(TSQueryDataSetBuilder::new);
+
+  private final Column timeColumn = new Column();
+  private Column[] valueColumns = new Column[0];
+  private Column[] bitmapColumns = new Column[0];
+  // the bits of the rows not written into the bitmap columns yet
+  private int[] currentBitmaps = new int[0];
+  private int columnNum;
+  private int rowCount;
+
+  private TSQueryDataSetBuilder() {}
+
+  /** get the builder of the current thread, cleared for a result of columnNum columns */
+  public static TSQueryDataSetBuilder getInstance(int columnNum) {
+    TSQueryDataSetBuilder builder = BUILDERS.get();
+    builder.reset(columnNum);
+    return builder;
+  }
+
+  private void reset(int columnNum) {
+    if (valueColumns.length > columnNum) {
+      // the columns of a wider result are not kept
+      valueColumns = Arrays.copyOf(valueColumns, columnNum);
+      bitmapColumns = Arrays.copyOf(bitmapColumns, columnNum);
+      currentBitmaps = new int[columnNum];
+    } else if (valueColumns.length < columnNum) {
+      valueColumns = Arrays.copyOf(valueColumns, columnNum);
+      bitmapColumns = Arrays.copyOf(bitmapColumns, columnNum);
+      for (int i = 0; i < columnNum; i++) {
+        if (valueColumns[i] == null) {
+          valueColumns[i] = new Column();
+          bitmapColumns[i] = new Column();
+        }
+      }
+      currentBitmaps = new int[columnNum];
+    }
+    this.columnNum = columnNum;
+    this.rowCount = 0;
+    boolean shrink = getRetainedBytes() > MAX_RETAINED_BYTES;
+    timeColumn.clear(shrink);
+    for (int i = 0; i < columnNum; i++) {
+      valueColumns[i].clear(shrink);
+      bitmapColumns[i].clear(shrink);
+      currentBitmaps[i] = 0;
+    }
+  }
+
+  /** get the bytes of the arrays kept by the columns */
+  long getRetainedBytes() {
+    long retainedBytes = timeColumn.bytes.length;
+    for (int i = 0; i < valueColumns.length; i++) {
+      retainedBytes += valueColumns[i].bytes.length + bitmapColumns[i].bytes.length;
+    }
+    return retainedBytes;
+  }
+
+  public void putTime(long time) {
+    timeColumn.putLong(time);
+  }
+
+  public void putNull(int column) {
+    currentBitmaps[column] = currentBitmaps[column] << 1;
+  }
+
+  public void putInt(int column, int value) {
+    currentBitmaps[column] = (currentBitmaps[column] << 1) | FLAG;
+    valueColumns[column].putInt(value);
+  }
+
+  public void putLong(int column, long value) {
+    currentBitmaps[column] = (currentBitmaps[column] << 1) | FLAG;
+    valueColumns[column].putLong(value);
+  }
+
+  public void putFloat(int column, float value) {
+    currentBitmaps[column] = (currentBitmaps[column] << 1) | FLAG;
+    valueColumns[column].putInt(Float.floatToIntBits(value));
+  }
+
+  public void putDouble(int column, double value) {
+    currentBitmaps[column] = (currentBitmaps[column] << 1) | FLAG;
+    valueColumns[column].putLong(Double.doubleToLongBits(value));
+  }
+
+  public void putBoolean(int column, boolean value) {
+    currentBitmaps[column] = (currentBitmaps[column] << 1) | FLAG;
+    valueColumns[column].putByte(value ? 1 : 0);
+  }
+
+  public void putBinary(int column, Binary value) {
+    currentBitmaps[column] = (currentBitmaps[column] << 1) | FLAG;
+    valueColumns[column].putInt(value.getLength());
+    valueColumns[column].putBytes(value.getValues());
+  }
+
+  /** put a value of the data type, a null value or data type means a null */
+  public void putValue(int column, Object value, TSDataType dataType) {
+    if (value == null || dataType == null) {
+      putNull(column);
+      return;
+    }
+    switch (dataType) {
+      case INT32:
+        putInt(column, (int) value);
+        break;
+      case INT64:
+        putLong(column, (long) value);
+        break;
+      case FLOAT:
+        putFloat(column, (float) value);
+        break;
+      case DOUBLE:
+        putDouble(column, (double) value);
+        break;
+      case BOOLEAN:
+        putBoolean(column, (boolean) value);
+        break;
+      case TEXT:
+        putBinary(column, (Binary) value);
+        break;
+      default:
+        throw new UnSupportedDataTypeException(
+            String.format("Data type %s is not supported.", dataType));
+    }
+  }
+
+  /** finish a row after its time and the values of all the columns are put */
+  public void endRow() {
+    rowCount++;
+    if (rowCount % 8 == 0) {
+      for (int i = 0; i < columnNum; i++) {
+        bitmapColumns[i].putByte(currentBitmaps[i]);
+        // clear the bitmap every 8 rows
+        currentBitmaps[i] = 0;
+      }
+    }
+  }
+
+  public int getRowCount() {
+    return rowCount;
+  }
+
+  /** copy the columns into the buffers of a TSQueryDataSet */
+  public TSQueryDataSet build() {
+    /*
+     * feed the bitmap with remaining 0 in the right
+     * if current bitmap is 00011111 and remaining is 3, after feeding the bitmap is 11111000
+     */
+    int remaining = rowCount % 8;
+    if (remaining != 0) {
+      for (int i = 0; i < columnNum; i++) {
+        bitmapColumns[i].putByte(currentBitmaps[i] << (8 - remaining));
+      }
+    }
+
+    TSQueryDataSet tsQueryDataSet = new TSQueryDataSet();
+    tsQueryDataSet.setTime(timeColumn.toByteBuffer());
+    List<ByteBuffer> valueBufferList = new ArrayList<>(columnNum);
+    List<ByteBuffer> bitmapBufferList = new ArrayList<>(columnNum);
+    for (int i = 0; i < columnNum; i++) {
+      valueBufferList.add(valueColumns[i].toByteBuffer());
+      bitmapBufferList.add(bitmapColumns[i].toByteBuffer());
+    }
+    tsQueryDataSet.setValueList(valueBufferList);
+    tsQueryDataSet.setBitmapList(bitmapBufferList);
+    return tsQueryDataSet;
+  }
+
+  /** a growing byte array of big-endian values */
+  private static class Column {
+
+    private static final int INITIAL_CAPACITY = 64;
+
+    private byte[] bytes = new byte[INITIAL_CAPACITY];
+    private int size;
+
+    /** @param shrink whether to drop the array and start with a small one */
+    private void clear(boolean shrink) {
+      if (shrink) {
+        bytes = new byte[INITIAL_CAPACITY];
+      }
+      size = 0;
+    }
+
+    private void ensureCapacity(int length) {
+      if (size + length > bytes.length) {
+        bytes = Arrays.copyOf(bytes, Math.max(bytes.length * 2, size + length));
+      }
+    }
+
+    private void putByte(int value) {
+      ensureCapacity(1);
+      bytes[size++] = (byte) value;
+    }
+
+    private void putInt(int value) {
+      ensureCapacity(Integer.BYTES);
+      bytes[size++] = (byte) (value >>> 24);
+      bytes[size++] = (byte) (value >>> 16);
+      bytes[size++] = (byte) (value >>> 8);
+      bytes[size++] = (byte) value;
+    }
+
+    private void putLong(long value) {
+      ensureCapacity(Long.BYTES);
+      for (int shift = 56; shift >= 0; shift -= 8) {
+        bytes[size++] = (byte) (value >>> shift);
+      }
+    }
+
+    private void putBytes(byte[] values) {
+      ensureCapacity(values.length);
+      System.arraycopy(values, 0, bytes, size, values.length);
+      size += values.length;
+    }
+
+    private ByteBuffer toByteBuffer() {
+      return ByteBuffer.wrap(Arrays.copyOf(bytes, size));
+    }
+  }
+}
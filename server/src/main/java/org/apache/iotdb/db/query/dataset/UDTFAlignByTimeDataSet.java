@@ -32,13 +32,8 @@ import org.apache.iotdb.tsfile.exception.write.UnSupportedDataTypeException;
 import org.apache.iotdb.tsfile.file.metadata.enums.TSDataType;
 import org.apache.iotdb.tsfile.read.common.RowRecord;
 import org.apache.iotdb.tsfile.read.query.timegenerator.TimeGenerator;
-import org.apache.iotdb.tsfile.utils.BytesUtils;
-import org.apache.iotdb.tsfile.utils.PublicBAOS;
-import org.apache.iotdb.tsfile.utils.ReadWriteIOUtils;
 
 import java.io.IOException;
-import java.nio.ByteBuffer;
-import java.util.ArrayList;
 import java.util.List;
 
 public class UDTFAlignByTimeDataSet extends UDTFDataSet implements DirectAlignByTimeDataSet {
@@ -98,27 +93,15 @@ public class UDTFAlignByTimeDataSet extends UDTFDataSet implements DirectAlignBy
   @Override
   public TSQueryDataSet fillBuffer(int fetchSize, WatermarkEncoder encoder)
       throws IOException, QueryProcessException {
-    TSQueryDataSet tsQueryDataSet = new TSQueryDataSet();
-
     int columnsNum = transformers.length;
-
-    PublicBAOS timeBAOS = new PublicBAOS();
-    PublicBAOS[] valueBAOSList = new PublicBAOS[columnsNum];
-    PublicBAOS[] bitmapBAOSList = new PublicBAOS[columnsNum];
-    for (int i = 0; i < columnsNum; ++i) {
-      valueBAOSList[i] = new PublicBAOS();
-      bitmapBAOSList[i] = new PublicBAOS();
-    }
-    int[] currentBitmapList = new int[columnsNum];
-
-    int rowCount = 0;
-    while (rowCount < fetchSize
+    TSQueryDataSetBuilder builder = TSQueryDataSetBuilder.getInstance(columnsNum);
+    while (builder.getRowCount() < fetchSize
         && (rowLimit <= 0 || alreadyReturnedRowNum < rowLimit)
         && !timeHeap.isEmpty()) {
 
       long minTime = timeHeap.pollFirst();
       if (rowOffset == 0) {
-        timeBAOS.write(BytesUtils.longToBytes(minTime));
+        builder.putTime(minTime);
       }
 
       for (int i = 0; i < columnsNum; ++i) {
@@ -126,53 +109,52 @@ public class UDTFAlignByTimeDataSet extends UDTFDataSet implements DirectAlignBy
 
         if (!reader.next() || reader.currentTime() != minTime) {
           if (rowOffset == 0) {
-            currentBitmapList[i] = (currentBitmapList[i] << 1);
+            builder.putNull(i);
           }
           continue;
         }
 
         if (rowOffset == 0) {
           if (!reader.isCurrentNull()) {
-            currentBitmapList[i] = (currentBitmapList[i] << 1) | FLAG;
             TSDataType type = reader.getDataType();
             switch (type) {
               case INT32:
                 int intValue = reader.currentInt();
-                ReadWriteIOUtils.write(
+                builder.putInt(
+                    i,
                     encoder != null && encoder.needEncode(minTime)
                         ? encoder.encodeInt(intValue, minTime)
-                        : intValue,
-                    valueBAOSList[i]);
+                        : intValue);
                 break;
               case INT64:
                 long longValue = reader.currentLong();
-                ReadWriteIOUtils.write(
+                builder.putLong(
+                    i,
                     encoder != null && encoder.needEncode(minTime)
                         ? encoder.encodeLong(longValue, minTime)
-                        : longValue,
-                    valueBAOSList[i]);
+                        : longValue);
                 break;
               case FLOAT:
                 float floatValue = reader.currentFloat();
-                ReadWriteIOUtils.write(
+                builder.putFloat(
+                    i,
                     encoder != null && encoder.needEncode(minTime)
                         ? encoder.encodeFloat(floatValue, minTime)
-                        : floatValue,
-                    valueBAOSList[i]);
+                        : floatValue);
                 break;
               case DOUBLE:
                 double doubleValue = reader.currentDouble();
-                ReadWriteIOUtils.write(
+                builder.putDouble(
+                    i,
                     encoder != null && encoder.needEncode(minTime)
                         ? encoder.encodeDouble(doubleValue, minTime)
-                        : doubleValue,
-                    valueBAOSList[i]);
+                        : doubleValue);
                 break;
               case BOOLEAN:
-                ReadWriteIOUtils.write(reader.currentBoolean(), valueBAOSList[i]);
+                builder.putBoolean(i, reader.currentBoolean());
                 break;
               case TEXT:
-                ReadWriteIOUtils.write(reader.currentBinary(), valueBAOSList[i]);
+                builder.putBinary(i, reader.currentBinary());
                 break;
               default:
                 throw new UnSupportedDataTypeException(
@@ -180,7 +162,7 @@ public class UDTFAlignByTimeDataSet extends UDTFDataSet implements DirectAlignBy
             }
           } else {
             // there's no data in the current field, so put a null placeholder 0x00
-            currentBitmapList[i] = (currentBitmapList[i] << 1);
+            builder.putNull(i);
           }
         }
 
@@ -189,13 +171,7 @@ public class UDTFAlignByTimeDataSet extends UDTFDataSet implements DirectAlignBy
       }
 
       if (rowOffset == 0) {
-        ++rowCount;
-        if (rowCount % 8 == 0) {
-          for (int i = 0; i < columnsNum; ++i) {
-            ReadWriteIOUtils.write((byte) currentBitmapList[i], bitmapBAOSList[i]);
-            currentBitmapList[i] = 0;
-          }
-        }
+        builder.endRow();
         if (rowLimit > 0) {
           ++alreadyReturnedRowNum;
         }
@@ -206,53 +182,7 @@ public class UDTFAlignByTimeDataSet extends UDTFDataSet implements DirectAlignBy
       rawQueryInputLayer.updateRowRecordListEvictionUpperBound();
     }
 
-    /*
-     * feed the bitmap with remaining 0 in the right
-     * if current bitmap is 00011111 and remaining is 3, after feeding the bitmap is 11111000
-     */
-    if (rowCount > 0) {
-      int remaining = rowCount % 8;
-      if (remaining != 0) {
-        for (int i = 0; i < columnsNum; ++i) {
-          ReadWriteIOUtils.write(
-              (byte) (currentBitmapList[i] << (8 - remaining)), bitmapBAOSList[i]);
-        }
-      }
-    }
-
-    return packBuffer(tsQueryDataSet, timeBAOS, valueBAOSList, bitmapBAOSList);
-  }
-
-  protected TSQueryDataSet packBuffer(
-      TSQueryDataSet tsQueryDataSet,
-      PublicBAOS timeBAOS,
-      PublicBAOS[] valueBAOSList,
-      PublicBAOS[] bitmapBAOSList) {
-    int columnsNum = transformers.length;
-
-    ByteBuffer timeBuffer = ByteBuffer.allocate(timeBAOS.size());
-    timeBuffer.put(timeBAOS.getBuf(), 0, timeBAOS.size());
-    timeBuffer.flip();
-    tsQueryDataSet.setTime(timeBuffer);
-
-    List<ByteBuffer> valueBufferList = new ArrayList<>();
-    List<ByteBuffer> bitmapBufferList = new ArrayList<>();
-    for (int i = 0; i < columnsNum; ++i) {
-      putPBOSToBuffer(valueBAOSList, valueBufferList, i);
-      putPBOSToBuffer(bitmapBAOSList, bitmapBufferList, i);
-    }
-    tsQueryDataSet.setValueList(valueBufferList);
-    tsQueryDataSet.setBitmapList(bitmapBufferList);
-
-    return tsQueryDataSet;
-  }
-
-  protected void putPBOSToBuffer(
-      PublicBAOS[] bitmapBAOSList, List<ByteBuffer> bitmapBufferList, int tsIndex) {
-    ByteBuffer bitmapBuffer = ByteBuffer.allocate(bitmapBAOSList[tsIndex].size());
-    bitmapBuffer.put(bitmapBAOSList[tsIndex].getBuf(), 0, bitmapBAOSList[tsIndex].size());
-    bitmapBuffer.flip();
-    bitmapBufferList.add(bitmapBuffer);
+    return builder.build();
   }
 
   @Override
@@ -32,51 +32,44 @@ import org.slf4j.LoggerFactory;
 import java.io.IOException;
 import java.util.ArrayList;
 import java.util.Arrays;
-import java.util.List;
 import java.util.Map;
 
 public class GroupByLevelDataSet extends QueryDataSet {
 
   private static final Logger logger = LoggerFactory.getLogger(GroupByLevelDataSet.class);
-  private List<RowRecord> records = new ArrayList<>();
-  private int index = 0;
+  private final GroupByTimePlan plan;
+  private final GroupByEngineDataSet dataSet;
+  // the first record is merged in advance to get the columns
+  private RowRecord cachedRecord;
 
   public GroupByLevelDataSet(GroupByTimePlan plan, GroupByEngineDataSet dataSet)
       throws IOException {
-    this.paths = new ArrayList<>(plan.getDeduplicatedPaths());
-    this.dataTypes = plan.getDeduplicatedDataTypes();
+    this.plan = plan;
+    this.dataSet = dataSet;
 
     if (logger.isDebugEnabled()) {
-      logger.debug("paths " + this.paths + " level:" + Arrays.toString(plan.getLevels()));
-    }
-
-    // get all records from GroupByDataSet, then we merge every record
-    if (logger.isDebugEnabled()) {
-      logger.debug("only group by level, paths:" + plan.getPaths());
+      logger.debug(
+          "paths " + plan.getDeduplicatedPaths() + " level:" + Arrays.toString(plan.getLevels()));
     }
 
+    // records are merged one by one when they are fetched, only the first one is merged here
     this.paths = new ArrayList<>();
     this.dataTypes = new ArrayList<>();
-    Map<String, AggregateResult> groupPathResultMap;
-    while (dataSet != null && dataSet.hasNextWithoutConstraint()) {
+    if (dataSet != null && dataSet.hasNextWithoutConstraint()) {
       RowRecord rawRecord = dataSet.nextWithoutConstraint();
-      RowRecord curRecord = new RowRecord(rawRecord.getTimestamp());
-      groupPathResultMap =
+      cachedRecord = new RowRecord(rawRecord.getTimestamp());
+      // the result map of the plan also provides the columns of the response
+      Map<String, AggregateResult> groupPathResultMap =
           plan.groupAggResultByLevel(Arrays.asList(dataSet.getCurAggregateResults()));
-      for (AggregateResult resultData : groupPathResultMap.values()) {
-        curRecord.addField(resultData.getResult(), resultData.getResultDataType());
-      }
-      records.add(curRecord);
-
-      if (paths.isEmpty()) {
-        for (Map.Entry<String, AggregateResult> entry : groupPathResultMap.entrySet()) {
-          try {
-            this.paths.add(new PartialPath(entry.getKey()));
-          } catch (IllegalPathException e) {
-            logger.error("Query result IllegalPathException occurred: {}.", entry.getKey());
-          }
-          this.dataTypes.add(entry.getValue().getResultDataType());
+      for (Map.Entry<String, AggregateResult> entry : groupPathResultMap.entrySet()) {
+        try {
+          this.paths.add(new PartialPath(entry.getKey()));
+        } catch (IllegalPathException e) {
+          logger.error("Query result IllegalPathException occurred: {}.", entry.getKey());
         }
+        AggregateResult resultData = entry.getValue();
+        this.dataTypes.add(resultData.getResultDataType());
+        cachedRecord.addField(resultData.getResult(), resultData.getResultDataType());
       }
     }
     // group by level's column number is different from other datasets
@@ -86,12 +79,23 @@ public class GroupByLevelDataSet extends QueryDataSet {
   }
 
   @Override
-  public boolean hasNextWithoutConstraint() {
-    return index < records.size();
+  public boolean hasNextWithoutConstraint() throws IOException {
+    return cachedRecord != null || (dataSet != null && dataSet.hasNextWithoutConstraint());
   }
 
   @Override
-  public RowRecord nextWithoutConstraint() {
-    return records.get(index++);
+  public RowRecord nextWithoutConstraint() throws IOException {
+    if (cachedRecord != null) {
+      RowRecord record = cachedRecord;
+      cachedRecord = null;
+      return record;
+    }
+    RowRecord rawRecord = dataSet.nextWithoutConstraint();
+    RowRecord curRecord = new RowRecord(rawRecord.getTimestamp());
+    for (AggregateResult resultData :
+        plan.groupAggResultByLevel(dataSet.getCurAggregateResults())) {
+      curRecord.addField(resultData.getResult(), resultData.getResultDataType());
+    }
+    return curRecord;
   }
 }
@@ -31,8 +31,16 @@ import org.apache.iotdb.db.qp.physical.crud.GroupByTimePlan;
 import org.apache.iotdb.db.query.aggregation.AggregateResult;
 import org.apache.iotdb.db.query.context.QueryContext;
 import org.apache.iotdb.db.query.control.QueryResourceManager;
+import org.apache.iotdb.db.query.dataset.DirectAlignByTimeDataSet;
+import org.apache.iotdb.db.query.dataset.TSQueryDataSetBuilder;
+import org.apache.iotdb.db.query.executor.AggregationExecutor;
 import org.apache.iotdb.db.query.factory.AggregateResultFactory;
 import org.apache.iotdb.db.query.filter.TsFileFilter;
+import org.apache.iotdb.db.query.pool.AggregationTaskPoolManager;
+import org.apache.iotdb.db.query.pool.AggregationTaskPoolManager.SubTask;
+import org.apache.iotdb.db.tools.watermark.WatermarkEncoder;
+import org.apache.iotdb.service.rpc.thrift.TSQueryDataSet;
+import org.apache.iotdb.tsfile.file.metadata.enums.TSDataType;
 import org.apache.iotdb.tsfile.read.common.RowRecord;
 import org.apache.iotdb.tsfile.read.expression.IExpression;
 import org.apache.iotdb.tsfile.read.expression.impl.GlobalTimeExpression;
@@ -49,7 +57,8 @@ import java.util.List;
 import java.util.Map;
 import java.util.Set;
 
-public class GroupByWithoutValueFilterDataSet extends GroupByEngineDataSet {
+public class GroupByWithoutValueFilterDataSet extends GroupByEngineDataSet
+    implements DirectAlignByTimeDataSet {
 
   private static final Logger logger =
       LoggerFactory.getLogger(GroupByWithoutValueFilterDataSet.class);
@@ -79,6 +88,9 @@ public class GroupByWithoutValueFilterDataSet extends GroupByEngineDataSet {
    */
   protected Map<AlignedPath, List<List<Integer>>> alignedPathToAggrIndexesMap = new HashMap<>();
 
+  /** how many executors can calculate a time interval at the same time */
+  private int parallelism = 1;
+
   public GroupByWithoutValueFilterDataSet() {}
 
   /** constructor. */
@@ -99,6 +111,8 @@ public class GroupByWithoutValueFilterDataSet extends GroupByEngineDataSet {
       throw new QueryProcessException("TimeFilter cannot be null in GroupBy query.");
     }
 
+    parallelism = getParallelism(context);
+
     // init resultIndexes, group aligned series
     pathToAggrIndexesMap = MetaUtils.groupAggregationsBySeries(paths);
     alignedPathToAggrIndexesMap =
@@ -196,44 +210,128 @@ public class GroupByWithoutValueFilterDataSet extends GroupByEngineDataSet {
     return record;
   }
 
-  private AggregateResult[] getNextAggregateResult() throws IOException {
-    curAggregateResults = new AggregateResult[paths.size()];
-    try {
-      // get aggregate results of non-aligned series
-      for (Map.Entry<PartialPath, List<Integer>> entry : pathToAggrIndexesMap.entrySet()) {
-        MeasurementPath path = (MeasurementPath) entry.getKey();
-        List<Integer> indexes = entry.getValue();
-        GroupByExecutor groupByExecutor = pathExecutors.get(path);
-        List<AggregateResult> aggregations = groupByExecutor.calcResult(curStartTime, curEndTime);
-        for (int i = 0; i < aggregations.size(); i++) {
-          int resultIndex = indexes.get(i);
-          curAggregateResults[resultIndex] = aggregations.get(i);
-        }
+  /** write the aggregate results of the time intervals into the columns without rows */
+  @Override
+  public TSQueryDataSet fillBuffer(int fetchSize, WatermarkEncoder encoder) throws IOException {
+    int columnNum = paths.size();
+    TSQueryDataSetBuilder builder = TSQueryDataSetBuilder.getInstance(columnNum);
+    Object[] values = new Object[columnNum];
+    while (builder.getRowCount() < fetchSize
+        && (rowLimit <= 0 || alreadyReturnedRowNum < rowLimit)
+        && hasNextWithoutConstraint()) {
+      hasCachedTimeInterval = false;
+      long time = leftCRightO ? curStartTime : curEndTime - 1;
+      AggregateResult[] results = getNextAggregateResult();
+
+      boolean hasNull = false;
+      boolean allNull = true;
+      for (int i = 0; i < columnNum; i++) {
+        values[i] = results[i] == null ? null : results[i].getResult();
+        hasNull |= values[i] == null;
+        allNull &= values[i] == null;
       }
-      // get aggregate results of aligned series
-      for (Map.Entry<AlignedPath, List<List<Integer>>> entry :
-          alignedPathToAggrIndexesMap.entrySet()) {
-        AlignedPath path = entry.getKey();
-        List<List<Integer>> indexesList = entry.getValue();
-        AlignedGroupByExecutor groupByExecutor = alignedPathExecutors.get(path);
-        List<List<AggregateResult>> aggregationsList =
-            groupByExecutor.calcAlignedResult(curStartTime, curEndTime);
-        for (int i = 0; i < path.getMeasurementList().size(); i++) {
-          List<AggregateResult> aggregations = aggregationsList.get(i);
-          List<Integer> indexes = indexesList.get(i);
-          for (int j = 0; j < aggregations.size(); j++) {
-            int resultIndex = indexes.get(j);
-            curAggregateResults[resultIndex] = aggregations.get(j);
-          }
+      // filter rows whose columns are null according to the rule
+      if ((withoutAllNull && allNull) || (withoutAnyNull && hasNull)) {
+        continue;
+      }
+      if (rowOffset > 0) {
+        rowOffset--;
+        continue;
+      }
+
+      builder.putTime(time);
+      boolean needEncode = encoder != null && encoder.needEncode(time);
+      for (int i = 0; i < columnNum; i++) {
+        if (values[i] == null) {
+          builder.putNull(i);
+          continue;
         }
+        TSDataType type = results[i].getResultDataType();
+        switch (type) {
+          case INT32:
+            int intValue = (int) values[i];
+            builder.putInt(i, needEncode ? encoder.encodeInt(intValue, time) : intValue);
+            break;
+          case INT64:
+            long longValue = (long) values[i];
+            builder.putLong(i, needEncode ? encoder.encodeLong(longValue, time) : longValue);
+            break;
+          case FLOAT:
+            float floatValue = (float) values[i];
+            builder.putFloat(i, needEncode ? encoder.encodeFloat(floatValue, time) : floatValue);
+            break;
+          case DOUBLE:
+            double doubleValue = (double) values[i];
+            builder.putDouble(
+                i, needEncode ? encoder.encodeDouble(doubleValue, time) : doubleValue);
+            break;
+          default:
+            builder.putValue(i, values[i], type);
+        }
+      }
+      builder.endRow();
+      if (rowLimit > 0) {
+        alreadyReturnedRowNum++;
       }
-    } catch (QueryProcessException e) {
+    }
+    return builder.build();
+  }
+
+  private AggregateResult[] getNextAggregateResult() throws IOException {
+    AggregateResult[] results = new AggregateResult[paths.size()];
+    curAggregateResults = results;
+    // each executor fills its own slots of the results, so they can run in parallel
+    List<SubTask> tasks =
+        new ArrayList<>(pathToAggrIndexesMap.size() + alignedPathToAggrIndexesMap.size());
+    long startTime = curStartTime;
+    long endTime = curEndTime;
+    // get aggregate results of non-aligned series
+    for (Map.Entry<PartialPath, List<Integer>> entry : pathToAggrIndexesMap.entrySet()) {
+      List<Integer> indexes = entry.getValue();
+      GroupByExecutor groupByExecutor = pathExecutors.get(entry.getKey());
+      tasks.add(
+          () -> {
+            List<AggregateResult> aggregations = groupByExecutor.calcResult(startTime, endTime);
+            for (int i = 0; i < aggregations.size(); i++) {
+              int resultIndex = indexes.get(i);
+              results[resultIndex] = aggregations.get(i);
+            }
+          });
+    }
+    // get aggregate results of aligned series
+    for (Map.Entry<AlignedPath, List<List<Integer>>> entry :
+        alignedPathToAggrIndexesMap.entrySet()) {
+      AlignedPath path = entry.getKey();
+      List<List<Integer>> indexesList = entry.getValue();
+      AlignedGroupByExecutor groupByExecutor = alignedPathExecutors.get(path);
+      tasks.add(
+          () -> {
+            List<List<AggregateResult>> aggregationsList =
+                groupByExecutor.calcAlignedResult(startTime, endTime);
+            for (int i = 0; i < path.getMeasurementList().size(); i++) {
+              List<AggregateResult> aggregations = aggregationsList.get(i);
+              List<Integer> indexes = indexesList.get(i);
+              for (int j = 0; j < aggregations.size(); j++) {
+                int resultIndex = indexes.get(j);
+                results[resultIndex] = aggregations.get(j);
+              }
+            }
+          });
+    }
+    try {
+      AggregationTaskPoolManager.getInstance().runAll(tasks, parallelism);
+    } catch (QueryProcessException | StorageEngineException e) {
       logger.error("GroupByWithoutValueFilterDataSet execute has error", e);
       throw new IOException(e.getMessage(), e);
     }
     return curAggregateResults;
   }
 
+  /** get how many executors can calculate a time interval at the same time */
+  protected int getParallelism(QueryContext context) {
+    return AggregationExecutor.getParallelism(context);
+  }
+
   protected GroupByExecutor getGroupByExecutor(
       PartialPath path,
       Set<String> allSensors,
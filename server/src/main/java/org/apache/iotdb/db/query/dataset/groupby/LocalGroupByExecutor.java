@@ -20,6 +20,7 @@
 package org.apache.iotdb.db.query.dataset.groupby;
 
 import org.apache.iotdb.db.engine.querycontext.QueryDataSource;
+import org.apache.iotdb.db.engine.rollup.SeriesRollup;
 import org.apache.iotdb.db.exception.StorageEngineException;
 import org.apache.iotdb.db.exception.query.QueryProcessException;
 import org.apache.iotdb.db.metadata.path.PartialPath;
@@ -27,7 +28,6 @@ import org.apache.iotdb.db.query.aggregation.AggregateResult;
 import org.apache.iotdb.db.query.context.QueryContext;
 import org.apache.iotdb.db.query.control.QueryResourceManager;
 import org.apache.iotdb.db.query.filter.TsFileFilter;
-import org.apache.iotdb.db.query.reader.series.IAggregateReader;
 import org.apache.iotdb.db.query.reader.series.SeriesAggregateReader;
 import org.apache.iotdb.tsfile.file.metadata.statistics.Statistics;
 import org.apache.iotdb.tsfile.read.common.BatchData;
@@ -37,13 +37,15 @@ import org.apache.iotdb.tsfile.read.filter.basic.Filter;
 import org.apache.iotdb.tsfile.utils.Pair;
 
 import java.io.IOException;
+import java.io.Serializable;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
 import java.util.Set;
 
 public class LocalGroupByExecutor implements GroupByExecutor {
 
-  private final IAggregateReader reader;
+  private final SeriesAggregateReader reader;
   private BatchData preCachedData;
 
   // Aggregate result buffer of this path
@@ -204,7 +206,12 @@ public class LocalGroupByExecutor implements GroupByExecutor {
       return results;
     }
 
-    // read chunk data secondly
+    // read the rollups of the files not overlapped secondly
+    if (readAndCalcFromRollup(curStartTime, curEndTime)) {
+      return results;
+    }
+
+    // read chunk data thirdly
     if (readAndCalcFromChunk(curStartTime, curEndTime)) {
       return results;
     }
@@ -277,6 +284,49 @@ public class LocalGroupByExecutor implements GroupByExecutor {
     }
   }
 
+  /**
+   * calc from the statistics or rollups of the files until a file has to be read by chunks. The
+   * rollup of a sequence file is used only if the file is not overlapped or modified, and the
+   * interval is aligned to a tier of the rollup.
+   *
+   * @return if already get the result
+   */
+  private boolean readAndCalcFromRollup(long curStartTime, long curEndTime)
+      throws IOException, QueryProcessException {
+    if (!ascending) {
+      return false;
+    }
+    while (!reader.hasCachedChunkMetadata() && reader.hasNextFile()) {
+      Statistics fileStatistics = reader.currentFileStatistics();
+      if (fileStatistics.getStartTime() >= curEndTime) {
+        return true;
+      }
+      if (!reader.canUseCurrentFileStatistics()) {
+        return false;
+      }
+      if (timeRange.contains(fileStatistics.getStartTime(), fileStatistics.getEndTime())) {
+        calcFromStatistics(fileStatistics);
+        reader.skipCurrentFile();
+        continue;
+      }
+      SeriesRollup rollup = reader.currentFileRollup();
+      Collection<Statistics<? extends Serializable>> rollupStatistics =
+          rollup == null ? null : rollup.getStatistics(curStartTime, curEndTime);
+      if (rollupStatistics == null) {
+        return false;
+      }
+      for (Statistics<? extends Serializable> statistics : rollupStatistics) {
+        calcFromStatistics(statistics);
+      }
+      // the rest of the file is for the next intervals
+      if (fileStatistics.getEndTime() >= curEndTime) {
+        return true;
+      }
+      reader.skipCurrentFile();
+    }
+    return false;
+  }
+
   private boolean readAndCalcFromChunk(long curStartTime, long curEndTime)
       throws IOException, QueryProcessException {
     while (reader.hasNextChunk()) {
@@ -39,6 +39,8 @@ import org.apache.iotdb.db.query.control.QueryResourceManager;
 import org.apache.iotdb.db.query.dataset.SingleDataSet;
 import org.apache.iotdb.db.query.factory.AggregateResultFactory;
 import org.apache.iotdb.db.query.filter.TsFileFilter;
+import org.apache.iotdb.db.query.pool.AggregationTaskPoolManager;
+import org.apache.iotdb.db.query.pool.AggregationTaskPoolManager.SubTask;
 import org.apache.iotdb.db.query.reader.series.AlignedSeriesAggregateReader;
 import org.apache.iotdb.db.query.reader.series.IAggregateReader;
 import org.apache.iotdb.db.query.reader.series.IReaderByTimestamp;
@@ -108,7 +110,6 @@ public class AggregationExecutor {
       timeFilter = ((GlobalTimeExpression) expression).getFilter();
     }
 
-    // TODO use multi-thread
     Map<PartialPath, List<Integer>> pathToAggrIndexesMap =
         MetaUtils.groupAggregationsBySeries(selectedSeries);
     // Attention: this method will REMOVE aligned path from pathToAggrIndexesMap
@@ -133,23 +134,29 @@ public class AggregationExecutor {
       QueryResourceManager.getInstance()
           .initQueryDataSourceCache(processorToSeriesMap, context, timeFilter);
 
+      // each task fills its own slots of aggregateResultList, so they can run in parallel
+      List<SubTask> tasks = new ArrayList<>(groupedPathList.size());
+      Filter finalTimeFilter = timeFilter;
       for (Map.Entry<PartialPath, List<Integer>> entry : pathToAggrIndexesMap.entrySet()) {
         PartialPath seriesPath = entry.getKey();
-        aggregateOneSeries(
-            seriesPath,
-            entry.getValue(),
-            aggregationPlan.getAllMeasurementsInDevice(seriesPath.getDevice()),
-            timeFilter);
+        Set<String> allMeasurementsInDevice =
+            aggregationPlan.getAllMeasurementsInDevice(seriesPath.getDevice());
+        tasks.add(
+            () ->
+                aggregateOneSeries(
+                    seriesPath, entry.getValue(), allMeasurementsInDevice, finalTimeFilter));
       }
       for (Map.Entry<AlignedPath, List<List<Integer>>> entry :
           alignedPathToAggrIndexesMap.entrySet()) {
         AlignedPath alignedPath = entry.getKey();
-        aggregateOneAlignedSeries(
-            alignedPath,
-            entry.getValue(),
-            aggregationPlan.getAllMeasurementsInDevice(alignedPath.getDevice()),
-            timeFilter);
+        Set<String> allMeasurementsInDevice =
+            aggregationPlan.getAllMeasurementsInDevice(alignedPath.getDevice());
+        tasks.add(
+            () ->
+                aggregateOneAlignedSeries(
+                    alignedPath, entry.getValue(), allMeasurementsInDevice, finalTimeFilter));
       }
+      AggregationTaskPoolManager.getInstance().runAll(tasks, getParallelism());
     } finally {
       StorageEngine.getInstance().mergeUnLock(lockList);
     }
@@ -157,6 +164,21 @@ public class AggregationExecutor {
     return constructDataSet(Arrays.asList(aggregateResultList), aggregationPlan);
   }
 
+  /**
+   * get how many series of the query can be aggregated at the same time. The tracing info of a
+   * query is not thread-safe, so a traced query aggregates series one by one.
+   */
+  public static int getParallelism(QueryContext context) {
+    return context.isEnableTracing()
+        ? 1
+        : IoTDBDescriptor.getInstance().getConfig().getAggregationParallelism();
+  }
+
+  /** get how many series of this query can be aggregated at the same time */
+  protected int getParallelism() {
+    return getParallelism(context);
+  }
+
   /**
    * get aggregation result for one series
    *
@@ -0,0 +1,278 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.iotdb.db.query.externalsort;
+
+import org.apache.iotdb.db.query.control.QueryResourceManager;
+import org.apache.iotdb.db.query.externalsort.serialize.impl.RowRecordDeserializer;
+import org.apache.iotdb.db.query.externalsort.serialize.impl.RowRecordSerializer;
+import org.apache.iotdb.tsfile.file.metadata.enums.TSDataType;
+import org.apache.iotdb.tsfile.read.common.Field;
+import org.apache.iotdb.tsfile.read.common.RowRecord;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.Set;
+
+/**
+ * Sort the rows of a query. The rows are sorted in memory within the sort memory budget of the
+ * query, which is accounted in {@link QueryResourceManager}. Beyond the budget, the rows in memory
+ * are spilled into a sorted run on disk, and the runs are merged when the rows are read.
+ *
+ * <p>When only the first topN rows are needed, they are kept in a bounded heap, and a run keeps at
+ * most topN rows.
+ */
+public class ExternalRowSorter {
+
+  private final long queryId;
+  private final String tmpFilePathPrefix;
+  private final Comparator<RowRecord> comparator;
+  // how many rows are needed, 0 means all the rows
+  private final int topN;
+  private final boolean enableExternalSort;
+  // how many runs can be merged at the same time
+  private final int maxRunNum;
+
+  // a max heap of the first topN rows, null if the rows are kept in the list
+  private PriorityQueue<RowRecord> topRows;
+  // the rows in topRows kept beyond the budget without external sort, which are not accounted
+  private final Set<RowRecord> unaccountedTopRows =
+      Collections.newSetFromMap(new IdentityHashMap<>());
+  private List<RowRecord> rows = new ArrayList<>();
+  private long memoryCost = 0;
+
+  private final List<RowRecordDeserializer> runs = new ArrayList<>();
+  private int runId = 0;
+
+  // the cursors of the runs and the rows in memory, used after all the rows are added
+  private PriorityQueue<RowCursor> cursors;
+  private int returnedRowNum = 0;
+
+  ExternalRowSorter(
+      long queryId,
+      String tmpFilePathPrefix,
+      Comparator<RowRecord> comparator,
+      int topN,
+      boolean enableExternalSort,
+      int maxRunNum) {
+    this.queryId = queryId;
+    this.tmpFilePathPrefix = tmpFilePathPrefix;
+    this.comparator = comparator;
+    this.topN = topN;
+    this.enableExternalSort = enableExternalSort;
+    this.maxRunNum = Math.max(maxRunNum, 2);
+    if (topN > 0) {
+      topRows = new PriorityQueue<>(comparator.reversed());
+    }
+  }
+
+  public void add(RowRecord record) throws IOException {
+    long size = estimateSize(record);
+    if (topRows != null) {
+      if (topRows.size() == topN) {
+        if (comparator.compare(record, topRows.peek()) >= 0) {
+          return;
+        }
+        RowRecord polledRow = topRows.poll();
+        if (!unaccountedTopRows.remove(polledRow)) {
+          releaseMemory(estimateSize(polledRow));
+        }
+      }
+      if (applyMemory(size)) {
+        topRows.add(record);
+        return;
+      }
+      if (!enableExternalSort) {
+        unaccountedTopRows.add(record);
+        topRows.add(record);
+        return;
+      }
+      // the first topN rows don't fit in memory, so sort them in runs like the other rows
+      rows.addAll(topRows);
+      topRows = null;
+    }
+
+    if (!applyMemory(size) && enableExternalSort && !rows.isEmpty()) {
+      spill();
+      applyMemory(size);
+    }
+    rows.add(record);
+  }
+
+  /** sort the rows in memory, then the rows can be read in order */
+  public void finish() {
+    if (topRows != null) {
+      rows.addAll(topRows);
+      topRows = null;
+      unaccountedTopRows.clear();
+    }
+    rows.sort(comparator);
+
+    cursors = newCursors();
+    for (int i = 0; i < runs.size(); i++) {
+      addCursor(cursors, new RowCursor(null, runs.get(i), i));
+    }
+    addCursor(cursors, new RowCursor(rows.iterator(), null, runs.size()));
+  }
+
+  public boolean hasNext() {
+    return !cursors.isEmpty() && (topN <= 0 || returnedRowNum < topN);
+  }
+
+  public RowRecord next() throws IOException {
+    returnedRowNum++;
+    return nextRow(cursors);
+  }
+
+  /** release the memory and delete the runs */
+  public void close() throws IOException {
+    rows = new ArrayList<>();
+    topRows = null;
+    unaccountedTopRows.clear();
+    releaseMemory(memoryCost);
+    for (RowRecordDeserializer run : runs) {
+      run.close();
+    }
+    runs.clear();
+  }
+
+  /** sort the rows in memory into a run, and merge the runs if there are too many */
+  private void spill() throws IOException {
+    rows.sort(comparator);
+    PriorityQueue<RowCursor> sources = newCursors();
+    addCursor(sources, new RowCursor(rows.iterator(), null, 0));
+    RowRecordDeserializer run = writeRun(sources);
+    rows = new ArrayList<>();
+    releaseMemory(memoryCost);
+    runs.add(run);
+
+    if (runs.size() >= maxRunNum) {
+      sources = newCursors();
+      for (int i = 0; i < runs.size(); i++) {
+        addCursor(sources, new RowCursor(null, runs.get(i), i));
+      }
+      RowRecordDeserializer mergedRun = writeRun(sources);
+      for (RowRecordDeserializer mergedSource : runs) {
+        mergedSource.close();
+      }
+      runs.clear();
+      runs.add(mergedRun);
+    }
+  }
+
+  private RowRecordDeserializer writeRun(PriorityQueue<RowCursor> sources) throws IOException {
+    String tmpFilePath = tmpFilePathPrefix + "_" + runId++;
+    RowRecordSerializer serializer = new RowRecordSerializer(tmpFilePath);
+    try {
+      int rowNum = 0;
+      while (!sources.isEmpty() && (topN <= 0 || rowNum < topN)) {
+        serializer.write(nextRow(sources));
+        rowNum++;
+      }
+    } finally {
+      serializer.close();
+    }
+    RowRecordDeserializer run = new RowRecordDeserializer(tmpFilePath);
+    QueryResourceManager.getInstance().registerTempExternalSortFile(queryId, run);
+    return run;
+  }
+
+  private PriorityQueue<RowCursor> newCursors() {
+    // rows with the same value are returned in the order of their sources
+    return new PriorityQueue<>(
+        (a, b) -> {
+          int result = comparator.compare(a.current, b.current);
+          return result != 0 ? result : Integer.compare(a.order, b.order);
+        });
+  }
+
+  private static void addCursor(PriorityQueue<RowCursor> cursors, RowCursor cursor)
+      throws IOException {
+    if (cursor.advance()) {
+      cursors.add(cursor);
+    }
+  }
+
+  private static RowRecord nextRow(PriorityQueue<RowCursor> cursors) throws IOException {
+    RowCursor cursor = cursors.poll();
+    RowRecord record = cursor.current;
+    addCursor(cursors, cursor);
+    return record;
+  }
+
+  private boolean applyMemory(long size) {
+    if (QueryResourceManager.getInstance().tryApplySortMemory(queryId, size)) {
+      memoryCost += size;
+      return true;
+    }
+    return false;
+  }
+
+  private void releaseMemory(long size) {
+    QueryResourceManager.getInstance().releaseSortMemory(queryId, size);
+    memoryCost -= size;
+  }
+
+  /** estimate the memory of a row by its object headers, references and values */
+  static long estimateSize(RowRecord record) {
+    // the row, its field list and the array of the list
+    long size = 64;
+    for (Field field : record.getFields()) {
+      size += 8;
+      if (field != null) {
+        size += 48;
+        if (field.getDataType() == TSDataType.TEXT) {
+          size += 32 + field.getBinaryV().getLength();
+        }
+      }
+    }
+    return size;
+  }
+
+  private static class RowCursor {
+
+    // one of them is not null
+    private final Iterator<RowRecord> rowIterator;
+    private final RowRecordDeserializer run;
+    // the order of the source among the sources
+    private final int order;
+    private RowRecord current;
+
+    private RowCursor(Iterator<RowRecord> rowIterator, RowRecordDeserializer run, int order) {
+      this.rowIterator = rowIterator;
+      this.run = run;
+      this.order = order;
+    }
+
+    private boolean advance() throws IOException {
+      if (rowIterator != null ? rowIterator.hasNext() : run.hasNext()) {
+        current = rowIterator != null ? rowIterator.next() : run.next();
+        return true;
+      }
+      current = null;
+      return false;
+    }
+  }
+}
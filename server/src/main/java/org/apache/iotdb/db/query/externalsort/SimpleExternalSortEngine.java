@@ -23,6 +23,7 @@ import org.apache.iotdb.db.exception.runtime.StorageEngineFailureException;
 import org.apache.iotdb.db.query.externalsort.adapter.ByTimestampReaderAdapter;
 import org.apache.iotdb.db.query.reader.chunk.ChunkReaderWrap;
 import org.apache.iotdb.db.query.reader.series.IReaderByTimestamp;
+import org.apache.iotdb.tsfile.read.common.RowRecord;
 import org.apache.iotdb.tsfile.read.reader.IPointReader;
 
 import org.apache.commons.io.FileUtils;
@@ -32,6 +33,7 @@ import org.slf4j.LoggerFactory;
 import java.io.File;
 import java.io.IOException;
 import java.util.ArrayList;
+import java.util.Comparator;
 import java.util.List;
 
 public class SimpleExternalSortEngine implements ExternalSortJobEngine {
@@ -117,6 +119,22 @@ public class SimpleExternalSortEngine implements ExternalSortJobEngine {
     return new ExternalSortJob(ret);
   }
 
+  /**
+   * create a sorter of the rows of a query, whose runs are spilled into the query dir.
+   *
+   * @param topN how many rows are needed, 0 means all the rows
+   */
+  public ExternalRowSorter createRowSorter(
+      long queryId, Comparator<RowRecord> comparator, int topN) {
+    return new ExternalRowSorter(
+        queryId,
+        queryDir + scheduler.genJobId(),
+        comparator,
+        topN,
+        enableExternalSort,
+        minExternalSortSourceCount);
+  }
+
   String getQueryDir() {
     return queryDir;
   }
@@ -21,9 +21,10 @@ package org.apache.iotdb.db.query.externalsort.serialize;
 import org.apache.iotdb.tsfile.read.TimeValuePair;
 import org.apache.iotdb.tsfile.read.reader.IPointReader;
 
+import java.io.Closeable;
 import java.io.IOException;
 
-public interface IExternalSortFileDeserializer extends IPointReader {
+public interface IExternalSortFileDeserializer extends IPointReader, Closeable {
 
   @Override
   default TimeValuePair currentTimeValuePair() throws IOException {
@@ -0,0 +1,100 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.iotdb.db.query.externalsort.serialize.impl;
+
+import org.apache.iotdb.tsfile.exception.write.UnSupportedDataTypeException;
+import org.apache.iotdb.tsfile.file.metadata.enums.TSDataType;
+import org.apache.iotdb.tsfile.read.common.Field;
+import org.apache.iotdb.tsfile.read.common.RowRecord;
+import org.apache.iotdb.tsfile.utils.ReadWriteIOUtils;
+
+import java.io.BufferedInputStream;
+import java.io.Closeable;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+
+/** Read the rows written by {@link RowRecordSerializer}, the file is deleted when closed. */
+public class RowRecordDeserializer implements Closeable {
+
+  private final InputStream inputStream;
+  private final String tmpFilePath;
+
+  public RowRecordDeserializer(String tmpFilePath) throws IOException {
+    this.tmpFilePath = tmpFilePath;
+    inputStream = new BufferedInputStream(new FileInputStream(tmpFilePath));
+  }
+
+  public boolean hasNext() throws IOException {
+    return inputStream.available() > 0;
+  }
+
+  public RowRecord next() throws IOException {
+    RowRecord record = new RowRecord(ReadWriteIOUtils.readLong(inputStream));
+    int fieldNum = ReadWriteIOUtils.readInt(inputStream);
+    for (int i = 0; i < fieldNum; i++) {
+      byte type = ReadWriteIOUtils.readByte(inputStream);
+      if (type == RowRecordSerializer.NULL_FIELD) {
+        record.addField(null);
+        continue;
+      }
+      TSDataType dataType = TSDataType.deserialize(type);
+      Field field = new Field(dataType);
+      switch (dataType) {
+        case BOOLEAN:
+          field.setBoolV(ReadWriteIOUtils.readBool(inputStream));
+          break;
+        case INT32:
+          field.setIntV(ReadWriteIOUtils.readInt(inputStream));
+          break;
+        case INT64:
+          field.setLongV(ReadWriteIOUtils.readLong(inputStream));
+          break;
+        case FLOAT:
+          field.setFloatV(ReadWriteIOUtils.readFloat(inputStream));
+          break;
+        case DOUBLE:
+          field.setDoubleV(ReadWriteIOUtils.readDouble(inputStream));
+          break;
+        case TEXT:
+          field.setBinaryV(ReadWriteIOUtils.readBinary(inputStream));
+          break;
+        default:
+          throw new UnSupportedDataTypeException(
+              String.format("Data type %s is not supported.", dataType));
+      }
+      record.addField(field);
+    }
+    return record;
+  }
+
+  @Override
+  public void close() throws IOException {
+    inputStream.close();
+    File file = new File(tmpFilePath);
+    if (!file.exists()) {
+      return;
+    }
+    if (!file.delete()) {
+      throw new IOException("Delete external sort tmp file error. FilePath:" + tmpFilePath);
+    }
+  }
+}
@@ -0,0 +1,94 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.iotdb.db.query.externalsort.serialize.impl;
+
+import org.apache.iotdb.tsfile.exception.write.UnSupportedDataTypeException;
+import org.apache.iotdb.tsfile.read.common.Field;
+import org.apache.iotdb.tsfile.read.common.RowRecord;
+import org.apache.iotdb.tsfile.utils.ReadWriteIOUtils;
+
+import java.io.BufferedOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+
+/**
+ * Serialize the sorted rows of a query into a temporary file.
+ *
+ * <p>FileFormat: [Row]*
+ *
+ * <p>[Row] = [Timestamp] + [FieldNum] + [Field]*
+ *
+ * <p>[Field] = [DataType] + [Value], and a null field is a DataType of -1 without Value.
+ */
+public class RowRecordSerializer {
+
+  static final byte NULL_FIELD = -1;
+
+  private final OutputStream outputStream;
+
+  public RowRecordSerializer(String tmpFilePath) throws IOException {
+    File file = new File(tmpFilePath);
+    if (file.getParentFile() != null) {
+      file.getParentFile().mkdirs();
+    }
+    outputStream = new BufferedOutputStream(new FileOutputStream(file));
+  }
+
+  public void write(RowRecord record) throws IOException {
+    ReadWriteIOUtils.write(record.getTimestamp(), outputStream);
+    ReadWriteIOUtils.write(record.getFields().size(), outputStream);
+    for (Field field : record.getFields()) {
+      if (field == null || field.getDataType() == null) {
+        ReadWriteIOUtils.write(NULL_FIELD, outputStream);
+        continue;
+      }
+      ReadWriteIOUtils.write(field.getDataType(), outputStream);
+      switch (field.getDataType()) {
+        case BOOLEAN:
+          ReadWriteIOUtils.write(field.getBoolV(), outputStream);
+          break;
+        case INT32:
+          ReadWriteIOUtils.write(field.getIntV(), outputStream);
+          break;
+        case INT64:
+          ReadWriteIOUtils.write(field.getLongV(), outputStream);
+          break;
+        case FLOAT:
+          ReadWriteIOUtils.write(field.getFloatV(), outputStream);
+          break;
+        case DOUBLE:
+          ReadWriteIOUtils.write(field.getDoubleV(), outputStream);
+          break;
+        case TEXT:
+          ReadWriteIOUtils.write(field.getBinaryV(), outputStream);
+          break;
+        default:
+          throw new UnSupportedDataTypeException(
+              String.format("Data type %s is not supported.", field.getDataType()));
+      }
+    }
+  }
+
+  public void close() throws IOException {
+    outputStream.close();
+  }
+}
@@ -0,0 +1,230 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.iotdb.db.query.pool;
+
+import org.apache.iotdb.db.concurrent.IoTDBThreadPoolFactory;
+import org.apache.iotdb.db.concurrent.ThreadName;
+import org.apache.iotdb.db.conf.IoTDBDescriptor;
+import org.apache.iotdb.db.exception.StorageEngineException;
+import org.apache.iotdb.db.exception.query.QueryProcessException;
+import org.apache.iotdb.db.rescon.AbstractPoolManager;
+import org.apache.iotdb.db.service.metrics.Metric;
+import org.apache.iotdb.db.service.metrics.MetricsService;
+import org.apache.iotdb.db.service.metrics.Tag;
+import org.apache.iotdb.metrics.config.MetricConfigDescriptor;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * This thread pool is used to aggregate the series of one aggregation query in parallel. The query
+ * thread takes part in the aggregation, so a query never waits for a task that is still in the
+ * queue. Thread named by Sub_Aggregation.
+ *
+ * <p>Execute SubTask in {@link #runAll(List, int)}
+ */
+public class AggregationTaskPoolManager extends AbstractPoolManager {
+
+  private static final Logger LOGGER = LoggerFactory.getLogger(AggregationTaskPoolManager.class);
+
+  private static final String METRIC_NAME = "aggregation_sub_task";
+
+  /** A part of an aggregation query, usually the aggregation of one series. */
+  @FunctionalInterface
+  public interface SubTask {
+    void run() throws IOException, QueryProcessException, StorageEngineException;
+  }
+
+  private AggregationTaskPoolManager() {
+    createPool();
+    if (MetricConfigDescriptor.getInstance().getMetricConfig().getEnableMetric()) {
+      MetricsService.getInstance()
+          .getMetricManager()
+          .getOrCreateAutoGauge(
+              Metric.QUEUE.toString(),
+              pool,
+              p -> ((ThreadPoolExecutor) p).getActiveCount(),
+              Tag.NAME.toString(),
+              ThreadName.SUB_AGGREGATION_SERVICE.getName(),
+              Tag.STATUS.toString(),
+              "running");
+      MetricsService.getInstance()
+          .getMetricManager()
+          .getOrCreateAutoGauge(
+              Metric.QUEUE.toString(),
+              pool,
+              p -> ((ThreadPoolExecutor) p).getQueue().size(),
+              Tag.NAME.toString(),
+              ThreadName.SUB_AGGREGATION_SERVICE.getName(),
+              Tag.STATUS.toString(),
+              "waiting");
+    }
+  }
+
+  private void createPool() {
+    int threadCnt =
+        Math.min(
+            Runtime.getRuntime().availableProcessors(),
+            IoTDBDescriptor.getInstance().getConfig().getConcurrentSubAggregationThread());
+    pool =
+        IoTDBThreadPoolFactory.newFixedThreadPool(
+            threadCnt, ThreadName.SUB_AGGREGATION_SERVICE.getName());
+  }
+
+  public static AggregationTaskPoolManager getInstance() {
+    return AggregationTaskPoolManager.InstanceHolder.instance;
+  }
+
+  /**
+   * Run the tasks with at most parallelism threads, including the calling thread, and return when
+   * all of them are done. The tasks are taken one by one, so a slow task does not hold others back.
+   * If a task fails, the tasks not started yet are skipped and the first failure is thrown.
+   *
+   * @param tasks tasks that can run in any order
+   * @param parallelism max number of threads running the tasks
+   */
+  public void runAll(List<SubTask> tasks, int parallelism)
+      throws IOException, QueryProcessException, StorageEngineException {
+    int workerNum = Math.min(parallelism, tasks.size());
+    if (workerNum <= 1 || pool == null) {
+      for (SubTask task : tasks) {
+        task.run();
+      }
+      return;
+    }
+
+    AtomicInteger nextTask = new AtomicInteger();
+    AtomicReference<Throwable> failure = new AtomicReference<>();
+    CountDownLatch finished = new CountDownLatch(tasks.size());
+    try {
+      for (int i = 1; i < workerNum; i++) {
+        submit(
+            () -> {
+              long startTime = System.nanoTime();
+              runTasks(tasks, nextTask, failure, finished);
+              recordWorkerCost(System.nanoTime() - startTime);
+            });
+      }
+    } catch (RejectedExecutionException e) {
+      // the pool is shutting down, the query thread runs the remaining tasks
+      LOGGER.debug("Aggregation sub task is rejected, run it in the query thread", e);
+    }
+    runTasks(tasks, nextTask, failure, finished);
+    try {
+      // the tasks taken by the pool threads may be still running
+      finished.await();
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      failure.compareAndSet(null, new QueryProcessException("Aggregation is interrupted", e));
+    }
+
+    Throwable throwable = failure.get();
+    if (throwable == null) {
+      return;
+    } else if (throwable instanceof IOException) {
+      throw (IOException) throwable;
+    } else if (throwable instanceof QueryProcessException) {
+      throw (QueryProcessException) throwable;
+    } else if (throwable instanceof StorageEngineException) {
+      throw (StorageEngineException) throwable;
+    } else if (throwable instanceof RuntimeException) {
+      throw (RuntimeException) throwable;
+    } else if (throwable instanceof Error) {
+      throw (Error) throwable;
+    }
+    throw new QueryProcessException(throwable.getMessage(), throwable);
+  }
+
+  private static void runTasks(
+      List<SubTask> tasks,
+      AtomicInteger nextTask,
+      AtomicReference<Throwable> failure,
+      CountDownLatch finished) {
+    int index;
+    while ((index = nextTask.getAndIncrement()) < tasks.size()) {
+      try {
+        // skip the remaining tasks once a task fails
+        if (failure.get() == null) {
+          tasks.get(index).run();
+        }
+      } catch (Throwable e) {
+        failure.compareAndSet(null, e);
+      } finally {
+        finished.countDown();
+      }
+    }
+  }
+
+  private static void recordWorkerCost(long costInNs) {
+    if (MetricConfigDescriptor.getInstance().getMetricConfig().getEnableMetric()) {
+      MetricsService.getInstance()
+          .getMetricManager()
+          .timer(
+              costInNs,
+              TimeUnit.NANOSECONDS,
+              Metric.COST_TASK.toString(),
+              Tag.NAME.toString(),
+              METRIC_NAME);
+    }
+  }
+
+  @Override
+  public Logger getLogger() {
+    return LOGGER;
+  }
+
+  @Override
+  public String getName() {
+    return "aggregation sub task";
+  }
+
+  @Override
+  public void start() {
+    if (pool == null) {
+      createPool();
+    }
+  }
+
+  @Override
+  public void stop() {
+    if (pool != null) {
+      close();
+      pool = null;
+    }
+  }
+
+  private static class InstanceHolder {
+
+    private InstanceHolder() {
+      // allowed to do nothing
+    }
+
+    private static AggregationTaskPoolManager instance = new AggregationTaskPoolManager();
+  }
+}
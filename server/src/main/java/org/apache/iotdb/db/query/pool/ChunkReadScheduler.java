@@ -0,0 +1,172 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.iotdb.db.query.pool;
+
+import org.apache.iotdb.db.concurrent.IoTDBThreadPoolFactory;
+import org.apache.iotdb.db.concurrent.ThreadName;
+import org.apache.iotdb.db.conf.IoTDBConfig;
+import org.apache.iotdb.db.conf.IoTDBDescriptor;
+import org.apache.iotdb.db.engine.cache.ChunkCache;
+import org.apache.iotdb.db.query.control.FileReaderManager;
+import org.apache.iotdb.db.rescon.AbstractPoolManager;
+import org.apache.iotdb.tsfile.file.metadata.ChunkMetadata;
+import org.apache.iotdb.tsfile.read.TsFileSequenceReader;
+import org.apache.iotdb.tsfile.read.common.Chunk;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.RejectedExecutionException;
+
+/**
+ * This pool reads chunks from disk into {@link ChunkCache} in the background. The chunks submitted
+ * at a time are grouped by file, and the chunks of a file are read by {@link
+ * TsFileSequenceReader#readMemChunks}, which sorts them by offset and reads the ones close to each
+ * other together. Thread named by Chunk-Read.
+ */
+public class ChunkReadScheduler extends AbstractPoolManager {
+
+  private static final Logger LOGGER = LoggerFactory.getLogger(ChunkReadScheduler.class);
+  private static final IoTDBConfig config = IoTDBDescriptor.getInstance().getConfig();
+  private static final boolean CACHE_ENABLE = config.isMetaDataCacheEnable();
+
+  // chunks being read, a chunk is removed after it is put into ChunkCache
+  private final Map<ChunkMetadata, CompletableFuture<Chunk>> readingChunks =
+      new ConcurrentHashMap<>();
+
+  private ChunkReadScheduler() {
+    pool =
+        IoTDBThreadPoolFactory.newFixedThreadPool(
+            config.getConcurrentChunkReadThread(), ThreadName.CHUNK_READ_SERVICE.getName());
+  }
+
+  public static ChunkReadScheduler getInstance() {
+    return InstanceHolder.instance;
+  }
+
+  /**
+   * read the chunks into ChunkCache in the background. The chunks that are cached or being read are
+   * skipped. Nothing is read if ChunkCache is disabled, as there is no place to keep the chunks.
+   */
+  public void submit(List<ChunkMetadata> chunkMetadataList) {
+    if (!CACHE_ENABLE || pool == null) {
+      return;
+    }
+    Map<String, List<ChunkMetadata>> fileChunkMetadataList = new HashMap<>();
+    for (ChunkMetadata chunkMetadata : chunkMetadataList) {
+      if (ChunkCache.getInstance().contains(chunkMetadata)
+          || readingChunks.putIfAbsent(chunkMetadata, new CompletableFuture<>()) != null) {
+        continue;
+      }
+      fileChunkMetadataList
+          .computeIfAbsent(chunkMetadata.getFilePath(), k -> new ArrayList<>())
+          .add(chunkMetadata);
+    }
+    for (List<ChunkMetadata> chunks : fileChunkMetadataList.values()) {
+      try {
+        submit(() -> read(chunks));
+      } catch (RejectedExecutionException e) {
+        complete(chunks, null);
+      }
+    }
+  }
+
+  private void read(List<ChunkMetadata> chunkMetadataList) {
+    ChunkMetadata first = chunkMetadataList.get(0);
+    List<Chunk> chunks = null;
+    try {
+      TsFileSequenceReader reader =
+          FileReaderManager.getInstance().get(first.getFilePath(), first.isClosed());
+      chunks = reader.readMemChunks(chunkMetadataList, config.getMaxCoalescedReadSizeInByte());
+      for (int i = 0; i < chunks.size(); i++) {
+        ChunkCache.getInstance().put(chunkMetadataList.get(i), chunks.get(i));
+      }
+    } catch (IOException e) {
+      // the chunks will be read again when they are needed
+      LOGGER.debug("Failed to read chunks of {} in the background", first.getFilePath(), e);
+    } finally {
+      complete(chunkMetadataList, chunks);
+    }
+  }
+
+  private void complete(List<ChunkMetadata> chunkMetadataList, List<Chunk> chunks) {
+    for (int i = 0; i < chunkMetadataList.size(); i++) {
+      CompletableFuture<Chunk> future = readingChunks.remove(chunkMetadataList.get(i));
+      if (future != null) {
+        future.complete(chunks == null ? null : chunks.get(i));
+      }
+    }
+  }
+
+  /**
+   * wait until the chunk is read if it is being read in the background, so that it is got from
+   * ChunkCache instead of being read again.
+   */
+  public void await(ChunkMetadata chunkMetadata) throws IOException {
+    CompletableFuture<Chunk> future = readingChunks.get(chunkMetadata);
+    if (future == null) {
+      return;
+    }
+    try {
+      future.get();
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new IOException("Interrupted while waiting for chunk " + chunkMetadata, e);
+    } catch (ExecutionException e) {
+      // the chunk will be read again by ChunkCache
+      LOGGER.debug("Failed to read chunk {} in the background", chunkMetadata, e);
+    }
+  }
+
+  @Override
+  public Logger getLogger() {
+    return LOGGER;
+  }
+
+  @Override
+  public String getName() {
+    return "chunk read";
+  }
+
+  @Override
+  public void start() {
+    if (pool == null) {
+      pool =
+          IoTDBThreadPoolFactory.newFixedThreadPool(
+              config.getConcurrentChunkReadThread(), ThreadName.CHUNK_READ_SERVICE.getName());
+    }
+  }
+
+  private static class InstanceHolder {
+
+    private InstanceHolder() {
+      // allowed to do nothing
+    }
+
+    private static ChunkReadScheduler instance = new ChunkReadScheduler();
+  }
+}
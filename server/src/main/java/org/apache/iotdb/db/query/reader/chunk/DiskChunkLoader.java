@@ -20,6 +20,7 @@
 package org.apache.iotdb.db.query.reader.chunk;
 
 import org.apache.iotdb.db.engine.cache.ChunkCache;
+import org.apache.iotdb.db.query.pool.ChunkReadScheduler;
 import org.apache.iotdb.tsfile.file.metadata.ChunkMetadata;
 import org.apache.iotdb.tsfile.file.metadata.IChunkMetadata;
 import org.apache.iotdb.tsfile.read.common.Chunk;
@@ -41,6 +42,7 @@ public class DiskChunkLoader implements IChunkLoader {
 
   @Override
   public Chunk loadChunk(ChunkMetadata chunkMetaData) throws IOException {
+    ChunkReadScheduler.getInstance().await(chunkMetaData);
     return ChunkCache.getInstance().get(chunkMetaData, debug);
   }
 
@@ -52,7 +54,7 @@ public class DiskChunkLoader implements IChunkLoader {
   @Override
   public IChunkReader getChunkReader(IChunkMetadata chunkMetaData, Filter timeFilter)
       throws IOException {
-    Chunk chunk = ChunkCache.getInstance().get((ChunkMetadata) chunkMetaData, debug);
+    Chunk chunk = loadChunk((ChunkMetadata) chunkMetaData);
     chunk.setFromOldFile(chunkMetaData.isFromOldTsFile());
     return new ChunkReader(chunk, timeFilter);
   }
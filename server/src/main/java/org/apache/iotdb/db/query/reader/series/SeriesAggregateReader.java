@@ -19,6 +19,8 @@
 package org.apache.iotdb.db.query.reader.series;
 
 import org.apache.iotdb.db.engine.querycontext.QueryDataSource;
+import org.apache.iotdb.db.engine.rollup.SeriesRollup;
+import org.apache.iotdb.db.engine.rollup.TsFileRollup;
 import org.apache.iotdb.db.engine.storagegroup.TsFileResource;
 import org.apache.iotdb.db.metadata.path.PartialPath;
 import org.apache.iotdb.db.query.context.QueryContext;
@@ -37,6 +39,10 @@ public class SeriesAggregateReader implements IAggregateReader {
 
   private final SeriesReader seriesReader;
 
+  // the file whose rollup of the series is read last, and the rollup
+  private TsFileResource rollupFileResource;
+  private SeriesRollup rollup;
+
   public SeriesAggregateReader(
       PartialPath seriesPath,
       Set<String> allSensors,
@@ -111,6 +117,29 @@ public class SeriesAggregateReader implements IAggregateReader {
     seriesReader.skipCurrentFile();
   }
 
+  /** @return whether there are chunks of the unpacked files not consumed */
+  public boolean hasCachedChunkMetadata() {
+    return seriesReader.hasCachedChunkMetadata();
+  }
+
+  /**
+   * get the rollup of the series in the current file, which is only kept for a closed sequence file
+   *
+   * @return the rollup, or null if the current file has no rollup of the series
+   */
+  public SeriesRollup currentFileRollup() throws IOException {
+    TsFileResource resource = seriesReader.currentFileResource();
+    if (resource == null || !resource.isClosed() || seriesReader instanceof AlignedSeriesReader) {
+      return null;
+    }
+    if (resource != rollupFileResource) {
+      PartialPath path = seriesReader.getSeriesPath();
+      rollup = TsFileRollup.read(resource.getTsFile(), path.getDevice(), path.getMeasurement());
+      rollupFileResource = resource;
+    }
+    return rollup;
+  }
+
   @Override
   public boolean hasNextChunk() throws IOException {
     return seriesReader.hasNextChunk();
@@ -18,6 +18,7 @@
  */
 package org.apache.iotdb.db.query.reader.series;
 
+import org.apache.iotdb.db.conf.IoTDBDescriptor;
 import org.apache.iotdb.db.engine.querycontext.QueryDataSource;
 import org.apache.iotdb.db.engine.storagegroup.TsFileResource;
 import org.apache.iotdb.db.metadata.idtable.IDTable;
@@ -26,6 +27,8 @@ import org.apache.iotdb.db.query.context.QueryContext;
 import org.apache.iotdb.db.query.control.QueryTimeManager;
 import org.apache.iotdb.db.query.control.tracing.TracingManager;
 import org.apache.iotdb.db.query.filter.TsFileFilter;
+import org.apache.iotdb.db.query.pool.ChunkReadScheduler;
+import org.apache.iotdb.db.query.reader.chunk.DiskChunkLoader;
 import org.apache.iotdb.db.query.reader.universal.DescPriorityMergeReader;
 import org.apache.iotdb.db.query.reader.universal.PriorityMergeReader;
 import org.apache.iotdb.db.query.reader.universal.PriorityMergeReader.MergeReaderPriority;
@@ -34,6 +37,7 @@ import org.apache.iotdb.db.utils.QueryUtils;
 import org.apache.iotdb.db.utils.TestOnly;
 import org.apache.iotdb.tsfile.file.metadata.AlignedChunkMetadata;
 import org.apache.iotdb.tsfile.file.metadata.AlignedTimeSeriesMetadata;
+import org.apache.iotdb.tsfile.file.metadata.ChunkMetadata;
 import org.apache.iotdb.tsfile.file.metadata.IChunkMetadata;
 import org.apache.iotdb.tsfile.file.metadata.ITimeSeriesMetadata;
 import org.apache.iotdb.tsfile.file.metadata.enums.TSDataType;
@@ -49,9 +53,12 @@ import org.apache.iotdb.tsfile.utils.TsPrimitiveType;
 
 import java.io.IOException;
 import java.io.Serializable;
+import java.util.ArrayList;
 import java.util.Comparator;
+import java.util.IdentityHashMap;
 import java.util.LinkedList;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
 import java.util.PriorityQueue;
 import java.util.Set;
@@ -95,6 +102,9 @@ public class SeriesReader {
   protected ITimeSeriesMetadata firstTimeSeriesMetadata;
   protected final List<ITimeSeriesMetadata> seqTimeSeriesMetadata = new LinkedList<>();
   protected final PriorityQueue<ITimeSeriesMetadata> unSeqTimeSeriesMetadata;
+  // the sequence files of the TimeSeriesMetadata not unpacked yet
+  protected final Map<ITimeSeriesMetadata, TsFileResource> seqFileResources =
+      new IdentityHashMap<>();
 
   /*
    * chunk cache
@@ -305,9 +315,23 @@ public class SeriesReader {
   }
 
   void skipCurrentFile() {
+    seqFileResources.remove(firstTimeSeriesMetadata);
     firstTimeSeriesMetadata = null;
   }
 
+  /** @return the file of the first TimeSeriesMetadata, or null if it is an unsequence file */
+  TsFileResource currentFileResource() {
+    return seqFileResources.get(firstTimeSeriesMetadata);
+  }
+
+  boolean hasCachedChunkMetadata() {
+    return firstChunkMetadata != null || !cachedChunkMetadata.isEmpty();
+  }
+
+  PartialPath getSeriesPath() {
+    return seriesPath;
+  }
+
   /**
    * This method should be called after hasNextFile() until no next chunk, make sure that all
    * overlapped chunks are consumed
@@ -368,7 +392,9 @@ public class SeriesReader {
     if (valueFilter != null
         && firstChunkMetadata != null
         && !isChunkOverlapped()
-        && !valueFilter.satisfy(firstChunkMetadata.getStatistics())) {
+        && (!valueFilter.satisfy(firstChunkMetadata.getStatistics())
+            || (firstChunkMetadata.getPageValueIndex() != null
+                && !firstChunkMetadata.getPageValueIndex().satisfy(valueFilter)))) {
       skipCurrentChunk();
     }
   }
@@ -397,6 +423,7 @@ public class SeriesReader {
 
   protected void unpackOneTimeSeriesMetadata(ITimeSeriesMetadata timeSeriesMetadata)
       throws IOException {
+    seqFileResources.remove(timeSeriesMetadata);
     List<IChunkMetadata> chunkMetadataList =
         FileLoaderUtils.loadChunkMetadataList(timeSeriesMetadata);
     chunkMetadataList.forEach(chunkMetadata -> chunkMetadata.setSeq(timeSeriesMetadata.isSeq()));
@@ -588,6 +615,7 @@ public class SeriesReader {
   }
 
   private void unpackOneChunkMetaData(IChunkMetadata chunkMetaData) throws IOException {
+    prefetchChunks(chunkMetaData);
     List<IPageReader> pageReaderList =
         FileLoaderUtils.loadPageReaderList(chunkMetaData, timeFilter);
 
@@ -627,6 +655,32 @@ public class SeriesReader {
         });
   }
 
+  /**
+   * read the chunk from disk together with the next chunks in the order of time, so that the reads
+   * of the chunks close to each other in a file are coalesced, and the next chunks are read while
+   * the current one is consumed.
+   */
+  private void prefetchChunks(IChunkMetadata chunkMetaData) {
+    int prefetchNum = IoTDBDescriptor.getInstance().getConfig().getChunkPrefetchNum();
+    if (prefetchNum <= 0 || !(chunkMetaData.getChunkLoader() instanceof DiskChunkLoader)) {
+      return;
+    }
+    List<IChunkMetadata> nextChunkMetadataList = new ArrayList<>(prefetchNum);
+    while (nextChunkMetadataList.size() < prefetchNum && !cachedChunkMetadata.isEmpty()) {
+      nextChunkMetadataList.add(cachedChunkMetadata.poll());
+    }
+    cachedChunkMetadata.addAll(nextChunkMetadataList);
+
+    List<ChunkMetadata> chunkMetadataList = new ArrayList<>(nextChunkMetadataList.size() + 1);
+    chunkMetadataList.add((ChunkMetadata) chunkMetaData);
+    for (IChunkMetadata nextChunkMetadata : nextChunkMetadataList) {
+      if (nextChunkMetadata.getChunkLoader() instanceof DiskChunkLoader) {
+        chunkMetadataList.add((ChunkMetadata) nextChunkMetadata);
+      }
+    }
+    ChunkReadScheduler.getInstance().submit(chunkMetadataList);
+  }
+
   private void addTotalPageNumInTracing(long queryId, int pageNum) {
     TracingManager.getInstance().addTotalPageNum(queryId, pageNum);
   }
@@ -1048,6 +1102,7 @@ public class SeriesReader {
         && firstTimeSeriesMetadata != null
         && !isFileOverlapped()
         && !valueFilter.satisfy(firstTimeSeriesMetadata.getStatistics())) {
+      seqFileResources.remove(firstTimeSeriesMetadata);
       firstTimeSeriesMetadata = null;
     }
   }
@@ -1065,16 +1120,13 @@ public class SeriesReader {
   }
 
   protected void unpackSeqTsFileResource() throws IOException {
+    TsFileResource resource = orderUtils.getNextSeqFileResource(true);
     ITimeSeriesMetadata timeseriesMetadata =
-        loadTimeSeriesMetadata(
-            orderUtils.getNextSeqFileResource(true),
-            seriesPath,
-            context,
-            getAnyFilter(),
-            allSensors);
+        loadTimeSeriesMetadata(resource, seriesPath, context, getAnyFilter(), allSensors);
     if (timeseriesMetadata != null) {
       timeseriesMetadata.setSeq(true);
       seqTimeSeriesMetadata.add(timeseriesMetadata);
+      seqFileResources.put(timeseriesMetadata, resource);
     }
   }
 
@@ -0,0 +1,350 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.iotdb.db.rescon;
+
+import org.apache.iotdb.db.conf.IoTDBConfig;
+import org.apache.iotdb.db.conf.IoTDBDescriptor;
+import org.apache.iotdb.db.engine.storagegroup.StorageGroupInfo;
+import org.apache.iotdb.db.exception.WriteProcessRejectException;
+import org.apache.iotdb.db.query.control.SessionManager;
+import org.apache.iotdb.db.service.metrics.Metric;
+import org.apache.iotdb.db.service.metrics.MetricsService;
+import org.apache.iotdb.db.service.metrics.Tag;
+import org.apache.iotdb.db.utils.TestOnly;
+import org.apache.iotdb.metrics.config.MetricConfigDescriptor;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Admission control of the insertions when the memtables are over the flush proportion.
+ *
+ * <p>The points admitted per second follow the flush throughput: twice of it at the flush
+ * threshold, down to half of it at the reject threshold, so that the memtables are drained before
+ * {@link SystemInfo} rejects the insertions. The admitted rate is shared by token buckets of the
+ * active storage groups, and a storage group holding more than its share of the memtable memory
+ * gets a smaller share, so that it can not starve the others. The active sessions share the rate
+ * the same way.
+ *
+ * <p>An insertion that exceeds a bucket is delayed until the bucket refills, and only rejected if
+ * the delay is longer than max_waiting_time_when_insert_blocked.
+ */
+public class IngestionAdmissionController {
+
+  private static final Logger logger = LoggerFactory.getLogger(IngestionAdmissionController.class);
+  private static final IoTDBConfig config = IoTDBDescriptor.getInstance().getConfig();
+
+  /** the rates of the buckets are recomputed at most once in a period */
+  private static final long REFRESH_PERIOD_IN_MS = 100;
+  /** a bucket used in this time shares the admitted rate */
+  private static final long ACTIVE_TIME_IN_MS = 1_000;
+  /** a bucket not used in this time is dropped */
+  private static final long IDLE_TIME_IN_MS = 60_000;
+  /** a bucket holds the points admitted in at most this time */
+  private static final double BURST_TIME_IN_SECOND = 1;
+
+  private static final double MAX_RATE_TO_FLUSH_THROUGHPUT = 2;
+  private static final double MIN_RATE_TO_FLUSH_THROUGHPUT = 0.5;
+  /** weight of the latest flush in the flush throughput */
+  private static final double FLUSH_THROUGHPUT_SMOOTHING = 0.3;
+
+  private static final String METRIC_NAME = "ingestion_admission";
+
+  private final Map<StorageGroupInfo, TokenBucket> storageGroupBuckets = new ConcurrentHashMap<>();
+  private final Map<Long, TokenBucket> sessionBuckets = new ConcurrentHashMap<>();
+
+  /** points flushed per second by all flush threads, 0 before the first flush */
+  private volatile double flushThroughput = 0;
+
+  /** points admitted per second, infinite if the memtables are not under pressure */
+  private volatile double admittedRate = Double.POSITIVE_INFINITY;
+
+  private volatile long lastRefreshTime = 0;
+
+  private final AtomicInteger delayedInsertionNum = new AtomicInteger();
+  private final AtomicLong rejectedInsertionNum = new AtomicLong();
+
+  private IngestionAdmissionController() {
+    if (MetricConfigDescriptor.getInstance().getMetricConfig().getEnableMetric()) {
+      MetricsService.getInstance()
+          .getMetricManager()
+          .getOrCreateAutoGauge(
+              Metric.QUEUE.toString(),
+              delayedInsertionNum,
+              AtomicInteger::get,
+              Tag.NAME.toString(),
+              METRIC_NAME,
+              Tag.STATUS.toString(),
+              "waiting");
+    }
+  }
+
+  /**
+   * Admit an insertion of the given number of points into the storage group, in the session of the
+   * current thread if any. The thread sleeps if the storage group or the session is over its rate.
+   *
+   * @throws WriteProcessRejectException if the insertion should wait too long
+   */
+  public void admit(StorageGroupInfo storageGroupInfo, long points)
+      throws WriteProcessRejectException {
+    if (!config.isEnableIngestionAdmissionControl() || points <= 0) {
+      return;
+    }
+    long currentTime = System.currentTimeMillis();
+    if (currentTime - lastRefreshTime >= REFRESH_PERIOD_IN_MS) {
+      refresh(currentTime);
+    }
+    if (admittedRate == Double.POSITIVE_INFINITY) {
+      return;
+    }
+
+    TokenBucket storageGroupBucket =
+        storageGroupBuckets.computeIfAbsent(
+            storageGroupInfo,
+            k -> new TokenBucket(admittedRate / (storageGroupBuckets.size() + 1)));
+    Long sessionId = SessionManager.getInstance().getCurrSessionId();
+    TokenBucket sessionBucket =
+        sessionId == null
+            ? null
+            : sessionBuckets.computeIfAbsent(
+                sessionId, k -> new TokenBucket(admittedRate / (sessionBuckets.size() + 1)));
+
+    long waitTimeInNs = storageGroupBucket.reserve(points, currentTime);
+    if (sessionBucket != null) {
+      waitTimeInNs = Math.max(waitTimeInNs, sessionBucket.reserve(points, currentTime));
+    }
+    if (waitTimeInNs <= 0) {
+      return;
+    }
+    if (waitTimeInNs > TimeUnit.MILLISECONDS.toNanos(config.getMaxWaitingTimeWhenInsertBlocked())) {
+      storageGroupBucket.cancel(points);
+      if (sessionBucket != null) {
+        sessionBucket.cancel(points);
+      }
+      rejectedInsertionNum.incrementAndGet();
+      if (MetricConfigDescriptor.getInstance().getMetricConfig().getEnableMetric()) {
+        MetricsService.getInstance()
+            .getMetricManager()
+            .count(1, Metric.QUANTITY.toString(), Tag.NAME.toString(), METRIC_NAME + "_rejected");
+      }
+      throw new WriteProcessRejectException(
+          "The insertion of "
+              + points
+              + " points should be delayed for "
+              + TimeUnit.NANOSECONDS.toMillis(waitTimeInNs)
+              + "ms, admitted rate is "
+              + (long) admittedRate
+              + " points/s");
+    }
+    delay(waitTimeInNs);
+  }
+
+  private void delay(long waitTimeInNs) {
+    delayedInsertionNum.incrementAndGet();
+    try {
+      TimeUnit.NANOSECONDS.sleep(waitTimeInNs);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    } finally {
+      delayedInsertionNum.decrementAndGet();
+    }
+    if (MetricConfigDescriptor.getInstance().getMetricConfig().getEnableMetric()) {
+      MetricsService.getInstance()
+          .getMetricManager()
+          .timer(
+              waitTimeInNs,
+              TimeUnit.NANOSECONDS,
+              Metric.COST_TASK.toString(),
+              Tag.NAME.toString(),
+              METRIC_NAME);
+    }
+  }
+
+  /** Called after a memtable is flushed, the flush throughput is smoothed over the flushes. */
+  public synchronized void recordFlush(long points, long costInMs) {
+    if (points <= 0) {
+      return;
+    }
+    // the memtables are flushed by concurrent_flush_thread threads
+    double throughput =
+        points * 1000.0 / Math.max(1, costInMs) * config.getConcurrentFlushThread();
+    flushThroughput =
+        flushThroughput == 0
+            ? throughput
+            : FLUSH_THROUGHPUT_SMOOTHING * throughput
+                + (1 - FLUSH_THROUGHPUT_SMOOTHING) * flushThroughput;
+  }
+
+  /** recompute the admitted rate from the memory cost and share it to the active buckets */
+  private synchronized void refresh(long currentTime) {
+    if (currentTime - lastRefreshTime < REFRESH_PERIOD_IN_MS) {
+      return;
+    }
+    lastRefreshTime = currentTime;
+
+    SystemInfo systemInfo = SystemInfo.getInstance();
+    double flushThreshold = systemInfo.getFlushThershold();
+    double rejectThreshold = systemInfo.getRejectThershold();
+    long memCost = systemInfo.getTotalMemTableSize();
+    if (memCost < flushThreshold || flushThroughput == 0) {
+      if (admittedRate != Double.POSITIVE_INFINITY) {
+        logger.info("Memtables are under the flush threshold, stop delaying insertions.");
+      }
+      admittedRate = Double.POSITIVE_INFINITY;
+      return;
+    }
+    double pressure =
+        rejectThreshold > flushThreshold
+            ? Math.min(1, (memCost - flushThreshold) / (rejectThreshold - flushThreshold))
+            : 1;
+    double rate =
+        flushThroughput
+            * (MAX_RATE_TO_FLUSH_THROUGHPUT
+                - (MAX_RATE_TO_FLUSH_THROUGHPUT - MIN_RATE_TO_FLUSH_THROUGHPUT) * pressure);
+    if (admittedRate == Double.POSITIVE_INFINITY) {
+      logger.info(
+          "Memtables are over the flush threshold, admit {} points/s, flush throughput is {}.",
+          (long) rate,
+          (long) flushThroughput);
+    }
+    admittedRate = rate;
+
+    storageGroupBuckets.values().removeIf(bucket -> bucket.isIdle(currentTime, IDLE_TIME_IN_MS));
+    sessionBuckets.values().removeIf(bucket -> bucket.isIdle(currentTime, IDLE_TIME_IN_MS));
+
+    int activeStorageGroupNum = 0;
+    long activeStorageGroupCost = 0;
+    for (Map.Entry<StorageGroupInfo, TokenBucket> entry : storageGroupBuckets.entrySet()) {
+      if (!entry.getValue().isIdle(currentTime, ACTIVE_TIME_IN_MS)) {
+        activeStorageGroupNum++;
+        activeStorageGroupCost += entry.getKey().getMemCost();
+      }
+    }
+    double storageGroupRate = rate / Math.max(1, activeStorageGroupNum);
+    double fairCost = (double) activeStorageGroupCost / Math.max(1, activeStorageGroupNum);
+    for (Map.Entry<StorageGroupInfo, TokenBucket> entry : storageGroupBuckets.entrySet()) {
+      long cost = entry.getKey().getMemCost();
+      // a storage group holding more memory than the others is slowed down more
+      entry
+          .getValue()
+          .setRate(cost > fairCost ? storageGroupRate * fairCost / cost : storageGroupRate);
+    }
+
+    int activeSessionNum = 0;
+    for (TokenBucket bucket : sessionBuckets.values()) {
+      if (!bucket.isIdle(currentTime, ACTIVE_TIME_IN_MS)) {
+        activeSessionNum++;
+      }
+    }
+    double sessionRate = rate / Math.max(1, activeSessionNum);
+    for (TokenBucket bucket : sessionBuckets.values()) {
+      bucket.setRate(sessionRate);
+    }
+  }
+
+  public int getDelayedInsertionNum() {
+    return delayedInsertionNum.get();
+  }
+
+  public long getRejectedInsertionNum() {
+    return rejectedInsertionNum.get();
+  }
+
+  public double getAdmittedRate() {
+    return admittedRate;
+  }
+
+  @TestOnly
+  public synchronized void clear() {
+    storageGroupBuckets.clear();
+    sessionBuckets.clear();
+    flushThroughput = 0;
+    admittedRate = Double.POSITIVE_INFINITY;
+    lastRefreshTime = 0;
+    rejectedInsertionNum.set(0);
+  }
+
+  public static IngestionAdmissionController getInstance() {
+    return InstanceHolder.INSTANCE;
+  }
+
+  private static class InstanceHolder {
+
+    private InstanceHolder() {}
+
+    private static final IngestionAdmissionController INSTANCE =
+        new IngestionAdmissionController();
+  }
+
+  /**
+   * Points that may be admitted, refilled at the rate of the bucket. A reservation may take more
+   * points than the bucket holds, the following reservations then wait until it is refilled.
+   */
+  private static class TokenBucket {
+
+    private double rate;
+    private double points;
+    private long lastRefillTime;
+    private volatile long lastUsedTime;
+
+    private TokenBucket(double rate) {
+      this.rate = rate;
+      this.points = rate * BURST_TIME_IN_SECOND;
+      this.lastRefillTime = System.currentTimeMillis();
+      this.lastUsedTime = lastRefillTime;
+    }
+
+    /** @return how long the reservation should wait in nanoseconds */
+    private synchronized long reserve(long reservedPoints, long currentTime) {
+      refill(currentTime);
+      lastUsedTime = currentTime;
+      points -= reservedPoints;
+      return points >= 0 ? 0 : (long) (-points / rate * TimeUnit.SECONDS.toNanos(1));
+    }
+
+    private synchronized void cancel(long reservedPoints) {
+      points += reservedPoints;
+    }
+
+    private synchronized void setRate(double rate) {
+      refill(System.currentTimeMillis());
+      this.rate = rate;
+    }
+
+    private void refill(long currentTime) {
+      if (currentTime > lastRefillTime) {
+        points =
+            Math.min(
+                rate * BURST_TIME_IN_SECOND,
+                points + (currentTime - lastRefillTime) / 1000.0 * rate);
+        lastRefillTime = currentTime;
+      }
+    }
+
+    private boolean isIdle(long currentTime, long idleTime) {
+      return currentTime - lastUsedTime > idleTime;
+    }
+  }
+}
@@ -0,0 +1,128 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.iotdb.db.rescon;
+
+import org.apache.iotdb.db.conf.IoTDBConfig;
+import org.apache.iotdb.db.conf.IoTDBDescriptor;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Direct memory of the TVLists of one memtable. Buffers are cut from slabs by bumping a pointer and
+ * are never freed one by one: all slabs are released together once the memtable is flushed, see
+ * {@link #release()}.
+ *
+ * <p>Released slabs are pooled for the following memtables. If a query has referenced a TVList of
+ * the arena, the query may still read the slabs after the flush, so they are left to the garbage
+ * collector instead.
+ */
+public class OffHeapArena {
+
+  private static final IoTDBConfig CONFIG = IoTDBDescriptor.getInstance().getConfig();
+
+  private static final int SLAB_SIZE = CONFIG.getOffHeapMemTableSlabSize();
+
+  /** the memtables can not hold more than the memory for write, neither can the pool */
+  private static final long MAX_POOLED_SLAB_NUM = CONFIG.getAllocateMemoryForWrite() / SLAB_SIZE;
+
+  private static final Queue<ByteBuffer> POOLED_SLABS = new ConcurrentLinkedQueue<>();
+
+  private static final AtomicInteger POOLED_SLAB_NUM = new AtomicInteger();
+
+  private final List<ByteBuffer> slabs = new ArrayList<>();
+
+  /** the slab to cut buffers from, its position is the start of the next buffer */
+  private ByteBuffer currentSlab;
+
+  /** total size of the slabs of this arena */
+  private long allocatedSize;
+
+  private volatile boolean referenced;
+
+  /**
+   * Cut a buffer of the given size from the current slab, a new slab is taken if it is not large
+   * enough. Different devices of a memtable may be written concurrently, hence synchronized.
+   *
+   * @return a direct buffer in native byte order
+   */
+  public synchronized ByteBuffer allocate(int size) {
+    // keep the buffers 8-byte aligned
+    int alignedSize = (size + 7) & ~7;
+    if (currentSlab == null || currentSlab.remaining() < alignedSize) {
+      currentSlab = newSlab(Math.max(alignedSize, SLAB_SIZE));
+    }
+    ByteBuffer buffer = currentSlab.duplicate();
+    buffer.limit(currentSlab.position() + alignedSize);
+    currentSlab.position(currentSlab.position() + alignedSize);
+    return buffer.slice().order(ByteOrder.nativeOrder());
+  }
+
+  private ByteBuffer newSlab(int size) {
+    ByteBuffer slab = size == SLAB_SIZE ? POOLED_SLABS.poll() : null;
+    if (slab != null) {
+      POOLED_SLAB_NUM.decrementAndGet();
+      slab.clear();
+    } else {
+      slab = ByteBuffer.allocateDirect(size);
+    }
+    slabs.add(slab);
+    allocatedSize += size;
+    SystemInfo.getInstance().applyOffHeapMemTableMemory(size);
+    return slab;
+  }
+
+  /** called when a query references a TVList of this arena */
+  public void markReferenced() {
+    referenced = true;
+  }
+
+  /** release all slabs of this arena, the buffers allocated from it must not be used any more */
+  public synchronized void release() {
+    for (ByteBuffer slab : slabs) {
+      if (referenced || slab.capacity() != SLAB_SIZE) {
+        continue;
+      }
+      if (POOLED_SLAB_NUM.incrementAndGet() <= MAX_POOLED_SLAB_NUM) {
+        POOLED_SLABS.add(slab);
+      } else {
+        POOLED_SLAB_NUM.decrementAndGet();
+      }
+    }
+    SystemInfo.getInstance().releaseOffHeapMemTableMemory(allocatedSize);
+    slabs.clear();
+    currentSlab = null;
+    allocatedSize = 0;
+  }
+
+  public synchronized long getAllocatedSize() {
+    return allocatedSize;
+  }
+
+  /** drop the pooled slabs */
+  public static void close() {
+    POOLED_SLABS.clear();
+    POOLED_SLAB_NUM.set(0);
+  }
+}
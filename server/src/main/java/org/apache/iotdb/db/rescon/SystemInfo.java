@@ -26,6 +26,10 @@ import org.apache.iotdb.db.engine.flush.FlushManager;
 import org.apache.iotdb.db.engine.storagegroup.StorageGroupInfo;
 import org.apache.iotdb.db.engine.storagegroup.TsFileProcessor;
 import org.apache.iotdb.db.exception.WriteProcessRejectException;
+import org.apache.iotdb.db.service.metrics.Metric;
+import org.apache.iotdb.db.service.metrics.MetricsService;
+import org.apache.iotdb.db.service.metrics.Tag;
+import org.apache.iotdb.metrics.config.MetricConfigDescriptor;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -34,6 +38,7 @@ import java.util.HashMap;
 import java.util.Map;
 import java.util.PriorityQueue;
 import java.util.concurrent.ExecutorService;
+import java.util.concurrent.atomic.AtomicLong;
 
 public class SystemInfo {
 
@@ -48,6 +53,9 @@ public class SystemInfo {
 
   private long flushingMemTablesCost = 0L;
 
+  /** direct memory held by the arenas of off-heap memtables, see {@link OffHeapArena} */
+  private final AtomicLong offHeapMemTableCost = new AtomicLong();
+
   private ExecutorService flushTaskSubmitThreadPool =
       IoTDBThreadPoolFactory.newSingleThreadExecutor("FlushTask-Submit-Pool");
   private static double FLUSH_THERSHOLD = memorySizeForWrite * config.getFlushProportion();
@@ -55,6 +63,20 @@ public class SystemInfo {
 
   private volatile boolean isEncodingFasterThanIo = true;
 
+  private SystemInfo() {
+    if (config.isEnableOffHeapMemTable()
+        && MetricConfigDescriptor.getInstance().getMetricConfig().getEnableMetric()) {
+      MetricsService.getInstance()
+          .getMetricManager()
+          .getOrCreateAutoGauge(
+              Metric.MEM.toString(),
+              this,
+              SystemInfo::getOffHeapMemTableCost,
+              Tag.NAME.toString(),
+              "offHeapMemTable");
+    }
+  }
+
   /**
    * Report current mem cost of storage group to system. Called when the memory of storage group
    * newly accumulates to IoTDBConfig.getStorageGroupSizeReportThreshold()
@@ -170,6 +192,19 @@ public class SystemInfo {
     this.flushingMemTablesCost -= flushingMemTableCost;
   }
 
+  public void applyOffHeapMemTableMemory(long size) {
+    offHeapMemTableCost.addAndGet(size);
+  }
+
+  public void releaseOffHeapMemTableMemory(long size) {
+    offHeapMemTableCost.addAndGet(-size);
+  }
+
+  /** @return direct memory held by the arenas of off-heap memtables, reported as a metric */
+  public long getOffHeapMemTableCost() {
+    return offHeapMemTableCost.get();
+  }
+
   private void logCurrentTotalSGMemory() {
     logger.debug("Current Sg cost is {}", totalStorageGroupMemCost);
   }
@@ -27,8 +27,10 @@ public enum Metric {
   FILE_COUNT,
   MEM,
   CACHE_HIT,
+  BLOOM_FILTER_FALSE_POSITIVE,
   ERROR_LOG,
   QUANTITY,
+  AUTO_ENCODING,
   CLUSTER_NODE_STATUS,
   CLUSTER_NODE_LEADER_COUNT,
   CLUSTER_ELECT,
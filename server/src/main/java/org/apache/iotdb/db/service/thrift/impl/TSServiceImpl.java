@@ -1441,8 +1441,7 @@ public class TSServiceImpl extends BasicServiceProvider implements TSIService.If
           new InsertTabletPlan(new PartialPath(req.getPrefixPath()), req.measurements);
       insertTabletPlan.setTimes(QueryDataSetUtils.readTimesFromBuffer(req.timestamps, req.size));
       insertTabletPlan.setColumns(
-          QueryDataSetUtils.readValuesFromBuffer(
-              req.values, req.types, req.types.size(), req.size));
+          readTabletColumns(req.values, req.types, req.types.size(), req.size, req.isAligned));
       insertTabletPlan.setBitMaps(
           QueryDataSetUtils.readBitMapsFromBuffer(req.values, req.types.size(), req.size));
       insertTabletPlan.setRowCount(req.size);
@@ -1490,11 +1489,12 @@ public class TSServiceImpl extends BasicServiceProvider implements TSIService.If
     insertTabletPlan.setTimes(
         QueryDataSetUtils.readTimesFromBuffer(req.timestampsList.get(i), req.sizeList.get(i)));
     insertTabletPlan.setColumns(
-        QueryDataSetUtils.readValuesFromBuffer(
+        readTabletColumns(
             req.valuesList.get(i),
             req.typesList.get(i),
             req.measurementsList.get(i).size(),
-            req.sizeList.get(i)));
+            req.sizeList.get(i),
+            req.isAligned));
     insertTabletPlan.setBitMaps(
         QueryDataSetUtils.readBitMapsFromBuffer(
             req.valuesList.get(i), req.measurementsList.get(i).size(), req.sizeList.get(i)));
@@ -1504,6 +1504,26 @@ public class TSServiceImpl extends BasicServiceProvider implements TSIService.If
     return insertTabletPlan;
   }
 
+  /**
+   * Read the value columns of a tablet. The numeric columns of a non-aligned tablet are views over
+   * the request buffer, which are written into the memtable without copying them into arrays.
+   */
+  private Object[] readTabletColumns(
+      ByteBuffer values, List<Integer> types, int columns, int size, boolean aligned) {
+    if (!aligned && keepTabletColumnViews()) {
+      return QueryDataSetUtils.readColumnViewsFromBuffer(values, types, columns, size);
+    }
+    return QueryDataSetUtils.readValuesFromBuffer(values, types, columns, size);
+  }
+
+  /**
+   * Whether the columns of an InsertTabletPlan may be views over the request buffer. The views are
+   * only valid during the rpc, so it must be false if a plan is kept after the rpc returns.
+   */
+  protected boolean keepTabletColumnViews() {
+    return true;
+  }
+
   /** construct one InsertMultiTabletPlan and process it */
   public TSStatus insertTabletsInternally(TSInsertTabletsReq req) throws IllegalPathException {
     List<InsertTabletPlan> insertTabletPlanList = new ArrayList<>();
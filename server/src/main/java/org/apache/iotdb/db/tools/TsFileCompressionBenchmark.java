@@ -0,0 +1,174 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.iotdb.db.tools;
+
+import org.apache.iotdb.tsfile.common.conf.TSFileDescriptor;
+import org.apache.iotdb.tsfile.compress.ICompressor;
+import org.apache.iotdb.tsfile.compress.IUnCompressor;
+import org.apache.iotdb.tsfile.file.MetaMarker;
+import org.apache.iotdb.tsfile.file.header.ChunkHeader;
+import org.apache.iotdb.tsfile.file.header.PageHeader;
+import org.apache.iotdb.tsfile.file.metadata.ChunkMetadata;
+import org.apache.iotdb.tsfile.file.metadata.enums.CompressionType;
+import org.apache.iotdb.tsfile.read.TsFileSequenceReader;
+import org.apache.iotdb.tsfile.read.common.Chunk;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Compare the compression ratio and throughput of all compressors on the pages of real TsFiles.
+ * Every page is uncompressed with the compressor it was written with, then compressed and
+ * uncompressed again by each candidate.
+ *
+ * <p>Usage: benchmark-tsfile-compression.sh tsfile1 [tsfile2 ...]
+ */
+public class TsFileCompressionBenchmark {
+
+  private static final int[] ZSTD_LEVELS = {1, 3, 9, 19};
+
+  private final List<Candidate> candidates = new ArrayList<>();
+  private long pageCount;
+  private long uncompressedBytes;
+
+  public static void main(String[] args) throws IOException {
+    if (args.length == 0) {
+      System.out.println("Usage: benchmark-tsfile-compression.sh tsfile1 [tsfile2 ...]");
+      return;
+    }
+    TsFileCompressionBenchmark benchmark = new TsFileCompressionBenchmark();
+    for (String file : args) {
+      System.out.println("TsFile path:" + file);
+      benchmark.run(file);
+    }
+    benchmark.print();
+  }
+
+  public TsFileCompressionBenchmark() {
+    candidates.add(new Candidate("SNAPPY", new ICompressor.SnappyCompressor()));
+    candidates.add(new Candidate("LZ4", new ICompressor.IOTDBLZ4Compressor()));
+    candidates.add(
+        new Candidate(
+            "LZ4HC(" + TSFileDescriptor.getInstance().getConfig().getLz4HcCompressionLevel() + ")",
+            new ICompressor.IOTDBLZ4HCCompressor()));
+    candidates.add(new Candidate("GZIP", new ICompressor.GZIPCompressor()));
+    for (int level : ZSTD_LEVELS) {
+      candidates.add(new Candidate("ZSTD(" + level + ")", new ICompressor.ZstdCompressor(level)));
+    }
+  }
+
+  /** feed all pages of the given TsFile to every candidate */
+  public void run(String file) throws IOException {
+    try (TsFileSequenceReader reader = new TsFileSequenceReader(file)) {
+      for (String device : reader.getAllDevices()) {
+        for (List<ChunkMetadata> chunkMetadataList :
+            reader.readChunkMetadataInDevice(device).values()) {
+          for (ChunkMetadata chunkMetadata : chunkMetadataList) {
+            benchmarkChunk(reader.readMemChunk(chunkMetadata));
+          }
+        }
+      }
+    }
+  }
+
+  private void benchmarkChunk(Chunk chunk) throws IOException {
+    ChunkHeader chunkHeader = chunk.getHeader();
+    IUnCompressor unCompressor = IUnCompressor.getUnCompressor(chunkHeader.getCompressionType());
+    ByteBuffer chunkDataBuffer = chunk.getData();
+    while (chunkDataBuffer.hasRemaining()) {
+      PageHeader pageHeader;
+      if (((byte) (chunkHeader.getChunkType() & 0x3F)) == MetaMarker.ONLY_ONE_PAGE_CHUNK_HEADER) {
+        pageHeader = PageHeader.deserializeFrom(chunkDataBuffer, chunk.getChunkStatistic());
+      } else {
+        pageHeader = PageHeader.deserializeFrom(chunkDataBuffer, chunkHeader.getDataType());
+      }
+      byte[] compressed = new byte[pageHeader.getCompressedSize()];
+      chunkDataBuffer.get(compressed);
+      if (pageHeader.getUncompressedSize() == 0) {
+        // empty page of an aligned value chunk
+        continue;
+      }
+      byte[] page;
+      if (chunkHeader.getCompressionType() == CompressionType.UNCOMPRESSED) {
+        page = compressed;
+      } else {
+        page = new byte[pageHeader.getUncompressedSize()];
+        unCompressor.uncompress(compressed, 0, compressed.length, page, 0);
+      }
+      pageCount++;
+      uncompressedBytes += page.length;
+      for (Candidate candidate : candidates) {
+        candidate.benchmark(page);
+      }
+    }
+  }
+
+  private void print() {
+    System.out.println(
+        String.format("pages: %d, uncompressed bytes: %d", pageCount, uncompressedBytes));
+    System.out.println(
+        String.format(
+            "%-12s%16s%10s%20s%22s",
+            "compressor", "compressed bytes", "ratio", "compress (MB/s)", "uncompress (MB/s)"));
+    for (Candidate candidate : candidates) {
+      System.out.println(
+          String.format(
+              "%-12s%16d%10.3f%20.2f%22.2f",
+              candidate.name,
+              candidate.compressedBytes,
+              candidate.compressedBytes == 0
+                  ? 0
+                  : (double) uncompressedBytes / candidate.compressedBytes,
+              throughput(uncompressedBytes, candidate.compressNanos),
+              throughput(uncompressedBytes, candidate.uncompressNanos)));
+    }
+  }
+
+  private static double throughput(long bytes, long nanos) {
+    return nanos == 0 ? 0 : bytes * 1000.0 / nanos;
+  }
+
+  private static class Candidate {
+    private final String name;
+    private final ICompressor compressor;
+    private final IUnCompressor unCompressor;
+    private long compressedBytes;
+    private long compressNanos;
+    private long uncompressNanos;
+
+    private Candidate(String name, ICompressor compressor) {
+      this.name = name;
+      this.compressor = compressor;
+      this.unCompressor = IUnCompressor.getUnCompressor(compressor.getType());
+    }
+
+    private void benchmark(byte[] page) throws IOException {
+      long start = System.nanoTime();
+      byte[] compressed = compressor.compress(page);
+      long compressEnd = System.nanoTime();
+      byte[] uncompressed = new byte[page.length];
+      unCompressor.uncompress(compressed, 0, compressed.length, uncompressed, 0);
+      uncompressNanos += System.nanoTime() - compressEnd;
+      compressNanos += compressEnd - start;
+      compressedBytes += compressed.length;
+    }
+  }
+}
@@ -378,7 +378,9 @@ public class TsFileRewriteTool implements AutoCloseable {
     getOrDefaultTsFileIOWriter(oldTsFile, partitionId);
     ChunkWriterImpl chunkWriter =
         partitionChunkWriterMap.computeIfAbsent(partitionId, v -> new ChunkWriterImpl(schema));
-    chunkWriter.writePageHeaderAndDataIntoBuff(pageData, pageHeader);
+    // the schema is built from the source chunk header, so it has the encoding the page is in, not
+    // TSEncoding.AUTO
+    chunkWriter.writePageHeaderAndDataIntoBuff(pageData, pageHeader, schema.getEncodingType());
   }
 
   protected void decodeAndWritePage(
@@ -120,6 +120,9 @@ public class TsFileSketchTool {
     // print IndexOfTimerseriesIndex
     printIndexOfTimerseriesIndex(metadataIndexNodeMap);
 
+    // print bloom filter blocks
+    printBloomFilterBlocks(tsFileMetaData.getBloomFilterBlockIndex());
+
     // print TsFile Metadata
     printTsFileMetadata(tsFileMetaData);
 
@@ -137,6 +140,21 @@ public class TsFileSketchTool {
     pw.close();
   }
 
+  private void printBloomFilterBlocks(BloomFilterBlockIndex bloomFilterBlockIndex) {
+    if (bloomFilterBlockIndex == null) {
+      return;
+    }
+    for (int i = 0; i < bloomFilterBlockIndex.getBlockNum(); i++) {
+      printlnBoth(
+          pw,
+          String.format("%20s", bloomFilterBlockIndex.getBlockOffset(i))
+              + "|\t[BloomFilterBlock] "
+              + i
+              + ", size="
+              + bloomFilterBlockIndex.getBlockSize(i));
+    }
+  }
+
   private void printTsFileMetadata(TsFileMetadata tsFileMetaData) {
     try {
       printlnBoth(pw, String.format("%20s", reader.getFileMetadataPos()) + "|\t[TsFileMetadata]");
@@ -171,6 +189,13 @@ public class TsFileSketchTool {
           String.format("%20s", "")
               + "|\t\t[bloom filter number of hash functions] "
               + bloomFilter.getHashFunctionSize());
+      if (tsFileMetaData.getBloomFilterBlockIndex() != null) {
+        printlnBoth(
+            pw,
+            String.format("%20s", "")
+                + "|\t\t[bloom filter block num] "
+                + tsFileMetaData.getBloomFilterBlockIndex().getBlockNum());
+      }
 
       printlnBoth(
           pw,
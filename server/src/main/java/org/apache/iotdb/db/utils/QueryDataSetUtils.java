@@ -18,6 +18,7 @@
  */
 package org.apache.iotdb.db.utils;
 
+import org.apache.iotdb.db.query.dataset.TSQueryDataSetBuilder;
 import org.apache.iotdb.db.tools.watermark.WatermarkEncoder;
 import org.apache.iotdb.service.rpc.thrift.TSQueryDataSet;
 import org.apache.iotdb.tsfile.exception.write.UnSupportedDataTypeException;
@@ -29,153 +30,73 @@ import org.apache.iotdb.tsfile.utils.Binary;
 import org.apache.iotdb.tsfile.utils.BitMap;
 import org.apache.iotdb.tsfile.utils.BytesUtils;
 
-import java.io.ByteArrayOutputStream;
-import java.io.DataOutputStream;
 import java.io.IOException;
 import java.nio.ByteBuffer;
-import java.util.LinkedList;
 import java.util.List;
 
 /** TimeValuePairUtils to convert between thrift format and TsFile format. */
 public class QueryDataSetUtils {
 
-  private static final int flag = 0x01;
-
   private QueryDataSetUtils() {}
 
-  @SuppressWarnings("squid:S3776") // Suppress high Cognitive Complexity warning
   public static TSQueryDataSet convertQueryDataSetByFetchSize(
       QueryDataSet queryDataSet, int fetchSize, WatermarkEncoder watermarkEncoder)
       throws IOException {
-    int columnNum = queryDataSet.getColumnNum();
-    TSQueryDataSet tsQueryDataSet = new TSQueryDataSet();
-    // one time column and each value column has a actual value buffer and a bitmap value to
-    // indicate whether it is a null
-    int columnNumWithTime = columnNum * 2 + 1;
-    DataOutputStream[] dataOutputStreams = new DataOutputStream[columnNumWithTime];
-    ByteArrayOutputStream[] byteArrayOutputStreams = new ByteArrayOutputStream[columnNumWithTime];
-    for (int i = 0; i < columnNumWithTime; i++) {
-      byteArrayOutputStreams[i] = new ByteArrayOutputStream();
-      dataOutputStreams[i] = new DataOutputStream(byteArrayOutputStreams[i]);
-    }
-
-    int rowCount = 0;
-    int[] valueOccupation = new int[columnNum];
-    // used to record a bitmap for every 8 row record
-    int[] bitmap = new int[columnNum];
-    for (int i = 0; i < fetchSize; i++) {
-      if (queryDataSet.hasNext()) {
-        RowRecord rowRecord = queryDataSet.next();
-        // filter rows whose columns are null according to the rule
-        if ((queryDataSet.isWithoutAllNull() && rowRecord.isAllNull())
-            || (queryDataSet.isWithoutAnyNull() && rowRecord.hasNullField())) {
-          // if the current RowRecord doesn't satisfy, we should also decrease AlreadyReturnedRowNum
-          queryDataSet.decreaseAlreadyReturnedRowNum();
-          i--;
+    TSQueryDataSetBuilder builder = TSQueryDataSetBuilder.getInstance(queryDataSet.getColumnNum());
+    while (builder.getRowCount() < fetchSize && queryDataSet.hasNext()) {
+      RowRecord rowRecord = queryDataSet.next();
+      // filter rows whose columns are null according to the rule
+      if ((queryDataSet.isWithoutAllNull() && rowRecord.isAllNull())
+          || (queryDataSet.isWithoutAnyNull() && rowRecord.hasNullField())) {
+        // if the current RowRecord doesn't satisfy, we should also decrease AlreadyReturnedRowNum
+        queryDataSet.decreaseAlreadyReturnedRowNum();
+        continue;
+      }
+      if (watermarkEncoder != null) {
+        rowRecord = watermarkEncoder.encodeRecord(rowRecord);
+      }
+      builder.putTime(rowRecord.getTimestamp());
+      List<Field> fields = rowRecord.getFields();
+      for (int k = 0; k < fields.size(); k++) {
+        Field field = fields.get(k);
+        if (field == null || field.getDataType() == null) {
+          builder.putNull(k);
           continue;
         }
-        if (watermarkEncoder != null) {
-          rowRecord = watermarkEncoder.encodeRecord(rowRecord);
+        TSDataType type = field.getDataType();
+        switch (type) {
+          case INT32:
+            builder.putInt(k, field.getIntV());
+            break;
+          case INT64:
+            builder.putLong(k, field.getLongV());
+            break;
+          case FLOAT:
+            builder.putFloat(k, field.getFloatV());
+            break;
+          case DOUBLE:
+            builder.putDouble(k, field.getDoubleV());
+            break;
+          case BOOLEAN:
+            builder.putBoolean(k, field.getBoolV());
+            break;
+          case TEXT:
+            builder.putBinary(k, field.getBinaryV());
+            break;
+          default:
+            throw new UnSupportedDataTypeException(
+                String.format("Data type %s is not supported.", type));
         }
-        // use columnOutput to write byte array
-        dataOutputStreams[0].writeLong(rowRecord.getTimestamp());
-        List<Field> fields = rowRecord.getFields();
-        for (int k = 0; k < fields.size(); k++) {
-          Field field = fields.get(k);
-          DataOutputStream dataOutputStream = dataOutputStreams[2 * k + 1]; // DO NOT FORGET +1
-          if (field == null || field.getDataType() == null) {
-            bitmap[k] = (bitmap[k] << 1);
-          } else {
-            bitmap[k] = (bitmap[k] << 1) | flag;
-            TSDataType type = field.getDataType();
-            switch (type) {
-              case INT32:
-                dataOutputStream.writeInt(field.getIntV());
-                valueOccupation[k] += 4;
-                break;
-              case INT64:
-                dataOutputStream.writeLong(field.getLongV());
-                valueOccupation[k] += 8;
-                break;
-              case FLOAT:
-                dataOutputStream.writeFloat(field.getFloatV());
-                valueOccupation[k] += 4;
-                break;
-              case DOUBLE:
-                dataOutputStream.writeDouble(field.getDoubleV());
-                valueOccupation[k] += 8;
-                break;
-              case BOOLEAN:
-                dataOutputStream.writeBoolean(field.getBoolV());
-                valueOccupation[k] += 1;
-                break;
-              case TEXT:
-                dataOutputStream.writeInt(field.getBinaryV().getLength());
-                dataOutputStream.write(field.getBinaryV().getValues());
-                valueOccupation[k] = valueOccupation[k] + 4 + field.getBinaryV().getLength();
-                break;
-              default:
-                throw new UnSupportedDataTypeException(
-                    String.format("Data type %s is not supported.", type));
-            }
-          }
-        }
-        rowCount++;
-        if (rowCount % 8 == 0) {
-          for (int j = 0; j < bitmap.length; j++) {
-            DataOutputStream dataBitmapOutputStream = dataOutputStreams[2 * (j + 1)];
-            dataBitmapOutputStream.writeByte(bitmap[j]);
-            // we should clear the bitmap every 8 row record
-            bitmap[j] = 0;
-          }
-        }
-      } else {
-        break;
-      }
-    }
-
-    // feed the remaining bitmap
-    int remaining = rowCount % 8;
-    if (remaining != 0) {
-      for (int j = 0; j < bitmap.length; j++) {
-        DataOutputStream dataBitmapOutputStream = dataOutputStreams[2 * (j + 1)];
-        dataBitmapOutputStream.writeByte(bitmap[j] << (8 - remaining));
       }
+      builder.endRow();
     }
-
-    // calculate the time buffer size
-    int timeOccupation = rowCount * 8;
-    ByteBuffer timeBuffer = ByteBuffer.allocate(timeOccupation);
-    timeBuffer.put(byteArrayOutputStreams[0].toByteArray());
-    timeBuffer.flip();
-    tsQueryDataSet.setTime(timeBuffer);
-
-    // calculate the bitmap buffer size
-    int bitmapOccupation = rowCount / 8 + (rowCount % 8 == 0 ? 0 : 1);
-
-    List<ByteBuffer> bitmapList = new LinkedList<>();
-    List<ByteBuffer> valueList = new LinkedList<>();
-    for (int i = 1; i < byteArrayOutputStreams.length; i += 2) {
-      ByteBuffer valueBuffer = ByteBuffer.allocate(valueOccupation[(i - 1) / 2]);
-      valueBuffer.put(byteArrayOutputStreams[i].toByteArray());
-      valueBuffer.flip();
-      valueList.add(valueBuffer);
-
-      ByteBuffer bitmapBuffer = ByteBuffer.allocate(bitmapOccupation);
-      bitmapBuffer.put(byteArrayOutputStreams[i + 1].toByteArray());
-      bitmapBuffer.flip();
-      bitmapList.add(bitmapBuffer);
-    }
-    tsQueryDataSet.setBitmapList(bitmapList);
-    tsQueryDataSet.setValueList(valueList);
-    return tsQueryDataSet;
+    return builder.build();
   }
 
   public static long[] readTimesFromBuffer(ByteBuffer buffer, int size) {
     long[] times = new long[size];
-    for (int i = 0; i < size; i++) {
-      times[i] = buffer.getLong();
-    }
+    buffer.asLongBuffer().get(times);
+    buffer.position(buffer.position() + size * Long.BYTES);
     return times;
   }
 
@@ -206,6 +127,49 @@ public class QueryDataSetUtils {
     return readValuesFromBuffer(buffer, dataTypes, columns, size);
   }
 
+  /**
+   * Read the values like {@link #readValuesFromBuffer(ByteBuffer, List, int, int)}, but the INT32,
+   * INT64, FLOAT and DOUBLE columns are not copied. They are IntBuffer, LongBuffer, FloatBuffer and
+   * DoubleBuffer views over the buffer, which are valid only until the buffer is reused.
+   *
+   * @param buffer data values
+   * @param columns column number
+   * @param size value count in each column
+   */
+  public static Object[] readColumnViewsFromBuffer(
+      ByteBuffer buffer, List<Integer> types, int columns, int size) {
+    Object[] values = new Object[columns];
+    for (int i = 0; i < columns; i++) {
+      TSDataType dataType = TSDataType.values()[types.get(i)];
+      switch (dataType) {
+        case INT32:
+          values[i] = sliceColumn(buffer, size * Integer.BYTES).asIntBuffer();
+          break;
+        case INT64:
+          values[i] = sliceColumn(buffer, size * Long.BYTES).asLongBuffer();
+          break;
+        case FLOAT:
+          values[i] = sliceColumn(buffer, size * Float.BYTES).asFloatBuffer();
+          break;
+        case DOUBLE:
+          values[i] = sliceColumn(buffer, size * Double.BYTES).asDoubleBuffer();
+          break;
+        default:
+          values[i] = readValuesFromBuffer(buffer, new TSDataType[] {dataType}, 1, size)[0];
+          break;
+      }
+    }
+    return values;
+  }
+
+  /** slice the next length bytes of the buffer and skip them */
+  private static ByteBuffer sliceColumn(ByteBuffer buffer, int length) {
+    ByteBuffer column = buffer.slice().order(buffer.order());
+    column.limit(length);
+    buffer.position(buffer.position() + length);
+    return column;
+  }
+
   /**
    * @param buffer data values
    * @param columns column number
@@ -61,6 +61,7 @@ public class SchemaUtils {
     Set<TSEncoding> booleanSet = new HashSet<>();
     booleanSet.add(TSEncoding.PLAIN);
     booleanSet.add(TSEncoding.RLE);
+    booleanSet.add(TSEncoding.AUTO);
     schemaChecker.put(TSDataType.BOOLEAN, booleanSet);
 
     Set<TSEncoding> intSet = new HashSet<>();
@@ -68,6 +69,8 @@ public class SchemaUtils {
     intSet.add(TSEncoding.RLE);
     intSet.add(TSEncoding.TS_2DIFF);
     intSet.add(TSEncoding.GORILLA);
+    intSet.add(TSEncoding.CHIMP);
+    intSet.add(TSEncoding.AUTO);
     schemaChecker.put(TSDataType.INT32, intSet);
     schemaChecker.put(TSDataType.INT64, intSet);
 
@@ -77,12 +80,16 @@ public class SchemaUtils {
     floatSet.add(TSEncoding.TS_2DIFF);
     floatSet.add(TSEncoding.GORILLA_V1);
     floatSet.add(TSEncoding.GORILLA);
+    floatSet.add(TSEncoding.CHIMP);
+    floatSet.add(TSEncoding.ALP);
+    floatSet.add(TSEncoding.AUTO);
     schemaChecker.put(TSDataType.FLOAT, floatSet);
     schemaChecker.put(TSDataType.DOUBLE, floatSet);
 
     Set<TSEncoding> textSet = new HashSet<>();
     textSet.add(TSEncoding.PLAIN);
     textSet.add(TSEncoding.DICTIONARY);
+    textSet.add(TSEncoding.AUTO);
     schemaChecker.put(TSDataType.TEXT, textSet);
   }
 
@@ -555,18 +555,10 @@ public class AlignedTVList extends TVList {
   }
 
   @Override
-  public void sort() {
-    if (sortedTimestamps == null || sortedTimestamps.length < size) {
-      sortedTimestamps =
-          (long[][]) PrimitiveArrayManager.createDataListsByType(TSDataType.INT64, size);
-    }
-    if (sortedIndices == null || sortedIndices.length < size) {
+  protected void createSortedValues() {
+    if (isSortBufferTooSmall(sortedIndices)) {
       sortedIndices = (int[][]) PrimitiveArrayManager.createDataListsByType(TSDataType.INT32, size);
     }
-    sort(0, size);
-    clearSortedValue();
-    clearSortedTime();
-    sorted = true;
   }
 
   @Override
@@ -940,7 +932,7 @@ public class AlignedTVList extends TVList {
       List<Integer> timeDuplicatedAlignedRowIndexList = null;
       while (cur < iteSize) {
         long time = getTime(cur);
-        if (cur + 1 < size() && (time == getTime(cur + 1))) {
+        if (cur + 1 < iteSize && (time == getTime(cur + 1))) {
           if (timeDuplicatedAlignedRowIndexList == null) {
             timeDuplicatedAlignedRowIndexList = new ArrayList<>();
             timeDuplicatedAlignedRowIndexList.add(getValueIndex(cur));
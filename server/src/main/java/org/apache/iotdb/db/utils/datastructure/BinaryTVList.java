@@ -18,7 +18,9 @@
  */
 package org.apache.iotdb.db.utils.datastructure;
 
+import org.apache.iotdb.db.conf.IoTDBDescriptor;
 import org.apache.iotdb.db.rescon.PrimitiveArrayManager;
+import org.apache.iotdb.db.utils.MemUtils;
 import org.apache.iotdb.tsfile.file.metadata.enums.TSDataType;
 import org.apache.iotdb.tsfile.file.metadata.enums.TSEncoding;
 import org.apache.iotdb.tsfile.read.TimeValuePair;
@@ -27,33 +29,75 @@ import org.apache.iotdb.tsfile.utils.BitMap;
 import org.apache.iotdb.tsfile.utils.TsPrimitiveType;
 
 import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
 import static org.apache.iotdb.db.rescon.PrimitiveArrayManager.ARRAY_SIZE;
 
+/**
+ * TVList of TEXT values. Values of a low-cardinality series are kept once in a dictionary, and
+ * points store their int codes. When the dictionary is full, the list falls back to storing the
+ * values directly.
+ */
 public class BinaryTVList extends TVList {
 
   // list of primitive array, add 1 when expanded -> Binary primitive array
   // index relation: arrayIndex -> elementIndex
   private List<Binary[]> values;
 
+  // list of code array, used instead of values until the dictionary is full, null after that
+  // index relation: arrayIndex -> elementIndex
+  private List<int[]> codes;
+
+  // distinct values, index relation: code -> value
+  private List<Binary> dictionary;
+
+  // value -> code
+  private Map<Binary, Integer> dictionaryIndex;
+
+  private final int maxDictionarySize;
+
   private Binary[][] sortedValues;
 
+  private int[][] sortedCodes;
+
   private Binary pivotValue;
 
+  private int pivotCode;
+
   BinaryTVList() {
     super();
     values = new ArrayList<>();
+    maxDictionarySize = IoTDBDescriptor.getInstance().getConfig().getMemTableTextDictionarySize();
+    if (maxDictionarySize > 0) {
+      codes = new ArrayList<>();
+      dictionary = new ArrayList<>();
+      dictionaryIndex = new HashMap<>();
+    }
   }
 
   @Override
   public void putBinary(long timestamp, Binary value) {
+    int code = -1;
+    if (codes != null) {
+      code = getOrCreateCode(value);
+      if (code < 0) {
+        fallBack();
+      }
+    }
     checkExpansion();
     int arrayIndex = size / ARRAY_SIZE;
     int elementIndex = size % ARRAY_SIZE;
     minTime = Math.min(minTime, timestamp);
     timestamps.get(arrayIndex)[elementIndex] = timestamp;
-    values.get(arrayIndex)[elementIndex] = value;
+    if (codes != null) {
+      codes.get(arrayIndex)[elementIndex] = code;
+    } else {
+      values.get(arrayIndex)[elementIndex] = value;
+    }
     size++;
     if (sorted && size > 1 && timestamp < getTime(size - 2)) {
       sorted = false;
@@ -67,9 +111,126 @@ public class BinaryTVList extends TVList {
     }
     int arrayIndex = index / ARRAY_SIZE;
     int elementIndex = index % ARRAY_SIZE;
+    if (codes != null) {
+      return dictionary.get(codes.get(arrayIndex)[elementIndex]);
+    }
     return values.get(arrayIndex)[elementIndex];
   }
 
+  /**
+   * get the dictionary code of a value, only valid when {@link #isDictionaryEncoded()}
+   *
+   * @param index index of the value
+   * @return code of the value, equal values have equal codes
+   */
+  public int getCode(int index) {
+    if (index >= size) {
+      throw new ArrayIndexOutOfBoundsException(index);
+    }
+    return codes.get(index / ARRAY_SIZE)[index % ARRAY_SIZE];
+  }
+
+  /** whether the points are stored as codes of the dictionary */
+  public boolean isDictionaryEncoded() {
+    return codes != null;
+  }
+
+  /** @return code of the value, or -1 if it is new and the dictionary is full */
+  private int getOrCreateCode(Binary value) {
+    Integer code = dictionaryIndex.get(value);
+    if (code == null) {
+      if (dictionary.size() >= maxDictionarySize) {
+        return -1;
+      }
+      code = dictionary.size();
+      dictionary.add(value);
+      dictionaryIndex.put(value, code);
+    }
+    return code;
+  }
+
+  /**
+   * whether putting the values fills up the dictionary, so that the list falls back to storing the
+   * values directly and releases its code arrays
+   */
+  public boolean isFallBackNeeded(Binary[] value, BitMap bitMap, int start, int end) {
+    if (codes == null) {
+      return false;
+    }
+    Set<Binary> newValues = new HashSet<>();
+    for (int i = start; i < end; i++) {
+      if ((bitMap == null || !bitMap.isMarked(i))
+          && !dictionaryIndex.containsKey(value[i])
+          && newValues.add(value[i])
+          && dictionary.size() + newValues.size() > maxDictionarySize) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  /** replace the codes by their values, and store values directly from now on */
+  private void fallBack() {
+    for (int arrayIndex = 0; arrayIndex < codes.size(); arrayIndex++) {
+      int[] codeArray = codes.get(arrayIndex);
+      Binary[] valueArray = (Binary[]) getPrimitiveArraysByType(TSDataType.TEXT);
+      int length = Math.min(ARRAY_SIZE, size - arrayIndex * ARRAY_SIZE);
+      for (int elementIndex = 0; elementIndex < length; elementIndex++) {
+        valueArray[elementIndex] = dictionary.get(codeArray[elementIndex]);
+      }
+      values.add(valueArray);
+      PrimitiveArrayManager.release(codeArray);
+    }
+    codes = null;
+    dictionary = null;
+    dictionaryIndex = null;
+  }
+
+  /**
+   * get the memory cost of TEXT values to be put into a list. With the dictionary, a value already
+   * in it costs nothing and a new value is counted once. If the dictionary may be full, all values
+   * are counted.
+   *
+   * @param list the list to put into, null if it is not created yet
+   * @param values values to put
+   * @param start start index of values
+   * @param end end index of values, exclusive
+   * @return memory cost in bytes
+   */
+  public static long getTextDataIncrement(BinaryTVList list, Binary[] values, int start, int end) {
+    int maxDictionarySize =
+        list == null
+            ? IoTDBDescriptor.getInstance().getConfig().getMemTableTextDictionarySize()
+            : list.maxDictionarySize;
+    if ((list == null && maxDictionarySize <= 0) || (list != null && list.codes == null)) {
+      return MemUtils.getBinaryColumnSize(values, start, end);
+    }
+
+    int dictionarySize = list == null ? 0 : list.dictionary.size();
+    Set<Binary> newValues = new HashSet<>();
+    long increment = 0;
+    for (int i = start; i < end; i++) {
+      if ((list == null || !list.dictionaryIndex.containsKey(values[i]))
+          && newValues.add(values[i])) {
+        if (dictionarySize + newValues.size() > maxDictionarySize) {
+          return MemUtils.getBinaryColumnSize(values, start, end);
+        }
+        increment += MemUtils.getBinarySize(values[i]);
+      }
+    }
+    return increment;
+  }
+
+  private void set(int index, long timestamp, int code) {
+    if (index >= size) {
+      throw new ArrayIndexOutOfBoundsException(index);
+    }
+    int arrayIndex = index / ARRAY_SIZE;
+    int elementIndex = index % ARRAY_SIZE;
+    timestamps.get(arrayIndex)[elementIndex] = timestamp;
+    codes.get(arrayIndex)[elementIndex] = code;
+  }
+
   protected void set(int index, long timestamp, Binary value) {
     if (index >= size) {
       throw new ArrayIndexOutOfBoundsException(index);
@@ -87,6 +248,20 @@ public class BinaryTVList extends TVList {
     for (Binary[] valueArray : values) {
       cloneList.values.add(cloneValue(valueArray));
     }
+    if (codes != null) {
+      cloneList.codes = new ArrayList<>();
+      for (int[] codeArray : codes) {
+        int[] cloneArray = new int[codeArray.length];
+        System.arraycopy(codeArray, 0, cloneArray, 0, codeArray.length);
+        cloneList.codes.add(cloneArray);
+      }
+      cloneList.dictionary = new ArrayList<>(dictionary);
+      cloneList.dictionaryIndex = new HashMap<>(dictionaryIndex);
+    } else {
+      cloneList.codes = null;
+      cloneList.dictionary = null;
+      cloneList.dictionaryIndex = null;
+    }
     return cloneList;
   }
 
@@ -97,19 +272,15 @@ public class BinaryTVList extends TVList {
   }
 
   @Override
-  public void sort() {
-    if (sortedTimestamps == null || sortedTimestamps.length < size) {
-      sortedTimestamps =
-          (long[][]) PrimitiveArrayManager.createDataListsByType(TSDataType.INT64, size);
-    }
-    if (sortedValues == null || sortedValues.length < size) {
+  protected void createSortedValues() {
+    if (codes != null) {
+      if (isSortBufferTooSmall(sortedCodes)) {
+        sortedCodes = (int[][]) PrimitiveArrayManager.createDataListsByType(TSDataType.INT32, size);
+      }
+    } else if (isSortBufferTooSmall(sortedValues)) {
       sortedValues =
           (Binary[][]) PrimitiveArrayManager.createDataListsByType(TSDataType.TEXT, size);
     }
-    sort(0, size);
-    clearSortedValue();
-    clearSortedTime();
-    sorted = true;
   }
 
   @Override
@@ -120,6 +291,14 @@ public class BinaryTVList extends TVList {
       }
       values.clear();
     }
+    if (codes != null) {
+      for (int[] codeArray : codes) {
+        PrimitiveArrayManager.release(codeArray);
+      }
+      codes.clear();
+      dictionary.clear();
+      dictionaryIndex.clear();
+    }
   }
 
   @Override
@@ -127,10 +306,18 @@ public class BinaryTVList extends TVList {
     if (sortedValues != null) {
       sortedValues = null;
     }
+    sortedCodes = null;
   }
 
   @Override
   protected void setFromSorted(int src, int dest) {
+    if (codes != null) {
+      set(
+          dest,
+          sortedTimestamps[src / ARRAY_SIZE][src % ARRAY_SIZE],
+          sortedCodes[src / ARRAY_SIZE][src % ARRAY_SIZE]);
+      return;
+    }
     set(
         dest,
         sortedTimestamps[src / ARRAY_SIZE][src % ARRAY_SIZE],
@@ -139,6 +326,10 @@ public class BinaryTVList extends TVList {
 
   @Override
   protected void set(int src, int dest) {
+    if (codes != null) {
+      set(dest, getTime(src), getCode(src));
+      return;
+    }
     long srcT = getTime(src);
     Binary srcV = getBinary(src);
     set(dest, srcT, srcV);
@@ -147,12 +338,27 @@ public class BinaryTVList extends TVList {
   @Override
   protected void setToSorted(int src, int dest) {
     sortedTimestamps[dest / ARRAY_SIZE][dest % ARRAY_SIZE] = getTime(src);
-    sortedValues[dest / ARRAY_SIZE][dest % ARRAY_SIZE] = getBinary(src);
+    if (codes != null) {
+      sortedCodes[dest / ARRAY_SIZE][dest % ARRAY_SIZE] = getCode(src);
+    } else {
+      sortedValues[dest / ARRAY_SIZE][dest % ARRAY_SIZE] = getBinary(src);
+    }
   }
 
   @Override
   protected void reverseRange(int lo, int hi) {
     hi--;
+    if (codes != null) {
+      while (lo < hi) {
+        long loT = getTime(lo);
+        int loC = getCode(lo);
+        long hiT = getTime(hi);
+        int hiC = getCode(hi);
+        set(lo++, hiT, hiC);
+        set(hi--, loT, loC);
+      }
+      return;
+    }
     while (lo < hi) {
       long loT = getTime(lo);
       Binary loV = getBinary(lo);
@@ -165,18 +371,30 @@ public class BinaryTVList extends TVList {
 
   @Override
   protected void expandValues() {
-    values.add((Binary[]) getPrimitiveArraysByType(TSDataType.TEXT));
+    if (codes != null) {
+      codes.add((int[]) getPrimitiveArraysByType(TSDataType.INT32));
+    } else {
+      values.add((Binary[]) getPrimitiveArraysByType(TSDataType.TEXT));
+    }
   }
 
   @Override
   protected void saveAsPivot(int pos) {
     pivotTime = getTime(pos);
-    pivotValue = getBinary(pos);
+    if (codes != null) {
+      pivotCode = getCode(pos);
+    } else {
+      pivotValue = getBinary(pos);
+    }
   }
 
   @Override
   protected void setPivotTo(int pos) {
-    set(pos, pivotTime, pivotValue);
+    if (codes != null) {
+      set(pos, pivotTime, pivotCode);
+    } else {
+      set(pos, pivotTime, pivotValue);
+    }
   }
 
   @Override
@@ -193,11 +411,24 @@ public class BinaryTVList extends TVList {
 
   @Override
   protected void releaseLastValueArray() {
-    PrimitiveArrayManager.release(values.remove(values.size() - 1));
+    if (codes != null) {
+      PrimitiveArrayManager.release(codes.remove(codes.size() - 1));
+    } else {
+      PrimitiveArrayManager.release(values.remove(values.size() - 1));
+    }
   }
 
   @Override
   public void putBinaries(long[] time, Binary[] value, BitMap bitMap, int start, int end) {
+    if (codes != null) {
+      // each value is looked up in the dictionary, the list may fall back in the middle
+      for (int i = start; i < end; i++) {
+        if (bitMap == null || !bitMap.isMarked(i)) {
+          putBinary(time[i], value[i]);
+        }
+      }
+      return;
+    }
     checkExpansion();
 
     int idx = start;
@@ -96,19 +96,11 @@ public class BooleanTVList extends TVList {
   }
 
   @Override
-  public void sort() {
-    if (sortedTimestamps == null || sortedTimestamps.length < size) {
-      sortedTimestamps =
-          (long[][]) PrimitiveArrayManager.createDataListsByType(TSDataType.INT64, size);
-    }
-    if (sortedValues == null || sortedValues.length < size) {
+  protected void createSortedValues() {
+    if (isSortBufferTooSmall(sortedValues)) {
       sortedValues =
           (boolean[][]) PrimitiveArrayManager.createDataListsByType(TSDataType.BOOLEAN, size);
     }
-    sort(0, size);
-    clearSortedValue();
-    clearSortedTime();
-    sorted = true;
   }
 
   @Override
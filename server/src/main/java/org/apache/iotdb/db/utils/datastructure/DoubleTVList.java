@@ -26,6 +26,7 @@ import org.apache.iotdb.tsfile.read.TimeValuePair;
 import org.apache.iotdb.tsfile.utils.BitMap;
 import org.apache.iotdb.tsfile.utils.TsPrimitiveType;
 
+import java.nio.DoubleBuffer;
 import java.util.ArrayList;
 import java.util.List;
 
@@ -97,19 +98,11 @@ public class DoubleTVList extends TVList {
   }
 
   @Override
-  public void sort() {
-    if (sortedTimestamps == null || sortedTimestamps.length < size) {
-      sortedTimestamps =
-          (long[][]) PrimitiveArrayManager.createDataListsByType(TSDataType.INT64, size);
-    }
-    if (sortedValues == null || sortedValues.length < size) {
+  protected void createSortedValues() {
+    if (isSortBufferTooSmall(sortedValues)) {
       sortedValues =
           (double[][]) PrimitiveArrayManager.createDataListsByType(TSDataType.DOUBLE, size);
     }
-    sort(0, size);
-    clearSortedValue();
-    clearSortedTime();
-    sorted = true;
   }
 
   @Override
@@ -246,6 +239,24 @@ public class DoubleTVList extends TVList {
     }
   }
 
+  @Override
+  public void putDoubles(long[] time, DoubleBuffer value, BitMap bitMap, int start, int end) {
+    putPoints(time, value, bitMap, start, end);
+  }
+
+  @Override
+  protected void putPoint(long time, Object values, int index) {
+    putDouble(time, ((DoubleBuffer) values).get(index));
+  }
+
+  @Override
+  protected void putValues(
+      Object values, int srcIndex, int arrayIndex, int elementIndex, int length) {
+    DoubleBuffer source = ((DoubleBuffer) values).duplicate();
+    source.position(srcIndex);
+    source.get(this.values.get(arrayIndex), elementIndex, length);
+  }
+
   // move null values to the end of time array and value array, then return number of null values
   int dropNullValThenUpdateMinTimeAndSorted(
       long[] time, double[] values, BitMap bitMap, int start, int end, int tIdxOffset) {
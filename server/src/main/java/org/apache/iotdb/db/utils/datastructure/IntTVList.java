@@ -25,6 +25,7 @@ import org.apache.iotdb.tsfile.read.TimeValuePair;
 import org.apache.iotdb.tsfile.utils.BitMap;
 import org.apache.iotdb.tsfile.utils.TsPrimitiveType;
 
+import java.nio.IntBuffer;
 import java.util.ArrayList;
 import java.util.List;
 
@@ -96,18 +97,10 @@ public class IntTVList extends TVList {
   }
 
   @Override
-  public void sort() {
-    if (sortedTimestamps == null || sortedTimestamps.length < size) {
-      sortedTimestamps =
-          (long[][]) PrimitiveArrayManager.createDataListsByType(TSDataType.INT64, size);
-    }
-    if (sortedValues == null || sortedValues.length < size) {
+  protected void createSortedValues() {
+    if (isSortBufferTooSmall(sortedValues)) {
       sortedValues = (int[][]) PrimitiveArrayManager.createDataListsByType(TSDataType.INT32, size);
     }
-    sort(0, size);
-    clearSortedValue();
-    clearSortedTime();
-    sorted = true;
   }
 
   @Override
@@ -240,6 +233,24 @@ public class IntTVList extends TVList {
     }
   }
 
+  @Override
+  public void putInts(long[] time, IntBuffer value, BitMap bitMap, int start, int end) {
+    putPoints(time, value, bitMap, start, end);
+  }
+
+  @Override
+  protected void putPoint(long time, Object values, int index) {
+    putInt(time, ((IntBuffer) values).get(index));
+  }
+
+  @Override
+  protected void putValues(
+      Object values, int srcIndex, int arrayIndex, int elementIndex, int length) {
+    IntBuffer source = ((IntBuffer) values).duplicate();
+    source.position(srcIndex);
+    source.get(this.values.get(arrayIndex), elementIndex, length);
+  }
+
   // move null values to the end of time array and value array, then return number of null values
   int dropNullValThenUpdateMinTimeAndSorted(
       long[] time, int[] values, BitMap bitMap, int start, int end, int tIdxOffset) {
@@ -25,6 +25,7 @@ import org.apache.iotdb.tsfile.read.TimeValuePair;
 import org.apache.iotdb.tsfile.utils.BitMap;
 import org.apache.iotdb.tsfile.utils.TsPrimitiveType;
 
+import java.nio.LongBuffer;
 import java.util.ArrayList;
 import java.util.List;
 
@@ -96,18 +97,10 @@ public class LongTVList extends TVList {
   }
 
   @Override
-  public void sort() {
-    if (sortedTimestamps == null || sortedTimestamps.length < size) {
-      sortedTimestamps =
-          (long[][]) PrimitiveArrayManager.createDataListsByType(TSDataType.INT64, size);
-    }
-    if (sortedValues == null || sortedValues.length < size) {
+  protected void createSortedValues() {
+    if (isSortBufferTooSmall(sortedValues)) {
       sortedValues = (long[][]) PrimitiveArrayManager.createDataListsByType(TSDataType.INT64, size);
     }
-    sort(0, size);
-    clearSortedValue();
-    clearSortedTime();
-    sorted = true;
   }
 
   @Override
@@ -240,6 +233,24 @@ public class LongTVList extends TVList {
     }
   }
 
+  @Override
+  public void putLongs(long[] time, LongBuffer value, BitMap bitMap, int start, int end) {
+    putPoints(time, value, bitMap, start, end);
+  }
+
+  @Override
+  protected void putPoint(long time, Object values, int index) {
+    putLong(time, ((LongBuffer) values).get(index));
+  }
+
+  @Override
+  protected void putValues(
+      Object values, int srcIndex, int arrayIndex, int elementIndex, int length) {
+    LongBuffer source = ((LongBuffer) values).duplicate();
+    source.position(srcIndex);
+    source.get(this.values.get(arrayIndex), elementIndex, length);
+  }
+
   // move null values to the end of time array and value array, then return number of null values
   int dropNullValThenUpdateMinTimeAndSorted(
       long[] time, long[] values, BitMap bitMap, int start, int end, int tIdxOffset) {
@@ -0,0 +1,225 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.iotdb.db.utils.datastructure;
+
+import org.apache.iotdb.db.rescon.OffHeapArena;
+import org.apache.iotdb.db.rescon.PrimitiveArrayManager;
+import org.apache.iotdb.db.utils.MathUtils;
+import org.apache.iotdb.tsfile.file.metadata.enums.TSDataType;
+import org.apache.iotdb.tsfile.file.metadata.enums.TSEncoding;
+import org.apache.iotdb.tsfile.read.TimeValuePair;
+import org.apache.iotdb.tsfile.utils.BitMap;
+import org.apache.iotdb.tsfile.utils.TsPrimitiveType;
+
+import java.nio.ByteBuffer;
+import java.nio.DoubleBuffer;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.apache.iotdb.db.rescon.PrimitiveArrayManager.ARRAY_SIZE;
+
+public class OffHeapDoubleTVList extends OffHeapTVList {
+
+  // list of value buffers, add 1 when expanded -> double values
+  // index relation: arrayIndex -> elementIndex
+  private List<ByteBuffer> values;
+
+  private double[][] sortedValues;
+
+  private double pivotValue;
+
+  OffHeapDoubleTVList(OffHeapArena arena) {
+    super(arena);
+    values = new ArrayList<>();
+  }
+
+  @Override
+  public void putDouble(long timestamp, double value) {
+    checkExpansion();
+    int arrayIndex = size / ARRAY_SIZE;
+    int elementIndex = size % ARRAY_SIZE;
+    minTime = Math.min(minTime, timestamp);
+    setTime(arrayIndex, elementIndex, timestamp);
+    values.get(arrayIndex).putDouble(elementIndex * Double.BYTES, value);
+    size++;
+    if (sorted && size > 1 && timestamp < getTime(size - 2)) {
+      sorted = false;
+    }
+  }
+
+  @Override
+  public double getDouble(int index) {
+    if (index >= size) {
+      throw new ArrayIndexOutOfBoundsException(index);
+    }
+    int arrayIndex = index / ARRAY_SIZE;
+    int elementIndex = index % ARRAY_SIZE;
+    return values.get(arrayIndex).getDouble(elementIndex * Double.BYTES);
+  }
+
+  protected void set(int index, long timestamp, double value) {
+    if (index >= size) {
+      throw new ArrayIndexOutOfBoundsException(index);
+    }
+    int arrayIndex = index / ARRAY_SIZE;
+    int elementIndex = index % ARRAY_SIZE;
+    setTime(arrayIndex, elementIndex, timestamp);
+    values.get(arrayIndex).putDouble(elementIndex * Double.BYTES, value);
+  }
+
+  @Override
+  public OffHeapDoubleTVList clone() {
+    OffHeapDoubleTVList cloneList = new OffHeapDoubleTVList(arena);
+    cloneAs(cloneList);
+    for (ByteBuffer valueBuffer : values) {
+      cloneList.values.add(cloneArray(valueBuffer));
+    }
+    return cloneList;
+  }
+
+  @Override
+  protected void createSortedValues() {
+    if (isSortBufferTooSmall(sortedValues)) {
+      sortedValues = (double[][]) PrimitiveArrayManager.createDataListsByType(TSDataType.DOUBLE, size);
+    }
+  }
+
+  @Override
+  void clearValue() {
+    values.clear();
+  }
+
+  @Override
+  void clearSortedValue() {
+    if (sortedValues != null) {
+      sortedValues = null;
+    }
+  }
+
+  @Override
+  protected void setFromSorted(int src, int dest) {
+    set(
+        dest,
+        sortedTimestamps[src / ARRAY_SIZE][src % ARRAY_SIZE],
+        sortedValues[src / ARRAY_SIZE][src % ARRAY_SIZE]);
+  }
+
+  @Override
+  protected void set(int src, int dest) {
+    long srcT = getTime(src);
+    double srcV = getDouble(src);
+    set(dest, srcT, srcV);
+  }
+
+  @Override
+  protected void setToSorted(int src, int dest) {
+    sortedTimestamps[dest / ARRAY_SIZE][dest % ARRAY_SIZE] = getTime(src);
+    sortedValues[dest / ARRAY_SIZE][dest % ARRAY_SIZE] = getDouble(src);
+  }
+
+  @Override
+  protected void reverseRange(int lo, int hi) {
+    hi--;
+    while (lo < hi) {
+      long loT = getTime(lo);
+      double loV = getDouble(lo);
+      long hiT = getTime(hi);
+      double hiV = getDouble(hi);
+      set(lo++, hiT, hiV);
+      set(hi--, loT, loV);
+    }
+  }
+
+  @Override
+  protected void expandValues() {
+    values.add(allocateArray(Double.BYTES));
+  }
+
+  @Override
+  protected void saveAsPivot(int pos) {
+    pivotTime = getTime(pos);
+    pivotValue = getDouble(pos);
+  }
+
+  @Override
+  protected void setPivotTo(int pos) {
+    set(pos, pivotTime, pivotValue);
+  }
+
+  @Override
+  public TimeValuePair getTimeValuePair(int index) {
+    return new TimeValuePair(
+        getTime(index), TsPrimitiveType.getByType(TSDataType.DOUBLE, getDouble(index)));
+  }
+
+  @Override
+  protected TimeValuePair getTimeValuePair(
+      int index, long time, Integer floatPrecision, TSEncoding encoding) {
+    double value = getDouble(index);
+    if (!Double.isNaN(value) && (encoding == TSEncoding.RLE || encoding == TSEncoding.TS_2DIFF)) {
+      value = MathUtils.roundWithGivenPrecision(value, floatPrecision);
+    }
+    return new TimeValuePair(time, TsPrimitiveType.getByType(TSDataType.DOUBLE, value));
+  }
+
+  @Override
+  protected void releaseLastValueArray() {
+    values.remove(values.size() - 1);
+  }
+
+  @Override
+  public void putDoubles(long[] time, double[] value, BitMap bitMap, int start, int end) {
+    putPoints(time, value, bitMap, start, end);
+  }
+
+  @Override
+  public void putDoubles(long[] time, DoubleBuffer value, BitMap bitMap, int start, int end) {
+    putPoints(time, value, bitMap, start, end);
+  }
+
+  @Override
+  protected void putPoint(long time, Object values, int index) {
+    putDouble(
+        time,
+        values instanceof DoubleBuffer
+            ? ((DoubleBuffer) values).get(index)
+            : ((double[]) values)[index]);
+  }
+
+  @Override
+  protected void putValues(
+      Object values, int srcIndex, int arrayIndex, int elementIndex, int length) {
+    DoubleBuffer target =
+        positionedArray(this.values.get(arrayIndex), elementIndex, Double.BYTES).asDoubleBuffer();
+    if (values instanceof DoubleBuffer) {
+      DoubleBuffer source = ((DoubleBuffer) values).duplicate();
+      source.position(srcIndex);
+      source.limit(srcIndex + length);
+      target.put(source);
+    } else {
+      target.put((double[]) values, srcIndex, length);
+    }
+  }
+
+  @Override
+  public TSDataType getDataType() {
+    return TSDataType.DOUBLE;
+  }
+}
@@ -0,0 +1,220 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.iotdb.db.utils.datastructure;
+
+import org.apache.iotdb.db.rescon.OffHeapArena;
+import org.apache.iotdb.db.rescon.PrimitiveArrayManager;
+import org.apache.iotdb.tsfile.file.metadata.enums.TSDataType;
+import org.apache.iotdb.tsfile.file.metadata.enums.TSEncoding;
+import org.apache.iotdb.tsfile.read.TimeValuePair;
+import org.apache.iotdb.tsfile.utils.BitMap;
+import org.apache.iotdb.tsfile.utils.TsPrimitiveType;
+
+import java.nio.ByteBuffer;
+import java.nio.IntBuffer;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.apache.iotdb.db.rescon.PrimitiveArrayManager.ARRAY_SIZE;
+
+public class OffHeapIntTVList extends OffHeapTVList {
+
+  // list of value buffers, add 1 when expanded -> int values
+  // index relation: arrayIndex -> elementIndex
+  private List<ByteBuffer> values;
+
+  private int[][] sortedValues;
+
+  private int pivotValue;
+
+  OffHeapIntTVList(OffHeapArena arena) {
+    super(arena);
+    values = new ArrayList<>();
+  }
+
+  @Override
+  public void putInt(long timestamp, int value) {
+    checkExpansion();
+    int arrayIndex = size / ARRAY_SIZE;
+    int elementIndex = size % ARRAY_SIZE;
+    minTime = Math.min(minTime, timestamp);
+    setTime(arrayIndex, elementIndex, timestamp);
+    values.get(arrayIndex).putInt(elementIndex * Integer.BYTES, value);
+    size++;
+    if (sorted && size > 1 && timestamp < getTime(size - 2)) {
+      sorted = false;
+    }
+  }
+
+  @Override
+  public int getInt(int index) {
+    if (index >= size) {
+      throw new ArrayIndexOutOfBoundsException(index);
+    }
+    int arrayIndex = index / ARRAY_SIZE;
+    int elementIndex = index % ARRAY_SIZE;
+    return values.get(arrayIndex).getInt(elementIndex * Integer.BYTES);
+  }
+
+  protected void set(int index, long timestamp, int value) {
+    if (index >= size) {
+      throw new ArrayIndexOutOfBoundsException(index);
+    }
+    int arrayIndex = index / ARRAY_SIZE;
+    int elementIndex = index % ARRAY_SIZE;
+    setTime(arrayIndex, elementIndex, timestamp);
+    values.get(arrayIndex).putInt(elementIndex * Integer.BYTES, value);
+  }
+
+  @Override
+  public OffHeapIntTVList clone() {
+    OffHeapIntTVList cloneList = new OffHeapIntTVList(arena);
+    cloneAs(cloneList);
+    for (ByteBuffer valueBuffer : values) {
+      cloneList.values.add(cloneArray(valueBuffer));
+    }
+    return cloneList;
+  }
+
+  @Override
+  protected void createSortedValues() {
+    if (isSortBufferTooSmall(sortedValues)) {
+      sortedValues = (int[][]) PrimitiveArrayManager.createDataListsByType(TSDataType.INT32, size);
+    }
+  }
+
+  @Override
+  void clearValue() {
+    values.clear();
+  }
+
+  @Override
+  void clearSortedValue() {
+    if (sortedValues != null) {
+      sortedValues = null;
+    }
+  }
+
+  @Override
+  protected void setFromSorted(int src, int dest) {
+    set(
+        dest,
+        sortedTimestamps[src / ARRAY_SIZE][src % ARRAY_SIZE],
+        sortedValues[src / ARRAY_SIZE][src % ARRAY_SIZE]);
+  }
+
+  @Override
+  protected void set(int src, int dest) {
+    long srcT = getTime(src);
+    int srcV = getInt(src);
+    set(dest, srcT, srcV);
+  }
+
+  @Override
+  protected void setToSorted(int src, int dest) {
+    sortedTimestamps[dest / ARRAY_SIZE][dest % ARRAY_SIZE] = getTime(src);
+    sortedValues[dest / ARRAY_SIZE][dest % ARRAY_SIZE] = getInt(src);
+  }
+
+  @Override
+  protected void reverseRange(int lo, int hi) {
+    hi--;
+    while (lo < hi) {
+      long loT = getTime(lo);
+      int loV = getInt(lo);
+      long hiT = getTime(hi);
+      int hiV = getInt(hi);
+      set(lo++, hiT, hiV);
+      set(hi--, loT, loV);
+    }
+  }
+
+  @Override
+  protected void expandValues() {
+    values.add(allocateArray(Integer.BYTES));
+  }
+
+  @Override
+  protected void saveAsPivot(int pos) {
+    pivotTime = getTime(pos);
+    pivotValue = getInt(pos);
+  }
+
+  @Override
+  protected void setPivotTo(int pos) {
+    set(pos, pivotTime, pivotValue);
+  }
+
+  @Override
+  public TimeValuePair getTimeValuePair(int index) {
+    return new TimeValuePair(
+        getTime(index), TsPrimitiveType.getByType(TSDataType.INT32, getInt(index)));
+  }
+
+  @Override
+  protected TimeValuePair getTimeValuePair(
+      int index, long time, Integer floatPrecision, TSEncoding encoding) {
+    return new TimeValuePair(time, TsPrimitiveType.getByType(TSDataType.INT32, getInt(index)));
+  }
+
+  @Override
+  protected void releaseLastValueArray() {
+    values.remove(values.size() - 1);
+  }
+
+  @Override
+  public void putInts(long[] time, int[] value, BitMap bitMap, int start, int end) {
+    putPoints(time, value, bitMap, start, end);
+  }
+
+  @Override
+  public void putInts(long[] time, IntBuffer value, BitMap bitMap, int start, int end) {
+    putPoints(time, value, bitMap, start, end);
+  }
+
+  @Override
+  protected void putPoint(long time, Object values, int index) {
+    putInt(
+        time,
+        values instanceof IntBuffer
+            ? ((IntBuffer) values).get(index)
+            : ((int[]) values)[index]);
+  }
+
+  @Override
+  protected void putValues(
+      Object values, int srcIndex, int arrayIndex, int elementIndex, int length) {
+    IntBuffer target =
+        positionedArray(this.values.get(arrayIndex), elementIndex, Integer.BYTES).asIntBuffer();
+    if (values instanceof IntBuffer) {
+      IntBuffer source = ((IntBuffer) values).duplicate();
+      source.position(srcIndex);
+      source.limit(srcIndex + length);
+      target.put(source);
+    } else {
+      target.put((int[]) values, srcIndex, length);
+    }
+  }
+
+  @Override
+  public TSDataType getDataType() {
+    return TSDataType.INT32;
+  }
+}
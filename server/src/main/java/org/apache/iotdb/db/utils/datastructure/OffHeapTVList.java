@@ -0,0 +1,128 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.iotdb.db.utils.datastructure;
+
+import org.apache.iotdb.db.rescon.OffHeapArena;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.apache.iotdb.db.rescon.PrimitiveArrayManager.ARRAY_SIZE;
+
+/**
+ * A TVList whose time and value arrays are direct buffers of the {@link OffHeapArena} of its
+ * memtable. The buffers are not returned to the arena one by one, the arena releases them in bulk
+ * after the memtable is flushed. The arrays used for sorting stay on heap as temporary memory.
+ *
+ * <p>The buffers are only accessed by absolute index, so their positions are always 0.
+ */
+public abstract class OffHeapTVList extends TVList {
+
+  protected final OffHeapArena arena;
+
+  // list of timestamp buffers, add 1 when expanded -> data point timestamp buffer
+  // index relation: arrayIndex -> elementIndex
+  protected final List<ByteBuffer> timestampBuffers;
+
+  OffHeapTVList(OffHeapArena arena) {
+    super();
+    this.arena = arena;
+    timestampBuffers = new ArrayList<>();
+  }
+
+  @Override
+  public void increaseReferenceCount() {
+    // the query may read the buffers after the memtable is flushed
+    arena.markReferenced();
+    super.increaseReferenceCount();
+  }
+
+  @Override
+  public long getTime(int index) {
+    if (index >= size) {
+      throw new ArrayIndexOutOfBoundsException(index);
+    }
+    int arrayIndex = index / ARRAY_SIZE;
+    int elementIndex = index % ARRAY_SIZE;
+    return timestampBuffers.get(arrayIndex).getLong(elementIndex * Long.BYTES);
+  }
+
+  protected void setTime(int arrayIndex, int elementIndex, long timestamp) {
+    timestampBuffers.get(arrayIndex).putLong(elementIndex * Long.BYTES, timestamp);
+  }
+
+  @Override
+  protected void checkExpansion() {
+    if ((size % ARRAY_SIZE) == 0) {
+      expandValues();
+      timestampBuffers.add(allocateArray(Long.BYTES));
+    }
+  }
+
+  /** allocate a buffer of ARRAY_SIZE elements from the arena */
+  protected ByteBuffer allocateArray(int elementBytes) {
+    return arena.allocate(ARRAY_SIZE * elementBytes);
+  }
+
+  protected ByteBuffer cloneArray(ByteBuffer array) {
+    ByteBuffer cloneArray = arena.allocate(array.capacity());
+    cloneArray.put(array.duplicate());
+    cloneArray.clear();
+    return cloneArray;
+  }
+
+  /** get a native ordered duplicate of the buffer positioned at the given element */
+  protected static ByteBuffer positionedArray(ByteBuffer array, int elementIndex, int elementBytes) {
+    ByteBuffer duplicate = array.duplicate().order(ByteOrder.nativeOrder());
+    duplicate.position(elementIndex * elementBytes);
+    return duplicate;
+  }
+
+  protected void cloneAs(OffHeapTVList cloneList) {
+    super.cloneAs(cloneList);
+    for (ByteBuffer timestampBuffer : timestampBuffers) {
+      cloneList.timestampBuffers.add(cloneArray(timestampBuffer));
+    }
+  }
+
+  @Override
+  protected int getTimeArrayNum() {
+    return timestampBuffers.size();
+  }
+
+  @Override
+  protected void releaseLastTimeArray() {
+    timestampBuffers.remove(timestampBuffers.size() - 1);
+  }
+
+  @Override
+  protected void clearTime() {
+    timestampBuffers.clear();
+  }
+
+  @Override
+  protected void putTimes(long[] time, int srcIndex, int arrayIndex, int elementIndex, int length) {
+    positionedArray(timestampBuffers.get(arrayIndex), elementIndex, Long.BYTES)
+        .asLongBuffer()
+        .put(time, srcIndex, length);
+  }
+}
@@ -19,6 +19,7 @@
 
 package org.apache.iotdb.db.utils.datastructure;
 
+import org.apache.iotdb.db.rescon.OffHeapArena;
 import org.apache.iotdb.db.rescon.PrimitiveArrayManager;
 import org.apache.iotdb.db.utils.TestOnly;
 import org.apache.iotdb.tsfile.file.metadata.enums.TSDataType;
@@ -30,7 +31,12 @@ import org.apache.iotdb.tsfile.utils.Binary;
 import org.apache.iotdb.tsfile.utils.BitMap;
 
 import java.io.IOException;
+import java.nio.DoubleBuffer;
+import java.nio.FloatBuffer;
+import java.nio.IntBuffer;
+import java.nio.LongBuffer;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 import java.util.concurrent.atomic.AtomicInteger;
 
@@ -41,6 +47,16 @@ import static org.apache.iotdb.tsfile.utils.RamUsageEstimator.NUM_BYTES_OBJECT_R
 public abstract class TVList {
 
   protected static final int SMALL_ARRAY_LENGTH = 32;
+  // a merging run wins so many points in a row before galloping
+  private static final int MIN_GALLOP = 7;
+  // enough for 2^31 points, from TimSort.java
+  private static final int MAX_RUN_STACK_SIZE = 49;
+  // ranges shorter than this are never radix sorted
+  private static final int RADIX_SORT_THRESHOLD = 4096;
+  // ranges whose runs are shorter than this on average are radix sorted
+  private static final int RADIX_SORT_MAX_AVERAGE_RUN_LENGTH = 8;
+  private static final int RADIX_BITS = 11;
+  private static final long RADIX_MASK = (1L << RADIX_BITS) - 1;
   protected static final String ERR_DATATYPE_NOT_CONSISTENT = "DataType not consistent";
   // list of timestamp array, add 1 when expanded -> data point timestamp array
   // index relation: arrayIndex -> elementIndex
@@ -57,6 +73,12 @@ public abstract class TVList {
 
   private long version;
 
+  // start offsets of the ascending runs found in [0, scannedSize), they are extended lazily by
+  // query snapshots so that an unsorted list can be read without being sorted or cloned
+  private int[] sortedRunStarts;
+  private int sortedRunCount;
+  private int scannedSize;
+
   public TVList() {
     timestamps = new ArrayList<>();
     size = 0;
@@ -84,6 +106,28 @@ public abstract class TVList {
     return null;
   }
 
+  /**
+   * Create a list whose arrays are allocated from the given arena if it is not null and the data
+   * type is INT32, INT64, FLOAT or DOUBLE, otherwise an on-heap list.
+   */
+  public static TVList newList(TSDataType dataType, OffHeapArena arena) {
+    if (arena == null) {
+      return newList(dataType);
+    }
+    switch (dataType) {
+      case FLOAT:
+        return new OffHeapFloatTVList(arena);
+      case INT32:
+        return new OffHeapIntTVList(arena);
+      case INT64:
+        return new OffHeapLongTVList(arena);
+      case DOUBLE:
+        return new OffHeapDoubleTVList(arena);
+      default:
+        return newList(dataType);
+    }
+  }
+
   public static long tvListArrayMemCost(TSDataType type) {
     long size = 0;
     // time array mem size
@@ -179,6 +223,23 @@ public abstract class TVList {
     throw new UnsupportedOperationException(ERR_DATATYPE_NOT_CONSISTENT);
   }
 
+  /** put the values of a view over a request buffer, see {@link #putPoints} */
+  public void putLongs(long[] time, LongBuffer value, BitMap bitMap, int start, int end) {
+    throw new UnsupportedOperationException(ERR_DATATYPE_NOT_CONSISTENT);
+  }
+
+  public void putInts(long[] time, IntBuffer value, BitMap bitMap, int start, int end) {
+    throw new UnsupportedOperationException(ERR_DATATYPE_NOT_CONSISTENT);
+  }
+
+  public void putFloats(long[] time, FloatBuffer value, BitMap bitMap, int start, int end) {
+    throw new UnsupportedOperationException(ERR_DATATYPE_NOT_CONSISTENT);
+  }
+
+  public void putDoubles(long[] time, DoubleBuffer value, BitMap bitMap, int start, int end) {
+    throw new UnsupportedOperationException(ERR_DATATYPE_NOT_CONSISTENT);
+  }
+
   public long getLong(int index) {
     throw new UnsupportedOperationException(ERR_DATATYPE_NOT_CONSISTENT);
   }
@@ -219,7 +280,32 @@ public abstract class TVList {
     throw new UnsupportedOperationException(ERR_DATATYPE_NOT_CONSISTENT);
   }
 
-  public abstract void sort();
+  public void sort() {
+    sort(0, size);
+    clearSortedValue();
+    clearSortedTime();
+    sorted = true;
+  }
+
+  /** allocate the arrays the points are merged into, only when a merge needs them */
+  protected void createSortBuffers() {
+    if (isSortBufferTooSmall(sortedTimestamps)) {
+      sortedTimestamps =
+          (long[][]) PrimitiveArrayManager.createDataListsByType(TSDataType.INT64, size);
+    }
+    createSortedValues();
+  }
+
+  /** allocate the arrays the values are merged into */
+  protected abstract void createSortedValues();
+
+  /**
+   * @param buffer arrays of ARRAY_SIZE elements allocated for sorting
+   * @return whether the buffer can't hold all points of this list
+   */
+  protected boolean isSortBufferTooSmall(Object[] buffer) {
+    return buffer == null || buffer.length < (size + ARRAY_SIZE - 1) / ARRAY_SIZE;
+  }
 
   public long getMinTime() {
     return minTime;
@@ -253,7 +339,54 @@ public abstract class TVList {
     PrimitiveArrayManager.release(timestamps.remove(timestamps.size() - 1));
   }
 
+  protected int getTimeArrayNum() {
+    return timestamps.size();
+  }
+
+  /**
+   * Find the ascending runs in the first {@link #size()} points. The list is append-only until it
+   * is sorted for flushing, so the runs found by the previous calls are kept and only the points
+   * written since then are scanned.
+   *
+   * @return the start offsets of the runs, or null if the points are sorted or there is no point
+   */
+  public synchronized int[] getSortedRunStarts() {
+    if (sorted) {
+      resetSortedRuns();
+      return null;
+    }
+    if (size == 0) {
+      // all the points of an unsorted list may have been deleted
+      return null;
+    }
+    if (sortedRunStarts == null) {
+      sortedRunStarts = new int[SMALL_ARRAY_LENGTH];
+      sortedRunCount = 1;
+      scannedSize = 1;
+    }
+    long prevTime = getTime(scannedSize - 1);
+    for (int i = scannedSize; i < size; i++) {
+      long time = getTime(i);
+      if (time < prevTime) {
+        if (sortedRunCount == sortedRunStarts.length) {
+          sortedRunStarts = Arrays.copyOf(sortedRunStarts, sortedRunCount * 2);
+        }
+        sortedRunStarts[sortedRunCount++] = i;
+      }
+      prevTime = time;
+    }
+    scannedSize = size;
+    return Arrays.copyOf(sortedRunStarts, sortedRunCount);
+  }
+
+  private synchronized void resetSortedRuns() {
+    sortedRunStarts = null;
+    sortedRunCount = 0;
+    scannedSize = 0;
+  }
+
   public int delete(long lowerBound, long upperBound) {
+    resetSortedRuns();
     int newSize = 0;
     minTime = Long.MAX_VALUE;
     for (int i = 0; i < size; i++) {
@@ -270,7 +403,7 @@ public abstract class TVList {
     if (newSize % ARRAY_SIZE != 0) {
       newArrayNum++;
     }
-    int oldArrayNum = timestamps.size();
+    int oldArrayNum = getTimeArrayNum();
     for (int releaseIdx = newArrayNum; releaseIdx < oldArrayNum; releaseIdx++) {
       releaseLastTimeArray();
       releaseLastValueArray();
@@ -288,6 +421,7 @@ public abstract class TVList {
   }
 
   public void clear() {
+    resetSortedRuns();
     size = 0;
     sorted = true;
     minTime = Long.MAX_VALUE;
@@ -338,23 +472,184 @@ public abstract class TVList {
     return cloneArray;
   }
 
+  /**
+   * Sort the points in [lo, hi) stably by time. Like TimSort, the ascending runs are detected
+   * (descending ones reversed), short runs are extended by binary insertion and the runs are merged
+   * with galloping, so a few long runs with some late arrivals cost little more than one scan. A
+   * large range too disordered for that is sorted by radix on the timestamps instead.
+   */
   protected void sort(int lo, int hi) {
     if (sorted) {
       return;
     }
 
-    if (lo == hi) {
+    int remaining = hi - lo;
+    if (remaining < 2) {
       return;
     }
-    if (hi - lo <= SMALL_ARRAY_LENGTH) {
+    if (remaining <= SMALL_ARRAY_LENGTH) {
       int initRunLen = countRunAndMakeAscending(lo, hi);
       binarySort(lo, hi, lo + initRunLen);
       return;
     }
-    int mid = (lo + hi) >>> 1;
-    sort(lo, mid);
-    sort(mid, hi);
-    merge(lo, mid, hi);
+    if (remaining >= RADIX_SORT_THRESHOLD
+        && countDescents(lo, hi) > remaining / RADIX_SORT_MAX_AVERAGE_RUN_LENGTH) {
+      radixSort(lo, hi);
+      return;
+    }
+
+    RunStack runStack = new RunStack();
+    int minRun = minRunLength(remaining);
+    do {
+      int runLen = countRunAndMakeAscending(lo, hi);
+      if (runLen < minRun) {
+        int force = Math.min(remaining, minRun);
+        binarySort(lo, lo + force, lo + runLen);
+        runLen = force;
+      }
+      runStack.push(lo, runLen);
+      runStack.mergeCollapse();
+      lo += runLen;
+      remaining -= runLen;
+    } while (remaining != 0);
+    runStack.mergeForceCollapse();
+  }
+
+  /** From TimSort.java */
+  private static int minRunLength(int n) {
+    int r = 0;
+    while (n >= SMALL_ARRAY_LENGTH) {
+      r |= (n & 1);
+      n >>= 1;
+    }
+    return n + r;
+  }
+
+  /** the runs waiting to be merged, From TimSort.java */
+  private class RunStack {
+
+    private final int[] runBase = new int[MAX_RUN_STACK_SIZE];
+    private final int[] runLen = new int[MAX_RUN_STACK_SIZE];
+    private int stackSize = 0;
+
+    private void push(int base, int len) {
+      runBase[stackSize] = base;
+      runLen[stackSize] = len;
+      stackSize++;
+    }
+
+    /**
+     * Merge the runs until runLen[i - 2] > runLen[i - 1] + runLen[i] and runLen[i - 1] > runLen[i]
+     * hold for the whole stack, so that the runs merged have similar lengths.
+     */
+    private void mergeCollapse() {
+      while (stackSize > 1) {
+        int n = stackSize - 2;
+        if ((n > 0 && runLen[n - 1] <= runLen[n] + runLen[n + 1])
+            || (n > 1 && runLen[n - 2] <= runLen[n] + runLen[n - 1])) {
+          if (runLen[n - 1] < runLen[n + 1]) {
+            n--;
+          }
+        } else if (runLen[n] > runLen[n + 1]) {
+          break;
+        }
+        mergeAt(n);
+      }
+    }
+
+    private void mergeForceCollapse() {
+      while (stackSize > 1) {
+        int n = stackSize - 2;
+        if (n > 0 && runLen[n - 1] < runLen[n + 1]) {
+          n--;
+        }
+        mergeAt(n);
+      }
+    }
+
+    /** merge the run i with the run i + 1 */
+    private void mergeAt(int i) {
+      int base1 = runBase[i];
+      int base2 = runBase[i + 1];
+      int end = base2 + runLen[i + 1];
+      runLen[i] += runLen[i + 1];
+      if (i == stackSize - 3) {
+        runBase[i + 1] = runBase[i + 2];
+        runLen[i + 1] = runLen[i + 2];
+      }
+      stackSize--;
+      merge(base1, base2, end);
+    }
+  }
+
+  private int countDescents(int lo, int hi) {
+    int descents = 0;
+    long previousTime = getTime(lo);
+    for (int i = lo + 1; i < hi; i++) {
+      long time = getTime(i);
+      if (time < previousTime) {
+        descents++;
+      }
+      previousTime = time;
+    }
+    return descents;
+  }
+
+  /**
+   * Stable LSD radix sort on the timestamps. The timestamps are sorted together with the indices of
+   * their points, which are then moved through the sorting buffers in one pass. Only the bits that
+   * differ between the minimum and the maximum timestamp are sorted.
+   */
+  private void radixSort(int lo, int hi) {
+    int n = hi - lo;
+    long[] keys = new long[n];
+    int[] indices = new int[n];
+    long min = Long.MAX_VALUE;
+    long max = Long.MIN_VALUE;
+    for (int i = 0; i < n; i++) {
+      keys[i] = getTime(lo + i);
+      indices[i] = lo + i;
+      min = Math.min(min, keys[i]);
+      max = Math.max(max, keys[i]);
+    }
+
+    long[] keyBuffer = new long[n];
+    int[] indexBuffer = new int[n];
+    int[] counts = new int[(1 << RADIX_BITS) + 1];
+    // the difference is unsigned, so is the shift
+    int bits = Long.SIZE - Long.numberOfLeadingZeros(max - min);
+    for (int shift = 0; shift < bits; shift += RADIX_BITS) {
+      Arrays.fill(counts, 0);
+      for (int i = 0; i < n; i++) {
+        counts[digit(keys[i] - min, shift) + 1]++;
+      }
+      for (int i = 1; i < counts.length; i++) {
+        counts[i] += counts[i - 1];
+      }
+      for (int i = 0; i < n; i++) {
+        int position = counts[digit(keys[i] - min, shift)]++;
+        keyBuffer[position] = keys[i];
+        indexBuffer[position] = indices[i];
+      }
+      long[] tmpKeys = keys;
+      keys = keyBuffer;
+      keyBuffer = tmpKeys;
+      int[] tmpIndices = indices;
+      indices = indexBuffer;
+      indexBuffer = tmpIndices;
+    }
+
+    createSortBuffers();
+    for (int i = 0; i < n; i++) {
+      setToSorted(indices[i], lo + i);
+    }
+    for (int i = lo; i < hi; i++) {
+      setFromSorted(i, i);
+    }
+  }
+
+  private static int digit(long key, int shift) {
+    return (int) ((key >>> shift) & RADIX_MASK);
   }
 
   protected int countRunAndMakeAscending(int lo, int hi) {
@@ -430,62 +725,146 @@ public abstract class TVList {
       }
       setPivotTo(left);
     }
-    for (int i = lo; i < hi; i++) {
-      setToSorted(i, i);
-    }
   }
 
+  /**
+   * Merge the ascending runs [lo, mid) and [mid, hi). The points already in place at both ends are
+   * skipped, and when one run wins MIN_GALLOP times in a row, the following points it wins are
+   * found by galloping instead of one by one.
+   */
   protected void merge(int lo, int mid, int hi) {
-    // end of sorting buffer
-    int tmpIdx = 0;
+    // the points of the left run not after the first point of the right run are in place
+    lo = gallopRight(getTime(mid), lo, mid);
+    // so are the points of the right run not before the last point of the left run
+    hi = gallopLeft(getTime(mid - 1), mid, hi);
+    if (lo == mid || hi == mid) {
+      return;
+    }
+    createSortBuffers();
 
+    // end of sorting buffer
+    int tmpIdx = lo;
     // start of unmerged parts of each sequence
     int leftIdx = lo;
     int rightIdx = mid;
-
-    // copy the minimum elements to sorting buffer until one sequence is exhausted
-    int endSide = 0;
-    while (endSide == 0) {
+    int leftWins = 0;
+    int rightWins = 0;
+    while (leftIdx < mid && rightIdx < hi) {
       if (compare(leftIdx, rightIdx) <= 0) {
-        setToSorted(leftIdx, lo + tmpIdx);
-        tmpIdx++;
-        leftIdx++;
-        if (leftIdx == mid) {
-          endSide = 1;
+        setToSorted(leftIdx++, tmpIdx++);
+        rightWins = 0;
+        if (++leftWins >= MIN_GALLOP) {
+          int leftEnd = gallopRight(getTime(rightIdx), leftIdx, mid);
+          while (leftIdx < leftEnd) {
+            setToSorted(leftIdx++, tmpIdx++);
+          }
+          leftWins = 0;
         }
       } else {
-        setToSorted(rightIdx, lo + tmpIdx);
-        tmpIdx++;
-        rightIdx++;
-        if (rightIdx == hi) {
-          endSide = 2;
+        setToSorted(rightIdx++, tmpIdx++);
+        leftWins = 0;
+        if (++rightWins >= MIN_GALLOP) {
+          int rightEnd = gallopLeft(getTime(leftIdx), rightIdx, hi);
+          while (rightIdx < rightEnd) {
+            setToSorted(rightIdx++, tmpIdx++);
+          }
+          rightWins = 0;
         }
       }
     }
-
-    // copy the remaining elements of another sequence
-    int start;
-    int end;
-    if (endSide == 1) {
-      start = rightIdx;
-      end = hi;
-    } else {
-      start = leftIdx;
-      end = mid;
-    }
-    for (; start < end; start++) {
-      setToSorted(start, lo + tmpIdx);
-      tmpIdx++;
+    // the rest of the right run is already in place
+    while (leftIdx < mid) {
+      setToSorted(leftIdx++, tmpIdx++);
     }
 
     // copy from sorting buffer to the original arrays so that they can be further sorted
-    // potential speed up: change the place of sorting buffer and origin data between merge
-    // iterations
-    for (int i = lo; i < hi; i++) {
+    for (int i = lo; i < tmpIdx; i++) {
       setFromSorted(i, i);
     }
   }
 
+  /** @return the first index in [lo, hi) whose time is greater than the key, or hi */
+  private int gallopRight(long key, int lo, int hi) {
+    int offset = 1;
+    while (lo + offset < hi && getTime(lo + offset - 1) <= key) {
+      lo += offset;
+      offset <<= 1;
+    }
+    return binarySearch(key, lo, Math.min(lo + offset, hi), false);
+  }
+
+  /** @return the first index in [lo, hi) whose time is not less than the key, or hi */
+  private int gallopLeft(long key, int lo, int hi) {
+    int offset = 1;
+    while (lo + offset < hi && getTime(lo + offset - 1) < key) {
+      lo += offset;
+      offset <<= 1;
+    }
+    return binarySearch(key, lo, Math.min(lo + offset, hi), true);
+  }
+
+  private int binarySearch(long key, int lo, int hi, boolean left) {
+    while (lo < hi) {
+      int mid = (lo + hi) >>> 1;
+      long time = getTime(mid);
+      if (time < key || (!left && time == key)) {
+        lo = mid + 1;
+      } else {
+        hi = mid;
+      }
+    }
+    return lo;
+  }
+
+  /**
+   * Put the points in [start, end). Without nulls, the times and values are copied array by array,
+   * otherwise the points that are not null are put one by one. Unlike the put methods of arrays,
+   * the input is never modified, so the values can be a read-only view.
+   *
+   * @param values an array or a view of the data type of this list
+   */
+  protected void putPoints(long[] time, Object values, BitMap bitMap, int start, int end) {
+    if (bitMap != null && !bitMap.isAllUnmarked()) {
+      for (int i = start; i < end; i++) {
+        if (!bitMap.isMarked(i)) {
+          putPoint(time[i], values, i);
+        }
+      }
+      return;
+    }
+
+    updateMinTimeAndSorted(time, start, end);
+    int idx = start;
+    while (idx < end) {
+      // the last array is full, or there is no array
+      if ((size % ARRAY_SIZE) == 0) {
+        checkExpansion();
+      }
+      int arrayIdx = size / ARRAY_SIZE;
+      int elementIdx = size % ARRAY_SIZE;
+      int length = Math.min(end - idx, ARRAY_SIZE - elementIdx);
+      putTimes(time, idx, arrayIdx, elementIdx, length);
+      putValues(values, idx, arrayIdx, elementIdx, length);
+      idx += length;
+      size += length;
+    }
+  }
+
+  protected void putTimes(long[] time, int srcIndex, int arrayIndex, int elementIndex, int length) {
+    System.arraycopy(time, srcIndex, timestamps.get(arrayIndex), elementIndex, length);
+  }
+
+  /** put the point of the given index of the values, see {@link #putPoints} */
+  protected void putPoint(long time, Object values, int index) {
+    throw new UnsupportedOperationException(ERR_DATATYPE_NOT_CONSISTENT);
+  }
+
+  /** copy the values in [srcIndex, srcIndex + length) into the given array of this list */
+  protected void putValues(
+      Object values, int srcIndex, int arrayIndex, int elementIndex, int length) {
+    throw new UnsupportedOperationException(ERR_DATATYPE_NOT_CONSISTENT);
+  }
+
   void updateMinTimeAndSorted(long[] time) {
     updateMinTimeAndSorted(time, 0, time.length);
   }
@@ -528,13 +907,32 @@ public abstract class TVList {
     return new Ite(floatPrecision, encoding, size, deletionList);
   }
 
+  /**
+   * Get an iterator over the first size points in time order. If the points are split into more
+   * than one ascending run, the runs are merged lazily instead of sorting the list.
+   *
+   * @param sortedRunStarts the start offsets of the ascending runs, see {@link
+   *     #getSortedRunStarts()}
+   */
+  public IPointReader getIterator(
+      int floatPrecision,
+      TSEncoding encoding,
+      int size,
+      List<TimeRange> deletionList,
+      int[] sortedRunStarts) {
+    if (sortedRunStarts == null || sortedRunStarts.length <= 1) {
+      return getIterator(floatPrecision, encoding, size, deletionList);
+    }
+    return new SortedRunsIte(floatPrecision, encoding, size, deletionList, sortedRunStarts);
+  }
+
   protected class Ite implements IPointReader {
 
     protected TimeValuePair cachedTimeValuePair;
     protected boolean hasCachedPair;
     protected int cur;
     protected Integer floatPrecision;
-    private TSEncoding encoding;
+    protected TSEncoding encoding;
     private int deleteCursor = 0;
     /**
      * because TV list may be share with different query, each iterator has to record it's own size
@@ -562,7 +960,7 @@ public abstract class TVList {
 
       while (cur < iteSize) {
         long time = getTime(cur);
-        if (isPointDeleted(time) || (cur + 1 < size() && (time == getTime(cur + 1)))) {
+        if (isPointDeleted(time) || (cur + 1 < iteSize && (time == getTime(cur + 1)))) {
           cur++;
           continue;
         }
@@ -613,6 +1011,105 @@ public abstract class TVList {
     }
   }
 
+  /** merge the ascending runs of an unsorted snapshot with a min-heap of run cursors */
+  private class SortedRunsIte extends Ite {
+
+    private final int[] runCursors;
+    private final int[] runEnds;
+    /** run ids ordered by the time of their cursors, then by the cursors themselves */
+    private final int[] heap;
+
+    private int heapSize;
+
+    SortedRunsIte(
+        int floatPrecision,
+        TSEncoding encoding,
+        int size,
+        List<TimeRange> deletionList,
+        int[] sortedRunStarts) {
+      super(floatPrecision, encoding, size, deletionList);
+      int runNum = sortedRunStarts.length;
+      runCursors = new int[runNum];
+      runEnds = new int[runNum];
+      heap = new int[runNum];
+      for (int run = 0; run < runNum; run++) {
+        int start = Math.min(sortedRunStarts[run], size);
+        int end = run + 1 < runNum ? Math.min(sortedRunStarts[run + 1], size) : size;
+        if (start < end) {
+          runCursors[run] = start;
+          runEnds[run] = end;
+          heap[heapSize++] = run;
+        }
+      }
+      for (int i = heapSize / 2 - 1; i >= 0; i--) {
+        siftDown(i);
+      }
+    }
+
+    @Override
+    public boolean hasNextTimeValuePair() {
+      if (hasCachedPair) {
+        return true;
+      }
+
+      while (heapSize > 0) {
+        int index = pollMinIndex();
+        long time = getTime(index);
+        // points of the same time are polled in the order they were written, so the last one
+        // wins just like in a stable sort
+        while (heapSize > 0 && getTime(runCursors[heap[0]]) == time) {
+          index = pollMinIndex();
+        }
+        if (isPointDeleted(time)) {
+          continue;
+        }
+        TimeValuePair tvPair = getTimeValuePair(index, time, floatPrecision, encoding);
+        if (tvPair.getValue() != null) {
+          cachedTimeValuePair = tvPair;
+          hasCachedPair = true;
+          return true;
+        }
+      }
+
+      return false;
+    }
+
+    private int pollMinIndex() {
+      int run = heap[0];
+      int index = runCursors[run]++;
+      if (runCursors[run] == runEnds[run]) {
+        heap[0] = heap[--heapSize];
+      }
+      siftDown(0);
+      return index;
+    }
+
+    private void siftDown(int pos) {
+      while (true) {
+        int child = 2 * pos + 1;
+        if (child >= heapSize) {
+          return;
+        }
+        if (child + 1 < heapSize && less(heap[child + 1], heap[child])) {
+          child++;
+        }
+        if (!less(heap[child], heap[pos])) {
+          return;
+        }
+        int tmp = heap[pos];
+        heap[pos] = heap[child];
+        heap[child] = tmp;
+        pos = child;
+      }
+    }
+
+    private boolean less(int run1, int run2) {
+      long time1 = getTime(runCursors[run1]);
+      long time2 = getTime(runCursors[run2]);
+      return time1 < time2 || (time1 == time2 && runCursors[run1] < runCursors[run2]);
+    }
+  }
+
   public abstract TSDataType getDataType();
 
   public long getLastTime() {
@@ -24,7 +24,10 @@ import org.apache.iotdb.db.conf.IoTDBDescriptor;
 import org.apache.iotdb.db.exception.StartupException;
 import org.apache.iotdb.db.service.IService;
 import org.apache.iotdb.db.service.ServiceType;
+import org.apache.iotdb.db.writelog.WALMode;
 import org.apache.iotdb.db.writelog.node.ExclusiveWriteLogNode;
+import org.apache.iotdb.db.writelog.node.SharedWriteLog;
+import org.apache.iotdb.db.writelog.node.SharedWriteLogNode;
 import org.apache.iotdb.db.writelog.node.WriteLogNode;
 
 import org.slf4j.Logger;
@@ -40,8 +43,9 @@ import java.util.function.Consumer;
 import java.util.function.Supplier;
 
 /**
- * MultiFileLogNodeManager manages all ExclusiveWriteLogNodes, each manages WALs of a TsFile (either
- * seq or unseq).
+ * MultiFileLogNodeManager manages all WriteLogNodes, each manages WALs of a TsFile (either seq or
+ * unseq). The nodes are ExclusiveWriteLogNodes, or SharedWriteLogNodes of one SharedWriteLog when
+ * wal_mode is SHARED.
  */
 public class MultiFileLogNodeManager implements WriteLogNodeManager, IService {
 
@@ -51,6 +55,8 @@ public class MultiFileLogNodeManager implements WriteLogNodeManager, IService {
   private ScheduledExecutorService executorService;
   private final IoTDBConfig config = IoTDBDescriptor.getInstance().getConfig();
 
+  private SharedWriteLog sharedWriteLog;
+
   // For fixing too many warn logs when system changes to read-only mode
   private boolean firstReadOnly = true;
 
@@ -68,6 +74,14 @@ public class MultiFileLogNodeManager implements WriteLogNodeManager, IService {
       return;
     }
 
+    if (config.getWalMode() == WALMode.SHARED) {
+      try {
+        getSharedWriteLog().forceSync();
+      } catch (IOException e) {
+        logger.error("Cannot force the shared WAL, because ", e);
+      }
+      return;
+    }
     for (WriteLogNode node : nodeMap.values()) {
       try {
         node.forceSync();
@@ -89,6 +103,11 @@ public class MultiFileLogNodeManager implements WriteLogNodeManager, IService {
   public WriteLogNode getNode(String identifier, Supplier<ByteBuffer[]> supplier) {
     WriteLogNode node = nodeMap.get(identifier);
     if (node == null) {
+      if (config.getWalMode() == WALMode.SHARED) {
+        // the shared log buffers the logs itself, so no buffer is taken from the supplier
+        return nodeMap.computeIfAbsent(
+            identifier, id -> new SharedWriteLogNode(id, getSharedWriteLog()));
+      }
       node = new ExclusiveWriteLogNode(identifier);
       WriteLogNode oldNode = nodeMap.putIfAbsent(identifier, node);
       if (oldNode != null) {
@@ -100,11 +119,40 @@ public class MultiFileLogNodeManager implements WriteLogNodeManager, IService {
     return node;
   }
 
+  private synchronized SharedWriteLog getSharedWriteLog() {
+    if (sharedWriteLog == null) {
+      try {
+        sharedWriteLog = new SharedWriteLog();
+      } catch (IOException e) {
+        throw new IllegalStateException("Cannot open the shared WAL", e);
+      }
+    }
+    return sharedWriteLog;
+  }
+
+  /**
+   * Discard the logs in the shared WAL of the TsFiles that are not recovered, which is called when
+   * all storage groups are recovered.
+   */
+  public void discardUnrecoveredLogs() {
+    if (!config.isEnableWal() || config.getWalMode() != WALMode.SHARED) {
+      return;
+    }
+    try {
+      getSharedWriteLog().discardRecoveredNodes();
+    } catch (IOException e) {
+      logger.warn("Cannot discard the logs in the shared WAL that are not recovered", e);
+    }
+  }
+
   @Override
   public void deleteNode(String identifier, Consumer<ByteBuffer[]> consumer) throws IOException {
     WriteLogNode node = nodeMap.remove(identifier);
     if (node != null) {
-      consumer.accept(node.delete());
+      ByteBuffer[] buffers = node.delete();
+      if (buffers.length > 0) {
+        consumer.accept(buffers);
+      }
     }
   }
 
@@ -119,6 +167,12 @@ public class MultiFileLogNodeManager implements WriteLogNodeManager, IService {
       }
     }
     nodeMap.clear();
+    synchronized (this) {
+      if (sharedWriteLog != null) {
+        sharedWriteLog.close();
+        sharedWriteLog = null;
+      }
+    }
     logger.info("LogNodeManager closed.");
   }
 
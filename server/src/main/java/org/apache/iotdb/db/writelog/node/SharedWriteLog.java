@@ -0,0 +1,731 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.iotdb.db.writelog.node;
+
+import org.apache.iotdb.db.conf.IoTDBDescriptor;
+import org.apache.iotdb.db.conf.directories.DirectoryManager;
+import org.apache.iotdb.db.engine.fileSystem.SystemFileFactory;
+import org.apache.iotdb.db.exception.metadata.IllegalPathException;
+import org.apache.iotdb.db.qp.physical.PhysicalPlan;
+import org.apache.iotdb.db.writelog.WALSyncMode;
+import org.apache.iotdb.db.writelog.io.ILogReader;
+import org.apache.iotdb.tsfile.utils.PublicBAOS;
+
+import org.apache.commons.io.FileUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.zip.CRC32;
+
+/**
+ * SharedWriteLog is a log shared by the SharedWriteLogNodes of all TsFiles, so that concurrent
+ * insertions into different TsFiles are written and forced together instead of into a file each.
+ *
+ * <p>An insertion is appended into a queue. The first thread that waits for the queue to be
+ * written becomes the leader: it writes all queued logs with one write and one force (group
+ * commit), while the logs appended in the meantime wait for the next leader. When an insertion
+ * returns depends on the {@link WALSyncMode}.
+ *
+ * <p>The log is split into segments of a fixed size, which are pre-allocated so that forcing them
+ * does not change the file metadata. Each log records its node, and the memtable of the node it
+ * belongs to. When a memtable is flushed or a TsFile is closed, a mark is appended, and a segment
+ * is discarded when all its logs are marked and so are the segments before it. Discarded segments
+ * are renamed and reused instead of being allocated again.
+ *
+ * <p>Each log is stored as [length][segment id][log][check sum of segment id and log]. The segment
+ * id tells a log from the remains of a reused segment. A log is [type][node][memtable][plan].
+ */
+public class SharedWriteLog {
+
+  private static final Logger logger = LoggerFactory.getLogger(SharedWriteLog.class);
+
+  public static final String SHARED_WAL_FOLDER = "shared";
+  public static final String SEGMENT_FILE_NAME = "segment";
+  public static final String RECYCLED_FILE_NAME = "recycled";
+
+  static final byte PLAN_LOG = 0;
+  private static final byte FLUSHED_MARK = 1;
+  private static final byte DELETED_MARK = 2;
+
+  /** 4 bytes length, 8 bytes segment id and 8 bytes check sum */
+  private static final int LOG_OVERHEAD = Integer.BYTES + Long.BYTES + Long.BYTES;
+
+  private static final int MAX_RECYCLED_SEGMENT_NUM = 4;
+  private static final int PRE_ALLOCATE_BUFFER_SIZE = 1024 * 1024;
+
+  private final File logDirectory;
+  private final WALSyncMode syncMode;
+  private final long segmentSize;
+  /** the queued bytes that a log waits to be written in ASYNC mode */
+  private final long maxQueuedBytes;
+
+  private final ReentrantLock lock = new ReentrantLock();
+  private final Condition committed = lock.newCondition();
+  private List<Log> queue = new ArrayList<>();
+  private long queuedBytes = 0;
+  // sequence numbers of the last appended, written and forced log
+  private long appendedSeq = 0;
+  private long writtenSeq = 0;
+  private long forcedSeq = 0;
+  private boolean committing = false;
+  private IOException failure;
+
+  // only accessed by the leader
+  private ByteBuffer writeBuffer = ByteBuffer.allocate(PRE_ALLOCATE_BUFFER_SIZE);
+  private final CRC32 checkSummer = new CRC32();
+
+  /** segments that are not discarded in the order of ids, guarded by itself */
+  private final Deque<Segment> segments = new ArrayDeque<>();
+
+  private final Deque<File> recycledFiles = new ArrayDeque<>();
+  private volatile Segment currentSegment;
+  private long nextSegmentId = 0;
+  private volatile boolean closed = false;
+
+  /** nodes that have logs from before the restart and are not taken by a SharedWriteLogNode */
+  private final Map<String, NodeState> recoveredNodes = new ConcurrentHashMap<>();
+
+  public SharedWriteLog() throws IOException {
+    this(
+        SystemFileFactory.INSTANCE.getFile(
+            DirectoryManager.getInstance().getWALFolder(), SHARED_WAL_FOLDER),
+        // like the exclusive WAL, a force period of 0 means forcing after each write
+        IoTDBDescriptor.getInstance().getConfig().getForceWalPeriodInMs() == 0
+            ? WALSyncMode.SYNC
+            : IoTDBDescriptor.getInstance().getConfig().getSharedWalSyncMode(),
+        IoTDBDescriptor.getInstance().getConfig().getSharedWalSegmentSizeInByte(),
+        IoTDBDescriptor.getInstance().getConfig().getWalBufferSize());
+  }
+
+  public SharedWriteLog(
+      File logDirectory, WALSyncMode syncMode, long segmentSize, long maxQueuedBytes)
+      throws IOException {
+    this.logDirectory = logDirectory;
+    this.syncMode = syncMode;
+    this.segmentSize = segmentSize;
+    this.maxQueuedBytes = maxQueuedBytes;
+    if (logDirectory.mkdirs()) {
+      logger.info("create the shared WAL folder {}.", logDirectory);
+    }
+    recover();
+  }
+
+  /**
+   * Get the state of the node. If the node has logs from before the restart, they can be read by
+   * {@link #getLogReader(NodeState)}.
+   */
+  NodeState getNodeState(String identifier) {
+    NodeState state = recoveredNodes.remove(identifier);
+    if (state == null) {
+      return new NodeState(identifier);
+    }
+    // the following logs belong to the memtable not flushed, or a new one
+    state.epoch = Math.max(state.epoch, state.flushedEpoch + 1);
+    return state;
+  }
+
+  /**
+   * Mark the nodes that have logs from before the restart but are not recovered as deleted, which
+   * is called when all TsFiles are recovered.
+   */
+  public void discardRecoveredNodes() throws IOException {
+    Iterator<NodeState> iterator = recoveredNodes.values().iterator();
+    while (iterator.hasNext()) {
+      NodeState state = iterator.next();
+      iterator.remove();
+      logger.info("Discard the shared WAL of {} which is not recovered", state.identifier);
+      delete(state);
+    }
+  }
+
+  void appendPlan(NodeState state, byte[] log) throws IOException {
+    state.hasLogs = true;
+    append(new Log(state, state.epoch, log));
+  }
+
+  /** Mark the oldest memtable of the node that is not flushed as flushed. */
+  void flushed(NodeState state) throws IOException {
+    state.flushedEpoch++;
+    append(
+        new Log(state, state.flushedEpoch, serializeMark(FLUSHED_MARK, state, state.flushedEpoch)));
+    discardSegments();
+  }
+
+  void delete(NodeState state) throws IOException {
+    state.deleted = true;
+    if (state.hasLogs) {
+      append(new Log(state, state.epoch, serializeMark(DELETED_MARK, state, state.epoch)));
+      discardSegments();
+    }
+  }
+
+  /**
+   * Serialize the head of a log of the node, which is followed by the plan for a plan log.
+   *
+   * @param epoch the memtable of the node that the log belongs to
+   */
+  static void serializeHead(byte type, NodeState state, long epoch, DataOutputStream stream)
+      throws IOException {
+    stream.writeByte(type);
+    stream.writeInt(state.identifierBytes.length);
+    stream.write(state.identifierBytes);
+    stream.writeLong(epoch);
+  }
+
+  private byte[] serializeMark(byte type, NodeState state, long epoch) throws IOException {
+    PublicBAOS byteStream = new PublicBAOS();
+    serializeHead(type, state, epoch, new DataOutputStream(byteStream));
+    return byteStream.toByteArray();
+  }
+
+  private void append(Log log) throws IOException {
+    lock.lock();
+    try {
+      checkFailure();
+      queue.add(log);
+      queuedBytes += log.size();
+      long seq = ++appendedSeq;
+      if (syncMode == WALSyncMode.ASYNC && queuedBytes < maxQueuedBytes) {
+        return;
+      }
+      boolean force = syncMode == WALSyncMode.SYNC;
+      while ((force ? forcedSeq : writtenSeq) < seq) {
+        if (committing) {
+          committed.await();
+        } else {
+          commit(force);
+        }
+        checkFailure();
+      }
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new IOException("Interrupted when waiting for the shared WAL to be written", e);
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  /** Write all queued logs and force them to the disk. */
+  public void forceSync() throws IOException {
+    lock.lock();
+    try {
+      if (failure != null || closed) {
+        return;
+      }
+      long seq = appendedSeq;
+      while (forcedSeq < seq) {
+        if (committing) {
+          committed.await();
+        } else {
+          commit(true);
+        }
+        checkFailure();
+      }
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new IOException("Interrupted when waiting for the shared WAL to be forced", e);
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  /**
+   * Write the queued logs as the leader, this must be called with the lock held and no other
+   * leader. The lock is released during the IO so that more logs can be queued.
+   */
+  private void commit(boolean force) throws IOException {
+    committing = true;
+    List<Log> batch = queue;
+    long batchSeq = appendedSeq;
+    queue = new ArrayList<>();
+    queuedBytes = 0;
+    lock.unlock();
+    IOException error = null;
+    try {
+      if (!batch.isEmpty()) {
+        write(batch);
+      }
+      if (force && currentSegment != null) {
+        currentSegment.channel.force(false);
+      }
+    } catch (IOException e) {
+      error = e;
+    } catch (RuntimeException e) {
+      error = new IOException(e);
+    } finally {
+      lock.lock();
+      committing = false;
+      if (error == null) {
+        writtenSeq = batchSeq;
+        if (force) {
+          forcedSeq = batchSeq;
+        }
+      } else {
+        logger.error("Shared WAL write failed, change system mode to read-only", error);
+        IoTDBDescriptor.getInstance().getConfig().setReadOnly(true);
+        failure = error;
+      }
+      committed.signalAll();
+    }
+    if (error != null) {
+      throw error;
+    }
+  }
+
+  private void checkFailure() throws IOException {
+    if (failure != null) {
+      throw new IOException("Shared WAL cannot be written because of a previous failure", failure);
+    }
+    if (closed) {
+      throw new IOException("Shared WAL is closed");
+    }
+  }
+
+  private void write(List<Log> batch) throws IOException {
+    if (currentSegment == null) {
+      nextSegment();
+    }
+    writeBuffer.clear();
+    for (Log log : batch) {
+      int size = log.size();
+      long segmentPosition = currentSegment.position + writeBuffer.position();
+      if (segmentPosition > 0 && segmentPosition + size > segmentSize) {
+        flushWriteBuffer();
+        nextSegment();
+      }
+      if (writeBuffer.remaining() < size) {
+        flushWriteBuffer();
+        if (writeBuffer.capacity() < size) {
+          writeBuffer = ByteBuffer.allocate(size);
+        }
+      }
+      writeBuffer.putInt(log.log.length);
+      writeBuffer.putLong(currentSegment.id);
+      writeBuffer.put(log.log);
+      writeBuffer.putLong(checkSum(currentSegment.id, log.log));
+      if (log.log[0] == PLAN_LOG) {
+        currentSegment.holders.merge(log.state, log.epoch, Math::max);
+      }
+    }
+    flushWriteBuffer();
+    if (writeBuffer.capacity() > PRE_ALLOCATE_BUFFER_SIZE) {
+      // do not keep the buffer of a large plan
+      writeBuffer = ByteBuffer.allocate(PRE_ALLOCATE_BUFFER_SIZE);
+    }
+  }
+
+  private void flushWriteBuffer() throws IOException {
+    writeBuffer.flip();
+    while (writeBuffer.hasRemaining()) {
+      currentSegment.position += currentSegment.channel.write(writeBuffer, currentSegment.position);
+    }
+    writeBuffer.clear();
+  }
+
+  private long checkSum(long segmentId, byte[] log) {
+    checkSummer.reset();
+    for (int i = Long.BYTES - 1; i >= 0; i--) {
+      checkSummer.update((int) (segmentId >>> (i * Byte.SIZE)));
+    }
+    checkSummer.update(log, 0, log.length);
+    return checkSummer.getValue();
+  }
+
+  /** Close the current segment after forcing it, and start writing a new one. */
+  private void nextSegment() throws IOException {
+    Segment previous = currentSegment;
+    if (previous != null) {
+      previous.channel.force(false);
+      previous.channel.close();
+    }
+
+    long id = nextSegmentId++;
+    File file = SystemFileFactory.INSTANCE.getFile(logDirectory, SEGMENT_FILE_NAME + id);
+    File recycledFile;
+    synchronized (segments) {
+      recycledFile = recycledFiles.pollFirst();
+    }
+    if (recycledFile != null && recycledFile.renameTo(file)) {
+      logger.debug("Reuse {} as shared WAL segment {}", recycledFile, file);
+    } else {
+      preAllocate(file);
+    }
+    Segment segment = new Segment(id, file);
+    segment.channel = new RandomAccessFile(file, "rw").getChannel();
+    synchronized (segments) {
+      segments.addLast(segment);
+      currentSegment = segment;
+    }
+  }
+
+  private void preAllocate(File file) throws IOException {
+    ByteBuffer zeros = ByteBuffer.allocate(PRE_ALLOCATE_BUFFER_SIZE);
+    try (FileChannel channel = new RandomAccessFile(file, "rw").getChannel()) {
+      long position = 0;
+      while (position < segmentSize) {
+        zeros.clear();
+        zeros.limit((int) Math.min(zeros.capacity(), segmentSize - position));
+        position += channel.write(zeros, position);
+      }
+      channel.force(true);
+    }
+  }
+
+  /** Discard the oldest segments whose logs all belong to flushed memtables or deleted nodes. */
+  private void discardSegments() {
+    List<Segment> discarded = new ArrayList<>();
+    synchronized (segments) {
+      while (!segments.isEmpty()
+          && segments.peekFirst() != currentSegment
+          && segments.peekFirst().isObsolete()) {
+        discarded.add(segments.pollFirst());
+      }
+    }
+    for (Segment segment : discarded) {
+      discard(segment);
+    }
+  }
+
+  private void discard(Segment segment) {
+    try {
+      if (segment.channel != null) {
+        segment.channel.close();
+      }
+      synchronized (segments) {
+        if (recycledFiles.size() < MAX_RECYCLED_SEGMENT_NUM) {
+          File recycledFile =
+              SystemFileFactory.INSTANCE.getFile(logDirectory, RECYCLED_FILE_NAME + segment.id);
+          if (segment.file.renameTo(recycledFile)) {
+            recycledFiles.addLast(recycledFile);
+            return;
+          }
+        }
+      }
+      FileUtils.forceDelete(segment.file);
+      logger.debug("Shared WAL segment {} is deleted", segment.file);
+    } catch (IOException e) {
+      logger.warn("Shared WAL segment {} cannot be discarded", segment.file, e);
+    }
+  }
+
+  /** Read the segments left by the last run, and collect the logs of each node. */
+  private void recover() throws IOException {
+    File[] files = logDirectory.listFiles();
+    if (files == null) {
+      return;
+    }
+    List<Segment> recoveredSegments = new ArrayList<>();
+    for (File file : files) {
+      String name = file.getName();
+      if (name.startsWith(SEGMENT_FILE_NAME)) {
+        recoveredSegments.add(
+            new Segment(Long.parseLong(name.substring(SEGMENT_FILE_NAME.length())), file));
+      } else if (name.startsWith(RECYCLED_FILE_NAME)) {
+        recycledFiles.addLast(file);
+        // a reused segment must not have the id of its remains
+        long id = Long.parseLong(name.substring(RECYCLED_FILE_NAME.length()));
+        nextSegmentId = Math.max(nextSegmentId, id + 1);
+      }
+    }
+    recoveredSegments.sort(Comparator.comparingLong(s -> s.id));
+    for (Segment segment : recoveredSegments) {
+      readSegment(segment);
+      segments.addLast(segment);
+      nextSegmentId = Math.max(nextSegmentId, segment.id + 1);
+    }
+    discardSegments();
+    if (!recoveredNodes.isEmpty()) {
+      logger.info(
+          "{} nodes have logs in {} shared WAL segments", recoveredNodes.size(), segments.size());
+    }
+  }
+
+  private void readSegment(Segment segment) throws IOException {
+    try (RandomAccessFile file = new RandomAccessFile(segment.file, "r")) {
+      long length = file.length();
+      long position = 0;
+      while (position + LOG_OVERHEAD <= length) {
+        file.seek(position);
+        int logSize = file.readInt();
+        if (logSize <= 0 || position + LOG_OVERHEAD + logSize > length) {
+          break;
+        }
+        long segmentId = file.readLong();
+        if (segmentId != segment.id) {
+          // the remains of a reused segment
+          break;
+        }
+        byte[] log = new byte[logSize];
+        file.readFully(log);
+        if (file.readLong() != checkSum(segmentId, log)) {
+          logger.warn(
+              "The check sum of the log at {} of {} is incorrect, ignore remaining logs",
+              position,
+              segment.file);
+          break;
+        }
+        readLog(segment, position + Integer.BYTES + Long.BYTES, log);
+        position += LOG_OVERHEAD + logSize;
+      }
+    }
+  }
+
+  private void readLog(Segment segment, long logPosition, byte[] log) {
+    ByteBuffer buffer = ByteBuffer.wrap(log);
+    byte type = buffer.get();
+    byte[] identifierBytes = new byte[buffer.getInt()];
+    buffer.get(identifierBytes);
+    String identifier = new String(identifierBytes, StandardCharsets.UTF_8);
+    long epoch = buffer.getLong();
+    NodeState state = recoveredNodes.computeIfAbsent(identifier, NodeState::new);
+    switch (type) {
+      case PLAN_LOG:
+        state.hasLogs = true;
+        state.epoch = Math.max(state.epoch, epoch);
+        state.recoveredLogs.add(
+            new LogPosition(segment, logPosition + buffer.position(), buffer.remaining(), epoch));
+        segment.holders.merge(state, epoch, Math::max);
+        break;
+      case FLUSHED_MARK:
+        state.flushedEpoch = Math.max(state.flushedEpoch, epoch);
+        break;
+      case DELETED_MARK:
+        // the logs after the mark belong to a new node with the same identifier
+        state.deleted = true;
+        recoveredNodes.remove(identifier);
+        break;
+      default:
+        logger.warn("Unknown type {} of the log in {}", type, segment.file);
+    }
+  }
+
+  /** Return a reader of the logs from before the restart of the memtables that are not flushed. */
+  ILogReader getLogReader(NodeState state) {
+    List<LogPosition> logs = new ArrayList<>();
+    for (LogPosition log : state.recoveredLogs) {
+      if (log.epoch > state.flushedEpoch) {
+        logs.add(log);
+      }
+    }
+    return new RecoveredLogReader(logs);
+  }
+
+  /** Write and force all queued logs, and close the current segment. */
+  public void close() {
+    try {
+      forceSync();
+    } catch (IOException e) {
+      logger.warn("Cannot force the shared WAL when closing it", e);
+    }
+    lock.lock();
+    try {
+      while (committing) {
+        committed.awaitUninterruptibly();
+      }
+      closed = true;
+      synchronized (segments) {
+        if (currentSegment != null) {
+          currentSegment.channel.close();
+        }
+      }
+      logger.info("Shared WAL {} is closed", logDirectory);
+    } catch (IOException e) {
+      logger.warn("Cannot close the shared WAL {}", logDirectory, e);
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  /** Return the number of segments that are not discarded. */
+  public int getSegmentNum() {
+    synchronized (segments) {
+      return segments.size();
+    }
+  }
+
+  public File getLogDirectory() {
+    return logDirectory;
+  }
+
+  /** The state of a node that is shared by its logs, which may outlive the node. */
+  static class NodeState {
+
+    private final String identifier;
+    private final byte[] identifierBytes;
+    /** the memtable that the logs being written belong to, guarded by the lock of the node */
+    long epoch = 0;
+
+    private volatile long flushedEpoch = -1;
+    private volatile boolean deleted = false;
+    private volatile boolean hasLogs = false;
+    private final List<LogPosition> recoveredLogs = new ArrayList<>();
+
+    NodeState(String identifier) {
+      this.identifier = identifier;
+      this.identifierBytes = identifier.getBytes(StandardCharsets.UTF_8);
+    }
+
+    boolean isDeleted() {
+      return deleted;
+    }
+
+    private boolean isObsolete(long epoch) {
+      return deleted || flushedEpoch >= epoch;
+    }
+  }
+
+  private static class Log {
+
+    private final NodeState state;
+    private final long epoch;
+    private final byte[] log;
+
+    private Log(NodeState state, long epoch, byte[] log) {
+      this.state = state;
+      this.epoch = epoch;
+      this.log = log;
+    }
+
+    private int size() {
+      return LOG_OVERHEAD + log.length;
+    }
+  }
+
+  private static class Segment {
+
+    private final long id;
+    private final File file;
+    private FileChannel channel;
+    private long position = 0;
+    /** the newest memtable of each node that has logs in this segment */
+    private final Map<NodeState, Long> holders = new ConcurrentHashMap<>();
+
+    private Segment(long id, File file) {
+      this.id = id;
+      this.file = file;
+    }
+
+    private boolean isObsolete() {
+      for (Map.Entry<NodeState, Long> entry : holders.entrySet()) {
+        if (!entry.getKey().isObsolete(entry.getValue())) {
+          return false;
+        }
+      }
+      return true;
+    }
+  }
+
+  private static class LogPosition {
+
+    private final Segment segment;
+    private final long position;
+    private final int length;
+    private final long epoch;
+
+    private LogPosition(Segment segment, long position, int length, long epoch) {
+      this.segment = segment;
+      this.position = position;
+      this.length = length;
+      this.epoch = epoch;
+    }
+  }
+
+  /** RecoveredLogReader reads the plans of a node from the segments left by the last run. */
+  private static class RecoveredLogReader implements ILogReader {
+
+    private final Iterator<LogPosition> logs;
+    private final Map<Segment, RandomAccessFile> files = new HashMap<>();
+    private PhysicalPlan next;
+
+    private RecoveredLogReader(List<LogPosition> logs) {
+      this.logs = logs.iterator();
+    }
+
+    @Override
+    public boolean hasNext() {
+      if (next != null) {
+        return true;
+      }
+      if (!logs.hasNext()) {
+        return false;
+      }
+      LogPosition log = logs.next();
+      try {
+        RandomAccessFile file = files.get(log.segment);
+        if (file == null) {
+          file = new RandomAccessFile(log.segment.file, "r");
+          files.put(log.segment, file);
+        }
+        byte[] plan = new byte[log.length];
+        file.seek(log.position);
+        file.readFully(plan);
+        next = PhysicalPlan.Factory.create(ByteBuffer.wrap(plan));
+      } catch (IOException | IllegalPathException e) {
+        logger.error(
+            "Cannot read the log at {} of {}, ignore remaining logs",
+            log.position,
+            log.segment.file,
+            e);
+        return false;
+      }
+      return true;
+    }
+
+    @Override
+    public PhysicalPlan next() {
+      if (!hasNext()) {
+        throw new NoSuchElementException();
+      }
+      PhysicalPlan plan = next;
+      next = null;
+      return plan;
+    }
+
+    @Override
+    public void close() {
+      for (RandomAccessFile file : files.values()) {
+        try {
+          file.close();
+        } catch (IOException e) {
+          logger.error("Cannot close shared WAL segment", e);
+        }
+      }
+      files.clear();
+    }
+  }
+}
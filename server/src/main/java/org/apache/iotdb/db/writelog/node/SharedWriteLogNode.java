@@ -0,0 +1,178 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.iotdb.db.writelog.node;
+
+import org.apache.iotdb.db.qp.physical.PhysicalPlan;
+import org.apache.iotdb.db.writelog.io.ILogReader;
+import org.apache.iotdb.tsfile.utils.PublicBAOS;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * This WriteLogNode appends the logs of a TsFile into the {@link SharedWriteLog}. Each log records
+ * the memtable it belongs to, so the logs of flushed memtables can be discarded and are skipped
+ * when recovering.
+ */
+public class SharedWriteLogNode implements WriteLogNode, Comparable<SharedWriteLogNode> {
+
+  private static final Logger logger = LoggerFactory.getLogger(SharedWriteLogNode.class);
+
+  private final String identifier;
+
+  private final SharedWriteLog sharedLog;
+
+  private final SharedWriteLog.NodeState state;
+
+  private final ReentrantLock lock = new ReentrantLock();
+
+  private final PublicBAOS logStream = new PublicBAOS();
+  private final DataOutputStream dataOutputStream = new DataOutputStream(logStream);
+
+  public SharedWriteLogNode(String identifier, SharedWriteLog sharedLog) {
+    this.identifier = identifier;
+    this.sharedLog = sharedLog;
+    this.state = sharedLog.getNodeState(identifier);
+  }
+
+  @Override
+  public void initBuffer(ByteBuffer[] byteBuffers) {
+    // logs are serialized into a heap buffer and buffered by the shared log
+  }
+
+  @Override
+  public void write(PhysicalPlan plan) throws IOException {
+    if (state.isDeleted()) {
+      throw new IOException("WAL node deleted");
+    }
+    byte[] log;
+    lock.lock();
+    try {
+      logStream.reset();
+      SharedWriteLog.serializeHead(SharedWriteLog.PLAN_LOG, state, state.epoch, dataOutputStream);
+      plan.serialize(dataOutputStream);
+      log = Arrays.copyOf(logStream.getBuf(), logStream.size());
+    } finally {
+      lock.unlock();
+    }
+    sharedLog.appendPlan(state, log);
+  }
+
+  @Override
+  public void close() throws IOException {
+    sharedLog.forceSync();
+  }
+
+  @Override
+  public void forceSync() throws IOException {
+    if (state.isDeleted()) {
+      return;
+    }
+    sharedLog.forceSync();
+  }
+
+  @Override
+  public void notifyStartFlush() {
+    lock.lock();
+    try {
+      // the following logs belong to the next memtable
+      state.epoch++;
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  @Override
+  public void notifyEndFlush() {
+    lock.lock();
+    try {
+      sharedLog.flushed(state);
+    } catch (IOException e) {
+      logger.warn("Cannot mark the flushed memtable of {} in the shared WAL", identifier, e);
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  @Override
+  public String getIdentifier() {
+    return identifier;
+  }
+
+  @Override
+  public String getLogDirectory() {
+    return sharedLog.getLogDirectory().getPath();
+  }
+
+  @Override
+  public ByteBuffer[] delete() throws IOException {
+    lock.lock();
+    try {
+      sharedLog.delete(state);
+      return new ByteBuffer[0];
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  /**
+   * Return a reader of the logs written before the restart that belong to memtables not flushed.
+   * The logs written after the restart are not read.
+   */
+  @Override
+  public ILogReader getLogReader() {
+    return sharedLog.getLogReader(state);
+  }
+
+  @Override
+  public int hashCode() {
+    return identifier.hashCode();
+  }
+
+  @Override
+  public boolean equals(Object obj) {
+    if (this == obj) {
+      return true;
+    }
+    if (obj == null) {
+      return false;
+    }
+    if (getClass() != obj.getClass()) {
+      return false;
+    }
+
+    return compareTo((SharedWriteLogNode) obj) == 0;
+  }
+
+  @Override
+  public String toString() {
+    return "Shared log node " + identifier;
+  }
+
+  @Override
+  public int compareTo(SharedWriteLogNode o) {
+    return this.identifier.compareTo(o.identifier);
+  }
+}
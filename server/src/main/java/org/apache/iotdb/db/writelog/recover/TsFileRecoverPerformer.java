@@ -311,6 +311,9 @@ public class TsFileRecoverPerformer {
     } catch (InterruptedException e) {
       Thread.currentThread().interrupt();
       throw new StorageGroupProcessorException(e);
+    } finally {
+      // return the arrays, including the off-heap arena if any
+      recoverMemTable.release();
     }
   }
 }
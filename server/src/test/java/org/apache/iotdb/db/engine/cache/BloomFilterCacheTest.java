@@ -101,6 +101,27 @@ public class BloomFilterCacheTest {
     }
   }
 
+  @Test
+  public void testGetBlock() {
+    try {
+      for (int i = 0; i < pathSize; i++) {
+        String filePath = pathList.get(i);
+        String device = "d" + (i + 1);
+        TsFileSequenceReader reader = FileReaderManager.getInstance().get(filePath, true);
+        BloomFilter bloomFilter =
+            bloomFilterCache.get(
+                new BloomFilterCache.BloomFilterCacheKey(
+                    filePath, reader.getBloomFilterBlockIndex(device)));
+        Assert.assertEquals(reader.readBloomFilter(device), bloomFilter);
+        Assert.assertTrue(bloomFilter.contains(device + ".sensor_1"));
+        reader.close();
+      }
+    } catch (IOException e) {
+      Assert.fail();
+      e.printStackTrace();
+    }
+  }
+
   @Test
   public void testRemove() {
     try {
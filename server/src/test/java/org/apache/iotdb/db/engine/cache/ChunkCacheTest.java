@@ -25,6 +25,7 @@ import org.apache.iotdb.db.exception.StorageEngineException;
 import org.apache.iotdb.db.exception.metadata.MetadataException;
 import org.apache.iotdb.db.metadata.path.PartialPath;
 import org.apache.iotdb.db.query.control.FileReaderManager;
+import org.apache.iotdb.db.query.pool.ChunkReadScheduler;
 import org.apache.iotdb.db.service.IoTDB;
 import org.apache.iotdb.db.utils.EnvironmentUtils;
 import org.apache.iotdb.tsfile.exception.write.WriteProcessException;
@@ -134,6 +135,29 @@ public class ChunkCacheTest {
     reader.close();
   }
 
+  @Test
+  public void testChunkReadScheduler() throws IOException {
+    TsFileResource tsFileResource = seqResources.get(0);
+    try (TsFileSequenceReader reader = new TsFileSequenceReader(tsFileResource.getTsFilePath())) {
+      List<ChunkMetadata> chunkMetadataList = new ArrayList<>();
+      for (Path path : reader.getAllPaths()) {
+        for (ChunkMetadata chunkMetadata : reader.getChunkMetadataList(path)) {
+          chunkMetadata.setFilePath(tsFileResource.getTsFilePath());
+          chunkMetadata.setClosed(true);
+          chunkMetadataList.add(chunkMetadata);
+        }
+      }
+
+      ChunkReadScheduler.getInstance().submit(chunkMetadataList);
+      for (ChunkMetadata chunkMetadata : chunkMetadataList) {
+        ChunkReadScheduler.getInstance().await(chunkMetadata);
+        Assert.assertTrue(chunkCache.contains(chunkMetadata));
+        Chunk chunk = chunkCache.get(chunkMetadata);
+        Assert.assertEquals(reader.readMemChunk(chunkMetadata).getData(), chunk.getData());
+      }
+    }
+  }
+
   void prepareSeries() throws MetadataException {
     measurementSchemas = new MeasurementSchema[measurementNum];
     for (int i = 0; i < measurementNum; i++) {
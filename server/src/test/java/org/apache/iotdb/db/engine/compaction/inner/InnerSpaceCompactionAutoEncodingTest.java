@@ -0,0 +1,193 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+
+package org.apache.iotdb.db.engine.compaction.inner;
+
+import org.apache.iotdb.db.conf.IoTDBConfig;
+import org.apache.iotdb.db.conf.IoTDBDescriptor;
+import org.apache.iotdb.db.constant.TestConstant;
+import org.apache.iotdb.db.engine.cache.ChunkCache;
+import org.apache.iotdb.db.engine.cache.TimeSeriesMetadataCache;
+import org.apache.iotdb.db.engine.compaction.inner.utils.InnerSpaceCompactionUtils;
+import org.apache.iotdb.db.engine.compaction.utils.CompactionCheckerUtils;
+import org.apache.iotdb.db.engine.storagegroup.TsFileResource;
+import org.apache.iotdb.db.metadata.path.PartialPath;
+import org.apache.iotdb.db.service.IoTDB;
+import org.apache.iotdb.db.utils.EnvironmentUtils;
+import org.apache.iotdb.tsfile.file.metadata.ChunkMetadata;
+import org.apache.iotdb.tsfile.file.metadata.enums.CompressionType;
+import org.apache.iotdb.tsfile.file.metadata.enums.TSDataType;
+import org.apache.iotdb.tsfile.file.metadata.enums.TSEncoding;
+import org.apache.iotdb.tsfile.read.TimeValuePair;
+import org.apache.iotdb.tsfile.read.TsFileSequenceReader;
+import org.apache.iotdb.tsfile.read.common.Path;
+import org.apache.iotdb.tsfile.write.chunk.ChunkWriterImpl;
+import org.apache.iotdb.tsfile.write.schema.IMeasurementSchema;
+import org.apache.iotdb.tsfile.write.schema.MeasurementSchema;
+import org.apache.iotdb.tsfile.write.writer.TsFileIOWriter;
+
+import org.apache.commons.io.FileUtils;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+/**
+ * Test InnerSpaceCompactionUtils.compact with chunks of an AUTO encoded series, whose chunk headers
+ * may record different encodings.
+ */
+public class InnerSpaceCompactionAutoEncodingTest {
+  private final String storageGroup = "root.compactionTest";
+  private final String device = storageGroup + ".device0";
+  private final String measurement = "s0";
+  private final MeasurementSchema schema =
+      new MeasurementSchema(measurement, TSDataType.INT64, TSEncoding.AUTO, CompressionType.SNAPPY);
+
+  private static final String SEQ_DIRS =
+      TestConstant.BASE_OUTPUT_PATH
+          + "data"
+          + File.separator
+          + "sequence"
+          + File.separator
+          + "root.compactionTest"
+          + File.separator
+          + "0"
+          + File.separator
+          + "0";
+
+  private final IoTDBConfig config = IoTDBDescriptor.getInstance().getConfig();
+  private long originTargetChunkSize;
+  private long originTargetChunkPointNum;
+  private long originChunkSizeLowerBound;
+  private long originChunkPointNumLowerBound;
+
+  @Before
+  public void setUp() throws Exception {
+    if (!new File(SEQ_DIRS).exists()) {
+      Assert.assertTrue(new File(SEQ_DIRS).mkdirs());
+    }
+    EnvironmentUtils.envSetUp();
+    IoTDB.metaManager.setStorageGroup(new PartialPath(storageGroup));
+    IoTDB.metaManager.createTimeseries(
+        new PartialPath(device, measurement),
+        schema.getType(),
+        schema.getEncodingType(),
+        schema.getCompressor(),
+        Collections.emptyMap());
+
+    originTargetChunkSize = config.getTargetChunkSize();
+    originTargetChunkPointNum = config.getTargetChunkPointNum();
+    originChunkSizeLowerBound = config.getChunkSizeLowerBoundInCompaction();
+    originChunkPointNumLowerBound = config.getChunkPointNumLowerBoundInCompaction();
+    // every chunk below is a middle chunk, so the second one is merged with the cached first one
+    config.setTargetChunkSize(1024 * 1024);
+    config.setTargetChunkPointNum(100_000);
+    config.setChunkSizeLowerBoundInCompaction(1);
+    config.setChunkPointNumLowerBoundInCompaction(1);
+  }
+
+  @After
+  public void tearDown() throws Exception {
+    config.setTargetChunkSize(originTargetChunkSize);
+    config.setTargetChunkPointNum(originTargetChunkPointNum);
+    config.setChunkSizeLowerBoundInCompaction(originChunkSizeLowerBound);
+    config.setChunkPointNumLowerBoundInCompaction(originChunkPointNumLowerBound);
+    if (new File(SEQ_DIRS).exists()) {
+      FileUtils.forceDelete(new File(SEQ_DIRS));
+    }
+    IoTDB.metaManager.clear();
+    ChunkCache.getInstance().clear();
+    TimeSeriesMetadataCache.getInstance().clear();
+    EnvironmentUtils.cleanEnv();
+  }
+
+  @Test
+  public void testMergeChunksWithDifferentSelectedEncodings() throws Exception {
+    int pointNum = 1000;
+    // increasing values and random values select different encodings
+    long[] increasingValues = new long[pointNum];
+    long[] randomValues = new long[pointNum];
+    Random random = new Random(0);
+    for (int i = 0; i < pointNum; i++) {
+      increasingValues[i] = i;
+      randomValues[i] = random.nextLong();
+    }
+    List<TsFileResource> sourceFiles = new ArrayList<>();
+    sourceFiles.add(writeTsFile(new File(SEQ_DIRS, "1-1-0-0.tsfile"), 0, increasingValues));
+    sourceFiles.add(writeTsFile(new File(SEQ_DIRS, "2-2-0-0.tsfile"), pointNum, randomValues));
+    TSEncoding firstEncoding = getEncodings(sourceFiles.get(0)).get(0);
+    TSEncoding secondEncoding = getEncodings(sourceFiles.get(1)).get(0);
+    Assert.assertNotEquals(firstEncoding, secondEncoding);
+
+    List<String> paths = Collections.singletonList(device + "." + measurement);
+    List<IMeasurementSchema> schemaList = Collections.singletonList(schema);
+    Map<String, List<TimeValuePair>> originData =
+        CompactionCheckerUtils.getDataByQuery(paths, schemaList, sourceFiles, new ArrayList<>());
+    TsFileResource targetResource = new TsFileResource(new File(SEQ_DIRS, "1-1-1-0.tsfile"));
+    InnerSpaceCompactionUtils.compact(targetResource, sourceFiles, storageGroup, true);
+
+    Map<String, List<TimeValuePair>> compactedData =
+        CompactionCheckerUtils.getDataByQuery(
+            paths, schemaList, Collections.singletonList(targetResource), new ArrayList<>());
+    CompactionCheckerUtils.validDataByValueList(originData, compactedData);
+    Assert.assertEquals(2 * pointNum, compactedData.get(paths.get(0)).size());
+    for (TSEncoding encoding : getEncodings(targetResource)) {
+      Assert.assertNotEquals(TSEncoding.AUTO, encoding);
+    }
+  }
+
+  /** write one chunk of the series, whose times start from startTime */
+  private TsFileResource writeTsFile(File file, long startTime, long[] values) throws IOException {
+    TsFileResource resource = new TsFileResource(file);
+    TsFileIOWriter writer = new TsFileIOWriter(file);
+    writer.startChunkGroup(device);
+    ChunkWriterImpl chunkWriter = new ChunkWriterImpl(schema);
+    for (int i = 0; i < values.length; i++) {
+      chunkWriter.write(startTime + i, values[i]);
+    }
+    chunkWriter.writeToFileWriter(writer);
+    writer.endChunkGroup();
+    writer.endFile();
+    resource.updateStartTime(device, startTime);
+    resource.updateEndTime(device, startTime + values.length - 1);
+    resource.serialize();
+    resource.close();
+    return resource;
+  }
+
+  private List<TSEncoding> getEncodings(TsFileResource resource) throws IOException {
+    List<TSEncoding> encodings = new ArrayList<>();
+    try (TsFileSequenceReader reader = new TsFileSequenceReader(resource.getTsFilePath())) {
+      for (ChunkMetadata chunkMetadata :
+          reader.getChunkMetadataList(new Path(device, measurement))) {
+        encodings.add(reader.readMemChunk(chunkMetadata).getHeader().getEncodingType());
+      }
+    }
+    return encodings;
+  }
+}
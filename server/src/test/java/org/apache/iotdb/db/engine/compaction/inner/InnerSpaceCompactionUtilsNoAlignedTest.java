@@ -32,6 +32,7 @@ import org.apache.iotdb.db.exception.metadata.MetadataException;
 import org.apache.iotdb.db.metadata.path.PartialPath;
 import org.apache.iotdb.db.service.IoTDB;
 import org.apache.iotdb.db.utils.EnvironmentUtils;
+import org.apache.iotdb.tsfile.common.conf.TSFileDescriptor;
 import org.apache.iotdb.tsfile.file.metadata.enums.CompressionType;
 import org.apache.iotdb.tsfile.file.metadata.enums.TSDataType;
 import org.apache.iotdb.tsfile.file.metadata.enums.TSEncoding;
@@ -824,4 +825,54 @@ public class InnerSpaceCompactionUtilsNoAlignedTest {
           .setChunkPointNumLowerBoundInCompaction(originChunkPointNumLowerBound);
     }
   }
+
+  /**
+   * Generate files that each chunk is greater than target size, and compact them with a chunk
+   * metadata memory budget so small that the chunk metadata of every chunk group are spilled.
+   *
+   * @throws Exception
+   */
+  @Test
+  public void testCompactWithChunkMetadataSpilled() throws Exception {
+    long originTargetChunkSize = IoTDBDescriptor.getInstance().getConfig().getTargetChunkSize();
+    long originTargetChunkPointNum =
+        IoTDBDescriptor.getInstance().getConfig().getTargetChunkPointNum();
+    long originChunkMetadataMemoryBudget =
+        TSFileDescriptor.getInstance().getConfig().getChunkMetadataMemoryBudgetInByte();
+    IoTDBDescriptor.getInstance().getConfig().setTargetChunkSize(100);
+    IoTDBDescriptor.getInstance().getConfig().setTargetChunkPointNum(100);
+    TSFileDescriptor.getInstance().getConfig().setChunkMetadataMemoryBudgetInByte(1);
+    try {
+      List<TsFileResource> sourceFiles = new ArrayList();
+      int fileNum = 6;
+      long pointStep = 200L;
+      for (int i = 0; i < fileNum; ++i) {
+        List<List<Long>> chunkPagePointsNum = new ArrayList<>();
+        List<Long> pagePointsNum = new ArrayList<>();
+        pagePointsNum.add((i + 1L) * pointStep);
+        chunkPagePointsNum.add(pagePointsNum);
+        TsFileResource resource =
+            new TsFileResource(new File(SEQ_DIRS, String.format("%d-%d-0-0.tsfile", i + 1, i + 1)));
+        sourceFiles.add(resource);
+        CompactionFileGeneratorUtils.writeTsFile(
+            fullPathSet, chunkPagePointsNum, i * 1500L, resource);
+      }
+      Map<String, List<TimeValuePair>> originData =
+          CompactionCheckerUtils.getDataByQuery(paths, schemaList, sourceFiles, new ArrayList<>());
+      TsFileResource targetResource =
+          new TsFileResource(new File(SEQ_DIRS, String.format("%d-%d-1-0.tsfile", 1, 1)));
+      InnerSpaceCompactionUtils.compact(targetResource, sourceFiles, storageGroup, true);
+
+      Map<String, List<TimeValuePair>> compactedData =
+          CompactionCheckerUtils.getDataByQuery(
+              paths, schemaList, Collections.singletonList(targetResource), new ArrayList<>());
+      CompactionCheckerUtils.validDataByValueList(originData, compactedData);
+    } finally {
+      IoTDBDescriptor.getInstance().getConfig().setTargetChunkSize(originTargetChunkSize);
+      IoTDBDescriptor.getInstance().getConfig().setTargetChunkPointNum(originTargetChunkPointNum);
+      TSFileDescriptor.getInstance()
+          .getConfig()
+          .setChunkMetadataMemoryBudgetInByte(originChunkMetadataMemoryBudget);
+    }
+  }
 }
@@ -18,6 +18,8 @@
  */
 package org.apache.iotdb.db.engine.memtable;
 
+import org.apache.iotdb.db.conf.IoTDBConfig;
+import org.apache.iotdb.db.conf.IoTDBDescriptor;
 import org.apache.iotdb.db.constant.TestConstant;
 import org.apache.iotdb.db.engine.MetadataManagerHelper;
 import org.apache.iotdb.db.engine.flush.MemTableFlushTask;
@@ -33,6 +35,7 @@ import org.junit.Before;
 import org.junit.Test;
 
 import java.io.IOException;
+import java.util.List;
 import java.util.concurrent.ExecutionException;
 
 import static org.junit.Assert.assertEquals;
@@ -105,6 +108,48 @@ public class MemTableFlushTaskTest {
     assertEquals(endTime - startTime + 1, chunkMetaData.getNumOfPoints());
   }
 
+  @Test
+  public void testParallelEncoding()
+      throws ExecutionException, InterruptedException, IllegalPathException {
+    IoTDBConfig config = IoTDBDescriptor.getInstance().getConfig();
+    int defaultThreadNum = config.getFlushEncodingThreadNum();
+    config.setFlushEncodingThreadNum(4);
+    try {
+      String[] measurements = new String[10];
+      for (int i = 0; i < measurements.length; i++) {
+        measurements[i] = MemTableTestUtils.measurementId0 + i;
+        // the later measurements are written out of order
+        MemTableTestUtils.produceData(
+            memTable,
+            startTime + i,
+            endTime,
+            MemTableTestUtils.deviceId0,
+            measurements[i],
+            MemTableTestUtils.dataType0);
+        MemTableTestUtils.produceData(
+            memTable,
+            startTime,
+            startTime + i,
+            MemTableTestUtils.deviceId0,
+            measurements[i],
+            MemTableTestUtils.dataType0);
+      }
+      MemTableFlushTask memTableFlushTask = new MemTableFlushTask(memTable, writer, storageGroup);
+      memTableFlushTask.syncFlushMemTable();
+      writer.makeMetadataVisible();
+      for (String measurement : measurements) {
+        List<ChunkMetadata> chunkMetadataList =
+            writer.getVisibleMetadataList(
+                MemTableTestUtils.deviceId0, measurement, MemTableTestUtils.dataType0);
+        assertEquals(1, chunkMetadataList.size());
+        assertEquals(startTime, chunkMetadataList.get(0).getStartTime());
+        assertEquals(endTime, chunkMetadataList.get(0).getEndTime());
+      }
+    } finally {
+      config.setFlushEncodingThreadNum(defaultThreadNum);
+    }
+  }
+
   @Test
   public void testFlushVectorMemTable()
       throws ExecutionException, InterruptedException, IllegalPathException, IOException {
@@ -18,6 +18,7 @@
  */
 package org.apache.iotdb.db.engine.memtable;
 
+import org.apache.iotdb.db.conf.IoTDBDescriptor;
 import org.apache.iotdb.db.engine.modification.Deletion;
 import org.apache.iotdb.db.engine.modification.Modification;
 import org.apache.iotdb.db.engine.querycontext.ReadOnlyMemChunk;
@@ -32,6 +33,7 @@ import org.apache.iotdb.db.metadata.path.MeasurementPath;
 import org.apache.iotdb.db.metadata.path.PartialPath;
 import org.apache.iotdb.db.qp.physical.crud.InsertTabletPlan;
 import org.apache.iotdb.db.utils.MathUtils;
+import org.apache.iotdb.db.utils.datastructure.BinaryTVList;
 import org.apache.iotdb.tsfile.common.conf.TSFileDescriptor;
 import org.apache.iotdb.tsfile.exception.write.UnSupportedDataTypeException;
 import org.apache.iotdb.tsfile.file.metadata.enums.CompressionType;
@@ -83,6 +85,37 @@ public class PrimitiveMemTableTest {
     Assert.assertEquals(count, i);
   }
 
+  @Test
+  public void textDictionaryFallBackWithQueryTest() {
+    int maxDictionarySize =
+        IoTDBDescriptor.getInstance().getConfig().getMemTableTextDictionarySize();
+    WritableMemChunk series =
+        new WritableMemChunk(new MeasurementSchema("s1", TSDataType.TEXT, TSEncoding.PLAIN));
+    for (int i = 0; i < maxDictionarySize; i++) {
+      series.putBinary(i, Binary.valueOf(String.valueOf(i)));
+    }
+    BinaryTVList queryList = (BinaryTVList) series.getTvListForQuery();
+    int querySize = queryList.size();
+
+    // a value in the dictionary is appended to the list the query reads
+    series.putBinary(maxDictionarySize, Binary.valueOf("0"));
+    Assert.assertSame(queryList, series.getTVList());
+    // a new value makes the list fall back, which is done on a copy
+    series.putBinaries(
+        new long[] {maxDictionarySize + 1},
+        new Binary[] {Binary.valueOf(String.valueOf(maxDictionarySize + 1))},
+        null,
+        0,
+        1);
+    Assert.assertNotSame(queryList, series.getTVList());
+    Assert.assertTrue(queryList.isDictionaryEncoded());
+    Assert.assertFalse(((BinaryTVList) series.getTVList()).isDictionaryEncoded());
+    for (int i = 0; i < querySize; i++) {
+      Assert.assertEquals(String.valueOf(i), queryList.getBinary(i).toString());
+    }
+    Assert.assertEquals(maxDictionarySize + 2, series.count());
+  }
+
   @Test
   public void memSeriesToStringTest() throws IOException {
     TSDataType dataType = TSDataType.INT32;
@@ -259,6 +292,28 @@ public class PrimitiveMemTableTest {
     Assert.assertEquals(10, cnt);
   }
 
+  @Test
+  public void queryAfterDeletingAllPointsTest()
+      throws IOException, QueryProcessException, MetadataException {
+    IMemTable memTable = new PrimitiveMemTable();
+    String deviceId = "d1";
+    MeasurementSchema schema = new MeasurementSchema("s0", TSDataType.INT64, TSEncoding.PLAIN);
+    // the points are out of order, so the list is not sorted
+    for (long time : new long[] {3, 1, 2}) {
+      memTable.write(
+          DeviceIDFactory.getInstance().getDeviceID(new PartialPath(deviceId)),
+          Collections.singletonList(schema),
+          time,
+          new Object[] {time});
+    }
+    // a time range other than [Long.MIN_VALUE, Long.MAX_VALUE] keeps the empty series
+    memTable.delete(new PartialPath(deviceId, "s0"), new PartialPath(deviceId), 0, 10);
+
+    MeasurementPath fullPath = new MeasurementPath(deviceId, "s0", schema);
+    ReadOnlyMemChunk memChunk = memTable.query(fullPath, Long.MIN_VALUE, null);
+    Assert.assertFalse(memChunk.getPointReader().hasNextTimeValuePair());
+  }
+
   @Test
   public void queryAlignChuckWithDeletionTest()
       throws IOException, QueryProcessException, MetadataException {
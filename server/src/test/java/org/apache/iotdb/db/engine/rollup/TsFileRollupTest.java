@@ -0,0 +1,174 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.iotdb.db.engine.rollup;
+
+import org.apache.iotdb.db.conf.IoTDBConfig;
+import org.apache.iotdb.db.conf.IoTDBDescriptor;
+import org.apache.iotdb.db.constant.TestConstant;
+import org.apache.iotdb.db.utils.datastructure.TVList;
+import org.apache.iotdb.tsfile.exception.write.WriteProcessException;
+import org.apache.iotdb.tsfile.file.metadata.enums.TSDataType;
+import org.apache.iotdb.tsfile.file.metadata.enums.TSEncoding;
+import org.apache.iotdb.tsfile.file.metadata.statistics.Statistics;
+import org.apache.iotdb.tsfile.read.common.Path;
+import org.apache.iotdb.tsfile.write.TsFileWriter;
+import org.apache.iotdb.tsfile.write.record.TSRecord;
+import org.apache.iotdb.tsfile.write.record.datapoint.LongDataPoint;
+import org.apache.iotdb.tsfile.write.schema.MeasurementSchema;
+
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.Serializable;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+public class TsFileRollupTest {
+
+  private static final IoTDBConfig CONFIG = IoTDBDescriptor.getInstance().getConfig();
+  private static final String DEVICE = "root.sg.d1";
+  private static final String MEASUREMENT = "s1";
+
+  private final long[] intervals = {10, 100};
+  private long[] prevRollupIntervals;
+  private File tsFile;
+
+  @Before
+  public void setUp() {
+    prevRollupIntervals = CONFIG.getRollupIntervals();
+    CONFIG.setRollupIntervals(intervals);
+    tsFile = new File(TestConstant.getTestTsFilePath("root.sg", 0, 0, 1));
+    if (!tsFile.getParentFile().exists()) {
+      Assert.assertTrue(tsFile.getParentFile().mkdirs());
+    }
+  }
+
+  @After
+  public void tearDown() throws IOException {
+    CONFIG.setRollupIntervals(prevRollupIntervals);
+    Files.deleteIfExists(tsFile.toPath());
+    Files.deleteIfExists(TsFileRollup.getRollupFile(tsFile).toPath());
+  }
+
+  @Test
+  public void testSeriesRollup() {
+    SeriesRollup rollup = new SeriesRollup(TSDataType.INT64, intervals);
+    TVList list = TVList.newList(TSDataType.INT64);
+    for (long time = 199; time >= 0; time--) {
+      list.putLong(time, time);
+    }
+    // the later point of the same time overwrites the former one
+    list.putLong(50, -1);
+    list.sort();
+    rollup.update(list);
+
+    // from the tier of 100
+    Collection<Statistics<? extends Serializable>> statistics = rollup.getStatistics(0, 200);
+    Assert.assertEquals(2, statistics.size());
+    Statistics<? extends Serializable> first = statistics.iterator().next();
+    Assert.assertEquals(100, first.getCount());
+    Assert.assertEquals(-1L, first.getMinValue());
+    Assert.assertEquals(99L, first.getMaxValue());
+    Assert.assertEquals(0L, first.getFirstValue());
+
+    // from the tier of 10
+    statistics = rollup.getStatistics(50, 60);
+    Assert.assertEquals(1, statistics.size());
+    // -1 + 51 + ... + 59
+    Assert.assertEquals(494, statistics.iterator().next().getSumDoubleValue(), 0);
+
+    Assert.assertNull(rollup.getStatistics(55, 60));
+  }
+
+  @Test
+  public void testFlushAndRebuild() throws IOException, WriteProcessException {
+    TsFileRollup tsFileRollup = TsFileRollup.create();
+    Assert.assertNotNull(tsFileRollup);
+    try (TsFileWriter writer = new TsFileWriter(tsFile)) {
+      writer.registerTimeseries(
+          new Path(DEVICE), new MeasurementSchema(MEASUREMENT, TSDataType.INT64, TSEncoding.RLE));
+      // two flushes
+      for (int i = 0; i < 2; i++) {
+        TVList list = TVList.newList(TSDataType.INT64);
+        for (long time = i * 150; time < (i + 1) * 150; time++) {
+          TSRecord record = new TSRecord(time, DEVICE);
+          record.addTuple(new LongDataPoint(MEASUREMENT, time * 2));
+          writer.write(record);
+          list.putLong(time, time * 2);
+        }
+        writer.flushAllChunkGroups();
+        tsFileRollup.update(DEVICE, MEASUREMENT, list);
+      }
+    }
+    tsFileRollup.serialize(tsFile);
+    List<String> flushed = getStatistics(TsFileRollup.read(tsFile, DEVICE, MEASUREMENT));
+    Assert.assertNull(TsFileRollup.read(tsFile, DEVICE, "s2"));
+    Assert.assertEquals(3, flushed.size());
+
+    TsFileRollup.rebuild(tsFile);
+    List<String> rebuilt = getStatistics(TsFileRollup.read(tsFile, DEVICE, MEASUREMENT));
+    Assert.assertEquals(flushed, rebuilt);
+
+    // a rollup of another version of the TsFile is ignored
+    Files.write(tsFile.toPath(), new byte[1]);
+    Assert.assertNull(TsFileRollup.read(tsFile, DEVICE, MEASUREMENT));
+  }
+
+  @Test
+  public void testRamSize() {
+    TsFileRollup tsFileRollup = new TsFileRollup(intervals);
+    Assert.assertEquals(0, tsFileRollup.getRamSize());
+    tsFileRollup.update(DEVICE, MEASUREMENT, newList(0, 150));
+    long ramSize = tsFileRollup.getRamSize();
+    Assert.assertTrue(ramSize > 0);
+
+    // new intervals
+    tsFileRollup.update(DEVICE, MEASUREMENT, newList(150, 300));
+    Assert.assertTrue(tsFileRollup.getRamSize() > ramSize);
+    ramSize = tsFileRollup.getRamSize();
+
+    // merged into the existing intervals
+    tsFileRollup.update(DEVICE, MEASUREMENT, newList(290, 300));
+    Assert.assertEquals(ramSize, tsFileRollup.getRamSize());
+  }
+
+  private TVList newList(long startTime, long endTime) {
+    TVList list = TVList.newList(TSDataType.INT64);
+    for (long time = startTime; time < endTime; time++) {
+      list.putLong(time, time);
+    }
+    return list;
+  }
+
+  private List<String> getStatistics(SeriesRollup rollup) {
+    Assert.assertNotNull(rollup);
+    List<String> statistics = new ArrayList<>();
+    for (Statistics<? extends Serializable> bucket : rollup.getStatistics(0, 300)) {
+      statistics.add(bucket.toString());
+    }
+    return statistics;
+  }
+}
@@ -64,6 +64,10 @@ import java.io.IOException;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 public class StorageGroupProcessorTest {
   private static final IoTDBConfig config = IoTDBDescriptor.getInstance().getConfig();
@@ -866,6 +870,78 @@ public class StorageGroupProcessorTest {
     config.setCloseTsFileIntervalAfterFlushing(prevCloseTsFileInterval);
   }
 
+  @Test
+  public void testConcurrentInsert()
+      throws StorageGroupProcessorException, InterruptedException, ExecutionException,
+          IOException, IllegalPathException {
+    boolean defaultValue = config.isEnableConcurrentMemTableInsert();
+    config.setEnableConcurrentMemTableInsert(true);
+    int deviceNum = 4;
+    int threadNum = 8;
+    int rowNum = 1000;
+    ExecutorService pool = Executors.newFixedThreadPool(threadNum);
+    try {
+      processor.syncDeleteDataFiles();
+      processor = new DummySGP(systemDir, storageGroup);
+
+      // every device is written by two threads with interleaved timestamps
+      List<Future<?>> futures = new ArrayList<>();
+      for (int i = 0; i < threadNum; i++) {
+        int threadIndex = i;
+        futures.add(
+            pool.submit(
+                () -> {
+                  String device = deviceId + ".d" + threadIndex % deviceNum;
+                  for (int j = 0; j < rowNum; j++) {
+                    long time = 2L * j + threadIndex / deviceNum + 1;
+                    TSRecord record = new TSRecord(time, device);
+                    record.addTuple(
+                        DataPoint.getDataPoint(
+                            TSDataType.INT32, measurementId, String.valueOf(time)));
+                    processor.insert(new InsertRowPlan(record));
+                  }
+                  return null;
+                }));
+      }
+      for (Future<?> future : futures) {
+        future.get();
+      }
+
+      Assert.assertEquals(1, processor.getWorkSequenceTsFileProcessors().size());
+      TsFileProcessor tsFileProcessor =
+          processor.getWorkSequenceTsFileProcessors().iterator().next();
+      Assert.assertEquals(
+          (long) threadNum * rowNum, tsFileProcessor.getWorkMemTable().getTotalPointsNum());
+      for (int i = 0; i < deviceNum; i++) {
+        String device = deviceId + ".d" + i;
+        PartialPath fullPath =
+            new MeasurementPath(
+                device,
+                measurementId,
+                new MeasurementSchema(measurementId, TSDataType.INT32, TSEncoding.PLAIN));
+        List<TsFileResource> tsfileResourcesForQuery = new ArrayList<>();
+        tsFileProcessor.query(
+            Collections.singletonList(fullPath), context, tsfileResourcesForQuery);
+        Assert.assertEquals(1, tsfileResourcesForQuery.size());
+        long time = 1;
+        for (ReadOnlyMemChunk memChunk :
+            tsfileResourcesForQuery.get(0).getReadOnlyMemChunk(fullPath)) {
+          IPointReader iterator = memChunk.getPointReader();
+          while (iterator.hasNextTimeValuePair()) {
+            TimeValuePair timeValuePair = iterator.nextTimeValuePair();
+            Assert.assertEquals(time, timeValuePair.getTimestamp());
+            Assert.assertEquals((int) time, timeValuePair.getValue().getInt());
+            time++;
+          }
+        }
+        Assert.assertEquals(2L * rowNum + 1, time);
+      }
+    } finally {
+      pool.shutdownNow();
+      config.setEnableConcurrentMemTableInsert(defaultValue);
+    }
+  }
+
   class DummySGP extends VirtualStorageGroupProcessor {
 
     DummySGP(String systemInfoDir, String storageGroupName) throws StorageGroupProcessorException {
@@ -20,6 +20,7 @@
 package org.apache.iotdb.db.metadata.idtable;
 
 import org.apache.iotdb.db.conf.IoTDBDescriptor;
+import org.apache.iotdb.db.engine.fileSystem.SystemFileFactory;
 import org.apache.iotdb.db.exception.StorageEngineException;
 import org.apache.iotdb.db.metadata.idtable.entry.DeviceIDFactory;
 import org.apache.iotdb.db.metadata.idtable.entry.DiskSchemaEntry;
@@ -28,16 +29,20 @@ import org.apache.iotdb.db.metadata.path.PartialPath;
 import org.apache.iotdb.db.qp.physical.crud.InsertRowPlan;
 import org.apache.iotdb.db.utils.EnvironmentUtils;
 import org.apache.iotdb.tsfile.file.metadata.enums.TSDataType;
+import org.apache.iotdb.tsfile.utils.FilePathUtils;
 
 import org.junit.After;
 import org.junit.Before;
 import org.junit.Test;
 
+import java.io.File;
+import java.io.FileOutputStream;
 import java.io.IOException;
 import java.util.HashMap;
 import java.util.HashSet;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.fail;
 
 public class IDTableLogFileTest {
@@ -157,4 +162,66 @@ public class IDTableLogFileTest {
       fail("throw exception");
     }
   }
+
+  @Test
+  public void testRecoverFromLogFile() throws Exception {
+    TSDataType[] dataTypes = new TSDataType[] {TSDataType.INT32, TSDataType.INT64};
+    String[] columns = new String[] {"1", "2"};
+
+    InsertRowPlan insertRowPlan =
+        new InsertRowPlan(
+            new PartialPath("root.laptop.d1.non_aligned_device1"),
+            1L,
+            new String[] {"s1", "s2"},
+            dataTypes,
+            columns,
+            false);
+    insertRowPlan.setMeasurementMNodes(
+        new IMeasurementMNode[insertRowPlan.getMeasurements().length]);
+
+    IDTable idTable = IDTableManager.getInstance().getIDTable(new PartialPath("root.laptop"));
+    idTable.getSeriesSchemas(insertRowPlan);
+    idTable.clear();
+
+    // append a torn entry, as if the server crashed when writing it
+    File storageGroupDir =
+        SystemFileFactory.INSTANCE.getFile(
+            FilePathUtils.regularizePath(IoTDBDescriptor.getInstance().getConfig().getSystemDir())
+                + "storage_groups"
+                + File.separator
+                + "root.laptop");
+    File dataFile = new File(storageGroupDir, "SeriesKeyMapping.meta");
+    long validLength = dataFile.length();
+    try (FileOutputStream outputStream = new FileOutputStream(dataFile, true)) {
+      outputStream.write(new byte[] {0, 0, 0, 100, 1, 2});
+    }
+
+    IDTable recoveredTable = new IDTableHashmapImpl(storageGroupDir);
+    try {
+      assertEquals(validLength, dataFile.length());
+      assertEquals(2, recoveredTable.getIDiskSchemaManager().getAllSchemaEntry().size());
+
+      // the schema is resolved from recovered entries without being logged again
+      insertRowPlan =
+          new InsertRowPlan(
+              new PartialPath("root.laptop.d1.non_aligned_device1"),
+              2L,
+              new String[] {"s1", "s2"},
+              dataTypes,
+              columns,
+              false);
+      insertRowPlan.setMeasurementMNodes(
+          new IMeasurementMNode[insertRowPlan.getMeasurements().length]);
+      recoveredTable.getSeriesSchemas(insertRowPlan);
+
+      assertNotNull(insertRowPlan.getMeasurementMNodes()[0]);
+      assertEquals(
+          TSDataType.INT32, insertRowPlan.getMeasurementMNodes()[0].getSchema().getType());
+      assertEquals(
+          TSDataType.INT64, insertRowPlan.getMeasurementMNodes()[1].getSchema().getType());
+      assertEquals(2, recoveredTable.getIDiskSchemaManager().getAllSchemaEntry().size());
+    } finally {
+      recoveredTable.clear();
+    }
+  }
 }
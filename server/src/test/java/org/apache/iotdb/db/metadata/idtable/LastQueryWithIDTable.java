@@ -138,6 +138,26 @@ public class LastQueryWithIDTable {
             .getLastCache(new TimeseriesID(new PartialPath("root.isp.d1.s1"))));
   }
 
+  @Test
+  public void testLastCacheAfterDeletion() throws Exception {
+    IoTDBDescriptor.getInstance().getConfig().setEnableLastCache(true);
+    insertDataInMemory();
+
+    IDTable idTable = IDTableManager.getInstance().getIDTable(new PartialPath("root.isp.d1"));
+    TimeseriesID s1 = new TimeseriesID(new PartialPath("root.isp.d1.s1"));
+    TimeseriesID s2 = new TimeseriesID(new PartialPath("root.isp.d1.s2"));
+    assertEquals(113L, idTable.getLastCache(s1).getTimestamp());
+
+    PlanExecutor executor = new PlanExecutor();
+    PhysicalPlan deletePlan =
+        processor.parseSQLToPhysicalPlan("delete from root.isp.d1.s1 where time >= 112");
+    executor.processNonQuery(deletePlan);
+
+    // only the cache of the deleted series is reset
+    assertNull(idTable.getLastCache(s1));
+    assertEquals(113L, idTable.getLastCache(s2).getTimestamp());
+  }
+
   private void insertDataInMemory() throws IllegalPathException, QueryProcessException {
     long[] times = new long[] {110L, 111L, 112L, 113L};
     List<Integer> dataTypes = new ArrayList<>();
@@ -25,6 +25,7 @@ import org.apache.iotdb.db.exception.runtime.SQLParserException;
 import org.apache.iotdb.db.metadata.path.PartialPath;
 import org.apache.iotdb.db.qp.logical.crud.DeleteDataOperator;
 import org.apache.iotdb.db.qp.logical.crud.QueryOperator;
+import org.apache.iotdb.db.qp.logical.crud.SpecialClauseComponent;
 import org.apache.iotdb.db.qp.logical.sys.DeleteStorageGroupOperator;
 import org.apache.iotdb.db.qp.logical.sys.SetStorageGroupOperator;
 import org.apache.iotdb.db.qp.strategy.LogicalGenerator;
@@ -212,6 +213,53 @@ public class LogicalPlanSmallTest {
     Assert.assertTrue(operator.isAlignByTime());
   }
 
+  @Test
+  public void testOrderByValue() {
+    String sqlStr = "select s1, s2 from root.vehicle.d1 order by s2 desc limit 10 offset 20";
+    QueryOperator operator =
+        (QueryOperator) LogicalGenerator.generate(sqlStr, ZoneId.systemDefault());
+    Assert.assertTrue(operator.isSortedByValue());
+    SpecialClauseComponent specialClauseComponent = operator.getSpecialClauseComponent();
+    Assert.assertEquals("s2", specialClauseComponent.getSortKey().getExpressionString());
+    Assert.assertFalse(specialClauseComponent.isSortAscending());
+    // the rows are still read in ascending time order
+    Assert.assertTrue(specialClauseComponent.isAscending());
+    Assert.assertEquals(10, specialClauseComponent.getRowLimit());
+    Assert.assertEquals(20, specialClauseComponent.getRowOffset());
+
+    sqlStr = "select count(s1) from root.vehicle.d1 group by ([0, 100), 10ms) order by count(s1)";
+    operator = (QueryOperator) LogicalGenerator.generate(sqlStr, ZoneId.systemDefault());
+    specialClauseComponent = operator.getSpecialClauseComponent();
+    Assert.assertEquals("count(s1)", specialClauseComponent.getSortKey().getExpressionString());
+    Assert.assertTrue(specialClauseComponent.isSortAscending());
+
+    sqlStr = "select s1 from root.vehicle.* order by s1 asc align by device";
+    operator = (QueryOperator) LogicalGenerator.generate(sqlStr, ZoneId.systemDefault());
+    Assert.assertTrue(operator.isAlignByDevice());
+    Assert.assertEquals(
+        "s1", operator.getSpecialClauseComponent().getSortKey().getExpressionString());
+  }
+
+  @Test
+  public void testOrderByTime() {
+    String sqlStr = "select s1 from root.vehicle.d1 order by time desc";
+    QueryOperator operator =
+        (QueryOperator) LogicalGenerator.generate(sqlStr, ZoneId.systemDefault());
+    Assert.assertFalse(operator.isSortedByValue());
+    Assert.assertFalse(operator.getSpecialClauseComponent().isAscending());
+
+    sqlStr = "select s1 from root.vehicle.d1 order by time";
+    operator = (QueryOperator) LogicalGenerator.generate(sqlStr, ZoneId.systemDefault());
+    Assert.assertFalse(operator.isSortedByValue());
+  }
+
+  @Test(expected = SQLParserException.class)
+  public void testOrderByConstant() {
+    String sqlStr = "select s1 from root.vehicle.d1 order by 1";
+    LogicalGenerator.generate(sqlStr, ZoneId.systemDefault());
+    // expected to throw SQLParserException: Constant operand is not allowed: 1
+  }
+
   @Test(expected = ParseCancellationException.class)
   public void testDisableAlignConflictAlignByDevice() {
     String sqlStr = "select * from root.vehicle.** disable align align by device";
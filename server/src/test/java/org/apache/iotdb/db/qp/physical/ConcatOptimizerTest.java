@@ -19,9 +19,11 @@
 package org.apache.iotdb.db.qp.physical;
 
 import org.apache.iotdb.db.exception.metadata.MetadataException;
+import org.apache.iotdb.db.exception.query.LogicalOptimizeException;
 import org.apache.iotdb.db.exception.query.QueryProcessException;
 import org.apache.iotdb.db.metadata.path.PartialPath;
 import org.apache.iotdb.db.qp.Planner;
+import org.apache.iotdb.db.qp.physical.crud.QueryPlan;
 import org.apache.iotdb.db.qp.physical.crud.RawDataQueryPlan;
 import org.apache.iotdb.db.qp.strategy.optimizer.ConcatPathOptimizer;
 import org.apache.iotdb.db.service.IoTDB;
@@ -135,4 +137,33 @@ public class ConcatOptimizerTest {
             new SingleSeriesExpression(new Path("root.laptop.d3", "s1"), ValueFilter.lt(10)));
     assertEquals(expression.toString(), ((RawDataQueryPlan) plan).getExpression().toString());
   }
+
+  @Test
+  public void testConcatSortKey() throws QueryProcessException {
+    String inputSQL = "select s1, s2 from root.laptop.d1 order by s2";
+    QueryPlan plan = (QueryPlan) processor.parseSQLToPhysicalPlan(inputSQL);
+    assertEquals("root.laptop.d1.s2", plan.getSortColumn());
+
+    inputSQL = "select count(s1) from root.laptop.d1 order by count(s1)";
+    plan = (QueryPlan) processor.parseSQLToPhysicalPlan(inputSQL);
+    assertEquals("count(root.laptop.d1.s1)", plan.getSortColumn());
+
+    inputSQL = "select d1.s1, d2.s1 from root.laptop order by d2.s1";
+    plan = (QueryPlan) processor.parseSQLToPhysicalPlan(inputSQL);
+    assertEquals("root.laptop.d2.s1", plan.getSortColumn());
+  }
+
+  @Test
+  public void testConcatSortKeyOfAlias() throws QueryProcessException {
+    String inputSQL = "select s1 as speed, s2 from root.laptop.d1 order by speed";
+    QueryPlan plan = (QueryPlan) processor.parseSQLToPhysicalPlan(inputSQL);
+    assertEquals("speed", plan.getSortColumn());
+  }
+
+  @Test(expected = LogicalOptimizeException.class)
+  public void testConcatSortKeyOfMultiplePrefixPaths() throws QueryProcessException {
+    String inputSQL = "select s1 from root.laptop.d1, root.laptop.d2 order by s1";
+    processor.parseSQLToPhysicalPlan(inputSQL);
+    // expected to throw LogicalOptimizeException: ORDER BY s1 should match exactly one column
+  }
 }
@@ -1454,6 +1454,71 @@ public class PhysicalPlanTest {
     plan.serialize(byteBuffer);
   }
 
+  @Test
+  public void testOrderByValue() throws QueryProcessException {
+    String sqlStr =
+        "select d2.s1, d1.s1 as speed from root.vehicle order by d2.s1 desc limit 10 offset 2";
+    QueryPlan plan = (QueryPlan) processor.parseSQLToPhysicalPlan(sqlStr);
+    assertTrue(plan.isSortedByValue());
+    assertFalse(plan.isSortAscending());
+    assertEquals(10, plan.getRowLimit());
+    assertEquals(2, plan.getRowOffset());
+    // the columns of the dataset are ordered by path
+    assertEquals(1, plan.getSortColumnIndex());
+
+    sqlStr = "select d2.s1, d1.s1 as speed from root.vehicle order by speed";
+    plan = (QueryPlan) processor.parseSQLToPhysicalPlan(sqlStr);
+    assertTrue(plan.isSortAscending());
+    assertEquals(0, plan.getSortColumnIndex());
+  }
+
+  @Test
+  public void testAggregationOrderByValue() throws QueryProcessException {
+    String sqlStr = "select count(s1), max_value(s1) from root.vehicle.d1 order by max_value(s1)";
+    QueryPlan plan = (QueryPlan) processor.parseSQLToPhysicalPlan(sqlStr);
+    assertEquals(1, plan.getSortColumnIndex());
+
+    sqlStr = "select count(s1) as c, max_value(s1) as m from root.vehicle.d1 order by c";
+    plan = (QueryPlan) processor.parseSQLToPhysicalPlan(sqlStr);
+    assertEquals(0, plan.getSortColumnIndex());
+  }
+
+  @Test
+  public void testAlignByDeviceOrderByValue() throws QueryProcessException {
+    // the duplicated measurements are columns of the rows as well
+    String sqlStr =
+        "select count(s1), count(s1), max_value(s1) from root.vehicle.* "
+            + "order by max_value(s1) align by device";
+    QueryPlan plan = (QueryPlan) processor.parseSQLToPhysicalPlan(sqlStr);
+    assertEquals(3, plan.getSortColumnIndex());
+
+    sqlStr = "select s1 as speed from root.vehicle.d1 order by speed desc align by device";
+    plan = (QueryPlan) processor.parseSQLToPhysicalPlan(sqlStr);
+    assertFalse(plan.isSortAscending());
+    assertEquals(1, plan.getSortColumnIndex());
+
+    sqlStr = "select s1 from root.vehicle.d1 order by s2 align by device";
+    plan = (QueryPlan) processor.parseSQLToPhysicalPlan(sqlStr);
+    try {
+      plan.getSortColumnIndex();
+      fail();
+    } catch (QueryProcessException e) {
+      assertEquals(String.format(QueryPlan.SORT_COLUMN_ERROR_MESSAGE, "s2"), e.getMessage());
+    }
+  }
+
+  @Test
+  public void testOrderByValueInGroupByLevel() {
+    String sqlStr = "select count(s1) from root.vehicle.d1 group by level = 1 order by count(s1)";
+    try {
+      processor.parseSQLToPhysicalPlan(sqlStr);
+      fail();
+    } catch (QueryProcessException e) {
+      assertEquals(
+          "ORDER BY a column is not supported in GROUP BY LEVEL queries.", e.getMessage());
+    }
+  }
+
   @Test(expected = NullPointerException.class)
   public void testSerializationRollback() {
     InsertRowPlan plan = new InsertRowPlan();
@@ -0,0 +1,123 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.iotdb.db.query.dataset;
+
+import org.apache.iotdb.db.conf.IoTDBDescriptor;
+import org.apache.iotdb.db.qp.Planner;
+import org.apache.iotdb.db.qp.executor.IPlanExecutor;
+import org.apache.iotdb.db.qp.executor.PlanExecutor;
+import org.apache.iotdb.db.qp.physical.crud.QueryPlan;
+import org.apache.iotdb.db.query.context.QueryContext;
+import org.apache.iotdb.db.query.control.QueryResourceManager;
+import org.apache.iotdb.db.service.IoTDB;
+import org.apache.iotdb.db.utils.EnvironmentUtils;
+import org.apache.iotdb.tsfile.read.common.RowRecord;
+import org.apache.iotdb.tsfile.read.query.dataset.QueryDataSet;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class AlignByDeviceDataSetTest {
+
+  private static final int DEVICE_NUM = 6;
+  // more than the records of a device read in advance
+  private static final int POINT_NUM = 3000;
+
+  private final IPlanExecutor queryExecutor = new PlanExecutor();
+  private final Planner processor = new Planner();
+  private int prevAggregationParallelism;
+
+  static {
+    IoTDB.metaManager.init();
+  }
+
+  @Before
+  public void setUp() throws Exception {
+    prevAggregationParallelism =
+        IoTDBDescriptor.getInstance().getConfig().getAggregationParallelism();
+    IoTDBDescriptor.getInstance().getConfig().setAggregationParallelism(4);
+    EnvironmentUtils.envSetUp();
+
+    execute("SET STORAGE GROUP TO root.sg");
+    // each device is flushed into its own file, so that a device never reads the files selected
+    // for another device
+    for (int i = 0; i < DEVICE_NUM; i++) {
+      execute(String.format("CREATE TIMESERIES root.sg.d%d.s0 WITH DATATYPE=INT64", i));
+      // device i has (i + 1) * 10 points in [0, POINT_NUM)
+      for (int time = 0; time < POINT_NUM; time += POINT_NUM / ((i + 1) * 10)) {
+        execute(String.format("insert into root.sg.d%d(timestamp,s0) values(%d,%d)", i, time, i));
+      }
+      execute("flush");
+    }
+  }
+
+  @After
+  public void tearDown() throws Exception {
+    EnvironmentUtils.cleanEnv();
+    IoTDBDescriptor.getInstance().getConfig().setAggregationParallelism(prevAggregationParallelism);
+  }
+
+  @Test
+  public void testAggregationWithParallelism() throws Exception {
+    QueryDataSet dataSet = query("select count(s0), max_value(s0) from root.sg.* align by device");
+    for (int i = 0; i < DEVICE_NUM; i++) {
+      assertTrue(dataSet.hasNext());
+      assertEquals(
+          String.format("0\troot.sg.d%d\t%d\t%d", i, (i + 1) * 10, i), dataSet.next().toString());
+    }
+    assertFalse(dataSet.hasNext());
+  }
+
+  @Test
+  public void testGroupByTimeWithParallelism() throws Exception {
+    QueryDataSet dataSet =
+        query(
+            String.format(
+                "select count(s0) from root.sg.* group by ([0, %d), 1ms) align by device",
+                POINT_NUM));
+    for (int i = 0; i < DEVICE_NUM; i++) {
+      long count = 0;
+      for (int time = 0; time < POINT_NUM; time++) {
+        assertTrue(dataSet.hasNext());
+        RowRecord record = dataSet.next();
+        assertEquals(time, record.getTimestamp());
+        assertEquals(String.format("root.sg.d%d", i), record.getFields().get(0).toString());
+        count += record.getFields().get(1).getLongV();
+      }
+      assertEquals((i + 1) * 10, count);
+    }
+    assertFalse(dataSet.hasNext());
+  }
+
+  private void execute(String sql) throws Exception {
+    queryExecutor.processNonQuery(processor.parseSQLToPhysicalPlan(sql));
+  }
+
+  private QueryDataSet query(String sql) throws Exception {
+    QueryContext context =
+        new QueryContext(QueryResourceManager.getInstance().assignQueryId(true));
+    return queryExecutor.processQuery((QueryPlan) processor.parseSQLToPhysicalPlan(sql), context);
+  }
+}
@@ -0,0 +1,126 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.iotdb.db.query.dataset;
+
+import org.apache.iotdb.db.qp.Planner;
+import org.apache.iotdb.db.qp.executor.IPlanExecutor;
+import org.apache.iotdb.db.qp.executor.PlanExecutor;
+import org.apache.iotdb.db.qp.physical.crud.QueryPlan;
+import org.apache.iotdb.db.service.IoTDB;
+import org.apache.iotdb.db.utils.EnvironmentUtils;
+import org.apache.iotdb.tsfile.read.query.dataset.QueryDataSet;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class OrderByValueDataSetTest {
+
+  private final IPlanExecutor queryExecutor = new PlanExecutor();
+  private final Planner processor = new Planner();
+  private final String[] sqls = {
+    "SET STORAGE GROUP TO root.vehicle",
+    "CREATE TIMESERIES root.vehicle.d0.s0 WITH DATATYPE=INT32, ENCODING=RLE",
+    "CREATE TIMESERIES root.vehicle.d1.s0 WITH DATATYPE=INT32, ENCODING=RLE",
+    "CREATE TIMESERIES root.vehicle.d2.s0 WITH DATATYPE=INT32, ENCODING=RLE",
+    "insert into root.vehicle.d0(timestamp,s0) values(1,5)",
+    "insert into root.vehicle.d0(timestamp,s0) values(2,3)",
+    "insert into root.vehicle.d0(timestamp,s0) values(3,6)",
+    "insert into root.vehicle.d0(timestamp,s0) values(4,1)",
+    "insert into root.vehicle.d0(timestamp,s0) values(5,4)",
+    "insert into root.vehicle.d0(timestamp,s0) values(6,2)",
+    "insert into root.vehicle.d1(timestamp,s0) values(1,100)",
+    "insert into root.vehicle.d1(timestamp,s0) values(2,90)",
+    "insert into root.vehicle.d2(timestamp,s0) values(1,50)",
+    "insert into root.vehicle.d2(timestamp,s0) values(2,40)",
+    "insert into root.vehicle.d2(timestamp,s0) values(3,30)"
+  };
+
+  static {
+    IoTDB.metaManager.init();
+  }
+
+  @Before
+  public void setUp() throws Exception {
+    EnvironmentUtils.envSetUp();
+    for (String sql : sqls) {
+      queryExecutor.processNonQuery(processor.parseSQLToPhysicalPlan(sql));
+    }
+  }
+
+  @After
+  public void tearDown() throws Exception {
+    EnvironmentUtils.cleanEnv();
+  }
+
+  @Test
+  public void testLimitAndOffsetAfterSort() throws Exception {
+    QueryPlan queryPlan =
+        (QueryPlan)
+            processor.parseSQLToPhysicalPlan(
+                "select s0 from root.vehicle.d0 order by s0 desc limit 3 offset 1");
+    QueryDataSet dataSet =
+        queryExecutor.processQuery(queryPlan, EnvironmentUtils.TEST_QUERY_CONTEXT);
+    // LIMIT and OFFSET are applied to the sorted rows instead of the rows read
+    assertEquals(3, queryPlan.getRowLimit());
+    assertEquals(1, queryPlan.getRowOffset());
+    assertTrue(dataSet.hasNext());
+    assertEquals("1\t5", dataSet.next().toString());
+    assertTrue(dataSet.hasNext());
+    assertEquals("5\t4", dataSet.next().toString());
+    assertTrue(dataSet.hasNext());
+    assertEquals("2\t3", dataSet.next().toString());
+    assertFalse(dataSet.hasNext());
+  }
+
+  @Test
+  public void testSortWithoutLimit() throws Exception {
+    QueryPlan queryPlan =
+        (QueryPlan) processor.parseSQLToPhysicalPlan("select s0 from root.vehicle.d0 order by s0");
+    QueryDataSet dataSet =
+        queryExecutor.processQuery(queryPlan, EnvironmentUtils.TEST_QUERY_CONTEXT);
+    String[] expected = {"4\t1", "6\t2", "2\t3", "5\t4", "1\t5", "3\t6"};
+    for (String row : expected) {
+      assertTrue(dataSet.hasNext());
+      assertEquals(row, dataSet.next().toString());
+    }
+    assertFalse(dataSet.hasNext());
+  }
+
+  @Test
+  public void testAlignByDevice() throws Exception {
+    QueryPlan queryPlan =
+        (QueryPlan)
+            processor.parseSQLToPhysicalPlan(
+                "select count(s0), count(s0), max_value(s0) from root.vehicle.* "
+                    + "order by max_value(s0) desc limit 2 align by device");
+    QueryDataSet dataSet =
+        queryExecutor.processQuery(queryPlan, EnvironmentUtils.TEST_QUERY_CONTEXT);
+    assertTrue(dataSet.hasNext());
+    assertEquals("0\troot.vehicle.d1\t2\t2\t100", dataSet.next().toString());
+    assertTrue(dataSet.hasNext());
+    assertEquals("0\troot.vehicle.d2\t3\t3\t50", dataSet.next().toString());
+    assertFalse(dataSet.hasNext());
+  }
+}
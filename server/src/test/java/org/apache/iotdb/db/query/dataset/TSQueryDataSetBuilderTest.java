@@ -0,0 +1,133 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.iotdb.db.query.dataset;
+
+import org.apache.iotdb.service.rpc.thrift.TSQueryDataSet;
+import org.apache.iotdb.tsfile.utils.Binary;
+import org.apache.iotdb.tsfile.utils.ReadWriteIOUtils;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.nio.ByteBuffer;
+
+public class TSQueryDataSetBuilderTest {
+
+  /** 10 rows of an INT32 column without nulls, a DOUBLE column and a TEXT column with nulls */
+  private TSQueryDataSet build() {
+    TSQueryDataSetBuilder builder = TSQueryDataSetBuilder.getInstance(3);
+    for (int i = 0; i < 10; i++) {
+      builder.putTime(i);
+      builder.putInt(0, i);
+      if (i % 2 == 0) {
+        builder.putDouble(1, i * 0.5);
+      } else {
+        builder.putNull(1);
+      }
+      if (i < 3) {
+        builder.putBinary(2, new Binary("v" + i));
+      } else {
+        builder.putValue(2, null, null);
+      }
+      builder.endRow();
+    }
+    Assert.assertEquals(10, builder.getRowCount());
+    return builder.build();
+  }
+
+  private void check(TSQueryDataSet dataSet) {
+    ByteBuffer time = dataSet.bufferForTime();
+    Assert.assertEquals(10 * Long.BYTES, time.remaining());
+    for (int i = 0; i < 10; i++) {
+      Assert.assertEquals(i, time.getLong());
+    }
+
+    ByteBuffer intValues = dataSet.getValueList().get(0);
+    for (int i = 0; i < 10; i++) {
+      Assert.assertEquals(i, intValues.getInt());
+    }
+    Assert.assertFalse(intValues.hasRemaining());
+    // the bitmap of the last 2 rows is fed with 0 in the right
+    Assert.assertArrayEquals(
+        new byte[] {(byte) 0xFF, (byte) 0xC0}, dataSet.getBitmapList().get(0).array());
+
+    ByteBuffer doubleValues = dataSet.getValueList().get(1);
+    for (int i = 0; i < 10; i += 2) {
+      Assert.assertEquals(i * 0.5, doubleValues.getDouble(), 0);
+    }
+    Assert.assertFalse(doubleValues.hasRemaining());
+    Assert.assertArrayEquals(
+        new byte[] {(byte) 0xAA, (byte) 0x80}, dataSet.getBitmapList().get(1).array());
+
+    ByteBuffer textValues = dataSet.getValueList().get(2);
+    for (int i = 0; i < 3; i++) {
+      Assert.assertEquals("v" + i, ReadWriteIOUtils.readBinary(textValues).getStringValue());
+    }
+    Assert.assertFalse(textValues.hasRemaining());
+    Assert.assertArrayEquals(
+        new byte[] {(byte) 0xE0, (byte) 0x00}, dataSet.getBitmapList().get(2).array());
+  }
+
+  @Test
+  public void testBuild() {
+    TSQueryDataSet dataSet = build();
+    check(dataSet);
+  }
+
+  @Test
+  public void testReuse() {
+    TSQueryDataSet dataSet = build();
+    // the builder of the thread is reused by the next fetch
+    TSQueryDataSetBuilder builder = TSQueryDataSetBuilder.getInstance(1);
+    builder.putTime(100);
+    builder.putLong(0, 100);
+    builder.endRow();
+    TSQueryDataSet nextDataSet = builder.build();
+
+    check(dataSet);
+    Assert.assertEquals(100, nextDataSet.bufferForTime().getLong());
+    Assert.assertEquals(1, nextDataSet.getValueList().size());
+    Assert.assertEquals(100, nextDataSet.getValueList().get(0).getLong());
+    Assert.assertArrayEquals(new byte[] {(byte) 0x80}, nextDataSet.getBitmapList().get(0).array());
+  }
+
+  @Test
+  public void testRetainedBytes() {
+    // about 8MB of arrays for 3 columns
+    TSQueryDataSetBuilder builder = TSQueryDataSetBuilder.getInstance(3);
+    for (int i = 0; i < 250_000; i++) {
+      builder.putTime(i);
+      for (int column = 0; column < 3; column++) {
+        builder.putLong(column, i);
+      }
+      builder.endRow();
+    }
+    builder.build();
+    Assert.assertTrue(builder.getRetainedBytes() > 4 * 1024 * 1024);
+
+    // the arrays beyond the limit in total and the columns beyond the result are dropped
+    builder = TSQueryDataSetBuilder.getInstance(1);
+    Assert.assertTrue(builder.getRetainedBytes() <= 3 * 64);
+    builder.putTime(100);
+    builder.putLong(0, 100);
+    builder.endRow();
+    Assert.assertEquals(100, builder.build().getValueList().get(0).getLong());
+  }
+}
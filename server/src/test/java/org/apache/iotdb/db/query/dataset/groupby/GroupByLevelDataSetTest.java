@@ -32,6 +32,7 @@ import org.junit.Before;
 import org.junit.Test;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertTrue;
 
 public class GroupByLevelDataSetTest {
@@ -149,4 +150,21 @@ public class GroupByLevelDataSetTest {
     assertTrue(dataSet.hasNext());
     assertEquals("0\t1", dataSet.next().toString());
   }
+
+  @Test
+  public void testGroupByTimeAndLevel() throws Exception {
+    QueryPlan queryPlan =
+        (QueryPlan)
+            processor.parseSQLToPhysicalPlan(
+                "select count(s0) from root.*.d0 group by ([0, 40), 20ms), level=0");
+    QueryDataSet dataSet =
+        queryExecutor.processQuery(queryPlan, EnvironmentUtils.TEST_QUERY_CONTEXT);
+
+    assertEquals(1, dataSet.getDataTypes().size());
+    assertTrue(dataSet.hasNext());
+    assertEquals("0\t11", dataSet.next().toString());
+    assertTrue(dataSet.hasNext());
+    assertEquals("20\t5", dataSet.next().toString());
+    assertFalse(dataSet.hasNext());
+  }
 }
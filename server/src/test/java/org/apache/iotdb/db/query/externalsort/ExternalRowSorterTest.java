@@ -0,0 +1,181 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.iotdb.db.query.externalsort;
+
+import org.apache.iotdb.db.conf.IoTDBConfig;
+import org.apache.iotdb.db.conf.IoTDBDescriptor;
+import org.apache.iotdb.db.constant.TestConstant;
+import org.apache.iotdb.db.exception.StorageEngineException;
+import org.apache.iotdb.db.query.control.QueryResourceManager;
+import org.apache.iotdb.db.utils.EnvironmentUtils;
+import org.apache.iotdb.tsfile.file.metadata.enums.TSDataType;
+import org.apache.iotdb.tsfile.read.common.RowRecord;
+import org.apache.iotdb.tsfile.utils.Binary;
+
+import org.apache.commons.io.FileUtils;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+
+public class ExternalRowSorterTest {
+
+  private static final IoTDBConfig CONFIG = IoTDBDescriptor.getInstance().getConfig();
+
+  private String baseDir =
+      TestConstant.BASE_OUTPUT_PATH.concat("externalRowSortTestTmp").concat(File.separator);
+  private long queryId = EnvironmentUtils.TEST_QUERY_JOB_ID;
+  private float prevSortMemoryBudgetInMB;
+
+  // order by the value, then by time
+  private Comparator<RowRecord> comparator =
+      Comparator.<RowRecord>comparingLong(r -> r.getFields().get(0).getLongV())
+          .thenComparingLong(RowRecord::getTimestamp);
+
+  @Before
+  public void setUp() {
+    prevSortMemoryBudgetInMB = CONFIG.getSortMemoryBudgetInMB();
+  }
+
+  @After
+  public void tearDown() throws IOException, StorageEngineException {
+    CONFIG.setSortMemoryBudgetInMB(prevSortMemoryBudgetInMB);
+    QueryResourceManager.getInstance().endQuery(queryId);
+    FileUtils.deleteDirectory(new File(baseDir));
+  }
+
+  private List<RowRecord> genRows(int rowNum) {
+    Random random = new Random(0);
+    List<RowRecord> rows = new ArrayList<>();
+    for (int i = 0; i < rowNum; i++) {
+      RowRecord record = new RowRecord(i);
+      // many rows share a value to check the order of time
+      record.addField((long) random.nextInt(rowNum / 10), TSDataType.INT64);
+      record.addField(new Binary("value" + i), TSDataType.TEXT);
+      record.addField(null);
+      rows.add(record);
+    }
+    return rows;
+  }
+
+  private void check(ExternalRowSorter sorter, List<RowRecord> rows, int topN)
+      throws IOException {
+    for (RowRecord record : rows) {
+      sorter.add(record);
+    }
+    sorter.finish();
+    rows.sort(comparator);
+    int expectedRowNum = topN > 0 ? Math.min(topN, rows.size()) : rows.size();
+    for (int i = 0; i < expectedRowNum; i++) {
+      Assert.assertTrue(sorter.hasNext());
+      Assert.assertEquals(rows.get(i).toString(), sorter.next().toString());
+    }
+    Assert.assertFalse(sorter.hasNext());
+    sorter.close();
+    Assert.assertEquals(0, QueryResourceManager.getInstance().getSortMemoryCost(queryId));
+  }
+
+  private int getRunFileNum() {
+    String[] files = new File(baseDir).list();
+    return files == null ? 0 : files.length;
+  }
+
+  @Test
+  public void testInMemory() throws IOException {
+    ExternalRowSorter sorter =
+        new ExternalRowSorter(queryId, baseDir + "inMemory", comparator, 0, true, 10);
+    List<RowRecord> rows = genRows(1000);
+    for (RowRecord record : rows) {
+      sorter.add(record);
+    }
+    Assert.assertEquals(0, getRunFileNum());
+    sorter.close();
+
+    sorter = new ExternalRowSorter(queryId, baseDir + "inMemory", comparator, 0, true, 10);
+    check(sorter, rows, 0);
+  }
+
+  @Test
+  public void testSpill() throws IOException {
+    // a few rows fit in memory
+    CONFIG.setSortMemoryBudgetInMB(0.002f);
+    ExternalRowSorter sorter =
+        new ExternalRowSorter(queryId, baseDir + "spill", comparator, 0, true, 3);
+    List<RowRecord> rows = genRows(1000);
+    check(sorter, rows, 0);
+    // the runs are deleted when the sorter is closed
+    Assert.assertEquals(0, getRunFileNum());
+  }
+
+  @Test
+  public void testTopN() throws IOException {
+    ExternalRowSorter sorter =
+        new ExternalRowSorter(queryId, baseDir + "topN", comparator, 10, true, 3);
+    check(sorter, genRows(1000), 10);
+
+    CONFIG.setSortMemoryBudgetInMB(0.0005f);
+    sorter = new ExternalRowSorter(queryId, baseDir + "topN", comparator, 10, true, 3);
+    check(sorter, genRows(1000), 10);
+
+    // the rows beyond the budget are still kept in memory without external sort
+    sorter = new ExternalRowSorter(queryId, baseDir + "topN", comparator, 10, false, 3);
+    check(sorter, genRows(1000), 10);
+  }
+
+  @Test
+  public void testTopNBeyondBudgetWithoutExternalSort() throws IOException {
+    List<RowRecord> rows = new ArrayList<>();
+    for (long value : new long[] {1, 2, 10, 3}) {
+      RowRecord record = new RowRecord(value);
+      record.addField(value, TSDataType.INT64);
+      // the row 10 is much larger than the others
+      record.addField(new Binary(value == 10 ? new String(new char[1000]) : "v"), TSDataType.TEXT);
+      rows.add(record);
+    }
+    long smallRowSize = ExternalRowSorter.estimateSize(rows.get(0));
+    // only two small rows fit in the budget
+    CONFIG.setSortMemoryBudgetInMB(smallRowSize * 5 / 2 / 1024f / 1024f);
+
+    ExternalRowSorter sorter =
+        new ExternalRowSorter(queryId, baseDir + "topNBeyondBudget", comparator, 3, false, 3);
+    for (RowRecord record : rows) {
+      sorter.add(record);
+    }
+    // polling the row 10 kept beyond the budget doesn't release the memory of the rows 1 and 2
+    Assert.assertEquals(
+        smallRowSize * 2, QueryResourceManager.getInstance().getSortMemoryCost(queryId));
+
+    sorter.finish();
+    for (long value : new long[] {1, 2, 3}) {
+      Assert.assertTrue(sorter.hasNext());
+      Assert.assertEquals(value, sorter.next().getTimestamp());
+    }
+    Assert.assertFalse(sorter.hasNext());
+    sorter.close();
+    Assert.assertEquals(0, QueryResourceManager.getInstance().getSortMemoryCost(queryId));
+  }
+}
@@ -0,0 +1,78 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.iotdb.db.query.pool;
+
+import org.apache.iotdb.db.exception.query.QueryProcessException;
+import org.apache.iotdb.db.query.pool.AggregationTaskPoolManager.SubTask;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+public class AggregationTaskPoolManagerTest {
+
+  private final AggregationTaskPoolManager pool = AggregationTaskPoolManager.getInstance();
+
+  @Test
+  public void testRunAll() throws Exception {
+    long[] results = new long[1000];
+    Set<String> threadNames = ConcurrentHashMap.newKeySet();
+    List<SubTask> tasks = new ArrayList<>();
+    for (int i = 0; i < results.length; i++) {
+      int index = i;
+      tasks.add(
+          () -> {
+            threadNames.add(Thread.currentThread().getName());
+            results[index] = (long) index * index;
+          });
+    }
+    pool.runAll(tasks, 4);
+    for (int i = 0; i < results.length; i++) {
+      Assert.assertEquals((long) i * i, results[i]);
+    }
+    // the calling thread takes part in the tasks
+    Assert.assertTrue(threadNames.size() <= 4);
+  }
+
+  @Test
+  public void testFailure() {
+    List<SubTask> tasks = new ArrayList<>();
+    for (int i = 0; i < 1000; i++) {
+      int index = i;
+      tasks.add(
+          () -> {
+            if (index == 10) {
+              throw new QueryProcessException("failed");
+            }
+          });
+    }
+    try {
+      pool.runAll(tasks, 4);
+      Assert.fail();
+    } catch (Exception e) {
+      Assert.assertTrue(e instanceof QueryProcessException);
+      Assert.assertEquals("failed", e.getMessage());
+    }
+  }
+}
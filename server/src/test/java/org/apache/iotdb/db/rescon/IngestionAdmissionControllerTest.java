@@ -0,0 +1,105 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.iotdb.db.rescon;
+
+import org.apache.iotdb.db.conf.IoTDBConfig;
+import org.apache.iotdb.db.conf.IoTDBDescriptor;
+import org.apache.iotdb.db.engine.storagegroup.StorageGroupInfo;
+import org.apache.iotdb.db.exception.WriteProcessRejectException;
+
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+public class IngestionAdmissionControllerTest {
+
+  private static final IoTDBConfig CONFIG = IoTDBDescriptor.getInstance().getConfig();
+
+  private final IngestionAdmissionController controller =
+      IngestionAdmissionController.getInstance();
+  private boolean prevEnableAdmissionControl;
+  private StorageGroupInfo storageGroupInfo;
+
+  @Before
+  public void setUp() {
+    prevEnableAdmissionControl = CONFIG.isEnableIngestionAdmissionControl();
+    CONFIG.setEnableIngestionAdmissionControl(true);
+    controller.clear();
+    storageGroupInfo = new StorageGroupInfo(null);
+  }
+
+  @After
+  public void tearDown() {
+    CONFIG.setEnableIngestionAdmissionControl(prevEnableAdmissionControl);
+    controller.clear();
+    SystemInfo.getInstance().close();
+  }
+
+  /** make the memtables just over the flush threshold */
+  private void reportMemCost() throws WriteProcessRejectException {
+    long flushThreshold = (long) SystemInfo.getInstance().getFlushThershold();
+    storageGroupInfo.addStorageGroupMemCost(flushThreshold + 1);
+    SystemInfo.getInstance().reportStorageGroupStatus(storageGroupInfo, null);
+  }
+
+  @Test
+  public void testNoPressure() throws WriteProcessRejectException {
+    controller.recordFlush(1000, 1000);
+    controller.admit(storageGroupInfo, Long.MAX_VALUE);
+    Assert.assertEquals(Double.POSITIVE_INFINITY, controller.getAdmittedRate(), 0);
+    Assert.assertEquals(0, controller.getRejectedInsertionNum());
+  }
+
+  @Test
+  public void testDelay() throws WriteProcessRejectException {
+    reportMemCost();
+    controller.recordFlush(1000, 1000);
+    // take the burst of the bucket
+    controller.admit(storageGroupInfo, 1);
+    double rate = controller.getAdmittedRate();
+    Assert.assertEquals(2000.0 * CONFIG.getConcurrentFlushThread(), rate, rate / 100);
+    controller.admit(storageGroupInfo, (long) rate);
+
+    long startTime = System.currentTimeMillis();
+    // wait for about 200ms
+    controller.admit(storageGroupInfo, (long) rate / 5);
+    Assert.assertTrue(System.currentTimeMillis() - startTime >= 100);
+    Assert.assertEquals(0, controller.getRejectedInsertionNum());
+  }
+
+  @Test
+  public void testReject() throws WriteProcessRejectException {
+    reportMemCost();
+    controller.recordFlush(1000, 1000);
+    controller.admit(storageGroupInfo, 1);
+    double rate = controller.getAdmittedRate();
+    long points = (long) (rate * CONFIG.getMaxWaitingTimeWhenInsertBlocked() / 1000 * 2);
+    try {
+      controller.admit(storageGroupInfo, points);
+      Assert.fail();
+    } catch (WriteProcessRejectException e) {
+      Assert.assertEquals(1, controller.getRejectedInsertionNum());
+    }
+    // the rejected points are given back
+    long startTime = System.currentTimeMillis();
+    controller.admit(storageGroupInfo, 1);
+    Assert.assertTrue(System.currentTimeMillis() - startTime < 100);
+  }
+}
@@ -18,6 +18,8 @@
  */
 package org.apache.iotdb.db.utils.datastructure;
 
+import org.apache.iotdb.db.conf.IoTDBDescriptor;
+import org.apache.iotdb.db.utils.MemUtils;
 import org.apache.iotdb.tsfile.utils.Binary;
 import org.apache.iotdb.tsfile.utils.BitMap;
 
@@ -26,7 +28,10 @@ import org.junit.Assert;
 import org.junit.Test;
 
 import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Random;
+import java.util.Set;
 
 public class BinaryTVListTest {
 
@@ -108,4 +113,108 @@ public class BinaryTVListTest {
       Assert.assertEquals(tvList.getTime((int) i), clonedTvList.getTime((int) i));
     }
   }
+
+  @Test
+  public void testDictionary() {
+    BinaryTVList tvList = new BinaryTVList();
+    Random random = new Random(0);
+    long[] times = new long[1000];
+    for (int i = 0; i < 1000; i++) {
+      times[i] = random.nextInt(10000);
+      tvList.putBinary(times[i], Binary.valueOf(String.valueOf(times[i] % 10)));
+    }
+    Assert.assertTrue(tvList.isDictionaryEncoded());
+    BinaryTVList clonedTvList = tvList.clone();
+    tvList.sort();
+    for (int i = 0; i < tvList.size; i++) {
+      if (i > 0) {
+        Assert.assertTrue(tvList.getTime(i - 1) <= tvList.getTime(i));
+      }
+      Assert.assertEquals(String.valueOf(tvList.getTime(i) % 10), tvList.getBinary(i).toString());
+    }
+    // equal values have equal codes
+    Assert.assertEquals(10, countDistinctCodes(tvList));
+    // the clone is not affected by sorting
+    for (int i = 0; i < clonedTvList.size; i++) {
+      Assert.assertEquals(times[i], clonedTvList.getTime(i));
+      Assert.assertEquals(String.valueOf(times[i] % 10), clonedTvList.getBinary(i).toString());
+    }
+  }
+
+  @Test
+  public void testDictionaryFallBack() {
+    int maxDictionarySize =
+        IoTDBDescriptor.getInstance().getConfig().getMemTableTextDictionarySize();
+    BinaryTVList tvList = new BinaryTVList();
+    for (int i = 0; i < maxDictionarySize; i++) {
+      tvList.putBinary(i, Binary.valueOf(String.valueOf(i)));
+    }
+    Assert.assertTrue(tvList.isDictionaryEncoded());
+    tvList.putBinary(maxDictionarySize, Binary.valueOf(String.valueOf(maxDictionarySize)));
+    Assert.assertFalse(tvList.isDictionaryEncoded());
+    for (int i = 0; i <= maxDictionarySize; i++) {
+      Assert.assertEquals(String.valueOf(i), tvList.getBinary(i).toString());
+      Assert.assertEquals(i, tvList.getTime(i));
+    }
+  }
+
+  @Test
+  public void testFallBackNeeded() {
+    int maxDictionarySize =
+        IoTDBDescriptor.getInstance().getConfig().getMemTableTextDictionarySize();
+    BinaryTVList tvList = new BinaryTVList();
+    Binary[] values = new Binary[maxDictionarySize + 1];
+    for (int i = 0; i < values.length; i++) {
+      values[i] = Binary.valueOf(String.valueOf(i));
+    }
+    Assert.assertFalse(tvList.isFallBackNeeded(values, null, 0, maxDictionarySize));
+    Assert.assertTrue(tvList.isFallBackNeeded(values, null, 0, values.length));
+    // null values are not put
+    BitMap bitMap = new BitMap(values.length);
+    bitMap.mark(0);
+    Assert.assertFalse(tvList.isFallBackNeeded(values, bitMap, 0, values.length));
+
+    tvList.putBinaries(new long[maxDictionarySize], values, null, 0, maxDictionarySize);
+    Assert.assertFalse(tvList.isFallBackNeeded(values, null, 0, maxDictionarySize));
+    Assert.assertTrue(tvList.isFallBackNeeded(values, null, maxDictionarySize, values.length));
+    tvList.putBinary(maxDictionarySize, values[maxDictionarySize]);
+    Assert.assertFalse(tvList.isDictionaryEncoded());
+    Assert.assertFalse(tvList.isFallBackNeeded(values, null, 0, values.length));
+  }
+
+  @Test
+  public void testTextDataIncrement() {
+    int maxDictionarySize =
+        IoTDBDescriptor.getInstance().getConfig().getMemTableTextDictionarySize();
+    Binary[] values = new Binary[maxDictionarySize * 2];
+    for (int i = 0; i < values.length; i++) {
+      values[i] = Binary.valueOf(String.valueOf(i % 2));
+    }
+    // a new value is counted once
+    long expected = MemUtils.getBinarySize(values[0]) + MemUtils.getBinarySize(values[1]);
+    Assert.assertEquals(
+        expected, BinaryTVList.getTextDataIncrement(null, values, 0, values.length));
+
+    BinaryTVList tvList = new BinaryTVList();
+    tvList.putBinary(0, values[0]);
+    tvList.putBinary(1, values[1]);
+    // values already in the dictionary are not counted
+    Assert.assertEquals(0, BinaryTVList.getTextDataIncrement(tvList, values, 0, values.length));
+
+    // all values are counted if the dictionary will be full
+    for (int i = 0; i < values.length; i++) {
+      values[i] = Binary.valueOf(String.valueOf(i));
+    }
+    Assert.assertEquals(
+        MemUtils.getBinaryColumnSize(values, 0, values.length),
+        BinaryTVList.getTextDataIncrement(tvList, values, 0, values.length));
+  }
+
+  private int countDistinctCodes(BinaryTVList tvList) {
+    Set<Integer> codes = new HashSet<>();
+    for (int i = 0; i < tvList.size; i++) {
+      codes.add(tvList.getCode(i));
+    }
+    return codes.size();
+  }
 }
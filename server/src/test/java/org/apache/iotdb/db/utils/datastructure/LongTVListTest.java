@@ -18,7 +18,9 @@
  */
 package org.apache.iotdb.db.utils.datastructure;
 
+import org.apache.iotdb.tsfile.file.metadata.enums.TSEncoding;
 import org.apache.iotdb.tsfile.read.TimeValuePair;
+import org.apache.iotdb.tsfile.read.reader.IPointReader;
 import org.apache.iotdb.tsfile.utils.BitMap;
 import org.apache.iotdb.tsfile.utils.TsPrimitiveType.TsLong;
 
@@ -26,9 +28,14 @@ import org.apache.commons.lang3.ArrayUtils;
 import org.junit.Assert;
 import org.junit.Test;
 
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.LongBuffer;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 import java.util.Random;
+import java.util.TreeMap;
 
 public class LongTVListTest {
 
@@ -77,6 +84,51 @@ public class LongTVListTest {
     }
   }
 
+  @Test
+  public void testSortWithLateArrivals() {
+    Random random = new Random(0);
+    LongTVList tvList = new LongTVList();
+    List<TimeValuePair> inputs = new ArrayList<>();
+    for (long i = 0; i < 20000; i++) {
+      // one point in twenty arrives late, some with the same time as an earlier point
+      long time = random.nextInt(20) == 0 ? i - random.nextInt(1000) : i;
+      tvList.putLong(time, i);
+      inputs.add(new TimeValuePair(time, new TsLong(i)));
+    }
+    tvList.sort();
+    inputs.sort(TimeValuePair::compareTo);
+    Assert.assertTrue(tvList.isSorted());
+    for (int i = 0; i < tvList.size; i++) {
+      Assert.assertEquals(inputs.get(i).getTimestamp(), tvList.getTime(i));
+      // the sort is stable
+      Assert.assertEquals(inputs.get(i).getValue().getLong(), tvList.getLong(i));
+    }
+  }
+
+  @Test
+  public void testSortBuffersAllocatedOnce() {
+    LongTVList tvList = new LongTVList();
+    // four descending runs of 1000 points
+    for (long run = 0; run < 4; run++) {
+      for (long i = 999; i >= 0; i--) {
+        tvList.putLong(i * 4 + run, i);
+      }
+    }
+    for (int lo = 0; lo < tvList.size; lo += 1000) {
+      tvList.countRunAndMakeAscending(lo, lo + 1000);
+    }
+    tvList.merge(0, 1000, 2000);
+    long[][] sortedTimestamps = tvList.sortedTimestamps;
+    tvList.merge(2000, 3000, 4000);
+    tvList.merge(0, 2000, 4000);
+    // the buffer holds all points, so the later merges reuse it
+    Assert.assertSame(sortedTimestamps, tvList.sortedTimestamps);
+    for (int i = 0; i < tvList.size; i++) {
+      Assert.assertEquals(i, tvList.getTime(i));
+      Assert.assertEquals(i / 4, tvList.getLong(i));
+    }
+  }
+
   @Test
   public void testPutLongsWithoutBitMap() {
     LongTVList tvList = new LongTVList();
@@ -129,6 +181,37 @@ public class LongTVListTest {
     }
   }
 
+  @Test
+  public void testPutLongsFromView() {
+    LongTVList tvList = new LongTVList();
+    long[] times = new long[1001];
+    ByteBuffer buffer = ByteBuffer.allocate(1001 * Long.BYTES);
+    BitMap bitMap = new BitMap(1001);
+    for (int i = 0; i <= 1000; i++) {
+      times[i] = 1000 - i;
+      buffer.putLong(1000 - i);
+      if (i % 100 == 0) {
+        bitMap.mark(i);
+      }
+    }
+    buffer.flip();
+    LongBuffer values = buffer.asLongBuffer();
+    tvList.putLongs(times, values, null, 0, 500);
+    tvList.putLongs(times, values, bitMap, 500, 1001);
+    Assert.assertEquals(995, tvList.size());
+    Assert.assertEquals(0, values.position());
+
+    tvList.sort();
+    long expectedTime = 0;
+    for (int i = 0; i < tvList.size(); i++, expectedTime++) {
+      if (expectedTime <= 500 && (1000 - expectedTime) % 100 == 0) {
+        expectedTime++;
+      }
+      Assert.assertEquals(expectedTime, tvList.getTime(i));
+      Assert.assertEquals(expectedTime, tvList.getLong(i));
+    }
+  }
+
   @Test
   public void testClone() {
     LongTVList tvList = new LongTVList();
@@ -155,4 +238,53 @@ public class LongTVListTest {
       Assert.assertEquals(tvList.getTime((int) i), clonedTvList.getTime((int) i));
     }
   }
+
+  @Test
+  public void testSortedRunsIterator() throws IOException {
+    Random random = new Random();
+    LongTVList tvList = new LongTVList();
+    Map<Long, Long> expected = new TreeMap<>();
+    for (long i = 0; i < 5000; i++) {
+      // ascending runs of random length with duplicated timestamps
+      long time = i % (random.nextInt(100) + 1) == 0 ? random.nextInt(5000) : i / 2;
+      tvList.putLong(time, i);
+      expected.put(time, i);
+    }
+    int snapshotSize = tvList.size();
+    int[] sortedRunStarts = tvList.getSortedRunStarts();
+    Assert.assertTrue(sortedRunStarts.length > 1);
+    // the points written after the snapshot are invisible to it
+    for (long i = 0; i < 1000; i++) {
+      tvList.putLong(random.nextInt(5000), -1);
+    }
+
+    IPointReader iterator =
+        tvList.getIterator(0, TSEncoding.PLAIN, snapshotSize, null, sortedRunStarts);
+    for (Map.Entry<Long, Long> entry : expected.entrySet()) {
+      Assert.assertTrue(iterator.hasNextTimeValuePair());
+      TimeValuePair tvPair = iterator.nextTimeValuePair();
+      Assert.assertEquals((long) entry.getKey(), tvPair.getTimestamp());
+      Assert.assertEquals((long) entry.getValue(), tvPair.getValue().getLong());
+    }
+    Assert.assertFalse(iterator.hasNextTimeValuePair());
+    Assert.assertFalse(tvList.isSorted());
+    Assert.assertTrue(tvList.getSortedRunStarts().length >= sortedRunStarts.length);
+  }
+
+  @Test
+  public void testSortedRunStartsAfterDeletingAllPoints() {
+    LongTVList tvList = new LongTVList();
+    for (long time : new long[] {5, 3, 4, 1}) {
+      tvList.putLong(time, time);
+    }
+    Assert.assertFalse(tvList.isSorted());
+    Assert.assertEquals(4, tvList.delete(0, 10));
+    Assert.assertFalse(tvList.isSorted());
+    Assert.assertNull(tvList.getSortedRunStarts());
+
+    // the runs are found again for the points written after the deletion
+    tvList.putLong(2, 2);
+    tvList.putLong(1, 1);
+    Assert.assertArrayEquals(new int[] {0, 1}, tvList.getSortedRunStarts());
+  }
 }
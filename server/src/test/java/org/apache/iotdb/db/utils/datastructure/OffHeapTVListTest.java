@@ -0,0 +1,173 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.iotdb.db.utils.datastructure;
+
+import org.apache.iotdb.db.rescon.OffHeapArena;
+import org.apache.iotdb.db.rescon.SystemInfo;
+import org.apache.iotdb.tsfile.file.metadata.enums.TSDataType;
+import org.apache.iotdb.tsfile.read.TimeValuePair;
+import org.apache.iotdb.tsfile.utils.BitMap;
+import org.apache.iotdb.tsfile.utils.TsPrimitiveType.TsLong;
+
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.nio.ByteBuffer;
+import java.nio.FloatBuffer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.apache.iotdb.db.rescon.PrimitiveArrayManager.ARRAY_SIZE;
+
+public class OffHeapTVListTest {
+
+  private OffHeapArena arena;
+
+  @Before
+  public void setUp() {
+    arena = new OffHeapArena();
+  }
+
+  @After
+  public void tearDown() {
+    arena.release();
+  }
+
+  @Test
+  public void testNewList() {
+    Assert.assertTrue(TVList.newList(TSDataType.INT32, arena) instanceof OffHeapIntTVList);
+    Assert.assertTrue(TVList.newList(TSDataType.INT64, arena) instanceof OffHeapLongTVList);
+    Assert.assertTrue(TVList.newList(TSDataType.FLOAT, arena) instanceof OffHeapFloatTVList);
+    Assert.assertTrue(TVList.newList(TSDataType.DOUBLE, arena) instanceof OffHeapDoubleTVList);
+    Assert.assertTrue(TVList.newList(TSDataType.TEXT, arena) instanceof BinaryTVList);
+    Assert.assertTrue(TVList.newList(TSDataType.INT64, null) instanceof LongTVList);
+  }
+
+  @Test
+  public void testSortLongs() {
+    Random random = new Random();
+    TVList tvList = TVList.newList(TSDataType.INT64, arena);
+    List<TimeValuePair> inputs = new ArrayList<>();
+    for (long i = 0; i < 10000; i++) {
+      long time = random.nextInt(10000);
+      long value = random.nextInt(10000);
+      tvList.putLong(time, value);
+      inputs.add(new TimeValuePair(time, new TsLong(value)));
+    }
+    tvList.sort();
+    inputs.sort(TimeValuePair::compareTo);
+    for (int i = 0; i < tvList.size(); i++) {
+      Assert.assertEquals(inputs.get(i).getTimestamp(), tvList.getTime(i));
+      Assert.assertEquals(inputs.get(i).getValue().getLong(), tvList.getLong(i));
+    }
+  }
+
+  @Test
+  public void testPutDoubles() {
+    TVList tvList = TVList.newList(TSDataType.DOUBLE, arena);
+    long[] times = new long[1001];
+    double[] values = new double[1001];
+    BitMap bitMap = new BitMap(1001);
+    for (int i = 0; i <= 1000; i++) {
+      times[i] = 1000 - i;
+      values[i] = 1000 - i;
+    }
+    tvList.putDoubles(times, values, null, 0, 500);
+    for (int i = 500; i <= 1000; i++) {
+      if (i % 100 == 0) {
+        bitMap.mark(i);
+      }
+    }
+    tvList.putDoubles(times, values, bitMap, 500, 1001);
+    Assert.assertEquals(995, tvList.size());
+    Assert.assertFalse(tvList.isSorted());
+
+    tvList.sort();
+    long expectedTime = 0;
+    for (int i = 0; i < tvList.size(); i++, expectedTime++) {
+      if (expectedTime <= 500 && (1000 - expectedTime) % 100 == 0) {
+        expectedTime++;
+      }
+      Assert.assertEquals(expectedTime, tvList.getTime(i));
+      Assert.assertEquals(expectedTime, tvList.getDouble(i), 0);
+    }
+  }
+
+  @Test
+  public void testPutFloatsFromView() {
+    TVList tvList = TVList.newList(TSDataType.FLOAT, arena);
+    int size = ARRAY_SIZE * 3 + 1;
+    long[] times = new long[size];
+    ByteBuffer buffer = ByteBuffer.allocate(size * Float.BYTES);
+    for (int i = 0; i < size; i++) {
+      times[i] = i;
+      buffer.putFloat(i);
+    }
+    buffer.flip();
+    FloatBuffer values = buffer.asFloatBuffer();
+    tvList.putFloat(-1, -1);
+    tvList.putFloats(times, values, null, 0, size);
+    Assert.assertEquals(size + 1, tvList.size());
+    Assert.assertTrue(tvList.isSorted());
+    for (int i = 0; i <= size; i++) {
+      Assert.assertEquals(i - 1, tvList.getTime(i));
+      Assert.assertEquals(i - 1, tvList.getFloat(i), 0);
+    }
+  }
+
+  @Test
+  public void testCloneAndDelete() {
+    TVList tvList = TVList.newList(TSDataType.INT32, arena);
+    for (int i = 0; i < 1000; i++) {
+      tvList.putInt(i, i);
+    }
+    TVList clonedTvList = tvList.clone();
+    Assert.assertEquals(500, tvList.delete(250, 749));
+    Assert.assertEquals(500, tvList.size());
+    // the following puts expand the list again
+    for (int i = 1000; i < 2000; i++) {
+      tvList.putInt(i, i);
+    }
+    Assert.assertEquals(1500, tvList.size());
+    Assert.assertEquals(1000, clonedTvList.size());
+    for (int i = 0; i < 1000; i++) {
+      Assert.assertEquals(i, clonedTvList.getTime(i));
+      Assert.assertEquals(i, clonedTvList.getInt(i));
+    }
+    Assert.assertEquals(249, tvList.getInt(249));
+    Assert.assertEquals(750, tvList.getInt(250));
+    Assert.assertEquals(1999, tvList.getInt(1499));
+  }
+
+  @Test
+  public void testArenaAccounting() {
+    long costBefore = SystemInfo.getInstance().getOffHeapMemTableCost();
+    TVList tvList = TVList.newList(TSDataType.FLOAT, arena);
+    tvList.putFloat(1, 1.0f);
+    Assert.assertTrue(arena.getAllocatedSize() > 0);
+    Assert.assertEquals(
+        costBefore + arena.getAllocatedSize(), SystemInfo.getInstance().getOffHeapMemTableCost());
+    arena.release();
+    Assert.assertEquals(0, arena.getAllocatedSize());
+    Assert.assertEquals(costBefore, SystemInfo.getInstance().getOffHeapMemTableCost());
+  }
+}
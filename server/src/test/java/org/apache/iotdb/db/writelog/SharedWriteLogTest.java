@@ -0,0 +1,211 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.iotdb.db.writelog;
+
+import org.apache.iotdb.db.conf.IoTDBDescriptor;
+import org.apache.iotdb.db.exception.metadata.IllegalPathException;
+import org.apache.iotdb.db.metadata.path.PartialPath;
+import org.apache.iotdb.db.qp.physical.PhysicalPlan;
+import org.apache.iotdb.db.qp.physical.crud.DeletePlan;
+import org.apache.iotdb.db.qp.physical.crud.InsertRowPlan;
+import org.apache.iotdb.db.utils.EnvironmentUtils;
+import org.apache.iotdb.db.writelog.io.ILogReader;
+import org.apache.iotdb.db.writelog.node.SharedWriteLog;
+import org.apache.iotdb.db.writelog.node.SharedWriteLogNode;
+import org.apache.iotdb.db.writelog.node.WriteLogNode;
+import org.apache.iotdb.tsfile.file.metadata.enums.TSDataType;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+
+public class SharedWriteLogTest {
+
+  private File logDirectory;
+
+  @Before
+  public void setUp() {
+    EnvironmentUtils.envSetUp();
+    logDirectory =
+        new File(
+            IoTDBDescriptor.getInstance().getConfig().getWalDir(),
+            SharedWriteLog.SHARED_WAL_FOLDER);
+  }
+
+  @After
+  public void tearDown() throws Exception {
+    EnvironmentUtils.cleanEnv();
+  }
+
+  private InsertRowPlan insertPlan(String device, long time) throws IllegalPathException {
+    return new InsertRowPlan(
+        new PartialPath(device),
+        time,
+        new String[] {"s1", "s2"},
+        new TSDataType[] {TSDataType.INT64, TSDataType.TEXT},
+        new String[] {String.valueOf(time), "str" + time});
+  }
+
+  private List<PhysicalPlan> readAll(WriteLogNode node) throws IOException {
+    List<PhysicalPlan> plans = new ArrayList<>();
+    ILogReader reader = node.getLogReader();
+    while (reader.hasNext()) {
+      plans.add(reader.next());
+    }
+    reader.close();
+    return plans;
+  }
+
+  @Test
+  public void testRecoverUnflushedMemTables() throws IOException, IllegalPathException {
+    SharedWriteLog sharedLog =
+        new SharedWriteLog(logDirectory, WALSyncMode.PERIODIC, 64 * 1024, 1024 * 1024);
+    WriteLogNode node1 = new SharedWriteLogNode("root.sg1-1.tsfile", sharedLog);
+    WriteLogNode node2 = new SharedWriteLogNode("root.sg2-1.tsfile", sharedLog);
+
+    InsertRowPlan flushedPlan = insertPlan("root.sg1.d1", 1);
+    InsertRowPlan flushingPlan = insertPlan("root.sg1.d1", 2);
+    InsertRowPlan workingPlan = insertPlan("root.sg1.d1", 3);
+    DeletePlan deletePlan = new DeletePlan(Long.MIN_VALUE, 50, new PartialPath("root.sg2.d1.s1"));
+    InsertRowPlan otherPlan = insertPlan("root.sg2.d1", 4);
+
+    node1.write(flushedPlan);
+    node1.notifyStartFlush();
+    node2.write(deletePlan);
+    node1.write(flushingPlan);
+    node1.notifyEndFlush();
+    node1.notifyStartFlush();
+    node2.write(otherPlan);
+    node1.write(workingPlan);
+    sharedLog.close();
+
+    // the memtable of flushedPlan is flushed, so its log is not replayed
+    sharedLog = new SharedWriteLog(logDirectory, WALSyncMode.PERIODIC, 64 * 1024, 1024 * 1024);
+    node1 = new SharedWriteLogNode("root.sg1-1.tsfile", sharedLog);
+    node2 = new SharedWriteLogNode("root.sg2-1.tsfile", sharedLog);
+    List<PhysicalPlan> plans = readAll(node1);
+    assertEquals(2, plans.size());
+    assertEquals(flushingPlan, plans.get(0));
+    assertEquals(workingPlan, plans.get(1));
+    plans = readAll(node2);
+    assertEquals(2, plans.size());
+    assertEquals(deletePlan, plans.get(0));
+    assertEquals(otherPlan, plans.get(1));
+
+    // the logs of a deleted node are not replayed even if the same identifier is reused
+    node1.delete();
+    node1 = new SharedWriteLogNode("root.sg1-1.tsfile", sharedLog);
+    InsertRowPlan reusedPlan = insertPlan("root.sg1.d1", 5);
+    node1.write(reusedPlan);
+    sharedLog.close();
+
+    sharedLog = new SharedWriteLog(logDirectory, WALSyncMode.PERIODIC, 64 * 1024, 1024 * 1024);
+    node1 = new SharedWriteLogNode("root.sg1-1.tsfile", sharedLog);
+    plans = readAll(node1);
+    assertEquals(1, plans.size());
+    assertEquals(reusedPlan, plans.get(0));
+    sharedLog.close();
+  }
+
+  @Test
+  public void testDiscardSegments() throws IOException, IllegalPathException {
+    SharedWriteLog sharedLog = new SharedWriteLog(logDirectory, WALSyncMode.SYNC, 1024, 1024);
+    WriteLogNode node1 = new SharedWriteLogNode("root.sg1-1.tsfile", sharedLog);
+    WriteLogNode node2 = new SharedWriteLogNode("root.sg2-1.tsfile", sharedLog);
+    for (int i = 0; i < 100; i++) {
+      node1.write(insertPlan("root.sg1.d1", i));
+      node2.write(insertPlan("root.sg2.d1", i));
+    }
+    int segmentNum = sharedLog.getSegmentNum();
+    node1.notifyStartFlush();
+    node1.notifyEndFlush();
+    // node2 still holds all segments
+    assertEquals(segmentNum, sharedLog.getSegmentNum());
+
+    node2.delete();
+    // only the segment being written is left
+    assertEquals(1, sharedLog.getSegmentNum());
+    sharedLog.close();
+
+    // the logs of nodes that are not recovered are discarded after recovery
+    sharedLog = new SharedWriteLog(logDirectory, WALSyncMode.SYNC, 1024, 1024);
+    node1 = new SharedWriteLogNode("root.sg1-1.tsfile", sharedLog);
+    node1.write(insertPlan("root.sg1.d1", 100));
+    sharedLog.close();
+    sharedLog = new SharedWriteLog(logDirectory, WALSyncMode.SYNC, 1024, 1024);
+    sharedLog.discardRecoveredNodes();
+    assertEquals(1, sharedLog.getSegmentNum());
+    sharedLog.close();
+    sharedLog = new SharedWriteLog(logDirectory, WALSyncMode.SYNC, 1024, 1024);
+    node1 = new SharedWriteLogNode("root.sg1-1.tsfile", sharedLog);
+    assertFalse(node1.getLogReader().hasNext());
+    sharedLog.close();
+  }
+
+  @Test
+  public void testGroupCommit() throws Exception {
+    for (WALSyncMode syncMode : WALSyncMode.values()) {
+      SharedWriteLog sharedLog = new SharedWriteLog(logDirectory, syncMode, 64 * 1024, 16 * 1024);
+      int nodeNum = 8;
+      int planNum = 200;
+      ExecutorService pool = Executors.newFixedThreadPool(nodeNum);
+      List<Future<?>> futures = new ArrayList<>();
+      for (int i = 0; i < nodeNum; i++) {
+        String device = "root.sg" + i + ".d1";
+        WriteLogNode node = new SharedWriteLogNode("root.sg" + i + "-1.tsfile", sharedLog);
+        futures.add(
+            pool.submit(
+                () -> {
+                  for (int time = 0; time < planNum; time++) {
+                    node.write(insertPlan(device, time));
+                  }
+                  return null;
+                }));
+      }
+      for (Future<?> future : futures) {
+        future.get();
+      }
+      pool.shutdown();
+      sharedLog.close();
+
+      sharedLog = new SharedWriteLog(logDirectory, syncMode, 64 * 1024, 16 * 1024);
+      for (int i = 0; i < nodeNum; i++) {
+        WriteLogNode node = new SharedWriteLogNode("root.sg" + i + "-1.tsfile", sharedLog);
+        List<PhysicalPlan> plans = readAll(node);
+        assertEquals(planNum, plans.size());
+        for (int time = 0; time < planNum; time++) {
+          assertEquals(insertPlan("root.sg" + i + ".d1", time), plans.get(time));
+        }
+        node.delete();
+      }
+      sharedLog.close();
+    }
+  }
+}
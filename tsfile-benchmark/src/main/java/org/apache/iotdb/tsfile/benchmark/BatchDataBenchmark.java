@@ -0,0 +1,126 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.iotdb.tsfile.benchmark;
+
+import org.apache.iotdb.tsfile.file.metadata.enums.TSDataType;
+import org.apache.iotdb.tsfile.read.common.BatchData;
+import org.apache.iotdb.tsfile.read.common.IBatchDataIterator;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Filling and iterating a {@link BatchData}, the way query operators consume the data of a page.
+ * An operation puts or visits all points of the batch.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class BatchDataBenchmark {
+
+  @Param({"BOOLEAN", "INT32", "INT64", "FLOAT", "DOUBLE", "TEXT"})
+  public TSDataType dataType;
+
+  @Param({"RANDOM_WALK"})
+  public Dataset dataset;
+
+  /** number of points in the batch */
+  @Param({"10000"})
+  public int size;
+
+  private Series series;
+  private BatchData batchData;
+
+  @Setup
+  public void setUp() {
+    series = Series.generate(dataset, dataType, size);
+    batchData = new BatchData(dataType);
+    series.put(batchData);
+  }
+
+  @Benchmark
+  public BatchData put() {
+    BatchData batch = new BatchData(dataType);
+    series.put(batch);
+    return batch;
+  }
+
+  @Benchmark
+  public void iterate(Blackhole blackhole) {
+    batchData.resetBatchData();
+    while (batchData.hasCurrent()) {
+      blackhole.consume(batchData.currentTime());
+      blackhole.consume(batchData.currentValue());
+      batchData.next();
+    }
+  }
+
+  @Benchmark
+  public void iterateByIterator(Blackhole blackhole) {
+    IBatchDataIterator iterator = batchData.getBatchDataIterator();
+    while (iterator.hasNext()) {
+      blackhole.consume(iterator.currentTime());
+      blackhole.consume(iterator.currentValue());
+      iterator.next();
+    }
+  }
+
+  @Benchmark
+  public void iterateByIndex(Blackhole blackhole) {
+    int length = batchData.length();
+    for (int i = 0; i < length; i++) {
+      blackhole.consume(batchData.getTimeByIndex(i));
+      switch (dataType) {
+        case BOOLEAN:
+          blackhole.consume(batchData.getBooleanByIndex(i));
+          break;
+        case INT32:
+          blackhole.consume(batchData.getIntByIndex(i));
+          break;
+        case INT64:
+          blackhole.consume(batchData.getLongByIndex(i));
+          break;
+        case FLOAT:
+          blackhole.consume(batchData.getFloatByIndex(i));
+          break;
+        case DOUBLE:
+          blackhole.consume(batchData.getDoubleByIndex(i));
+          break;
+        default:
+          blackhole.consume(batchData.getBinaryByIndex(i));
+          break;
+      }
+    }
+  }
+}
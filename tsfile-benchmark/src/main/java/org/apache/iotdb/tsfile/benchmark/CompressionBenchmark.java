@@ -0,0 +1,107 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.iotdb.tsfile.benchmark;
+
+import org.apache.iotdb.tsfile.compress.ICompressor;
+import org.apache.iotdb.tsfile.compress.IUnCompressor;
+import org.apache.iotdb.tsfile.file.metadata.enums.CompressionType;
+import org.apache.iotdb.tsfile.file.metadata.enums.TSDataType;
+import org.apache.iotdb.tsfile.file.metadata.enums.TSEncoding;
+import org.apache.iotdb.tsfile.write.page.PageWriter;
+import org.apache.iotdb.tsfile.write.schema.MeasurementSchema;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compression and decompression of one page by each {@link ICompressor}. The page holds the encoded
+ * timestamps and values of a dataset, as it is before being compressed by a page writer.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class CompressionBenchmark {
+
+  @Param({"UNCOMPRESSED", "SNAPPY", "GZIP", "LZ4", "LZ4HC", "ZSTD"})
+  public CompressionType compressionType;
+
+  @Param({"CONSTANT", "UNIFORM", "SINE", "COUNTER", "RANDOM_WALK", "REPEATED", "TEXT_TAG"})
+  public Dataset dataset;
+
+  @Param({"INT64", "DOUBLE", "TEXT"})
+  public TSDataType dataType;
+
+  /** encoding of the values, the timestamps are encoded by the configured time encoder */
+  @Param({"PLAIN", "AUTO"})
+  public TSEncoding encoding;
+
+  /** number of points in a page */
+  @Param({"10000"})
+  public int size;
+
+  private ICompressor compressor;
+  private IUnCompressor unCompressor;
+  private byte[] page;
+  private byte[] compressed;
+  private byte[] uncompressed;
+
+  @Setup
+  public void setUp() throws IOException {
+    MeasurementSchema schema =
+        new MeasurementSchema("s", dataType, encoding, CompressionType.UNCOMPRESSED);
+    PageWriter pageWriter = new PageWriter(schema);
+    Series.generate(dataset, dataType, size).write(pageWriter);
+    ByteBuffer pageData = pageWriter.getUncompressedBytes();
+    page = new byte[pageData.remaining()];
+    pageData.get(page);
+
+    compressor = ICompressor.getCompressor(compressionType);
+    unCompressor = IUnCompressor.getUnCompressor(compressionType);
+    compressed = compressor.compress(page);
+    uncompressed = new byte[page.length];
+  }
+
+  @Benchmark
+  public byte[] compress() throws IOException {
+    return compressor.compress(page);
+  }
+
+  @Benchmark
+  public byte[] uncompress() throws IOException {
+    // the uncompressed size is known from the page header when reading
+    unCompressor.uncompress(compressed, 0, compressed.length, uncompressed, 0);
+    return uncompressed;
+  }
+}
@@ -0,0 +1,125 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.iotdb.tsfile.benchmark;
+
+import java.util.Random;
+
+/**
+ * Datasets that the benchmarks run over. The values are generated from a fixed seed, so that the
+ * results of different runs are comparable.
+ */
+public enum Dataset {
+  /** the same value all the time */
+  CONSTANT(0),
+  /** uniformly distributed random values, the worst case of most encodings */
+  UNIFORM(0),
+  /** a noisy sine wave with two decimal places, like a periodic sensor reading */
+  SINE(2),
+  /** a counter that increases by a random step, like an energy meter */
+  COUNTER(0),
+  /** a random walk with two decimal places, like a slowly drifting sensor reading */
+  RANDOM_WALK(2),
+  /** runs of the same value cycling through a few values with one decimal place, like a setpoint */
+  REPEATED(1),
+  /** a tag of low cardinality and skewed distribution, like a status or a region */
+  TEXT_TAG(0);
+
+  private static final long SEED = 0;
+
+  private static final String[] TAGS = {
+    "running", "idle", "stopped", "maintenance", "warning", "error", "offline", "starting",
+    "beijing", "shanghai", "shenzhen", "hangzhou", "chengdu", "wuhan", "xian", "nanjing"
+  };
+
+  /** decimal places of the generated values, integer series keep them by scaling */
+  private final int decimalPlaces;
+
+  Dataset(int decimalPlaces) {
+    this.decimalPlaces = decimalPlaces;
+  }
+
+  int getDecimalPlaces() {
+    return decimalPlaces;
+  }
+
+  /**
+   * @param size number of values
+   * @return the values of the dataset, or the index of the tags for {@link #TEXT_TAG}
+   */
+  double[] generate(int size) {
+    Random random = new Random(SEED);
+    double[] values = new double[size];
+    long counter = 0;
+    long reading = 2000;
+    for (int i = 0; i < size; i++) {
+      switch (this) {
+        case CONSTANT:
+          values[i] = 42;
+          break;
+        case UNIFORM:
+          values[i] = random.nextDouble() * 1_000_000;
+          break;
+        case SINE:
+          double wave = 100 * Math.sin(2 * Math.PI * i / 1000) + random.nextGaussian() * 0.5;
+          values[i] = Math.round(wave * 100) / 100.0;
+          break;
+        case COUNTER:
+          counter += random.nextInt(10);
+          values[i] = counter;
+          break;
+        case RANDOM_WALK:
+          reading += random.nextInt(11) - 5;
+          values[i] = reading / 100.0;
+          break;
+        case REPEATED:
+          values[i] = (i / 100) % 10 * 1.5;
+          break;
+        case TEXT_TAG:
+          values[i] = (int) Math.abs(random.nextGaussian() * 3) % TAGS.length;
+          break;
+        default:
+          throw new UnsupportedOperationException(toString());
+      }
+    }
+    return values;
+  }
+
+  /** @return the text of a generated value */
+  String toText(double value) {
+    return this == TEXT_TAG ? TAGS[(int) value] : Double.toString(value);
+  }
+
+  /**
+   * @param size number of timestamps
+   * @return timestamps of a sensor reporting every second, with a little jitter now and then
+   */
+  static long[] generateTimestamps(int size) {
+    Random random = new Random(SEED);
+    long[] timestamps = new long[size];
+    long time = 1_600_000_000_000L;
+    for (int i = 0; i < size; i++) {
+      time += 1000;
+      if (random.nextInt(100) == 0) {
+        time += random.nextInt(50);
+      }
+      timestamps[i] = time;
+    }
+    return timestamps;
+  }
+}
@@ -0,0 +1,123 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.iotdb.tsfile.benchmark;
+
+import org.apache.iotdb.tsfile.encoding.decoder.Decoder;
+import org.apache.iotdb.tsfile.encoding.encoder.AutoEncoder;
+import org.apache.iotdb.tsfile.encoding.encoder.Encoder;
+import org.apache.iotdb.tsfile.encoding.encoder.TSEncodingBuilder;
+import org.apache.iotdb.tsfile.file.metadata.enums.TSDataType;
+import org.apache.iotdb.tsfile.file.metadata.enums.TSEncoding;
+import org.apache.iotdb.tsfile.utils.PublicBAOS;
+
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Round trip of an {@link Encoder} and its {@link Decoder} over one page of a dataset. An operation
+ * encodes or decodes the whole page. The subclasses choose the data types and the encodings, so
+ * that only the supported pairs are run.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public abstract class EncodingBenchmark {
+
+  @Param({"CONSTANT", "UNIFORM", "SINE", "COUNTER", "RANDOM_WALK", "REPEATED", "TEXT_TAG"})
+  public Dataset dataset;
+
+  /** number of points in a page */
+  @Param({"10000"})
+  public int size;
+
+  private Series series;
+  private final PublicBAOS out = new PublicBAOS();
+  private ByteBuffer encoded;
+  private TSEncoding decoding;
+
+  protected abstract TSDataType getDataType();
+
+  protected abstract TSEncoding getEncoding();
+
+  @Setup
+  public void setUp() throws IOException {
+    series = Series.generate(dataset, getDataType(), size);
+    Encoder encoder = newEncoder();
+    series.encode(encoder, out);
+    encoded = ByteBuffer.wrap(out.toByteArray());
+    // the encoding selected by AUTO is recorded in the chunk header and used to decode
+    decoding =
+        encoder instanceof AutoEncoder
+            ? ((AutoEncoder) encoder).getSelectedEncoding()
+            : getEncoding();
+  }
+
+  @Benchmark
+  public int encode(EncodedSize encodedSize) throws IOException {
+    out.reset();
+    series.encode(newEncoder(), out);
+    encodedSize.encodedBytes += out.size();
+    return out.size();
+  }
+
+  @Benchmark
+  public void decode(Blackhole blackhole) throws IOException {
+    series.decode(
+        Decoder.getDecoderByType(decoding, getDataType()), encoded.duplicate(), blackhole);
+  }
+
+  private Encoder newEncoder() {
+    return TSEncodingBuilder.getEncodingBuilder(getEncoding()).getEncoder(getDataType());
+  }
+
+  /**
+   * Size of the encoded pages. It is reported as a rate like the throughput, so the size of one
+   * page is encodedBytes divided by the score of encode.
+   */
+  @State(Scope.Thread)
+  @AuxCounters(AuxCounters.Type.OPERATIONS)
+  public static class EncodedSize {
+
+    public long encodedBytes;
+
+    @Setup(Level.Iteration)
+    public void reset() {
+      encodedBytes = 0;
+    }
+  }
+}
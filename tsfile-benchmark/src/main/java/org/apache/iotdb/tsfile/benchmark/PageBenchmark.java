@@ -0,0 +1,139 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.iotdb.tsfile.benchmark;
+
+import org.apache.iotdb.tsfile.common.conf.TSFileDescriptor;
+import org.apache.iotdb.tsfile.compress.ICompressor;
+import org.apache.iotdb.tsfile.compress.IUnCompressor;
+import org.apache.iotdb.tsfile.encoding.decoder.Decoder;
+import org.apache.iotdb.tsfile.encoding.encoder.AutoEncoder;
+import org.apache.iotdb.tsfile.encoding.encoder.Encoder;
+import org.apache.iotdb.tsfile.file.metadata.enums.CompressionType;
+import org.apache.iotdb.tsfile.file.metadata.enums.TSDataType;
+import org.apache.iotdb.tsfile.file.metadata.enums.TSEncoding;
+import org.apache.iotdb.tsfile.read.common.BatchData;
+import org.apache.iotdb.tsfile.read.reader.page.PageReader;
+import org.apache.iotdb.tsfile.utils.PublicBAOS;
+import org.apache.iotdb.tsfile.write.page.PageWriter;
+import org.apache.iotdb.tsfile.write.schema.MeasurementSchema;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Round trip of a page through {@link PageWriter} and {@link PageReader}. Writing covers encoding,
+ * statistics and compression of a page, reading covers decompression and decoding it into a
+ * {@link BatchData}.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class PageBenchmark {
+
+  @Param({"CONSTANT", "UNIFORM", "SINE", "COUNTER", "RANDOM_WALK", "REPEATED", "TEXT_TAG"})
+  public Dataset dataset;
+
+  @Param({"BOOLEAN", "INT32", "INT64", "FLOAT", "DOUBLE", "TEXT"})
+  public TSDataType dataType;
+
+  /** encoding of the values, the timestamps are encoded by the configured time encoder */
+  @Param({"PLAIN", "AUTO"})
+  public TSEncoding encoding;
+
+  @Param({"UNCOMPRESSED", "SNAPPY", "LZ4"})
+  public CompressionType compressionType;
+
+  /** number of points in a page */
+  @Param({"10000"})
+  public int size;
+
+  private Series series;
+  private MeasurementSchema schema;
+  private final PublicBAOS out = new PublicBAOS();
+
+  private TSEncoding valueDecoding;
+  private final TSEncoding timeEncoding =
+      TSEncoding.valueOf(TSFileDescriptor.getInstance().getConfig().getTimeEncoder());
+  private final TSDataType timeType =
+      TSFileDescriptor.getInstance().getConfig().getTimeSeriesDataType();
+  private IUnCompressor unCompressor;
+  private byte[] compressed;
+  private int uncompressedSize;
+
+  @Setup
+  public void setUp() throws IOException {
+    series = Series.generate(dataset, dataType, size);
+    schema = new MeasurementSchema("s", dataType, encoding, compressionType);
+
+    PageWriter pageWriter = new PageWriter(schema);
+    Encoder valueEncoder = schema.getValueEncoder();
+    pageWriter.setValueEncoder(valueEncoder);
+    series.write(pageWriter);
+    ByteBuffer pageData = pageWriter.getUncompressedBytes();
+    uncompressedSize = pageData.remaining();
+    byte[] page = new byte[uncompressedSize];
+    pageData.get(page);
+    compressed = ICompressor.getCompressor(compressionType).compress(page);
+    unCompressor = IUnCompressor.getUnCompressor(compressionType);
+    // the encoding selected by AUTO is recorded in the chunk header and used to decode
+    valueDecoding =
+        valueEncoder instanceof AutoEncoder
+            ? ((AutoEncoder) valueEncoder).getSelectedEncoding()
+            : encoding;
+  }
+
+  @Benchmark
+  public int write() throws IOException {
+    PageWriter pageWriter = new PageWriter(schema);
+    series.write(pageWriter);
+    out.reset();
+    pageWriter.writePageHeaderAndDataIntoBuff(out, false);
+    return out.size();
+  }
+
+  @Benchmark
+  public BatchData read() throws IOException {
+    byte[] uncompressed = new byte[uncompressedSize];
+    unCompressor.uncompress(compressed, 0, compressed.length, uncompressed, 0);
+    PageReader pageReader =
+        new PageReader(
+            ByteBuffer.wrap(uncompressed),
+            dataType,
+            Decoder.getDecoderByType(valueDecoding, dataType),
+            Decoder.getDecoderByType(timeEncoding, timeType),
+            null);
+    return pageReader.getAllSatisfiedPageData(true);
+  }
+}
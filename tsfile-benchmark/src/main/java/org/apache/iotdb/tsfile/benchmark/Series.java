@@ -0,0 +1,228 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.iotdb.tsfile.benchmark;
+
+import org.apache.iotdb.tsfile.encoding.decoder.Decoder;
+import org.apache.iotdb.tsfile.encoding.encoder.Encoder;
+import org.apache.iotdb.tsfile.exception.write.UnSupportedDataTypeException;
+import org.apache.iotdb.tsfile.file.metadata.enums.TSDataType;
+import org.apache.iotdb.tsfile.read.common.BatchData;
+import org.apache.iotdb.tsfile.utils.Binary;
+import org.apache.iotdb.tsfile.utils.PublicBAOS;
+import org.apache.iotdb.tsfile.write.page.PageWriter;
+
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+
+/** Timestamps and values of a {@link Dataset} in the arrays of one data type. */
+public class Series {
+
+  private final TSDataType dataType;
+  private final int size;
+  private final long[] timestamps;
+
+  private boolean[] booleans;
+  private int[] ints;
+  private long[] longs;
+  private float[] floats;
+  private double[] doubles;
+  private Binary[] binaries;
+
+  private Series(TSDataType dataType, int size) {
+    this.dataType = dataType;
+    this.size = size;
+    this.timestamps = Dataset.generateTimestamps(size);
+  }
+
+  /**
+   * @param dataset the dataset of the values
+   * @param dataType data type of the series
+   * @param size number of points
+   */
+  public static Series generate(Dataset dataset, TSDataType dataType, int size) {
+    Series series = new Series(dataType, size);
+    double[] values = dataset.generate(size);
+    // integer series keep the decimal places of the dataset by scaling
+    double scale = Math.pow(10, dataset.getDecimalPlaces());
+    switch (dataType) {
+      case BOOLEAN:
+        // whether the value rises, so that it follows the trend of the dataset
+        series.booleans = new boolean[size];
+        for (int i = 1; i < size; i++) {
+          series.booleans[i] = values[i] > values[i - 1];
+        }
+        break;
+      case INT32:
+        series.ints = new int[size];
+        for (int i = 0; i < size; i++) {
+          series.ints[i] = (int) Math.round(values[i] * scale);
+        }
+        break;
+      case INT64:
+        series.longs = new long[size];
+        for (int i = 0; i < size; i++) {
+          series.longs[i] = Math.round(values[i] * scale);
+        }
+        break;
+      case FLOAT:
+        series.floats = new float[size];
+        for (int i = 0; i < size; i++) {
+          series.floats[i] = (float) values[i];
+        }
+        break;
+      case DOUBLE:
+        series.doubles = values;
+        break;
+      case TEXT:
+        series.binaries = new Binary[size];
+        for (int i = 0; i < size; i++) {
+          series.binaries[i] = Binary.valueOf(dataset.toText(values[i]));
+        }
+        break;
+      default:
+        throw new UnSupportedDataTypeException(dataType.toString());
+    }
+    return series;
+  }
+
+  public TSDataType getDataType() {
+    return dataType;
+  }
+
+  public int getSize() {
+    return size;
+  }
+
+  public long[] getTimestamps() {
+    return timestamps;
+  }
+
+  /** encode all values and flush the encoder, like a page writer does. */
+  public void encode(Encoder encoder, PublicBAOS out) throws IOException {
+    for (int i = 0; i < size; i++) {
+      switch (dataType) {
+        case BOOLEAN:
+          encoder.encode(booleans[i], out);
+          break;
+        case INT32:
+          encoder.encode(ints[i], out);
+          break;
+        case INT64:
+          encoder.encode(longs[i], out);
+          break;
+        case FLOAT:
+          encoder.encode(floats[i], out);
+          break;
+        case DOUBLE:
+          encoder.encode(doubles[i], out);
+          break;
+        case TEXT:
+          encoder.encode(binaries[i], out);
+          break;
+        default:
+          throw new UnSupportedDataTypeException(dataType.toString());
+      }
+    }
+    encoder.flush(out);
+  }
+
+  /** decode all values in the buffer into the blackhole, like a page reader does. */
+  public void decode(Decoder decoder, ByteBuffer buffer, Blackhole blackhole) throws IOException {
+    while (decoder.hasNext(buffer)) {
+      switch (dataType) {
+        case BOOLEAN:
+          blackhole.consume(decoder.readBoolean(buffer));
+          break;
+        case INT32:
+          blackhole.consume(decoder.readInt(buffer));
+          break;
+        case INT64:
+          blackhole.consume(decoder.readLong(buffer));
+          break;
+        case FLOAT:
+          blackhole.consume(decoder.readFloat(buffer));
+          break;
+        case DOUBLE:
+          blackhole.consume(decoder.readDouble(buffer));
+          break;
+        case TEXT:
+          blackhole.consume(decoder.readBinary(buffer));
+          break;
+        default:
+          throw new UnSupportedDataTypeException(dataType.toString());
+      }
+    }
+  }
+
+  /** write all points into the page writer. */
+  public void write(PageWriter pageWriter) {
+    switch (dataType) {
+      case BOOLEAN:
+        pageWriter.write(timestamps, booleans, size);
+        break;
+      case INT32:
+        pageWriter.write(timestamps, ints, size);
+        break;
+      case INT64:
+        pageWriter.write(timestamps, longs, size);
+        break;
+      case FLOAT:
+        pageWriter.write(timestamps, floats, size);
+        break;
+      case DOUBLE:
+        pageWriter.write(timestamps, doubles, size);
+        break;
+      case TEXT:
+        pageWriter.write(timestamps, binaries, size);
+        break;
+      default:
+        throw new UnSupportedDataTypeException(dataType.toString());
+    }
+  }
+
+  /** put all points into the batch data. */
+  public void put(BatchData batchData) {
+    for (int i = 0; i < size; i++) {
+      switch (dataType) {
+        case BOOLEAN:
+          batchData.putBoolean(timestamps[i], booleans[i]);
+          break;
+        case INT32:
+          batchData.putInt(timestamps[i], ints[i]);
+          break;
+        case INT64:
+          batchData.putLong(timestamps[i], longs[i]);
+          break;
+        case FLOAT:
+          batchData.putFloat(timestamps[i], floats[i]);
+          break;
+        case DOUBLE:
+          batchData.putDouble(timestamps[i], doubles[i]);
+          break;
+        case TEXT:
+          batchData.putBinary(timestamps[i], binaries[i]);
+          break;
+        default:
+          throw new UnSupportedDataTypeException(dataType.toString());
+      }
+    }
+  }
+}
@@ -0,0 +1,164 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.iotdb.tsfile.benchmark;
+
+import org.apache.iotdb.tsfile.exception.write.WriteProcessException;
+import org.apache.iotdb.tsfile.file.metadata.ChunkMetadata;
+import org.apache.iotdb.tsfile.file.metadata.TimeseriesMetadata;
+import org.apache.iotdb.tsfile.file.metadata.enums.TSDataType;
+import org.apache.iotdb.tsfile.file.metadata.enums.TSEncoding;
+import org.apache.iotdb.tsfile.read.TsFileSequenceReader;
+import org.apache.iotdb.tsfile.read.common.Path;
+import org.apache.iotdb.tsfile.utils.BloomFilter;
+import org.apache.iotdb.tsfile.write.TsFileWriter;
+import org.apache.iotdb.tsfile.write.record.Tablet;
+import org.apache.iotdb.tsfile.write.schema.MeasurementSchema;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Metadata lookups of {@link TsFileSequenceReader} on a sealed file with many devices. Each
+ * operation looks up one series or device, cycling over them in a shuffled order so that the
+ * lookups do not always hit the same index nodes.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class TsFileMetadataBenchmark {
+
+  @Param({"100", "1000"})
+  public int deviceNum;
+
+  @Param({"100"})
+  public int measurementNum;
+
+  /** number of points of each series */
+  @Param({"100"})
+  public int size;
+
+  private File file;
+  private TsFileSequenceReader reader;
+  private List<Path> paths;
+  private List<String> devices;
+  private int pathIndex;
+  private int deviceIndex;
+
+  @Setup
+  public void setUp() throws IOException, WriteProcessException {
+    file = Files.createTempFile("tsfile-benchmark", ".tsfile").toFile();
+    Files.delete(file.toPath());
+
+    List<MeasurementSchema> schemas = new ArrayList<>(measurementNum);
+    for (int i = 0; i < measurementNum; i++) {
+      schemas.add(new MeasurementSchema("s" + i, TSDataType.INT64, TSEncoding.TS_2DIFF));
+    }
+    paths = new ArrayList<>(deviceNum * measurementNum);
+    devices = new ArrayList<>(deviceNum);
+    try (TsFileWriter writer = new TsFileWriter(file)) {
+      for (int d = 0; d < deviceNum; d++) {
+        String device = "root.benchmark.d" + d;
+        devices.add(device);
+        writer.registerTimeseries(new Path(device), schemas);
+        Tablet tablet = new Tablet(device, schemas, size);
+        for (int row = 0; row < size; row++) {
+          tablet.addTimestamp(row, row);
+          for (MeasurementSchema schema : schemas) {
+            tablet.addValue(schema.getMeasurementId(), row, (long) row);
+          }
+        }
+        tablet.rowSize = size;
+        writer.write(tablet);
+        for (MeasurementSchema schema : schemas) {
+          paths.add(new Path(device, schema.getMeasurementId()));
+        }
+      }
+    }
+    Random random = new Random(0);
+    Collections.shuffle(paths, random);
+    Collections.shuffle(devices, random);
+    reader = new TsFileSequenceReader(file.getPath());
+  }
+
+  @TearDown
+  public void tearDown() throws IOException {
+    reader.close();
+    Files.deleteIfExists(file.toPath());
+  }
+
+  private Path nextPath() {
+    Path path = paths.get(pathIndex);
+    pathIndex = (pathIndex + 1) % paths.size();
+    return path;
+  }
+
+  private String nextDevice() {
+    String device = devices.get(deviceIndex);
+    deviceIndex = (deviceIndex + 1) % devices.size();
+    return device;
+  }
+
+  @Benchmark
+  public TimeseriesMetadata readTimeseriesMetadata() throws IOException {
+    return reader.readTimeseriesMetadata(nextPath(), true);
+  }
+
+  @Benchmark
+  public List<ChunkMetadata> getChunkMetadataList() throws IOException {
+    return reader.getChunkMetadataList(nextPath());
+  }
+
+  @Benchmark
+  public Map<String, TimeseriesMetadata> readDeviceMetadata() throws IOException {
+    return reader.readDeviceMetadata(nextDevice());
+  }
+
+  @Benchmark
+  public BloomFilter readBloomFilter() throws IOException {
+    return reader.readBloomFilter(nextDevice());
+  }
+
+  @Benchmark
+  public List<String> getAllDevices() throws IOException {
+    return reader.getAllDevices();
+  }
+}
@@ -109,6 +109,10 @@ public class TSFileConfig implements Serializable {
   private double dftSatisfyRate = 0.1;
   /** Data compression method, TsFile supports UNCOMPRESSED, SNAPPY or LZ4. */
   private CompressionType compressor = CompressionType.SNAPPY;
+  /** Default compression level of ZSTD, ranging from 1 to 22. */
+  private int zstdCompressionLevel = 3;
+  /** Default compression level of LZ4HC, ranging from 1 to 17. */
+  private int lz4HcCompressionLevel = 9;
   /** Line count threshold for checking page memory occupied size. */
   private int pageCheckSizeThreshold = 100;
   /** Default endian value is BIG_ENDIAN. */
@@ -143,8 +147,32 @@ public class TSFileConfig implements Serializable {
   private String kerberosPrincipal = "principal";
   /** The acceptable error rate of bloom filter */
   private double bloomFilterErrorRate = 0.05;
+  /**
+   * When a TsFile has more series than this, its series bloom filter is split into blocks by
+   * device, so that a query only reads the block of its device. 0 keeps one filter per file.
+   */
+  private int bloomFilterBlockSeriesNum = 4096;
+  /**
+   * Whether to build a bloom filter over the values of each page, so that equality filters skip
+   * pages without the value. A timeseries can override it with the property page_bloom_filter.
+   */
+  private boolean enablePageBloomFilter = false;
+  /** The acceptable error rate of the value bloom filters of pages */
+  private double pageBloomFilterErrorRate = 0.05;
   /** The amount of data iterate each time */
   private int batchSize = 1000;
+  /** Whether to read sealed TsFiles through memory mapping instead of copying into heap buffers */
+  private boolean enableMMapRead = false;
+  /**
+   * Soft limit of the bytes mapped by all memory-mapped TsFile inputs. Unreferenced readers are
+   * closed once it is exceeded. Default value is 4GB.
+   */
+  private long mmapReadBudgetInByte = 4L * 1024 * 1024 * 1024;
+  /**
+   * Memory that a TsFileWriter may use for the chunk metadata of the file being written. The chunk
+   * metadata are spilled to a temporary file once it is exceeded. 0 means never spilling.
+   */
+  private long chunkMetadataMemoryBudgetInByte = 0;
 
   public TSFileConfig() {}
 
@@ -284,6 +312,22 @@ public class TSFileConfig implements Serializable {
     this.compressor = CompressionType.valueOf(compressor);
   }
 
+  public int getZstdCompressionLevel() {
+    return zstdCompressionLevel;
+  }
+
+  public void setZstdCompressionLevel(int zstdCompressionLevel) {
+    this.zstdCompressionLevel = zstdCompressionLevel;
+  }
+
+  public int getLz4HcCompressionLevel() {
+    return lz4HcCompressionLevel;
+  }
+
+  public void setLz4HcCompressionLevel(int lz4HcCompressionLevel) {
+    this.lz4HcCompressionLevel = lz4HcCompressionLevel;
+  }
+
   public int getPageCheckSizeThreshold() {
     return pageCheckSizeThreshold;
   }
@@ -332,6 +376,30 @@ public class TSFileConfig implements Serializable {
     this.bloomFilterErrorRate = bloomFilterErrorRate;
   }
 
+  public int getBloomFilterBlockSeriesNum() {
+    return bloomFilterBlockSeriesNum;
+  }
+
+  public void setBloomFilterBlockSeriesNum(int bloomFilterBlockSeriesNum) {
+    this.bloomFilterBlockSeriesNum = bloomFilterBlockSeriesNum;
+  }
+
+  public boolean isEnablePageBloomFilter() {
+    return enablePageBloomFilter;
+  }
+
+  public void setEnablePageBloomFilter(boolean enablePageBloomFilter) {
+    this.enablePageBloomFilter = enablePageBloomFilter;
+  }
+
+  public double getPageBloomFilterErrorRate() {
+    return pageBloomFilterErrorRate;
+  }
+
+  public void setPageBloomFilterErrorRate(double pageBloomFilterErrorRate) {
+    this.pageBloomFilterErrorRate = pageBloomFilterErrorRate;
+  }
+
   public FSType getTSFileStorageFs() {
     return this.TSFileStorageFs;
   }
@@ -411,4 +479,28 @@ public class TSFileConfig implements Serializable {
   public void setBatchSize(int batchSize) {
     this.batchSize = batchSize;
   }
+
+  public boolean isEnableMMapRead() {
+    return enableMMapRead;
+  }
+
+  public void setEnableMMapRead(boolean enableMMapRead) {
+    this.enableMMapRead = enableMMapRead;
+  }
+
+  public long getMmapReadBudgetInByte() {
+    return mmapReadBudgetInByte;
+  }
+
+  public void setMmapReadBudgetInByte(long mmapReadBudgetInByte) {
+    this.mmapReadBudgetInByte = mmapReadBudgetInByte;
+  }
+
+  public long getChunkMetadataMemoryBudgetInByte() {
+    return chunkMetadataMemoryBudgetInByte;
+  }
+
+  public void setChunkMetadataMemoryBudgetInByte(long chunkMetadataMemoryBudgetInByte) {
+    this.chunkMetadataMemoryBudgetInByte = chunkMetadataMemoryBudgetInByte;
+  }
 }
@@ -138,9 +138,44 @@ public class TSFileDescriptor {
       conf.setTimeEncoder(properties.getProperty("time_encoder", conf.getTimeEncoder()));
       conf.setValueEncoder(properties.getProperty("value_encoder", conf.getValueEncoder()));
       conf.setCompressor(properties.getProperty("compressor", conf.getCompressor().toString()));
+      conf.setZstdCompressionLevel(
+          Integer.parseInt(
+              properties.getProperty(
+                  "zstd_compression_level", Integer.toString(conf.getZstdCompressionLevel()))));
+      conf.setLz4HcCompressionLevel(
+          Integer.parseInt(
+              properties.getProperty(
+                  "lz4hc_compression_level", Integer.toString(conf.getLz4HcCompressionLevel()))));
+      conf.setBloomFilterBlockSeriesNum(
+          Integer.parseInt(
+              properties.getProperty(
+                  "bloom_filter_block_series_num",
+                  Integer.toString(conf.getBloomFilterBlockSeriesNum()))));
+      conf.setEnablePageBloomFilter(
+          Boolean.parseBoolean(
+              properties.getProperty(
+                  "enable_page_bloom_filter", Boolean.toString(conf.isEnablePageBloomFilter()))));
+      conf.setPageBloomFilterErrorRate(
+          Double.parseDouble(
+              properties.getProperty(
+                  "page_bloom_filter_error_rate",
+                  Double.toString(conf.getPageBloomFilterErrorRate()))));
       conf.setBatchSize(
           Integer.parseInt(
               properties.getProperty("batch_size", Integer.toString(conf.getBatchSize()))));
+      conf.setEnableMMapRead(
+          Boolean.parseBoolean(
+              properties.getProperty(
+                  "enable_mmap_read", Boolean.toString(conf.isEnableMMapRead()))));
+      conf.setMmapReadBudgetInByte(
+          Long.parseLong(
+              properties.getProperty(
+                  "mmap_read_budget_in_byte", Long.toString(conf.getMmapReadBudgetInByte()))));
+      conf.setChunkMetadataMemoryBudgetInByte(
+          Long.parseLong(
+              properties.getProperty(
+                  "chunk_metadata_memory_budget_in_byte",
+                  Long.toString(conf.getChunkMetadataMemoryBudgetInByte()))));
     } catch (IOException e) {
       logger.warn("Cannot load config file, use default configuration", e);
     } catch (Exception e) {
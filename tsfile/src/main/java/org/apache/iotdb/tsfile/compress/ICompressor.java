@@ -19,12 +19,16 @@
 
 package org.apache.iotdb.tsfile.compress;
 
+import org.apache.iotdb.tsfile.common.conf.TSFileDescriptor;
 import org.apache.iotdb.tsfile.exception.compress.CompressionTypeNotSupportedException;
 import org.apache.iotdb.tsfile.exception.compress.GZIPCompressOverflowException;
 import org.apache.iotdb.tsfile.file.metadata.enums.CompressionType;
 
+import com.github.luben.zstd.Zstd;
 import net.jpountz.lz4.LZ4Compressor;
 import net.jpountz.lz4.LZ4Factory;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.xerial.snappy.Snappy;
 
 import java.io.ByteArrayInputStream;
@@ -32,16 +36,23 @@ import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.io.Serializable;
 import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.Map;
 import java.util.zip.GZIPInputStream;
 import java.util.zip.GZIPOutputStream;
 
 import static org.apache.iotdb.tsfile.file.metadata.enums.CompressionType.GZIP;
 import static org.apache.iotdb.tsfile.file.metadata.enums.CompressionType.LZ4;
+import static org.apache.iotdb.tsfile.file.metadata.enums.CompressionType.LZ4HC;
 import static org.apache.iotdb.tsfile.file.metadata.enums.CompressionType.SNAPPY;
+import static org.apache.iotdb.tsfile.file.metadata.enums.CompressionType.ZSTD;
 
 /** compress data according to type in schema. */
 public interface ICompressor extends Serializable {
 
+  /** property of a timeseries that overrides the default compression level of its compressor */
+  String COMPRESSION_LEVEL = "compression_level";
+
   static ICompressor getCompressor(String name) {
     return getCompressor(CompressionType.valueOf(name));
   }
@@ -53,6 +64,18 @@ public interface ICompressor extends Serializable {
    * @return the Compressor of specified CompressionType
    */
   static ICompressor getCompressor(CompressionType name) {
+    return getCompressor(name, null);
+  }
+
+  /**
+   * get Compressor according to CompressionType and the properties of a timeseries.
+   *
+   * @param name CompressionType
+   * @param props properties of the timeseries, {@link #COMPRESSION_LEVEL} is used by ZSTD and
+   *     LZ4HC. The configured default level is used if it is absent or invalid.
+   * @return the Compressor of specified CompressionType
+   */
+  static ICompressor getCompressor(CompressionType name, Map<String, String> props) {
     if (name == null) {
       throw new CompressionTypeNotSupportedException("NULL");
     }
@@ -65,6 +88,20 @@ public interface ICompressor extends Serializable {
         return new IOTDBLZ4Compressor();
       case GZIP:
         return new GZIPCompressor();
+      case ZSTD:
+        return new ZstdCompressor(
+            CompressionLevel.fromProps(
+                props,
+                TSFileDescriptor.getInstance().getConfig().getZstdCompressionLevel(),
+                ZstdCompressor.MIN_LEVEL,
+                ZstdCompressor.MAX_LEVEL));
+      case LZ4HC:
+        return new IOTDBLZ4HCCompressor(
+            CompressionLevel.fromProps(
+                props,
+                TSFileDescriptor.getInstance().getConfig().getLz4HcCompressionLevel(),
+                IOTDBLZ4HCCompressor.MIN_LEVEL,
+                IOTDBLZ4HCCompressor.MAX_LEVEL));
       default:
         throw new CompressionTypeNotSupportedException(name.toString());
     }
@@ -191,9 +228,12 @@ public interface ICompressor extends Serializable {
     private LZ4Compressor compressor;
 
     public IOTDBLZ4Compressor() {
+      this(LZ4Factory.fastestInstance().fastCompressor());
+    }
+
+    protected IOTDBLZ4Compressor(LZ4Compressor compressor) {
       super();
-      LZ4Factory factory = LZ4Factory.fastestInstance();
-      compressor = factory.fastCompressor();
+      this.compressor = compressor;
     }
 
     @Override
@@ -311,4 +351,126 @@ public interface ICompressor extends Serializable {
       return GZIP;
     }
   }
+
+  /** LZ4 with the high compression algorithm, whose output is decompressed as plain LZ4. */
+  class IOTDBLZ4HCCompressor extends IOTDBLZ4Compressor {
+    static final int MIN_LEVEL = 1;
+    static final int MAX_LEVEL = 17;
+
+    public IOTDBLZ4HCCompressor() {
+      this(TSFileDescriptor.getInstance().getConfig().getLz4HcCompressionLevel());
+    }
+
+    public IOTDBLZ4HCCompressor(int compressionLevel) {
+      super(LZ4Factory.fastestInstance().highCompressor(compressionLevel));
+    }
+
+    @Override
+    public CompressionType getType() {
+      return LZ4HC;
+    }
+  }
+
+  class ZstdCompressor implements ICompressor {
+    static final int MIN_LEVEL = 1;
+    static final int MAX_LEVEL = 22;
+
+    private final int compressionLevel;
+
+    public ZstdCompressor() {
+      this(TSFileDescriptor.getInstance().getConfig().getZstdCompressionLevel());
+    }
+
+    public ZstdCompressor(int compressionLevel) {
+      this.compressionLevel = compressionLevel;
+    }
+
+    @Override
+    public byte[] compress(byte[] data) throws IOException {
+      if (data == null) {
+        return new byte[0];
+      }
+      return compress(data, 0, data.length);
+    }
+
+    @Override
+    public byte[] compress(byte[] data, int offset, int length) throws IOException {
+      byte[] maxCompressed = new byte[getMaxBytesForCompression(length)];
+      int compressedSize = compress(data, offset, length, maxCompressed);
+      return compressedSize < maxCompressed.length
+          ? Arrays.copyOf(maxCompressed, compressedSize)
+          : maxCompressed;
+    }
+
+    @Override
+    public int compress(byte[] data, int offset, int length, byte[] compressed) throws IOException {
+      long compressedSize =
+          Zstd.compressByteArray(
+              compressed, 0, compressed.length, data, offset, length, compressionLevel);
+      if (Zstd.isError(compressedSize)) {
+        throw new IOException(Zstd.getErrorName(compressedSize));
+      }
+      return (int) compressedSize;
+    }
+
+    @Override
+    public int compress(ByteBuffer data, ByteBuffer compressed) throws IOException {
+      int length = data.remaining();
+      byte[] dataBefore = new byte[length];
+      data.get(dataBefore, 0, length);
+      byte[] res = compress(dataBefore, 0, length);
+      compressed.put(res);
+      return res.length;
+    }
+
+    @Override
+    public int getMaxBytesForCompression(int uncompressedDataSize) {
+      return (int) Zstd.compressBound(uncompressedDataSize);
+    }
+
+    @Override
+    public CompressionType getType() {
+      return ZSTD;
+    }
+
+    public int getCompressionLevel() {
+      return compressionLevel;
+    }
+  }
+
+  class CompressionLevel {
+    private static final Logger logger = LoggerFactory.getLogger(CompressionLevel.class);
+
+    private CompressionLevel() {}
+
+    /**
+     * read {@link ICompressor#COMPRESSION_LEVEL} from the properties of a timeseries.
+     *
+     * @return the level in the properties, or defaultLevel if it is absent or invalid
+     */
+    static int fromProps(Map<String, String> props, int defaultLevel, int minLevel, int maxLevel) {
+      if (props == null || !props.containsKey(COMPRESSION_LEVEL)) {
+        return defaultLevel;
+      }
+      String value = props.get(COMPRESSION_LEVEL);
+      try {
+        int level = Integer.parseInt(value);
+        if (level >= minLevel && level <= maxLevel) {
+          return level;
+        }
+        logger.warn(
+            "compression level {} is out of range [{}, {}], replaced with default value:{}",
+            level,
+            minLevel,
+            maxLevel,
+            defaultLevel);
+      } catch (NumberFormatException e) {
+        logger.warn(
+            "The format of compression level {} is not correct. Using default level {}.",
+            value,
+            defaultLevel);
+      }
+      return defaultLevel;
+    }
+  }
 }
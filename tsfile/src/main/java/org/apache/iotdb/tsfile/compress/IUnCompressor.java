@@ -22,6 +22,7 @@ package org.apache.iotdb.tsfile.compress;
 import org.apache.iotdb.tsfile.exception.compress.CompressionTypeNotSupportedException;
 import org.apache.iotdb.tsfile.file.metadata.enums.CompressionType;
 
+import com.github.luben.zstd.Zstd;
 import net.jpountz.lz4.LZ4Compressor;
 import net.jpountz.lz4.LZ4Factory;
 import net.jpountz.lz4.LZ4SafeDecompressor;
@@ -54,6 +55,10 @@ public interface IUnCompressor {
         return new LZ4UnCompressor();
       case GZIP:
         return new GZIPUnCompressor();
+      case ZSTD:
+        return new ZstdUnCompressor();
+      case LZ4HC:
+        return new LZ4HCUnCompressor();
       default:
         throw new CompressionTypeNotSupportedException(name.toString());
     }
@@ -312,4 +317,73 @@ public interface IUnCompressor {
       return CompressionType.GZIP;
     }
   }
+
+  /** LZ4HC writes standard LZ4 blocks, so only the codec name differs from LZ4UnCompressor. */
+  class LZ4HCUnCompressor extends LZ4UnCompressor {
+
+    @Override
+    public CompressionType getCodecName() {
+      return CompressionType.LZ4HC;
+    }
+  }
+
+  class ZstdUnCompressor implements IUnCompressor {
+
+    @Override
+    public int getUncompressedLength(byte[] array, int offset, int length) {
+      return (int) Zstd.decompressedSize(array, offset, length);
+    }
+
+    @Override
+    public int getUncompressedLength(ByteBuffer buffer) {
+      if (buffer.hasArray()) {
+        return getUncompressedLength(
+            buffer.array(), buffer.arrayOffset() + buffer.position(), buffer.remaining());
+      }
+      byte[] array = new byte[buffer.remaining()];
+      buffer.duplicate().get(array);
+      return getUncompressedLength(array, 0, array.length);
+    }
+
+    @Override
+    public byte[] uncompress(byte[] byteArray) throws IOException {
+      if (byteArray == null) {
+        return new byte[0];
+      }
+      byte[] output = new byte[getUncompressedLength(byteArray, 0, byteArray.length)];
+      uncompress(byteArray, 0, byteArray.length, output, 0);
+      return output;
+    }
+
+    @Override
+    public int uncompress(byte[] byteArray, int offset, int length, byte[] output, int outOffset)
+        throws IOException {
+      long uncompressedSize =
+          Zstd.decompressByteArray(
+              output, outOffset, output.length - outOffset, byteArray, offset, length);
+      if (Zstd.isError(uncompressedSize)) {
+        throw new IOException(Zstd.getErrorName(uncompressedSize));
+      }
+      return (int) uncompressedSize;
+    }
+
+    @Override
+    public int uncompress(ByteBuffer compressed, ByteBuffer uncompressed) throws IOException {
+      if (compressed == null || !compressed.hasRemaining()) {
+        return 0;
+      }
+      int length = compressed.remaining();
+      byte[] dataBefore = new byte[length];
+      compressed.get(dataBefore, 0, length);
+
+      byte[] res = uncompress(dataBefore);
+      uncompressed.put(res);
+      return res.length;
+    }
+
+    @Override
+    public CompressionType getCodecName() {
+      return CompressionType.ZSTD;
+    }
+  }
 }
@@ -0,0 +1,116 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.iotdb.tsfile.encoding.decoder;
+
+import org.apache.iotdb.tsfile.encoding.bitpacking.LongPacker;
+import org.apache.iotdb.tsfile.encoding.encoder.AlpEncoder;
+import org.apache.iotdb.tsfile.file.metadata.enums.TSEncoding;
+import org.apache.iotdb.tsfile.utils.ReadWriteForEncodingUtils;
+
+import java.nio.ByteBuffer;
+
+import static org.apache.iotdb.tsfile.encoding.encoder.AlpEncoder.CHIMP_FALLBACK;
+import static org.apache.iotdb.tsfile.encoding.encoder.AlpEncoder.VECTOR_SIZE;
+
+/** Decoder of vectors written by {@link AlpEncoder}. */
+public abstract class AlpDecoder extends Decoder {
+
+  /** number of values in current vector */
+  protected int vectorSize = 0;
+  /** index of the next value to read in current vector */
+  protected int readIndex = 0;
+
+  /** integers of current vector, before adding the frame of reference */
+  protected final long[] encoded = new long[VECTOR_SIZE];
+
+  protected final int[] exceptionPositions = new int[VECTOR_SIZE];
+
+  private final LongPacker packer = new LongPacker(0);
+  private final long[] unpacked = new long[8];
+  private byte[] packBuffer = new byte[0];
+
+  protected AlpDecoder() {
+    super(TSEncoding.ALP);
+  }
+
+  @Override
+  public final boolean hasNext(ByteBuffer in) {
+    return readIndex < vectorSize || in.hasRemaining();
+  }
+
+  @Override
+  public void reset() {
+    vectorSize = 0;
+    readIndex = 0;
+  }
+
+  /** decode the next vector if current one is finished */
+  protected void loadVectorIfNeeded(ByteBuffer in) {
+    if (readIndex < vectorSize) {
+      return;
+    }
+    readIndex = 0;
+    vectorSize = ReadWriteForEncodingUtils.readUnsignedVarInt(in);
+    byte exponent = in.get();
+    if (exponent == CHIMP_FALLBACK) {
+      readChimpBlock(in);
+      return;
+    }
+    byte factor = in.get();
+    long frameOfReference = in.getLong();
+    int bitWidth = in.get();
+    int exceptionCount = ReadWriteForEncodingUtils.readUnsignedVarInt(in);
+
+    unpack(bitWidth, in);
+    decodeVector(frameOfReference, exponent, factor);
+    for (int i = 0; i < exceptionCount; i++) {
+      exceptionPositions[i] = in.getShort() & 0xFFFF;
+    }
+    readExceptions(exceptionCount, in);
+  }
+
+  private void unpack(int bitWidth, ByteBuffer in) {
+    if (bitWidth == 0) {
+      for (int i = 0; i < vectorSize; i++) {
+        encoded[i] = 0;
+      }
+      return;
+    }
+    int groups = (vectorSize + 7) / 8;
+    int length = groups * bitWidth;
+    if (packBuffer.length < length) {
+      packBuffer = new byte[length];
+    }
+    in.get(packBuffer, 0, length);
+    packer.setWidth(bitWidth);
+    for (int group = 0; group < groups; group++) {
+      packer.unpack8Values(packBuffer, group * bitWidth, unpacked);
+      System.arraycopy(unpacked, 0, encoded, group * 8, Math.min(8, vectorSize - group * 8));
+    }
+  }
+
+  /** decode {@link #encoded} plus frameOfReference into the values of current vector */
+  protected abstract void decodeVector(long frameOfReference, int exponent, int factor);
+
+  /** read raw values at {@link #exceptionPositions} */
+  protected abstract void readExceptions(int exceptionCount, ByteBuffer in);
+
+  /** read all values of current vector from a block of CHIMP */
+  protected abstract void readChimpBlock(ByteBuffer in);
+}
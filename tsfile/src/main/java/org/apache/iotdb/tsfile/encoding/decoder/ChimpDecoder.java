@@ -0,0 +1,86 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.iotdb.tsfile.encoding.decoder;
+
+import org.apache.iotdb.tsfile.encoding.encoder.ChimpEncoder;
+import org.apache.iotdb.tsfile.file.metadata.enums.TSEncoding;
+import org.apache.iotdb.tsfile.utils.ReadWriteForEncodingUtils;
+
+import java.nio.ByteBuffer;
+
+/** Decoder of blocks written by {@link ChimpEncoder}. */
+public abstract class ChimpDecoder extends Decoder {
+
+  /** number of values not read in current block */
+  protected int blockRemaining = 0;
+
+  private long bitBuffer = 0;
+  private int bitCount = 0;
+
+  protected ChimpDecoder() {
+    super(TSEncoding.CHIMP);
+  }
+
+  @Override
+  public final boolean hasNext(ByteBuffer in) {
+    return blockRemaining > 0 || in.hasRemaining();
+  }
+
+  @Override
+  public void reset() {
+    blockRemaining = 0;
+    bitBuffer = 0;
+    bitCount = 0;
+  }
+
+  /**
+   * Read the header of the next block if current one is finished.
+   *
+   * @return true if the next value is the first one of a block
+   */
+  protected boolean startBlockIfNeeded(ByteBuffer in) {
+    if (blockRemaining > 0) {
+      return false;
+    }
+    // the padding bits of last block are dropped
+    bitBuffer = 0;
+    bitCount = 0;
+    blockRemaining = ReadWriteForEncodingUtils.readUnsignedVarInt(in);
+    return true;
+  }
+
+  /**
+   * Reads a long from the next bits that represent the least significant bits in the long value.
+   *
+   * @param bits How many next bits are read from the stream, at most 64
+   * @return long value that was read from the stream
+   */
+  protected long readBits(int bits, ByteBuffer in) {
+    if (bits > Integer.SIZE) {
+      long high = readBits(bits - Integer.SIZE, in);
+      return (high << Integer.SIZE) | readBits(Integer.SIZE, in);
+    }
+    while (bitCount < bits) {
+      bitBuffer = (bitBuffer << Byte.SIZE) | (in.get() & 0xFF);
+      bitCount += Byte.SIZE;
+    }
+    bitCount -= bits;
+    return (bitBuffer >>> bitCount) & ((1L << bits) - 1);
+  }
+}
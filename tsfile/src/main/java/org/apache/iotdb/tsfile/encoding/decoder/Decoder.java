@@ -112,6 +112,29 @@ public abstract class Decoder {
         }
       case DICTIONARY:
         return new DictionaryDecoder();
+      case CHIMP:
+        switch (dataType) {
+          case FLOAT:
+            return new FloatChimpDecoder();
+          case DOUBLE:
+            return new DoubleChimpDecoder();
+          case INT32:
+            return new IntChimpDecoder();
+          case INT64:
+          case VECTOR:
+            return new LongChimpDecoder();
+          default:
+            throw new TsFileDecodingException(String.format(ERROR_MSG, encoding, dataType));
+        }
+      case ALP:
+        switch (dataType) {
+          case FLOAT:
+            return new FloatAlpDecoder();
+          case DOUBLE:
+            return new DoubleAlpDecoder();
+          default:
+            throw new TsFileDecodingException(String.format(ERROR_MSG, encoding, dataType));
+        }
       default:
         throw new TsFileDecodingException(String.format(ERROR_MSG, encoding, dataType));
     }
@@ -149,6 +172,60 @@ public abstract class Decoder {
     throw new TsFileDecodingException("Method readBigDecimal is not supported by Decoder");
   }
 
+  /**
+   * Decode at most {@code len} booleans into {@code dst} starting at {@code off}. The bulk read
+   * methods return the number of values decoded, which is less than {@code len} only if the buffer
+   * is exhausted. Decoders override them to decode whole blocks in tight loops instead of paying a
+   * virtual call per value.
+   */
+  public int readBooleans(ByteBuffer buffer, boolean[] dst, int off, int len) throws IOException {
+    int read = 0;
+    while (read < len && hasNext(buffer)) {
+      dst[off + read++] = readBoolean(buffer);
+    }
+    return read;
+  }
+
+  public int readInts(ByteBuffer buffer, int[] dst, int off, int len) throws IOException {
+    int read = 0;
+    while (read < len && hasNext(buffer)) {
+      dst[off + read++] = readInt(buffer);
+    }
+    return read;
+  }
+
+  public int readLongs(ByteBuffer buffer, long[] dst, int off, int len) throws IOException {
+    int read = 0;
+    while (read < len && hasNext(buffer)) {
+      dst[off + read++] = readLong(buffer);
+    }
+    return read;
+  }
+
+  public int readFloats(ByteBuffer buffer, float[] dst, int off, int len) throws IOException {
+    int read = 0;
+    while (read < len && hasNext(buffer)) {
+      dst[off + read++] = readFloat(buffer);
+    }
+    return read;
+  }
+
+  public int readDoubles(ByteBuffer buffer, double[] dst, int off, int len) throws IOException {
+    int read = 0;
+    while (read < len && hasNext(buffer)) {
+      dst[off + read++] = readDouble(buffer);
+    }
+    return read;
+  }
+
+  public int readBinaries(ByteBuffer buffer, Binary[] dst, int off, int len) throws IOException {
+    int read = 0;
+    while (read < len && hasNext(buffer)) {
+      dst[off + read++] = readBinary(buffer);
+    }
+    return read;
+  }
+
   public abstract boolean hasNext(ByteBuffer buffer) throws IOException;
 
   public abstract void reset();
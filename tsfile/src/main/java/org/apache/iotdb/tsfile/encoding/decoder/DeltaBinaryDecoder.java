@@ -106,6 +106,26 @@ public abstract class DeltaBinaryDecoder extends Decoder {
       return readT(buffer);
     }
 
+    @Override
+    public int readInts(ByteBuffer buffer, int[] dst, int off, int len) {
+      int read = 0;
+      while (read < len) {
+        if (nextReadIndex == readIntTotalCount) {
+          if (!buffer.hasRemaining()) {
+            break;
+          }
+          dst[off + read++] = loadIntBatch(buffer);
+        } else {
+          // copy the rest of the decoded pack at once
+          int copyNum = Math.min(len - read, readIntTotalCount - nextReadIndex);
+          System.arraycopy(data, nextReadIndex, dst, off + read, copyNum);
+          nextReadIndex += copyNum;
+          read += copyNum;
+        }
+      }
+      return read;
+    }
+
     /**
      * if remaining data has been run out, load next pack from InputStream.
      *
@@ -222,6 +242,26 @@ public abstract class DeltaBinaryDecoder extends Decoder {
       return readT(buffer);
     }
 
+    @Override
+    public int readLongs(ByteBuffer buffer, long[] dst, int off, int len) {
+      int read = 0;
+      while (read < len) {
+        if (nextReadIndex == readIntTotalCount) {
+          if (!buffer.hasRemaining()) {
+            break;
+          }
+          dst[off + read++] = loadIntBatch(buffer);
+        } else {
+          // copy the rest of the decoded pack at once
+          int copyNum = Math.min(len - read, readIntTotalCount - nextReadIndex);
+          System.arraycopy(data, nextReadIndex, dst, off + read, copyNum);
+          nextReadIndex += copyNum;
+          read += copyNum;
+        }
+      }
+      return read;
+    }
+
     @Override
     protected void readHeader(ByteBuffer buffer) {
       minDeltaBase = ReadWriteIOUtils.readLong(buffer);
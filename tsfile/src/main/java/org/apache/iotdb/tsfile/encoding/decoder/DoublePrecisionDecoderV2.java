@@ -42,6 +42,15 @@ public class DoublePrecisionDecoderV2 extends LongGorillaDecoder {
     return Double.longBitsToDouble(readLong(in));
   }
 
+  @Override
+  public int readDoubles(ByteBuffer in, double[] dst, int off, int len) {
+    int read = 0;
+    while (read < len && hasNext) {
+      dst[off + read++] = Double.longBitsToDouble(readLong(in));
+    }
+    return read;
+  }
+
   @Override
   protected long cacheNext(ByteBuffer in) {
     readNext(in);
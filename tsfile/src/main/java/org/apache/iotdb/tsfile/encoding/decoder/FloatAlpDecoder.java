@@ -0,0 +1,73 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.iotdb.tsfile.encoding.decoder;
+
+import org.apache.iotdb.tsfile.encoding.encoder.AlpEncoder;
+import org.apache.iotdb.tsfile.encoding.encoder.FloatAlpEncoder;
+
+import java.nio.ByteBuffer;
+
+import static org.apache.iotdb.tsfile.encoding.encoder.AlpEncoder.VECTOR_SIZE;
+
+/** Decoder of float values written by {@link FloatAlpEncoder}. */
+public class FloatAlpDecoder extends AlpDecoder {
+
+  private final float[] decoded = new float[VECTOR_SIZE];
+  private final IntChimpDecoder chimpDecoder = new IntChimpDecoder();
+
+  @Override
+  public final float readFloat(ByteBuffer in) {
+    loadVectorIfNeeded(in);
+    return decoded[readIndex++];
+  }
+
+  @Override
+  public int readFloats(ByteBuffer in, float[] dst, int off, int len) {
+    int read = 0;
+    while (read < len && hasNext(in)) {
+      loadVectorIfNeeded(in);
+      int count = Math.min(len - read, vectorSize - readIndex);
+      System.arraycopy(decoded, readIndex, dst, off + read, count);
+      readIndex += count;
+      read += count;
+    }
+    return read;
+  }
+
+  @Override
+  protected void decodeVector(long frameOfReference, int exponent, int factor) {
+    for (int i = 0; i < vectorSize; i++) {
+      decoded[i] = (float) AlpEncoder.decode(encoded[i] + frameOfReference, exponent, factor);
+    }
+  }
+
+  @Override
+  protected void readExceptions(int exceptionCount, ByteBuffer in) {
+    for (int i = 0; i < exceptionCount; i++) {
+      decoded[exceptionPositions[i]] = Float.intBitsToFloat(in.getInt());
+    }
+  }
+
+  @Override
+  protected void readChimpBlock(ByteBuffer in) {
+    for (int i = 0; i < vectorSize; i++) {
+      decoded[i] = Float.intBitsToFloat(chimpDecoder.readInt(in));
+    }
+  }
+}
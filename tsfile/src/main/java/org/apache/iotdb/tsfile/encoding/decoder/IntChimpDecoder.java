@@ -0,0 +1,84 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.iotdb.tsfile.encoding.decoder;
+
+import org.apache.iotdb.tsfile.encoding.encoder.IntChimpEncoder;
+
+import java.nio.ByteBuffer;
+
+import static org.apache.iotdb.tsfile.common.conf.TSFileConfig.VALUE_BITS_LENGTH_32BIT;
+import static org.apache.iotdb.tsfile.encoding.encoder.ChimpEncoder.LEADING_REPRESENTATION;
+import static org.apache.iotdb.tsfile.encoding.encoder.ChimpEncoder.LEADING_REPRESENTATION_LENGTH;
+import static org.apache.iotdb.tsfile.encoding.encoder.ChimpEncoder.PREVIOUS_VALUES;
+import static org.apache.iotdb.tsfile.encoding.encoder.ChimpEncoder.PREVIOUS_VALUES_LOG2;
+import static org.apache.iotdb.tsfile.encoding.encoder.IntChimpEncoder.SIGNIFICANT_BITS_LENGTH;
+
+/** Decoder of 32-bit values written by {@link IntChimpEncoder}. */
+public class IntChimpDecoder extends ChimpDecoder {
+
+  private final int[] storedValues = new int[PREVIOUS_VALUES];
+  /** index of the last value in storedValues */
+  private int current = 0;
+
+  private int storedLeadingZeros = 0;
+
+  @Override
+  public final int readInt(ByteBuffer in) {
+    int value;
+    if (startBlockIfNeeded(in)) {
+      value = (int) readBits(VALUE_BITS_LENGTH_32BIT, in);
+      current = 0;
+    } else {
+      value = readNext(in);
+      current = (current + 1) & (PREVIOUS_VALUES - 1);
+    }
+    storedValues[current] = value;
+    blockRemaining--;
+    return value;
+  }
+
+  @Override
+  public void reset() {
+    super.reset();
+    current = 0;
+    storedLeadingZeros = 0;
+  }
+
+  private int readNext(ByteBuffer in) {
+    switch ((int) readBits(2, in)) {
+      case 3: // '11': XOR with the last value using new leading zeros
+        storedLeadingZeros =
+            LEADING_REPRESENTATION[(int) readBits(LEADING_REPRESENTATION_LENGTH, in)];
+        return storedValues[current]
+            ^ (int) readBits(VALUE_BITS_LENGTH_32BIT - storedLeadingZeros, in);
+      case 2: // '10': XOR with the last value using stored leading zeros
+        return storedValues[current]
+            ^ (int) readBits(VALUE_BITS_LENGTH_32BIT - storedLeadingZeros, in);
+      case 1: // '01': XOR with an indexed previous value
+        int previousIndex = (int) readBits(PREVIOUS_VALUES_LOG2, in);
+        int leadingZeros =
+            LEADING_REPRESENTATION[(int) readBits(LEADING_REPRESENTATION_LENGTH, in)];
+        int significantBits = (int) readBits(SIGNIFICANT_BITS_LENGTH, in);
+        int trailingZeros = VALUE_BITS_LENGTH_32BIT - leadingZeros - significantBits;
+        return storedValues[previousIndex] ^ (int) (readBits(significantBits, in) << trailingZeros);
+      default: // '00': equal to an indexed previous value
+        return storedValues[(int) readBits(PREVIOUS_VALUES_LOG2, in)];
+    }
+  }
+}
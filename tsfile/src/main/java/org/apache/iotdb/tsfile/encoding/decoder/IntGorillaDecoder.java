@@ -58,6 +58,15 @@ public class IntGorillaDecoder extends GorillaDecoderV2 {
     return returnValue;
   }
 
+  @Override
+  public int readInts(ByteBuffer in, int[] dst, int off, int len) {
+    int read = 0;
+    while (read < len && hasNext) {
+      dst[off + read++] = readInt(in);
+    }
+    return read;
+  }
+
   protected int cacheNext(ByteBuffer in) {
     readNext(in);
     if (storedValue == GORILLA_ENCODING_ENDING_INTEGER) {
@@ -29,6 +29,7 @@ import org.slf4j.LoggerFactory;
 
 import java.io.IOException;
 import java.nio.ByteBuffer;
+import java.util.Arrays;
 
 /** Decoder for int value using rle or bit-packing. */
 public class IntRleDecoder extends RleDecoder {
@@ -99,6 +100,43 @@ public class IntRleDecoder extends RleDecoder {
     return result;
   }
 
+  @Override
+  public int readInts(ByteBuffer buffer, int[] dst, int off, int len) throws IOException {
+    int read = 0;
+    while (read < len && hasNext(buffer)) {
+      prepareRun(buffer);
+      int copyNum = Math.min(len - read, currentCount);
+      if (mode == Mode.RLE) {
+        Arrays.fill(dst, off + read, off + read + copyNum, currentValue);
+      } else {
+        System.arraycopy(currentBuffer, bitPackingNum - currentCount, dst, off + read, copyNum);
+      }
+      consumeRun(copyNum);
+      read += copyNum;
+    }
+    return read;
+  }
+
+  @Override
+  public int readBooleans(ByteBuffer buffer, boolean[] dst, int off, int len) throws IOException {
+    int read = 0;
+    while (read < len && hasNext(buffer)) {
+      prepareRun(buffer);
+      int copyNum = Math.min(len - read, currentCount);
+      if (mode == Mode.RLE) {
+        Arrays.fill(dst, off + read, off + read + copyNum, currentValue != 0);
+      } else {
+        int start = bitPackingNum - currentCount;
+        for (int i = 0; i < copyNum; i++) {
+          dst[off + read + i] = currentBuffer[start + i] != 0;
+        }
+      }
+      consumeRun(copyNum);
+      read += copyNum;
+    }
+    return read;
+  }
+
   @Override
   protected void initPacker() {
     packer = new IntPacker(bitWidth);
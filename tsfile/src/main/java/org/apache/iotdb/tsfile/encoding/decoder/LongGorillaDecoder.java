@@ -58,6 +58,15 @@ public class LongGorillaDecoder extends GorillaDecoderV2 {
     return returnValue;
   }
 
+  @Override
+  public int readLongs(ByteBuffer in, long[] dst, int off, int len) {
+    int read = 0;
+    while (read < len && hasNext) {
+      dst[off + read++] = readLong(in);
+    }
+    return read;
+  }
+
   protected long cacheNext(ByteBuffer in) {
     readNext(in);
     if (storedValue == GORILLA_ENCODING_ENDING_LONG) {
@@ -29,6 +29,7 @@ import org.slf4j.LoggerFactory;
 
 import java.io.IOException;
 import java.nio.ByteBuffer;
+import java.util.Arrays;
 
 /** Decoder for long value using rle or bit-packing. */
 public class LongRleDecoder extends RleDecoder {
@@ -94,6 +95,23 @@ public class LongRleDecoder extends RleDecoder {
     return result;
   }
 
+  @Override
+  public int readLongs(ByteBuffer buffer, long[] dst, int off, int len) throws IOException {
+    int read = 0;
+    while (read < len && hasNext(buffer)) {
+      prepareRun(buffer);
+      int copyNum = Math.min(len - read, currentCount);
+      if (mode == Mode.RLE) {
+        Arrays.fill(dst, off + read, off + read + copyNum, currentValue);
+      } else {
+        System.arraycopy(currentBuffer, bitPackingNum - currentCount, dst, off + read, copyNum);
+      }
+      consumeRun(copyNum);
+      read += copyNum;
+    }
+    return read;
+  }
+
   @Override
   protected void initPacker() {
     packer = new LongPacker(bitWidth);
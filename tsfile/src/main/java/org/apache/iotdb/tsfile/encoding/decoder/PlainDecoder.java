@@ -63,6 +63,30 @@ public class PlainDecoder extends Decoder {
     return buffer.getDouble();
   }
 
+  @Override
+  public int readLongs(ByteBuffer buffer, long[] dst, int off, int len) {
+    int read = Math.min(len, buffer.remaining() / Long.BYTES);
+    buffer.asLongBuffer().get(dst, off, read);
+    buffer.position(buffer.position() + read * Long.BYTES);
+    return read;
+  }
+
+  @Override
+  public int readFloats(ByteBuffer buffer, float[] dst, int off, int len) {
+    int read = Math.min(len, buffer.remaining() / Float.BYTES);
+    buffer.asFloatBuffer().get(dst, off, read);
+    buffer.position(buffer.position() + read * Float.BYTES);
+    return read;
+  }
+
+  @Override
+  public int readDoubles(ByteBuffer buffer, double[] dst, int off, int len) {
+    int read = Math.min(len, buffer.remaining() / Double.BYTES);
+    buffer.asDoubleBuffer().get(dst, off, read);
+    buffer.position(buffer.position() + read * Double.BYTES);
+    return read;
+  }
+
   @Override
   public Binary readBinary(ByteBuffer buffer) {
     int length = readInt(buffer);
@@ -164,6 +164,35 @@ public abstract class RleDecoder extends Decoder {
     return currentCount > 0 || byteCache.remaining() > 0;
   }
 
+  /**
+   * Make sure that the current rle or bit-packing run has values left, which is used by the bulk
+   * read methods to copy a whole run at once.
+   *
+   * @param buffer ByteBuffer
+   * @throws IOException cannot read next run
+   */
+  protected void prepareRun(ByteBuffer buffer) throws IOException {
+    if (!isLengthAndBitWidthReaded) {
+      // start to read a new rle+bit-packing pattern
+      readLengthAndBitWidth(buffer);
+    }
+    if (currentCount == 0) {
+      readNext();
+    }
+  }
+
+  /**
+   * Mark {@code num} values of the current run as read.
+   *
+   * @param num number of values read from the current run
+   */
+  protected void consumeRun(int num) {
+    currentCount -= num;
+    if (!hasNextPackage()) {
+      isLengthAndBitWidthReaded = false;
+    }
+  }
+
   protected abstract void initPacker();
 
   /**
@@ -42,6 +42,15 @@ public class SinglePrecisionDecoderV2 extends IntGorillaDecoder {
     return Float.intBitsToFloat(readInt(in));
   }
 
+  @Override
+  public int readFloats(ByteBuffer in, float[] dst, int off, int len) {
+    int read = 0;
+    while (read < len && hasNext) {
+      dst[off + read++] = Float.intBitsToFloat(readInt(in));
+    }
+    return read;
+  }
+
   @Override
   protected int cacheNext(ByteBuffer in) {
     readNext(in);
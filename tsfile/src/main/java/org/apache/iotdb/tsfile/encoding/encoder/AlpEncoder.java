@@ -0,0 +1,289 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.iotdb.tsfile.encoding.encoder;
+
+import org.apache.iotdb.tsfile.encoding.bitpacking.LongPacker;
+import org.apache.iotdb.tsfile.file.metadata.enums.TSEncoding;
+import org.apache.iotdb.tsfile.utils.BytesUtils;
+import org.apache.iotdb.tsfile.utils.ReadWriteForEncodingUtils;
+
+import java.io.ByteArrayOutputStream;
+
+/**
+ * ALP encoding of "ALP: Adaptive Lossless floating-Point Compression" (SIGMOD 2023). Most floating
+ * point values of sensors are decimals with a few digits after the point, so a value v is encoded
+ * as the integer round(v * 10^e * 10^-f) if it is decoded back to exactly v. The integers of a
+ * vector are bit packed with frame of reference, and the values that could not be encoded are
+ * stored raw as exceptions.
+ *
+ * <p>The exponent e and factor f of a vector are chosen on a sample of it. The first vector after a
+ * flush tries all combinations and keeps the best {@link #MAX_COMBINATIONS} of them, the following
+ * vectors only try these. A vector that does not fit the decimal model is encoded by CHIMP instead.
+ *
+ * <p>Format of a vector of at most {@link #VECTOR_SIZE} values:
+ *
+ * <pre>
+ * count (unsigned var int), e (byte), f (byte), frame of reference (long), bit width (byte),
+ * exception count (unsigned var int), packed integers, exception positions (short each),
+ * exception values
+ * </pre>
+ *
+ * or count followed by {@link #CHIMP_FALLBACK} and a block of CHIMP.
+ */
+public abstract class AlpEncoder extends Encoder {
+
+  /** maximum number of values in a vector */
+  public static final int VECTOR_SIZE = 1024;
+  /** written in place of the exponent if the vector is encoded by CHIMP */
+  public static final byte CHIMP_FALLBACK = -1;
+
+  private static final int SAMPLE_SIZE = 32;
+  private static final int MAX_COMBINATIONS = 5;
+  /** bits of the position of an exception */
+  private static final int EXCEPTION_POSITION_BITS = Short.SIZE;
+  /** integers beyond it may lose precision as a double, and are stored as exceptions instead */
+  private static final double MAX_ENCODED_VALUE = 1L << 52;
+
+  private static final double[] EXP10 = new double[19];
+  private static final double[] FRAC10 = new double[19];
+
+  static {
+    for (int i = 0; i < EXP10.length; i++) {
+      EXP10[i] = Double.parseDouble("1e" + i);
+      FRAC10[i] = Double.parseDouble("1e-" + i);
+    }
+  }
+
+  /** max exponent that is worth trying */
+  private final int maxExponent;
+  /** bits of a raw value */
+  private final int valueBits;
+
+  protected final double[] values = new double[VECTOR_SIZE];
+  /** raw bits of each value, which are compared with the decoded ones */
+  protected final long[] bits = new long[VECTOR_SIZE];
+
+  protected int size = 0;
+
+  private final long[] encoded = new long[VECTOR_SIZE];
+  private final int[] exceptionPositions = new int[VECTOR_SIZE];
+  private final LongPacker packer = new LongPacker(0);
+  private final byte[] packBuffer = new byte[Long.SIZE];
+  /** best combinations of exponent and factor, null until the first vector after a flush */
+  private int[][] combinations = null;
+
+  protected AlpEncoder(int maxExponent, int valueBits) {
+    super(TSEncoding.ALP);
+    this.maxExponent = maxExponent;
+    this.valueBits = valueBits;
+  }
+
+  /**
+   * decode an integer of ALP. The encoder and decoder must share this method, so that the values
+   * checked when encoding are exactly the decoded ones.
+   */
+  public static double decode(long encodedValue, int exponent, int factor) {
+    return encodedValue * EXP10[factor] * FRAC10[exponent];
+  }
+
+  /** @return the encoded integer, or Long.MIN_VALUE if the value could not be encoded exactly */
+  private long encode(int i, int exponent, int factor) {
+    double scaled = values[i] * EXP10[exponent] * FRAC10[factor];
+    if (!(Math.abs(scaled) < MAX_ENCODED_VALUE)) {
+      // also false for NaN
+      return Long.MIN_VALUE;
+    }
+    long encodedValue = Math.round(scaled);
+    return isExact(decode(encodedValue, exponent, factor), bits[i])
+        ? encodedValue
+        : Long.MIN_VALUE;
+  }
+
+  /** @return whether the decoded value is exactly the one with the raw bits */
+  protected abstract boolean isExact(double decoded, long rawBits);
+
+  /** write the raw bits of an exception */
+  protected abstract void writeException(long rawBits, ByteArrayOutputStream out);
+
+  /** encode current vector by CHIMP, all values must be written out as one block */
+  protected abstract void writeChimpBlock(ByteArrayOutputStream out);
+
+  /** buffer a value and write out the vector once it is full */
+  protected void add(double value, long rawBits, ByteArrayOutputStream out) {
+    values[size] = value;
+    bits[size] = rawBits;
+    size++;
+    if (size == VECTOR_SIZE) {
+      writeVector(out);
+    }
+  }
+
+  @Override
+  public void flush(ByteArrayOutputStream out) {
+    if (size > 0) {
+      writeVector(out);
+    }
+    // the next page may be of different precision
+    combinations = null;
+  }
+
+  @Override
+  public int getOneItemMaxSize() {
+    // a packed integer, or a raw exception with its position
+    return Long.BYTES + valueBits / Byte.SIZE + EXCEPTION_POSITION_BITS / Byte.SIZE;
+  }
+
+  @Override
+  public long getMaxByteSize() {
+    // header of a vector and the values in buffer
+    return 3L * (Integer.BYTES + 1) + Long.BYTES + (long) size * getOneItemMaxSize();
+  }
+
+  private void writeVector(ByteArrayOutputStream out) {
+    int step = Math.max(1, size / SAMPLE_SIZE);
+    if (combinations == null) {
+      combinations = findBestCombinations(step);
+    }
+    int[] best = combinations[0];
+    if (combinations.length > 1) {
+      long bestSize = Long.MAX_VALUE;
+      for (int[] combination : combinations) {
+        long estimatedSize = estimateSize(combination[0], combination[1], step);
+        if (estimatedSize < bestSize) {
+          bestSize = estimatedSize;
+          best = combination;
+        }
+      }
+    }
+    int exponent = best[0];
+    int factor = best[1];
+
+    int exceptionCount = 0;
+    long min = Long.MAX_VALUE;
+    long max = Long.MIN_VALUE;
+    for (int i = 0; i < size; i++) {
+      long encodedValue = encode(i, exponent, factor);
+      if (encodedValue == Long.MIN_VALUE) {
+        exceptionPositions[exceptionCount++] = i;
+      } else {
+        encoded[i] = encodedValue;
+        min = Math.min(min, encodedValue);
+        max = Math.max(max, encodedValue);
+      }
+    }
+    int bitWidth = exceptionCount == size ? 0 : Long.SIZE - Long.numberOfLeadingZeros(max - min);
+    long encodedBits =
+        (long) size * bitWidth + (long) exceptionCount * (valueBits + EXCEPTION_POSITION_BITS);
+    if (encodedBits >= (long) size * valueBits) {
+      // not a decimal vector, there is no gain of ALP
+      ReadWriteForEncodingUtils.writeUnsignedVarInt(size, out);
+      out.write(CHIMP_FALLBACK);
+      writeChimpBlock(out);
+      size = 0;
+      return;
+    }
+
+    ReadWriteForEncodingUtils.writeUnsignedVarInt(size, out);
+    out.write(exponent);
+    out.write(factor);
+    out.write(BytesUtils.longToBytes(min), 0, Long.BYTES);
+    out.write(bitWidth);
+    ReadWriteForEncodingUtils.writeUnsignedVarInt(exceptionCount, out);
+    writePacked(min, exceptionCount, bitWidth, out);
+    for (int i = 0; i < exceptionCount; i++) {
+      out.write(exceptionPositions[i] >>> Byte.SIZE);
+      out.write(exceptionPositions[i]);
+    }
+    for (int i = 0; i < exceptionCount; i++) {
+      writeException(bits[exceptionPositions[i]], out);
+    }
+    size = 0;
+  }
+
+  private void writePacked(long min, int exceptionCount, int bitWidth, ByteArrayOutputStream out) {
+    if (bitWidth == 0) {
+      return;
+    }
+    // exceptions and the padding of the last 8 values are packed as the frame of reference
+    for (int i = 0; i < exceptionCount; i++) {
+      encoded[exceptionPositions[i]] = min;
+    }
+    int paddedSize = (size + 7) / 8 * 8;
+    for (int i = 0; i < paddedSize; i++) {
+      encoded[i] = i < size ? encoded[i] - min : 0;
+    }
+    packer.setWidth(bitWidth);
+    for (int i = 0; i < paddedSize; i += 8) {
+      packer.pack8Values(encoded, i, packBuffer);
+      out.write(packBuffer, 0, bitWidth);
+    }
+  }
+
+  /** try all combinations of exponent and factor on the sample, and keep the best ones */
+  private int[][] findBestCombinations(int step) {
+    int[][] best = new int[MAX_COMBINATIONS][];
+    long[] bestSizes = new long[MAX_COMBINATIONS];
+    int count = 0;
+    for (int exponent = maxExponent; exponent >= 0; exponent--) {
+      for (int factor = exponent; factor >= 0; factor--) {
+        long estimatedSize = estimateSize(exponent, factor, step);
+        // insertion sort, the larger exponent wins a tie
+        int position = count;
+        while (position > 0 && bestSizes[position - 1] > estimatedSize) {
+          position--;
+        }
+        if (position == MAX_COMBINATIONS) {
+          continue;
+        }
+        int last = Math.min(count, MAX_COMBINATIONS - 1);
+        System.arraycopy(best, position, best, position + 1, last - position);
+        System.arraycopy(bestSizes, position, bestSizes, position + 1, last - position);
+        best[position] = new int[] {exponent, factor};
+        bestSizes[position] = estimatedSize;
+        count = Math.min(count + 1, MAX_COMBINATIONS);
+      }
+    }
+    if (count < MAX_COMBINATIONS) {
+      int[][] result = new int[count][];
+      System.arraycopy(best, 0, result, 0, count);
+      return result;
+    }
+    return best;
+  }
+
+  /** estimate the encoded bits of the sampled values */
+  private long estimateSize(int exponent, int factor, int step) {
+    long exceptions = 0;
+    long min = Long.MAX_VALUE;
+    long max = Long.MIN_VALUE;
+    int sampled = 0;
+    for (int i = 0; i < size; i += step) {
+      long encodedValue = encode(i, exponent, factor);
+      if (encodedValue == Long.MIN_VALUE) {
+        exceptions++;
+      } else {
+        min = Math.min(min, encodedValue);
+        max = Math.max(max, encodedValue);
+      }
+      sampled++;
+    }
+    int bitWidth = exceptions == sampled ? 0 : Long.SIZE - Long.numberOfLeadingZeros(max - min);
+    return (long) sampled * bitWidth + exceptions * (valueBits + EXCEPTION_POSITION_BITS);
+  }
+}
@@ -0,0 +1,328 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.iotdb.tsfile.encoding.encoder;
+
+import org.apache.iotdb.tsfile.exception.encoding.TsFileEncodingException;
+import org.apache.iotdb.tsfile.exception.write.UnSupportedDataTypeException;
+import org.apache.iotdb.tsfile.file.metadata.enums.TSDataType;
+import org.apache.iotdb.tsfile.file.metadata.enums.TSEncoding;
+import org.apache.iotdb.tsfile.utils.Binary;
+import org.apache.iotdb.tsfile.utils.PublicBAOS;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.Arrays;
+
+/**
+ * Encoder of {@link TSEncoding#AUTO}. It buffers the first values of a chunk, encodes them with
+ * every candidate encoding, and encodes the whole chunk with the one producing the smallest output.
+ * The chunk writer records the selected encoding in the chunk header and calls {@link #reset()}
+ * before the next chunk.
+ *
+ * <p>Only encodings that are lossless for any value are candidates, so RLE and TS_2DIFF are not
+ * used for FLOAT and DOUBLE (they keep limited decimal places), and GORILLA is not used at all (it
+ * reserves MIN_VALUE or NaN as the end marker, which may appear after the sampled values).
+ */
+public class AutoEncoder extends Encoder {
+
+  /** number of values used to select the encoding of a chunk */
+  public static final int SAMPLE_SIZE = 4096;
+
+  private static final TSEncoding[] BOOLEAN_CANDIDATES = {TSEncoding.PLAIN, TSEncoding.RLE};
+  private static final TSEncoding[] INTEGER_CANDIDATES = {
+    TSEncoding.PLAIN, TSEncoding.RLE, TSEncoding.TS_2DIFF, TSEncoding.CHIMP
+  };
+  private static final TSEncoding[] FLOATING_CANDIDATES = {
+    TSEncoding.PLAIN, TSEncoding.CHIMP, TSEncoding.ALP
+  };
+  private static final TSEncoding[] TEXT_CANDIDATES = {TSEncoding.PLAIN, TSEncoding.DICTIONARY};
+
+  private final TSDataType dataType;
+  private final TSEncoding[] candidates;
+  private final TSEncodingBuilder[] candidateBuilders;
+
+  /** raw bits of the sampled values, or their index in sampleBinaries for TEXT */
+  private final long[] sampleValues = new long[SAMPLE_SIZE];
+
+  private final Binary[] sampleBinaries;
+  private int sampleCount = 0;
+  private long sampleRawSize = 0;
+
+  private TSEncoding selectedEncoding;
+  private Encoder selectedEncoder;
+
+  /** size of the values of current chunk if they were not encoded */
+  private long rawSize = 0;
+  /** size of the encoded values of current chunk, in flushed pages */
+  private long encodedSize = 0;
+  /** size of the output stream before the first value of current page, -1 if not started */
+  private int pageStartSize = -1;
+
+  /**
+   * @param candidateBuilders builders of the candidates, already initialized with the properties
+   *     of the series
+   */
+  public AutoEncoder(
+      TSDataType dataType, TSEncoding[] candidates, TSEncodingBuilder[] candidateBuilders) {
+    super(TSEncoding.AUTO);
+    this.dataType = dataType;
+    this.candidates = candidates;
+    this.candidateBuilders = candidateBuilders;
+    this.sampleBinaries = dataType == TSDataType.TEXT ? new Binary[SAMPLE_SIZE] : null;
+  }
+
+  /** @return the encodings that may be selected for the given data type */
+  public static TSEncoding[] getCandidates(TSDataType dataType) {
+    switch (dataType) {
+      case BOOLEAN:
+        return BOOLEAN_CANDIDATES;
+      case INT32:
+      case INT64:
+        return INTEGER_CANDIDATES;
+      case FLOAT:
+      case DOUBLE:
+        return FLOATING_CANDIDATES;
+      case TEXT:
+        return TEXT_CANDIDATES;
+      default:
+        throw new UnSupportedDataTypeException("AUTO doesn't support data type: " + dataType);
+    }
+  }
+
+  @Override
+  public void encode(boolean value, ByteArrayOutputStream out) {
+    startValue(out, 1);
+    if (selectedEncoder != null) {
+      selectedEncoder.encode(value, out);
+    } else {
+      addSample(value ? 1 : 0, 1, out);
+    }
+  }
+
+  @Override
+  public void encode(int value, ByteArrayOutputStream out) {
+    startValue(out, Integer.BYTES);
+    if (selectedEncoder != null) {
+      selectedEncoder.encode(value, out);
+    } else {
+      addSample(value, Integer.BYTES, out);
+    }
+  }
+
+  @Override
+  public void encode(long value, ByteArrayOutputStream out) {
+    startValue(out, Long.BYTES);
+    if (selectedEncoder != null) {
+      selectedEncoder.encode(value, out);
+    } else {
+      addSample(value, Long.BYTES, out);
+    }
+  }
+
+  @Override
+  public void encode(float value, ByteArrayOutputStream out) {
+    startValue(out, Float.BYTES);
+    if (selectedEncoder != null) {
+      selectedEncoder.encode(value, out);
+    } else {
+      addSample(Float.floatToRawIntBits(value), Float.BYTES, out);
+    }
+  }
+
+  @Override
+  public void encode(double value, ByteArrayOutputStream out) {
+    startValue(out, Double.BYTES);
+    if (selectedEncoder != null) {
+      selectedEncoder.encode(value, out);
+    } else {
+      addSample(Double.doubleToRawLongBits(value), Double.BYTES, out);
+    }
+  }
+
+  @Override
+  public void encode(Binary value, ByteArrayOutputStream out) {
+    long valueSize = Integer.BYTES + (long) value.getLength();
+    startValue(out, valueSize);
+    if (selectedEncoder != null) {
+      selectedEncoder.encode(value, out);
+    } else {
+      sampleBinaries[sampleCount] = value;
+      addSample(sampleCount, valueSize, out);
+    }
+  }
+
+  @Override
+  public void flush(ByteArrayOutputStream out) throws IOException {
+    if (selectedEncoder == null && sampleCount > 0) {
+      select(out);
+    }
+    if (selectedEncoder != null) {
+      selectedEncoder.flush(out);
+    }
+    if (pageStartSize >= 0) {
+      encodedSize += out.size() - pageStartSize;
+      pageStartSize = -1;
+    }
+  }
+
+  @Override
+  public int getOneItemMaxSize() {
+    if (selectedEncoder != null) {
+      return selectedEncoder.getOneItemMaxSize();
+    }
+    return dataType == TSDataType.TEXT ? Integer.BYTES : Long.BYTES;
+  }
+
+  @Override
+  public long getMaxByteSize() {
+    return selectedEncoder != null ? selectedEncoder.getMaxByteSize() : sampleRawSize;
+  }
+
+  /** start to select the encoding of a new chunk */
+  public void reset() {
+    selectedEncoding = null;
+    selectedEncoder = null;
+    sampleCount = 0;
+    sampleRawSize = 0;
+    rawSize = 0;
+    encodedSize = 0;
+    pageStartSize = -1;
+  }
+
+  /** @return the encoding selected for current chunk, PLAIN if no value is encoded */
+  public TSEncoding getSelectedEncoding() {
+    return selectedEncoding != null ? selectedEncoding : TSEncoding.PLAIN;
+  }
+
+  /**
+   * select the encoding of current chunk without sampling, used when pages encoded by it are copied
+   * into the chunk without decoding
+   *
+   * @throws TsFileEncodingException if the encoding is not a candidate, or current chunk already
+   *     has values of another encoding
+   */
+  public void select(TSEncoding encoding) {
+    if (encoding == selectedEncoding) {
+      return;
+    }
+    if (selectedEncoding != null || sampleCount > 0) {
+      throw new TsFileEncodingException(
+          String.format(
+              "Cannot select %s for a chunk that already has %s values",
+              encoding, getSelectedEncoding()));
+    }
+    for (int i = 0; i < candidates.length; i++) {
+      if (candidates[i] == encoding) {
+        selectedEncoding = encoding;
+        selectedEncoder = candidateBuilders[i].getEncoder(dataType);
+        return;
+      }
+    }
+    throw new TsFileEncodingException(
+        String.format("AUTO doesn't select %s for data type %s", encoding, dataType));
+  }
+
+  /** @return whether an encoding has been selected for current chunk */
+  public boolean isSelected() {
+    return selectedEncoding != null;
+  }
+
+  /** @return size of all values of current chunk if they were not encoded */
+  public long getRawSize() {
+    return rawSize;
+  }
+
+  /** @return size of the values of current chunk in flushed pages */
+  public long getEncodedSize() {
+    return encodedSize;
+  }
+
+  private void startValue(ByteArrayOutputStream out, long valueSize) {
+    if (pageStartSize < 0) {
+      pageStartSize = out.size();
+    }
+    rawSize += valueSize;
+  }
+
+  private void addSample(long value, long valueSize, ByteArrayOutputStream out) {
+    sampleValues[sampleCount++] = value;
+    sampleRawSize += valueSize;
+    if (sampleCount == SAMPLE_SIZE) {
+      select(out);
+    }
+  }
+
+  /** encode the samples by all candidates, and write them out by the best one */
+  private void select(ByteArrayOutputStream out) {
+    int best = 0;
+    long bestSize = Long.MAX_VALUE;
+    PublicBAOS buffer = new PublicBAOS();
+    for (int i = 0; i < candidates.length; i++) {
+      buffer.reset();
+      Encoder encoder = candidateBuilders[i].getEncoder(dataType);
+      encodeSamples(encoder, buffer);
+      try {
+        encoder.flush(buffer);
+      } catch (IOException e) {
+        throw new TsFileEncodingException(e);
+      }
+      if (buffer.size() < bestSize) {
+        best = i;
+        bestSize = buffer.size();
+      }
+    }
+
+    selectedEncoding = candidates[best];
+    selectedEncoder = candidateBuilders[best].getEncoder(dataType);
+    encodeSamples(selectedEncoder, out);
+    sampleCount = 0;
+    sampleRawSize = 0;
+    if (sampleBinaries != null) {
+      Arrays.fill(sampleBinaries, null);
+    }
+  }
+
+  private void encodeSamples(Encoder encoder, ByteArrayOutputStream out) {
+    for (int i = 0; i < sampleCount; i++) {
+      long value = sampleValues[i];
+      switch (dataType) {
+        case BOOLEAN:
+          encoder.encode(value != 0, out);
+          break;
+        case INT32:
+          encoder.encode((int) value, out);
+          break;
+        case INT64:
+          encoder.encode(value, out);
+          break;
+        case FLOAT:
+          encoder.encode(Float.intBitsToFloat((int) value), out);
+          break;
+        case DOUBLE:
+          encoder.encode(Double.longBitsToDouble(value), out);
+          break;
+        case TEXT:
+          encoder.encode(sampleBinaries[(int) value], out);
+          break;
+        default:
+          throw new UnSupportedDataTypeException("AUTO doesn't support data type: " + dataType);
+      }
+    }
+  }
+}
@@ -0,0 +1,121 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.iotdb.tsfile.encoding.encoder;
+
+import org.apache.iotdb.tsfile.file.metadata.enums.TSEncoding;
+import org.apache.iotdb.tsfile.utils.PublicBAOS;
+import org.apache.iotdb.tsfile.utils.ReadWriteForEncodingUtils;
+
+import java.io.ByteArrayOutputStream;
+
+/**
+ * Chimp128 encoding of "Chimp: Efficient Lossless Floating Point Compression for Time Series
+ * Databases" (VLDB 2022). Like GORILLA it XORs each value with a previous one, but the previous
+ * value is picked among the last {@link #PREVIOUS_VALUES} values as the one sharing the most
+ * trailing bits, and the number of leading zeros is rounded to one of 8 representations.
+ *
+ * <p>Values are encoded in blocks of at most {@link #BLOCK_SIZE} values. Each block starts with the
+ * number of values as an unsigned var int, followed by the bit stream padded to a whole byte, so
+ * that no ending value is reserved and every block could be decoded independently.
+ */
+public abstract class ChimpEncoder extends Encoder {
+
+  /** maximum number of values in a block */
+  public static final int BLOCK_SIZE = 1024;
+  /** number of previous values a value could be XORed with, must be a power of 2 */
+  public static final int PREVIOUS_VALUES = 128;
+
+  public static final int PREVIOUS_VALUES_LOG2 = 7;
+  /** bits of the representation of rounded leading zeros */
+  public static final int LEADING_REPRESENTATION_LENGTH = 3;
+  /** rounded leading zeros of each representation */
+  public static final int[] LEADING_REPRESENTATION = {0, 8, 12, 16, 18, 20, 22, 24};
+  /** representation of each number of leading zeros, the rounded value is never more */
+  protected static final int[] LEADING_ROUND = new int[Long.SIZE];
+
+  static {
+    for (int leadingZeros = 0; leadingZeros < Long.SIZE; leadingZeros++) {
+      int representation = LEADING_REPRESENTATION.length - 1;
+      while (LEADING_REPRESENTATION[representation] > leadingZeros) {
+        representation--;
+      }
+      LEADING_ROUND[leadingZeros] = representation;
+    }
+  }
+
+  private final PublicBAOS blockBuffer = new PublicBAOS();
+  private long bitBuffer = 0;
+  private int bitCount = 0;
+  /** number of values in current block */
+  protected int blockValueCount = 0;
+
+  protected ChimpEncoder() {
+    super(TSEncoding.CHIMP);
+  }
+
+  @Override
+  public void flush(ByteArrayOutputStream out) {
+    if (blockValueCount == 0) {
+      return;
+    }
+    if (bitCount > 0) {
+      blockBuffer.write((int) (bitBuffer << (Byte.SIZE - bitCount)));
+    }
+    ReadWriteForEncodingUtils.writeUnsignedVarInt(blockValueCount, out);
+    out.write(blockBuffer.getBuf(), 0, blockBuffer.size());
+
+    blockBuffer.reset();
+    bitBuffer = 0;
+    bitCount = 0;
+    blockValueCount = 0;
+  }
+
+  @Override
+  public long getMaxByteSize() {
+    // the unfinished byte and the var int header of current block
+    return blockBuffer.size() + 1L + Integer.BYTES + 1;
+  }
+
+  /** count a written value and write out the block once it is full */
+  protected void endValue(ByteArrayOutputStream out) {
+    blockValueCount++;
+    if (blockValueCount == BLOCK_SIZE) {
+      flush(out);
+    }
+  }
+
+  /**
+   * Writes the given value using the defined amount of least significant bits.
+   *
+   * @param value The long value to be written
+   * @param bits How many bits are stored to the stream, at most 64
+   */
+  protected void writeBits(long value, int bits) {
+    if (bits > Integer.SIZE) {
+      writeBits(value >>> Integer.SIZE, bits - Integer.SIZE);
+      bits = Integer.SIZE;
+    }
+    bitBuffer = (bitBuffer << bits) | (value & ((1L << bits) - 1));
+    bitCount += bits;
+    while (bitCount >= Byte.SIZE) {
+      bitCount -= Byte.SIZE;
+      blockBuffer.write((int) (bitBuffer >>> bitCount));
+    }
+  }
+}
@@ -29,6 +29,7 @@ import org.slf4j.LoggerFactory;
 import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.HashMap;
 import java.util.List;
 
@@ -49,6 +50,8 @@ public class DictionaryEncoder extends Encoder {
   private List<Binary> indexEntry;
   private IntRleEncoder valuesEncoder;
   private long mapSize;
+  // code given by the caller -> index in this page + 1, 0 means not in this page
+  private int[] codeIndex;
 
   public DictionaryEncoder() {
     super(TSEncoding.DICTIONARY);
@@ -57,6 +60,7 @@ public class DictionaryEncoder extends Encoder {
     indexEntry = new ArrayList<>();
     valuesEncoder = new IntRleEncoder();
     mapSize = 0;
+    codeIndex = new int[0];
   }
 
   @Override
@@ -66,11 +70,32 @@ public class DictionaryEncoder extends Encoder {
         (v) -> {
           indexEntry.add(v);
           mapSize += v.getLength();
-          return entryIndex.size();
+          return indexEntry.size() - 1;
         });
     valuesEncoder.encode(entryIndex.get(value), out);
   }
 
+  /**
+   * encode a value that the caller has already interned, so the value is looked up by its code
+   * instead of by hashing it. Codes are non-negative, and equal values must have equal codes. This
+   * method should not be mixed with {@link #encode(Binary, ByteArrayOutputStream)} in one page.
+   *
+   * @param code code of the value given by the caller
+   * @param value the value
+   * @param out output stream
+   */
+  public void encode(int code, Binary value, ByteArrayOutputStream out) {
+    if (code >= codeIndex.length) {
+      codeIndex = Arrays.copyOf(codeIndex, Math.max(code + 1, codeIndex.length * 2));
+    }
+    if (codeIndex[code] == 0) {
+      indexEntry.add(value);
+      mapSize += value.getLength();
+      codeIndex[code] = indexEntry.size();
+    }
+    valuesEncoder.encode(codeIndex[code] - 1, out);
+  }
+
   @Override
   public void flush(ByteArrayOutputStream out) {
     try {
@@ -111,5 +136,6 @@ public class DictionaryEncoder extends Encoder {
     indexEntry.clear();
     valuesEncoder.reset();
     mapSize = 0;
+    Arrays.fill(codeIndex, 0);
   }
 }
@@ -0,0 +1,59 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.iotdb.tsfile.encoding.encoder;
+
+import org.apache.iotdb.tsfile.utils.BytesUtils;
+
+import java.io.ByteArrayOutputStream;
+
+/** ALP encoder of double values. */
+public class DoubleAlpEncoder extends AlpEncoder {
+
+  /** a double has at most 17 significant decimal digits */
+  private static final int MAX_EXPONENT = 18;
+
+  private final LongChimpEncoder chimpEncoder = new LongChimpEncoder();
+
+  public DoubleAlpEncoder() {
+    super(MAX_EXPONENT, Double.SIZE);
+  }
+
+  @Override
+  public final void encode(double value, ByteArrayOutputStream out) {
+    add(value, Double.doubleToRawLongBits(value), out);
+  }
+
+  @Override
+  protected boolean isExact(double decoded, long rawBits) {
+    return Double.doubleToRawLongBits(decoded) == rawBits;
+  }
+
+  @Override
+  protected void writeException(long rawBits, ByteArrayOutputStream out) {
+    out.write(BytesUtils.longToBytes(rawBits), 0, Long.BYTES);
+  }
+
+  @Override
+  protected void writeChimpBlock(ByteArrayOutputStream out) {
+    for (int i = 0; i < size; i++) {
+      chimpEncoder.encode(bits[i], out);
+    }
+    chimpEncoder.flush(out);
+  }
+}
@@ -0,0 +1,151 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.iotdb.tsfile.encoding.encoder;
+
+import java.io.ByteArrayOutputStream;
+import java.util.Arrays;
+
+import static org.apache.iotdb.tsfile.common.conf.TSFileConfig.VALUE_BITS_LENGTH_64BIT;
+
+/**
+ * Chimp128 encoder of 64-bit values. The encoded forms of a value, after the raw first value of a
+ * block, are:
+ *
+ * <ul>
+ *   <li>'00' + index: equal to the previous value at index
+ *   <li>'01' + index + leading representation + significant bits length + significant bits: XOR
+ *       with the previous value at index, which has more than {@link #THRESHOLD} trailing zeros
+ *   <li>'10' + significant bits: XOR with the last value, using the stored leading zeros
+ *   <li>'11' + leading representation + significant bits: XOR with the last value, using new
+ *       leading zeros
+ * </ul>
+ */
+public class LongChimpEncoder extends ChimpEncoder {
+
+  /** trailing zeros a XOR with an indexed previous value must exceed to be worth its index */
+  public static final int THRESHOLD = 6 + PREVIOUS_VALUES_LOG2;
+
+  public static final int SIGNIFICANT_BITS_LENGTH = 6;
+
+  private static final int FLAG_ONE_LENGTH =
+      2 + PREVIOUS_VALUES_LOG2 + LEADING_REPRESENTATION_LENGTH + SIGNIFICANT_BITS_LENGTH;
+
+  private static final int ONE_ITEM_MAX_SIZE =
+      (2 + LEADING_REPRESENTATION_LENGTH + VALUE_BITS_LENGTH_64BIT) / Byte.SIZE + 1;
+  /** the lowest bits of a value used to find previous values of the same trailing bits */
+  private static final int KEY_MASK = (1 << (THRESHOLD + 1)) - 1;
+  /** leading zeros that never equal a real one, so the next XOR must write new leading zeros */
+  private static final int NO_STORED_LEADING_ZEROS = Integer.MAX_VALUE;
+
+  private final long[] storedValues = new long[PREVIOUS_VALUES];
+  /** the last position of each key, a position is valid only inside current block */
+  private final int[] indices = new int[KEY_MASK + 1];
+  /** position of the last value */
+  private int index = -1;
+  /** position of the first value in current block, always a multiple of PREVIOUS_VALUES */
+  private int blockStart = 0;
+
+  private int storedLeadingZeros = NO_STORED_LEADING_ZEROS;
+
+  @Override
+  public final int getOneItemMaxSize() {
+    return ONE_ITEM_MAX_SIZE;
+  }
+
+  @Override
+  public final void encode(long value, ByteArrayOutputStream out) {
+    if (blockValueCount == 0) {
+      writeFirst(value);
+    } else {
+      compressValue(value);
+    }
+    endValue(out);
+  }
+
+  private void writeFirst(long value) {
+    // start at a new multiple of PREVIOUS_VALUES, so that the positions of previous blocks are
+    // all invalid and position % PREVIOUS_VALUES is the index of the value in the decoder
+    blockStart = (index + PREVIOUS_VALUES) & -PREVIOUS_VALUES;
+    if (blockStart < 0 || blockStart > Integer.MAX_VALUE - 2 * BLOCK_SIZE) {
+      Arrays.fill(indices, 0);
+      blockStart = 0;
+    }
+    index = blockStart;
+    storedValues[0] = value;
+    indices[(int) value & KEY_MASK] = index;
+    storedLeadingZeros = NO_STORED_LEADING_ZEROS;
+    writeBits(value, VALUE_BITS_LENGTH_64BIT);
+  }
+
+  private void compressValue(long value) {
+    int key = (int) value & KEY_MASK;
+    long xor;
+    int previousIndex;
+    int trailingZeros = 0;
+    int candidate = indices[key];
+    if (candidate >= blockStart && index - candidate < PREVIOUS_VALUES) {
+      long candidateXor = value ^ storedValues[candidate & (PREVIOUS_VALUES - 1)];
+      trailingZeros = Long.numberOfTrailingZeros(candidateXor);
+      if (trailingZeros > THRESHOLD) {
+        previousIndex = candidate & (PREVIOUS_VALUES - 1);
+        xor = candidateXor;
+      } else {
+        previousIndex = index & (PREVIOUS_VALUES - 1);
+        xor = storedValues[previousIndex] ^ value;
+      }
+    } else {
+      previousIndex = index & (PREVIOUS_VALUES - 1);
+      xor = storedValues[previousIndex] ^ value;
+    }
+
+    if (xor == 0) {
+      // '00' + index
+      writeBits(previousIndex, 2 + PREVIOUS_VALUES_LOG2);
+      storedLeadingZeros = NO_STORED_LEADING_ZEROS;
+    } else {
+      int representation = LEADING_ROUND[Long.numberOfLeadingZeros(xor)];
+      int leadingZeros = LEADING_REPRESENTATION[representation];
+      if (trailingZeros > THRESHOLD) {
+        // '01' + index + leading representation + significant bits length
+        int significantBits = VALUE_BITS_LENGTH_64BIT - leadingZeros - trailingZeros;
+        int flag = PREVIOUS_VALUES | previousIndex;
+        flag = (flag << LEADING_REPRESENTATION_LENGTH) | representation;
+        flag = (flag << SIGNIFICANT_BITS_LENGTH) | significantBits;
+        writeBits(flag, FLAG_ONE_LENGTH);
+        writeBits(xor >>> trailingZeros, significantBits);
+        storedLeadingZeros = NO_STORED_LEADING_ZEROS;
+      } else if (leadingZeros == storedLeadingZeros) {
+        // '10'
+        writeBits(2, 2);
+        writeBits(xor, VALUE_BITS_LENGTH_64BIT - leadingZeros);
+      } else {
+        // '11' + leading representation
+        storedLeadingZeros = leadingZeros;
+        writeBits(
+            (3 << LEADING_REPRESENTATION_LENGTH) | representation,
+            2 + LEADING_REPRESENTATION_LENGTH);
+        writeBits(xor, VALUE_BITS_LENGTH_64BIT - leadingZeros);
+      }
+    }
+
+    index++;
+    storedValues[index & (PREVIOUS_VALUES - 1)] = value;
+    indices[key] = index;
+  }
+}
@@ -70,6 +70,12 @@ public abstract class TSEncodingBuilder {
         return new GorillaV2();
       case DICTIONARY:
         return new Dictionary();
+      case CHIMP:
+        return new Chimp();
+      case ALP:
+        return new Alp();
+      case AUTO:
+        return new Auto();
       default:
         throw new UnsupportedOperationException(type.toString());
     }
@@ -314,4 +320,73 @@ public abstract class TSEncodingBuilder {
       // do nothing
     }
   }
+
+  /** for FLOAT, DOUBLE, INT, LONG. */
+  public static class Chimp extends TSEncodingBuilder {
+
+    @Override
+    public Encoder getEncoder(TSDataType type) {
+      switch (type) {
+        case FLOAT:
+          return new FloatChimpEncoder();
+        case DOUBLE:
+          return new DoubleChimpEncoder();
+        case INT32:
+          return new IntChimpEncoder();
+        case INT64:
+          return new LongChimpEncoder();
+        default:
+          throw new UnSupportedDataTypeException("CHIMP doesn't support data type: " + type);
+      }
+    }
+
+    @Override
+    public void initFromProps(Map<String, String> props) {
+      // allowed do nothing
+    }
+  }
+
+  /** for FLOAT, DOUBLE. */
+  public static class Alp extends TSEncodingBuilder {
+
+    @Override
+    public Encoder getEncoder(TSDataType type) {
+      switch (type) {
+        case FLOAT:
+          return new FloatAlpEncoder();
+        case DOUBLE:
+          return new DoubleAlpEncoder();
+        default:
+          throw new UnSupportedDataTypeException("ALP doesn't support data type: " + type);
+      }
+    }
+
+    @Override
+    public void initFromProps(Map<String, String> props) {
+      // allowed do nothing
+    }
+  }
+
+  /** for all TSDataType except VECTOR. */
+  public static class Auto extends TSEncodingBuilder {
+
+    private Map<String, String> props;
+
+    @Override
+    public Encoder getEncoder(TSDataType type) {
+      TSEncoding[] candidates = AutoEncoder.getCandidates(type);
+      TSEncodingBuilder[] candidateBuilders = new TSEncodingBuilder[candidates.length];
+      for (int i = 0; i < candidates.length; i++) {
+        candidateBuilders[i] = getEncodingBuilder(candidates[i]);
+        candidateBuilders[i].initFromProps(props);
+      }
+      return new AutoEncoder(type, candidates, candidateBuilders);
+    }
+
+    @Override
+    public void initFromProps(Map<String, String> props) {
+      // the candidates are initialized with the same properties
+      this.props = props;
+    }
+  }
 }
@@ -176,7 +176,18 @@ public class ChunkHeader {
     ByteBuffer buffer = ByteBuffer.allocate(chunkHeaderSize);
     input.read(buffer, offset);
     buffer.flip();
+    return deserializeFrom(buffer, chunkHeaderSize);
+  }
 
+  /**
+   * deserialize from a buffer positioned at the marker, the position of the buffer is moved to the
+   * end of the chunk header.
+   *
+   * @param buffer ByteBuffer
+   * @param chunkHeaderSize the estimated size of chunk's header
+   * @return CHUNK_HEADER object
+   */
+  public static ChunkHeader deserializeFrom(ByteBuffer buffer, int chunkHeaderSize) {
     byte chunkType = buffer.get();
     // read measurementID
     String measurementID = ReadWriteIOUtils.readVarIntString(buffer);
@@ -183,6 +183,17 @@ public class AlignedChunkMetadata implements IChunkMetadata {
     throw new UnsupportedOperationException("VectorChunkMetadata doesn't support serial method");
   }
 
+  @Override
+  public int serializeTo(
+      OutputStream outputStream, boolean serializeStatistic, boolean serializePageValueIndex) {
+    throw new UnsupportedOperationException("VectorChunkMetadata doesn't support serial method");
+  }
+
+  @Override
+  public PageValueIndex getPageValueIndex() {
+    return null;
+  }
+
   @Override
   public byte getMask() {
     return 0;
@@ -0,0 +1,133 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.iotdb.tsfile.file.metadata;
+
+import org.apache.iotdb.tsfile.common.conf.TSFileDescriptor;
+import org.apache.iotdb.tsfile.read.common.Path;
+import org.apache.iotdb.tsfile.utils.BloomFilter;
+import org.apache.iotdb.tsfile.utils.ReadWriteForEncodingUtils;
+import org.apache.iotdb.tsfile.utils.ReadWriteIOUtils;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Directory of a series bloom filter that is split into blocks by device. The blocks are written
+ * in front of the {@link TsFileMetadata}, each one in the same format as the bloom filter of the
+ * whole file, and only this directory is kept in the {@link TsFileMetadata}.
+ */
+public class BloomFilterBlockIndex {
+
+  // offset of the first block in the file
+  private long blocksOffset;
+
+  // serialized size of each block
+  private int[] blockSizes;
+
+  // offset of each block in the file
+  private long[] blockOffsets;
+
+  private BloomFilterBlockIndex(long blocksOffset, int[] blockSizes) {
+    this.blocksOffset = blocksOffset;
+    this.blockSizes = blockSizes;
+    this.blockOffsets = new long[blockSizes.length];
+    long offset = blocksOffset;
+    for (int i = 0; i < blockSizes.length; i++) {
+      blockOffsets[i] = offset;
+      offset += blockSizes[i];
+    }
+  }
+
+  /**
+   * build one bloom filter for each block and write them.
+   *
+   * @param outputStream -output stream of the file
+   * @param blocksOffset -position of the output stream in the file
+   * @param paths -all series of the file
+   * @param seriesNumPerBlock -expected number of series of one block
+   * @return the directory of the written blocks
+   */
+  public static BloomFilterBlockIndex serializeBlocks(
+      OutputStream outputStream, long blocksOffset, Set<Path> paths, int seriesNumPerBlock)
+      throws IOException {
+    int blockNum = (paths.size() + seriesNumPerBlock - 1) / seriesNumPerBlock;
+    List<List<String>> blockPaths = new ArrayList<>(blockNum);
+    for (int i = 0; i < blockNum; i++) {
+      blockPaths.add(new ArrayList<>());
+    }
+    for (Path path : paths) {
+      blockPaths.get(getBlockIndex(path.getDevice(), blockNum)).add(path.toString());
+    }
+
+    double errorRate = TSFileDescriptor.getInstance().getConfig().getBloomFilterErrorRate();
+    int[] blockSizes = new int[blockNum];
+    for (int i = 0; i < blockNum; i++) {
+      BloomFilter filter = BloomFilter.getEmptyBloomFilter(errorRate, blockPaths.get(i).size());
+      for (String path : blockPaths.get(i)) {
+        filter.add(path);
+      }
+      blockSizes[i] = TsFileMetadata.serializeBloomFilter(filter, outputStream);
+    }
+    return new BloomFilterBlockIndex(blocksOffset, blockSizes);
+  }
+
+  private static int getBlockIndex(String device, int blockNum) {
+    return Math.floorMod(device.hashCode(), blockNum);
+  }
+
+  /** @return index of the block that holds the series of the device */
+  public int getBlockIndex(String device) {
+    return getBlockIndex(device, blockSizes.length);
+  }
+
+  public int getBlockNum() {
+    return blockSizes.length;
+  }
+
+  public long getBlockOffset(int blockIndex) {
+    return blockOffsets[blockIndex];
+  }
+
+  public int getBlockSize(int blockIndex) {
+    return blockSizes[blockIndex];
+  }
+
+  public int serializeTo(OutputStream outputStream) throws IOException {
+    int byteLen = ReadWriteForEncodingUtils.writeUnsignedVarInt(blockSizes.length, outputStream);
+    byteLen += ReadWriteIOUtils.write(blocksOffset, outputStream);
+    for (int blockSize : blockSizes) {
+      byteLen += ReadWriteForEncodingUtils.writeUnsignedVarInt(blockSize, outputStream);
+    }
+    return byteLen;
+  }
+
+  public static BloomFilterBlockIndex deserializeFrom(ByteBuffer buffer) {
+    int blockNum = ReadWriteForEncodingUtils.readUnsignedVarInt(buffer);
+    long blocksOffset = ReadWriteIOUtils.readLong(buffer);
+    int[] blockSizes = new int[blockNum];
+    for (int i = 0; i < blockNum; i++) {
+      blockSizes[i] = ReadWriteForEncodingUtils.readUnsignedVarInt(buffer);
+    }
+    return new BloomFilterBlockIndex(blocksOffset, blockSizes);
+  }
+}
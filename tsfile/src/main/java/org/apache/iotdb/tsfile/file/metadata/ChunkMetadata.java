@@ -25,6 +25,7 @@ import org.apache.iotdb.tsfile.read.controller.IChunkLoader;
 import org.apache.iotdb.tsfile.utils.FilePathUtils;
 import org.apache.iotdb.tsfile.utils.Pair;
 import org.apache.iotdb.tsfile.utils.RamUsageEstimator;
+import org.apache.iotdb.tsfile.utils.ReadWriteForEncodingUtils;
 import org.apache.iotdb.tsfile.utils.ReadWriteIOUtils;
 
 import java.io.IOException;
@@ -63,6 +64,9 @@ public class ChunkMetadata implements IChunkMetadata {
 
   private Statistics<? extends Serializable> statistics;
 
+  /** value bloom filters of the pages, null if the chunk has none */
+  private PageValueIndex pageValueIndex;
+
   private boolean isFromOldTsFile = false;
 
   private long ramSize;
@@ -145,6 +149,15 @@ public class ChunkMetadata implements IChunkMetadata {
     return tsDataType;
   }
 
+  @Override
+  public PageValueIndex getPageValueIndex() {
+    return pageValueIndex;
+  }
+
+  public void setPageValueIndex(PageValueIndex pageValueIndex) {
+    this.pageValueIndex = pageValueIndex;
+  }
+
   /**
    * serialize to outputStream.
    *
@@ -152,12 +165,35 @@ public class ChunkMetadata implements IChunkMetadata {
    * @return length
    * @throws IOException IOException
    */
+  @Override
   public int serializeTo(OutputStream outputStream, boolean serializeStatistic) throws IOException {
+    return serializeTo(outputStream, serializeStatistic, false);
+  }
+
+  /**
+   * serialize to outputStream.
+   *
+   * @param outputStream outputStream
+   * @param serializePageValueIndex whether the chunk metadata of the series have page value
+   *     indexes, the index of this chunk is serialized as empty if it has none
+   * @return length
+   * @throws IOException IOException
+   */
+  @Override
+  public int serializeTo(
+      OutputStream outputStream, boolean serializeStatistic, boolean serializePageValueIndex)
+      throws IOException {
     int byteLen = 0;
     byteLen += ReadWriteIOUtils.write(offsetOfChunkHeader, outputStream);
     if (serializeStatistic) {
       byteLen += statistics.serialize(outputStream);
     }
+    if (serializePageValueIndex) {
+      byteLen +=
+          pageValueIndex == null
+              ? ReadWriteForEncodingUtils.writeUnsignedVarInt(0, outputStream)
+              : pageValueIndex.serializeTo(outputStream);
+    }
     return byteLen;
   }
 
@@ -176,13 +212,17 @@ public class ChunkMetadata implements IChunkMetadata {
     chunkMetaData.offsetOfChunkHeader = ReadWriteIOUtils.readLong(buffer);
     // if the TimeSeriesMetadataType is not 0, it means it has more than one chunk
     // and each chunk's metadata has its own statistics
-    if ((timeseriesMetadata.getTimeSeriesMetadataType() & 0x3F) != 0) {
+    if ((timeseriesMetadata.getTimeSeriesMetadataType() & 0x1F) != 0) {
       chunkMetaData.statistics = Statistics.deserialize(buffer, chunkMetaData.tsDataType);
     } else {
       // if the TimeSeriesMetadataType is 0, it means it has only one chunk
       // and that chunk's metadata has no statistic
       chunkMetaData.statistics = timeseriesMetadata.getStatistics();
     }
+    if ((timeseriesMetadata.getTimeSeriesMetadataType() & TimeseriesMetadata.PAGE_VALUE_INDEX_MASK)
+        != 0) {
+      chunkMetaData.pageValueIndex = PageValueIndex.deserializeFrom(buffer);
+    }
     return chunkMetaData;
   }
 
@@ -280,7 +320,8 @@ public class ChunkMetadata implements IChunkMetadata {
     return CHUNK_METADATA_FIXED_RAM_SIZE
         + RamUsageEstimator.sizeOf(tsFilePrefixPath)
         + RamUsageEstimator.sizeOf(measurementUid)
-        + statistics.calculateRamSize();
+        + statistics.calculateRamSize()
+        + (pageValueIndex == null ? 0 : pageValueIndex.calculateRamSize());
   }
 
   public static long calculateRamSize(String measurementId, TSDataType dataType) {
@@ -73,5 +73,12 @@ public interface IChunkMetadata {
 
   int serializeTo(OutputStream outputStream, boolean serializeStatistic) throws IOException;
 
+  int serializeTo(
+      OutputStream outputStream, boolean serializeStatistic, boolean serializePageValueIndex)
+      throws IOException;
+
+  /** @return value bloom filters of the pages, null if the chunk has none */
+  PageValueIndex getPageValueIndex();
+
   byte getMask();
 }
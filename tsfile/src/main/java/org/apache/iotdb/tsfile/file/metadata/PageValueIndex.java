@@ -0,0 +1,157 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.iotdb.tsfile.file.metadata;
+
+import org.apache.iotdb.tsfile.common.conf.TSFileDescriptor;
+import org.apache.iotdb.tsfile.file.metadata.enums.TSDataType;
+import org.apache.iotdb.tsfile.read.filter.basic.Filter;
+import org.apache.iotdb.tsfile.utils.RamUsageEstimator;
+import org.apache.iotdb.tsfile.utils.ReadWriteForEncodingUtils;
+import org.apache.iotdb.tsfile.utils.ReadWriteIOUtils;
+import org.apache.iotdb.tsfile.utils.ValueBloomFilter;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Value bloom filters of the pages of a chunk, kept in the chunk metadata. The i-th filter belongs
+ * to the i-th page of the chunk, and a page without filter, or beyond the filters, may contain any
+ * value.
+ */
+public class PageValueIndex {
+
+  /** property of a timeseries that overrides whether its pages have value bloom filters */
+  public static final String PAGE_BLOOM_FILTER = "page_bloom_filter";
+
+  private static final long INSTANCE_SIZE =
+      RamUsageEstimator.shallowSizeOfInstance(PageValueIndex.class);
+
+  private final ValueBloomFilter[] pageFilters;
+
+  public PageValueIndex(ValueBloomFilter[] pageFilters) {
+    this.pageFilters = pageFilters;
+  }
+
+  /**
+   * @param props properties of the timeseries, {@link #PAGE_BLOOM_FILTER} overrides the configured
+   *     default
+   * @return whether the pages of the timeseries should have value bloom filters
+   */
+  public static boolean isEnabled(TSDataType dataType, Map<String, String> props) {
+    if (dataType == TSDataType.BOOLEAN || dataType == TSDataType.VECTOR) {
+      // statistics of boolean pages are enough for equality filters
+      return false;
+    }
+    if (props != null && props.containsKey(PAGE_BLOOM_FILTER)) {
+      return Boolean.parseBoolean(props.get(PAGE_BLOOM_FILTER));
+    }
+    return TSFileDescriptor.getInstance().getConfig().isEnablePageBloomFilter();
+  }
+
+  /**
+   * @param pageFilters filters of all pages of a chunk, null for a page without filter
+   * @return the index, or null if no page has a filter
+   */
+  public static PageValueIndex of(List<ValueBloomFilter> pageFilters) {
+    for (ValueBloomFilter pageFilter : pageFilters) {
+      if (pageFilter != null) {
+        return new PageValueIndex(pageFilters.toArray(new ValueBloomFilter[0]));
+      }
+    }
+    return null;
+  }
+
+  /**
+   * index of a chunk whose pages are those of the first chunk followed by those of the second.
+   *
+   * @return the merged index, which is null if the first chunk has no index because its number of
+   *     pages is unknown
+   */
+  public static PageValueIndex concat(PageValueIndex first, PageValueIndex second) {
+    if (first == null || second == null) {
+      return first;
+    }
+    ValueBloomFilter[] pageFilters =
+        Arrays.copyOf(first.pageFilters, first.pageFilters.length + second.pageFilters.length);
+    System.arraycopy(
+        second.pageFilters, 0, pageFilters, first.pageFilters.length, second.pageFilters.length);
+    return new PageValueIndex(pageFilters);
+  }
+
+  public int getPageNum() {
+    return pageFilters.length;
+  }
+
+  /** @return filter of the page, or null if the page has no filter */
+  public ValueBloomFilter getPageFilter(int pageIndex) {
+    return pageIndex < pageFilters.length ? pageFilters[pageIndex] : null;
+  }
+
+  /** @return false if no page of the chunk may have a point satisfying the filter */
+  public boolean satisfy(Filter filter) {
+    for (ValueBloomFilter pageFilter : pageFilters) {
+      if (pageFilter == null || filter.satisfy(pageFilter)) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  public int serializeTo(OutputStream outputStream) throws IOException {
+    int byteLen = ReadWriteForEncodingUtils.writeUnsignedVarInt(pageFilters.length, outputStream);
+    for (ValueBloomFilter pageFilter : pageFilters) {
+      if (pageFilter == null) {
+        byteLen += ReadWriteIOUtils.write(false, outputStream);
+      } else {
+        byteLen += ReadWriteIOUtils.write(true, outputStream);
+        byteLen += pageFilter.serialize(outputStream);
+      }
+    }
+    return byteLen;
+  }
+
+  /** @return the index, or null if the chunk has no index */
+  public static PageValueIndex deserializeFrom(ByteBuffer buffer) {
+    int pageNum = ReadWriteForEncodingUtils.readUnsignedVarInt(buffer);
+    if (pageNum == 0) {
+      return null;
+    }
+    ValueBloomFilter[] pageFilters = new ValueBloomFilter[pageNum];
+    for (int i = 0; i < pageNum; i++) {
+      if (ReadWriteIOUtils.readBool(buffer)) {
+        pageFilters[i] = ValueBloomFilter.deserialize(buffer);
+      }
+    }
+    return new PageValueIndex(pageFilters);
+  }
+
+  public long calculateRamSize() {
+    long size = INSTANCE_SIZE + RamUsageEstimator.shallowSizeOf(pageFilters);
+    for (ValueBloomFilter pageFilter : pageFilters) {
+      if (pageFilter != null) {
+        size += pageFilter.calculateRamSize();
+      }
+    }
+    return size;
+  }
+}
@@ -35,6 +35,9 @@ import java.util.List;
 
 public class TimeseriesMetadata implements ITimeSeriesMetadata {
 
+  /** set in timeSeriesMetadataType if each chunk metadata is followed by its page value index */
+  public static final byte PAGE_VALUE_INDEX_MASK = 0x20;
+
   /** used for old version tsfile */
   private long startOffsetOfChunkMetaDataList;
   /**
@@ -44,6 +47,9 @@ public class TimeseriesMetadata implements ITimeSeriesMetadata {
    * <p>1 means this time series has more than one chunk, should save the statistic again in chunk
    * metadata;
    *
+   * <p>if the 6th bit is 1, it means the chunk metadata have page value indexes, see {@link
+   * #PAGE_VALUE_INDEX_MASK};
+   *
    * <p>if the 8th bit is 1, it means it is the time column of a vector series;
    *
    * <p>if the 7th bit is 1, it means it is the value column of a vector series
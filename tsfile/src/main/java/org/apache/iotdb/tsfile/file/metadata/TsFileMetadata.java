@@ -36,6 +36,9 @@ public class TsFileMetadata {
   // bloom filter
   private BloomFilter bloomFilter;
 
+  // directory of the bloom filter blocks, null if the bloom filter is not split
+  private BloomFilterBlockIndex bloomFilterBlockIndex;
+
   // List of <name, offset, childMetadataIndexType>
   private MetadataIndexNode metadataIndex;
 
@@ -60,15 +63,24 @@ public class TsFileMetadata {
 
     // read bloom filter
     if (buffer.hasRemaining()) {
-      byte[] bytes = ReadWriteIOUtils.readByteBufferWithSelfDescriptionLength(buffer);
-      int filterSize = ReadWriteForEncodingUtils.readUnsignedVarInt(buffer);
-      int hashFunctionSize = ReadWriteForEncodingUtils.readUnsignedVarInt(buffer);
-      fileMetaData.bloomFilter = BloomFilter.buildBloomFilter(bytes, filterSize, hashFunctionSize);
+      fileMetaData.bloomFilter = deserializeBloomFilter(buffer);
+    }
+
+    // read the directory of bloom filter blocks, which older files do not have
+    if (buffer.hasRemaining()) {
+      fileMetaData.bloomFilterBlockIndex = BloomFilterBlockIndex.deserializeFrom(buffer);
     }
 
     return fileMetaData;
   }
 
+  public static BloomFilter deserializeBloomFilter(ByteBuffer buffer) {
+    byte[] bytes = ReadWriteIOUtils.readByteBufferWithSelfDescriptionLength(buffer);
+    int filterSize = ReadWriteForEncodingUtils.readUnsignedVarInt(buffer);
+    int hashFunctionSize = ReadWriteForEncodingUtils.readUnsignedVarInt(buffer);
+    return BloomFilter.buildBloomFilter(bytes, filterSize, hashFunctionSize);
+  }
+
   public BloomFilter getBloomFilter() {
     return bloomFilter;
   }
@@ -77,6 +89,14 @@ public class TsFileMetadata {
     this.bloomFilter = bloomFilter;
   }
 
+  public BloomFilterBlockIndex getBloomFilterBlockIndex() {
+    return bloomFilterBlockIndex;
+  }
+
+  public void setBloomFilterBlockIndex(BloomFilterBlockIndex bloomFilterBlockIndex) {
+    this.bloomFilterBlockIndex = bloomFilterBlockIndex;
+  }
+
   /**
    * use the given outputStream to serialize.
    *
@@ -100,15 +120,26 @@ public class TsFileMetadata {
   }
 
   /**
-   * use the given outputStream to serialize bloom filter.
+   * use the given outputStream to serialize bloom filter. If the bloom filter is split into blocks,
+   * a filter that contains every path is written in place of the bloom filter of the whole file,
+   * so that readers which do not know the blocks never skip the file by mistake, and the directory
+   * of the blocks follows it.
    *
    * @param outputStream -output stream to determine byte length
    * @return -byte length
    */
   public int serializeBloomFilter(OutputStream outputStream, Set<Path> paths) throws IOException {
-    int byteLen = 0;
-    BloomFilter filter = buildBloomFilter(paths);
+    if (bloomFilterBlockIndex == null) {
+      return serializeBloomFilter(buildBloomFilter(paths), outputStream);
+    }
+    int byteLen = serializeBloomFilter(BloomFilter.getMatchAllBloomFilter(), outputStream);
+    byteLen += bloomFilterBlockIndex.serializeTo(outputStream);
+    return byteLen;
+  }
 
+  public static int serializeBloomFilter(BloomFilter filter, OutputStream outputStream)
+      throws IOException {
+    int byteLen = 0;
     byte[] bytes = filter.serialize();
     byteLen += ReadWriteForEncodingUtils.writeUnsignedVarInt(bytes.length, outputStream);
     outputStream.write(bytes);
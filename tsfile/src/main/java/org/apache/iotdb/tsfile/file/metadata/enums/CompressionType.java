@@ -41,7 +41,13 @@ public enum CompressionType {
   PLA(".pla", (byte) 6),
 
   /** LZ4 */
-  LZ4(".lz4", (byte) 7);
+  LZ4(".lz4", (byte) 7),
+
+  /** ZSTD */
+  ZSTD(".zstd", (byte) 8),
+
+  /** LZ4 high compression, decompressed by the same LZ4 decompressor */
+  LZ4HC(".lz4hc", (byte) 9);
 
   private final String extensionName;
   private final byte index;
@@ -75,6 +81,10 @@ public enum CompressionType {
         return CompressionType.PLA;
       case 7:
         return CompressionType.LZ4;
+      case 8:
+        return CompressionType.ZSTD;
+      case 9:
+        return CompressionType.LZ4HC;
       default:
         throw new IllegalArgumentException("Invalid input: " + compressor);
     }
@@ -27,7 +27,11 @@ public enum TSEncoding {
   BITMAP((byte) 5),
   GORILLA_V1((byte) 6),
   REGULAR((byte) 7),
-  GORILLA((byte) 8);
+  GORILLA((byte) 8),
+  CHIMP((byte) 9),
+  ALP((byte) 10),
+  /** chosen per chunk when writing, never recorded in a chunk header */
+  AUTO((byte) 11);
 
   private final byte type;
 
@@ -65,6 +69,12 @@ public enum TSEncoding {
         return TSEncoding.REGULAR;
       case 8:
         return TSEncoding.GORILLA;
+      case 9:
+        return TSEncoding.CHIMP;
+      case 10:
+        return TSEncoding.ALP;
+      case 11:
+        return TSEncoding.AUTO;
       default:
         throw new IllegalArgumentException("Invalid input: " + encoding);
     }
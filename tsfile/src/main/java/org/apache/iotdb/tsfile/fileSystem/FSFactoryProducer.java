@@ -23,6 +23,7 @@ import org.apache.iotdb.tsfile.common.conf.TSFileDescriptor;
 import org.apache.iotdb.tsfile.fileSystem.fileInputFactory.FileInputFactory;
 import org.apache.iotdb.tsfile.fileSystem.fileInputFactory.HDFSInputFactory;
 import org.apache.iotdb.tsfile.fileSystem.fileInputFactory.LocalFSInputFactory;
+import org.apache.iotdb.tsfile.fileSystem.fileInputFactory.MMapInputFactory;
 import org.apache.iotdb.tsfile.fileSystem.fileOutputFactory.FileOutputFactory;
 import org.apache.iotdb.tsfile.fileSystem.fileOutputFactory.HDFSOutputFactory;
 import org.apache.iotdb.tsfile.fileSystem.fileOutputFactory.LocalFSOutputFactory;
@@ -37,6 +38,7 @@ public class FSFactoryProducer {
   private static FSFactory fsFactory;
   private static FileInputFactory fileInputFactory;
   private static FileOutputFactory fileOutputFactory;
+  private static FileInputFactory mmapInputFactory = new MMapInputFactory();
 
   static {
     if (fSType.equals(FSType.HDFS)) {
@@ -58,6 +60,19 @@ public class FSFactoryProducer {
     return fileInputFactory;
   }
 
+  /**
+   * Get the input factory for TsFiles that will never be appended again. Memory-mapped inputs are
+   * only handed out for local files, and only if enable_mmap_read is set, since a mapping does not
+   * follow the growth of a file being written.
+   */
+  public static FileInputFactory getSealedFileInputFactory() {
+    if (!fSType.equals(FSType.HDFS)
+        && TSFileDescriptor.getInstance().getConfig().isEnableMMapRead()) {
+      return mmapInputFactory;
+    }
+    return fileInputFactory;
+  }
+
   public static FileOutputFactory getFileOutputFactory() {
     return fileOutputFactory;
   }
@@ -0,0 +1,43 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.iotdb.tsfile.fileSystem.fileInputFactory;
+
+import org.apache.iotdb.tsfile.read.reader.MMapTsFileInput;
+import org.apache.iotdb.tsfile.read.reader.TsFileInput;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.nio.file.Paths;
+
+public class MMapInputFactory implements FileInputFactory {
+
+  private static final Logger logger = LoggerFactory.getLogger(MMapInputFactory.class);
+
+  @Override
+  public TsFileInput getTsFileInput(String filePath) {
+    try {
+      return new MMapTsFileInput(Paths.get(filePath));
+    } catch (IOException e) {
+      logger.error("Failed to get memory-mapped TsFile input of file: {}, ", filePath, e);
+      return null;
+    }
+  }
+}
@@ -28,6 +28,7 @@ import org.apache.iotdb.tsfile.file.header.ChunkGroupHeader;
 import org.apache.iotdb.tsfile.file.header.ChunkHeader;
 import org.apache.iotdb.tsfile.file.header.PageHeader;
 import org.apache.iotdb.tsfile.file.metadata.AlignedTimeSeriesMetadata;
+import org.apache.iotdb.tsfile.file.metadata.BloomFilterBlockIndex;
 import org.apache.iotdb.tsfile.file.metadata.ChunkGroupMetadata;
 import org.apache.iotdb.tsfile.file.metadata.ChunkMetadata;
 import org.apache.iotdb.tsfile.file.metadata.IChunkMetadata;
@@ -63,6 +64,7 @@ import java.io.Serializable;
 import java.nio.BufferOverflowException;
 import java.nio.ByteBuffer;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.Comparator;
 import java.util.HashMap;
@@ -283,6 +285,47 @@ public class TsFileSequenceReader implements AutoCloseable {
     return tsFileMetaData.getBloomFilter();
   }
 
+  /**
+   * get the index of the bloom filter block that holds the series of the device.
+   *
+   * @return -1 if the bloom filter of the file is not split into blocks
+   * @throws IOException io error
+   */
+  public int getBloomFilterBlockIndex(String device) throws IOException {
+    readFileMetadata();
+    BloomFilterBlockIndex blockIndex = tsFileMetaData.getBloomFilterBlockIndex();
+    return blockIndex == null ? -1 : blockIndex.getBlockIndex(device);
+  }
+
+  /**
+   * read one block of the bloom filter, this function does not modify the position of the file
+   * reader.
+   *
+   * @param blockIndex index of the block, or -1 for the bloom filter of the whole file
+   * @throws IOException io error
+   */
+  public BloomFilter readBloomFilterBlock(int blockIndex) throws IOException {
+    readFileMetadata();
+    BloomFilterBlockIndex bloomFilterBlockIndex = tsFileMetaData.getBloomFilterBlockIndex();
+    if (blockIndex < 0 || bloomFilterBlockIndex == null) {
+      return tsFileMetaData.getBloomFilter();
+    }
+    return TsFileMetadata.deserializeBloomFilter(
+        readData(
+            bloomFilterBlockIndex.getBlockOffset(blockIndex),
+            bloomFilterBlockIndex.getBlockSize(blockIndex)));
+  }
+
+  /**
+   * read the bloom filter that holds the series of the device, which is only one block of it if
+   * the bloom filter is split.
+   *
+   * @throws IOException io error
+   */
+  public BloomFilter readBloomFilter(String device) throws IOException {
+    return readBloomFilterBlock(getBloomFilterBlockIndex(device));
+  }
+
   /**
    * this function reads measurements and TimeseriesMetaDatas in given device Thread Safe
    *
@@ -1087,7 +1130,92 @@ public class TsFileSequenceReader implements AutoCloseable {
     ByteBuffer buffer =
         readChunk(
             metaData.getOffsetOfChunkHeader() + header.getSerializedSize(), header.getDataSize());
-    return new Chunk(header, buffer, metaData.getDeleteIntervalList(), metaData.getStatistics());
+    return newMemChunk(header, buffer, metaData);
+  }
+
+  /**
+   * read memory chunks of this file. The chunks are visited in the order of their offsets, and the
+   * chunks that fit in one read of at most maxCoalescedReadSize bytes are read together, so that
+   * they cost one read for all their headers and data plus one read for the data of the last one,
+   * instead of two reads for each chunk.
+   *
+   * @param metaDataList -given chunk meta data of this file
+   * @param maxCoalescedReadSize -the max number of bytes read at a time for several chunks
+   * @return -chunks in the order of metaDataList
+   */
+  public List<Chunk> readMemChunks(List<ChunkMetadata> metaDataList, int maxCoalescedReadSize)
+      throws IOException {
+    Chunk[] chunks = new Chunk[metaDataList.size()];
+    if (tsFileInput.isMemoryMapped()) {
+      // reading from a mapped file costs no system call
+      for (int i = 0; i < chunks.length; i++) {
+        chunks[i] = readMemChunk(metaDataList.get(i));
+      }
+      return Arrays.asList(chunks);
+    }
+
+    Integer[] order = new Integer[chunks.length];
+    for (int i = 0; i < order.length; i++) {
+      order[i] = i;
+    }
+    Arrays.sort(
+        order, Comparator.comparingLong(i -> metaDataList.get(i).getOffsetOfChunkHeader()));
+
+    int first = 0;
+    while (first < order.length) {
+      ChunkMetadata firstMetaData = metaDataList.get(order[first]);
+      long start = firstMetaData.getOffsetOfChunkHeader();
+      long end = start + ChunkHeader.getSerializedSize(firstMetaData.getMeasurementUid());
+      int last = first;
+      while (last + 1 < order.length) {
+        ChunkMetadata next = metaDataList.get(order[last + 1]);
+        long nextEnd =
+            next.getOffsetOfChunkHeader() + ChunkHeader.getSerializedSize(next.getMeasurementUid());
+        if (nextEnd - start > maxCoalescedReadSize) {
+          break;
+        }
+        end = nextEnd;
+        last++;
+      }
+
+      if (first == last) {
+        chunks[order[first]] = readMemChunk(firstMetaData);
+      } else {
+        // the headers of all chunks, and the data of all chunks but the last one
+        ByteBuffer buffer = readData(start, (int) (end - start));
+        for (int k = first; k <= last; k++) {
+          ChunkMetadata metaData = metaDataList.get(order[k]);
+          buffer.position((int) (metaData.getOffsetOfChunkHeader() - start));
+          ChunkHeader header =
+              ChunkHeader.deserializeFrom(
+                  buffer, ChunkHeader.getSerializedSize(metaData.getMeasurementUid()));
+          ByteBuffer data;
+          if (buffer.remaining() >= header.getDataSize()) {
+            data = ByteBuffer.allocate(header.getDataSize());
+            int limit = buffer.limit();
+            buffer.limit(buffer.position() + header.getDataSize());
+            data.put(buffer);
+            data.flip();
+            buffer.limit(limit);
+          } else {
+            data =
+                readChunk(
+                    metaData.getOffsetOfChunkHeader() + header.getSerializedSize(),
+                    header.getDataSize());
+          }
+          chunks[order[k]] = newMemChunk(header, data, metaData);
+        }
+      }
+      first = last + 1;
+    }
+    return Arrays.asList(chunks);
+  }
+
+  private Chunk newMemChunk(ChunkHeader header, ByteBuffer buffer, ChunkMetadata metaData) {
+    Chunk chunk =
+        new Chunk(header, buffer, metaData.getDeleteIntervalList(), metaData.getStatistics());
+    chunk.setPageValueIndex(metaData.getPageValueIndex());
+    return chunk;
   }
 
   /**
@@ -1119,11 +1247,22 @@ public class TsFileSequenceReader implements AutoCloseable {
     ByteBuffer buffer = readData(-1, header.getCompressedSize());
     if (header.getUncompressedSize() == 0 || type == CompressionType.UNCOMPRESSED) {
       return buffer;
-    } // FIXME if the buffer is not array-implemented.
+    }
     IUnCompressor unCompressor = IUnCompressor.getUnCompressor(type);
     ByteBuffer uncompressedBuffer = ByteBuffer.allocate(header.getUncompressedSize());
-    unCompressor.uncompress(
-        buffer.array(), buffer.position(), buffer.remaining(), uncompressedBuffer.array(), 0);
+    if (buffer.hasArray()) {
+      unCompressor.uncompress(
+          buffer.array(),
+          buffer.arrayOffset() + buffer.position(),
+          buffer.remaining(),
+          uncompressedBuffer.array(),
+          0);
+    } else {
+      // memory-mapped buffers have no backing array
+      byte[] compressed = new byte[buffer.remaining()];
+      buffer.get(compressed);
+      unCompressor.uncompress(compressed, 0, compressed.length, uncompressedBuffer.array(), 0);
+    }
     return uncompressedBuffer;
   }
 
@@ -1156,6 +1295,11 @@ public class TsFileSequenceReader implements AutoCloseable {
     return tsFileInput.size();
   }
 
+  /** whether the file content is read through a memory mapping */
+  public boolean isMemoryMapped() {
+    return tsFileInput.isMemoryMapped();
+  }
+
   /**
    * read data from tsFileInput, from the current position (if position = -1), or the given
    * position. <br>
@@ -1168,6 +1312,15 @@ public class TsFileSequenceReader implements AutoCloseable {
    * @return data that been read.
    */
   protected ByteBuffer readData(long position, int totalSize) throws IOException {
+    if (tsFileInput.isMemoryMapped()) {
+      // hand out a view of the mapped file instead of copying it into the heap
+      if (position < 0) {
+        ByteBuffer buffer = tsFileInput.slice(tsFileInput.position(), totalSize);
+        tsFileInput.position(tsFileInput.position() + totalSize);
+        return buffer;
+      }
+      return tsFileInput.slice(position, totalSize);
+    }
     int allocateSize = Math.min(MAX_READ_BUFFER_SIZE, totalSize);
     int allocateNum = (int) Math.ceil((double) totalSize / allocateSize);
     ByteBuffer buffer = ByteBuffer.allocate(totalSize);
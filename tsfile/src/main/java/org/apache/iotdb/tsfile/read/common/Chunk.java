@@ -20,6 +20,7 @@ package org.apache.iotdb.tsfile.read.common;
 
 import org.apache.iotdb.tsfile.file.MetaMarker;
 import org.apache.iotdb.tsfile.file.header.ChunkHeader;
+import org.apache.iotdb.tsfile.file.metadata.PageValueIndex;
 import org.apache.iotdb.tsfile.file.metadata.statistics.Statistics;
 import org.apache.iotdb.tsfile.utils.PublicBAOS;
 import org.apache.iotdb.tsfile.utils.ReadWriteForEncodingUtils;
@@ -37,6 +38,8 @@ public class Chunk {
   private boolean isFromOldFile = false;
   /** A list of deleted intervals. */
   private List<TimeRange> deleteIntervalList;
+  /** value bloom filters of the pages, null if the chunk has none */
+  private PageValueIndex pageValueIndex;
 
   private long ramSize;
 
@@ -67,7 +70,33 @@ public class Chunk {
     this.deleteIntervalList = list;
   }
 
+  public PageValueIndex getPageValueIndex() {
+    return pageValueIndex;
+  }
+
+  public void setPageValueIndex(PageValueIndex pageValueIndex) {
+    this.pageValueIndex = pageValueIndex;
+  }
+
+  /**
+   * the pages of a chunk can be appended to this chunk only if they are decoded the same way, which
+   * may not hold for the chunks of an AUTO encoded series
+   */
+  public boolean canMergeByAppendPage(Chunk chunk) {
+    return chunkHeader.getDataType() == chunk.chunkHeader.getDataType()
+        && chunkHeader.getEncodingType() == chunk.chunkHeader.getEncodingType()
+        && chunkHeader.getCompressionType() == chunk.chunkHeader.getCompressionType();
+  }
+
   public void mergeChunkByAppendPage(Chunk chunk) throws IOException {
+    if (!canMergeByAppendPage(chunk)) {
+      throw new IOException(
+          String.format(
+              "Cannot append the pages of a %s chunk to a %s chunk",
+              chunk.chunkHeader, chunkHeader));
+    }
+    chunkData = toHeapBuffer(chunkData);
+    chunk.chunkData = toHeapBuffer(chunk.chunkData);
     int dataSize = 0;
     // from where the page data of the merged chunk starts, if -1, it means the merged chunk has
     // more than one page
@@ -145,6 +174,20 @@ public class Chunk {
       newChunkData.put(b, offset1, b.length - offset1);
     }
     chunkData = newChunkData;
+    pageValueIndex = PageValueIndex.concat(pageValueIndex, chunk.pageValueIndex);
+  }
+
+  /** copy the data into an array-backed buffer if it is a view of a memory-mapped file */
+  private static ByteBuffer toHeapBuffer(ByteBuffer data) {
+    if (data.hasArray()) {
+      return data;
+    }
+    ByteBuffer source = data.duplicate();
+    source.position(0);
+    ByteBuffer heapBuffer = ByteBuffer.allocate(source.remaining());
+    heapBuffer.put(source);
+    heapBuffer.position(data.position());
+    return heapBuffer;
   }
 
   public Statistics getChunkStatistic() {
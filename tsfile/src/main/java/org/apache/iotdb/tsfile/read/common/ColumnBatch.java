@@ -0,0 +1,169 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.iotdb.tsfile.read.common;
+
+import org.apache.iotdb.tsfile.encoding.decoder.Decoder;
+import org.apache.iotdb.tsfile.exception.write.UnSupportedDataTypeException;
+import org.apache.iotdb.tsfile.file.metadata.enums.TSDataType;
+import org.apache.iotdb.tsfile.utils.Binary;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+/**
+ * A column-oriented batch of decoded points. Timestamps and values are kept in primitive arrays
+ * that are filled through the bulk read methods of {@link Decoder}, so that page readers can
+ * evaluate deletions and filters in plain loops over the arrays instead of decoding point by point.
+ */
+public class ColumnBatch {
+
+  private static final int DEFAULT_CAPACITY = 1024;
+
+  private final TSDataType dataType;
+
+  private long[] timestamps;
+  private boolean[] booleans;
+  private int[] ints;
+  private long[] longs;
+  private float[] floats;
+  private double[] doubles;
+  private Binary[] binaries;
+
+  private int size;
+
+  public ColumnBatch(TSDataType dataType) {
+    this.dataType = dataType;
+  }
+
+  /**
+   * Decode all remaining timestamps in the time buffer, then the same number of values from the
+   * value buffer.
+   *
+   * @param expectedSize number of points in the page if known, otherwise a non-positive number
+   */
+  public void decode(
+      Decoder timeDecoder,
+      ByteBuffer timeBuffer,
+      Decoder valueDecoder,
+      ByteBuffer valueBuffer,
+      int expectedSize)
+      throws IOException {
+    decodeTimestamps(timeDecoder, timeBuffer, expectedSize);
+    decodeValues(valueDecoder, valueBuffer, size);
+  }
+
+  /**
+   * Decode all remaining timestamps in the buffer.
+   *
+   * @param expectedSize number of timestamps in the buffer if known, otherwise a non-positive
+   *     number
+   */
+  public void decodeTimestamps(Decoder timeDecoder, ByteBuffer timeBuffer, int expectedSize)
+      throws IOException {
+    timestamps = new long[expectedSize > 0 ? expectedSize : DEFAULT_CAPACITY];
+    size = 0;
+    int read;
+    while ((read = timeDecoder.readLongs(timeBuffer, timestamps, size, timestamps.length - size))
+        > 0) {
+      size += read;
+      if (size == timestamps.length) {
+        if (!timeDecoder.hasNext(timeBuffer)) {
+          break;
+        }
+        timestamps = Arrays.copyOf(timestamps, timestamps.length << 1);
+      }
+    }
+  }
+
+  /** Decode {@code count} values from the buffer. */
+  public void decodeValues(Decoder valueDecoder, ByteBuffer valueBuffer, int count)
+      throws IOException {
+    int read;
+    switch (dataType) {
+      case BOOLEAN:
+        booleans = new boolean[count];
+        read = valueDecoder.readBooleans(valueBuffer, booleans, 0, count);
+        break;
+      case INT32:
+        ints = new int[count];
+        read = valueDecoder.readInts(valueBuffer, ints, 0, count);
+        break;
+      case INT64:
+        longs = new long[count];
+        read = valueDecoder.readLongs(valueBuffer, longs, 0, count);
+        break;
+      case FLOAT:
+        floats = new float[count];
+        read = valueDecoder.readFloats(valueBuffer, floats, 0, count);
+        break;
+      case DOUBLE:
+        doubles = new double[count];
+        read = valueDecoder.readDoubles(valueBuffer, doubles, 0, count);
+        break;
+      case TEXT:
+        binaries = new Binary[count];
+        read = valueDecoder.readBinaries(valueBuffer, binaries, 0, count);
+        break;
+      default:
+        throw new UnSupportedDataTypeException(String.valueOf(dataType));
+    }
+    if (read != count) {
+      throw new IOException(
+          String.format("Expect %d values in the page, but only %d are decoded", count, read));
+    }
+  }
+
+  public TSDataType getDataType() {
+    return dataType;
+  }
+
+  /** @return number of decoded timestamps */
+  public int size() {
+    return size;
+  }
+
+  public long[] getTimestamps() {
+    return timestamps;
+  }
+
+  public boolean[] getBooleans() {
+    return booleans;
+  }
+
+  public int[] getInts() {
+    return ints;
+  }
+
+  public long[] getLongs() {
+    return longs;
+  }
+
+  public float[] getFloats() {
+    return floats;
+  }
+
+  public double[] getDoubles() {
+    return doubles;
+  }
+
+  public Binary[] getBinaries() {
+    return binaries;
+  }
+}
@@ -64,11 +64,14 @@ public class CachedChunkLoaderImpl implements IChunkLoader {
   public Chunk loadChunk(ChunkMetadata chunkMetaData) throws IOException {
     chunkMetaData.setFilePath(reader.getFileName());
     Chunk chunk = chunkCache.get(chunkMetaData);
-    return new Chunk(
-        chunk.getHeader(),
-        chunk.getData().duplicate(),
-        chunkMetaData.getDeleteIntervalList(),
-        chunkMetaData.getStatistics());
+    Chunk copy =
+        new Chunk(
+            chunk.getHeader(),
+            chunk.getData().duplicate(),
+            chunkMetaData.getDeleteIntervalList(),
+            chunkMetaData.getStatistics());
+    copy.setPageValueIndex(chunkMetaData.getPageValueIndex());
+    return copy;
   }
 
   @Override
@@ -79,14 +82,6 @@ public class CachedChunkLoaderImpl implements IChunkLoader {
   @Override
   public IChunkReader getChunkReader(IChunkMetadata chunkMetaData, Filter timeFilter)
       throws IOException {
-    chunkMetaData.setFilePath(reader.getFileName());
-    Chunk chunk = chunkCache.get((ChunkMetadata) chunkMetaData);
-    return new ChunkReader(
-        new Chunk(
-            chunk.getHeader(),
-            chunk.getData().duplicate(),
-            chunkMetaData.getDeleteIntervalList(),
-            chunkMetaData.getStatistics()),
-        timeFilter);
+    return new ChunkReader(loadChunk((ChunkMetadata) chunkMetaData), timeFilter);
   }
 }
@@ -20,6 +20,7 @@ package org.apache.iotdb.tsfile.read.filter.basic;
 
 import org.apache.iotdb.tsfile.file.metadata.statistics.Statistics;
 import org.apache.iotdb.tsfile.read.filter.factory.FilterSerializeId;
+import org.apache.iotdb.tsfile.utils.ValueBloomFilter;
 
 import java.io.DataOutputStream;
 import java.nio.ByteBuffer;
@@ -34,6 +35,16 @@ public interface Filter {
    */
   boolean satisfy(Statistics statistics);
 
+  /**
+   * To examine whether a page may have a point satisfying the filter, according to the bloom
+   * filter over the values of the page.
+   *
+   * @param bloomFilter bloom filter over the values of a page
+   */
+  default boolean satisfy(ValueBloomFilter bloomFilter) {
+    return true;
+  }
+
   /**
    * To examine whether the single point(with time and value) is satisfied with the filter.
    *
@@ -22,6 +22,7 @@ import org.apache.iotdb.tsfile.file.metadata.statistics.Statistics;
 import org.apache.iotdb.tsfile.read.filter.basic.BinaryFilter;
 import org.apache.iotdb.tsfile.read.filter.basic.Filter;
 import org.apache.iotdb.tsfile.read.filter.factory.FilterSerializeId;
+import org.apache.iotdb.tsfile.utils.ValueBloomFilter;
 
 /** Both the left and right operators of AndExpression must satisfy the condition. */
 public class AndFilter extends BinaryFilter {
@@ -39,6 +40,11 @@ public class AndFilter extends BinaryFilter {
     return left.satisfy(statistics) && right.satisfy(statistics);
   }
 
+  @Override
+  public boolean satisfy(ValueBloomFilter bloomFilter) {
+    return left.satisfy(bloomFilter) && right.satisfy(bloomFilter);
+  }
+
   @Override
   public boolean satisfy(long time, Object value) {
     return left.satisfy(time, value) && right.satisfy(time, value);
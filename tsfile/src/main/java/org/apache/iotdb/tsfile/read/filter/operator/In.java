@@ -23,6 +23,7 @@ import org.apache.iotdb.tsfile.read.filter.basic.Filter;
 import org.apache.iotdb.tsfile.read.filter.factory.FilterSerializeId;
 import org.apache.iotdb.tsfile.read.filter.factory.FilterType;
 import org.apache.iotdb.tsfile.utils.ReadWriteIOUtils;
+import org.apache.iotdb.tsfile.utils.ValueBloomFilter;
 
 import java.io.DataOutputStream;
 import java.io.IOException;
@@ -61,6 +62,19 @@ public class In<T extends Comparable<T>> implements Filter {
     return true;
   }
 
+  @Override
+  public boolean satisfy(ValueBloomFilter bloomFilter) {
+    if (filterType == FilterType.TIME_FILTER || not) {
+      return true;
+    }
+    for (T value : values) {
+      if (bloomFilter.mightContain(value)) {
+        return true;
+      }
+    }
+    return false;
+  }
+
   @Override
   public boolean satisfy(long time, Object value) {
     Object v = filterType == FilterType.TIME_FILTER ? time : value;
@@ -22,6 +22,7 @@ import org.apache.iotdb.tsfile.file.metadata.statistics.Statistics;
 import org.apache.iotdb.tsfile.read.filter.basic.BinaryFilter;
 import org.apache.iotdb.tsfile.read.filter.basic.Filter;
 import org.apache.iotdb.tsfile.read.filter.factory.FilterSerializeId;
+import org.apache.iotdb.tsfile.utils.ValueBloomFilter;
 
 import java.io.Serializable;
 
@@ -51,6 +52,11 @@ public class OrFilter extends BinaryFilter implements Serializable {
     return left.satisfy(statistics) || right.satisfy(statistics);
   }
 
+  @Override
+  public boolean satisfy(ValueBloomFilter bloomFilter) {
+    return left.satisfy(bloomFilter) || right.satisfy(bloomFilter);
+  }
+
   @Override
   public boolean satisfy(long time, Object value) {
     return left.satisfy(time, value) || right.satisfy(time, value);
@@ -0,0 +1,263 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.iotdb.tsfile.read.reader;
+
+import org.apache.iotdb.tsfile.utils.ReadWriteForEncodingUtils;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileChannel.MapMode;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * A TsFileInput that maps a sealed TsFile into memory. Reads are served from the mapped regions
+ * and {@link #slice(long, int)} hands out views of them instead of heap copies. The mapping is
+ * taken once when the input is opened, so this input must not be used for files that are still
+ * being written.
+ */
+public class MMapTsFileInput implements TsFileInput {
+
+  private static final Logger logger = LoggerFactory.getLogger(MMapTsFileInput.class);
+
+  /** a single MappedByteBuffer can address at most Integer.MAX_VALUE bytes */
+  private static final long MAX_REGION_SIZE = Integer.MAX_VALUE;
+
+  /** total bytes mapped by all opened MMapTsFileInputs */
+  private static final AtomicLong TOTAL_MAPPED_BYTES = new AtomicLong(0);
+
+  private final FileChannel channel;
+  private final String filePath;
+  private final long size;
+  private volatile MappedByteBuffer[] regions;
+  private long position;
+
+  public MMapTsFileInput(Path file) throws IOException {
+    channel = FileChannel.open(file, StandardOpenOption.READ);
+    filePath = file.toString();
+    try {
+      size = channel.size();
+      int regionNum = (int) ((size + MAX_REGION_SIZE - 1) / MAX_REGION_SIZE);
+      regions = new MappedByteBuffer[regionNum];
+      for (int i = 0; i < regionNum; i++) {
+        long regionStart = i * MAX_REGION_SIZE;
+        regions[i] =
+            channel.map(
+                MapMode.READ_ONLY, regionStart, Math.min(MAX_REGION_SIZE, size - regionStart));
+      }
+    } catch (IOException e) {
+      logger.error("Error happened while mapping {}", filePath);
+      channel.close();
+      throw e;
+    }
+    TOTAL_MAPPED_BYTES.addAndGet(size);
+  }
+
+  public static long getTotalMappedBytes() {
+    return TOTAL_MAPPED_BYTES.get();
+  }
+
+  @Override
+  public long size() {
+    return size;
+  }
+
+  @Override
+  public synchronized long position() {
+    return position;
+  }
+
+  @Override
+  public synchronized TsFileInput position(long newPosition) {
+    if (newPosition < 0) {
+      throw new IllegalArgumentException("Negative position: " + newPosition);
+    }
+    position = newPosition;
+    return this;
+  }
+
+  @Override
+  public synchronized int read(ByteBuffer dst) throws IOException {
+    int readSize = read(dst, position);
+    if (readSize > 0) {
+      position += readSize;
+    }
+    return readSize;
+  }
+
+  @Override
+  public int read(ByteBuffer dst, long position) throws IOException {
+    if (position < 0) {
+      throw new IllegalArgumentException("Negative position: " + position);
+    }
+    MappedByteBuffer[] currentRegions = getRegions();
+    if (position >= size) {
+      return -1;
+    }
+    int readSize = (int) Math.min(dst.remaining(), size - position);
+    int remaining = readSize;
+    while (remaining > 0) {
+      ByteBuffer region = currentRegions[(int) (position / MAX_REGION_SIZE)].duplicate();
+      int offsetInRegion = (int) (position % MAX_REGION_SIZE);
+      int length = Math.min(remaining, region.capacity() - offsetInRegion);
+      region.position(offsetInRegion);
+      region.limit(offsetInRegion + length);
+      dst.put(region);
+      position += length;
+      remaining -= length;
+    }
+    return readSize;
+  }
+
+  @Override
+  public synchronized int read() throws IOException {
+    if (position >= size) {
+      return -1;
+    }
+    int b =
+        getRegions()[(int) (position / MAX_REGION_SIZE)].get((int) (position % MAX_REGION_SIZE));
+    position++;
+    return b & 0xFF;
+  }
+
+  @Override
+  public synchronized int read(byte[] b, int off, int len) throws IOException {
+    int readSize = read(ByteBuffer.wrap(b, off, len), position);
+    if (readSize > 0) {
+      position += readSize;
+    }
+    return readSize;
+  }
+
+  @Override
+  public FileChannel wrapAsFileChannel() {
+    return channel;
+  }
+
+  @Override
+  public InputStream wrapAsInputStream() {
+    return new InputStream() {
+      @Override
+      public int read() throws IOException {
+        return MMapTsFileInput.this.read();
+      }
+
+      @Override
+      public int read(byte[] b, int off, int len) throws IOException {
+        return MMapTsFileInput.this.read(b, off, len);
+      }
+    };
+  }
+
+  /**
+   * Drops the references to the mapped regions. The regions are not unmapped forcibly, because
+   * slices handed out by {@link #slice(long, int)} may still be referenced by caches; the memory is
+   * released when the last slice becomes unreachable.
+   */
+  @Override
+  public synchronized void close() throws IOException {
+    if (regions == null) {
+      return;
+    }
+    regions = null;
+    TOTAL_MAPPED_BYTES.addAndGet(-size);
+    try {
+      channel.close();
+    } catch (IOException e) {
+      logger.error("Error happened while closing {}", filePath);
+      throw e;
+    }
+  }
+
+  @Override
+  public synchronized int readInt() throws IOException {
+    ByteBuffer buffer = ByteBuffer.allocate(Integer.BYTES);
+    if (read(buffer, position) != Integer.BYTES) {
+      throw new IOException("reach the end of the file " + filePath);
+    }
+    position += Integer.BYTES;
+    buffer.flip();
+    return buffer.getInt();
+  }
+
+  @Override
+  public String readVarIntString(long offset) throws IOException {
+    ByteBuffer buffer = slice(offset, (int) Math.min(Integer.BYTES + 1, size - offset));
+    int strLength = ReadWriteForEncodingUtils.readVarInt(buffer);
+    if (strLength < 0) {
+      return null;
+    } else if (strLength == 0) {
+      return "";
+    }
+    byte[] bytes = new byte[strLength];
+    slice(offset + ReadWriteForEncodingUtils.varIntSize(strLength), strLength).get(bytes);
+    return new String(bytes, 0, strLength);
+  }
+
+  @Override
+  public String getFilePath() {
+    return filePath;
+  }
+
+  @Override
+  public boolean isMemoryMapped() {
+    return true;
+  }
+
+  @Override
+  public ByteBuffer slice(long position, int length) throws IOException {
+    if (position < 0 || length < 0 || position + length > size) {
+      throw new IOException(
+          String.format(
+              "reach the end of the data. Size of data that want to read: %s,"
+                  + "position: %s, file size: %s",
+              length, position, size));
+    }
+    MappedByteBuffer[] currentRegions = getRegions();
+    int regionIndex = (int) (position / MAX_REGION_SIZE);
+    int offsetInRegion = (int) (position % MAX_REGION_SIZE);
+    ByteBuffer region = currentRegions[regionIndex].duplicate();
+    if (offsetInRegion + length > region.capacity()) {
+      // the data crosses the border of two regions, which can only be served by a copy
+      ByteBuffer buffer = ByteBuffer.allocate(length);
+      read(buffer, position);
+      buffer.flip();
+      return buffer;
+    }
+    region.position(offsetInRegion);
+    region.limit(offsetInRegion + length);
+    return region.slice();
+  }
+
+  private MappedByteBuffer[] getRegions() throws ClosedChannelException {
+    MappedByteBuffer[] currentRegions = regions;
+    if (currentRegions == null) {
+      throw new ClosedChannelException();
+    }
+    return currentRegions;
+  }
+}
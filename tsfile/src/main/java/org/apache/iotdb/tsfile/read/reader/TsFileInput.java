@@ -129,4 +129,25 @@ public interface TsFileInput {
   String readVarIntString(long offset) throws IOException;
 
   String getFilePath();
+
+  /**
+   * Whether this input is backed by a memory mapping, i.e., whether {@link #slice(long, int)} can
+   * hand out views of the file content without copying.
+   */
+  default boolean isMemoryMapped() {
+    return false;
+  }
+
+  /**
+   * Returns a read-only view of {@code length} bytes of this input starting at the given position.
+   * The view shares its content with the underlying mapping, so it stays valid after this input is
+   * closed and the mapping is released once no view references it any more.
+   *
+   * @param position the position at which the view begins; must be non-negative
+   * @param length the number of bytes in the view
+   * @throws UnsupportedOperationException if this input is not memory mapped
+   */
+  default ByteBuffer slice(long position, int length) throws IOException {
+    throw new UnsupportedOperationException();
+  }
 }
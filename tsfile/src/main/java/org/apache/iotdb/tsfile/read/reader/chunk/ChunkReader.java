@@ -25,6 +25,8 @@ import org.apache.iotdb.tsfile.encoding.decoder.Decoder;
 import org.apache.iotdb.tsfile.file.MetaMarker;
 import org.apache.iotdb.tsfile.file.header.ChunkHeader;
 import org.apache.iotdb.tsfile.file.header.PageHeader;
+import org.apache.iotdb.tsfile.file.metadata.PageValueIndex;
+import org.apache.iotdb.tsfile.file.metadata.enums.CompressionType;
 import org.apache.iotdb.tsfile.file.metadata.enums.TSDataType;
 import org.apache.iotdb.tsfile.file.metadata.enums.TSEncoding;
 import org.apache.iotdb.tsfile.file.metadata.statistics.Statistics;
@@ -35,6 +37,7 @@ import org.apache.iotdb.tsfile.read.filter.basic.Filter;
 import org.apache.iotdb.tsfile.read.reader.IChunkReader;
 import org.apache.iotdb.tsfile.read.reader.IPageReader;
 import org.apache.iotdb.tsfile.read.reader.page.PageReader;
+import org.apache.iotdb.tsfile.utils.ValueBloomFilter;
 import org.apache.iotdb.tsfile.v2.file.header.PageHeaderV2;
 import org.apache.iotdb.tsfile.v2.read.reader.page.PageReaderV2;
 
@@ -60,6 +63,9 @@ public class ChunkReader implements IChunkReader {
   /** A list of deleted intervals. */
   private List<TimeRange> deleteIntervalList;
 
+  /** value bloom filters of the pages, null if the chunk has none */
+  private PageValueIndex pageValueIndex;
+
   /**
    * constructor of ChunkReader.
    *
@@ -70,6 +76,7 @@ public class ChunkReader implements IChunkReader {
     this.filter = filter;
     this.chunkDataBuffer = chunk.getData();
     this.deleteIntervalList = chunk.getDeleteIntervalList();
+    this.pageValueIndex = chunk.getPageValueIndex();
     chunkHeader = chunk.getHeader();
     this.unCompressor = IUnCompressor.getUnCompressor(chunkHeader.getCompressionType());
     if (chunk.isFromOldFile()) {
@@ -81,6 +88,7 @@ public class ChunkReader implements IChunkReader {
 
   private void initAllPageReaders(Statistics chunkStatistic) throws IOException {
     // construct next satisfied page header
+    int pageIndex = 0;
     while (chunkDataBuffer.remaining() > 0) {
       // deserialize a PageHeader from chunkDataBuffer
       PageHeader pageHeader;
@@ -89,9 +97,15 @@ public class ChunkReader implements IChunkReader {
       } else {
         pageHeader = PageHeader.deserializeFrom(chunkDataBuffer, chunkHeader.getDataType());
       }
+      ValueBloomFilter bloomFilter =
+          pageValueIndex == null ? null : pageValueIndex.getPageFilter(pageIndex);
+      pageIndex++;
       // if the current page satisfies
-      if (pageSatisfied(pageHeader)) {
-        pageReaderList.add(constructPageReaderForNextPage(pageHeader));
+      if (pageSatisfied(pageHeader)
+          && (filter == null || bloomFilter == null || filter.satisfy(bloomFilter))) {
+        PageReader pageReader = constructPageReaderForNextPage(pageHeader);
+        pageReader.setValueBloomFilter(bloomFilter);
+        pageReaderList.add(pageReader);
       } else {
         skipBytesInStreamByLength(pageHeader.getCompressedSize());
       }
@@ -138,7 +152,6 @@ public class ChunkReader implements IChunkReader {
 
   private PageReader constructPageReaderForNextPage(PageHeader pageHeader) throws IOException {
     int compressedPageBodyLength = pageHeader.getCompressedSize();
-    byte[] compressedPageBody = new byte[compressedPageBodyLength];
 
     // doesn't has a complete page body
     if (compressedPageBodyLength > chunkDataBuffer.remaining()) {
@@ -149,9 +162,22 @@ public class ChunkReader implements IChunkReader {
               + chunkDataBuffer.remaining());
     }
 
-    chunkDataBuffer.get(compressedPageBody);
     Decoder valueDecoder =
         Decoder.getDecoderByType(chunkHeader.getEncodingType(), chunkHeader.getDataType());
+    if (chunkHeader.getCompressionType() == CompressionType.UNCOMPRESSED) {
+      // decode the page in place, which avoids copying pages out of a memory-mapped chunk
+      ByteBuffer pageData = chunkDataBuffer.slice();
+      pageData.limit(compressedPageBodyLength);
+      skipBytesInStreamByLength(compressedPageBodyLength);
+      PageReader reader =
+          new PageReader(
+              pageHeader, pageData, chunkHeader.getDataType(), valueDecoder, timeDecoder, filter);
+      reader.setDeleteIntervalList(deleteIntervalList);
+      return reader;
+    }
+
+    byte[] compressedPageBody = new byte[compressedPageBodyLength];
+    chunkDataBuffer.get(compressedPageBody);
     byte[] uncompressedPageData = new byte[pageHeader.getUncompressedSize()];
     try {
       unCompressor.uncompress(
@@ -25,12 +25,14 @@ import org.apache.iotdb.tsfile.file.metadata.enums.TSDataType;
 import org.apache.iotdb.tsfile.file.metadata.statistics.Statistics;
 import org.apache.iotdb.tsfile.read.common.BatchData;
 import org.apache.iotdb.tsfile.read.common.BatchDataFactory;
+import org.apache.iotdb.tsfile.read.common.ColumnBatch;
 import org.apache.iotdb.tsfile.read.common.TimeRange;
 import org.apache.iotdb.tsfile.read.filter.basic.Filter;
 import org.apache.iotdb.tsfile.read.filter.operator.AndFilter;
 import org.apache.iotdb.tsfile.read.reader.IPageReader;
 import org.apache.iotdb.tsfile.utils.Binary;
 import org.apache.iotdb.tsfile.utils.ReadWriteForEncodingUtils;
+import org.apache.iotdb.tsfile.utils.ValueBloomFilter;
 
 import java.io.IOException;
 import java.nio.ByteBuffer;
@@ -56,6 +58,9 @@ public class PageReader implements IPageReader {
 
   protected Filter filter;
 
+  /** bloom filter over the values of this page, null if the page has none */
+  private ValueBloomFilter valueBloomFilter;
+
   /** A list of deleted intervals. */
   private List<TimeRange> deleteIntervalList;
 
@@ -105,54 +110,82 @@ public class PageReader implements IPageReader {
   @Override
   public BatchData getAllSatisfiedPageData(boolean ascending) throws IOException {
     BatchData pageData = BatchDataFactory.createBatchData(dataType, ascending, false);
-    if (filter == null || filter.satisfy(getStatistics())) {
-      while (timeDecoder.hasNext(timeBuffer)) {
-        long timestamp = timeDecoder.readLong(timeBuffer);
-        switch (dataType) {
-          case BOOLEAN:
-            boolean aBoolean = valueDecoder.readBoolean(valueBuffer);
-            if (!isDeleted(timestamp) && (filter == null || filter.satisfy(timestamp, aBoolean))) {
-              pageData.putBoolean(timestamp, aBoolean);
+    if (filter == null
+        || (filter.satisfy(getStatistics())
+            && (valueBloomFilter == null || filter.satisfy(valueBloomFilter)))) {
+      ColumnBatch columns = new ColumnBatch(dataType);
+      columns.decode(timeDecoder, timeBuffer, valueDecoder, valueBuffer, getPointCount());
+      long[] timestamps = columns.getTimestamps();
+      int size = columns.size();
+      switch (dataType) {
+        case BOOLEAN:
+          boolean[] booleans = columns.getBooleans();
+          for (int i = 0; i < size; i++) {
+            if (!isDeleted(timestamps[i])
+                && (filter == null || filter.satisfy(timestamps[i], booleans[i]))) {
+              pageData.putBoolean(timestamps[i], booleans[i]);
             }
-            break;
-          case INT32:
-            int anInt = valueDecoder.readInt(valueBuffer);
-            if (!isDeleted(timestamp) && (filter == null || filter.satisfy(timestamp, anInt))) {
-              pageData.putInt(timestamp, anInt);
+          }
+          break;
+        case INT32:
+          int[] ints = columns.getInts();
+          for (int i = 0; i < size; i++) {
+            if (!isDeleted(timestamps[i])
+                && (filter == null || filter.satisfy(timestamps[i], ints[i]))) {
+              pageData.putInt(timestamps[i], ints[i]);
             }
-            break;
-          case INT64:
-            long aLong = valueDecoder.readLong(valueBuffer);
-            if (!isDeleted(timestamp) && (filter == null || filter.satisfy(timestamp, aLong))) {
-              pageData.putLong(timestamp, aLong);
+          }
+          break;
+        case INT64:
+          long[] longs = columns.getLongs();
+          for (int i = 0; i < size; i++) {
+            if (!isDeleted(timestamps[i])
+                && (filter == null || filter.satisfy(timestamps[i], longs[i]))) {
+              pageData.putLong(timestamps[i], longs[i]);
             }
-            break;
-          case FLOAT:
-            float aFloat = valueDecoder.readFloat(valueBuffer);
-            if (!isDeleted(timestamp) && (filter == null || filter.satisfy(timestamp, aFloat))) {
-              pageData.putFloat(timestamp, aFloat);
+          }
+          break;
+        case FLOAT:
+          float[] floats = columns.getFloats();
+          for (int i = 0; i < size; i++) {
+            if (!isDeleted(timestamps[i])
+                && (filter == null || filter.satisfy(timestamps[i], floats[i]))) {
+              pageData.putFloat(timestamps[i], floats[i]);
             }
-            break;
-          case DOUBLE:
-            double aDouble = valueDecoder.readDouble(valueBuffer);
-            if (!isDeleted(timestamp) && (filter == null || filter.satisfy(timestamp, aDouble))) {
-              pageData.putDouble(timestamp, aDouble);
+          }
+          break;
+        case DOUBLE:
+          double[] doubles = columns.getDoubles();
+          for (int i = 0; i < size; i++) {
+            if (!isDeleted(timestamps[i])
+                && (filter == null || filter.satisfy(timestamps[i], doubles[i]))) {
+              pageData.putDouble(timestamps[i], doubles[i]);
             }
-            break;
-          case TEXT:
-            Binary aBinary = valueDecoder.readBinary(valueBuffer);
-            if (!isDeleted(timestamp) && (filter == null || filter.satisfy(timestamp, aBinary))) {
-              pageData.putBinary(timestamp, aBinary);
+          }
+          break;
+        case TEXT:
+          Binary[] binaries = columns.getBinaries();
+          for (int i = 0; i < size; i++) {
+            if (!isDeleted(timestamps[i])
+                && (filter == null || filter.satisfy(timestamps[i], binaries[i]))) {
+              pageData.putBinary(timestamps[i], binaries[i]);
             }
-            break;
-          default:
-            throw new UnSupportedDataTypeException(String.valueOf(dataType));
-        }
+          }
+          break;
+        default:
+          throw new UnSupportedDataTypeException(String.valueOf(dataType));
       }
     }
     return pageData.flip();
   }
 
+  /** @return number of points in this page, or -1 if the page header is absent */
+  private int getPointCount() {
+    return pageHeader == null || pageHeader.getStatistics() == null
+        ? -1
+        : (int) pageHeader.getStatistics().getCount();
+  }
+
   @Override
   public Statistics getStatistics() {
     return pageHeader.getStatistics();
@@ -167,6 +200,11 @@ public class PageReader implements IPageReader {
     }
   }
 
+  /** the bloom filter is checked against the filter before the page is decoded */
+  public void setValueBloomFilter(ValueBloomFilter valueBloomFilter) {
+    this.valueBloomFilter = valueBloomFilter;
+  }
+
   public void setDeleteIntervalList(List<TimeRange> list) {
     this.deleteIntervalList = list;
   }
@@ -55,10 +55,7 @@ public class TimePageReader {
 
   public long[] nexTimeBatch() throws IOException {
     long[] timeBatch = new long[(int) pageHeader.getStatistics().getCount()];
-    int index = 0;
-    while (timeDecoder.hasNext(timeBuffer)) {
-      timeBatch[index++] = timeDecoder.readLong(timeBuffer);
-    }
+    timeDecoder.readLongs(timeBuffer, timeBatch, 0, timeBatch.length);
     return timeBatch;
   }
 
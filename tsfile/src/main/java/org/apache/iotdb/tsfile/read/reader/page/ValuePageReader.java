@@ -25,12 +25,14 @@ import org.apache.iotdb.tsfile.file.metadata.enums.TSDataType;
 import org.apache.iotdb.tsfile.file.metadata.statistics.Statistics;
 import org.apache.iotdb.tsfile.read.common.BatchData;
 import org.apache.iotdb.tsfile.read.common.BatchDataFactory;
+import org.apache.iotdb.tsfile.read.common.ColumnBatch;
 import org.apache.iotdb.tsfile.read.common.TimeRange;
 import org.apache.iotdb.tsfile.read.filter.basic.Filter;
 import org.apache.iotdb.tsfile.utils.Binary;
 import org.apache.iotdb.tsfile.utils.ReadWriteIOUtils;
 import org.apache.iotdb.tsfile.utils.TsPrimitiveType;
 
+import java.io.IOException;
 import java.nio.ByteBuffer;
 import java.util.List;
 
@@ -86,8 +88,12 @@ public class ValuePageReader {
    * return a BatchData with the corresponding timeBatch, the BatchData's dataType is same as this
    * sub sensor
    */
-  public BatchData nextBatch(long[] timeBatch, boolean ascending, Filter filter) {
+  public BatchData nextBatch(long[] timeBatch, boolean ascending, Filter filter)
+      throws IOException {
     BatchData pageData = BatchDataFactory.createBatchData(dataType, ascending, false);
+    ColumnBatch columns = decodeNotNullValues();
+    // index of the next not null value in columns
+    int valueIndex = 0;
     for (int i = 0; i < timeBatch.length; i++) {
       if (((bitmap[i / 8] & 0xFF) & (MASK >>> (i % 8))) == 0) {
         continue;
@@ -95,37 +101,37 @@ public class ValuePageReader {
       long timestamp = timeBatch[i];
       switch (dataType) {
         case BOOLEAN:
-          boolean aBoolean = valueDecoder.readBoolean(valueBuffer);
+          boolean aBoolean = columns.getBooleans()[valueIndex++];
           if (!isDeleted(timestamp) && (filter == null || filter.satisfy(timestamp, aBoolean))) {
             pageData.putBoolean(timestamp, aBoolean);
           }
           break;
         case INT32:
-          int anInt = valueDecoder.readInt(valueBuffer);
+          int anInt = columns.getInts()[valueIndex++];
           if (!isDeleted(timestamp) && (filter == null || filter.satisfy(timestamp, anInt))) {
             pageData.putInt(timestamp, anInt);
           }
           break;
         case INT64:
-          long aLong = valueDecoder.readLong(valueBuffer);
+          long aLong = columns.getLongs()[valueIndex++];
           if (!isDeleted(timestamp) && (filter == null || filter.satisfy(timestamp, aLong))) {
             pageData.putLong(timestamp, aLong);
           }
           break;
         case FLOAT:
-          float aFloat = valueDecoder.readFloat(valueBuffer);
+          float aFloat = columns.getFloats()[valueIndex++];
           if (!isDeleted(timestamp) && (filter == null || filter.satisfy(timestamp, aFloat))) {
             pageData.putFloat(timestamp, aFloat);
           }
           break;
         case DOUBLE:
-          double aDouble = valueDecoder.readDouble(valueBuffer);
+          double aDouble = columns.getDoubles()[valueIndex++];
           if (!isDeleted(timestamp) && (filter == null || filter.satisfy(timestamp, aDouble))) {
             pageData.putDouble(timestamp, aDouble);
           }
           break;
         case TEXT:
-          Binary aBinary = valueDecoder.readBinary(valueBuffer);
+          Binary aBinary = columns.getBinaries()[valueIndex++];
           if (!isDeleted(timestamp) && (filter == null || filter.satisfy(timestamp, aBinary))) {
             pageData.putBinary(timestamp, aBinary);
           }
@@ -141,51 +147,40 @@ public class ValuePageReader {
    * return the value array of the corresponding time, if this sub sensor don't have a value in a
    * time, just fill it with null
    */
-  public TsPrimitiveType[] nextValueBatch(long[] timeBatch) {
+  public TsPrimitiveType[] nextValueBatch(long[] timeBatch) throws IOException {
     TsPrimitiveType[] valueBatch = new TsPrimitiveType[size];
     if (valueBuffer == null) {
       return valueBatch;
     }
+    ColumnBatch columns = decodeNotNullValues();
+    // index of the next not null value in columns
+    int valueIndex = 0;
     for (int i = 0; i < size; i++) {
       if (((bitmap[i / 8] & 0xFF) & (MASK >>> (i % 8))) == 0) {
         continue;
       }
+      int index = valueIndex++;
+      if (isDeleted(timeBatch[i])) {
+        continue;
+      }
       switch (dataType) {
         case BOOLEAN:
-          boolean aBoolean = valueDecoder.readBoolean(valueBuffer);
-          if (!isDeleted(timeBatch[i])) {
-            valueBatch[i] = new TsPrimitiveType.TsBoolean(aBoolean);
-          }
+          valueBatch[i] = new TsPrimitiveType.TsBoolean(columns.getBooleans()[index]);
           break;
         case INT32:
-          int anInt = valueDecoder.readInt(valueBuffer);
-          if (!isDeleted(timeBatch[i])) {
-            valueBatch[i] = new TsPrimitiveType.TsInt(anInt);
-          }
+          valueBatch[i] = new TsPrimitiveType.TsInt(columns.getInts()[index]);
           break;
         case INT64:
-          long aLong = valueDecoder.readLong(valueBuffer);
-          if (!isDeleted(timeBatch[i])) {
-            valueBatch[i] = new TsPrimitiveType.TsLong(aLong);
-          }
+          valueBatch[i] = new TsPrimitiveType.TsLong(columns.getLongs()[index]);
           break;
         case FLOAT:
-          float aFloat = valueDecoder.readFloat(valueBuffer);
-          if (!isDeleted(timeBatch[i])) {
-            valueBatch[i] = new TsPrimitiveType.TsFloat(aFloat);
-          }
+          valueBatch[i] = new TsPrimitiveType.TsFloat(columns.getFloats()[index]);
           break;
         case DOUBLE:
-          double aDouble = valueDecoder.readDouble(valueBuffer);
-          if (!isDeleted(timeBatch[i])) {
-            valueBatch[i] = new TsPrimitiveType.TsDouble(aDouble);
-          }
+          valueBatch[i] = new TsPrimitiveType.TsDouble(columns.getDoubles()[index]);
           break;
         case TEXT:
-          Binary aBinary = valueDecoder.readBinary(valueBuffer);
-          if (!isDeleted(timeBatch[i])) {
-            valueBatch[i] = new TsPrimitiveType.TsBinary(aBinary);
-          }
+          valueBatch[i] = new TsPrimitiveType.TsBinary(columns.getBinaries()[index]);
           break;
         default:
           throw new UnSupportedDataTypeException(String.valueOf(dataType));
@@ -194,6 +189,19 @@ public class ValuePageReader {
     return valueBatch;
   }
 
+  /** decode the values of all rows whose bit is set in the bitmap in bulk */
+  private ColumnBatch decodeNotNullValues() throws IOException {
+    int notNullCount = 0;
+    for (int i = 0; i < size; i++) {
+      if (((bitmap[i / 8] & 0xFF) & (MASK >>> (i % 8))) != 0) {
+        notNullCount++;
+      }
+    }
+    ColumnBatch columns = new ColumnBatch(dataType);
+    columns.decodeValues(valueDecoder, valueBuffer, notNullCount);
+    return columns;
+  }
+
   public Statistics getStatistics() {
     return pageHeader.getStatistics();
   }
@@ -85,6 +85,15 @@ public class BloomFilter {
     return new BloomFilter(bytes, size, Math.min(MAXIMAL_HASH_FUNCTION_SIZE, hashFunctionSize));
   }
 
+  /**
+   * get a bloom filter without hash functions, which contains every value
+   *
+   * @return bloom filter
+   */
+  public static BloomFilter getMatchAllBloomFilter() {
+    return new BloomFilter(new byte[0], 0, 0);
+  }
+
   public int getHashFunctionSize() {
     return hashFunctionSize;
   }
@@ -0,0 +1,203 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.iotdb.tsfile.utils;
+
+import org.apache.iotdb.tsfile.common.conf.TSFileConfig;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+/**
+ * Bloom filter over the values of a page, used to skip pages that cannot contain the value of an
+ * equality filter. Values are identified by a 64-bit hash, and the hash functions are derived from
+ * it by double hashing, so that building and probing do not allocate.
+ */
+public class ValueBloomFilter {
+
+  private static final long INSTANCE_SIZE =
+      RamUsageEstimator.shallowSizeOfInstance(ValueBloomFilter.class);
+  private static final int MINIMAL_WORD_NUM = 1;
+  private static final int MAXIMAL_HASH_FUNCTION_SIZE = 8;
+
+  private final long[] words;
+  private final int hashFunctionSize;
+
+  private ValueBloomFilter(long[] words, int hashFunctionSize) {
+    this.words = words;
+    this.hashFunctionSize = hashFunctionSize;
+  }
+
+  /**
+   * get empty bloom filter
+   *
+   * @param errorPercent the tolerant percent of error of the bloom filter
+   * @param numOfValues the number of distinct values want to store in the bloom filter
+   * @return empty bloom filter
+   */
+  public static ValueBloomFilter getEmptyBloomFilter(double errorPercent, int numOfValues) {
+    errorPercent = Math.max(errorPercent, TSFileConfig.MIN_BLOOM_FILTER_ERROR_RATE);
+    errorPercent = Math.min(errorPercent, TSFileConfig.MAX_BLOOM_FILTER_ERROR_RATE);
+
+    double ln2 = Math.log(2);
+    long size = (long) (-numOfValues * Math.log(errorPercent) / ln2 / ln2) + 1;
+    int hashFunctionSize = (int) (-Math.log(errorPercent) / ln2) + 1;
+    int wordNum = (int) Math.max(MINIMAL_WORD_NUM, (size + Long.SIZE - 1) / Long.SIZE);
+    return new ValueBloomFilter(
+        new long[wordNum], Math.min(MAXIMAL_HASH_FUNCTION_SIZE, hashFunctionSize));
+  }
+
+  /** add a value by its hash, see {@link #hash(long)} and {@link #hash(Binary)} */
+  public void add(long hash) {
+    long bitSize = (long) words.length * Long.SIZE;
+    int h1 = (int) hash;
+    int h2 = (int) (hash >>> 32);
+    for (int i = 1; i <= hashFunctionSize; i++) {
+      int bit = (int) (((h1 + i * h2) & 0xFFFFFFFFL) % bitSize);
+      words[bit >>> 6] |= 1L << bit;
+    }
+  }
+
+  /** @return false if the value of the hash is definitely not in this filter */
+  public boolean mightContain(long hash) {
+    long bitSize = (long) words.length * Long.SIZE;
+    int h1 = (int) hash;
+    int h2 = (int) (hash >>> 32);
+    for (int i = 1; i <= hashFunctionSize; i++) {
+      int bit = (int) (((h1 + i * h2) & 0xFFFFFFFFL) % bitSize);
+      if ((words[bit >>> 6] & (1L << bit)) == 0) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  /**
+   * @param value a value of a filter, whose type should be the same as the values of the page
+   * @return false if the value is definitely not in this filter. Values of unsupported types are
+   *     always regarded as possibly contained.
+   */
+  public boolean mightContain(Object value) {
+    if (value instanceof Integer) {
+      return mightContain(hash((Integer) value));
+    } else if (value instanceof Long) {
+      return mightContain(hash((Long) value));
+    } else if (value instanceof Float) {
+      return mightContain(hash((Float) value));
+    } else if (value instanceof Double) {
+      return mightContain(hash((Double) value));
+    } else if (value instanceof Binary) {
+      return mightContain(hash((Binary) value));
+    }
+    return true;
+  }
+
+  public static long hash(int value) {
+    return hash((long) value);
+  }
+
+  public static long hash(long value) {
+    // the finalizer of MurmurHash3, which spreads every input bit over all output bits
+    value ^= value >>> 33;
+    value *= 0xff51afd7ed558ccdL;
+    value ^= value >>> 33;
+    value *= 0xc4ceb9fe1a85ec53L;
+    value ^= value >>> 33;
+    return value;
+  }
+
+  /** use the same hash as {@link Float#equals(Object)}, which is what equality filters use */
+  public static long hash(float value) {
+    return hash((long) Float.floatToIntBits(value));
+  }
+
+  /** use the same hash as {@link Double#equals(Object)}, which is what equality filters use */
+  public static long hash(double value) {
+    return hash(Double.doubleToLongBits(value));
+  }
+
+  public static long hash(Binary value) {
+    byte[] bytes = value.getValues();
+    if (bytes == null) {
+      return hash(-1L);
+    }
+    // 64-bit FNV-1a
+    long h = 0xcbf29ce484222325L;
+    for (byte b : bytes) {
+      h ^= b & 0xFF;
+      h *= 0x100000001b3L;
+    }
+    return hash(h);
+  }
+
+  public int getHashFunctionSize() {
+    return hashFunctionSize;
+  }
+
+  /** @return number of bits of this filter */
+  public int getSize() {
+    return words.length * Long.SIZE;
+  }
+
+  public int getSerializedSize() {
+    return Byte.BYTES
+        + ReadWriteForEncodingUtils.uVarIntSize(words.length)
+        + words.length * Long.BYTES;
+  }
+
+  public int serialize(OutputStream outputStream) throws IOException {
+    int byteLen = ReadWriteIOUtils.write((byte) hashFunctionSize, outputStream);
+    byteLen += ReadWriteForEncodingUtils.writeUnsignedVarInt(words.length, outputStream);
+    for (long word : words) {
+      byteLen += ReadWriteIOUtils.write(word, outputStream);
+    }
+    return byteLen;
+  }
+
+  public static ValueBloomFilter deserialize(ByteBuffer buffer) {
+    int hashFunctionSize = ReadWriteIOUtils.readByte(buffer);
+    long[] words = new long[ReadWriteForEncodingUtils.readUnsignedVarInt(buffer)];
+    for (int i = 0; i < words.length; i++) {
+      words[i] = ReadWriteIOUtils.readLong(buffer);
+    }
+    return new ValueBloomFilter(words, hashFunctionSize);
+  }
+
+  public long calculateRamSize() {
+    return INSTANCE_SIZE + RamUsageEstimator.sizeOf(words);
+  }
+
+  @Override
+  public boolean equals(Object o) {
+    if (this == o) {
+      return true;
+    }
+    if (o == null || getClass() != o.getClass()) {
+      return false;
+    }
+    ValueBloomFilter that = (ValueBloomFilter) o;
+    return hashFunctionSize == that.hashFunctionSize && Arrays.equals(words, that.words);
+  }
+
+  @Override
+  public int hashCode() {
+    return 31 * Arrays.hashCode(words) + hashFunctionSize;
+  }
+}
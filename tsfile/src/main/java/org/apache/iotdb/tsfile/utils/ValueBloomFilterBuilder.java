@@ -0,0 +1,159 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.iotdb.tsfile.utils;
+
+import java.util.Arrays;
+
+/**
+ * Collects the distinct values written to a page, so that the {@link ValueBloomFilter} of the
+ * page can be sized for its cardinality when the page is sealed. A page with more than {@link
+ * #MAX_DISTINCT_VALUE_NUM} distinct values is not indexed, because its filter would be too large
+ * compared with the page itself, and such pages are rarely skipped by equality filters.
+ */
+public class ValueBloomFilterBuilder {
+
+  public static final int MAX_DISTINCT_VALUE_NUM = 16384;
+
+  private static final int INITIAL_CAPACITY = 64;
+
+  private final double errorPercent;
+
+  /** open addressing set of hashes, 0 marks an empty slot and is tracked by containsZero */
+  private long[] hashes = new long[INITIAL_CAPACITY];
+
+  private int size;
+  private boolean containsZero;
+  private boolean overflow;
+
+  /** consecutive equal values are common, so they are not looked up in the set */
+  private long lastHash;
+
+  private boolean isEmpty = true;
+
+  public ValueBloomFilterBuilder(double errorPercent) {
+    this.errorPercent = errorPercent;
+  }
+
+  public void add(int value) {
+    addHash(ValueBloomFilter.hash(value));
+  }
+
+  public void add(long value) {
+    addHash(ValueBloomFilter.hash(value));
+  }
+
+  public void add(float value) {
+    addHash(ValueBloomFilter.hash(value));
+  }
+
+  public void add(double value) {
+    addHash(ValueBloomFilter.hash(value));
+  }
+
+  public void add(Binary value) {
+    addHash(ValueBloomFilter.hash(value));
+  }
+
+  private void addHash(long hash) {
+    if (overflow || (!isEmpty && hash == lastHash)) {
+      return;
+    }
+    isEmpty = false;
+    lastHash = hash;
+    if (hash == 0) {
+      if (!containsZero) {
+        containsZero = true;
+        checkSize(++size);
+      }
+      return;
+    }
+    int mask = hashes.length - 1;
+    int pos = (int) hash & mask;
+    while (hashes[pos] != 0) {
+      if (hashes[pos] == hash) {
+        return;
+      }
+      pos = (pos + 1) & mask;
+    }
+    hashes[pos] = hash;
+    checkSize(++size);
+  }
+
+  private void checkSize(int newSize) {
+    if (newSize > MAX_DISTINCT_VALUE_NUM) {
+      overflow = true;
+      hashes = new long[INITIAL_CAPACITY];
+    } else if (newSize * 2 > hashes.length) {
+      rehash(hashes.length * 2);
+    }
+  }
+
+  private void rehash(int capacity) {
+    long[] oldHashes = hashes;
+    hashes = new long[capacity];
+    int mask = capacity - 1;
+    for (long hash : oldHashes) {
+      if (hash != 0) {
+        int pos = (int) hash & mask;
+        while (hashes[pos] != 0) {
+          pos = (pos + 1) & mask;
+        }
+        hashes[pos] = hash;
+      }
+    }
+  }
+
+  /**
+   * build the bloom filter of the values added since the last reset.
+   *
+   * @return the bloom filter, or null if no value is added or there are too many distinct values
+   */
+  public ValueBloomFilter build() {
+    if (isEmpty || overflow) {
+      return null;
+    }
+    ValueBloomFilter bloomFilter = ValueBloomFilter.getEmptyBloomFilter(errorPercent, size);
+    if (containsZero) {
+      bloomFilter.add(0);
+    }
+    for (long hash : hashes) {
+      if (hash != 0) {
+        bloomFilter.add(hash);
+      }
+    }
+    return bloomFilter;
+  }
+
+  /** @return memory used for collecting values, in bytes */
+  public long getMemSize() {
+    return (long) hashes.length * Long.BYTES;
+  }
+
+  public void reset() {
+    if (hashes.length > INITIAL_CAPACITY) {
+      hashes = new long[INITIAL_CAPACITY];
+    } else {
+      Arrays.fill(hashes, 0);
+    }
+    size = 0;
+    containsZero = false;
+    overflow = false;
+    isEmpty = true;
+  }
+}
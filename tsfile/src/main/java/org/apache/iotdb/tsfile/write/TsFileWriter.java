@@ -189,6 +189,9 @@ public class TsFileWriter implements AutoCloseable {
       this.schema = new Schema(measurementGroupMap);
     } else {
       this.schema = schema;
+      // the chunk metadata of a restorable writer stay in memory, for they may be queried before
+      // the file is closed
+      fileWriter.setChunkMetadataMemoryBudget(conf.getChunkMetadataMemoryBudgetInByte());
     }
     this.pageSize = conf.getPageSizeInByte();
     this.chunkGroupSizeThreshold = conf.getGroupSizeInByte();
@@ -73,7 +73,8 @@ public class AlignedChunkGroupWriterImpl implements IChunkGroupWriter {
               measurementSchema.getCompressor(),
               measurementSchema.getType(),
               measurementSchema.getEncodingType(),
-              measurementSchema.getValueEncoder());
+              measurementSchema.getValueEncoder(),
+              measurementSchema.getProps());
       valueChunkWriterMap.put(measurementSchema.getMeasurementId(), valueChunkWriter);
       tryToAddEmptyPageAndData(valueChunkWriter);
     }
@@ -89,7 +90,8 @@ public class AlignedChunkGroupWriterImpl implements IChunkGroupWriter {
                 schema.getCompressor(),
                 schema.getType(),
                 schema.getEncodingType(),
-                schema.getValueEncoder());
+                schema.getValueEncoder(),
+                schema.getProps());
         valueChunkWriterMap.put(schema.getMeasurementId(), valueChunkWriter);
         tryToAddEmptyPageAndData(valueChunkWriter);
       }
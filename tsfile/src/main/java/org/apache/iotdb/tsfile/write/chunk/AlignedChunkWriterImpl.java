@@ -85,7 +85,8 @@ public class AlignedChunkWriterImpl implements IChunkWriter {
               schemaList.get(i).getCompressor(),
               schemaList.get(i).getType(),
               schemaList.get(i).getEncodingType(),
-              schemaList.get(i).getValueEncoder()));
+              schemaList.get(i).getValueEncoder(),
+              schemaList.get(i).getProps()));
     }
 
     this.valueIndex = 0;
@@ -186,4 +187,8 @@ public class AlignedChunkWriterImpl implements IChunkWriter {
       valueChunkWriter.clearPageWriter();
     }
   }
+
+  public List<ValueChunkWriter> getValueChunkWriterList() {
+    return valueChunkWriterList;
+  }
 }
@@ -20,15 +20,22 @@ package org.apache.iotdb.tsfile.write.chunk;
 
 import org.apache.iotdb.tsfile.common.conf.TSFileDescriptor;
 import org.apache.iotdb.tsfile.compress.ICompressor;
+import org.apache.iotdb.tsfile.encoding.encoder.AutoEncoder;
+import org.apache.iotdb.tsfile.encoding.encoder.Encoder;
 import org.apache.iotdb.tsfile.encoding.encoder.SDTEncoder;
+import org.apache.iotdb.tsfile.exception.encoding.TsFileEncodingException;
 import org.apache.iotdb.tsfile.exception.write.PageException;
 import org.apache.iotdb.tsfile.file.header.ChunkHeader;
 import org.apache.iotdb.tsfile.file.header.PageHeader;
+import org.apache.iotdb.tsfile.file.metadata.PageValueIndex;
 import org.apache.iotdb.tsfile.file.metadata.enums.TSDataType;
+import org.apache.iotdb.tsfile.file.metadata.enums.TSEncoding;
 import org.apache.iotdb.tsfile.file.metadata.statistics.Statistics;
 import org.apache.iotdb.tsfile.utils.Binary;
 import org.apache.iotdb.tsfile.utils.PublicBAOS;
 import org.apache.iotdb.tsfile.utils.ReadWriteForEncodingUtils;
+import org.apache.iotdb.tsfile.utils.ValueBloomFilter;
+import org.apache.iotdb.tsfile.utils.ValueBloomFilterBuilder;
 import org.apache.iotdb.tsfile.write.page.PageWriter;
 import org.apache.iotdb.tsfile.write.schema.IMeasurementSchema;
 import org.apache.iotdb.tsfile.write.writer.TsFileIOWriter;
@@ -41,6 +48,8 @@ import java.io.Serializable;
 import java.nio.ByteBuffer;
 import java.nio.channels.Channels;
 import java.nio.channels.WritableByteChannel;
+import java.util.ArrayList;
+import java.util.List;
 
 public class ChunkWriterImpl implements IChunkWriter {
 
@@ -92,10 +101,18 @@ public class ChunkWriterImpl implements IChunkWriter {
 
   private Statistics<?> firstPageStatistics;
 
+  /** value encoder of TSEncoding.AUTO, null for other encodings */
+  private final AutoEncoder autoEncoder;
+
+  /** value bloom filters of all pages of this chunk, null if page bloom filter is disabled */
+  private final List<ValueBloomFilter> pageValueFilters;
+
+  private long pageValueFiltersSize;
+
   /** @param schema schema of this measurement */
   public ChunkWriterImpl(IMeasurementSchema schema) {
     this.measurementSchema = schema;
-    this.compressor = ICompressor.getCompressor(schema.getCompressor());
+    this.compressor = ICompressor.getCompressor(schema.getCompressor(), schema.getProps());
     this.pageBuffer = new PublicBAOS();
 
     this.pageSizeThreshold = TSFileDescriptor.getInstance().getConfig().getPageSizeInByte();
@@ -110,7 +127,18 @@ public class ChunkWriterImpl implements IChunkWriter {
     this.pageWriter = new PageWriter(measurementSchema);
 
     this.pageWriter.setTimeEncoder(measurementSchema.getTimeEncoder());
-    this.pageWriter.setValueEncoder(measurementSchema.getValueEncoder());
+    Encoder valueEncoder = measurementSchema.getValueEncoder();
+    this.pageWriter.setValueEncoder(valueEncoder);
+    this.autoEncoder = valueEncoder instanceof AutoEncoder ? (AutoEncoder) valueEncoder : null;
+
+    if (PageValueIndex.isEnabled(schema.getType(), schema.getProps())) {
+      this.pageValueFilters = new ArrayList<>();
+      this.pageWriter.setValueBloomFilterBuilder(
+          new ValueBloomFilterBuilder(
+              TSFileDescriptor.getInstance().getConfig().getPageBloomFilterErrorRate()));
+    } else {
+      this.pageValueFilters = null;
+    }
 
     // check if the measurement schema uses SDT
     checkSdtEncoding();
@@ -206,6 +234,12 @@ public class ChunkWriterImpl implements IChunkWriter {
     checkPageSizeAndMayOpenANewPage();
   }
 
+  /** write a value interned by the caller, see {@link PageWriter#write(long, int, Binary)} */
+  public void write(long time, int code, Binary value) {
+    pageWriter.write(time, code, value);
+    checkPageSizeAndMayOpenANewPage();
+  }
+
   public void write(long[] timestamps, int[] values, int batchSize) {
     if (isSdtEncoding) {
       batchSize = sdtEncoder.encode(timestamps, values, batchSize);
@@ -298,6 +332,13 @@ public class ChunkWriterImpl implements IChunkWriter {
       // update statistics of this chunk
       numOfPages++;
       this.statistics.mergeStatistics(pageWriter.getStatistics());
+      if (pageValueFilters != null) {
+        ValueBloomFilter pageValueFilter = pageWriter.getValueBloomFilter();
+        pageValueFilters.add(pageValueFilter);
+        if (pageValueFilter != null) {
+          pageValueFiltersSize += pageValueFilter.getSerializedSize();
+        }
+      }
     } catch (IOException e) {
       logger.error("meet error in pageWriter.writePageHeaderAndDataIntoBuff,ignore this page:", e);
     } finally {
@@ -316,6 +357,13 @@ public class ChunkWriterImpl implements IChunkWriter {
     numOfPages = 0;
     firstPageStatistics = null;
     this.statistics = Statistics.getStatsByType(measurementSchema.getType());
+    if (pageValueFilters != null) {
+      pageValueFilters.clear();
+      pageValueFiltersSize = 0;
+    }
+    if (autoEncoder != null) {
+      autoEncoder.reset();
+    }
   }
 
   @Override
@@ -323,7 +371,9 @@ public class ChunkWriterImpl implements IChunkWriter {
     return pageBuffer.size()
         + pageWriter.estimateMaxMemSize()
         + PageHeader.estimateMaxPageHeaderSizeWithoutStatistics()
-        + pageWriter.getStatistics().getSerializedSize();
+        + pageWriter.getStatistics().getSerializedSize()
+        + pageWriter.getValueBloomFilterBuilderMemSize()
+        + pageValueFiltersSize;
   }
 
   @Override
@@ -352,12 +402,47 @@ public class ChunkWriterImpl implements IChunkWriter {
     return measurementSchema.getType();
   }
 
+  /** @return encoding of current chunk, which is selected when writing for TSEncoding.AUTO */
+  public TSEncoding getEncodingType() {
+    return autoEncoder != null
+        ? autoEncoder.getSelectedEncoding()
+        : measurementSchema.getEncodingType();
+  }
+
+  /** @return the value encoder if the encoding is TSEncoding.AUTO, otherwise null */
+  public AutoEncoder getAutoEncoder() {
+    return autoEncoder;
+  }
+
   /**
    * write the page header and data into the PageWriter's output stream. @NOTE: for upgrading
    * 0.11/v2 to 0.12/v3 TsFile
    */
   public void writePageHeaderAndDataIntoBuff(ByteBuffer data, PageHeader header)
       throws PageException {
+    writePageHeaderAndDataIntoBuff(data, header, measurementSchema.getEncodingType());
+  }
+
+  /**
+   * write the page header and data into the PageWriter's output stream.
+   *
+   * @param encoding the encoding of the values in the page, which becomes the selected encoding of
+   *     current chunk for TSEncoding.AUTO
+   */
+  public void writePageHeaderAndDataIntoBuff(
+      ByteBuffer data, PageHeader header, TSEncoding encoding) throws PageException {
+    if (autoEncoder != null) {
+      try {
+        autoEncoder.select(encoding);
+      } catch (TsFileEncodingException e) {
+        throw new PageException(e);
+      }
+    } else if (encoding != measurementSchema.getEncodingType()) {
+      throw new PageException(
+          String.format(
+              "Cannot write a %s page into a %s chunk",
+              encoding, measurementSchema.getEncodingType()));
+    }
     // write the page header to pageBuffer
     try {
       logger.debug(
@@ -396,6 +481,10 @@ public class ChunkWriterImpl implements IChunkWriter {
       throw new PageException("IO Exception in writeDataPageHeader,ignore this page", e);
     }
     numOfPages++;
+    if (pageValueFilters != null) {
+      // the values of the page are unknown without decoding it
+      pageValueFilters.add(null);
+    }
     // write page content to temp PBAOS
     try (WritableByteChannel channel = Channels.newChannel(pageBuffer)) {
       channel.write(data);
@@ -422,7 +511,7 @@ public class ChunkWriterImpl implements IChunkWriter {
         measurementSchema.getMeasurementId(),
         compressor.getType(),
         measurementSchema.getType(),
-        measurementSchema.getEncodingType(),
+        getEncodingType(),
         statistics,
         pageBuffer.size(),
         numOfPages,
@@ -443,6 +532,9 @@ public class ChunkWriterImpl implements IChunkWriter {
               + pageBuffer.size());
     }
 
+    if (pageValueFilters != null) {
+      writer.setCurrentChunkPageValueIndex(PageValueIndex.of(pageValueFilters));
+    }
     writer.endCurrentChunk();
   }
 
@@ -21,6 +21,7 @@ package org.apache.iotdb.tsfile.write.chunk;
 import org.apache.iotdb.tsfile.common.conf.TSFileDescriptor;
 import org.apache.iotdb.tsfile.common.constant.TsFileConstant;
 import org.apache.iotdb.tsfile.compress.ICompressor;
+import org.apache.iotdb.tsfile.encoding.encoder.AutoEncoder;
 import org.apache.iotdb.tsfile.encoding.encoder.Encoder;
 import org.apache.iotdb.tsfile.file.header.ChunkHeader;
 import org.apache.iotdb.tsfile.file.header.PageHeader;
@@ -38,6 +39,7 @@ import org.slf4j.LoggerFactory;
 
 import java.io.IOException;
 import java.io.Serializable;
+import java.util.Map;
 
 public class ValueChunkWriter {
 
@@ -78,12 +80,26 @@ public class ValueChunkWriter {
 
   private Statistics<?> firstPageStatistics;
 
+  /** value encoder of TSEncoding.AUTO, null for other encodings */
+  private final AutoEncoder autoEncoder;
+
   public ValueChunkWriter(
       String measurementId,
       CompressionType compressionType,
       TSDataType dataType,
       TSEncoding encodingType,
       Encoder valueEncoder) {
+    this(measurementId, compressionType, dataType, encodingType, valueEncoder, null);
+  }
+
+  /** @param props props of the measurement schema, which may set the compression level */
+  public ValueChunkWriter(
+      String measurementId,
+      CompressionType compressionType,
+      TSDataType dataType,
+      TSEncoding encodingType,
+      Encoder valueEncoder,
+      Map<String, String> props) {
     this.measurementId = measurementId;
     this.encodingType = encodingType;
     this.dataType = dataType;
@@ -98,7 +114,9 @@ public class ValueChunkWriter {
     this.statistics = Statistics.getStatsByType(dataType);
 
     this.pageWriter =
-        new ValuePageWriter(valueEncoder, ICompressor.getCompressor(compressionType), dataType);
+        new ValuePageWriter(
+            valueEncoder, ICompressor.getCompressor(compressionType, props), dataType);
+    this.autoEncoder = valueEncoder instanceof AutoEncoder ? (AutoEncoder) valueEncoder : null;
   }
 
   public void write(long time, long value, boolean isNull) {
@@ -193,6 +211,9 @@ public class ValueChunkWriter {
     numOfPages = 0;
     firstPageStatistics = null;
     this.statistics = Statistics.getStatsByType(dataType);
+    if (autoEncoder != null) {
+      autoEncoder.reset();
+    }
   }
 
   public long estimateMaxSeriesMemSize() {
@@ -262,6 +283,16 @@ public class ValueChunkWriter {
     return dataType;
   }
 
+  /** @return encoding of current chunk, which is selected when writing for TSEncoding.AUTO */
+  public TSEncoding getEncodingType() {
+    return autoEncoder != null ? autoEncoder.getSelectedEncoding() : encodingType;
+  }
+
+  /** @return the value encoder if the encoding is TSEncoding.AUTO, otherwise null */
+  public AutoEncoder getAutoEncoder() {
+    return autoEncoder;
+  }
+
   /**
    * write the page to specified IOWriter.
    *
@@ -278,7 +309,7 @@ public class ValueChunkWriter {
         measurementId,
         compressionType,
         dataType,
-        encodingType,
+        getEncodingType(),
         statistics,
         pageBuffer.size(),
         numOfPages,
@@ -19,6 +19,7 @@
 package org.apache.iotdb.tsfile.write.page;
 
 import org.apache.iotdb.tsfile.compress.ICompressor;
+import org.apache.iotdb.tsfile.encoding.encoder.DictionaryEncoder;
 import org.apache.iotdb.tsfile.encoding.encoder.Encoder;
 import org.apache.iotdb.tsfile.file.metadata.enums.CompressionType;
 import org.apache.iotdb.tsfile.file.metadata.enums.TSDataType;
@@ -26,6 +27,8 @@ import org.apache.iotdb.tsfile.file.metadata.statistics.Statistics;
 import org.apache.iotdb.tsfile.utils.Binary;
 import org.apache.iotdb.tsfile.utils.PublicBAOS;
 import org.apache.iotdb.tsfile.utils.ReadWriteForEncodingUtils;
+import org.apache.iotdb.tsfile.utils.ValueBloomFilter;
+import org.apache.iotdb.tsfile.utils.ValueBloomFilterBuilder;
 import org.apache.iotdb.tsfile.write.schema.IMeasurementSchema;
 
 import org.slf4j.Logger;
@@ -60,6 +63,9 @@ public class PageWriter {
    */
   private Statistics<? extends Serializable> statistics;
 
+  /** collects values of current page for its value bloom filter, null if the page has none */
+  private ValueBloomFilterBuilder valueBloomFilterBuilder;
+
   public PageWriter() {
     this(null, null);
   }
@@ -67,7 +73,8 @@ public class PageWriter {
   public PageWriter(IMeasurementSchema measurementSchema) {
     this(measurementSchema.getTimeEncoder(), measurementSchema.getValueEncoder());
     this.statistics = Statistics.getStatsByType(measurementSchema.getType());
-    this.compressor = ICompressor.getCompressor(measurementSchema.getCompressor());
+    this.compressor =
+        ICompressor.getCompressor(measurementSchema.getCompressor(), measurementSchema.getProps());
   }
 
   private PageWriter(Encoder timeEncoder, Encoder valueEncoder) {
@@ -89,6 +96,9 @@ public class PageWriter {
     timeEncoder.encode(time, timeOut);
     valueEncoder.encode(value, valueOut);
     statistics.update(time, value);
+    if (valueBloomFilterBuilder != null) {
+      valueBloomFilterBuilder.add(value);
+    }
   }
 
   /** write a time value pair into encoder */
@@ -96,6 +106,9 @@ public class PageWriter {
     timeEncoder.encode(time, timeOut);
     valueEncoder.encode(value, valueOut);
     statistics.update(time, value);
+    if (valueBloomFilterBuilder != null) {
+      valueBloomFilterBuilder.add(value);
+    }
   }
 
   /** write a time value pair into encoder */
@@ -103,6 +116,9 @@ public class PageWriter {
     timeEncoder.encode(time, timeOut);
     valueEncoder.encode(value, valueOut);
     statistics.update(time, value);
+    if (valueBloomFilterBuilder != null) {
+      valueBloomFilterBuilder.add(value);
+    }
   }
 
   /** write a time value pair into encoder */
@@ -110,6 +126,9 @@ public class PageWriter {
     timeEncoder.encode(time, timeOut);
     valueEncoder.encode(value, valueOut);
     statistics.update(time, value);
+    if (valueBloomFilterBuilder != null) {
+      valueBloomFilterBuilder.add(value);
+    }
   }
 
   /** write a time value pair into encoder */
@@ -117,6 +136,9 @@ public class PageWriter {
     timeEncoder.encode(time, timeOut);
     valueEncoder.encode(value, valueOut);
     statistics.update(time, value);
+    if (valueBloomFilterBuilder != null) {
+      valueBloomFilterBuilder.add(value);
+    }
   }
 
   /** write a time value pair into encoder */
@@ -124,6 +146,26 @@ public class PageWriter {
     timeEncoder.encode(time, timeOut);
     valueEncoder.encode(value, valueOut);
     statistics.update(time, value);
+    if (valueBloomFilterBuilder != null) {
+      valueBloomFilterBuilder.add(value);
+    }
+  }
+
+  /**
+   * write a time value pair whose value is interned by the caller into encoder, the code is used
+   * when the value encoder is a dictionary
+   */
+  public void write(long time, int code, Binary value) {
+    if (!(valueEncoder instanceof DictionaryEncoder)) {
+      write(time, value);
+      return;
+    }
+    timeEncoder.encode(time, timeOut);
+    ((DictionaryEncoder) valueEncoder).encode(code, value, valueOut);
+    statistics.update(time, value);
+    if (valueBloomFilterBuilder != null) {
+      valueBloomFilterBuilder.add(value);
+    }
   }
 
   /** write time series into encoder */
@@ -141,6 +183,11 @@ public class PageWriter {
       timeEncoder.encode(timestamps[i], timeOut);
       valueEncoder.encode(values[i], valueOut);
     }
+    if (valueBloomFilterBuilder != null) {
+      for (int i = 0; i < batchSize; i++) {
+        valueBloomFilterBuilder.add(values[i]);
+      }
+    }
     statistics.update(timestamps, values, batchSize);
   }
 
@@ -150,6 +197,11 @@ public class PageWriter {
       timeEncoder.encode(timestamps[i], timeOut);
       valueEncoder.encode(values[i], valueOut);
     }
+    if (valueBloomFilterBuilder != null) {
+      for (int i = 0; i < batchSize; i++) {
+        valueBloomFilterBuilder.add(values[i]);
+      }
+    }
     statistics.update(timestamps, values, batchSize);
   }
 
@@ -159,6 +211,11 @@ public class PageWriter {
       timeEncoder.encode(timestamps[i], timeOut);
       valueEncoder.encode(values[i], valueOut);
     }
+    if (valueBloomFilterBuilder != null) {
+      for (int i = 0; i < batchSize; i++) {
+        valueBloomFilterBuilder.add(values[i]);
+      }
+    }
     statistics.update(timestamps, values, batchSize);
   }
 
@@ -168,6 +225,11 @@ public class PageWriter {
       timeEncoder.encode(timestamps[i], timeOut);
       valueEncoder.encode(values[i], valueOut);
     }
+    if (valueBloomFilterBuilder != null) {
+      for (int i = 0; i < batchSize; i++) {
+        valueBloomFilterBuilder.add(values[i]);
+      }
+    }
     statistics.update(timestamps, values, batchSize);
   }
 
@@ -177,6 +239,11 @@ public class PageWriter {
       timeEncoder.encode(timestamps[i], timeOut);
       valueEncoder.encode(values[i], valueOut);
     }
+    if (valueBloomFilterBuilder != null) {
+      for (int i = 0; i < batchSize; i++) {
+        valueBloomFilterBuilder.add(values[i]);
+      }
+    }
     statistics.update(timestamps, values, batchSize);
   }
 
@@ -272,6 +339,9 @@ public class PageWriter {
     timeOut.reset();
     valueOut.reset();
     statistics = Statistics.getStatsByType(measurementSchema.getType());
+    if (valueBloomFilterBuilder != null) {
+      valueBloomFilterBuilder.reset();
+    }
   }
 
   public void setTimeEncoder(Encoder encoder) {
@@ -282,6 +352,20 @@ public class PageWriter {
     this.valueEncoder = encoder;
   }
 
+  public void setValueBloomFilterBuilder(ValueBloomFilterBuilder valueBloomFilterBuilder) {
+    this.valueBloomFilterBuilder = valueBloomFilterBuilder;
+  }
+
+  /** @return bloom filter over the values of current page, or null if the page has none */
+  public ValueBloomFilter getValueBloomFilter() {
+    return valueBloomFilterBuilder == null ? null : valueBloomFilterBuilder.build();
+  }
+
+  /** @return memory used for collecting the values of current page for its bloom filter */
+  public long getValueBloomFilterBuilderMemSize() {
+    return valueBloomFilterBuilder == null ? 0 : valueBloomFilterBuilder.getMemSize();
+  }
+
   public void initStatistics(TSDataType dataType) {
     statistics = Statistics.getStatsByType(dataType);
   }
@@ -0,0 +1,244 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.iotdb.tsfile.write.writer;
+
+import org.apache.iotdb.tsfile.file.metadata.ChunkGroupMetadata;
+import org.apache.iotdb.tsfile.file.metadata.ChunkMetadata;
+import org.apache.iotdb.tsfile.file.metadata.IChunkMetadata;
+import org.apache.iotdb.tsfile.file.metadata.PageValueIndex;
+import org.apache.iotdb.tsfile.file.metadata.enums.TSDataType;
+import org.apache.iotdb.tsfile.file.metadata.statistics.Statistics;
+import org.apache.iotdb.tsfile.utils.PublicBAOS;
+import org.apache.iotdb.tsfile.utils.ReadWriteForEncodingUtils;
+import org.apache.iotdb.tsfile.utils.ReadWriteIOUtils;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.Serializable;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+
+/**
+ * Temporary file that holds the chunk metadata spilled by a {@link TsFileIOWriter}. Each spill
+ * writes one run of chunk metadata sorted by series, and the runs are merged into the chunk
+ * metadata list of each series when the TsFile is closed.
+ */
+class ChunkMetadataSpillFile implements Closeable {
+
+  static final String SPILL_FILE_SUFFIX = ".cmt";
+
+  private final File file;
+  private final DataOutputStream outputStream;
+  private long position = 0;
+
+  // start offset and number of records of each run
+  private final List<Long> runOffsets = new ArrayList<>();
+  private final List<Integer> runSizes = new ArrayList<>();
+
+  ChunkMetadataSpillFile(File file) throws IOException {
+    this.file = file;
+    this.outputStream = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(file)));
+  }
+
+  /**
+   * Write the chunk metadata of the chunk groups as one run. The chunk metadata of a series keep
+   * the order they were written in.
+   */
+  void writeRun(List<ChunkGroupMetadata> chunkGroupMetadataList) throws IOException {
+    List<SpilledChunkMetadata> run = new ArrayList<>();
+    for (ChunkGroupMetadata chunkGroupMetadata : chunkGroupMetadataList) {
+      for (ChunkMetadata chunkMetadata : chunkGroupMetadata.getChunkMetadataList()) {
+        run.add(new SpilledChunkMetadata(chunkGroupMetadata.getDevice(), chunkMetadata));
+      }
+    }
+    if (run.isEmpty()) {
+      return;
+    }
+    // the sort is stable, so chunks of the same series stay in order of their offsets
+    run.sort(SERIES_COMPARATOR);
+
+    runOffsets.add(position);
+    runSizes.add(run.size());
+    PublicBAOS buffer = new PublicBAOS();
+    for (SpilledChunkMetadata spilled : run) {
+      buffer.reset();
+      spilled.serializeTo(buffer);
+      outputStream.writeInt(buffer.size());
+      outputStream.write(buffer.getBuf(), 0, buffer.size());
+      position += Integer.BYTES + buffer.size();
+    }
+    outputStream.flush();
+  }
+
+  /** @return a merger over all runs, which should be closed after used */
+  Merger merge() throws IOException {
+    outputStream.flush();
+    return new Merger();
+  }
+
+  /** Close and delete the file. */
+  @Override
+  public void close() throws IOException {
+    outputStream.close();
+    Files.deleteIfExists(file.toPath());
+  }
+
+  private static final Comparator<SpilledChunkMetadata> SERIES_COMPARATOR =
+      Comparator.comparing((SpilledChunkMetadata spilled) -> spilled.device)
+          .thenComparing(spilled -> spilled.chunkMetadata.getMeasurementUid());
+
+  /** Iterates the series of all runs in order, with the chunk metadata of each series merged. */
+  class Merger implements Closeable {
+
+    private final List<RunReader> readers = new ArrayList<>();
+    private final PriorityQueue<RunReader> heap =
+        new PriorityQueue<>(
+            (r1, r2) -> {
+              int cmp = SERIES_COMPARATOR.compare(r1.current, r2.current);
+              // earlier runs hold earlier chunks of a series
+              return cmp != 0 ? cmp : Integer.compare(r1.runIndex, r2.runIndex);
+            });
+
+    private Merger() throws IOException {
+      try {
+        for (int i = 0; i < runOffsets.size(); i++) {
+          RunReader reader = new RunReader(i);
+          readers.add(reader);
+          if (reader.next()) {
+            heap.add(reader);
+          }
+        }
+      } catch (IOException e) {
+        close();
+        throw e;
+      }
+    }
+
+    boolean hasNext() {
+      return !heap.isEmpty();
+    }
+
+    /** @return device of the next series */
+    String currentDevice() {
+      return heap.peek().current.device;
+    }
+
+    /** @return measurement of the next series */
+    String currentMeasurement() {
+      return heap.peek().current.chunkMetadata.getMeasurementUid();
+    }
+
+    /** @return chunk metadata of the next series in order of their offsets */
+    List<IChunkMetadata> next() throws IOException {
+      String device = currentDevice();
+      String measurement = currentMeasurement();
+      List<IChunkMetadata> chunkMetadataList = new ArrayList<>();
+      while (!heap.isEmpty()
+          && heap.peek().current.device.equals(device)
+          && heap.peek().current.chunkMetadata.getMeasurementUid().equals(measurement)) {
+        RunReader reader = heap.poll();
+        chunkMetadataList.add(reader.current.chunkMetadata);
+        if (reader.next()) {
+          heap.add(reader);
+        }
+      }
+      return chunkMetadataList;
+    }
+
+    @Override
+    public void close() throws IOException {
+      for (RunReader reader : readers) {
+        reader.inputStream.close();
+      }
+    }
+  }
+
+  private class RunReader {
+
+    private final int runIndex;
+    private final DataInputStream inputStream;
+    private int remaining;
+    private SpilledChunkMetadata current;
+
+    private RunReader(int runIndex) throws IOException {
+      this.runIndex = runIndex;
+      this.remaining = runSizes.get(runIndex);
+      FileInputStream fileInputStream = new FileInputStream(file);
+      fileInputStream.getChannel().position(runOffsets.get(runIndex));
+      this.inputStream = new DataInputStream(new BufferedInputStream(fileInputStream));
+    }
+
+    /** @return false if the run has been read out */
+    private boolean next() throws IOException {
+      if (remaining == 0) {
+        current = null;
+        return false;
+      }
+      remaining--;
+      byte[] bytes = new byte[inputStream.readInt()];
+      inputStream.readFully(bytes);
+      current = SpilledChunkMetadata.deserializeFrom(ByteBuffer.wrap(bytes));
+      return true;
+    }
+  }
+
+  private static class SpilledChunkMetadata {
+
+    private final String device;
+    private final ChunkMetadata chunkMetadata;
+
+    private SpilledChunkMetadata(String device, ChunkMetadata chunkMetadata) {
+      this.device = device;
+      this.chunkMetadata = chunkMetadata;
+    }
+
+    private void serializeTo(PublicBAOS outputStream) throws IOException {
+      ReadWriteIOUtils.write(device, outputStream);
+      ReadWriteIOUtils.write(chunkMetadata.getMeasurementUid(), outputStream);
+      ReadWriteIOUtils.write(chunkMetadata.getDataType(), outputStream);
+      ReadWriteIOUtils.write(chunkMetadata.getMask(), outputStream);
+      chunkMetadata.serializeTo(outputStream, true, true);
+    }
+
+    private static SpilledChunkMetadata deserializeFrom(ByteBuffer buffer) {
+      String device = ReadWriteIOUtils.readString(buffer);
+      String measurement = ReadWriteIOUtils.readString(buffer);
+      TSDataType dataType = ReadWriteIOUtils.readDataType(buffer);
+      byte mask = ReadWriteIOUtils.readByte(buffer);
+      long offsetOfChunkHeader = ReadWriteIOUtils.readLong(buffer);
+      Statistics<? extends Serializable> statistics = Statistics.deserialize(buffer, dataType);
+      ChunkMetadata chunkMetadata =
+          new ChunkMetadata(measurement, dataType, offsetOfChunkHeader, statistics);
+      chunkMetadata.setMask(mask);
+      chunkMetadata.setPageValueIndex(PageValueIndex.deserializeFrom(buffer));
+      return new SpilledChunkMetadata(device, chunkMetadata);
+    }
+  }
+}
@@ -57,7 +57,16 @@ public class LocalTsFileOutput implements TsFileOutput {
 
   @Override
   public void write(ByteBuffer b) throws IOException {
-    bufferedStream.write(b.array());
+    if (b.hasArray()) {
+      bufferedStream.write(b.array());
+    } else {
+      // e.g., a chunk read from a memory-mapped file, which has no backing array
+      byte[] bytes = new byte[b.capacity()];
+      ByteBuffer source = b.duplicate();
+      source.clear();
+      source.get(bytes);
+      bufferedStream.write(bytes);
+    }
   }
 
   @Override
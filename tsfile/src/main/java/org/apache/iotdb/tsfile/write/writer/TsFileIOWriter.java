@@ -41,6 +41,7 @@ import org.slf4j.LoggerFactory;
 import java.io.File;
 import java.io.IOException;
 import java.io.Serializable;
+import java.io.UncheckedIOException;
 import java.util.*;
 
 /**
@@ -81,6 +82,12 @@ public class TsFileIOWriter {
   private long minPlanIndex;
   private long maxPlanIndex;
 
+  // the chunk metadata of flushed ChunkGroups are spilled once their size exceeds the budget, 0
+  // for keeping them all in memory
+  private long chunkMetadataMemoryBudget = 0;
+  private long chunkMetadataRamSize = 0;
+  private ChunkMetadataSpillFile chunkMetadataSpillFile;
+
   /** empty construct function. */
   protected TsFileIOWriter() {}
 
@@ -149,9 +156,39 @@ public class TsFileIOWriter {
     }
     chunkGroupMetadataList.add(
         new ChunkGroupMetadata(currentChunkGroupDeviceId, chunkMetadataList));
+    if (chunkMetadataMemoryBudget > 0) {
+      for (ChunkMetadata chunkMetadata : chunkMetadataList) {
+        chunkMetadataRamSize +=
+            ChunkMetadata.calculateRamSize(
+                chunkMetadata.getMeasurementUid(), chunkMetadata.getDataType());
+      }
+    }
     currentChunkGroupDeviceId = null;
     chunkMetadataList = null;
     out.flush();
+    if (chunkMetadataMemoryBudget > 0 && chunkMetadataRamSize > chunkMetadataMemoryBudget) {
+      spillChunkMetadata();
+    }
+  }
+
+  /** write the chunk metadata of the flushed ChunkGroups to the spill file as a sorted run. */
+  private void spillChunkMetadata() throws IOException {
+    if (chunkMetadataSpillFile == null) {
+      File spillFile =
+          file != null
+              ? new File(file.getPath() + ChunkMetadataSpillFile.SPILL_FILE_SUFFIX)
+              : File.createTempFile("tsfile", ChunkMetadataSpillFile.SPILL_FILE_SUFFIX);
+      chunkMetadataSpillFile = new ChunkMetadataSpillFile(spillFile);
+    }
+    if (logger.isDebugEnabled()) {
+      logger.debug(
+          "spill {} bytes of chunk metadata of {} chunk groups",
+          chunkMetadataRamSize,
+          chunkGroupMetadataList.size());
+    }
+    chunkMetadataSpillFile.writeRun(chunkGroupMetadataList);
+    chunkGroupMetadataList.clear();
+    chunkMetadataRamSize = 0;
   }
 
   /**
@@ -211,6 +248,7 @@ public class TsFileIOWriter {
             chunkHeader.getDataType(),
             out.getPosition(),
             chunkMetadata.getStatistics());
+    currentChunkMetadata.setPageValueIndex(chunk.getPageValueIndex());
     chunkHeader.serializeTo(out.wrapAsStream());
     out.write(chunk.getData());
     endCurrentChunk();
@@ -222,6 +260,15 @@ public class TsFileIOWriter {
     }
   }
 
+  /**
+   * set the value bloom filters of the pages of the chunk being flushed.
+   *
+   * @param pageValueIndex index of the pages, null if the chunk has none
+   */
+  public void setCurrentChunkPageValueIndex(PageValueIndex pageValueIndex) {
+    currentChunkMetadata.setPageValueIndex(pageValueIndex);
+  }
+
   /** end chunk and write some log. */
   public void endCurrentChunk() {
     chunkMetadataList.add(currentChunkMetadata);
@@ -240,22 +287,39 @@ public class TsFileIOWriter {
     // serialize the SEPARATOR of MetaData
     ReadWriteIOUtils.write(MetaMarker.SEPARATOR, out.wrapAsStream());
 
-    // group ChunkMetadata by series
-    Map<Path, List<IChunkMetadata>> chunkMetadataListMap = new TreeMap<>();
-
-    for (ChunkGroupMetadata chunkGroupMetadata : chunkGroupMetadataList) {
-      List<ChunkMetadata> chunkMetadatas = chunkGroupMetadata.getChunkMetadataList();
-      for (IChunkMetadata chunkMetadata : chunkMetadatas) {
-        Path series = new Path(chunkGroupMetadata.getDevice(), chunkMetadata.getMeasurementUid());
-        chunkMetadataListMap.computeIfAbsent(series, k -> new ArrayList<>()).add(chunkMetadata);
+    Set<Path> paths;
+    MetadataIndexNode metadataIndex;
+    if (chunkMetadataSpillFile == null) {
+      // group ChunkMetadata by series
+      Map<Path, List<IChunkMetadata>> chunkMetadataListMap = new TreeMap<>();
+
+      for (ChunkGroupMetadata chunkGroupMetadata : chunkGroupMetadataList) {
+        List<ChunkMetadata> chunkMetadatas = chunkGroupMetadata.getChunkMetadataList();
+        for (IChunkMetadata chunkMetadata : chunkMetadatas) {
+          Path series = new Path(chunkGroupMetadata.getDevice(), chunkMetadata.getMeasurementUid());
+          chunkMetadataListMap.computeIfAbsent(series, k -> new ArrayList<>()).add(chunkMetadata);
+        }
       }
-    }
 
-    MetadataIndexNode metadataIndex = flushMetadataIndex(chunkMetadataListMap);
+      metadataIndex = flushMetadataIndex(chunkMetadataListMap);
+      paths = chunkMetadataListMap.keySet();
+    } else {
+      paths = new HashSet<>();
+      metadataIndex = flushSpilledMetadataIndex(paths);
+    }
     TsFileMetadata tsFileMetaData = new TsFileMetadata();
     tsFileMetaData.setMetadataIndex(metadataIndex);
     tsFileMetaData.setMetaOffset(metaOffset);
 
+    // split the bloom filter by device if the file has too many series for one filter
+    int bloomFilterBlockSeriesNum =
+        TSFileDescriptor.getInstance().getConfig().getBloomFilterBlockSeriesNum();
+    if (bloomFilterBlockSeriesNum > 0 && paths.size() > bloomFilterBlockSeriesNum) {
+      tsFileMetaData.setBloomFilterBlockIndex(
+          BloomFilterBlockIndex.serializeBlocks(
+              out.wrapAsStream(), out.getPosition(), paths, bloomFilterBlockSeriesNum));
+    }
+
     long footerIndex = out.getPosition();
     if (logger.isDebugEnabled()) {
       logger.debug("start to flush the footer,file pos:{}", footerIndex);
@@ -268,7 +332,7 @@ public class TsFileIOWriter {
     }
 
     // write bloom filter
-    size += tsFileMetaData.serializeBloomFilter(out.wrapAsStream(), chunkMetadataListMap.keySet());
+    size += tsFileMetaData.serializeBloomFilter(out.wrapAsStream(), paths);
     if (logger.isDebugEnabled()) {
       logger.debug("finish flushing the bloom filter file pos:{}", out.getPosition());
     }
@@ -301,7 +365,9 @@ public class TsFileIOWriter {
     // create device -> TimeseriesMetaDataList Map
     for (Map.Entry<Path, List<IChunkMetadata>> entry : chunkMetadataListMap.entrySet()) {
       // for ordinary path
-      flushOneChunkMetadata(entry.getKey(), entry.getValue());
+      deviceTimeseriesMetadataMap
+          .computeIfAbsent(entry.getKey().getDevice(), k -> new ArrayList<>())
+          .add(constructOneTimeseriesMetadata(entry.getKey().getMeasurement(), entry.getValue()));
     }
 
     // construct TsFileMetadata and return
@@ -309,13 +375,62 @@ public class TsFileIOWriter {
   }
 
   /**
-   * Flush one chunkMetadata
+   * Flush TsFileMetadata from the spilled runs of chunk metadata, which are merged series by series
+   * so that only the chunk metadata of one series are in memory at a time.
    *
-   * @param path Path of chunk
-   * @param chunkMetadataList List of chunkMetadata about path(previous param)
+   * @param paths to collect all series of the file
+   * @return MetadataIndexEntry list in TsFileMetadata
    */
-  private void flushOneChunkMetadata(Path path, List<IChunkMetadata> chunkMetadataList)
-      throws IOException {
+  private MetadataIndexNode flushSpilledMetadataIndex(Set<Path> paths) throws IOException {
+    chunkMetadataSpillFile.writeRun(chunkGroupMetadataList);
+    chunkGroupMetadataList.clear();
+    chunkMetadataRamSize = 0;
+
+    Map<String, MetadataIndexNode> deviceMetadataIndexMap = new TreeMap<>();
+    try (ChunkMetadataSpillFile.Merger merger = chunkMetadataSpillFile.merge()) {
+      while (merger.hasNext()) {
+        String device = merger.currentDevice();
+        Iterator<TimeseriesMetadata> timeseriesMetadataIterator =
+            new Iterator<TimeseriesMetadata>() {
+              @Override
+              public boolean hasNext() {
+                return merger.hasNext() && merger.currentDevice().equals(device);
+              }
+
+              @Override
+              public TimeseriesMetadata next() {
+                String measurement = merger.currentMeasurement();
+                paths.add(new Path(device, measurement));
+                try {
+                  return constructOneTimeseriesMetadata(measurement, merger.next());
+                } catch (IOException e) {
+                  throw new UncheckedIOException(e);
+                }
+              }
+            };
+        try {
+          deviceMetadataIndexMap.put(
+              device,
+              MetadataIndexConstructor.constructMeasurementIndex(timeseriesMetadataIterator, out));
+        } catch (UncheckedIOException e) {
+          throw e.getCause();
+        }
+      }
+    } finally {
+      chunkMetadataSpillFile.close();
+      chunkMetadataSpillFile = null;
+    }
+    return MetadataIndexConstructor.constructDeviceIndex(deviceMetadataIndexMap, out);
+  }
+
+  /**
+   * Construct the TimeseriesMetadata of one series
+   *
+   * @param measurement measurement of the series
+   * @param chunkMetadataList List of chunkMetadata of the series
+   */
+  private TimeseriesMetadata constructOneTimeseriesMetadata(
+      String measurement, List<IChunkMetadata> chunkMetadataList) throws IOException {
     // create TimeseriesMetaData
     PublicBAOS publicBAOS = new PublicBAOS();
     TSDataType dataType = chunkMetadataList.get(chunkMetadataList.size() - 1).getDataType();
@@ -323,27 +438,36 @@ public class TsFileIOWriter {
 
     int chunkMetadataListLength = 0;
     boolean serializeStatistic = (chunkMetadataList.size() > 1);
+    boolean serializePageValueIndex = false;
+    for (IChunkMetadata chunkMetadata : chunkMetadataList) {
+      if (chunkMetadata.getDataType().equals(dataType)
+          && chunkMetadata.getPageValueIndex() != null) {
+        serializePageValueIndex = true;
+        break;
+      }
+    }
     // flush chunkMetadataList one by one
     for (IChunkMetadata chunkMetadata : chunkMetadataList) {
       if (!chunkMetadata.getDataType().equals(dataType)) {
         continue;
       }
-      chunkMetadataListLength += chunkMetadata.serializeTo(publicBAOS, serializeStatistic);
+      chunkMetadataListLength +=
+          chunkMetadata.serializeTo(publicBAOS, serializeStatistic, serializePageValueIndex);
       seriesStatistics.mergeStatistics(chunkMetadata.getStatistics());
     }
 
     TimeseriesMetadata timeseriesMetadata =
         new TimeseriesMetadata(
             (byte)
-                ((serializeStatistic ? (byte) 1 : (byte) 0) | chunkMetadataList.get(0).getMask()),
+                ((serializeStatistic ? (byte) 1 : (byte) 0)
+                    | (serializePageValueIndex ? TimeseriesMetadata.PAGE_VALUE_INDEX_MASK : 0)
+                    | chunkMetadataList.get(0).getMask()),
             chunkMetadataListLength,
-            path.getMeasurement(),
+            measurement,
             dataType,
             seriesStatistics,
             publicBAOS);
-    deviceTimeseriesMetadataMap
-        .computeIfAbsent(path.getDevice(), k -> new ArrayList<>())
-        .add(timeseriesMetadata);
+    return timeseriesMetadata;
   }
 
   /**
@@ -387,6 +511,10 @@ public class TsFileIOWriter {
   public void close() throws IOException {
     canWrite = false;
     out.close();
+    if (chunkMetadataSpillFile != null) {
+      chunkMetadataSpillFile.close();
+      chunkMetadataSpillFile = null;
+    }
   }
 
   void writeSeparatorMaskForTest() throws IOException {
@@ -397,6 +525,19 @@ public class TsFileIOWriter {
     out.write(new byte[] {MetaMarker.CHUNK_GROUP_HEADER});
   }
 
+  /**
+   * Bound the memory used by the chunk metadata of this file. Once it is exceeded, the chunk
+   * metadata of the flushed ChunkGroups are spilled to a temporary file, which is merged and
+   * deleted by {@link #endFile()}. Spilled chunk metadata are no longer returned by {@link
+   * #getDeviceChunkMetadataMap()} or filtered by {@link #filterChunks(Map)}, and {@link
+   * #getDeviceTimeseriesMetadataMap()} is not maintained if any has been spilled.
+   *
+   * @param chunkMetadataMemoryBudget budget in bytes, 0 for keeping all in memory
+   */
+  public void setChunkMetadataMemoryBudget(long chunkMetadataMemoryBudget) {
+    this.chunkMetadataMemoryBudget = chunkMetadataMemoryBudget;
+  }
+
   public File getFile() {
     return file;
   }
@@ -20,6 +20,7 @@ package org.apache.iotdb.tsfile.compress;
 
 import org.apache.iotdb.tsfile.compress.ICompressor.IOTDBLZ4Compressor;
 import org.apache.iotdb.tsfile.compress.IUnCompressor.LZ4UnCompressor;
+import org.apache.iotdb.tsfile.file.metadata.enums.CompressionType;
 
 import org.junit.After;
 import org.junit.Assert;
@@ -80,4 +81,19 @@ public class LZ4Test {
     byte[] uncompressed = unCompressor.uncompress(compressed);
     Assert.assertArrayEquals(uncom, uncompressed);
   }
+
+  @Test
+  public void testLZ4HC() throws IOException {
+    ICompressor compressor = ICompressor.getCompressor(CompressionType.LZ4HC);
+    IUnCompressor unCompressor = IUnCompressor.getUnCompressor(CompressionType.LZ4HC);
+    Assert.assertEquals(CompressionType.LZ4HC, compressor.getType());
+    Assert.assertEquals(CompressionType.LZ4HC, unCompressor.getCodecName());
+
+    String input = randomString(500000);
+    byte[] uncom = input.getBytes(StandardCharsets.UTF_8);
+    byte[] compressed = compressor.compress(uncom);
+    byte[] uncompressed = new byte[uncom.length];
+    unCompressor.uncompress(compressed, 0, compressed.length, uncompressed, 0);
+    Assert.assertArrayEquals(uncom, uncompressed);
+  }
 }
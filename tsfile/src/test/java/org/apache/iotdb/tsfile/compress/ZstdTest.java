@@ -0,0 +1,121 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.iotdb.tsfile.compress;
+
+import org.apache.iotdb.tsfile.common.conf.TSFileDescriptor;
+import org.apache.iotdb.tsfile.compress.ICompressor.ZstdCompressor;
+import org.apache.iotdb.tsfile.compress.IUnCompressor.ZstdUnCompressor;
+import org.apache.iotdb.tsfile.file.metadata.enums.CompressionType;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.concurrent.ThreadLocalRandom;
+
+public class ZstdTest {
+
+  private String randomString(int length) {
+    StringBuilder builder = new StringBuilder(length);
+    for (int i = 0; i < length; i++) {
+      builder.append((char) (ThreadLocalRandom.current().nextInt(33, 128)));
+    }
+    return builder.toString();
+  }
+
+  @Test
+  public void testBytes1() throws IOException {
+    String input = randomString(2000000);
+    byte[] uncom = input.getBytes(StandardCharsets.UTF_8);
+    ICompressor compressor = new ZstdCompressor();
+    byte[] compressed = compressor.compress(uncom);
+
+    IUnCompressor unCompressor = new ZstdUnCompressor();
+    Assert.assertEquals(
+        uncom.length, unCompressor.getUncompressedLength(compressed, 0, compressed.length));
+    byte[] uncompressed = new byte[uncom.length];
+    Assert.assertEquals(
+        uncom.length, unCompressor.uncompress(compressed, 0, compressed.length, uncompressed, 0));
+    Assert.assertArrayEquals(uncom, uncompressed);
+  }
+
+  @Test
+  public void testBytes2() throws IOException {
+    ICompressor compressor = new ZstdCompressor(19);
+    IUnCompressor unCompressor = new ZstdUnCompressor();
+
+    String input = randomString(500000);
+    byte[] uncom = input.getBytes(StandardCharsets.UTF_8);
+    byte[] compressed = compressor.compress(uncom, 0, uncom.length);
+    // length should be same
+    Assert.assertEquals(compressor.compress(uncom).length, compressed.length);
+    Assert.assertArrayEquals(uncom, unCompressor.uncompress(compressed));
+  }
+
+  @Test
+  public void testByteBuffer() throws IOException {
+    ICompressor compressor = new ZstdCompressor();
+    IUnCompressor unCompressor = new ZstdUnCompressor();
+
+    byte[] uncom = randomString(10000).getBytes(StandardCharsets.UTF_8);
+    ByteBuffer source = ByteBuffer.wrap(uncom);
+    ByteBuffer compressed = ByteBuffer.allocate(compressor.getMaxBytesForCompression(uncom.length));
+    int compressedSize = compressor.compress(source, compressed);
+    compressed.flip();
+    Assert.assertEquals(compressedSize, compressed.remaining());
+
+    ByteBuffer uncompressed = ByteBuffer.allocate(unCompressor.getUncompressedLength(compressed));
+    Assert.assertEquals(uncom.length, unCompressor.uncompress(compressed, uncompressed));
+    Assert.assertArrayEquals(uncom, uncompressed.array());
+  }
+
+  @Test
+  public void testCompressionLevelFromProps() {
+    int defaultLevel = TSFileDescriptor.getInstance().getConfig().getZstdCompressionLevel();
+    Assert.assertEquals(
+        defaultLevel,
+        ((ZstdCompressor) ICompressor.getCompressor(CompressionType.ZSTD, null))
+            .getCompressionLevel());
+    Assert.assertEquals(
+        12,
+        ((ZstdCompressor)
+                ICompressor.getCompressor(
+                    CompressionType.ZSTD,
+                    Collections.singletonMap(ICompressor.COMPRESSION_LEVEL, "12")))
+            .getCompressionLevel());
+    // out of range and malformed levels fall back to the default one
+    Assert.assertEquals(
+        defaultLevel,
+        ((ZstdCompressor)
+                ICompressor.getCompressor(
+                    CompressionType.ZSTD,
+                    Collections.singletonMap(ICompressor.COMPRESSION_LEVEL, "23")))
+            .getCompressionLevel());
+    Assert.assertEquals(
+        defaultLevel,
+        ((ZstdCompressor)
+                ICompressor.getCompressor(
+                    CompressionType.ZSTD,
+                    Collections.singletonMap(ICompressor.COMPRESSION_LEVEL, "high")))
+            .getCompressionLevel());
+  }
+}
@@ -0,0 +1,337 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.iotdb.tsfile.encoding;
+
+import org.apache.iotdb.tsfile.common.conf.TSFileConfig;
+import org.apache.iotdb.tsfile.common.conf.TSFileDescriptor;
+import org.apache.iotdb.tsfile.encoding.decoder.Decoder;
+import org.apache.iotdb.tsfile.encoding.encoder.AutoEncoder;
+import org.apache.iotdb.tsfile.encoding.encoder.TSEncodingBuilder;
+import org.apache.iotdb.tsfile.exception.encoding.TsFileEncodingException;
+import org.apache.iotdb.tsfile.file.metadata.ChunkMetadata;
+import org.apache.iotdb.tsfile.file.metadata.enums.TSDataType;
+import org.apache.iotdb.tsfile.file.metadata.enums.TSEncoding;
+import org.apache.iotdb.tsfile.fileSystem.FSFactoryProducer;
+import org.apache.iotdb.tsfile.read.TsFileSequenceReader;
+import org.apache.iotdb.tsfile.read.common.BatchData;
+import org.apache.iotdb.tsfile.read.common.Chunk;
+import org.apache.iotdb.tsfile.read.common.Path;
+import org.apache.iotdb.tsfile.read.reader.chunk.ChunkReader;
+import org.apache.iotdb.tsfile.utils.Binary;
+import org.apache.iotdb.tsfile.utils.PublicBAOS;
+import org.apache.iotdb.tsfile.write.TsFileWriter;
+import org.apache.iotdb.tsfile.write.record.TSRecord;
+import org.apache.iotdb.tsfile.write.record.datapoint.LongDataPoint;
+import org.apache.iotdb.tsfile.write.schema.MeasurementSchema;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class AutoEncoderTest {
+
+  private static final int ROW_NUM = 3 * AutoEncoder.SAMPLE_SIZE + 100;
+  private static final int PAGE_SIZE = 1000;
+
+  private final File file = FSFactoryProducer.getFSFactory().getFile("AutoEncoderTest.tsfile");
+
+  private final TSFileConfig config = TSFileDescriptor.getInstance().getConfig();
+  private int groupSizeInByte;
+  private int pageSizeInByte;
+  private int maxNumberOfPointsInPage;
+
+  @Before
+  public void setUp() {
+    groupSizeInByte = config.getGroupSizeInByte();
+    pageSizeInByte = config.getPageSizeInByte();
+    maxNumberOfPointsInPage = config.getMaxNumberOfPointsInPage();
+    config.setGroupSizeInByte(128 * 1024 * 1024);
+    config.setPageSizeInByte(64 * 1024);
+    config.setMaxNumberOfPointsInPage(PAGE_SIZE);
+  }
+
+  @After
+  public void tearDown() {
+    config.setGroupSizeInByte(groupSizeInByte);
+    config.setPageSizeInByte(pageSizeInByte);
+    config.setMaxNumberOfPointsInPage(maxNumberOfPointsInPage);
+    if (file.exists()) {
+      file.delete();
+    }
+  }
+
+  @Test
+  public void testSelectTs2Diff() throws IOException {
+    long[] values = new long[ROW_NUM];
+    for (int i = 0; i < ROW_NUM; i++) {
+      // a counter
+      values[i] = 1000000L + i * 10L;
+    }
+    AutoEncoder encoder = newEncoder(TSDataType.INT64);
+    List<ByteBuffer> pages = new ArrayList<>();
+    PublicBAOS out = new PublicBAOS();
+    for (int i = 0; i < ROW_NUM; i++) {
+      encoder.encode(values[i], out);
+      flushPageIfNeeded(encoder, i, out, pages);
+    }
+    flushPage(encoder, out, pages);
+
+    assertEquals(TSEncoding.TS_2DIFF, encoder.getSelectedEncoding());
+    assertEquals((long) ROW_NUM * Long.BYTES, encoder.getRawSize());
+    assertTrue(encoder.getEncodedSize() < encoder.getRawSize() / 10);
+    Decoder decoder = Decoder.getDecoderByType(encoder.getSelectedEncoding(), TSDataType.INT64);
+    int index = 0;
+    for (ByteBuffer page : pages) {
+      decoder.reset();
+      while (decoder.hasNext(page)) {
+        assertEquals(values[index++], decoder.readLong(page));
+      }
+    }
+    assertEquals(ROW_NUM, index);
+  }
+
+  @Test
+  public void testSelectRle() throws IOException {
+    Random random = new Random(1);
+    int[] values = new int[ROW_NUM];
+    boolean[] booleans = new boolean[ROW_NUM];
+    for (int i = 0; i < ROW_NUM; i++) {
+      values[i] = random.nextInt(4);
+      booleans[i] = i / 500 % 2 == 0;
+    }
+    AutoEncoder encoder = newEncoder(TSDataType.INT32);
+    AutoEncoder booleanEncoder = newEncoder(TSDataType.BOOLEAN);
+    List<ByteBuffer> pages = new ArrayList<>();
+    List<ByteBuffer> booleanPages = new ArrayList<>();
+    PublicBAOS out = new PublicBAOS();
+    PublicBAOS booleanOut = new PublicBAOS();
+    for (int i = 0; i < ROW_NUM; i++) {
+      encoder.encode(values[i], out);
+      booleanEncoder.encode(booleans[i], booleanOut);
+      flushPageIfNeeded(encoder, i, out, pages);
+      flushPageIfNeeded(booleanEncoder, i, booleanOut, booleanPages);
+    }
+    flushPage(encoder, out, pages);
+    flushPage(booleanEncoder, booleanOut, booleanPages);
+
+    assertEquals(TSEncoding.RLE, encoder.getSelectedEncoding());
+    assertEquals(TSEncoding.RLE, booleanEncoder.getSelectedEncoding());
+    Decoder decoder = Decoder.getDecoderByType(TSEncoding.RLE, TSDataType.INT32);
+    Decoder booleanDecoder = Decoder.getDecoderByType(TSEncoding.RLE, TSDataType.BOOLEAN);
+    int index = 0;
+    for (int i = 0; i < pages.size(); i++) {
+      decoder.reset();
+      booleanDecoder.reset();
+      while (decoder.hasNext(pages.get(i))) {
+        assertEquals(values[index], decoder.readInt(pages.get(i)));
+        assertEquals(booleans[index], booleanDecoder.readBoolean(booleanPages.get(i)));
+        index++;
+      }
+      assertFalse(booleanDecoder.hasNext(booleanPages.get(i)));
+    }
+    assertEquals(ROW_NUM, index);
+  }
+
+  @Test
+  public void testSelectFloatingAndText() throws IOException {
+    Random random = new Random(2);
+    double[] values = new double[ROW_NUM];
+    Binary[] texts = new Binary[ROW_NUM];
+    String[] states = {"running", "stopped", "maintaining"};
+    for (int i = 0; i < ROW_NUM; i++) {
+      values[i] = random.nextInt(100000) / 100.0;
+      texts[i] = new Binary(states[random.nextInt(states.length)]);
+    }
+    AutoEncoder encoder = newEncoder(TSDataType.DOUBLE);
+    AutoEncoder textEncoder = newEncoder(TSDataType.TEXT);
+    List<ByteBuffer> pages = new ArrayList<>();
+    List<ByteBuffer> textPages = new ArrayList<>();
+    PublicBAOS out = new PublicBAOS();
+    PublicBAOS textOut = new PublicBAOS();
+    for (int i = 0; i < ROW_NUM; i++) {
+      encoder.encode(values[i], out);
+      textEncoder.encode(texts[i], textOut);
+      flushPageIfNeeded(encoder, i, out, pages);
+      flushPageIfNeeded(textEncoder, i, textOut, textPages);
+    }
+    flushPage(encoder, out, pages);
+    flushPage(textEncoder, textOut, textPages);
+
+    assertEquals(TSEncoding.ALP, encoder.getSelectedEncoding());
+    assertEquals(TSEncoding.DICTIONARY, textEncoder.getSelectedEncoding());
+    Decoder decoder = Decoder.getDecoderByType(TSEncoding.ALP, TSDataType.DOUBLE);
+    Decoder textDecoder = Decoder.getDecoderByType(TSEncoding.DICTIONARY, TSDataType.TEXT);
+    int index = 0;
+    for (int i = 0; i < pages.size(); i++) {
+      decoder.reset();
+      textDecoder.reset();
+      while (decoder.hasNext(pages.get(i))) {
+        assertEquals(values[index], decoder.readDouble(pages.get(i)), 0);
+        assertEquals(texts[index], textDecoder.readBinary(textPages.get(i)));
+        index++;
+      }
+    }
+    assertEquals(ROW_NUM, index);
+  }
+
+  @Test
+  public void testFewValues() throws IOException {
+    AutoEncoder encoder = newEncoder(TSDataType.FLOAT);
+    PublicBAOS out = new PublicBAOS();
+    assertFalse(encoder.isSelected());
+    assertEquals(TSEncoding.PLAIN, encoder.getSelectedEncoding());
+    for (int i = 0; i < 10; i++) {
+      encoder.encode(i * 0.5f, out);
+    }
+    // values are buffered until the page is flushed
+    assertEquals(0, out.size());
+    assertEquals(10 * Float.BYTES, encoder.getMaxByteSize());
+    encoder.flush(out);
+    assertTrue(encoder.isSelected());
+    assertEquals(out.size(), encoder.getEncodedSize());
+
+    ByteBuffer page = ByteBuffer.wrap(out.toByteArray());
+    Decoder decoder = Decoder.getDecoderByType(encoder.getSelectedEncoding(), TSDataType.FLOAT);
+    for (int i = 0; i < 10; i++) {
+      assertEquals(i * 0.5f, decoder.readFloat(page), 0);
+    }
+    assertFalse(decoder.hasNext(page));
+
+    encoder.reset();
+    assertFalse(encoder.isSelected());
+    assertEquals(0, encoder.getRawSize());
+    assertEquals(0, encoder.getEncodedSize());
+  }
+
+  @Test
+  public void testSelectEncodingOfCopiedPages() throws IOException {
+    AutoEncoder encoder = newEncoder(TSDataType.INT64);
+    encoder.select(TSEncoding.RLE);
+    assertTrue(encoder.isSelected());
+    assertEquals(TSEncoding.RLE, encoder.getSelectedEncoding());
+    // selecting the same encoding again is allowed, another one is not
+    encoder.select(TSEncoding.RLE);
+    try {
+      encoder.select(TSEncoding.PLAIN);
+      fail();
+    } catch (TsFileEncodingException e) {
+      assertEquals(TSEncoding.RLE, encoder.getSelectedEncoding());
+    }
+
+    // values written after the copied pages use the selected encoding
+    PublicBAOS out = new PublicBAOS();
+    for (int i = 0; i < PAGE_SIZE; i++) {
+      encoder.encode(i % 3L, out);
+    }
+    encoder.flush(out);
+    ByteBuffer page = ByteBuffer.wrap(out.toByteArray());
+    Decoder decoder = Decoder.getDecoderByType(TSEncoding.RLE, TSDataType.INT64);
+    for (int i = 0; i < PAGE_SIZE; i++) {
+      assertEquals(i % 3L, decoder.readLong(page));
+    }
+    assertFalse(decoder.hasNext(page));
+
+    // AUTO only selects its candidates
+    encoder.reset();
+    try {
+      encoder.select(TSEncoding.GORILLA);
+      fail();
+    } catch (TsFileEncodingException e) {
+      assertFalse(encoder.isSelected());
+    }
+  }
+
+  @Test
+  public void testEncodingOfEachChunk() throws Exception {
+    Path path = new Path("root.sg.d1", "s1");
+    Random random = new Random(3);
+    long[] values = new long[2 * ROW_NUM];
+    try (TsFileWriter writer = new TsFileWriter(file)) {
+      writer.registerTimeseries(
+          new Path(path.getDevice()),
+          new MeasurementSchema(path.getMeasurement(), TSDataType.INT64, TSEncoding.AUTO));
+      for (int i = 0; i < 2 * ROW_NUM; i++) {
+        // a counter in the first chunk, and a state in the second chunk
+        values[i] = i < ROW_NUM ? i * 10L : random.nextInt(4);
+        TSRecord record = new TSRecord(i, path.getDevice());
+        record.addTuple(new LongDataPoint(path.getMeasurement(), values[i]));
+        writer.write(record);
+        if (i == ROW_NUM - 1) {
+          writer.flushAllChunkGroups();
+        }
+      }
+    }
+
+    try (TsFileSequenceReader reader = new TsFileSequenceReader(file.getPath())) {
+      List<ChunkMetadata> chunkMetadataList = reader.getChunkMetadataList(path);
+      assertEquals(2, chunkMetadataList.size());
+      TSEncoding[] expected = {TSEncoding.TS_2DIFF, TSEncoding.RLE};
+      int index = 0;
+      for (int i = 0; i < chunkMetadataList.size(); i++) {
+        Chunk chunk = reader.readMemChunk(chunkMetadataList.get(i));
+        assertEquals(expected[i], chunk.getHeader().getEncodingType());
+        ChunkReader chunkReader = new ChunkReader(chunk, null);
+        while (chunkReader.hasNextSatisfiedPage()) {
+          BatchData batchData = chunkReader.nextPageData();
+          while (batchData.hasCurrent()) {
+            assertEquals(index, batchData.currentTime());
+            assertEquals(values[index], batchData.getLong());
+            index++;
+            batchData.next();
+          }
+        }
+      }
+      assertEquals(2 * ROW_NUM, index);
+    }
+  }
+
+  private static AutoEncoder newEncoder(TSDataType dataType) {
+    TSEncodingBuilder builder = TSEncodingBuilder.getEncodingBuilder(TSEncoding.AUTO);
+    builder.initFromProps(null);
+    return (AutoEncoder) builder.getEncoder(dataType);
+  }
+
+  private static void flushPageIfNeeded(
+      AutoEncoder encoder, int index, PublicBAOS out, List<ByteBuffer> pages) throws IOException {
+    if ((index + 1) % PAGE_SIZE == 0) {
+      flushPage(encoder, out, pages);
+    }
+  }
+
+  private static void flushPage(AutoEncoder encoder, PublicBAOS out, List<ByteBuffer> pages)
+      throws IOException {
+    encoder.flush(out);
+    if (out.size() > 0) {
+      pages.add(ByteBuffer.wrap(out.toByteArray()));
+    }
+    out.reset();
+  }
+}
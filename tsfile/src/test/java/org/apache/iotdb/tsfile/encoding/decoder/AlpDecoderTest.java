@@ -0,0 +1,196 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.iotdb.tsfile.encoding.decoder;
+
+import org.apache.iotdb.tsfile.encoding.encoder.AlpEncoder;
+import org.apache.iotdb.tsfile.encoding.encoder.DoubleAlpEncoder;
+import org.apache.iotdb.tsfile.encoding.encoder.Encoder;
+import org.apache.iotdb.tsfile.encoding.encoder.FloatAlpEncoder;
+
+import org.junit.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class AlpDecoderTest {
+
+  private static final int ROW_NUM = 3 * AlpEncoder.VECTOR_SIZE + 17;
+
+  @Test
+  public void testDoubleSingleValue() throws IOException {
+    testDouble(new double[] {12.34});
+  }
+
+  @Test
+  public void testDoubleDecimals() throws IOException {
+    double[] values = new double[ROW_NUM];
+    Random random = new Random(1);
+    for (int i = 0; i < ROW_NUM; i++) {
+      values[i] = (random.nextInt(200000) - 100000) / 100.0;
+    }
+    int size = testDouble(values);
+    // two decimal places need far less than 64 bits
+    assertTrue(size < ROW_NUM * Long.BYTES / 2);
+  }
+
+  @Test
+  public void testDoubleIntegers() throws IOException {
+    double[] values = new double[ROW_NUM];
+    for (int i = 0; i < ROW_NUM; i++) {
+      values[i] = 1e6 + i;
+    }
+    testDouble(values);
+  }
+
+  @Test
+  public void testDoubleExceptions() throws IOException {
+    double[] values = new double[ROW_NUM];
+    Random random = new Random(2);
+    for (int i = 0; i < ROW_NUM; i++) {
+      values[i] = random.nextInt(10000) / 1000.0;
+    }
+    values[0] = -0.0;
+    values[3] = Double.NaN;
+    values[100] = Double.POSITIVE_INFINITY;
+    values[1500] = Double.NEGATIVE_INFINITY;
+    values[2000] = Math.PI;
+    values[ROW_NUM - 1] = Double.MAX_VALUE;
+    testDouble(values);
+  }
+
+  @Test
+  public void testDoubleFallback() throws IOException {
+    double[] values = new double[ROW_NUM];
+    Random random = new Random(3);
+    for (int i = 0; i < ROW_NUM; i++) {
+      // decimals in the first vector only
+      values[i] = i < AlpEncoder.VECTOR_SIZE ? i / 4.0 : random.nextDouble();
+    }
+    testDouble(values);
+  }
+
+  @Test
+  public void testDoubleSameValue() throws IOException {
+    double[] values = new double[ROW_NUM];
+    for (int i = 0; i < ROW_NUM; i++) {
+      values[i] = 7.5;
+    }
+    testDouble(values);
+  }
+
+  @Test
+  public void testFloat() throws IOException {
+    float[] values = new float[ROW_NUM];
+    Random random = new Random(4);
+    for (int i = 0; i < ROW_NUM; i++) {
+      values[i] =
+          i < 2 * AlpEncoder.VECTOR_SIZE ? random.nextInt(5000) / 10.0f : random.nextFloat();
+    }
+    values[5] = Float.NaN;
+    values[6] = -0.0f;
+    values[7] = Float.MIN_VALUE;
+
+    Encoder encoder = new FloatAlpEncoder();
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    for (float value : values) {
+      encoder.encode(value, out);
+    }
+    encoder.flush(out);
+
+    ByteBuffer buffer = ByteBuffer.wrap(out.toByteArray());
+    Decoder decoder = new FloatAlpDecoder();
+    for (float value : values) {
+      assertEquals(
+          Float.floatToRawIntBits(value), Float.floatToRawIntBits(decoder.readFloat(buffer)));
+    }
+    assertFalse(decoder.hasNext(buffer));
+  }
+
+  @Test
+  public void testSeveralFlushes() throws IOException {
+    Encoder encoder = new DoubleAlpEncoder();
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    for (int i = 0; i < 10; i++) {
+      for (int j = 0; j <= i * 150; j++) {
+        // precision of each page is different
+        encoder.encode(j / Math.pow(10, i % 4), out);
+      }
+      encoder.flush(out);
+    }
+
+    ByteBuffer buffer = ByteBuffer.wrap(out.toByteArray());
+    Decoder decoder = new DoubleAlpDecoder();
+    for (int i = 0; i < 10; i++) {
+      for (int j = 0; j <= i * 150; j++) {
+        assertEquals(j / Math.pow(10, i % 4), decoder.readDouble(buffer), 0);
+      }
+    }
+    assertFalse(decoder.hasNext(buffer));
+  }
+
+  @Test
+  public void testBulkRead() throws IOException {
+    double[] values = new double[ROW_NUM];
+    for (int i = 0; i < ROW_NUM; i++) {
+      values[i] = i * 0.01;
+    }
+    Encoder encoder = new DoubleAlpEncoder();
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    for (double value : values) {
+      encoder.encode(value, out);
+    }
+    encoder.flush(out);
+
+    ByteBuffer buffer = ByteBuffer.wrap(out.toByteArray());
+    Decoder decoder = new DoubleAlpDecoder();
+    double[] result = new double[ROW_NUM + 10];
+    assertEquals(5, decoder.readDoubles(buffer, result, 0, 5));
+    assertEquals(ROW_NUM - 5, decoder.readDoubles(buffer, result, 5, ROW_NUM + 5));
+    for (int i = 0; i < ROW_NUM; i++) {
+      assertEquals(values[i], result[i], 0);
+    }
+    assertFalse(decoder.hasNext(buffer));
+  }
+
+  /** @return size of the encoded values */
+  private int testDouble(double[] values) throws IOException {
+    Encoder encoder = new DoubleAlpEncoder();
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    for (double value : values) {
+      encoder.encode(value, out);
+    }
+    encoder.flush(out);
+
+    ByteBuffer buffer = ByteBuffer.wrap(out.toByteArray());
+    Decoder decoder = new DoubleAlpDecoder();
+    for (double value : values) {
+      assertEquals(
+          Double.doubleToRawLongBits(value),
+          Double.doubleToRawLongBits(decoder.readDouble(buffer)));
+    }
+    assertFalse(decoder.hasNext(buffer));
+    return out.size();
+  }
+}
@@ -0,0 +1,181 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.iotdb.tsfile.encoding.decoder;
+
+import org.apache.iotdb.tsfile.encoding.encoder.ChimpEncoder;
+import org.apache.iotdb.tsfile.encoding.encoder.DoubleChimpEncoder;
+import org.apache.iotdb.tsfile.encoding.encoder.Encoder;
+import org.apache.iotdb.tsfile.encoding.encoder.FloatChimpEncoder;
+import org.apache.iotdb.tsfile.encoding.encoder.IntChimpEncoder;
+import org.apache.iotdb.tsfile.encoding.encoder.LongChimpEncoder;
+
+import org.junit.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+
+public class ChimpDecoderTest {
+
+  private static final int ROW_NUM = 3 * ChimpEncoder.BLOCK_SIZE + 17;
+
+  @Test
+  public void testDoubleSingleValue() throws IOException {
+    testDouble(new double[] {Double.MAX_VALUE});
+  }
+
+  @Test
+  public void testDoubleDecimals() throws IOException {
+    double[] values = new double[ROW_NUM];
+    Random random = new Random(1);
+    double value = 20.5;
+    for (int i = 0; i < ROW_NUM; i++) {
+      value += (random.nextInt(21) - 10) / 10.0;
+      values[i] = value;
+    }
+    testDouble(values);
+  }
+
+  @Test
+  public void testDoubleRandomAndRepeated() throws IOException {
+    double[] values = new double[ROW_NUM];
+    Random random = new Random(2);
+    for (int i = 0; i < ROW_NUM; i++) {
+      // repeat some values out of the window of previous value
+      values[i] = i % 7 == 0 ? values[i / 2] : random.nextDouble() * 1e6;
+    }
+    testDouble(values);
+  }
+
+  @Test
+  public void testDoubleSpecialValues() throws IOException {
+    testDouble(
+        new double[] {
+          0.0,
+          -0.0,
+          Double.NaN,
+          Double.POSITIVE_INFINITY,
+          Double.NEGATIVE_INFINITY,
+          Double.MIN_VALUE,
+          Double.MAX_VALUE,
+          Double.longBitsToDouble(0x7ff8000000000001L),
+          1.0,
+          1.0
+        });
+  }
+
+  @Test
+  public void testFloat() throws IOException {
+    float[] values = new float[ROW_NUM];
+    Random random = new Random(3);
+    for (int i = 0; i < ROW_NUM; i++) {
+      values[i] = i % 5 == 0 ? Float.NaN : random.nextInt(1000) / 10.0f;
+    }
+    values[1] = -0.0f;
+    values[2] = Float.NEGATIVE_INFINITY;
+
+    Encoder encoder = new FloatChimpEncoder();
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    for (float value : values) {
+      encoder.encode(value, out);
+    }
+    encoder.flush(out);
+
+    ByteBuffer buffer = ByteBuffer.wrap(out.toByteArray());
+    Decoder decoder = new FloatChimpDecoder();
+    for (float value : values) {
+      assertEquals(
+          Float.floatToRawIntBits(value), Float.floatToRawIntBits(decoder.readFloat(buffer)));
+    }
+    assertFalse(decoder.hasNext(buffer));
+  }
+
+  @Test
+  public void testIntAndLong() throws IOException {
+    Random random = new Random(4);
+    Encoder intEncoder = new IntChimpEncoder();
+    Encoder longEncoder = new LongChimpEncoder();
+    ByteArrayOutputStream intOut = new ByteArrayOutputStream();
+    ByteArrayOutputStream longOut = new ByteArrayOutputStream();
+    int[] ints = new int[ROW_NUM];
+    long[] longs = new long[ROW_NUM];
+    for (int i = 0; i < ROW_NUM; i++) {
+      ints[i] = i % 3 == 0 ? Integer.MIN_VALUE : random.nextInt();
+      longs[i] = i % 3 == 0 ? Long.MIN_VALUE : random.nextLong();
+      intEncoder.encode(ints[i], intOut);
+      longEncoder.encode(longs[i], longOut);
+    }
+    intEncoder.flush(intOut);
+    longEncoder.flush(longOut);
+
+    ByteBuffer intBuffer = ByteBuffer.wrap(intOut.toByteArray());
+    ByteBuffer longBuffer = ByteBuffer.wrap(longOut.toByteArray());
+    Decoder intDecoder = new IntChimpDecoder();
+    Decoder longDecoder = new LongChimpDecoder();
+    for (int i = 0; i < ROW_NUM; i++) {
+      assertEquals(ints[i], intDecoder.readInt(intBuffer));
+      assertEquals(longs[i], longDecoder.readLong(longBuffer));
+    }
+    assertFalse(intDecoder.hasNext(intBuffer));
+    assertFalse(longDecoder.hasNext(longBuffer));
+  }
+
+  @Test
+  public void testSeveralFlushes() throws IOException {
+    Encoder encoder = new DoubleChimpEncoder();
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    for (int i = 0; i < 10; i++) {
+      for (int j = 0; j <= i * 150; j++) {
+        encoder.encode(i * 0.25 + j, out);
+      }
+      encoder.flush(out);
+    }
+
+    ByteBuffer buffer = ByteBuffer.wrap(out.toByteArray());
+    Decoder decoder = new DoubleChimpDecoder();
+    for (int i = 0; i < 10; i++) {
+      for (int j = 0; j <= i * 150; j++) {
+        assertEquals(i * 0.25 + j, decoder.readDouble(buffer), 0);
+      }
+    }
+    assertFalse(decoder.hasNext(buffer));
+  }
+
+  private void testDouble(double[] values) throws IOException {
+    Encoder encoder = new DoubleChimpEncoder();
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    for (double value : values) {
+      encoder.encode(value, out);
+    }
+    encoder.flush(out);
+
+    ByteBuffer buffer = ByteBuffer.wrap(out.toByteArray());
+    Decoder decoder = new DoubleChimpDecoder();
+    for (double value : values) {
+      assertEquals(
+          Double.doubleToRawLongBits(value),
+          Double.doubleToRawLongBits(decoder.readDouble(buffer)));
+    }
+    assertFalse(decoder.hasNext(buffer));
+  }
+}
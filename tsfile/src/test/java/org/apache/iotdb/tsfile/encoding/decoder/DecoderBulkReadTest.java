@@ -0,0 +1,170 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.iotdb.tsfile.encoding.decoder;
+
+import org.apache.iotdb.tsfile.encoding.encoder.Encoder;
+import org.apache.iotdb.tsfile.encoding.encoder.TSEncodingBuilder;
+import org.apache.iotdb.tsfile.file.metadata.enums.TSDataType;
+import org.apache.iotdb.tsfile.file.metadata.enums.TSEncoding;
+
+import org.junit.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+
+/** Check that the bulk read methods of decoders return the same values as reading one by one. */
+public class DecoderBulkReadTest {
+
+  private static final int POINT_NUM = 10000;
+  /** odd, so that the bulk reads end in the middle of packs and runs */
+  private static final int BATCH_SIZE = 333;
+
+  private static final TSEncoding[] INTEGER_ENCODINGS = {
+    TSEncoding.PLAIN, TSEncoding.RLE, TSEncoding.TS_2DIFF, TSEncoding.GORILLA
+  };
+
+  private final Random random = new Random(42);
+
+  @Test
+  public void testLongs() throws IOException {
+    long[] values = new long[POINT_NUM];
+    for (int i = 0; i < POINT_NUM; i++) {
+      // runs of repeated values followed by random values, to cover both rle and bit-packing
+      values[i] = (i / 100) % 2 == 0 ? i / 10 : random.nextInt(1000);
+    }
+    for (TSEncoding encoding : INTEGER_ENCODINGS) {
+      Encoder encoder = TSEncodingBuilder.getEncodingBuilder(encoding).getEncoder(TSDataType.INT64);
+      ByteArrayOutputStream out = new ByteArrayOutputStream();
+      for (long value : values) {
+        encoder.encode(value, out);
+      }
+      encoder.flush(out);
+
+      Decoder decoder = Decoder.getDecoderByType(encoding, TSDataType.INT64);
+      ByteBuffer buffer = ByteBuffer.wrap(out.toByteArray());
+      long[] decoded = new long[POINT_NUM + BATCH_SIZE];
+      int count = 0;
+      int read;
+      while ((read = decoder.readLongs(buffer, decoded, count, BATCH_SIZE)) > 0) {
+        count += read;
+      }
+      assertEquals(encoding.toString(), POINT_NUM, count);
+      for (int i = 0; i < POINT_NUM; i++) {
+        assertEquals(encoding.toString(), values[i], decoded[i]);
+      }
+    }
+  }
+
+  @Test
+  public void testInts() throws IOException {
+    int[] values = new int[POINT_NUM];
+    for (int i = 0; i < POINT_NUM; i++) {
+      values[i] = (i / 100) % 2 == 0 ? i / 10 : random.nextInt(1000);
+    }
+    for (TSEncoding encoding : INTEGER_ENCODINGS) {
+      Encoder encoder = TSEncodingBuilder.getEncodingBuilder(encoding).getEncoder(TSDataType.INT32);
+      ByteArrayOutputStream out = new ByteArrayOutputStream();
+      for (int value : values) {
+        encoder.encode(value, out);
+      }
+      encoder.flush(out);
+
+      Decoder decoder = Decoder.getDecoderByType(encoding, TSDataType.INT32);
+      ByteBuffer buffer = ByteBuffer.wrap(out.toByteArray());
+      int[] decoded = new int[POINT_NUM + BATCH_SIZE];
+      int count = 0;
+      int read;
+      while ((read = decoder.readInts(buffer, decoded, count, BATCH_SIZE)) > 0) {
+        count += read;
+      }
+      assertEquals(encoding.toString(), POINT_NUM, count);
+      for (int i = 0; i < POINT_NUM; i++) {
+        assertEquals(encoding.toString(), values[i], decoded[i]);
+      }
+    }
+  }
+
+  @Test
+  public void testDoubles() throws IOException {
+    double[] values = new double[POINT_NUM];
+    for (int i = 0; i < POINT_NUM; i++) {
+      values[i] = Math.sin(i / 100.0) * 100;
+    }
+    for (TSEncoding encoding :
+        new TSEncoding[] {TSEncoding.PLAIN, TSEncoding.GORILLA, TSEncoding.RLE}) {
+      Encoder encoder =
+          TSEncodingBuilder.getEncodingBuilder(encoding).getEncoder(TSDataType.DOUBLE);
+      ByteArrayOutputStream out = new ByteArrayOutputStream();
+      for (double value : values) {
+        encoder.encode(value, out);
+      }
+      encoder.flush(out);
+
+      Decoder decoder = Decoder.getDecoderByType(encoding, TSDataType.DOUBLE);
+      Decoder pointDecoder = Decoder.getDecoderByType(encoding, TSDataType.DOUBLE);
+      ByteBuffer buffer = ByteBuffer.wrap(out.toByteArray());
+      ByteBuffer pointBuffer = ByteBuffer.wrap(out.toByteArray());
+      double[] decoded = new double[POINT_NUM + BATCH_SIZE];
+      int count = 0;
+      int read;
+      while ((read = decoder.readDoubles(buffer, decoded, count, BATCH_SIZE)) > 0) {
+        count += read;
+      }
+      assertEquals(encoding.toString(), POINT_NUM, count);
+      // lossy encodings must give the same results as decoding point by point
+      for (int i = 0; i < POINT_NUM; i++) {
+        assertEquals(encoding.toString(), pointDecoder.readDouble(pointBuffer), decoded[i], 0);
+      }
+    }
+  }
+
+  @Test
+  public void testBooleans() throws IOException {
+    boolean[] values = new boolean[POINT_NUM];
+    for (int i = 0; i < POINT_NUM; i++) {
+      values[i] = (i / 100) % 2 == 0 ? i % 3 == 0 : random.nextBoolean();
+    }
+    for (TSEncoding encoding : new TSEncoding[] {TSEncoding.PLAIN, TSEncoding.RLE}) {
+      Encoder encoder =
+          TSEncodingBuilder.getEncodingBuilder(encoding).getEncoder(TSDataType.BOOLEAN);
+      ByteArrayOutputStream out = new ByteArrayOutputStream();
+      for (boolean value : values) {
+        encoder.encode(value, out);
+      }
+      encoder.flush(out);
+
+      Decoder decoder = Decoder.getDecoderByType(encoding, TSDataType.BOOLEAN);
+      ByteBuffer buffer = ByteBuffer.wrap(out.toByteArray());
+      boolean[] decoded = new boolean[POINT_NUM + BATCH_SIZE];
+      int count = 0;
+      int read;
+      while ((read = decoder.readBooleans(buffer, decoded, count, BATCH_SIZE)) > 0) {
+        count += read;
+      }
+      assertEquals(encoding.toString(), POINT_NUM, count);
+      for (int i = 0; i < POINT_NUM; i++) {
+        assertEquals(encoding.toString(), values[i], decoded[i]);
+      }
+    }
+  }
+}
@@ -66,6 +66,28 @@ public class DictionaryDecoderTest {
     testAll(allChars);
   }
 
+  @Test
+  public void testInternedCodes() {
+    // codes given by a caller dictionary, not starting from 0 and not dense
+    int[] codes = {7, 3, 7, 100, 3, 0};
+    String[] values = {"x", "y", "x", "z", "y", "w"};
+    // two pages, the page dictionary is rebuilt after a flush
+    for (int page = 0; page < 2; page++) {
+      for (int i = 0; i < codes.length; i++) {
+        encoder.encode(codes[i], new Binary(values[i]), baos);
+      }
+      encoder.flush(baos);
+
+      ByteBuffer out = ByteBuffer.wrap(baos.toByteArray());
+      for (String s : values) {
+        assertTrue(decoder.hasNext(out));
+        assertEquals(s, decoder.readBinary(out).getStringValue());
+      }
+      decoder.reset();
+      baos.reset();
+    }
+  }
+
   private void testAll(String... all) {
     for (String s : all) {
       encoder.encode(new Binary(s), baos);
@@ -0,0 +1,163 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.iotdb.tsfile.file.metadata;
+
+import org.apache.iotdb.tsfile.common.conf.TSFileConfig;
+import org.apache.iotdb.tsfile.common.conf.TSFileDescriptor;
+import org.apache.iotdb.tsfile.file.metadata.enums.TSDataType;
+import org.apache.iotdb.tsfile.file.metadata.enums.TSEncoding;
+import org.apache.iotdb.tsfile.fileSystem.FSFactoryProducer;
+import org.apache.iotdb.tsfile.read.TsFileReader;
+import org.apache.iotdb.tsfile.read.TsFileSequenceReader;
+import org.apache.iotdb.tsfile.read.common.Path;
+import org.apache.iotdb.tsfile.read.expression.QueryExpression;
+import org.apache.iotdb.tsfile.read.query.dataset.QueryDataSet;
+import org.apache.iotdb.tsfile.utils.BloomFilter;
+import org.apache.iotdb.tsfile.utils.TsFileGeneratorForTest;
+import org.apache.iotdb.tsfile.write.TsFileWriter;
+import org.apache.iotdb.tsfile.write.record.TSRecord;
+import org.apache.iotdb.tsfile.write.record.datapoint.LongDataPoint;
+import org.apache.iotdb.tsfile.write.schema.MeasurementSchema;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.Collections;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class BloomFilterBlockIndexTest {
+
+  private static final int DEVICE_NUM = 10;
+  private static final int SENSOR_NUM = 3;
+  private static final int ROW_NUM = 10;
+
+  private final File file =
+      FSFactoryProducer.getFSFactory()
+          .getFile(TsFileGeneratorForTest.getTestTsFilePath("root.sg", 0, 0, 1));
+
+  private final TSFileConfig config = TSFileDescriptor.getInstance().getConfig();
+  private int bloomFilterBlockSeriesNum;
+
+  @Before
+  public void setUp() {
+    bloomFilterBlockSeriesNum = config.getBloomFilterBlockSeriesNum();
+    if (!file.getParentFile().exists()) {
+      assertTrue(file.getParentFile().mkdirs());
+    }
+  }
+
+  @After
+  public void tearDown() throws IOException {
+    config.setBloomFilterBlockSeriesNum(bloomFilterBlockSeriesNum);
+    Files.deleteIfExists(file.toPath());
+  }
+
+  private void writeFile(int blockSeriesNum) throws Exception {
+    config.setBloomFilterBlockSeriesNum(blockSeriesNum);
+    try (TsFileWriter writer = new TsFileWriter(file)) {
+      for (int d = 0; d < DEVICE_NUM; d++) {
+        for (int s = 0; s < SENSOR_NUM; s++) {
+          writer.registerTimeseries(
+              new Path(device(d)),
+              new MeasurementSchema("s" + s, TSDataType.INT64, TSEncoding.RLE));
+        }
+      }
+      for (int i = 0; i < ROW_NUM; i++) {
+        for (int d = 0; d < DEVICE_NUM; d++) {
+          TSRecord record = new TSRecord(i, device(d));
+          for (int s = 0; s < SENSOR_NUM; s++) {
+            record.addTuple(new LongDataPoint("s" + s, i * s));
+          }
+          writer.write(record);
+        }
+      }
+    }
+  }
+
+  private static String device(int index) {
+    return "root.sg.d" + index;
+  }
+
+  @Test
+  public void testBlockedBloomFilter() throws Exception {
+    writeFile(4);
+    try (TsFileSequenceReader reader = new TsFileSequenceReader(file.getPath())) {
+      TsFileMetadata fileMetadata = reader.readFileMetadata();
+      BloomFilterBlockIndex blockIndex = fileMetadata.getBloomFilterBlockIndex();
+      assertNotNull(blockIndex);
+      int blockNum = (DEVICE_NUM * SENSOR_NUM + 3) / 4;
+      assertEquals(blockNum, blockIndex.getBlockNum());
+      // the blocks are written right before the file metadata
+      assertEquals(
+          reader.getFileMetadataPos(),
+          blockIndex.getBlockOffset(blockNum - 1) + blockIndex.getBlockSize(blockNum - 1));
+      // the bloom filter of the whole file never filters a path out for older readers
+      assertEquals(0, fileMetadata.getBloomFilter().getHashFunctionSize());
+      assertTrue(fileMetadata.getBloomFilter().contains("root.sg.d100.s0"));
+
+      for (int d = 0; d < DEVICE_NUM; d++) {
+        BloomFilter bloomFilter = reader.readBloomFilter(device(d));
+        assertEquals(
+            reader.readBloomFilterBlock(reader.getBloomFilterBlockIndex(device(d))), bloomFilter);
+        assertTrue(bloomFilter.getHashFunctionSize() > 0);
+        for (int s = 0; s < SENSOR_NUM; s++) {
+          assertTrue(bloomFilter.contains(new Path(device(d), "s" + s).getFullPath()));
+        }
+      }
+    }
+
+    try (TsFileSequenceReader reader = new TsFileSequenceReader(file.getPath());
+        TsFileReader tsFileReader = new TsFileReader(reader)) {
+      QueryDataSet dataSet =
+          tsFileReader.query(
+              QueryExpression.create(
+                  Collections.singletonList(new Path(device(DEVICE_NUM - 1), "s2")), null));
+      int count = 0;
+      while (dataSet.hasNext()) {
+        assertEquals(count * 2, dataSet.next().getFields().get(0).getLongV());
+        count++;
+      }
+      assertEquals(ROW_NUM, count);
+    }
+  }
+
+  @Test
+  public void testWholeFileBloomFilter() throws Exception {
+    writeFile(DEVICE_NUM * SENSOR_NUM);
+    try (TsFileSequenceReader reader = new TsFileSequenceReader(file.getPath())) {
+      assertNull(reader.readFileMetadata().getBloomFilterBlockIndex());
+      assertEquals(-1, reader.getBloomFilterBlockIndex(device(0)));
+      BloomFilter bloomFilter = reader.readBloomFilter();
+      assertEquals(bloomFilter, reader.readBloomFilter(device(0)));
+      for (int d = 0; d < DEVICE_NUM; d++) {
+        for (int s = 0; s < SENSOR_NUM; s++) {
+          assertTrue(bloomFilter.contains(new Path(device(d), "s" + s).getFullPath()));
+        }
+      }
+    }
+  }
+}
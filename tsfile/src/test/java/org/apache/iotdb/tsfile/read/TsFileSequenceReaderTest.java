@@ -25,6 +25,7 @@ import org.apache.iotdb.tsfile.file.header.ChunkGroupHeader;
 import org.apache.iotdb.tsfile.file.header.ChunkHeader;
 import org.apache.iotdb.tsfile.file.header.PageHeader;
 import org.apache.iotdb.tsfile.file.metadata.ChunkMetadata;
+import org.apache.iotdb.tsfile.read.common.Chunk;
 import org.apache.iotdb.tsfile.utils.FileGenerator;
 import org.apache.iotdb.tsfile.utils.Pair;
 
@@ -36,6 +37,7 @@ import org.junit.Test;
 import java.io.IOException;
 import java.nio.ByteBuffer;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -125,4 +127,31 @@ public class TsFileSequenceReaderTest {
     Assert.assertTrue(reader.readChunkMetadataInDevice("d3").isEmpty());
     reader.close();
   }
+
+  @Test
+  public void testReadMemChunks() throws IOException {
+    try (TsFileSequenceReader reader = new TsFileSequenceReader(FILE_PATH)) {
+      List<ChunkMetadata> chunkMetadataList = new ArrayList<>();
+      for (String device : new String[] {"d1", "d2"}) {
+        reader.readChunkMetadataInDevice(device).values().forEach(chunkMetadataList::addAll);
+      }
+      // not in the order of offsets, and with a chunk read twice
+      Collections.reverse(chunkMetadataList);
+      chunkMetadataList.add(chunkMetadataList.get(0));
+
+      for (int maxCoalescedReadSize : new int[] {0, 100, 1000, Integer.MAX_VALUE}) {
+        List<Chunk> chunks = reader.readMemChunks(chunkMetadataList, maxCoalescedReadSize);
+        Assert.assertEquals(chunkMetadataList.size(), chunks.size());
+        for (int i = 0; i < chunks.size(); i++) {
+          Chunk expected = reader.readMemChunk(chunkMetadataList.get(i));
+          Chunk actual = chunks.get(i);
+          Assert.assertEquals(
+              expected.getHeader().getMeasurementID(), actual.getHeader().getMeasurementID());
+          Assert.assertEquals(
+              expected.getHeader().getSerializedSize(), actual.getHeader().getSerializedSize());
+          Assert.assertEquals(expected.getData(), actual.getData());
+        }
+      }
+    }
+  }
 }
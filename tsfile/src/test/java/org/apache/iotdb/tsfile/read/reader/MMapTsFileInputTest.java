@@ -0,0 +1,127 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.iotdb.tsfile.read.reader;
+
+import org.apache.iotdb.tsfile.file.metadata.ChunkMetadata;
+import org.apache.iotdb.tsfile.read.TsFileSequenceReader;
+import org.apache.iotdb.tsfile.read.common.BatchData;
+import org.apache.iotdb.tsfile.read.common.Chunk;
+import org.apache.iotdb.tsfile.read.reader.chunk.ChunkReader;
+import org.apache.iotdb.tsfile.utils.FileGenerator;
+
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Paths;
+import java.util.List;
+import java.util.Map;
+
+public class MMapTsFileInputTest {
+
+  private static final String FILE_PATH = FileGenerator.outputDataFile;
+
+  @Before
+  public void before() throws IOException {
+    FileGenerator.generateFile(1000, 100);
+  }
+
+  @After
+  public void after() {
+    FileGenerator.after();
+  }
+
+  @Test
+  public void testReadSameAsLocalInput() throws IOException {
+    try (TsFileSequenceReader localReader = new TsFileSequenceReader(FILE_PATH);
+        TsFileSequenceReader mmapReader =
+            new TsFileSequenceReader(new MMapTsFileInput(Paths.get(FILE_PATH)))) {
+      Assert.assertFalse(localReader.isMemoryMapped());
+      Assert.assertTrue(mmapReader.isMemoryMapped());
+      Assert.assertEquals(localReader.readTailMagic(), mmapReader.readTailMagic());
+      Assert.assertEquals(localReader.getAllDevices(), mmapReader.getAllDevices());
+
+      for (String device : localReader.getAllDevices()) {
+        Map<String, List<ChunkMetadata>> localMetadata =
+            localReader.readChunkMetadataInDevice(device);
+        Map<String, List<ChunkMetadata>> mmapMetadata =
+            mmapReader.readChunkMetadataInDevice(device);
+        Assert.assertEquals(localMetadata.keySet(), mmapMetadata.keySet());
+        for (Map.Entry<String, List<ChunkMetadata>> entry : localMetadata.entrySet()) {
+          for (ChunkMetadata chunkMetadata : entry.getValue()) {
+            Chunk localChunk = localReader.readMemChunk(chunkMetadata);
+            Chunk mmapChunk = mmapReader.readMemChunk(chunkMetadata);
+            Assert.assertFalse(mmapChunk.getData().hasArray());
+            Assert.assertEquals(localChunk.getData(), mmapChunk.getData());
+            assertSameData(
+                new ChunkReader(localChunk, null).nextPageData(),
+                new ChunkReader(mmapChunk, null).nextPageData());
+          }
+        }
+      }
+    }
+  }
+
+  @Test
+  public void testPositionAndMappedBytes() throws IOException {
+    long mappedBytesBefore = MMapTsFileInput.getTotalMappedBytes();
+    LocalTsFileInput localInput = new LocalTsFileInput(Paths.get(FILE_PATH));
+    MMapTsFileInput mmapInput = new MMapTsFileInput(Paths.get(FILE_PATH));
+    try {
+      Assert.assertEquals(localInput.size(), mmapInput.size());
+      Assert.assertEquals(
+          mappedBytesBefore + mmapInput.size(), MMapTsFileInput.getTotalMappedBytes());
+
+      ByteBuffer localBuffer = ByteBuffer.allocate(100);
+      ByteBuffer mmapBuffer = ByteBuffer.allocate(100);
+      localInput.position(10);
+      mmapInput.position(10);
+      Assert.assertEquals(localInput.read(localBuffer), mmapInput.read(mmapBuffer));
+      Assert.assertEquals(localInput.position(), mmapInput.position());
+      localBuffer.flip();
+      mmapBuffer.flip();
+      Assert.assertEquals(localBuffer, mmapBuffer);
+
+      ByteBuffer slice = mmapInput.slice(10, 100);
+      Assert.assertEquals(localBuffer, slice);
+      Assert.assertEquals(110, mmapInput.position());
+
+      // reading beyond the end of the file
+      Assert.assertEquals(-1, mmapInput.read(ByteBuffer.allocate(1), mmapInput.size()));
+    } finally {
+      localInput.close();
+      mmapInput.close();
+    }
+    Assert.assertEquals(mappedBytesBefore, MMapTsFileInput.getTotalMappedBytes());
+  }
+
+  private void assertSameData(BatchData expected, BatchData actual) {
+    while (expected.hasCurrent()) {
+      Assert.assertTrue(actual.hasCurrent());
+      Assert.assertEquals(expected.currentTime(), actual.currentTime());
+      Assert.assertEquals(expected.currentValue(), actual.currentValue());
+      expected.next();
+      actual.next();
+    }
+    Assert.assertFalse(actual.hasCurrent());
+  }
+}
@@ -0,0 +1,196 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.iotdb.tsfile.read.reader;
+
+import org.apache.iotdb.tsfile.common.conf.TSFileConfig;
+import org.apache.iotdb.tsfile.common.conf.TSFileDescriptor;
+import org.apache.iotdb.tsfile.file.metadata.ChunkMetadata;
+import org.apache.iotdb.tsfile.file.metadata.PageValueIndex;
+import org.apache.iotdb.tsfile.file.metadata.enums.CompressionType;
+import org.apache.iotdb.tsfile.file.metadata.enums.TSDataType;
+import org.apache.iotdb.tsfile.file.metadata.enums.TSEncoding;
+import org.apache.iotdb.tsfile.fileSystem.FSFactoryProducer;
+import org.apache.iotdb.tsfile.read.TsFileReader;
+import org.apache.iotdb.tsfile.read.TsFileSequenceReader;
+import org.apache.iotdb.tsfile.read.common.BatchData;
+import org.apache.iotdb.tsfile.read.common.Path;
+import org.apache.iotdb.tsfile.read.common.RowRecord;
+import org.apache.iotdb.tsfile.read.expression.QueryExpression;
+import org.apache.iotdb.tsfile.read.expression.impl.SingleSeriesExpression;
+import org.apache.iotdb.tsfile.read.filter.ValueFilter;
+import org.apache.iotdb.tsfile.read.filter.basic.Filter;
+import org.apache.iotdb.tsfile.read.query.dataset.QueryDataSet;
+import org.apache.iotdb.tsfile.read.reader.chunk.ChunkReader;
+import org.apache.iotdb.tsfile.utils.Binary;
+import org.apache.iotdb.tsfile.utils.TsFileGeneratorForTest;
+import org.apache.iotdb.tsfile.write.TsFileWriter;
+import org.apache.iotdb.tsfile.write.record.TSRecord;
+import org.apache.iotdb.tsfile.write.record.datapoint.LongDataPoint;
+import org.apache.iotdb.tsfile.write.record.datapoint.StringDataPoint;
+import org.apache.iotdb.tsfile.write.schema.MeasurementSchema;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class PageValueIndexTest {
+
+  private static final String DEVICE = "root.sg.d1";
+  private static final int PAGE_SIZE = 100;
+  private static final int PAGE_NUM = 10;
+
+  private final File file =
+      FSFactoryProducer.getFSFactory()
+          .getFile(TsFileGeneratorForTest.getTestTsFilePath("root.sg", 0, 0, 1));
+
+  private final TSFileConfig config = TSFileDescriptor.getInstance().getConfig();
+  private int maxNumberOfPointsInPage;
+
+  private final Path text = new Path(DEVICE, "text");
+  private final Path int64 = new Path(DEVICE, "int64");
+  private final Path noIndex = new Path(DEVICE, "noIndex");
+
+  @Before
+  public void setUp() throws Exception {
+    maxNumberOfPointsInPage = config.getMaxNumberOfPointsInPage();
+    config.setMaxNumberOfPointsInPage(PAGE_SIZE);
+    if (!file.getParentFile().exists()) {
+      assertTrue(file.getParentFile().mkdirs());
+    }
+    try (TsFileWriter writer = new TsFileWriter(file)) {
+      writer.registerTimeseries(
+          new Path(DEVICE),
+          new MeasurementSchema(
+              text.getMeasurement(),
+              TSDataType.TEXT,
+              TSEncoding.PLAIN,
+              CompressionType.GZIP,
+              Collections.singletonMap(PageValueIndex.PAGE_BLOOM_FILTER, "true")));
+      writer.registerTimeseries(
+          new Path(DEVICE),
+          new MeasurementSchema(
+              int64.getMeasurement(),
+              TSDataType.INT64,
+              TSEncoding.RLE,
+              CompressionType.UNCOMPRESSED,
+              Collections.singletonMap(PageValueIndex.PAGE_BLOOM_FILTER, "true")));
+      writer.registerTimeseries(
+          new Path(DEVICE),
+          new MeasurementSchema(noIndex.getMeasurement(), TSDataType.INT64, TSEncoding.RLE));
+      for (int i = 0; i < PAGE_SIZE * PAGE_NUM; i++) {
+        TSRecord record = new TSRecord(i, DEVICE);
+        // each page of text has a single distinct value, which is not ordered among pages
+        record.addTuple(new StringDataPoint(text.getMeasurement(), textValue(i)));
+        record.addTuple(new LongDataPoint(int64.getMeasurement(), longValue(i)));
+        record.addTuple(new LongDataPoint(noIndex.getMeasurement(), longValue(i)));
+        writer.write(record);
+      }
+    }
+  }
+
+  @After
+  public void tearDown() throws IOException {
+    config.setMaxNumberOfPointsInPage(maxNumberOfPointsInPage);
+    Files.deleteIfExists(file.toPath());
+  }
+
+  private static Binary textValue(int row) {
+    return new Binary("v" + (row / PAGE_SIZE * 7 % PAGE_NUM));
+  }
+
+  private static long longValue(int row) {
+    // the values of different pages interleave, so statistics can not skip any page
+    return (row % PAGE_SIZE) * PAGE_NUM + row / PAGE_SIZE;
+  }
+
+  @Test
+  public void testPageValueIndex() throws IOException {
+    try (TsFileSequenceReader reader = new TsFileSequenceReader(file.getPath())) {
+      ChunkMetadata textMetadata = reader.getChunkMetadataList(text).get(0);
+      assertEquals(PAGE_NUM, textMetadata.getPageValueIndex().getPageNum());
+      ChunkMetadata int64Metadata = reader.getChunkMetadataList(int64).get(0);
+      assertEquals(PAGE_NUM, int64Metadata.getPageValueIndex().getPageNum());
+      assertNull(reader.getChunkMetadataList(noIndex).get(0).getPageValueIndex());
+
+      int row = 3 * PAGE_SIZE;
+      assertPages(reader, textMetadata, ValueFilter.eq(textValue(row)), row / PAGE_SIZE);
+      assertPages(reader, int64Metadata, ValueFilter.eq(longValue(row)), row / PAGE_SIZE);
+      assertPages(
+          reader,
+          textMetadata,
+          ValueFilter.in(new HashSet<>(Arrays.asList(textValue(row), textValue(0))), false),
+          0,
+          row / PAGE_SIZE);
+      assertPages(reader, textMetadata, ValueFilter.eq(new Binary("absent")));
+    }
+  }
+
+  private static void assertPages(
+      TsFileSequenceReader reader, ChunkMetadata chunkMetadata, Filter filter, int... pages)
+      throws IOException {
+    ChunkReader chunkReader = new ChunkReader(reader.readMemChunk(chunkMetadata), filter);
+    List<IPageReader> pageReaders = chunkReader.loadPageReaderList();
+    assertEquals(pages.length, pageReaders.size());
+    for (int i = 0; i < pages.length; i++) {
+      BatchData batchData = pageReaders.get(i).getAllSatisfiedPageData();
+      assertEquals(pages[i] * PAGE_SIZE, batchData.getMinTimestamp());
+    }
+  }
+
+  @Test
+  public void testQuery() throws IOException {
+    try (TsFileReader reader = new TsFileReader(new TsFileSequenceReader(file.getPath()))) {
+      int row = 5 * PAGE_SIZE + 17;
+      assertQuery(reader, text, ValueFilter.eq(textValue(row)), PAGE_SIZE);
+      assertQuery(reader, int64, ValueFilter.eq(longValue(row)), 1);
+      assertQuery(reader, noIndex, ValueFilter.eq(longValue(row)), 1);
+      assertQuery(reader, text, ValueFilter.eq(new Binary("absent")), 0);
+      assertQuery(reader, int64, ValueFilter.eq(-1L), 0);
+    }
+  }
+
+  private static void assertQuery(TsFileReader reader, Path path, Filter filter, int expected)
+      throws IOException {
+    QueryDataSet dataSet =
+        reader.query(
+            QueryExpression.create()
+                .addSelectedPath(path)
+                .setExpression(new SingleSeriesExpression(path, filter)));
+    int count = 0;
+    while (dataSet.hasNext()) {
+      RowRecord record = dataSet.next();
+      assertNotNull(record.getFields().get(0));
+      count++;
+    }
+    assertEquals(expected, count);
+  }
+}
@@ -0,0 +1,129 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.iotdb.tsfile.utils;
+
+import org.apache.iotdb.tsfile.read.filter.TimeFilter;
+import org.apache.iotdb.tsfile.read.filter.ValueFilter;
+import org.apache.iotdb.tsfile.read.filter.factory.FilterFactory;
+
+import org.junit.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.HashSet;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class ValueBloomFilterTest {
+
+  @Test
+  public void testNoFalseNegative() {
+    ValueBloomFilterBuilder builder = new ValueBloomFilterBuilder(0.05);
+    for (long i = 0; i < 1000; i++) {
+      builder.add(i * 7);
+      // repeated values are counted once
+      builder.add(i * 7);
+    }
+    ValueBloomFilter filter = builder.build();
+    int falsePositives = 0;
+    for (long i = 0; i < 7000; i++) {
+      boolean contained = filter.mightContain(ValueBloomFilter.hash(i));
+      if (i % 7 == 0) {
+        assertTrue(contained);
+      } else if (contained) {
+        falsePositives++;
+      }
+    }
+    assertTrue(falsePositives < 6000 * 0.1);
+  }
+
+  @Test
+  public void testTypes() {
+    ValueBloomFilterBuilder builder = new ValueBloomFilterBuilder(0.01);
+    builder.add(0);
+    builder.add(1.5f);
+    builder.add(2.5d);
+    builder.add(new Binary("s1"));
+    ValueBloomFilter filter = builder.build();
+    assertTrue(filter.mightContain((Object) 0));
+    assertTrue(filter.mightContain((Object) 1.5f));
+    assertTrue(filter.mightContain((Object) 2.5d));
+    assertTrue(filter.mightContain(new Binary("s1")));
+    assertFalse(filter.mightContain(new Binary("s2")));
+    // values of unsupported types may always be contained
+    assertTrue(filter.mightContain((Object) true));
+  }
+
+  @Test
+  public void testSerialize() throws IOException {
+    ValueBloomFilterBuilder builder = new ValueBloomFilterBuilder(0.05);
+    for (int i = 0; i < 100; i++) {
+      builder.add(new Binary("value" + i));
+    }
+    ValueBloomFilter filter = builder.build();
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    assertEquals(filter.getSerializedSize(), filter.serialize(out));
+    ValueBloomFilter deserialized =
+        ValueBloomFilter.deserialize(ByteBuffer.wrap(out.toByteArray()));
+    assertEquals(filter, deserialized);
+    for (int i = 0; i < 100; i++) {
+      assertTrue(deserialized.mightContain(new Binary("value" + i)));
+    }
+  }
+
+  @Test
+  public void testTooManyDistinctValues() {
+    ValueBloomFilterBuilder builder = new ValueBloomFilterBuilder(0.05);
+    assertNull(builder.build());
+    for (int i = 0; i <= ValueBloomFilterBuilder.MAX_DISTINCT_VALUE_NUM; i++) {
+      builder.add(i);
+    }
+    assertNull(builder.build());
+    builder.reset();
+    builder.add(1);
+    assertTrue(builder.build().mightContain((Object) 1));
+  }
+
+  @Test
+  public void testFilter() {
+    ValueBloomFilterBuilder builder = new ValueBloomFilterBuilder(0.01);
+    builder.add(new Binary("a"));
+    builder.add(new Binary("b"));
+    ValueBloomFilter filter = builder.build();
+    Binary a = new Binary("a");
+    Binary c = new Binary("c");
+    Binary d = new Binary("d");
+
+    assertTrue(ValueFilter.eq(a).satisfy(filter));
+    assertFalse(ValueFilter.eq(c).satisfy(filter));
+    assertTrue(ValueFilter.in(new HashSet<>(Arrays.asList(a, c)), false).satisfy(filter));
+    assertFalse(ValueFilter.in(new HashSet<>(Arrays.asList(c, d)), false).satisfy(filter));
+    assertTrue(ValueFilter.in(new HashSet<>(Arrays.asList(c, d)), true).satisfy(filter));
+    assertTrue(ValueFilter.notEq(c).satisfy(filter));
+    assertTrue(TimeFilter.eq(100L).satisfy(filter));
+    assertFalse(FilterFactory.and(TimeFilter.gt(100L), ValueFilter.eq(c)).satisfy(filter));
+    assertTrue(FilterFactory.or(ValueFilter.eq(a), ValueFilter.eq(c)).satisfy(filter));
+    assertFalse(FilterFactory.or(ValueFilter.eq(d), ValueFilter.eq(c)).satisfy(filter));
+  }
+}
@@ -34,6 +34,7 @@ import org.junit.Test;
 
 import java.io.File;
 import java.io.IOException;
+import java.nio.file.Files;
 import java.util.ArrayList;
 import java.util.List;
 
@@ -324,4 +325,44 @@ public class TsFileWriteApiTest {
       }
     }
   }
+
+  @Test
+  public void writeWithSpilledChunkMetadata() throws IOException, WriteProcessException {
+    setEnv(1, 10 * 1024);
+    File spilled = FSFactoryProducer.getFSFactory().getFile("TsFileWriteTest.spilled.tsfile");
+    long prevBudget =
+        TSFileDescriptor.getInstance().getConfig().getChunkMetadataMemoryBudgetInByte();
+    try {
+      writeDevicesWithTablets(f);
+      // spill after each chunk group
+      TSFileDescriptor.getInstance().getConfig().setChunkMetadataMemoryBudgetInByte(1);
+      writeDevicesWithTablets(spilled);
+
+      Assert.assertFalse(new File(spilled.getPath() + ".cmt").exists());
+      Assert.assertArrayEquals(
+          Files.readAllBytes(f.toPath()), Files.readAllBytes(spilled.toPath()));
+    } finally {
+      TSFileDescriptor.getInstance().getConfig().setChunkMetadataMemoryBudgetInByte(prevBudget);
+      Files.deleteIfExists(spilled.toPath());
+    }
+  }
+
+  private void writeDevicesWithTablets(File file) throws IOException, WriteProcessException {
+    List<MeasurementSchema> schemas = new ArrayList<>();
+    schemas.add(new MeasurementSchema("s1", TSDataType.INT64, TSEncoding.PLAIN));
+    schemas.add(new MeasurementSchema("s2", TSDataType.INT64, TSEncoding.RLE));
+    try (TsFileWriter tsFileWriter = new TsFileWriter(file)) {
+      tsFileWriter.registerTimeseries(new Path("root.sg.d2"), schemas);
+      tsFileWriter.registerTimeseries(new Path("root.sg.d1"), schemas);
+      tsFileWriter.registerAlignedTimeseries(new Path("root.sg.d3"), schemas);
+      for (int i = 0; i < 10; i++) {
+        TsFileGeneratorForTest.writeWithTablet(
+            tsFileWriter, "root.sg.d2", schemas, 100, i * 100, i * 100, false);
+        TsFileGeneratorForTest.writeWithTablet(
+            tsFileWriter, "root.sg.d1", schemas, 100, i * 100, i * 100, false);
+        TsFileGeneratorForTest.writeWithTablet(
+            tsFileWriter, "root.sg.d3", schemas, 100, i * 100, i * 100, true);
+      }
+    }
+  }
 }